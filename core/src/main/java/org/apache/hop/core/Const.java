@@ -170,6 +170,17 @@ public class Const {
       description = "The variable which points to the alternative location for the Hop metadata.")
   public static final String HOP_METADATA_FOLDER = "HOP_METADATA_FOLDER";
 
+  /**
+   * The number of milliseconds the content of a JSON metadata file is cached before its timestamp
+   * is checked again.
+   */
+  @Variable(
+      value = "1000",
+      description =
+          "The number of milliseconds JSON metadata files are cached before checking if they changed. Local metadata folders are also watched, so changes there are usually noticed sooner, depending on how fast the platform reports them. Set to 0 to check for changes on every access and to a negative value to disable the cache.")
+  public static final String HOP_METADATA_CACHE_CHECK_INTERVAL =
+      "HOP_METADATA_CACHE_CHECK_INTERVAL";
+
   /** A comma separated list pointing to folders with JDBC drivers to add. */
   @Variable(
       scope = VariableScope.SYSTEM,
@@ -596,6 +607,28 @@ public class Const {
       description = "The maximum number of action results kept in memory for logging purposes.")
   public static final String HOP_MAX_ACTIONS_LOGGED = "HOP_MAX_ACTIONS_LOGGED";
 
+  /**
+   * A variable to configure the number of result rows kept in memory before they are written to a
+   * temporary file.
+   */
+  @Variable(
+      scope = VariableScope.SYSTEM,
+      value = "100000",
+      description =
+          "The number of result rows passed between workflow actions which are kept in memory. Beyond this number the rows are written to a temporary file. Set to a negative value to keep all result rows in memory. The Analytic Query transform uses the same threshold for the groups it keeps in full.")
+  public static final String HOP_RESULT_ROWS_SPILL_THRESHOLD = "HOP_RESULT_ROWS_SPILL_THRESHOLD";
+
+  /**
+   * A variable to configure the maximum number of actions running in parallel in this JVM in
+   * workflows executed as a graph of actions.
+   */
+  @Variable(
+      scope = VariableScope.SYSTEM,
+      description =
+          "The maximum number of actions running in parallel on this server in workflows executed as a graph of actions. Every workflow can always run one action on top of this limit. Leave empty or set to 0 for no limit.")
+  public static final String HOP_WORKFLOW_MAX_PARALLEL_ACTIONS =
+      "HOP_WORKFLOW_MAX_PARALLEL_ACTIONS";
+
   /**
    * A variable to configure the maximum number of logging registry entries kept in memory for
    * logging purposes.
@@ -633,6 +666,18 @@ public class Const {
       description = "The variable which points to the alternative location for plugins.")
   public static final String HOP_PLUGIN_BASE_FOLDERS = "HOP_PLUGIN_BASE_FOLDERS";
 
+  /**
+   * Name of the variable with the file in which the plugins found are saved to speed up the next
+   * start.
+   */
+  @Variable(
+      scope = VariableScope.SYSTEM,
+      description =
+          "The file in which the plugins found are saved. The next start registers the plugins from"
+              + " this file as long as the plugin folders and jar files didn't change. Leave empty"
+              + " to always search the plugins.")
+  public static final String HOP_PLUGIN_REGISTRY_SNAPSHOT = "HOP_PLUGIN_REGISTRY_SNAPSHOT";
+
   /**
    * Name of the environment variable that contains the size of the pipeline rowset size. This
    * overwrites values that you set pipeline settings.
@@ -697,6 +742,23 @@ public class Const {
           "This project variable is used by the Text File Output transform. It defines the max number of simultaneously open files within the transform. The transform will close/reopen files as necessary to insure the max is not exceeded")
   public static final String HOP_FILE_OUTPUT_MAX_STREAM_COUNT = "HOP_FILE_OUTPUT_MAX_STREAM_COUNT";
 
+  /**
+   * The number of worker threads used by the compression providers that support parallel block
+   * compression (GZip, Zstd). A value of 1 or less compresses on the writing thread.
+   */
+  @Variable(
+      value = "1",
+      description =
+          "The number of worker threads used by the GZip and Zstd compression providers to compress independent blocks in parallel. A value of 1 or less compresses on the writing thread.")
+  public static final String HOP_COMPRESSION_THREADS = "HOP_COMPRESSION_THREADS";
+
+  /** The size in bytes of the independently compressed blocks when parallel compression is used */
+  @Variable(
+      value = "1048576",
+      description =
+          "The size in bytes of the independently compressed blocks when parallel compression is used (HOP_COMPRESSION_THREADS > 1).")
+  public static final String HOP_COMPRESSION_BLOCK_SIZE = "HOP_COMPRESSION_BLOCK_SIZE";
+
   /**
    * This variable contains the number of milliseconds between flushes of all open files in the Text
    * File Output transform.
@@ -707,6 +769,15 @@ public class Const {
           "This project variable is used by the Text File Output transform. It defines the max number of milliseconds between flushes of files opened by the transform.")
   public static final String HOP_FILE_OUTPUT_MAX_STREAM_LIFE = "HOP_FILE_OUTPUT_MAX_STREAM_LIFE";
 
+  /**
+   * The size in bytes of the output buffer of every file opened by the Text File Output transform
+   */
+  @Variable(
+      value = "1048576",
+      description =
+          "This project variable is used by the Text File Output transform. It defines the size in bytes of the output buffer of every open file. When the file name is taken from a field the buffer is limited to 64KB.")
+  public static final String HOP_FILE_OUTPUT_BUFFER_SIZE = "HOP_FILE_OUTPUT_BUFFER_SIZE";
+
   /** Set this variable to Y to disable standard Hop logging to the console. (stdout) */
   @Variable(
       value = "N",
@@ -105,7 +105,10 @@ public class Result implements Cloneable {
   /** The exit status. */
   private int exitStatus;
 
-  /** The rows resulting from the pipeline or workflow execution */
+  /**
+   * The rows resulting from the pipeline or workflow execution. By default these are kept in a
+   * {@link SpillableRowList} which writes large numbers of rows to disk.
+   */
   private List<RowMetaAndData> rows;
 
   /** The result files. */
@@ -155,7 +158,7 @@ public class Result implements Cloneable {
     result = false;
 
     exitStatus = 0;
-    rows = new ArrayList<>();
+    rows = new SpillableRowList();
     resultFiles = new ConcurrentHashMap<>();
 
     stopped = false;
@@ -209,8 +212,11 @@ public class Result implements Cloneable {
       Result result = (Result) super.clone();
 
       // Clone result rows and files as well...
-      if (rows != null) {
-        List<RowMetaAndData> clonedRows = new ArrayList<>();
+      if (rows instanceof SpillableRowList spillableRows) {
+        // Rows spilled to disk are shared, not written again
+        result.setRows(spillableRows.copy());
+      } else if (rows != null) {
+        List<RowMetaAndData> clonedRows = new SpillableRowList();
         for (RowMetaAndData row : rows) {
           clonedRows.add(row.clone());
         }
@@ -273,7 +279,7 @@ public class Result implements Cloneable {
       // branches in workflow starts), we empty rows' list because in
       // this case it is needed a Result without any row to start the execution
       // from a clean rows' state
-      this.rows = new ArrayList<>();
+      this.rows = new SpillableRowList();
     }
   }
 
@@ -0,0 +1,470 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.util.EnvUtil;
+
+/**
+ * A list of rows which is kept in memory up to a threshold. Once the list grows beyond the
+ * threshold all rows are written to a temporary file in the binary format of {@link
+ * IRowMeta#writeData(DataOutputStream, Object[])}. Iterating over a spilled list streams the rows
+ * from disk, so only the row metadata and one offset per row are kept in memory.
+ *
+ * <p>Rows read back from disk are new objects: changing them doesn't change the rows in the list.
+ * That's why a {@link #copy()} of a spilled list shares the temporary file instead of writing the
+ * rows again. The file is removed when no list uses it anymore, after they are cleared or garbage
+ * collected. A list which shares its file gets a file of its own when rows are added.
+ *
+ * <p>Like {@link ArrayList} this list can't be changed from several threads at the same time.
+ * Reading rows from several threads at the same time is possible.
+ *
+ * <p>The threshold is set with the system property {@link Const#HOP_RESULT_ROWS_SPILL_THRESHOLD}.
+ */
+public class SpillableRowList extends AbstractList<RowMetaAndData> {
+
+  public static final int DEFAULT_SPILL_THRESHOLD = 100000;
+
+  private static final Cleaner cleaner = Cleaner.create();
+
+  private final int threshold;
+
+  /** The rows as long as the list isn't spilled to disk */
+  private List<RowMetaAndData> memoryRows;
+
+  /** The distinct row layouts of the spilled rows */
+  private final List<IRowMeta> rowMetas;
+
+  /** The row metadata of the last spilled row and its index in rowMetas */
+  private IRowMeta lastRowMeta;
+
+  private int lastRowMetaIndex;
+
+  private SpillFile spillFile;
+  private Cleaner.Cleanable cleanable;
+  private long[] offsets;
+  private int size;
+
+  /** The position in the file after the last row of this list */
+  private long end;
+
+  /** The temporary file with the rows of one or more lists */
+  private static final class SpillFile {
+    private final File file;
+    private final CountingOutputStream counter;
+    private final DataOutputStream outputStream;
+    private final FileChannel readChannel;
+    private final List<DataInputStream> inputStreams = new ArrayList<>();
+    private long flushed;
+    private int references;
+
+    private SpillFile() throws IOException {
+      file = File.createTempFile("hop-result-rows-", ".tmp");
+      file.deleteOnExit();
+      counter = new CountingOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+      outputStream = new DataOutputStream(counter);
+      readChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    }
+
+    /** Make the written rows visible for reading */
+    private synchronized void flush() throws IOException {
+      if (flushed < counter.count) {
+        outputStream.flush();
+        flushed = counter.count;
+      }
+    }
+
+    /** Read bytes at a position. Positional reads don't move a shared file position. */
+    private byte[] read(long position, int length) throws IOException {
+      flush();
+      ByteBuffer buffer = ByteBuffer.allocate(length);
+      while (buffer.hasRemaining()) {
+        if (readChannel.read(buffer, position + buffer.position()) < 0) {
+          throw new EOFException("Unexpected end of " + file);
+        }
+      }
+      return buffer.array();
+    }
+
+    /** Write the first bytes of this file to another one */
+    private void copyTo(SpillFile target, long length) throws IOException {
+      byte[] bytes = new byte[65536];
+      for (long position = 0; position < length; position += bytes.length) {
+        byte[] chunk = read(position, (int) Math.min(bytes.length, length - position));
+        target.outputStream.write(chunk);
+      }
+    }
+
+    private synchronized DataInputStream openInputStream(long offset) throws IOException {
+      flush();
+      FileInputStream fileInputStream = new FileInputStream(file);
+      fileInputStream.getChannel().position(offset);
+      DataInputStream inputStream =
+          new DataInputStream(new BufferedInputStream(fileInputStream, 65536));
+      inputStreams.add(inputStream);
+      return inputStream;
+    }
+
+    private synchronized void closeInputStream(DataInputStream inputStream) {
+      inputStreams.remove(inputStream);
+      try {
+        inputStream.close();
+      } catch (IOException e) {
+        // Ignore
+      }
+    }
+
+    private synchronized void acquire() {
+      references++;
+    }
+
+    private synchronized boolean isShared() {
+      return references > 1;
+    }
+
+    /** Remove the file when the last list stops using it */
+    private synchronized void release() {
+      if (--references > 0) {
+        return;
+      }
+      for (DataInputStream inputStream : new ArrayList<>(inputStreams)) {
+        closeInputStream(inputStream);
+      }
+      try {
+        outputStream.close();
+        readChannel.close();
+      } catch (IOException e) {
+        // Ignore
+      }
+      if (!file.delete()) {
+        file.deleteOnExit();
+      }
+    }
+  }
+
+  /**
+   * Stops a list from using its file when it's cleared or garbage collected. It doesn't refer to
+   * the list so it can be collected.
+   */
+  private static final class Release implements Runnable {
+    private final SpillFile spillFile;
+
+    private Release(SpillFile spillFile) {
+      this.spillFile = spillFile;
+    }
+
+    @Override
+    public void run() {
+      spillFile.release();
+    }
+  }
+
+  /** Keeps track of the file position without the 2GB limit of DataOutputStream.size() */
+  private static final class CountingOutputStream extends FilterOutputStream {
+    private long count;
+
+    private CountingOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b);
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+      count += len;
+    }
+  }
+
+  /** Create a list with the threshold of the system property or the default of 100000 rows. */
+  public SpillableRowList() {
+    this(
+        Const.toInt(
+            EnvUtil.getSystemProperty(Const.HOP_RESULT_ROWS_SPILL_THRESHOLD),
+            DEFAULT_SPILL_THRESHOLD));
+  }
+
+  /**
+   * @param threshold The number of rows to keep in memory before spilling to disk. Use a negative
+   *     value to keep all rows in memory.
+   */
+  public SpillableRowList(int threshold) {
+    this.threshold = threshold;
+    this.memoryRows = new ArrayList<>();
+    this.rowMetas = new ArrayList<>();
+  }
+
+  /**
+   * @param rows The rows to add to a new list
+   */
+  public SpillableRowList(List<RowMetaAndData> rows) {
+    this();
+    addAll(rows);
+  }
+
+  /**
+   * @return true if the rows of this list are stored in a temporary file
+   */
+  public boolean isSpilled() {
+    return spillFile != null;
+  }
+
+  /**
+   * Copy the list. The rows of a spilled list are not written again: the copy shares the temporary
+   * file. Rows kept in memory are cloned.
+   *
+   * @return A copy of this list with the same threshold
+   */
+  public SpillableRowList copy() {
+    SpillableRowList copy = new SpillableRowList(threshold);
+    if (!isSpilled()) {
+      for (RowMetaAndData row : memoryRows) {
+        copy.memoryRows.add(row.clone());
+      }
+      return copy;
+    }
+    copy.memoryRows = null;
+    copy.rowMetas.addAll(rowMetas);
+    copy.offsets = Arrays.copyOf(offsets, Math.max(16, size));
+    copy.size = size;
+    copy.end = end;
+    copy.use(spillFile);
+    return copy;
+  }
+
+  @Override
+  public int size() {
+    return isSpilled() ? size : memoryRows.size();
+  }
+
+  @Override
+  public boolean add(RowMetaAndData row) {
+    if (!isSpilled()) {
+      memoryRows.add(row);
+      modCount++;
+      if (threshold >= 0 && memoryRows.size() > threshold) {
+        spill();
+      }
+      return true;
+    }
+    write(row);
+    modCount++;
+    return true;
+  }
+
+  @Override
+  public void add(int index, RowMetaAndData row) {
+    if (index == size()) {
+      add(row);
+    } else if (!isSpilled()) {
+      memoryRows.add(index, row);
+      modCount++;
+    } else {
+      throw new UnsupportedOperationException("Rows can only be appended to spilled result rows");
+    }
+  }
+
+  @Override
+  public RowMetaAndData set(int index, RowMetaAndData row) {
+    if (isSpilled()) {
+      throw new UnsupportedOperationException("Spilled result rows can't be replaced");
+    }
+    return memoryRows.set(index, row);
+  }
+
+  @Override
+  public RowMetaAndData remove(int index) {
+    if (isSpilled()) {
+      throw new UnsupportedOperationException("Spilled result rows can't be removed");
+    }
+    modCount++;
+    return memoryRows.remove(index);
+  }
+
+  @Override
+  public void clear() {
+    if (cleanable != null) {
+      cleanable.clean();
+    }
+    spillFile = null;
+    cleanable = null;
+    offsets = null;
+    size = 0;
+    end = 0L;
+    rowMetas.clear();
+    lastRowMeta = null;
+    memoryRows = new ArrayList<>();
+    modCount++;
+  }
+
+  @Override
+  public RowMetaAndData get(int index) {
+    if (!isSpilled()) {
+      return memoryRows.get(index);
+    }
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+    }
+    try {
+      long offset = offsets[index];
+      long next = index + 1 < size ? offsets[index + 1] : end;
+      byte[] bytes = spillFile.read(offset, (int) (next - offset));
+      return read(new DataInputStream(new ByteArrayInputStream(bytes)));
+    } catch (Exception e) {
+      throw new RuntimeException("Error reading result row " + index + " from disk", e);
+    }
+  }
+
+  @Override
+  public Iterator<RowMetaAndData> iterator() {
+    if (!isSpilled()) {
+      return memoryRows.iterator();
+    }
+    final int rowCount = size;
+    final DataInputStream inputStream;
+    try {
+      inputStream = spillFile.openInputStream(0L);
+    } catch (IOException e) {
+      throw new RuntimeException("Error reading result rows from disk", e);
+    }
+    final SpillFile file = spillFile;
+    return new Iterator<>() {
+      private int next = 0;
+
+      @Override
+      public boolean hasNext() {
+        if (next < rowCount) {
+          return true;
+        }
+        file.closeInputStream(inputStream);
+        return false;
+      }
+
+      @Override
+      public RowMetaAndData next() {
+        if (next >= rowCount) {
+          throw new NoSuchElementException();
+        }
+        try {
+          RowMetaAndData row = read(inputStream);
+          next++;
+          if (next == rowCount) {
+            file.closeInputStream(inputStream);
+          }
+          return row;
+        } catch (Exception e) {
+          throw new RuntimeException("Error reading result row " + next + " from disk", e);
+        }
+      }
+    };
+  }
+
+  private void spill() {
+    try {
+      use(new SpillFile());
+      offsets = new long[Math.max(16, memoryRows.size() * 2)];
+      size = 0;
+      for (RowMetaAndData row : memoryRows) {
+        write(row);
+      }
+      memoryRows = null;
+    } catch (IOException e) {
+      throw new RuntimeException("Error writing result rows to disk", e);
+    }
+  }
+
+  private void use(SpillFile file) {
+    file.acquire();
+    spillFile = file;
+    cleanable = cleaner.register(this, new Release(file));
+  }
+
+  private void write(RowMetaAndData row) {
+    try {
+      // Rows are only appended to a file which isn't shared with a copy
+      //
+      if (spillFile.isShared()) {
+        SpillFile file = new SpillFile();
+        spillFile.copyTo(file, end);
+        cleanable.clean();
+        use(file);
+      }
+      if (size == offsets.length) {
+        offsets = Arrays.copyOf(offsets, size * 2);
+      }
+      offsets[size] = end;
+      DataOutputStream outputStream = spillFile.outputStream;
+      outputStream.writeInt(indexOfRowMeta(row.getRowMeta()));
+      row.getRowMeta().writeData(outputStream, row.getData());
+      end = spillFile.counter.count;
+      size++;
+    } catch (Exception e) {
+      throw new RuntimeException("Error writing result row " + size + " to disk", e);
+    }
+  }
+
+  private RowMetaAndData read(DataInputStream inputStream) throws Exception {
+    IRowMeta rowMeta = rowMetas.get(inputStream.readInt());
+    return new RowMetaAndData(rowMeta, rowMeta.readData(inputStream));
+  }
+
+  private int indexOfRowMeta(IRowMeta rowMeta) {
+    // Usually all rows have the same layout
+    //
+    if (rowMeta == lastRowMeta) {
+      return lastRowMetaIndex;
+    }
+    lastRowMeta = rowMeta;
+    for (int i = 0; i < rowMetas.size(); i++) {
+      IRowMeta other = rowMetas.get(i);
+      if (other.size() == rowMeta.size() && other.equals(rowMeta)) {
+        lastRowMetaIndex = i;
+        return i;
+      }
+    }
+    rowMetas.add(rowMeta.clone());
+    lastRowMetaIndex = rowMetas.size() - 1;
+    return lastRowMetaIndex;
+  }
+}
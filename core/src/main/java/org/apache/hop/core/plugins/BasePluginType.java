@@ -112,11 +112,25 @@ public abstract class BasePluginType<T extends Annotation> implements IPluginTyp
       watch.start();
     }
 
-    // Register natives plugins
-    registerNatives();
+    // Register the plugins from the plugin registry snapshot if it is still valid
+    //
+    PluginRegistrySnapshot snapshot = registry.getSnapshot();
+    if (snapshot == null || !snapshot.registerPlugins(this)) {
+      List<IPlugin> existing = registry.getPlugins(this.getClass());
+
+      // Register natives plugins
+      registerNatives();
+
+      // Register plugins from plugin folders
+      registerPluginJars();
 
-    // Register plugins from plugin folders
-    registerPluginJars();
+      if (snapshot != null) {
+        List<IPlugin> found = new ArrayList<>(registry.getPlugins(this.getClass()));
+        found.removeIf(existing::contains);
+        snapshot.record(this, found);
+        registry.saveSnapshot();
+      }
+    }
 
     if (log.isDebug()) {
       watch.stop();
@@ -86,6 +86,9 @@ public class PluginRegistry {
   private final Map<Class<? extends IPluginType>, Set<IPluginTypeListener>> listeners =
       new HashMap<>();
 
+  private PluginRegistrySnapshot snapshot;
+  private boolean initializing;
+
   private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
   private static final int WAIT_FOR_PLUGIN_TO_BE_AVAILABLE_LIMIT = 5;
 
@@ -515,8 +518,50 @@ public class PluginRegistry {
   public static synchronized void init() throws HopPluginException {
     final PluginRegistry registry = getInstance();
 
-    for (final IPluginType pluginType : pluginTypes) {
-      registry.registerType(pluginType);
+    String snapshotFile = EnvUtil.getSystemProperty(Const.HOP_PLUGIN_REGISTRY_SNAPSHOT);
+    if (registry.snapshot == null && !Utils.isEmpty(snapshotFile)) {
+      registry.snapshot = PluginRegistrySnapshot.load(snapshotFile);
+    }
+
+    registry.initializing = true;
+    try {
+      for (final IPluginType pluginType : pluginTypes) {
+        registry.registerType(pluginType);
+      }
+    } finally {
+      registry.initializing = false;
+    }
+    registry.saveSnapshot();
+  }
+
+  /**
+   * @return The plugin registry snapshot or null if no snapshot file is configured with {@link
+   *     Const#HOP_PLUGIN_REGISTRY_SNAPSHOT}
+   */
+  public PluginRegistrySnapshot getSnapshot() {
+    return snapshot;
+  }
+
+  /**
+   * @param snapshot The plugin registry snapshot to use or null to always search plugins
+   */
+  public void setSnapshot(PluginRegistrySnapshot snapshot) {
+    this.snapshot = snapshot;
+  }
+
+  /** Save the snapshot unless more plugin types are about to be searched. */
+  void saveSnapshot() {
+    if (snapshot != null && !initializing) {
+      snapshot.save();
+    }
+  }
+
+  String[] getParentClassLoaderPatterns(IPlugin plugin) {
+    lock.readLock().lock();
+    try {
+      return parentClassloaderPatternMap.get(plugin);
+    } finally {
+      lock.readLock().unlock();
     }
   }
 
@@ -1049,6 +1094,7 @@ public class PluginRegistry {
       inverseClassLoaderLookup.clear();
       parentClassloaderPatternMap.clear();
       listeners.clear();
+      snapshot = null;
       JarCache.getInstance().clear();
     } finally {
       lock.writeLock().unlock();
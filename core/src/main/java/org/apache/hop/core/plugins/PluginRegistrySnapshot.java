@@ -0,0 +1,540 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.plugins;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.lang.StringUtils;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.exception.HopPluginException;
+import org.apache.hop.core.logging.LogChannel;
+import org.apache.hop.core.util.EnvUtil;
+import org.apache.hop.i18n.GlobalMessageUtil;
+
+/**
+ * A snapshot of the plugins found by the plugin types, saved in a file. When the snapshot is still
+ * valid, the plugin types register the plugins from the snapshot instead of opening the annotation
+ * index of every jar file, creating a class loader for every plugin class and loading it to read
+ * its annotation. The class loaders of the plugins are then only created when a plugin is used.
+ *
+ * <p>The snapshot is valid as long as the plugin folders, the shared JDBC folders and the jar files
+ * with plugins on the class path have the same size and modification time as when the snapshot was
+ * saved. The snapshot is validated when a plugin type is first registered from it. Only the
+ * recorded folders and files are checked, no folder is listed and no jar file is opened.
+ *
+ * <p>The location of the snapshot file is set with the system property {@link
+ * Const#HOP_PLUGIN_REGISTRY_SNAPSHOT}.
+ */
+public class PluginRegistrySnapshot {
+  private static final int VERSION = 1;
+
+  private final Path file;
+  private final String contextKey;
+
+  /** The recorded folders and files: the path, the size (-1 for a folder) and modification time */
+  private final List<FileStamp> fileStamps;
+
+  /** The plugins per plugin type class name */
+  private final Map<String, List<PluginRecord>> typeRecords;
+
+  private Boolean valid;
+  private boolean changed;
+
+  private record FileStamp(String path, long size, long lastModified) {}
+
+  private record PluginRecord(
+      String[] ids,
+      String mainType,
+      String category,
+      String name,
+      String description,
+      String imageFile,
+      boolean separateClassLoaderNeeded,
+      String classLoaderGroup,
+      boolean nativePlugin,
+      Map<String, String> classMap,
+      List<String> libraries,
+      String errorHelpFile,
+      String[] keywords,
+      String pluginFolder,
+      boolean usingLibrariesOutsidePluginFolder,
+      String documentationUrl,
+      String casesUrl,
+      String forumUrl,
+      String suggestion,
+      boolean includeJdbcDrivers,
+      String[] parentFirstPatterns) {}
+
+  private PluginRegistrySnapshot(Path file) {
+    this.file = file;
+    this.contextKey = calculateContextKey();
+    this.fileStamps = new ArrayList<>();
+    this.typeRecords = new LinkedHashMap<>();
+  }
+
+  /**
+   * Read the snapshot from the given file in one go. If the file doesn't exist or can't be read, an
+   * empty snapshot is returned which is filled while the plugins are searched.
+   *
+   * @param filename The snapshot file
+   * @return The snapshot
+   */
+  public static PluginRegistrySnapshot load(String filename) {
+    PluginRegistrySnapshot snapshot = new PluginRegistrySnapshot(Paths.get(filename));
+    if (Files.exists(snapshot.file)) {
+      try {
+        snapshot.read(Files.readAllBytes(snapshot.file));
+      } catch (Exception e) {
+        LogChannel.GENERAL.logError(
+            "Unable to read plugin registry snapshot file '" + filename + "', searching plugins",
+            e);
+        snapshot.fileStamps.clear();
+        snapshot.typeRecords.clear();
+        snapshot.valid = false;
+      }
+    } else {
+      snapshot.valid = false;
+    }
+    return snapshot;
+  }
+
+  /**
+   * Register the plugins of the given plugin type from the snapshot.
+   *
+   * @param pluginType The plugin type
+   * @return true if the plugins were registered, false if the plugins need to be searched
+   */
+  public synchronized boolean registerPlugins(IPluginType pluginType) {
+    List<PluginRecord> records = typeRecords.get(pluginType.getClass().getName());
+    if (records == null || !isValid()) {
+      return false;
+    }
+
+    // Resolve everything before registering anything
+    //
+    ClassLoader classLoader = pluginType.getClass().getClassLoader();
+    List<Plugin> plugins = new ArrayList<>();
+    try {
+      for (PluginRecord pluginRecord : records) {
+        plugins.add(createPlugin(pluginType.getClass(), pluginRecord, classLoader));
+      }
+    } catch (Exception e) {
+      LogChannel.GENERAL.logDetailed(
+          "Unable to register plugins of type '"
+              + pluginType.getName()
+              + "' from the plugin registry snapshot: "
+              + e.getMessage());
+      typeRecords.remove(pluginType.getClass().getName());
+      changed = true;
+      return false;
+    }
+
+    PluginRegistry registry = PluginRegistry.getInstance();
+    try {
+      for (int i = 0; i < plugins.size(); i++) {
+        Plugin plugin = plugins.get(i);
+        String[] patterns = records.get(i).parentFirstPatterns();
+        if (patterns != null) {
+          registry.addParentClassLoaderPatterns(plugin, patterns);
+        }
+        registry.registerPlugin(pluginType.getClass(), plugin);
+      }
+    } catch (HopPluginException e) {
+      LogChannel.GENERAL.logError("Error registering plugin from the registry snapshot", e);
+    }
+    return true;
+  }
+
+  /**
+   * Record the plugins which were found by searching a plugin type.
+   *
+   * @param pluginType The plugin type
+   * @param plugins The plugins found
+   */
+  public synchronized void record(IPluginType pluginType, List<IPlugin> plugins) {
+    if (!isValid()) {
+      // Start over: everything needs to be recorded again with the current files
+      //
+      typeRecords.clear();
+      fileStamps.clear();
+      valid = true;
+    }
+    PluginRegistry registry = PluginRegistry.getInstance();
+    List<PluginRecord> records = new ArrayList<>();
+    for (IPlugin plugin : plugins) {
+      // Plugins which load their own classes can't be recorded
+      //
+      if (!(plugin instanceof Plugin)) {
+        return;
+      }
+      Map<String, String> classMap = new LinkedHashMap<>();
+      plugin.getClassMap().forEach((type, className) -> classMap.put(type.getName(), className));
+      records.add(
+          new PluginRecord(
+              plugin.getIds(),
+              plugin.getMainType() == null ? null : plugin.getMainType().getName(),
+              plugin.getCategory(),
+              plugin.getName(),
+              plugin.getDescription(),
+              plugin.getImageFile(),
+              plugin.isSeparateClassLoaderNeeded(),
+              plugin.getClassLoaderGroup(),
+              plugin.isNativePlugin(),
+              classMap,
+              new ArrayList<>(plugin.getLibraries()),
+              plugin.getErrorHelpFile(),
+              plugin.getKeywords(),
+              plugin.getPluginDirectory() == null ? null : plugin.getPluginDirectory().toString(),
+              plugin.isUsingLibrariesOutsidePluginFolder(),
+              plugin.getDocumentationUrl(),
+              plugin.getCasesUrl(),
+              plugin.getForumUrl(),
+              plugin.getSuggestion(),
+              plugin.isIncludeJdbcDrivers(),
+              registry.getParentClassLoaderPatterns(plugin)));
+    }
+    typeRecords.put(pluginType.getClass().getName(), records);
+    changed = true;
+  }
+
+  /** Save the snapshot if plugins were recorded since it was loaded. */
+  public synchronized void save() {
+    if (!changed) {
+      return;
+    }
+    try {
+      fileStamps.clear();
+      fileStamps.addAll(calculateFileStamps());
+
+      Path parent = file.toAbsolutePath().getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      Path tempFile = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+      Files.write(tempFile, write());
+      Files.move(
+          tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      changed = false;
+    } catch (Exception e) {
+      LogChannel.GENERAL.logError("Unable to save plugin registry snapshot file '" + file + "'", e);
+    }
+  }
+
+  /**
+   * @return true if the recorded folders and files didn't change
+   */
+  public synchronized boolean isValid() {
+    if (valid == null) {
+      valid = fileStamps.equals(stamp(fileStamps));
+      if (!valid) {
+        LogChannel.GENERAL.logDetailed(
+            "The plugin registry snapshot is out of date, searching plugins");
+      }
+    }
+    return valid;
+  }
+
+  private static Plugin createPlugin(
+      Class<? extends IPluginType> pluginType, PluginRecord pluginRecord, ClassLoader classLoader)
+      throws Exception {
+    Map<Class<?>, String> classMap = new HashMap<>();
+    for (Map.Entry<String, String> entry : pluginRecord.classMap().entrySet()) {
+      classMap.put(Class.forName(entry.getKey(), false, classLoader), entry.getValue());
+    }
+    Class<?> mainType =
+        pluginRecord.mainType() == null
+            ? null
+            : Class.forName(pluginRecord.mainType(), false, classLoader);
+    Plugin plugin =
+        new Plugin(
+            pluginRecord.ids(),
+            pluginType,
+            mainType,
+            pluginRecord.category(),
+            pluginRecord.name(),
+            pluginRecord.description(),
+            pluginRecord.imageFile(),
+            pluginRecord.separateClassLoaderNeeded(),
+            pluginRecord.classLoaderGroup(),
+            pluginRecord.nativePlugin(),
+            classMap,
+            new ArrayList<>(pluginRecord.libraries()),
+            pluginRecord.errorHelpFile(),
+            pluginRecord.keywords(),
+            pluginRecord.pluginFolder() == null ? null : new URL(pluginRecord.pluginFolder()),
+            pluginRecord.usingLibrariesOutsidePluginFolder(),
+            null,
+            pluginRecord.casesUrl(),
+            pluginRecord.forumUrl(),
+            pluginRecord.suggestion(),
+            pluginRecord.includeJdbcDrivers());
+    plugin.setDocumentationUrl(pluginRecord.documentationUrl());
+    return plugin;
+  }
+
+  /**
+   * The settings which change the outcome of the plugin search without changing any file: the
+   * folders, the class path and the language of the translated names.
+   */
+  private static String calculateContextKey() {
+    return String.join(
+        "|",
+        Integer.toString(VERSION),
+        System.getProperty("user.dir", ""),
+        System.getProperty("java.class.path", ""),
+        String.join(",", JarCache.getInstance().getPluginFolders()),
+        Const.NVL(EnvUtil.getSystemProperty(Const.HOP_SHARED_JDBC_FOLDERS), ""),
+        GlobalMessageUtil.getActiveLocales().toString());
+  }
+
+  /** Record the folders and jar files which determine which plugins are found. */
+  private static List<FileStamp> calculateFileStamps() throws IOException {
+    List<File> files = new ArrayList<>();
+    for (String pluginFolder : JarCache.getInstance().getPluginFolders()) {
+      addFiles(files, new File(pluginFolder));
+    }
+    String jdbcFolders = Const.NVL(EnvUtil.getSystemProperty(Const.HOP_SHARED_JDBC_FOLDERS), "");
+    for (String jdbcFolder : jdbcFolders.split(",")) {
+      if (StringUtils.isNotEmpty(jdbcFolder)) {
+        addFiles(files, new File(jdbcFolder.trim()));
+      }
+    }
+
+    // The jar files (or folders) on the class path with native plugins
+    //
+    Enumeration<URL> indexFiles =
+        PluginRegistrySnapshot.class
+            .getClassLoader()
+            .getResources(JarCache.ANNOTATION_INDEX_LOCATION);
+    while (indexFiles.hasMoreElements()) {
+      URL url = indexFiles.nextElement();
+      String path = url.getFile();
+      if ("jar".equals(url.getProtocol())) {
+        path = new URL(StringUtils.substringBefore(path, "!/")).getFile();
+      }
+      files.add(new File(java.net.URLDecoder.decode(path, StandardCharsets.UTF_8)));
+    }
+
+    List<FileStamp> stamps = new ArrayList<>();
+    for (File f : files) {
+      stamps.add(
+          new FileStamp(f.getAbsolutePath(), f.isDirectory() ? -1L : f.length(), f.lastModified()));
+    }
+    return stamps;
+  }
+
+  private static void addFiles(List<File> files, File folder) {
+    files.add(folder);
+    File[] children = folder.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        if (child.isDirectory()) {
+          addFiles(files, child);
+        } else if (child.getName().endsWith(".jar") || child.getName().endsWith(".xml")) {
+          files.add(child);
+        }
+      }
+    }
+  }
+
+  /** Check the recorded folders and files again */
+  private static List<FileStamp> stamp(List<FileStamp> stamps) {
+    List<FileStamp> current = new ArrayList<>();
+    for (FileStamp stamp : stamps) {
+      File f = new File(stamp.path());
+      current.add(
+          new FileStamp(stamp.path(), f.isDirectory() ? -1L : f.length(), f.lastModified()));
+    }
+    return current;
+  }
+
+  private void read(byte[] bytes) throws IOException {
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+    if (in.readInt() != VERSION || !contextKey.equals(readString(in))) {
+      valid = false;
+      return;
+    }
+    int nrStamps = in.readInt();
+    for (int i = 0; i < nrStamps; i++) {
+      fileStamps.add(new FileStamp(readString(in), in.readLong(), in.readLong()));
+    }
+    int nrTypes = in.readInt();
+    for (int t = 0; t < nrTypes; t++) {
+      String typeName = readString(in);
+      int nrPlugins = in.readInt();
+      List<PluginRecord> records = new ArrayList<>(nrPlugins);
+      for (int p = 0; p < nrPlugins; p++) {
+        String[] ids = readStrings(in);
+        String mainType = readString(in);
+        String category = readString(in);
+        String name = readString(in);
+        String description = readString(in);
+        String imageFile = readString(in);
+        boolean separateClassLoaderNeeded = in.readBoolean();
+        String classLoaderGroup = readString(in);
+        boolean nativePlugin = in.readBoolean();
+        Map<String, String> classMap = new LinkedHashMap<>();
+        int nrClasses = in.readInt();
+        for (int c = 0; c < nrClasses; c++) {
+          classMap.put(readString(in), readString(in));
+        }
+        String[] libraries = readStrings(in);
+        String errorHelpFile = readString(in);
+        String[] keywords = readStrings(in);
+        String pluginFolder = readString(in);
+        boolean usingLibrariesOutsidePluginFolder = in.readBoolean();
+        String documentationUrl = readString(in);
+        String casesUrl = readString(in);
+        String forumUrl = readString(in);
+        String suggestion = readString(in);
+        boolean includeJdbcDrivers = in.readBoolean();
+        String[] parentFirstPatterns = readStrings(in);
+        records.add(
+            new PluginRecord(
+                ids,
+                mainType,
+                category,
+                name,
+                description,
+                imageFile,
+                separateClassLoaderNeeded,
+                classLoaderGroup,
+                nativePlugin,
+                classMap,
+                libraries == null ? new ArrayList<>() : List.of(libraries),
+                errorHelpFile,
+                keywords,
+                pluginFolder,
+                usingLibrariesOutsidePluginFolder,
+                documentationUrl,
+                casesUrl,
+                forumUrl,
+                suggestion,
+                includeJdbcDrivers,
+                parentFirstPatterns));
+      }
+      typeRecords.put(typeName, records);
+    }
+  }
+
+  private byte[] write() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeInt(VERSION);
+    writeString(out, contextKey);
+    out.writeInt(fileStamps.size());
+    for (FileStamp stamp : fileStamps) {
+      writeString(out, stamp.path());
+      out.writeLong(stamp.size());
+      out.writeLong(stamp.lastModified());
+    }
+    out.writeInt(typeRecords.size());
+    for (Map.Entry<String, List<PluginRecord>> entry : typeRecords.entrySet()) {
+      writeString(out, entry.getKey());
+      out.writeInt(entry.getValue().size());
+      for (PluginRecord r : entry.getValue()) {
+        writeStrings(out, r.ids());
+        writeString(out, r.mainType());
+        writeString(out, r.category());
+        writeString(out, r.name());
+        writeString(out, r.description());
+        writeString(out, r.imageFile());
+        out.writeBoolean(r.separateClassLoaderNeeded());
+        writeString(out, r.classLoaderGroup());
+        out.writeBoolean(r.nativePlugin());
+        out.writeInt(r.classMap().size());
+        for (Map.Entry<String, String> classEntry : r.classMap().entrySet()) {
+          writeString(out, classEntry.getKey());
+          writeString(out, classEntry.getValue());
+        }
+        writeStrings(out, r.libraries().toArray(new String[0]));
+        writeString(out, r.errorHelpFile());
+        writeStrings(out, r.keywords());
+        writeString(out, r.pluginFolder());
+        out.writeBoolean(r.usingLibrariesOutsidePluginFolder());
+        writeString(out, r.documentationUrl());
+        writeString(out, r.casesUrl());
+        writeString(out, r.forumUrl());
+        writeString(out, r.suggestion());
+        out.writeBoolean(r.includeJdbcDrivers());
+        writeStrings(out, r.parentFirstPatterns());
+      }
+    }
+    out.flush();
+    return bytes.toByteArray();
+  }
+
+  private static void writeString(DataOutputStream out, String string) throws IOException {
+    if (string == null) {
+      out.writeInt(-1);
+    } else {
+      byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    }
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static void writeStrings(DataOutputStream out, String[] strings) throws IOException {
+    if (strings == null) {
+      out.writeInt(-1);
+    } else {
+      out.writeInt(strings.length);
+      for (String string : strings) {
+        writeString(out, string);
+      }
+    }
+  }
+
+  private static String[] readStrings(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      return null;
+    }
+    String[] strings = new String[length];
+    for (int i = 0; i < length; i++) {
+      strings[i] = readString(in);
+    }
+    return strings;
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Date;
+import org.apache.hop.core.exception.HopValueException;
+
+/**
+ * Hashes values with the 128-bit murmur3 hash on a normalized binary form. Values which are equal
+ * give the same hash, whatever their storage type, so partitioning, de-duplication and sketches all
+ * agree on which values are the same.
+ */
+public class ValueHashUtil {
+  private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+  private ValueHashUtil() {
+    // Static methods only
+  }
+
+  /**
+   * Calculate the 64-bit hash of a single value.
+   *
+   * @param valueMeta The value metadata
+   * @param valueData The value
+   * @return The hash
+   * @throws HopValueException In case the value can't be converted
+   */
+  public static long hash(IValueMeta valueMeta, Object valueData) throws HopValueException {
+    Hasher hasher = HASH_FUNCTION.newHasher();
+    putValue(hasher, valueMeta, valueData);
+    return hasher.hash().asLong();
+  }
+
+  /**
+   * Calculate the 128-bit hash of the given fields of a row. The first 64 bits can be used as a
+   * 64-bit hash of the fields.
+   *
+   * @param rowMeta The row metadata
+   * @param row The row data
+   * @param indexes The indexes of the fields to hash
+   * @return The 128-bit hash
+   * @throws HopValueException In case a value can't be converted
+   */
+  public static HashCode fingerprint(IRowMeta rowMeta, Object[] row, int[] indexes)
+      throws HopValueException {
+    Hasher hasher = HASH_FUNCTION.newHasher();
+    for (int index : indexes) {
+      putValue(hasher, rowMeta.getValueMeta(index), row[index]);
+    }
+    return hasher.hash();
+  }
+
+  /**
+   * Add a value in a normalized form: values which are equal hash the same way, whatever the
+   * storage type of the value.
+   *
+   * @param hasher The hasher to add the value to
+   * @param valueMeta The value metadata
+   * @param valueData The value
+   * @throws HopValueException In case the value can't be converted
+   */
+  public static void putValue(Hasher hasher, IValueMeta valueMeta, Object valueData)
+      throws HopValueException {
+    if (valueMeta.isNull(valueData)) {
+      hasher.putByte((byte) 0);
+      return;
+    }
+    hasher.putByte((byte) 1);
+    switch (valueMeta.getType()) {
+      case IValueMeta.TYPE_INTEGER:
+        hasher.putLong(valueMeta.getInteger(valueData));
+        break;
+      case IValueMeta.TYPE_NUMBER:
+        double number = valueMeta.getNumber(valueData);
+        // -0.0 and 0.0 are the same value
+        hasher.putDouble(number == 0.0 ? 0.0 : number);
+        break;
+      case IValueMeta.TYPE_BIGNUMBER:
+        BigDecimal bigNumber = valueMeta.getBigNumber(valueData);
+        // 1.0 and 1.00 are the same value
+        String normalized =
+            bigNumber.signum() == 0 ? "0" : bigNumber.stripTrailingZeros().toPlainString();
+        putBytes(hasher, normalized.getBytes(StandardCharsets.UTF_8));
+        break;
+      case IValueMeta.TYPE_BOOLEAN:
+        hasher.putBoolean(valueMeta.getBoolean(valueData));
+        break;
+      case IValueMeta.TYPE_DATE:
+        hasher.putLong(valueMeta.getDate(valueData).getTime());
+        break;
+      case IValueMeta.TYPE_TIMESTAMP:
+        Date date = valueMeta.getDate(valueData);
+        hasher.putLong(date.getTime());
+        if (date instanceof Timestamp timestamp) {
+          hasher.putInt(timestamp.getNanos());
+        }
+        break;
+      case IValueMeta.TYPE_BINARY:
+        putBytes(hasher, valueMeta.getBinary(valueData));
+        break;
+      default:
+        putBytes(hasher, valueMeta.getString(valueData).getBytes(StandardCharsets.UTF_8));
+        break;
+    }
+  }
+
+  /**
+   * Add variable length data with its length in front, so that the boundaries between the values of
+   * a composite key are part of the hash: ("ab", "c") and ("a", "bc") don't collide.
+   */
+  private static void putBytes(Hasher hasher, byte[] bytes) {
+    hasher.putInt(bytes.length);
+    hasher.putBytes(bytes);
+  }
+}
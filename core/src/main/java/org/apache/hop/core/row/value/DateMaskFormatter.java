@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row.value;
+
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.chrono.IsoChronology;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.ResolverStyle;
+import java.time.format.SignStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Set;
+import java.util.TimeZone;
+
+/**
+ * A date format mask compiled into immutable java.time formatters. It can be shared by any number
+ * of threads, unlike the SimpleDateFormat it is compiled from.
+ *
+ * <p>Only numeric masks with separators are supported, like yyyy-MM-dd HH:mm:ss or dd/MM/yyyy
+ * HH:mm:ss.SSS. The formatter only handles values for which it gives exactly the same result as the
+ * SimpleDateFormat: dates from 1900 up to 9999, valid field values and local times which exist
+ * exactly once in the time zone. For everything else {@link #parse(String)} and {@link
+ * #format(Date)} return null and the caller falls back to the SimpleDateFormat, which takes care of
+ * lenient parsing, errors and historical calendars.
+ */
+class DateMaskFormatter {
+  private static final int MIN_YEAR = 1900;
+  private static final int MAX_YEAR = 9999;
+  private static final String SEPARATORS = "-/ :.,_";
+
+  private final DateTimeFormatter parser;
+  private final DateTimeFormatter formatter;
+  private final TimeZone timeZone;
+  private final ZoneId zoneId;
+
+  private DateMaskFormatter(
+      DateTimeFormatter parser, DateTimeFormatter formatter, TimeZone timeZone) {
+    this.parser = parser;
+    this.formatter = formatter;
+    this.timeZone = timeZone;
+    this.zoneId = timeZone.toZoneId();
+  }
+
+  /**
+   * Compile the mask of a date format.
+   *
+   * @param dateFormat The date format to compile
+   * @return The compiled formatter or null if the mask, locale or calendar of the date format is
+   *     not supported
+   */
+  static DateMaskFormatter compile(SimpleDateFormat dateFormat) {
+    // Other calendars like the Buddhist or Japanese imperial ones are not ISO compatible
+    //
+    if (dateFormat.getCalendar().getClass() != GregorianCalendar.class) {
+      return null;
+    }
+    NumberFormat numberFormat = dateFormat.getNumberFormat();
+    if (!(numberFormat instanceof DecimalFormat decimalFormat)
+        || decimalFormat.getDecimalFormatSymbols().getZeroDigit() != '0') {
+      return null;
+    }
+
+    String pattern = dateFormat.toPattern();
+    DateTimeFormatterBuilder parserBuilder = new DateTimeFormatterBuilder();
+    DateTimeFormatterBuilder formatterBuilder = new DateTimeFormatterBuilder();
+    Set<ChronoField> fields = EnumSet.noneOf(ChronoField.class);
+    boolean previousWasField = false;
+    int index = 0;
+    while (index < pattern.length()) {
+      char c = pattern.charAt(index);
+      int count = 1;
+      while (index + count < pattern.length() && pattern.charAt(index + count) == c) {
+        count++;
+      }
+      index += count;
+
+      if (SEPARATORS.indexOf(c) >= 0) {
+        String literal = String.valueOf(c).repeat(count);
+        parserBuilder.appendLiteral(literal);
+        formatterBuilder.appendLiteral(literal);
+        previousWasField = false;
+        continue;
+      }
+
+      ChronoField field =
+          switch (c) {
+            case 'y' -> count == 4 ? ChronoField.YEAR : null;
+            case 'M' -> count == 2 ? ChronoField.MONTH_OF_YEAR : null;
+            case 'd' -> count == 2 ? ChronoField.DAY_OF_MONTH : null;
+            case 'H' -> count == 2 ? ChronoField.HOUR_OF_DAY : null;
+            case 'm' -> count == 2 ? ChronoField.MINUTE_OF_HOUR : null;
+            case 's' -> count == 2 ? ChronoField.SECOND_OF_MINUTE : null;
+            case 'S' -> count == 3 ? ChronoField.MILLI_OF_SECOND : null;
+            default -> null;
+          };
+      // Adjacent numeric fields like yyyyMMdd are parsed differently by SimpleDateFormat
+      //
+      if (field == null || previousWasField || !fields.add(field)) {
+        return null;
+      }
+      // SimpleDateFormat accepts fewer digits than the mask has
+      //
+      parserBuilder.appendValue(field, 1, count, SignStyle.NOT_NEGATIVE);
+      formatterBuilder.appendValue(field, count);
+      previousWasField = true;
+    }
+
+    if (!fields.contains(ChronoField.YEAR)
+        || !fields.contains(ChronoField.MONTH_OF_YEAR)
+        || !fields.contains(ChronoField.DAY_OF_MONTH)) {
+      return null;
+    }
+    for (ChronoField timeField :
+        new ChronoField[] {
+          ChronoField.HOUR_OF_DAY,
+          ChronoField.MINUTE_OF_HOUR,
+          ChronoField.SECOND_OF_MINUTE,
+          ChronoField.MILLI_OF_SECOND
+        }) {
+      if (!fields.contains(timeField)) {
+        parserBuilder.parseDefaulting(timeField, 0);
+      }
+    }
+
+    return new DateMaskFormatter(
+        parserBuilder
+            .toFormatter()
+            .withChronology(IsoChronology.INSTANCE)
+            .withResolverStyle(ResolverStyle.STRICT),
+        formatterBuilder.toFormatter().withChronology(IsoChronology.INSTANCE),
+        (TimeZone) dateFormat.getTimeZone().clone());
+  }
+
+  /**
+   * Parse a date. Like SimpleDateFormat, text after the date is ignored.
+   *
+   * @param string The string to parse
+   * @return The date or null if the string can't be handled by this formatter
+   */
+  Date parse(String string) {
+    ParsePosition position = new ParsePosition(0);
+    LocalDateTime localDateTime;
+    try {
+      TemporalAccessor parsed = parser.parse(string, position);
+      localDateTime = LocalDateTime.from(parsed);
+    } catch (DateTimeException e) {
+      return null;
+    }
+    // SimpleDateFormat would have read more digits for the last field
+    //
+    int end = position.getIndex();
+    if (end < string.length() && Character.isDigit(string.charAt(end))) {
+      return null;
+    }
+    if (localDateTime.getYear() < MIN_YEAR || localDateTime.getYear() > MAX_YEAR) {
+      return null;
+    }
+    // Times skipped or repeated by a daylight saving change are left to the calendar
+    //
+    List<ZoneOffset> offsets = zoneId.getRules().getValidOffsets(localDateTime);
+    if (offsets.size() != 1) {
+      return null;
+    }
+    long millis = localDateTime.toInstant(offsets.get(0)).toEpochMilli();
+    // The calendar has to agree on the offset
+    //
+    if (timeZone.getOffset(millis) != offsets.get(0).getTotalSeconds() * 1000L) {
+      return null;
+    }
+    return new Date(millis);
+  }
+
+  /**
+   * Format a date.
+   *
+   * @param date The date to format
+   * @return The formatted date or null if the date can't be handled by this formatter
+   */
+  String format(Date date) {
+    // Use the offset of the calendar, it can differ from java.time for historical dates
+    //
+    long localMillis = date.getTime() + timeZone.getOffset(date.getTime());
+    LocalDateTime dateTime =
+        LocalDateTime.ofEpochSecond(
+            Math.floorDiv(localMillis, 1000L),
+            (int) Math.floorMod(localMillis, 1000L) * 1_000_000,
+            ZoneOffset.UTC);
+    if (dateTime.getYear() < MIN_YEAR || dateTime.getYear() > MAX_YEAR) {
+      return null;
+    }
+    return formatter.format(dateTime);
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row.value;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+
+/**
+ * Parses plain numbers like 123, -42 or 3.1415 without a DecimalFormat, so that it can be done by
+ * many threads at the same time. Only decimal formats which read such numbers as they are, without
+ * prefixes, suffixes or multipliers, are supported. Anything else than a plain number isn't parsed
+ * and is left to the DecimalFormat.
+ */
+class PlainNumberParser {
+  /** The most digits of a long value which can never overflow */
+  private static final int MAX_LONG_DIGITS = 18;
+
+  private PlainNumberParser() {
+    // Static methods only
+  }
+
+  /**
+   * See if plain numbers are read by a decimal format the way this parser reads them.
+   *
+   * @param decimalFormat The decimal format to check
+   * @return true if the decimal format parses plain numbers like this parser does
+   */
+  static boolean supports(DecimalFormat decimalFormat) {
+    DecimalFormatSymbols symbols = decimalFormat.getDecimalFormatSymbols();
+    return !decimalFormat.isParseBigDecimal()
+        && !decimalFormat.isParseIntegerOnly()
+        && decimalFormat.getMultiplier() == 1
+        && decimalFormat.getPositivePrefix().isEmpty()
+        && decimalFormat.getPositiveSuffix().isEmpty()
+        && "-".equals(decimalFormat.getNegativePrefix())
+        && decimalFormat.getNegativeSuffix().isEmpty()
+        && symbols.getZeroDigit() == '0'
+        && symbols.getDecimalSeparator() == '.'
+        && symbols.getGroupingSeparator() != '.';
+  }
+
+  /**
+   * Parse a plain number: an optional minus sign, digits and optionally a decimal point followed by
+   * more digits.
+   *
+   * @param string The string to parse
+   * @return The number or null if the string isn't a plain number
+   */
+  static Double parseNumber(String string) {
+    int length = string.length();
+    int index = string.charAt(0) == '-' ? 1 : 0;
+    int digitsStart = index;
+    while (index < length && isDigit(string.charAt(index))) {
+      index++;
+    }
+    if (index == digitsStart) {
+      return null;
+    }
+    if (index < length) {
+      if (string.charAt(index) != '.') {
+        return null;
+      }
+      int fractionStart = ++index;
+      while (index < length && isDigit(string.charAt(index))) {
+        index++;
+      }
+      if (index == fractionStart || index < length) {
+        return null;
+      }
+    }
+    return Double.parseDouble(string);
+  }
+
+  /**
+   * Parse a plain integer: an optional minus sign followed by at most 18 digits.
+   *
+   * @param string The string to parse
+   * @return The integer or null if the string isn't a plain integer
+   */
+  static Long parseInteger(String string) {
+    int length = string.length();
+    int digitsStart = string.charAt(0) == '-' ? 1 : 0;
+    if (length == digitsStart || length - digitsStart > MAX_LONG_DIGITS) {
+      return null;
+    }
+    for (int index = digitsStart; index < length; index++) {
+      if (!isDigit(string.charAt(index))) {
+        return null;
+      }
+    }
+    return Long.parseLong(string);
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+}
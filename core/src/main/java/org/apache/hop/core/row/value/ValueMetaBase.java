@@ -223,10 +223,22 @@ public class ValueMetaBase implements IValueMeta {
   protected boolean emptyStringAndNullAreDifferent;
 
   @JsonIgnore protected SimpleDateFormat dateFormat;
-  @JsonIgnore protected boolean dateFormatChanged;
+
+  /** Volatile: it's also read without locking by the conversions which don't need the format */
+  @JsonIgnore protected volatile boolean dateFormatChanged;
 
   @JsonIgnore protected DecimalFormat decimalFormat;
-  @JsonIgnore protected boolean decimalFormatChanged;
+
+  /** Volatile: it's also read without locking by the conversions which don't need the format */
+  @JsonIgnore protected volatile boolean decimalFormatChanged;
+
+  /**
+   * The date format compiled for conversions without locking, null if the mask is not supported.
+   */
+  @JsonIgnore private volatile DateMaskFormatter dateMaskFormatter;
+
+  /** True if plain numbers can be parsed without locking the decimal format */
+  @JsonIgnore private volatile boolean plainNumberParsing;
 
   @JsonIgnore protected IValueMeta storageMetadata;
   @JsonIgnore protected boolean identicalFormat;
@@ -650,6 +662,8 @@ public class ValueMetaBase implements IValueMeta {
       ValueMetaBase valueMeta = (ValueMetaBase) super.clone();
       valueMeta.dateFormat = null;
       valueMeta.decimalFormat = null;
+      valueMeta.dateMaskFormatter = null;
+      valueMeta.plainNumberParsing = false;
       if (dateFormatLocale != null) {
         valueMeta.dateFormatLocale = (Locale) dateFormatLocale.clone();
       }
@@ -1078,12 +1092,22 @@ public class ValueMetaBase implements IValueMeta {
 
   // DATE + STRING
 
-  protected synchronized String convertDateToString(Date date) {
+  protected String convertDateToString(Date date) {
     if (date == null) {
       return null;
     }
 
-    return getDateFormat().format(date);
+    DateMaskFormatter formatter = getDateMaskFormatter();
+    if (formatter != null) {
+      String string = formatter.format(date);
+      if (string != null) {
+        return string;
+      }
+    }
+
+    synchronized (this) {
+      return getDateFormat().format(date);
+    }
   }
 
   protected static SimpleDateFormat compatibleDateFormat =
@@ -1099,7 +1123,7 @@ public class ValueMetaBase implements IValueMeta {
         : compatibleDateFormat.format(date));
   }
 
-  public synchronized Date convertStringToDate(String string) throws HopValueException {
+  public Date convertStringToDate(String string) throws HopValueException {
     string = Const.trimToType(string, getTrimType()); // see if trimming needs
     // to be performed before
     // conversion
@@ -1108,6 +1132,18 @@ public class ValueMetaBase implements IValueMeta {
       return null;
     }
 
+    DateMaskFormatter formatter = getDateMaskFormatter();
+    if (formatter != null) {
+      Date date = formatter.parse(string);
+      if (date != null) {
+        return date;
+      }
+    }
+
+    return parseDate(string);
+  }
+
+  private synchronized Date parseDate(String string) throws HopValueException {
     try {
       ParsePosition pp = new ParsePosition(0);
       Date result = getDateFormat(TYPE_DATE).parse(string, pp);
@@ -1205,7 +1241,7 @@ public class ValueMetaBase implements IValueMeta {
     return Double.toString(number);
   }
 
-  protected synchronized Double convertStringToNumber(String string) throws HopValueException {
+  protected Double convertStringToNumber(String string) throws HopValueException {
     string = Const.trimToType(string, getTrimType()); // see if trimming needs
     // to be performed before
     // conversion
@@ -1214,6 +1250,17 @@ public class ValueMetaBase implements IValueMeta {
       return null;
     }
 
+    if (isPlainNumberParsing()) {
+      Double number = PlainNumberParser.parseNumber(string);
+      if (number != null) {
+        return number;
+      }
+    }
+
+    return parseNumber(string);
+  }
+
+  private synchronized Double parseNumber(String string) throws HopValueException {
     try {
       DecimalFormat format = getDecimalFormat(false);
       Number number;
@@ -1306,12 +1353,37 @@ public class ValueMetaBase implements IValueMeta {
       //
       dateFormat.setLenient(dateFormatLenient);
 
+      dateMaskFormatter = DateMaskFormatter.compile(dateFormat);
       dateFormatChanged = false;
     }
 
     return dateFormat;
   }
 
+  /**
+   * Get the date format compiled for conversions without locking. It is only available once the
+   * current date format has been created, and only for the date formats of this class.
+   *
+   * @return The compiled date format or null if the date format has to be used instead
+   */
+  private DateMaskFormatter getDateMaskFormatter() {
+    // Check the flag first: the formatter is replaced before the flag is cleared
+    //
+    if (dateFormatChanged || conversionMetadata != null || getType() == TYPE_TIMESTAMP) {
+      return null;
+    }
+    return dateMaskFormatter;
+  }
+
+  /**
+   * See if plain numbers can be parsed without locking the current decimal format.
+   *
+   * @return true if plain numbers can be parsed without the decimal format
+   */
+  private boolean isPlainNumberParsing() {
+    return !decimalFormatChanged && plainNumberParsing && conversionMetadata == null;
+  }
+
   @Override
   public synchronized DecimalFormat getDecimalFormat() {
     return getDecimalFormat(false);
@@ -1389,6 +1461,7 @@ public class ValueMetaBase implements IValueMeta {
         decimalFormat.applyPattern(decimalPattern);
       }
 
+      plainNumberParsing = PlainNumberParser.supports(decimalFormat);
       decimalFormatChanged = false;
     }
 
@@ -1567,7 +1640,7 @@ public class ValueMetaBase implements IValueMeta {
     return Long.toString(integer);
   }
 
-  protected synchronized Long convertStringToInteger(String string) throws HopValueException {
+  protected Long convertStringToInteger(String string) throws HopValueException {
     string = Const.trimToType(string, getTrimType()); // see if trimming needs
     // to be performed before
     // conversion
@@ -1576,6 +1649,17 @@ public class ValueMetaBase implements IValueMeta {
       return null;
     }
 
+    if (isPlainNumberParsing()) {
+      Long integer = PlainNumberParser.parseInteger(string);
+      if (integer != null) {
+        return integer;
+      }
+    }
+
+    return parseInteger(string);
+  }
+
+  private synchronized Long parseInteger(String string) throws HopValueException {
     try {
       Number number;
       if (lenientStringToNumber) {
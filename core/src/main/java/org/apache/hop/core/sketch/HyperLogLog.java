@@ -0,0 +1,312 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.sketch;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.ValueHashUtil;
+
+/**
+ * A HyperLogLog sketch to estimate the number of distinct values. With the default precision of 14
+ * the standard error is about 0.8% and the sketch never uses more than 16KB, however many values
+ * are added. Small sketches are kept in a sparse form which only stores the registers which are
+ * set.
+ *
+ * <p>Sketches with the same precision can be merged, which gives the same result as adding all
+ * values to one sketch.
+ */
+public class HyperLogLog {
+  public static final int DEFAULT_PRECISION = 14;
+  public static final int MIN_PRECISION = 4;
+  public static final int MAX_PRECISION = 18;
+
+  private static final int RANK_BITS = 6;
+  private static final int RANK_MASK = (1 << RANK_BITS) - 1;
+
+  private final int precision;
+  private final int registerCount;
+
+  /** The registers, null while the sketch is sparse */
+  private byte[] registers;
+
+  /** The set registers of a sparse sketch: open addressing table of index and rank, 0 is empty */
+  private int[] sparse;
+
+  private int sparseSize;
+
+  public HyperLogLog() {
+    this(DEFAULT_PRECISION);
+  }
+
+  /**
+   * @param precision The number of bits used to select a register: 4 to 18
+   */
+  public HyperLogLog(int precision) {
+    if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+      throw new IllegalArgumentException(
+          "The precision of a HyperLogLog sketch has to be between "
+              + MIN_PRECISION
+              + " and "
+              + MAX_PRECISION
+              + ", not "
+              + precision);
+    }
+    this.precision = precision;
+    this.registerCount = 1 << precision;
+    this.sparse = new int[16];
+  }
+
+  /**
+   * Add a value of a row. A binary value holding a serialized HyperLogLog sketch is merged into
+   * this sketch, other values are hashed and added. Null values are ignored.
+   *
+   * @param valueMeta The value metadata
+   * @param valueData The value
+   * @throws HopValueException In case the value can't be converted
+   */
+  public void addValue(IValueMeta valueMeta, Object valueData) throws HopValueException {
+    if (valueMeta.isNull(valueData)) {
+      return;
+    }
+    if (valueMeta.isBinary()) {
+      byte[] bytes = valueMeta.getBinary(valueData);
+      if (Sketches.isSketch(bytes, Sketches.TYPE_HYPER_LOG_LOG)) {
+        merge(fromBytes(bytes));
+        return;
+      }
+    }
+    addHash(hash(valueMeta, valueData));
+  }
+
+  /**
+   * Add a 64-bit hash of a value.
+   *
+   * @param hash The hash
+   */
+  public void addHash(long hash) {
+    int index = (int) (hash >>> (64 - precision));
+    int maxRank = 64 - precision + 1;
+    int rank = Math.min(Long.numberOfLeadingZeros(hash << precision) + 1, maxRank);
+    setRegister(index, rank);
+  }
+
+  private void setRegister(int index, int rank) {
+    if (registers != null) {
+      if (registers[index] < rank) {
+        registers[index] = (byte) rank;
+      }
+      return;
+    }
+
+    int mask = sparse.length - 1;
+    // The index comes from the hash so it is already evenly spread
+    //
+    int slot = index & mask;
+    while (sparse[slot] != 0) {
+      if (sparse[slot] >>> RANK_BITS == index) {
+        if ((sparse[slot] & RANK_MASK) < rank) {
+          sparse[slot] = index << RANK_BITS | rank;
+        }
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+    sparse[slot] = index << RANK_BITS | rank;
+    sparseSize++;
+
+    if (sparseSize > registerCount / 32) {
+      toDense();
+    } else if (sparseSize * 2 > sparse.length) {
+      int[] entries = sparse;
+      sparse = new int[entries.length * 2];
+      sparseSize = 0;
+      for (int entry : entries) {
+        if (entry != 0) {
+          setRegister(entry >>> RANK_BITS, entry & RANK_MASK);
+        }
+      }
+    }
+  }
+
+  private void toDense() {
+    if (registers != null) {
+      return;
+    }
+    registers = new byte[registerCount];
+    for (int entry : sparse) {
+      if (entry != 0) {
+        registers[entry >>> RANK_BITS] = (byte) (entry & RANK_MASK);
+      }
+    }
+    sparse = null;
+    sparseSize = 0;
+  }
+
+  /**
+   * Merge another sketch into this one.
+   *
+   * @param other The sketch to merge, it needs to have the same precision
+   */
+  public void merge(HyperLogLog other) {
+    if (other.precision != precision) {
+      throw new IllegalArgumentException(
+          "Unable to merge HyperLogLog sketches with precision "
+              + precision
+              + " and "
+              + other.precision);
+    }
+    if (other.registers == null) {
+      for (int entry : other.sparse) {
+        if (entry != 0) {
+          setRegister(entry >>> RANK_BITS, entry & RANK_MASK);
+        }
+      }
+    } else {
+      toDense();
+      for (int i = 0; i < registerCount; i++) {
+        if (registers[i] < other.registers[i]) {
+          registers[i] = other.registers[i];
+        }
+      }
+    }
+  }
+
+  /**
+   * @return The estimated number of distinct values
+   */
+  public long estimate() {
+    double sum = 0;
+    int zeros = 0;
+    if (registers == null) {
+      zeros = registerCount - sparseSize;
+      sum = zeros;
+      for (int entry : sparse) {
+        if (entry != 0) {
+          sum += Math.scalb(1.0, -(entry & RANK_MASK));
+        }
+      }
+    } else {
+      for (byte register : registers) {
+        if (register == 0) {
+          zeros++;
+        }
+        sum += Math.scalb(1.0, -register);
+      }
+    }
+
+    double estimate = alpha() * registerCount * registerCount / sum;
+    if (estimate <= 2.5 * registerCount && zeros > 0) {
+      // Linear counting is more accurate for small cardinalities
+      //
+      estimate = registerCount * Math.log((double) registerCount / zeros);
+    }
+    return Math.round(estimate);
+  }
+
+  private double alpha() {
+    return switch (registerCount) {
+      case 16 -> 0.673;
+      case 32 -> 0.697;
+      case 64 -> 0.709;
+      default -> 0.7213 / (1 + 1.079 / registerCount);
+    };
+  }
+
+  /**
+   * @return The precision of this sketch
+   */
+  public int getPrecision() {
+    return precision;
+  }
+
+  /**
+   * Serialize this sketch.
+   *
+   * @return The sketch in binary form
+   */
+  public byte[] toBytes() {
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+      Sketches.writeHeader(out, Sketches.TYPE_HYPER_LOG_LOG);
+      out.writeByte(precision);
+      if (registers == null) {
+        out.writeBoolean(true);
+        out.writeInt(sparseSize);
+        for (int entry : sparse) {
+          if (entry != 0) {
+            out.writeInt(entry);
+          }
+        }
+      } else {
+        out.writeBoolean(false);
+        out.write(registers);
+      }
+      out.flush();
+      return bytes.toByteArray();
+    } catch (IOException e) {
+      throw new IllegalStateException("Error serializing HyperLogLog sketch", e);
+    }
+  }
+
+  /**
+   * Read a serialized sketch.
+   *
+   * @param bytes The sketch in binary form
+   * @return The sketch
+   * @throws HopValueException In case the bytes don't hold a HyperLogLog sketch
+   */
+  public static HyperLogLog fromBytes(byte[] bytes) throws HopValueException {
+    try {
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+      Sketches.readHeader(in, Sketches.TYPE_HYPER_LOG_LOG);
+      HyperLogLog sketch = new HyperLogLog(in.readByte());
+      if (in.readBoolean()) {
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+          int entry = in.readInt();
+          sketch.setRegister(entry >>> RANK_BITS, entry & RANK_MASK);
+        }
+      } else {
+        sketch.toDense();
+        in.readFully(sketch.registers);
+      }
+      return sketch;
+    } catch (IOException | IllegalArgumentException e) {
+      throw new HopValueException("Unable to read HyperLogLog sketch", e);
+    }
+  }
+
+  /**
+   * Calculate a 64-bit hash of a value. Values which are equal give the same hash, whatever the
+   * storage type of the value, as in hash partitioning.
+   *
+   * @param valueMeta The value metadata
+   * @param valueData The value
+   * @return The hash
+   * @throws HopValueException In case the value can't be converted
+   */
+  public static long hash(IValueMeta valueMeta, Object valueData) throws HopValueException {
+    return ValueHashUtil.hash(valueMeta, valueData);
+  }
+}
@@ -0,0 +1,341 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.sketch;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IValueMeta;
+
+/**
+ * A KLL sketch to estimate quantiles like the median or percentiles of numeric values. The values
+ * are kept in levels: when a level is full it is sorted and every other value is promoted to the
+ * next level, where it counts twice. With the default size of 200 the rank error is about 1.5% and
+ * only a few thousand values are kept, however many values are added.
+ *
+ * <p>Sketches can be merged, which gives about the same accuracy as adding all values to one
+ * sketch.
+ */
+public class QuantileSketch {
+  public static final int DEFAULT_K = 200;
+  public static final int MIN_K = 8;
+
+  private static final int MIN_LEVEL_CAPACITY = 8;
+  private static final double LEVEL_CAPACITY_DECAY = 2.0 / 3.0;
+
+  private final int k;
+
+  /** Used to pick which half of a level is promoted, with a fixed seed to get repeatable results */
+  private final Random random = new Random(0x51CE7L);
+
+  /** The values per level, a value on level h counts for 2^h added values */
+  private double[][] levels;
+
+  private int[] levelSizes;
+  private int levelCount;
+  private int retained;
+
+  private long count;
+  private double min = Double.NaN;
+  private double max = Double.NaN;
+
+  public QuantileSketch() {
+    this(DEFAULT_K);
+  }
+
+  /**
+   * @param k The size of the sketch, larger sketches are more accurate: at least 8
+   */
+  public QuantileSketch(int k) {
+    if (k < MIN_K) {
+      throw new IllegalArgumentException(
+          "The size of a quantile sketch has to be at least " + MIN_K + ", not " + k);
+    }
+    this.k = k;
+    this.levels = new double[][] {new double[k]};
+    this.levelSizes = new int[1];
+    this.levelCount = 1;
+  }
+
+  /**
+   * Add a value of a row. A binary value holding a serialized quantile sketch is merged into this
+   * sketch, other values are converted to a number and added. Null values are ignored.
+   *
+   * @param valueMeta The value metadata
+   * @param valueData The value
+   * @throws HopValueException In case the value can't be converted
+   */
+  public void addValue(IValueMeta valueMeta, Object valueData) throws HopValueException {
+    if (valueMeta.isNull(valueData)) {
+      return;
+    }
+    if (valueMeta.isBinary()) {
+      byte[] bytes = valueMeta.getBinary(valueData);
+      if (Sketches.isSketch(bytes, Sketches.TYPE_QUANTILES)) {
+        merge(fromBytes(bytes));
+        return;
+      }
+    }
+    add(valueMeta.getNumber(valueData));
+  }
+
+  /**
+   * Add a number, NaN is ignored.
+   *
+   * @param value The number to add
+   */
+  public void add(double value) {
+    if (Double.isNaN(value)) {
+      return;
+    }
+    if (count == 0) {
+      min = value;
+      max = value;
+    } else {
+      min = Math.min(min, value);
+      max = Math.max(max, value);
+    }
+    count++;
+    append(0, value);
+    compress();
+  }
+
+  private void append(int level, double value) {
+    while (level >= levelCount) {
+      addLevel();
+    }
+    double[] values = levels[level];
+    if (levelSizes[level] == values.length) {
+      values = Arrays.copyOf(values, values.length * 2);
+      levels[level] = values;
+    }
+    values[levelSizes[level]++] = value;
+    retained++;
+  }
+
+  private void addLevel() {
+    if (levelCount == levels.length) {
+      levels = Arrays.copyOf(levels, levelCount * 2);
+      levelSizes = Arrays.copyOf(levelSizes, levelCount * 2);
+    }
+    levels[levelCount] = new double[MIN_LEVEL_CAPACITY];
+    levelSizes[levelCount] = 0;
+    levelCount++;
+  }
+
+  private int capacity(int level) {
+    int depth = levelCount - 1 - level;
+    return Math.max(MIN_LEVEL_CAPACITY, (int) Math.ceil(k * Math.pow(LEVEL_CAPACITY_DECAY, depth)));
+  }
+
+  private int totalCapacity() {
+    int total = 0;
+    for (int level = 0; level < levelCount; level++) {
+      total += capacity(level);
+    }
+    return total;
+  }
+
+  /** Compact the lowest full level until the retained values fit in the sketch again. */
+  private void compress() {
+    while (retained > totalCapacity()) {
+      int level = 0;
+      while (levelSizes[level] < capacity(level)) {
+        level++;
+      }
+      compact(level);
+    }
+  }
+
+  private void compact(int level) {
+    double[] values = levels[level];
+    int size = levelSizes[level];
+
+    // With an odd number of values, one of them stays on this level
+    //
+    int start = size % 2;
+    Arrays.sort(values, start, size);
+    int offset = random.nextBoolean() ? 1 : 0;
+    levelSizes[level] = start;
+    retained -= size - start;
+    for (int i = start + offset; i < size; i += 2) {
+      append(level + 1, values[i]);
+    }
+  }
+
+  /**
+   * Merge another sketch into this one.
+   *
+   * @param other The sketch to merge
+   */
+  public void merge(QuantileSketch other) {
+    if (other.count == 0) {
+      return;
+    }
+    if (count == 0) {
+      min = other.min;
+      max = other.max;
+    } else {
+      min = Math.min(min, other.min);
+      max = Math.max(max, other.max);
+    }
+    count += other.count;
+    for (int level = 0; level < other.levelCount; level++) {
+      for (int i = 0; i < other.levelSizes[level]; i++) {
+        append(level, other.levels[level][i]);
+      }
+    }
+    compress();
+  }
+
+  /**
+   * Estimate a quantile.
+   *
+   * @param fraction The quantile to estimate, 0.5 for the median, 0.9 for the 90th percentile
+   * @return The estimated value or NaN if the sketch is empty
+   */
+  public double quantile(double fraction) {
+    if (fraction < 0 || fraction > 1) {
+      throw new IllegalArgumentException("A quantile has to be between 0 and 1, not " + fraction);
+    }
+    if (count == 0) {
+      return Double.NaN;
+    }
+    if (fraction == 0) {
+      return min;
+    }
+    if (fraction == 1) {
+      return max;
+    }
+
+    // Sort the retained values on value, keeping the weight of their level
+    //
+    double[] values = new double[retained];
+    long[] weights = new long[retained];
+    Integer[] order = new Integer[retained];
+    int index = 0;
+    for (int level = 0; level < levelCount; level++) {
+      for (int i = 0; i < levelSizes[level]; i++) {
+        values[index] = levels[level][i];
+        weights[index] = 1L << level;
+        order[index] = index;
+        index++;
+      }
+    }
+    Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+    double rank = fraction * count;
+    long cumulative = 0;
+    for (int i : order) {
+      cumulative += weights[i];
+      if (cumulative >= rank) {
+        return values[i];
+      }
+    }
+    return max;
+  }
+
+  /**
+   * @return The number of values added to this sketch
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * @return The smallest value added or NaN if the sketch is empty
+   */
+  public double getMin() {
+    return min;
+  }
+
+  /**
+   * @return The largest value added or NaN if the sketch is empty
+   */
+  public double getMax() {
+    return max;
+  }
+
+  /**
+   * @return The size of this sketch
+   */
+  public int getK() {
+    return k;
+  }
+
+  /**
+   * Serialize this sketch.
+   *
+   * @return The sketch in binary form
+   */
+  public byte[] toBytes() {
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+      Sketches.writeHeader(out, Sketches.TYPE_QUANTILES);
+      out.writeInt(k);
+      out.writeLong(count);
+      out.writeDouble(min);
+      out.writeDouble(max);
+      out.writeInt(levelCount);
+      for (int level = 0; level < levelCount; level++) {
+        out.writeInt(levelSizes[level]);
+        for (int i = 0; i < levelSizes[level]; i++) {
+          out.writeDouble(levels[level][i]);
+        }
+      }
+      out.flush();
+      return bytes.toByteArray();
+    } catch (IOException e) {
+      throw new IllegalStateException("Error serializing quantile sketch", e);
+    }
+  }
+
+  /**
+   * Read a serialized sketch.
+   *
+   * @param bytes The sketch in binary form
+   * @return The sketch
+   * @throws HopValueException In case the bytes don't hold a quantile sketch
+   */
+  public static QuantileSketch fromBytes(byte[] bytes) throws HopValueException {
+    try {
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+      Sketches.readHeader(in, Sketches.TYPE_QUANTILES);
+      QuantileSketch sketch = new QuantileSketch(in.readInt());
+      sketch.count = in.readLong();
+      sketch.min = in.readDouble();
+      sketch.max = in.readDouble();
+      int levelCount = in.readInt();
+      for (int level = 0; level < levelCount; level++) {
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+          sketch.append(level, in.readDouble());
+        }
+      }
+      return sketch;
+    } catch (IOException | IllegalArgumentException e) {
+      throw new HopValueException("Unable to read quantile sketch", e);
+    }
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.sketch;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * The binary form shared by the sketches. Every serialized sketch starts with a header of 4 bytes:
+ * the magic bytes 'H' and 'S', the type of sketch and the version of the format. That way a binary
+ * field holding sketches can be told apart from other binary data.
+ */
+public class Sketches {
+  public static final byte TYPE_HYPER_LOG_LOG = 'D';
+  public static final byte TYPE_QUANTILES = 'Q';
+  public static final byte TYPE_TOP_K = 'T';
+
+  private static final byte MAGIC_1 = 'H';
+  private static final byte MAGIC_2 = 'S';
+  private static final byte VERSION = 1;
+
+  private Sketches() {
+    // Static methods only
+  }
+
+  /**
+   * See if a binary value holds a serialized sketch of the given type.
+   *
+   * @param bytes The binary value
+   * @param type The type of sketch
+   * @return true if the value starts with the header of the sketch type
+   */
+  public static boolean isSketch(byte[] bytes, byte type) {
+    return bytes != null
+        && bytes.length > 4
+        && bytes[0] == MAGIC_1
+        && bytes[1] == MAGIC_2
+        && bytes[2] == type
+        && bytes[3] == VERSION;
+  }
+
+  static void writeHeader(DataOutputStream out, byte type) throws IOException {
+    out.writeByte(MAGIC_1);
+    out.writeByte(MAGIC_2);
+    out.writeByte(type);
+    out.writeByte(VERSION);
+  }
+
+  static void readHeader(DataInputStream in, byte type) throws IOException {
+    byte[] header = new byte[4];
+    in.readFully(header);
+    if (header[0] != MAGIC_1 || header[1] != MAGIC_2 || header[2] != type) {
+      throw new IOException("The binary data doesn't contain a sketch of type " + (char) type);
+    }
+    if (header[3] != VERSION) {
+      throw new IOException("Unsupported sketch format version " + header[3]);
+    }
+  }
+}
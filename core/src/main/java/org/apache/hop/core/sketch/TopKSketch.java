@@ -0,0 +1,357 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.sketch;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IValueMeta;
+
+/**
+ * A sketch to find the most frequent values. As long as there are no more distinct values than the
+ * capacity of the sketch, the values are counted exactly. After that the counts are kept in a
+ * count-min sketch which never underestimates a count, and only the values with the highest
+ * estimated counts are remembered as candidates.
+ *
+ * <p>Sketches can be merged: the count-min sketches are added up and the candidates of both
+ * sketches are estimated again.
+ */
+public class TopKSketch {
+  public static final int DEFAULT_CAPACITY = 64;
+
+  private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+  private static final int DEPTH = 4;
+  private static final int WIDTH = 1024;
+
+  private final int capacity;
+
+  /** The counts of the candidates, exact as long as there is no count-min sketch */
+  private final Map<String, Long> counts;
+
+  /** The count-min sketch, only used once there are more distinct values than the capacity */
+  private long[] table;
+
+  /** The candidate with the lowest count, null if it has to be looked up again */
+  private String minItem;
+
+  private long total;
+
+  public TopKSketch() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * @param capacity The number of values to remember: at least 1
+   */
+  public TopKSketch(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException(
+          "The capacity of a top-k sketch has to be at least 1, not " + capacity);
+    }
+    this.capacity = capacity;
+    this.counts = new HashMap<>();
+  }
+
+  /**
+   * Add a value of a row. A binary value holding a serialized top-k sketch is merged into this
+   * sketch, other values are converted to a string and counted. Null values are ignored.
+   *
+   * @param valueMeta The value metadata
+   * @param valueData The value
+   * @throws HopValueException In case the value can't be converted
+   */
+  public void addValue(IValueMeta valueMeta, Object valueData) throws HopValueException {
+    if (valueMeta.isNull(valueData)) {
+      return;
+    }
+    if (valueMeta.isBinary()) {
+      byte[] bytes = valueMeta.getBinary(valueData);
+      if (Sketches.isSketch(bytes, Sketches.TYPE_TOP_K)) {
+        merge(fromBytes(bytes));
+        return;
+      }
+    }
+    add(valueMeta.getString(valueData));
+  }
+
+  /**
+   * Count a value once.
+   *
+   * @param item The value to count, null is ignored
+   */
+  public void add(String item) {
+    add(item, 1L);
+  }
+
+  private void add(String item, long increment) {
+    if (item == null) {
+      return;
+    }
+    total += increment;
+    if (table == null) {
+      if (counts.containsKey(item) || counts.size() < capacity) {
+        counts.merge(item, increment, Long::sum);
+        return;
+      }
+      // Too many distinct values to count them exactly
+      //
+      table = new long[DEPTH * WIDTH];
+      counts.forEach(this::updateTable);
+      minItem = null;
+    }
+
+    long estimate = updateTable(item, increment);
+    Long current = counts.get(item);
+    if (current != null) {
+      counts.put(item, estimate);
+      if (item.equals(minItem)) {
+        minItem = null;
+      }
+    } else if (counts.size() < capacity) {
+      counts.put(item, estimate);
+      minItem = null;
+    } else {
+      String lowest = getMinItem();
+      if (estimate > counts.get(lowest)) {
+        counts.remove(lowest);
+        counts.put(item, estimate);
+        minItem = null;
+      }
+    }
+  }
+
+  private String getMinItem() {
+    if (minItem == null) {
+      long lowest = Long.MAX_VALUE;
+      for (Map.Entry<String, Long> entry : counts.entrySet()) {
+        if (entry.getValue() < lowest) {
+          lowest = entry.getValue();
+          minItem = entry.getKey();
+        }
+      }
+    }
+    return minItem;
+  }
+
+  /**
+   * Add to the count of a value in the count-min sketch.
+   *
+   * @return The new estimated count of the value
+   */
+  private long updateTable(String item, long increment) {
+    HashCode hashCode = HASH_FUNCTION.hashString(item, StandardCharsets.UTF_8);
+    ByteBuffer buffer = ByteBuffer.wrap(hashCode.asBytes());
+    long hash1 = buffer.getLong();
+    long hash2 = buffer.getLong();
+    long estimate = Long.MAX_VALUE;
+    for (int row = 0; row < DEPTH; row++) {
+      int cell = row * WIDTH + (int) Long.remainderUnsigned(hash1 + row * hash2, WIDTH);
+      table[cell] += increment;
+      estimate = Math.min(estimate, table[cell]);
+    }
+    return estimate;
+  }
+
+  /**
+   * Merge another sketch into this one.
+   *
+   * @param other The sketch to merge
+   */
+  public void merge(TopKSketch other) {
+    if (table == null && other.table == null) {
+      long distinct = counts.size();
+      for (String item : other.counts.keySet()) {
+        if (!counts.containsKey(item)) {
+          distinct++;
+        }
+      }
+      if (distinct <= capacity) {
+        other.counts.forEach((item, count) -> counts.merge(item, count, Long::sum));
+        total += other.total;
+        return;
+      }
+    }
+
+    if (table == null) {
+      table = new long[DEPTH * WIDTH];
+      counts.forEach(this::updateTable);
+    }
+    if (other.table == null) {
+      other.counts.forEach(this::updateTable);
+    } else {
+      for (int i = 0; i < table.length; i++) {
+        table[i] += other.table[i];
+      }
+    }
+    total += other.total;
+
+    // Estimate the candidates of both sketches again and keep the best ones
+    //
+    List<String> candidates = new ArrayList<>(counts.keySet());
+    for (String item : other.counts.keySet()) {
+      if (!counts.containsKey(item)) {
+        candidates.add(item);
+      }
+    }
+    counts.clear();
+    for (String item : candidates) {
+      counts.put(item, updateTable(item, 0L));
+    }
+    if (counts.size() > capacity) {
+      List<Map.Entry<String, Long>> sorted = sortedEntries();
+      for (Map.Entry<String, Long> entry : sorted.subList(capacity, sorted.size())) {
+        counts.remove(entry.getKey());
+      }
+    }
+    minItem = null;
+  }
+
+  private List<Map.Entry<String, Long>> sortedEntries() {
+    List<Map.Entry<String, Long>> entries = new ArrayList<>(counts.entrySet());
+    entries.sort(
+        Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+            .thenComparing(Map.Entry.comparingByKey()));
+    return entries;
+  }
+
+  /**
+   * Get the most frequent values, the most frequent one first. Values with the same count are
+   * sorted alphabetically.
+   *
+   * @param k The number of values to return
+   * @return The values with their (estimated) counts
+   */
+  public List<Map.Entry<String, Long>> top(int k) {
+    List<Map.Entry<String, Long>> entries = sortedEntries();
+    List<Map.Entry<String, Long>> top = new ArrayList<>();
+    for (Map.Entry<String, Long> entry : entries.subList(0, Math.min(k, entries.size()))) {
+      top.add(Map.entry(entry.getKey(), entry.getValue()));
+    }
+    return top;
+  }
+
+  /**
+   * Describe the most frequent values, like "a (10), b (7), c (3)".
+   *
+   * @param k The number of values to describe
+   * @return The most frequent values with their counts
+   */
+  public String format(int k) {
+    return top(k).stream()
+        .map(entry -> entry.getKey() + " (" + entry.getValue() + ")")
+        .collect(Collectors.joining(", "));
+  }
+
+  /**
+   * @return true if the counts are exact, false if they are estimated
+   */
+  public boolean isExact() {
+    return table == null;
+  }
+
+  /**
+   * @return The number of values counted by this sketch
+   */
+  public long getTotal() {
+    return total;
+  }
+
+  /**
+   * @return The number of values this sketch remembers
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Serialize this sketch.
+   *
+   * @return The sketch in binary form
+   */
+  public byte[] toBytes() {
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+      Sketches.writeHeader(out, Sketches.TYPE_TOP_K);
+      out.writeInt(capacity);
+      out.writeLong(total);
+      out.writeInt(counts.size());
+      for (Map.Entry<String, Long> entry : counts.entrySet()) {
+        byte[] item = entry.getKey().getBytes(StandardCharsets.UTF_8);
+        out.writeInt(item.length);
+        out.write(item);
+        out.writeLong(entry.getValue());
+      }
+      out.writeBoolean(table != null);
+      if (table != null) {
+        for (long cell : table) {
+          out.writeLong(cell);
+        }
+      }
+      out.flush();
+      return bytes.toByteArray();
+    } catch (IOException e) {
+      throw new IllegalStateException("Error serializing top-k sketch", e);
+    }
+  }
+
+  /**
+   * Read a serialized sketch.
+   *
+   * @param bytes The sketch in binary form
+   * @return The sketch
+   * @throws HopValueException In case the bytes don't hold a top-k sketch
+   */
+  public static TopKSketch fromBytes(byte[] bytes) throws HopValueException {
+    try {
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+      Sketches.readHeader(in, Sketches.TYPE_TOP_K);
+      TopKSketch sketch = new TopKSketch(in.readInt());
+      sketch.total = in.readLong();
+      int size = in.readInt();
+      for (int i = 0; i < size; i++) {
+        byte[] item = new byte[in.readInt()];
+        in.readFully(item);
+        sketch.counts.put(new String(item, StandardCharsets.UTF_8), in.readLong());
+      }
+      if (in.readBoolean()) {
+        sketch.table = new long[DEPTH * WIDTH];
+        for (int i = 0; i < sketch.table.length; i++) {
+          sketch.table[i] = in.readLong();
+        }
+      }
+      return sketch;
+    } catch (IOException | IllegalArgumentException | NegativeArraySizeException e) {
+      throw new HopValueException("Unable to read top-k sketch", e);
+    }
+  }
+}
@@ -19,36 +19,48 @@ package org.apache.hop.core.util;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.net.UnknownHostException;
 import java.security.KeyManagementException;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLException;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.TrustManagerFactory;
 import javax.net.ssl.X509TrustManager;
 import org.apache.hop.core.logging.ILogChannel;
 import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.CredentialsProvider;
 import org.apache.http.client.RedirectStrategy;
+import org.apache.http.client.ServiceUnavailableRetryStrategy;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.config.Registry;
 import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.HttpClientConnectionManager;
 import org.apache.http.conn.socket.ConnectionSocketFactory;
 import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.NoopHostnameVerifier;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultHttpRequestRetryHandler;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.BasicHttpClientConnectionManager;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
 import org.apache.http.ssl.SSLContexts;
 import org.apache.http.ssl.TrustStrategy;
 
@@ -61,6 +73,7 @@ import org.apache.http.ssl.TrustStrategy;
 public class HttpClientManager {
   private static final int CONNECTIONS_PER_ROUTE = 100;
   private static final int TOTAL_CONNECTIONS = 200;
+  private static final long MAX_RETRY_DELAY_MS = 30_000L;
 
   private static HttpClientManager httpClientManager;
   private static PoolingHttpClientConnectionManager manager;
@@ -93,6 +106,10 @@ public class HttpClientManager {
     private int socketTimeout;
     private HttpHost proxy;
     private boolean ignoreSsl;
+    private int maxConnections;
+    private int retries;
+    private long retryDelayMs;
+    private Set<Integer> retryStatusCodes = Set.of();
 
     public HttpClientBuilderFacade setConnectionTimeout(int connectionTimeout) {
       this.connectionTimeout = connectionTimeout;
@@ -127,6 +144,35 @@ public class HttpClientManager {
       return this;
     }
 
+    /**
+     * Give the client a connection pool of its own instead of the shared one. Use this for a client
+     * which sends many requests at the same time. Closing the client closes its pool.
+     *
+     * @param maxConnections The number of connections the pool keeps alive, per host and in total
+     */
+    public HttpClientBuilderFacade setMaxConnections(int maxConnections) {
+      this.maxConnections = maxConnections;
+      return this;
+    }
+
+    /**
+     * Retry failed requests, waiting longer before every next attempt. A request is retried when it
+     * fails with an I/O error, other than an unknown host or an SSL error, or when the response has
+     * one of the given status codes. After an I/O error a request with a body, like a POST, is only
+     * retried if it wasn't sent completely.
+     *
+     * @param retries The maximum number of retries of a request, 0 for none
+     * @param retryDelayMs The base delay before a retry in milliseconds, doubled for every retry
+     * @param retryStatusCodes The status codes of the responses which are retried
+     */
+    public HttpClientBuilderFacade setRetries(
+        int retries, long retryDelayMs, Collection<Integer> retryStatusCodes) {
+      this.retries = retries;
+      this.retryDelayMs = retryDelayMs;
+      this.retryStatusCodes = new HashSet<>(retryStatusCodes);
+      return this;
+    }
+
     public HttpClientBuilderFacade setRedirect(RedirectStrategy redirectStrategy) {
       this.redirectStrategy = redirectStrategy;
       return this;
@@ -154,15 +200,31 @@ public class HttpClientManager {
               .register("http", new PlainConnectionSocketFactory())
               .build();
 
-      BasicHttpClientConnectionManager connectionManager =
-          new BasicHttpClientConnectionManager(socketFactoryRegistry);
+      HttpClientConnectionManager connectionManager;
+      if (maxConnections > 0) {
+        PoolingHttpClientConnectionManager poolingManager =
+            new PoolingHttpClientConnectionManager(socketFactoryRegistry);
+        poolingManager.setDefaultMaxPerRoute(maxConnections);
+        poolingManager.setMaxTotal(maxConnections);
+        connectionManager = poolingManager;
+      } else {
+        connectionManager = new BasicHttpClientConnectionManager(socketFactoryRegistry);
+      }
 
       httpClientBuilder.setSSLSocketFactory(sslsf).setConnectionManager(connectionManager);
     }
 
     public CloseableHttpClient build() {
       HttpClientBuilder httpClientBuilder = HttpClientBuilder.create();
-      httpClientBuilder.setConnectionManager(manager);
+      if (maxConnections > 0) {
+        PoolingHttpClientConnectionManager poolingManager =
+            new PoolingHttpClientConnectionManager();
+        poolingManager.setDefaultMaxPerRoute(maxConnections);
+        poolingManager.setMaxTotal(maxConnections);
+        httpClientBuilder.setConnectionManager(poolingManager);
+      } else {
+        httpClientBuilder.setConnectionManager(manager);
+      }
 
       RequestConfig.Builder requestConfigBuilder = RequestConfig.custom();
       if (socketTimeout > 0) {
@@ -185,11 +247,96 @@ public class HttpClientManager {
       if (ignoreSsl) {
         ignoreSsl(httpClientBuilder);
       }
+      if (retries > 0) {
+        httpClientBuilder.setRetryHandler(new BackoffRetryHandler(retries, retryDelayMs));
+        if (!retryStatusCodes.isEmpty()) {
+          httpClientBuilder.setServiceUnavailableRetryStrategy(
+              new StatusCodeRetryStrategy(retries, retryDelayMs, retryStatusCodes));
+        }
+      }
 
       return httpClientBuilder.build();
     }
   }
 
+  /**
+   * The delay before a retry: an exponential backoff with equal jitter, at most 30 seconds.
+   *
+   * @param attempt The retry attempt, starting from 0
+   * @param retryDelayMs The base delay in milliseconds
+   * @return The delay in milliseconds
+   */
+  static long retryDelay(int attempt, long retryDelayMs) {
+    if (retryDelayMs <= 0) {
+      return 0;
+    }
+    long delay = Math.min(retryDelayMs << Math.min(attempt, 20), MAX_RETRY_DELAY_MS);
+    return delay / 2 + ThreadLocalRandom.current().nextLong(Math.min(retryDelayMs, delay));
+  }
+
+  private static void sleep(long millis) throws InterruptedException {
+    if (millis > 0) {
+      Thread.sleep(millis);
+    }
+  }
+
+  /** Retries requests after an I/O error like the default handler does, after a backoff delay. */
+  static class BackoffRetryHandler extends DefaultHttpRequestRetryHandler {
+    private final long retryDelayMs;
+
+    BackoffRetryHandler(int retries, long retryDelayMs) {
+      super(retries, false, List.of(UnknownHostException.class, SSLException.class));
+      this.retryDelayMs = retryDelayMs;
+    }
+
+    @Override
+    public boolean retryRequest(IOException exception, int executionCount, HttpContext context) {
+      if (!super.retryRequest(exception, executionCount, context)) {
+        return false;
+      }
+      try {
+        sleep(retryDelay(executionCount - 1, retryDelayMs));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+      return true;
+    }
+  }
+
+  /** Retries requests when the response has one of the given status codes. */
+  static class StatusCodeRetryStrategy implements ServiceUnavailableRetryStrategy {
+    private final int retries;
+    private final long retryDelayMs;
+    private final Set<Integer> statusCodes;
+
+    /** The delay of the retry decided on last by the calling thread */
+    private final ThreadLocal<Long> nextDelay = new ThreadLocal<>();
+
+    StatusCodeRetryStrategy(int retries, long retryDelayMs, Set<Integer> statusCodes) {
+      this.retries = retries;
+      this.retryDelayMs = retryDelayMs;
+      this.statusCodes = statusCodes;
+    }
+
+    @Override
+    public boolean retryRequest(HttpResponse response, int executionCount, HttpContext context) {
+      if (executionCount > retries
+          || !statusCodes.contains(response.getStatusLine().getStatusCode())) {
+        return false;
+      }
+      nextDelay.set(retryDelay(executionCount - 1, retryDelayMs));
+      return true;
+    }
+
+    @Override
+    public long getRetryInterval() {
+      Long delay = nextDelay.get();
+      nextDelay.remove();
+      return delay != null ? delay : retryDelayMs;
+    }
+  }
+
   public static SSLContext getSslContextWithTrustStoreFile(
       FileInputStream trustFileStream, String trustStorePassword)
       throws NoSuchAlgorithmException,
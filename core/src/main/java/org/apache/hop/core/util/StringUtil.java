@@ -258,7 +258,7 @@ public class StringUtil {
    *     context)
    * @return the string with the substitution applied.
    */
-  public static final synchronized String environmentSubstitute(
+  public static final String environmentSubstitute(
       String aString, Map<String, String> systemProperties) {
     // system properties are thread safe normally in our usages
     aString = substituteWindows(aString, systemProperties);
@@ -23,6 +23,7 @@ import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.config.HopConfig;
@@ -42,8 +43,17 @@ import org.json.simple.parser.JSONParser;
 
 /** This class is an implementation of IVariables */
 public class Variables implements IVariables {
+  /** The maximum number of strings to remember the resolved value of */
+  private static final int MAX_RESOLVED_STRINGS = 1000;
+
   private Map<String, String> properties;
 
+  /**
+   * The strings resolved with the current variable values. A new map is created when a variable
+   * changes, so that a value resolved with an old variable value can't end up in it.
+   */
+  private volatile Map<String, String> resolvedStrings;
+
   private IVariables parent;
 
   private Map<String, String> injection;
@@ -52,6 +62,7 @@ public class Variables implements IVariables {
 
   public Variables() {
     properties = Collections.synchronizedMap(new HashMap<>());
+    resolvedStrings = new ConcurrentHashMap<>();
     parent = null;
     injection = null;
     initialized = false;
@@ -66,6 +77,7 @@ public class Variables implements IVariables {
       for (String variableName : variableNames) {
         properties.put(variableName, variables.getVariable(variableName));
       }
+      variablesChanged();
     }
   }
 
@@ -129,6 +141,7 @@ public class Variables implements IVariables {
       injection = null;
     }
     initialized = true;
+    variablesChanged();
   }
 
   @Override
@@ -144,16 +157,35 @@ public class Variables implements IVariables {
     } else {
       properties.remove(variableName);
     }
+    variablesChanged();
+  }
+
+  /** Forget the resolved strings after variables are changed. */
+  private void variablesChanged() {
+    resolvedStrings = new ConcurrentHashMap<>();
   }
 
   @Override
-  public synchronized String resolve(String aString) {
+  public String resolve(String aString) {
     if (Utils.isEmpty(aString)) {
       return aString;
     }
 
-    String resolved = StringUtil.environmentSubstitute(aString, properties);
+    // Get the map before reading the variables: if a variable changes in the mean time, the value
+    // resolved here ends up in a map that is no longer used.
+    //
+    Map<String, String> resolvedMap = resolvedStrings;
+    String resolved = resolvedMap.get(aString);
+    if (resolved == null) {
+      resolved = StringUtil.environmentSubstitute(aString, properties);
+      if (resolvedMap.size() >= MAX_RESOLVED_STRINGS) {
+        resolvedMap.clear();
+      }
+      resolvedMap.put(aString, resolved);
+    }
 
+    // Variable resolvers can return another value every time, they are never remembered
+    //
     String r = substituteVariableResolvers(resolved);
     if (r != null) {
       resolved = r;
@@ -328,6 +360,7 @@ public class Variables implements IVariables {
           }
         }
         injection = null;
+        variablesChanged();
       }
     } else {
       // We have our own personal copy, so changes afterwards
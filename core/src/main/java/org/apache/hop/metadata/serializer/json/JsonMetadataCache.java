@@ -0,0 +1,341 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.metadata.serializer.json;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.vfs2.FileContent;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.LogChannel;
+import org.apache.hop.core.vfs.HopVfs;
+
+/**
+ * Caches the content of JSON metadata files per metadata type folder. Only the raw JSON is kept so
+ * every load still creates a new metadata object which the caller can change at will.
+ *
+ * <p>Cached files are checked for a changed timestamp once the check interval has passed. Folders
+ * on the local file system are also watched for changes, so that changes are usually noticed before
+ * that. The timestamp check stays in place for watched folders as some platforms, like macOS, poll
+ * for changes and only report them after several seconds.
+ */
+public class JsonMetadataCache {
+
+  private static final JsonMetadataCache instance = new JsonMetadataCache();
+
+  private final Map<String, FolderCache> folderCaches;
+  private final Map<WatchKey, FolderCache> watchedFolders;
+  private WatchService watchService;
+
+  private JsonMetadataCache() {
+    folderCaches = new ConcurrentHashMap<>();
+    watchedFolders = new ConcurrentHashMap<>();
+  }
+
+  public static JsonMetadataCache getInstance() {
+    return instance;
+  }
+
+  /**
+   * @param folder The folder containing the JSON files of a metadata type
+   * @return The cache for the given folder
+   */
+  public FolderCache getFolderCache(String folder) {
+    return folderCaches.computeIfAbsent(folder, FolderCache::new);
+  }
+
+  /** Forget everything that was cached */
+  public void clear() {
+    folderCaches.values().forEach(FolderCache::invalidate);
+  }
+
+  private synchronized void watch(FolderCache folderCache) {
+    try {
+      FileObject folderObject = HopVfs.getFileObject(folderCache.folder);
+      if (!"file".equals(folderObject.getName().getScheme()) || !folderObject.exists()) {
+        return;
+      }
+      if (watchService == null) {
+        watchService = FileSystems.getDefault().newWatchService();
+        Thread watcher = new Thread(this::processWatchEvents, "hop-metadata-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+      }
+      Path path = new File(folderObject.getName().getPath()).toPath();
+      WatchKey key =
+          path.register(
+              watchService,
+              StandardWatchEventKinds.ENTRY_CREATE,
+              StandardWatchEventKinds.ENTRY_DELETE,
+              StandardWatchEventKinds.ENTRY_MODIFY);
+      watchedFolders.put(key, folderCache);
+
+      // Anything cached before we started watching can't be trusted
+      //
+      folderCache.invalidate();
+    } catch (Exception e) {
+      // We simply keep checking timestamps for this folder
+      //
+      LogChannel.GENERAL.logDebug(
+          "Unable to watch metadata folder " + folderCache.folder + " : " + e.getMessage());
+    }
+  }
+
+  private void processWatchEvents() {
+    while (true) {
+      WatchKey key;
+      try {
+        key = watchService.take();
+      } catch (InterruptedException | ClosedWatchServiceException e) {
+        return;
+      }
+      FolderCache folderCache = watchedFolders.get(key);
+      if (folderCache == null) {
+        key.cancel();
+        continue;
+      }
+      for (WatchEvent<?> event : key.pollEvents()) {
+        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+          folderCache.invalidate();
+        } else {
+          String filename = event.context().toString();
+          if (filename.endsWith(".json")) {
+            folderCache.remove(filename.substring(0, filename.length() - 5));
+          }
+        }
+      }
+      if (!key.reset()) {
+        // The folder is no longer accessible, fall back to checking timestamps
+        //
+        watchedFolders.remove(key);
+        folderCache.invalidate();
+      }
+    }
+  }
+
+  /** The cached names and file content of a single metadata type folder */
+  public class FolderCache {
+    private final String folder;
+    private final Map<String, Entry> entries;
+
+    // Changes every time something in the folder changes so we don't cache what we read before
+    private final AtomicLong version;
+
+    private volatile Set<String> names;
+    private volatile long namesCheckTime;
+    private volatile boolean folderExists;
+    private boolean watchAttempted;
+
+    private FolderCache(String folder) {
+      this.folder = folder;
+      this.entries = new ConcurrentHashMap<>();
+      this.version = new AtomicLong();
+    }
+
+    /**
+     * Start watching the folder for changes if that's possible. This is only attempted once, after
+     * the folder is known to exist.
+     */
+    public synchronized void watch() {
+      if (!watchAttempted) {
+        watchAttempted = true;
+        JsonMetadataCache.this.watch(this);
+      }
+      // Starting to watch invalidates the cache, the folder still exists
+      //
+      folderExists = true;
+    }
+
+    /**
+     * @param checkInterval The number of milliseconds after which the cached names are verified
+     * @param lister Lists the names of the objects in the folder
+     * @return A copy of the cached object names
+     */
+    public List<String> getNames(long checkInterval, INamesLister lister) throws HopException {
+      Set<String> cachedNames = getValidNames(checkInterval);
+      if (cachedNames == null) {
+        long checkTime = System.currentTimeMillis();
+        long listVersion = version.get();
+        cachedNames = Collections.unmodifiableSet(new HashSet<>(lister.listNames()));
+        if (listVersion == version.get()) {
+          names = cachedNames;
+          namesCheckTime = checkTime;
+        }
+      }
+      return new ArrayList<>(cachedNames);
+    }
+
+    /**
+     * @return true if the folder was found to exist before
+     */
+    public boolean isFolderExists() {
+      return folderExists;
+    }
+
+    /**
+     * @param name The name of the object
+     * @param filename The name of the JSON file of the object
+     * @param checkInterval The number of milliseconds after which the cached information is
+     *     verified
+     * @return true if the JSON file of the object exists
+     */
+    public boolean exists(String name, String filename, long checkInterval) throws HopException {
+      Entry entry = entries.get(name);
+      if (entry != null && isValid(entry.checkTime, System.currentTimeMillis(), checkInterval)) {
+        return true;
+      }
+      Set<String> validNames = getValidNames(checkInterval);
+      if (validNames != null) {
+        return validNames.contains(name);
+      }
+      return HopVfs.fileExists(filename);
+    }
+
+    /**
+     * @param name The name of the object
+     * @param filename The name of the JSON file of the object
+     * @param checkInterval The number of milliseconds after which the cached file is verified
+     * @return The content of the JSON file or null if the file doesn't exist
+     */
+    public byte[] getContent(String name, String filename, long checkInterval) throws HopException {
+      long now = System.currentTimeMillis();
+      Entry entry = entries.get(name);
+      if (entry != null && isValid(entry.checkTime, now, checkInterval)) {
+        return entry.content;
+      }
+      Set<String> validNames = getValidNames(checkInterval);
+      if (validNames != null && !validNames.contains(name)) {
+        return null;
+      }
+
+      long readVersion = version.get();
+      try {
+        FileObject file = HopVfs.getFileObject(filename);
+        if (!file.exists()) {
+          entries.remove(name);
+          return null;
+        }
+        FileContent fileContent = file.getContent();
+        long lastModified = fileContent.getLastModifiedTime();
+        long size = fileContent.getSize();
+        if (entry != null && entry.lastModified == lastModified && entry.size == size) {
+          entry.checkTime = now;
+          return entry.content;
+        }
+        byte[] content;
+        try (InputStream inputStream = HopVfs.getInputStream(file)) {
+          content = inputStream.readAllBytes();
+        }
+        if (readVersion == version.get()) {
+          entries.put(name, new Entry(content, lastModified, content.length, now));
+        }
+        return content;
+      } catch (Exception e) {
+        throw new HopException("Error reading metadata file '" + filename + "'", e);
+      }
+    }
+
+    /**
+     * Register a file which was just written.
+     *
+     * @param name The name of the object
+     * @param filename The name of the JSON file of the object
+     * @param content The content which was written to the file
+     */
+    public void put(String name, String filename, byte[] content) {
+      version.incrementAndGet();
+      names = null;
+      try {
+        long lastModified = HopVfs.getFileObject(filename).getContent().getLastModifiedTime();
+        entries.put(
+            name, new Entry(content, lastModified, content.length, System.currentTimeMillis()));
+      } catch (Exception e) {
+        entries.remove(name);
+      }
+    }
+
+    /**
+     * @param name The name of the object which was deleted
+     */
+    public void remove(String name) {
+      version.incrementAndGet();
+      names = null;
+      entries.remove(name);
+    }
+
+    /** Forget all the cached names and files of this folder */
+    public void invalidate() {
+      version.incrementAndGet();
+      folderExists = false;
+      names = null;
+      entries.clear();
+    }
+
+    private Set<String> getValidNames(long checkInterval) {
+      Set<String> cachedNames = names;
+      if (cachedNames != null
+          && isValid(namesCheckTime, System.currentTimeMillis(), checkInterval)) {
+        return cachedNames;
+      }
+      return null;
+    }
+
+    /**
+     * Cached information is valid until the check interval passes, unless a watched folder reports
+     * a change before that. An interval of 0 means that we always need to check.
+     */
+    private boolean isValid(long checkTime, long now, long checkInterval) {
+      return checkInterval > 0 && now - checkTime < checkInterval;
+    }
+  }
+
+  /** Lists the names of the metadata objects in a folder */
+  @FunctionalInterface
+  public interface INamesLister {
+    List<String> listNames() throws HopException;
+  }
+
+  private static class Entry {
+    private final byte[] content;
+    private final long lastModified;
+    private final long size;
+    private volatile long checkTime;
+
+    private Entry(byte[] content, long lastModified, long size, long checkTime) {
+      this.content = content;
+      this.lastModified = lastModified;
+      this.size = size;
+      this.checkTime = checkTime;
+    }
+  }
+}
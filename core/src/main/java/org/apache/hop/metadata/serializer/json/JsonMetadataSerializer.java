@@ -34,6 +34,7 @@ import lombok.Setter;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.FileSystemException;
+import org.apache.hop.core.Const;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.variables.IVariables;
 import org.apache.hop.core.vfs.HopVfs;
@@ -58,6 +59,11 @@ public class JsonMetadataSerializer<T extends IHopMetadata> implements IHopMetad
   protected boolean baseFolderValidated;
   protected boolean baseFolderExists;
 
+  /** The cached files of the base folder or null if caching is disabled */
+  protected JsonMetadataCache.FolderCache folderCache;
+
+  protected long cacheCheckInterval;
+
   public JsonMetadataSerializer(
       IHopMetadataProvider metadataProvider,
       String baseFolder,
@@ -70,6 +76,15 @@ public class JsonMetadataSerializer<T extends IHopMetadata> implements IHopMetad
     this.parser = new JsonMetadataParser<>(managedClass, metadataProvider);
     this.variables = variables;
     this.description = description;
+    this.cacheCheckInterval =
+        Const.toLong(
+            variables == null
+                ? null
+                : variables.getVariable(Const.HOP_METADATA_CACHE_CHECK_INTERVAL),
+            1000L);
+    if (cacheCheckInterval >= 0) {
+      this.folderCache = JsonMetadataCache.getInstance().getFolderCache(baseFolder);
+    }
   }
 
   @Override
@@ -92,12 +107,32 @@ public class JsonMetadataSerializer<T extends IHopMetadata> implements IHopMetad
     if (name == null) {
       throw new HopException("Error: you need to specify the name of the metadata object to load");
     }
+    String filename = calculateFilename(name);
+
+    if (folderCache != null) {
+      // Every load parses the cached JSON again so the caller gets its own copy of the object.
+      //
+      validateBaseFolder(false);
+      if (!baseFolderExists) {
+        return null;
+      }
+      byte[] content = folderCache.getContent(name, filename, cacheCheckInterval);
+      if (content == null) {
+        return null;
+      }
+      try (com.fasterxml.jackson.core.JsonParser jsonParser =
+          new JsonFactory().createParser(content)) {
+        return loadObject(jsonParser);
+      } catch (Exception e) {
+        throw new HopException(
+            "Error loading metadata object '" + name + "' from file '" + filename + "'", e);
+      }
+    }
+
     if (!exists(name)) {
       return null;
     }
 
-    String filename = calculateFilename(name);
-
     try {
       // Load the JSON in a streaming fashion so we can parse the properties one by one...
       //
@@ -105,14 +140,7 @@ public class JsonMetadataSerializer<T extends IHopMetadata> implements IHopMetad
         JsonFactory jsonFactory = new JsonFactory();
         try (com.fasterxml.jackson.core.JsonParser jsonParser =
             jsonFactory.createParser(fileInputStream)) {
-
-          // skip opening '{'
-          jsonParser.nextToken();
-
-          T t = parser.loadJsonObject(managedClass, jsonParser);
-          inheritVariables(t);
-          t.setMetadataProviderName(metadataProvider.getDescription());
-          return t;
+          return loadObject(jsonParser);
         }
       }
     } catch (Exception e) {
@@ -121,6 +149,16 @@ public class JsonMetadataSerializer<T extends IHopMetadata> implements IHopMetad
     }
   }
 
+  private T loadObject(com.fasterxml.jackson.core.JsonParser jsonParser) throws Exception {
+    // skip opening '{'
+    jsonParser.nextToken();
+
+    T t = parser.loadJsonObject(managedClass, jsonParser);
+    inheritVariables(t);
+    t.setMetadataProviderName(metadataProvider.getDescription());
+    return t;
+  }
+
   /**
    * If the loaded object implements variables we can inherit from it.
    *
@@ -142,6 +180,11 @@ public class JsonMetadataSerializer<T extends IHopMetadata> implements IHopMetad
     if (baseFolderValidated) {
       return;
     }
+    if (folderCache != null && folderCache.isFolderExists()) {
+      baseFolderValidated = true;
+      baseFolderExists = true;
+      return;
+    }
 
     // Check if the folder exists...
     //
@@ -150,11 +193,13 @@ public class JsonMetadataSerializer<T extends IHopMetadata> implements IHopMetad
       if (serializerBaseFolder.exists()) {
         baseFolderValidated = true;
         baseFolderExists = true;
+        watchFolder();
       } else {
         if (saveOperation) {
           serializerBaseFolder.createFolder();
           baseFolderValidated = true;
           baseFolderExists = true;
+          watchFolder();
         } else {
           // This read operation doesn't really require a folder to be created, but we haven't
           // validated
@@ -173,6 +218,12 @@ public class JsonMetadataSerializer<T extends IHopMetadata> implements IHopMetad
     }
   }
 
+  private void watchFolder() {
+    if (folderCache != null) {
+      folderCache.watch();
+    }
+  }
+
   @Override
   public void save(T t) throws HopException {
     if (StringUtils.isEmpty(t.getName())) {
@@ -194,8 +245,14 @@ public class JsonMetadataSerializer<T extends IHopMetadata> implements IHopMetad
         JsonElement je = JsonParser.parseString(jsonString);
 
         String formattedJson = gson.toJson(je);
-        outputStream.write(formattedJson.getBytes(StandardCharsets.UTF_8));
+        byte[] content = formattedJson.getBytes(StandardCharsets.UTF_8);
+        outputStream.write(content);
         outputStream.flush();
+        outputStream.close();
+
+        if (folderCache != null) {
+          folderCache.put(t.getName(), filename, content);
+        }
 
         // Remember where we saved this...
         //
@@ -230,6 +287,9 @@ public class JsonMetadataSerializer<T extends IHopMetadata> implements IHopMetad
     String filename = calculateFilename(name);
     try {
       boolean deleted = HopVfs.getFileObject(filename).delete();
+      if (folderCache != null) {
+        folderCache.remove(name);
+      }
       if (!deleted) {
         throw new HopException(
             "Error: Object '" + name + "' could not be deleted, filename : " + filename);
@@ -242,16 +302,21 @@ public class JsonMetadataSerializer<T extends IHopMetadata> implements IHopMetad
 
   @Override
   public List<String> listObjectNames() throws HopException {
-    List<String> names = new ArrayList<>();
-
     // Read-only access doesn't require a folder
     validateBaseFolder(false);
     if (!baseFolderExists) {
       // This is not an error.  We simply don't have objects of the given type.
       //
-      return names;
+      return new ArrayList<>();
     }
+    if (folderCache != null) {
+      return folderCache.getNames(cacheCheckInterval, this::findObjectNames);
+    }
+    return findObjectNames();
+  }
 
+  private List<String> findObjectNames() throws HopException {
+    List<String> names = new ArrayList<>();
     FileObject folder = HopVfs.getFileObject(baseFolder);
 
     try {
@@ -273,6 +338,9 @@ public class JsonMetadataSerializer<T extends IHopMetadata> implements IHopMetad
     if (!baseFolderExists) {
       return false;
     }
+    if (folderCache != null) {
+      return folderCache.exists(name, calculateFilename(name), cacheCheckInterval);
+    }
     return HopVfs.fileExists(calculateFilename(name));
   }
 }
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMetaBuilder;
+import org.junit.jupiter.api.Test;
+
+class SpillableRowListTest {
+
+  private final IRowMeta idRowMeta =
+      new RowMetaBuilder().addInteger("id").addString("name").build();
+  private final IRowMeta codeRowMeta = new RowMetaBuilder().addString("code").build();
+
+  @Test
+  void testRowsAreSpilledBeyondThreshold() throws Exception {
+    SpillableRowList rows = new SpillableRowList(10);
+    for (long i = 0; i < 10; i++) {
+      rows.add(new RowMetaAndData(idRowMeta, i, "row " + i));
+    }
+    assertFalse(rows.isSpilled());
+
+    for (long i = 10; i < 25; i++) {
+      if (i % 5 == 0) {
+        rows.add(new RowMetaAndData(codeRowMeta, "code " + i));
+      } else {
+        rows.add(new RowMetaAndData(idRowMeta.clone(), i, "row " + i));
+      }
+    }
+    assertTrue(rows.isSpilled());
+    assertEquals(25, rows.size());
+
+    // Stream the rows from disk
+    //
+    int count = 0;
+    for (RowMetaAndData row : rows) {
+      if (count >= 10 && count % 5 == 0) {
+        assertEquals("code " + count, row.getString("code", null));
+      } else {
+        assertEquals(count, row.getInteger("id", -1L));
+        assertEquals("row " + count, row.getString("name", null));
+      }
+      count++;
+    }
+    assertEquals(25, count);
+
+    // Access by index, in order and out of order
+    //
+    assertEquals(3L, rows.get(3).getInteger("id", -1L));
+    assertEquals(4L, rows.get(4).getInteger("id", -1L));
+    assertEquals("code 20", rows.get(20).getString("code", null));
+    assertEquals(1L, rows.get(1).getInteger("id", -1L));
+
+    rows.clear();
+    assertFalse(rows.isSpilled());
+    assertTrue(rows.isEmpty());
+  }
+
+  @Test
+  void testResultCloneAndAdd() throws Exception {
+    Result result = new Result();
+    result.setRows(new SpillableRowList(2));
+    for (long i = 0; i < 5; i++) {
+      result.addRow(new RowMetaAndData(idRowMeta, i, "row " + i));
+    }
+
+    Result clone = result.clone();
+    assertEquals(5, clone.getRows().size());
+
+    Result total = new Result();
+    total.add(result);
+    total.add(clone);
+    List<RowMetaAndData> totalRows = total.getRows();
+    assertEquals(10, totalRows.size());
+    assertEquals(4L, totalRows.get(9).getInteger("id", -1L));
+  }
+
+  @Test
+  void testConcurrentAccessByIndex() throws Exception {
+    SpillableRowList rows = new SpillableRowList(10);
+    for (long i = 0; i < 1000; i++) {
+      rows.add(new RowMetaAndData(idRowMeta, i, "row " + i));
+    }
+    assertTrue(rows.isSpilled());
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        final int start = t;
+        futures.add(
+            executor.submit(
+                () -> {
+                  for (int i = start; i < 1000; i += 3) {
+                    assertEquals(i, rows.get(i).getInteger("id", -1L));
+                    assertEquals("row " + i, rows.get(i).getString("name", null));
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void testCopySharesSpilledRows() throws Exception {
+    SpillableRowList rows = new SpillableRowList(2);
+    for (long i = 0; i < 5; i++) {
+      rows.add(new RowMetaAndData(idRowMeta, i, "row " + i));
+    }
+    SpillableRowList copy = rows.copy();
+    assertTrue(copy.isSpilled());
+    assertEquals(5, copy.size());
+
+    // Appending to one list doesn't change the other
+    //
+    copy.add(new RowMetaAndData(codeRowMeta, "copy"));
+    rows.add(new RowMetaAndData(idRowMeta, 5L, "row 5"));
+    assertEquals(6, copy.size());
+    assertEquals(6, rows.size());
+    assertEquals("copy", copy.get(5).getString("code", null));
+    assertEquals(5L, rows.get(5).getInteger("id", -1L));
+
+    // Clearing one list keeps the rows of the other
+    //
+    rows.clear();
+    int count = 0;
+    for (RowMetaAndData row : copy) {
+      if (count < 5) {
+        assertEquals(count, row.getInteger("id", -1L));
+      }
+      count++;
+    }
+    assertEquals(6, count);
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.plugins;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.value.ValueMetaPluginType;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.junit.rules.RestoreHopEnvironment;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PluginRegistrySnapshotTest {
+  @ClassRule public static RestoreHopEnvironment env = new RestoreHopEnvironment();
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private File pluginFolder;
+  private String snapshotFile;
+
+  @Before
+  public void before() throws Exception {
+    pluginFolder = temporaryFolder.newFolder("plugins");
+    System.setProperty(Const.HOP_PLUGIN_BASE_FOLDERS, pluginFolder.getAbsolutePath());
+    snapshotFile = new File(temporaryFolder.getRoot(), "plugin-registry.snapshot").getPath();
+    PluginRegistry.getInstance().reset();
+  }
+
+  @After
+  public void after() {
+    System.clearProperty(Const.HOP_PLUGIN_BASE_FOLDERS);
+    PluginRegistry.getInstance().reset();
+  }
+
+  @Test
+  public void testPluginsAreRegisteredFromSnapshot() throws Exception {
+    PluginRegistrySnapshot snapshot = PluginRegistrySnapshot.load(snapshotFile);
+    assertFalse(snapshot.isValid());
+    assertFalse(snapshot.registerPlugins(ValueMetaPluginType.getInstance()));
+
+    PluginRegistry.getInstance().addParentClassLoaderPatterns(createPlugin(), new String[0]);
+    snapshot.record(ValueMetaPluginType.getInstance(), List.of(createPlugin()));
+    snapshot.save();
+    assertTrue(new File(snapshotFile).exists());
+
+    PluginRegistrySnapshot loaded = PluginRegistrySnapshot.load(snapshotFile);
+    assertTrue(loaded.isValid());
+    assertTrue(loaded.registerPlugins(ValueMetaPluginType.getInstance()));
+
+    IPlugin plugin =
+        PluginRegistry.getInstance().getPlugin(ValueMetaPluginType.class, "SnapshotString");
+    assertNotNull(plugin);
+    assertEquals("Snapshot string", plugin.getName());
+    assertEquals(IValueMeta.class, plugin.getMainType());
+    assertEquals(ValueMetaString.class.getName(), plugin.getClassMap().get(IValueMeta.class));
+    assertArrayEquals(new String[] {"text"}, plugin.getKeywords());
+    assertEquals("https://example.com/docs", plugin.getDocumentationUrl());
+  }
+
+  @Test
+  public void testSnapshotIsInvalidatedByChangedJar() throws Exception {
+    File jarFile = new File(pluginFolder, "plugin.jar");
+    Files.write(jarFile.toPath(), new byte[] {1, 2, 3});
+
+    PluginRegistrySnapshot snapshot = PluginRegistrySnapshot.load(snapshotFile);
+    snapshot.record(ValueMetaPluginType.getInstance(), List.of(createPlugin()));
+    snapshot.save();
+    assertTrue(PluginRegistrySnapshot.load(snapshotFile).isValid());
+
+    Files.write(jarFile.toPath(), new byte[] {1, 2, 3, 4});
+    PluginRegistrySnapshot loaded = PluginRegistrySnapshot.load(snapshotFile);
+    assertFalse(loaded.isValid());
+    assertFalse(loaded.registerPlugins(ValueMetaPluginType.getInstance()));
+  }
+
+  private Plugin createPlugin() {
+    Map<Class<?>, String> classMap = new HashMap<>();
+    classMap.put(IValueMeta.class, ValueMetaString.class.getName());
+    Plugin plugin =
+        new Plugin(
+            new String[] {"SnapshotString"},
+            ValueMetaPluginType.class,
+            IValueMeta.class,
+            "",
+            "Snapshot string",
+            "A string value for the snapshot test",
+            null,
+            false,
+            null,
+            true,
+            classMap,
+            new ArrayList<>(),
+            null,
+            new String[] {"text"},
+            null,
+            false,
+            null,
+            null,
+            null,
+            null,
+            false);
+    plugin.setDocumentationUrl("https://example.com/docs");
+    return plugin;
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row.value;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.hop.core.exception.HopValueException;
+import org.junit.jupiter.api.Test;
+
+class DateMaskFormatterTest {
+
+  private static final TimeZone ZONE = TimeZone.getTimeZone("Europe/Brussels");
+
+  private static SimpleDateFormat dateFormat(String mask, boolean lenient) {
+    SimpleDateFormat dateFormat = new SimpleDateFormat(mask, Locale.US);
+    dateFormat.setTimeZone(ZONE);
+    dateFormat.setLenient(lenient);
+    return dateFormat;
+  }
+
+  @Test
+  void testUnsupportedMasks() {
+    assertNull(DateMaskFormatter.compile(dateFormat("yyyyMMdd", false)));
+    assertNull(DateMaskFormatter.compile(dateFormat("yy-MM-dd", false)));
+    assertNull(DateMaskFormatter.compile(dateFormat("dd MMM yyyy", false)));
+    assertNull(DateMaskFormatter.compile(dateFormat("yyyy-MM-dd'T'HH:mm:ss", false)));
+    assertNull(DateMaskFormatter.compile(dateFormat("HH:mm:ss", false)));
+    assertNull(
+        DateMaskFormatter.compile(new SimpleDateFormat("yyyy-MM-dd", new Locale("th", "TH"))));
+  }
+
+  @Test
+  void testSameResultAsSimpleDateFormat() {
+    String[] masks = {
+      "yyyy-MM-dd HH:mm:ss", "yyyy/MM/dd HH:mm:ss.SSS", "dd/MM/yyyy", "MM-dd-yyyy HH:mm"
+    };
+    Random random = new Random(42);
+    for (String mask : masks) {
+      SimpleDateFormat dateFormat = dateFormat(mask, false);
+      DateMaskFormatter formatter = DateMaskFormatter.compile(dateFormat);
+      assertNotNull(formatter, mask);
+      for (int i = 0; i < 2000; i++) {
+        // Dates between 1500 and 2100, also before the supported range
+        Date date = new Date(-14_831_769_600_000L + (long) (random.nextDouble() * 18.9e12));
+        String expected = dateFormat.format(date);
+        String formatted = formatter.format(date);
+        if (formatted != null) {
+          assertEquals(expected, formatted, mask);
+        }
+        Date parsed = formatter.parse(expected);
+        if (parsed != null) {
+          assertEquals(dateFormat.parse(expected, new ParsePosition(0)), parsed, expected);
+        }
+      }
+    }
+  }
+
+  @Test
+  void testLeftToSimpleDateFormat() {
+    DateMaskFormatter formatter =
+        DateMaskFormatter.compile(dateFormat("yyyy-MM-dd HH:mm:ss", false));
+    assertNotNull(formatter);
+
+    // Invalid or lenient values
+    assertNull(formatter.parse("2023-02-29 10:00:00"));
+    assertNull(formatter.parse("2023-13-01 10:00:00"));
+    // A local time which doesn't exist: daylight saving time starts
+    assertNull(formatter.parse("2023-03-26 02:30:00"));
+    // Historical calendars and local mean times
+    assertNull(formatter.parse("1500-01-01 00:00:00"));
+    assertNull(formatter.parse("1850-01-01 00:00:00"));
+    // More digits than the mask
+    assertNull(formatter.parse("2023-01-01 10:00:001"));
+
+    // Fewer digits and text after the date are accepted like SimpleDateFormat does
+    SimpleDateFormat dateFormat = dateFormat("yyyy-MM-dd HH:mm:ss", false);
+    for (String string :
+        new String[] {"2023-1-5 7:8:9", "2023-01-05 10:00:00 CET", "2023-01-05 10:00:0x"}) {
+      assertEquals(dateFormat.parse(string, new ParsePosition(0)), formatter.parse(string));
+    }
+  }
+
+  @Test
+  void testValueMetaDateConversions() throws Exception {
+    ValueMetaDate valueMeta = new ValueMetaDate("date");
+    valueMeta.setConversionMask("yyyy-MM-dd HH:mm:ss");
+    valueMeta.setDateFormatTimeZone(ZONE);
+    SimpleDateFormat dateFormat = dateFormat("yyyy-MM-dd HH:mm:ss", false);
+
+    // Lenient parsing is still done by the date format
+    assertThrows(
+        HopValueException.class, () -> valueMeta.convertStringToDate("2023-02-30 10:00:00"));
+    valueMeta.setDateFormatLenient(true);
+    assertEquals(
+        dateFormat.parse("2023-03-02 10:00:00"),
+        valueMeta.convertStringToDate("2023-02-30 10:00:00"));
+
+    // A changed mask is picked up
+    valueMeta.setConversionMask("dd/MM/yyyy");
+    assertEquals(
+        "05/01/2023", valueMeta.convertDateToString(dateFormat.parse("2023-01-05 10:00:00")));
+  }
+
+  @Test
+  void testConcurrentConversions() throws Exception {
+    ValueMetaDate valueMeta = new ValueMetaDate("date");
+    valueMeta.setConversionMask("yyyy-MM-dd HH:mm:ss");
+    valueMeta.setDateFormatTimeZone(ZONE);
+
+    List<String> strings = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      strings.add(
+          String.format("2023-%02d-%02d %02d:%02d:00", 1 + i % 12, 1 + i % 28, i % 24, i % 60));
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  for (String string : strings) {
+                    assertEquals(
+                        string,
+                        valueMeta.convertDateToString(valueMeta.convertStringToDate(string)));
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
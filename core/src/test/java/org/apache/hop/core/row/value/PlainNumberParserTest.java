@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row.value;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+
+class PlainNumberParserTest {
+
+  @Test
+  void testSupports() {
+    DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(Locale.US);
+    assertTrue(PlainNumberParser.supports(new DecimalFormat("####0.0#########", symbols)));
+    assertTrue(PlainNumberParser.supports(new DecimalFormat("#,##0.00;-#,##0.00", symbols)));
+    assertFalse(PlainNumberParser.supports(new DecimalFormat("#0.0%", symbols)));
+    assertFalse(PlainNumberParser.supports(new DecimalFormat("#0.0;(#0.0)", symbols)));
+    assertFalse(PlainNumberParser.supports(new DecimalFormat("$#0.0", symbols)));
+    assertFalse(
+        PlainNumberParser.supports(
+            new DecimalFormat("#0.0", DecimalFormatSymbols.getInstance(Locale.GERMANY))));
+  }
+
+  @Test
+  void testSameResultAsDecimalFormat() throws Exception {
+    DecimalFormat decimalFormat =
+        new DecimalFormat("####0.0#########", DecimalFormatSymbols.getInstance(Locale.US));
+    String[] strings = {
+      "0",
+      "-0",
+      "7",
+      "-42",
+      "0.1",
+      "3.14159265358979",
+      "-0.000001",
+      "123456789012345678901234",
+      "00012.50"
+    };
+    for (String string : strings) {
+      assertEquals(
+          decimalFormat.parse(string).doubleValue(), PlainNumberParser.parseNumber(string), string);
+    }
+    for (String string : new String[] {"0", "-0", "42", "-123456789012345678"}) {
+      assertEquals(
+          decimalFormat.parse(string).longValue(), PlainNumberParser.parseInteger(string), string);
+    }
+  }
+
+  @Test
+  void testNotPlain() {
+    for (String string : new String[] {"-", "1.", ".5", "+1", "1,000.5", "1e5", "1.5b", "1 "}) {
+      assertNull(PlainNumberParser.parseNumber(string), string);
+    }
+    for (String string : new String[] {"-", "1.5", "1,000", "1234567890123456789"}) {
+      assertNull(PlainNumberParser.parseInteger(string), string);
+    }
+  }
+}
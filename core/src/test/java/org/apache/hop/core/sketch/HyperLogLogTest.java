@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.core.sketch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.value.ValueMetaBinary;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.junit.jupiter.api.Test;
+
+class HyperLogLogTest {
+
+  @Test
+  void testSmallCardinalities() throws Exception {
+    HyperLogLog sketch = new HyperLogLog();
+    ValueMetaInteger valueMeta = new ValueMetaInteger("id");
+    for (long i = 0; i < 100; i++) {
+      sketch.addValue(valueMeta, i);
+      sketch.addValue(valueMeta, i);
+      sketch.addValue(valueMeta, null);
+    }
+    assertEquals(100, sketch.estimate());
+  }
+
+  @Test
+  void testLargeCardinalities() throws Exception {
+    HyperLogLog sketch = new HyperLogLog();
+    ValueMetaString valueMeta = new ValueMetaString("code");
+    int distinct = 200_000;
+    for (int i = 0; i < distinct; i++) {
+      sketch.addValue(valueMeta, "code-" + i);
+    }
+    double error = Math.abs(sketch.estimate() - distinct) / (double) distinct;
+    assertTrue(error < 0.03, "Error too large: " + error);
+  }
+
+  @Test
+  void testMergeAndSerialize() throws Exception {
+    ValueMetaInteger valueMeta = new ValueMetaInteger("id");
+    HyperLogLog all = new HyperLogLog();
+    HyperLogLog first = new HyperLogLog();
+    HyperLogLog second = new HyperLogLog();
+    for (long i = 0; i < 50_000; i++) {
+      all.addValue(valueMeta, i);
+      (i % 2 == 0 ? first : second).addValue(valueMeta, i);
+    }
+    // Values in both halves only count once
+    for (long i = 0; i < 10; i++) {
+      second.addValue(valueMeta, i);
+    }
+
+    // A binary field with serialized sketches is merged
+    HyperLogLog merged = new HyperLogLog();
+    ValueMetaBinary binaryMeta = new ValueMetaBinary("sketch");
+    merged.addValue(binaryMeta, first.toBytes());
+    merged.addValue(binaryMeta, HyperLogLog.fromBytes(second.toBytes()).toBytes());
+    assertEquals(all.estimate(), merged.estimate());
+
+    HyperLogLog small = new HyperLogLog();
+    small.addValue(valueMeta, 1L);
+    assertEquals(1, HyperLogLog.fromBytes(small.toBytes()).estimate());
+  }
+
+  @Test
+  void testInvalidSketches() {
+    assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3));
+    assertThrows(
+        IllegalArgumentException.class, () -> new HyperLogLog(10).merge(new HyperLogLog(12)));
+    assertThrows(
+        HopValueException.class, () -> HyperLogLog.fromBytes(new QuantileSketch().toBytes()));
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.core.sketch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.apache.hop.core.row.value.ValueMetaBinary;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.junit.jupiter.api.Test;
+
+class QuantileSketchTest {
+
+  @Test
+  void testSmallInputIsExact() throws Exception {
+    QuantileSketch sketch = new QuantileSketch();
+    ValueMetaNumber valueMeta = new ValueMetaNumber("value");
+    for (int i = 1; i <= 9; i++) {
+      sketch.addValue(valueMeta, (double) i);
+    }
+    sketch.addValue(valueMeta, null);
+    assertEquals(9, sketch.getCount());
+    assertEquals(5.0, sketch.quantile(0.5));
+    assertEquals(1.0, sketch.quantile(0.0));
+    assertEquals(9.0, sketch.quantile(1.0));
+    assertEquals(Double.NaN, new QuantileSketch().quantile(0.5));
+  }
+
+  @Test
+  void testAccuracy() {
+    List<Double> values = new ArrayList<>();
+    for (int i = 0; i < 100_000; i++) {
+      values.add((double) i);
+    }
+    Collections.shuffle(values, new Random(42));
+    QuantileSketch sketch = new QuantileSketch();
+    values.forEach(sketch::add);
+
+    for (double fraction : new double[] {0.01, 0.25, 0.5, 0.9, 0.99}) {
+      double rankError = Math.abs(sketch.quantile(fraction) - fraction * values.size());
+      assertTrue(rankError < 0.02 * values.size(), "Rank error too large for " + fraction);
+    }
+  }
+
+  @Test
+  void testMergeAndSerialize() throws Exception {
+    QuantileSketch merged = new QuantileSketch();
+    ValueMetaBinary binaryMeta = new ValueMetaBinary("sketch");
+    for (int part = 0; part < 10; part++) {
+      QuantileSketch partial = new QuantileSketch();
+      for (int i = part; i < 50_000; i += 10) {
+        partial.add(i);
+      }
+      merged.addValue(binaryMeta, partial.toBytes());
+    }
+    assertEquals(50_000, merged.getCount());
+    assertEquals(0.0, merged.getMin());
+    assertEquals(49_999.0, merged.getMax());
+    assertEquals(25_000, merged.quantile(0.5), 1_000);
+
+    QuantileSketch copy = QuantileSketch.fromBytes(merged.toBytes());
+    assertEquals(merged.getCount(), copy.getCount());
+    assertEquals(merged.quantile(0.5), copy.quantile(0.5));
+    assertEquals(merged.quantile(0.9), copy.quantile(0.9));
+  }
+}
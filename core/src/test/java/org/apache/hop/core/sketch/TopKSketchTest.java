@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.core.sketch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import org.apache.hop.core.row.value.ValueMetaBinary;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.junit.jupiter.api.Test;
+
+class TopKSketchTest {
+
+  @Test
+  void testExactCounts() throws Exception {
+    TopKSketch sketch = new TopKSketch();
+    ValueMetaString valueMeta = new ValueMetaString("item");
+    for (String item : new String[] {"b", "a", "c", "a", "b", "a", null}) {
+      sketch.addValue(valueMeta, item);
+    }
+    assertTrue(sketch.isExact());
+    assertEquals(6, sketch.getTotal());
+    assertEquals("a (3), b (2)", sketch.format(2));
+    assertEquals("a (3), b (2), c (1)", sketch.format(10));
+  }
+
+  @Test
+  void testHeavyHitters() {
+    TopKSketch sketch = new TopKSketch(16);
+    for (int i = 0; i < 100_000; i++) {
+      // A few frequent values between a lot of rare ones
+      sketch.add(i % 10 == 0 ? "frequent-" + (i % 30) : "rare-" + i);
+    }
+    assertFalse(sketch.isExact());
+    List<Map.Entry<String, Long>> top = sketch.top(3);
+    assertEquals(3, top.size());
+    for (Map.Entry<String, Long> entry : top) {
+      assertTrue(entry.getKey().startsWith("frequent-"), entry.getKey());
+      // The count-min sketch never underestimates
+      assertTrue(entry.getValue() >= 3_333, entry.toString());
+    }
+  }
+
+  @Test
+  void testMergeAndSerialize() throws Exception {
+    TopKSketch first = new TopKSketch(4);
+    TopKSketch second = new TopKSketch(4);
+    for (int i = 0; i < 100; i++) {
+      first.add("x");
+      second.add("y");
+    }
+    first.add("z");
+    second.add("z");
+
+    TopKSketch merged = new TopKSketch(4);
+    ValueMetaBinary binaryMeta = new ValueMetaBinary("sketch");
+    merged.addValue(binaryMeta, first.toBytes());
+    merged.addValue(binaryMeta, second.toBytes());
+    assertTrue(merged.isExact());
+    assertEquals("x (100), y (100), z (2)", merged.format(3));
+
+    for (int i = 0; i < 10; i++) {
+      second.add("rare-" + i);
+    }
+    merged.merge(TopKSketch.fromBytes(second.toBytes()));
+    assertFalse(merged.isExact());
+    assertEquals(313, merged.getTotal());
+    assertEquals("y (200), x (100)", merged.format(2));
+  }
+}
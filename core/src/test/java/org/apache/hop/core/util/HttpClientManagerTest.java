@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.core.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HttpClientManagerTest {
+  private HttpServer server;
+  private final AtomicInteger requests = new AtomicInteger();
+  private String url;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    // Busy for the first 2 requests
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+        "/",
+        exchange -> {
+          exchange.getRequestBody().readAllBytes();
+          int status = requests.incrementAndGet() <= 2 ? 503 : 200;
+          exchange.sendResponseHeaders(status, -1);
+          exchange.close();
+        });
+    server.start();
+    url = "http://localhost:" + server.getAddress().getPort() + "/";
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+  }
+
+  private int execute(CloseableHttpClient client, boolean post) throws Exception {
+    try (client) {
+      if (post) {
+        HttpPost request = new HttpPost(url);
+        request.setEntity(new StringEntity("body"));
+        try (CloseableHttpResponse response = client.execute(request)) {
+          return response.getStatusLine().getStatusCode();
+        }
+      }
+      try (CloseableHttpResponse response = client.execute(new HttpGet(url))) {
+        return response.getStatusLine().getStatusCode();
+      }
+    }
+  }
+
+  @Test
+  void testRetryStatusCodes() throws Exception {
+    CloseableHttpClient client =
+        HttpClientManager.getInstance()
+            .createBuilder()
+            .setMaxConnections(1)
+            .setRetries(3, 10, List.of(503))
+            .build();
+    assertEquals(200, execute(client, false));
+    assertEquals(3, requests.get());
+
+    // A repeatable POST body is sent again as well
+    requests.set(0);
+    client =
+        HttpClientManager.getInstance()
+            .createBuilder()
+            .setMaxConnections(1)
+            .setRetries(3, 10, List.of(503))
+            .build();
+    assertEquals(200, execute(client, true));
+    assertEquals(3, requests.get());
+  }
+
+  @Test
+  void testRetriesExhausted() throws Exception {
+    CloseableHttpClient client =
+        HttpClientManager.getInstance()
+            .createBuilder()
+            .setMaxConnections(1)
+            .setRetries(1, 10, List.of(503))
+            .build();
+    assertEquals(503, execute(client, false));
+    assertEquals(2, requests.get());
+
+    // Without retries the status is passed on
+    requests.set(0);
+    client = HttpClientManager.getInstance().createBuilder().setMaxConnections(1).build();
+    assertEquals(503, execute(client, false));
+    assertEquals(1, requests.get());
+  }
+
+  @Test
+  void testRetryDelay() {
+    for (int attempt = 0; attempt < 40; attempt++) {
+      long delay = HttpClientManager.retryDelay(attempt, 100);
+      long backoff = Math.min(100L << Math.min(attempt, 20), 30_000L);
+      assertTrue(delay >= backoff / 2 && delay < backoff / 2 + 100, attempt + ": " + delay);
+    }
+    assertEquals(0, HttpClientManager.retryDelay(3, 0));
+  }
+}
@@ -156,4 +156,32 @@ public class VariablesTest {
         new String[] {"DataOne", "TheDataOne"},
         vars.resolve(new String[] {"${VarOne}", "The${VarOne}"}));
   }
+
+  @Test
+  public void testResolveAfterVariablesChange() {
+    Variables vars = new Variables();
+    vars.setVariable("VarOne", "DataOne");
+    assertEquals("The DataOne", vars.resolve("The ${VarOne}"));
+
+    vars.setVariable("VarOne", "Changed");
+    assertEquals("The Changed", vars.resolve("The ${VarOne}"));
+
+    vars.setVariables(Map.of("VarOne", "Injected"));
+    vars.initializeFrom(null);
+    assertEquals("The Injected", vars.resolve("The ${VarOne}"));
+
+    Variables other = new Variables();
+    other.setVariable("VarOne", "Copied");
+    vars.copyFrom(other);
+    assertEquals("The Copied", vars.resolve("The ${VarOne}"));
+
+    vars.setVariable("VarOne", null);
+    assertEquals("The ${VarOne}", vars.resolve("The ${VarOne}"));
+
+    // Many different strings are still resolved correctly
+    for (int i = 0; i < 5000; i++) {
+      vars.setVariable("Var" + i, "Value" + i);
+      assertEquals("Value" + i + "/Value0", vars.resolve("${Var" + i + "}/${Var0}"));
+    }
+  }
 }
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.metadata.serializer.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.encryption.HopTwoWayPasswordEncoder;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.core.variables.Variables;
+import org.apache.hop.metadata.api.IHopMetadataSerializer;
+import org.apache.hop.metadata.serializer.json.occupation.Occupation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JsonMetadataCacheTest {
+
+  @TempDir Path baseFolder;
+
+  private IHopMetadataSerializer<Occupation> getSerializer(String checkInterval) throws Exception {
+    IVariables variables = new Variables();
+    variables.setVariable(Const.HOP_METADATA_CACHE_CHECK_INTERVAL, checkInterval);
+    JsonMetadataProvider metadataProvider =
+        new JsonMetadataProvider(new HopTwoWayPasswordEncoder(), baseFolder.toString(), variables);
+    return metadataProvider.getSerializer(Occupation.class);
+  }
+
+  @Test
+  void testLoadReturnsACopy() throws Exception {
+    IHopMetadataSerializer<Occupation> serializer = getSerializer("1000");
+    serializer.save(new Occupation("Engineer", "Builds things", 2001));
+
+    Occupation first = serializer.load("Engineer");
+    Occupation second = serializer.load("Engineer");
+    assertNotSame(first, second);
+    assertEquals(first, second);
+
+    // Changing a loaded object doesn't change the cached information
+    //
+    first.setDescription("Changed");
+    assertEquals("Builds things", getSerializer("1000").load("Engineer").getDescription());
+  }
+
+  @Test
+  void testSaveAndDeleteUpdateTheCache() throws Exception {
+    IHopMetadataSerializer<Occupation> serializer = getSerializer("60000");
+    serializer.save(new Occupation("Engineer", "Builds things", 2001));
+    assertEquals(2001, serializer.load("Engineer").getStartYear());
+    assertTrue(serializer.listObjectNames().contains("Engineer"));
+
+    getSerializer("60000").save(new Occupation("Engineer", "Builds other things", 2002));
+    assertEquals(2002, serializer.load("Engineer").getStartYear());
+
+    getSerializer("60000").delete("Engineer");
+    assertNull(serializer.load("Engineer"));
+    assertFalse(serializer.exists("Engineer"));
+    assertFalse(serializer.listObjectNames().contains("Engineer"));
+  }
+
+  @Test
+  void testExternalChangesAreDetected() throws Exception {
+    IHopMetadataSerializer<Occupation> serializer = getSerializer("0");
+    serializer.save(new Occupation("Engineer", "Builds things", 2001));
+    assertEquals("Builds things", serializer.load("Engineer").getDescription());
+
+    // Change the file behind the back of the serializer
+    //
+    Path file = baseFolder.resolve("occupation").resolve("Engineer.json");
+    Files.writeString(
+        file,
+        "{ \"name\" : \"Engineer\", \"description\" : \"Fixes things\", \"startYear\" : 2003 }",
+        StandardCharsets.UTF_8);
+    Occupation changed = serializer.load("Engineer");
+    assertEquals("Fixes things", changed.getDescription());
+    assertEquals(2003, changed.getStartYear());
+
+    Files.delete(file);
+    assertNull(serializer.load("Engineer"));
+    assertFalse(serializer.listObjectNames().contains("Engineer"));
+  }
+
+  @Test
+  void testFolderExistsAfterWatching() throws Exception {
+    Path folder = Files.createDirectories(baseFolder.resolve("watched"));
+    JsonMetadataCache.FolderCache folderCache =
+        JsonMetadataCache.getInstance().getFolderCache(folder.toString());
+    assertFalse(folderCache.isFolderExists());
+
+    folderCache.watch();
+    assertTrue(folderCache.isFolderExists());
+  }
+
+  @Test
+  void testCacheCanBeDisabled() throws Exception {
+    IHopMetadataSerializer<Occupation> serializer = getSerializer("-1");
+    assertNull(((JsonMetadataSerializer<Occupation>) serializer).folderCache);
+    serializer.save(new Occupation("Engineer", "Builds things", 2001));
+    assertEquals("Builds things", serializer.load("Engineer").getDescription());
+  }
+}
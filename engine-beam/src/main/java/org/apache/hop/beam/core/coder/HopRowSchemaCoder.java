@@ -0,0 +1,390 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.beam.core.coder;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Date;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.beam.sdk.coders.CoderException;
+import org.apache.beam.sdk.coders.CustomCoder;
+import org.apache.beam.sdk.util.VarInt;
+import org.apache.hop.beam.core.HopRow;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.value.ValueMetaAvroRecord;
+import org.apache.hop.core.row.value.ValueMetaFactory;
+
+/**
+ * A compact coder for Hop rows of a known layout. The value types come from the row metadata of the
+ * PCollection so they don't need to be written for every field:
+ *
+ * <ul>
+ *   <li>a header: varint of (number of fields + 1) shifted left by one, the lowest bit indicates
+ *       that a tagged bitmap follows. A header of 0 means a null row.
+ *   <li>a null bitmap, one bit per field
+ *   <li>an optional tagged bitmap: fields where the value class doesn't match the row metadata.
+ *       Those values are written with their type in front, like the generic row coder does.
+ *   <li>the non-null values: zigzag varints for integers and dates, length prefixed UTF-8 for
+ *       strings, ...
+ * </ul>
+ *
+ * The encoding only depends on the values. It's only deterministic, and usable for grouping keys,
+ * if equal values always have the same encoding. That isn't the case for numbers (0.0 and -0.0),
+ * big numbers (1.0 and 1.00), internet addresses (the host name) and Avro records (nested values):
+ * see {@link #verifyDeterministic()}.
+ */
+public class HopRowSchemaCoder extends CustomCoder<HopRow> {
+
+  private final int[] valueTypes;
+
+  public HopRowSchemaCoder(int[] valueTypes) {
+    this.valueTypes = valueTypes;
+  }
+
+  /**
+   * Create a coder for rows with the given layout.
+   *
+   * @param rowMeta The row metadata of the PCollection
+   * @return The coder
+   */
+  public static HopRowSchemaCoder of(IRowMeta rowMeta) {
+    int[] valueTypes = new int[rowMeta.size()];
+    for (int i = 0; i < rowMeta.size(); i++) {
+      valueTypes[i] = rowMeta.getValueMeta(i).getType();
+    }
+    return new HopRowSchemaCoder(valueTypes);
+  }
+
+  @Override
+  public void encode(HopRow hopRow, OutputStream outStream) throws IOException {
+    Object[] row = hopRow.getRow();
+    if (row == null) {
+      VarInt.encode(0, outStream);
+      return;
+    }
+    int length = hopRow.length();
+
+    byte[] nullBitmap = new byte[bitmapSize(length)];
+    byte[] taggedBitmap = null;
+    for (int i = 0; i < length; i++) {
+      Object object = row[i];
+      if (object == null) {
+        nullBitmap[i >> 3] |= (byte) (1 << (i & 7));
+      } else if (!isNativeValue(i, object)) {
+        if (taggedBitmap == null) {
+          taggedBitmap = new byte[nullBitmap.length];
+        }
+        taggedBitmap[i >> 3] |= (byte) (1 << (i & 7));
+      }
+    }
+
+    VarInt.encode(((length + 1) << 1) | (taggedBitmap == null ? 0 : 1), outStream);
+    outStream.write(nullBitmap);
+    if (taggedBitmap != null) {
+      outStream.write(taggedBitmap);
+    }
+
+    DataOutputStream out = new DataOutputStream(outStream);
+    for (int i = 0; i < length; i++) {
+      Object object = row[i];
+      if (object == null) {
+        continue;
+      }
+      if (taggedBitmap != null && isSet(taggedBitmap, i)) {
+        int objectType = getObjectType(object);
+        VarInt.encode(objectType, out);
+        writeValue(out, objectType, object);
+      } else {
+        writeValue(out, valueTypes[i], object);
+      }
+    }
+    out.flush();
+  }
+
+  @Override
+  public HopRow decode(InputStream inStream) throws IOException {
+    int header = VarInt.decodeInt(inStream);
+    if (header == 0) {
+      return new HopRow(null);
+    }
+    int length = (header >>> 1) - 1;
+
+    DataInputStream in = new DataInputStream(inStream);
+    byte[] nullBitmap = new byte[bitmapSize(length)];
+    in.readFully(nullBitmap);
+    byte[] taggedBitmap = null;
+    if ((header & 1) != 0) {
+      taggedBitmap = new byte[nullBitmap.length];
+      in.readFully(taggedBitmap);
+    }
+
+    Object[] row = new Object[length];
+    for (int i = 0; i < length; i++) {
+      if (isSet(nullBitmap, i)) {
+        continue;
+      }
+      if (taggedBitmap != null && isSet(taggedBitmap, i)) {
+        row[i] = readValue(in, VarInt.decodeInt(in));
+      } else {
+        row[i] = readValue(in, valueTypes[i]);
+      }
+    }
+    return new HopRow(row, length);
+  }
+
+  @Override
+  public void verifyDeterministic() throws NonDeterministicException {
+    for (int i = 0; i < valueTypes.length; i++) {
+      if (!isDeterministic(valueTypes[i])) {
+        throw new NonDeterministicException(
+            this,
+            "Field "
+                + i
+                + " of type "
+                + ValueMetaFactory.getValueMetaName(valueTypes[i])
+                + " can have equal values with different encodings");
+      }
+    }
+  }
+
+  /**
+   * @return true if equal rows are always encoded the same way so the coder can be used for keys
+   */
+  public boolean isDeterministic() {
+    for (int valueType : valueTypes) {
+      if (!isDeterministic(valueType)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isDeterministic(int valueType) {
+    return switch (valueType) {
+      case IValueMeta.TYPE_STRING,
+              IValueMeta.TYPE_INTEGER,
+              IValueMeta.TYPE_DATE,
+              IValueMeta.TYPE_TIMESTAMP,
+              IValueMeta.TYPE_BOOLEAN,
+              IValueMeta.TYPE_BINARY ->
+          true;
+      default -> false;
+    };
+  }
+
+  /**
+   * A value can be written without a type if the row metadata says what it is and the class of the
+   * value matches exactly.
+   */
+  private boolean isNativeValue(int index, Object object) {
+    if (index >= valueTypes.length) {
+      return false;
+    }
+    return switch (valueTypes[index]) {
+      case IValueMeta.TYPE_STRING -> object instanceof String;
+      case IValueMeta.TYPE_INTEGER -> object instanceof Long;
+      case IValueMeta.TYPE_NUMBER -> object instanceof Double;
+      case IValueMeta.TYPE_DATE -> object.getClass() == Date.class;
+      case IValueMeta.TYPE_TIMESTAMP -> object.getClass() == Timestamp.class;
+      case IValueMeta.TYPE_BOOLEAN -> object instanceof Boolean;
+      case IValueMeta.TYPE_BIGNUMBER -> object instanceof BigDecimal;
+      case IValueMeta.TYPE_BINARY -> object instanceof byte[];
+      case IValueMeta.TYPE_INET -> object instanceof InetAddress;
+      case IValueMeta.TYPE_AVRO -> object instanceof GenericRecord;
+      default -> false;
+    };
+  }
+
+  private static void writeValue(DataOutputStream out, int objectType, Object object)
+      throws IOException {
+    switch (objectType) {
+      case IValueMeta.TYPE_STRING ->
+          writeBytes(out, ((String) object).getBytes(StandardCharsets.UTF_8));
+      case IValueMeta.TYPE_INTEGER -> VarInt.encode(zigZag((Long) object), out);
+      case IValueMeta.TYPE_NUMBER -> out.writeDouble((Double) object);
+      case IValueMeta.TYPE_DATE -> VarInt.encode(zigZag(((Date) object).getTime()), out);
+      case IValueMeta.TYPE_TIMESTAMP -> {
+        Timestamp timestamp = (Timestamp) object;
+        VarInt.encode(zigZag(timestamp.getTime()), out);
+        VarInt.encode(timestamp.getNanos(), out);
+      }
+      case IValueMeta.TYPE_BOOLEAN -> out.writeBoolean((Boolean) object);
+      case IValueMeta.TYPE_BIGNUMBER -> {
+        BigDecimal bigDecimal = (BigDecimal) object;
+        VarInt.encode(zigZag(bigDecimal.scale()), out);
+        writeBytes(out, bigDecimal.unscaledValue().toByteArray());
+      }
+      case IValueMeta.TYPE_BINARY -> writeBytes(out, (byte[]) object);
+      case IValueMeta.TYPE_INET -> {
+        InetAddress inetAddress = (InetAddress) object;
+        writeBytes(out, inetAddress.getHostName().getBytes(StandardCharsets.UTF_8));
+        writeBytes(out, inetAddress.getAddress());
+      }
+      case IValueMeta.TYPE_AVRO -> {
+        // Write the schema and the binary serialization of the record
+        //
+        GenericRecord genericRecord = (GenericRecord) object;
+        try {
+          writeBytes(
+              out, genericRecord.getSchema().toString(false).getBytes(StandardCharsets.UTF_8));
+          ValueMetaAvroRecord valueMeta =
+              new ValueMetaAvroRecord("write", genericRecord.getSchema());
+          valueMeta.writeData(out, genericRecord);
+        } catch (Exception e) {
+          throw new IOException("Error serializing Avro generic schema and record", e);
+        }
+      }
+      default ->
+          throw new CoderException(
+              "Data type not supported yet: " + objectType + " - " + object.toString());
+    }
+  }
+
+  private static Object readValue(DataInputStream in, int objectType) throws IOException {
+    return switch (objectType) {
+      case IValueMeta.TYPE_STRING -> new String(readBytes(in), StandardCharsets.UTF_8);
+      case IValueMeta.TYPE_INTEGER -> unZigZag(VarInt.decodeLong(in));
+      case IValueMeta.TYPE_NUMBER -> in.readDouble();
+      case IValueMeta.TYPE_DATE -> new Date(unZigZag(VarInt.decodeLong(in)));
+      case IValueMeta.TYPE_TIMESTAMP -> {
+        Timestamp timestamp = new Timestamp(unZigZag(VarInt.decodeLong(in)));
+        timestamp.setNanos(VarInt.decodeInt(in));
+        yield timestamp;
+      }
+      case IValueMeta.TYPE_BOOLEAN -> in.readBoolean();
+      case IValueMeta.TYPE_BIGNUMBER -> {
+        int scale = (int) unZigZag(VarInt.decodeLong(in));
+        yield new BigDecimal(new BigInteger(readBytes(in)), scale);
+      }
+      case IValueMeta.TYPE_BINARY -> readBytes(in);
+      case IValueMeta.TYPE_INET -> {
+        String hostname = new String(readBytes(in), StandardCharsets.UTF_8);
+        yield InetAddress.getByAddress(hostname, readBytes(in));
+      }
+      case IValueMeta.TYPE_AVRO -> {
+        try {
+          Schema schema =
+              new Schema.Parser().parse(new String(readBytes(in), StandardCharsets.UTF_8));
+          ValueMetaAvroRecord valueMeta = new ValueMetaAvroRecord("read", schema);
+          yield valueMeta.readData(in);
+        } catch (Exception e) {
+          throw new IOException("Error de-serializing Avro schema and generic record", e);
+        }
+      }
+      default -> throw new CoderException("Data type not supported yet: " + objectType);
+    };
+  }
+
+  private static int getObjectType(Object object) throws CoderException {
+    if (object instanceof String) {
+      return IValueMeta.TYPE_STRING;
+    }
+    if (object instanceof Long) {
+      return IValueMeta.TYPE_INTEGER;
+    }
+    if (object instanceof Timestamp) {
+      return IValueMeta.TYPE_TIMESTAMP;
+    }
+    if (object instanceof Date) {
+      return IValueMeta.TYPE_DATE;
+    }
+    if (object instanceof Boolean) {
+      return IValueMeta.TYPE_BOOLEAN;
+    }
+    if (object instanceof Double) {
+      return IValueMeta.TYPE_NUMBER;
+    }
+    if (object instanceof BigDecimal) {
+      return IValueMeta.TYPE_BIGNUMBER;
+    }
+    if (object instanceof byte[]) {
+      return IValueMeta.TYPE_BINARY;
+    }
+    if (object instanceof InetAddress) {
+      return IValueMeta.TYPE_INET;
+    }
+    if (object instanceof GenericRecord) {
+      return IValueMeta.TYPE_AVRO;
+    }
+    throw new CoderException(
+        "Data type for object class " + object.getClass().getName() + " isn't supported yet");
+  }
+
+  private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+    VarInt.encode(bytes.length, out);
+    out.write(bytes);
+  }
+
+  private static byte[] readBytes(DataInputStream in) throws IOException {
+    byte[] bytes = new byte[VarInt.decodeInt(in)];
+    in.readFully(bytes);
+    return bytes;
+  }
+
+  private static long zigZag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static long unZigZag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private static int bitmapSize(int length) {
+    return (length + 7) >> 3;
+  }
+
+  private static boolean isSet(byte[] bitmap, int index) {
+    return (bitmap[index >> 3] & (1 << (index & 7))) != 0;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof HopRowSchemaCoder otherCoder)) {
+      return false;
+    }
+    return Arrays.equals(valueTypes, otherCoder.valueTypes);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(valueTypes);
+  }
+
+  /**
+   * Gets valueTypes
+   *
+   * @return value of valueTypes
+   */
+  public int[] getValueTypes() {
+    return valueTypes;
+  }
+}
@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.compress;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hop.core.Const;
+
+/**
+ * An output stream which cuts the written data into blocks of a fixed size and compresses every
+ * block independently on a small shared pool of worker threads. The compressed blocks are written
+ * to the wrapped stream in their original order.
+ *
+ * <p>This only works for formats where a concatenation of independently compressed blocks is itself
+ * a valid stream: multi-member GZip files (the pigz approach) or a sequence of Zstd frames.
+ */
+public class ParallelBlockOutputStream extends OutputStream {
+
+  /** Compresses a single block of data into a self-contained member or frame. */
+  @FunctionalInterface
+  public interface IBlockCompressor {
+    byte[] compress(byte[] data, int length) throws IOException;
+  }
+
+  public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+  private static ThreadPoolExecutor workerPool;
+
+  private final OutputStream out;
+  private final IBlockCompressor compressor;
+  private final int blockSize;
+  private final int maxBlocksInFlight;
+  private final Deque<Future<byte[]>> pending;
+
+  private byte[] buffer;
+  private int count;
+  private boolean closed;
+
+  public ParallelBlockOutputStream(
+      OutputStream out, IBlockCompressor compressor, int threads, int blockSize) {
+    this.out = out;
+    this.compressor = compressor;
+    this.blockSize = blockSize > 0 ? blockSize : DEFAULT_BLOCK_SIZE;
+    this.maxBlocksInFlight = Math.max(2, threads * 2);
+    this.pending = new ArrayDeque<>();
+    this.buffer = new byte[this.blockSize];
+    this.count = 0;
+    this.closed = false;
+    getWorkerPool(threads);
+  }
+
+  /**
+   * @return The number of compression worker threads configured with variable {@link
+   *     Const#HOP_COMPRESSION_THREADS}
+   */
+  public static int getConfiguredThreads() {
+    return Const.toInt(System.getProperty(Const.HOP_COMPRESSION_THREADS), 1);
+  }
+
+  /**
+   * @return The block size configured with variable {@link Const#HOP_COMPRESSION_BLOCK_SIZE}
+   */
+  public static int getConfiguredBlockSize() {
+    return Const.toInt(System.getProperty(Const.HOP_COMPRESSION_BLOCK_SIZE), DEFAULT_BLOCK_SIZE);
+  }
+
+  /**
+   * Gets the shared pool of compression worker threads. The pool is shared by all parallel
+   * compression streams in the JVM and is only ever grown, never shrunk or shut down, so streams
+   * can keep submitting blocks to it while another stream grows it.
+   *
+   * @param threads The minimum number of worker threads
+   * @return The shared worker pool
+   */
+  private static synchronized ThreadPoolExecutor getWorkerPool(int threads) {
+    if (workerPool == null) {
+      AtomicInteger threadNr = new AtomicInteger(1);
+      int size = Math.max(1, threads);
+      workerPool =
+          new ThreadPoolExecutor(
+              size,
+              size,
+              0L,
+              TimeUnit.MILLISECONDS,
+              new LinkedBlockingQueue<>(),
+              runnable -> {
+                Thread thread =
+                    new Thread(runnable, "hop-compression-worker-" + threadNr.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+              });
+    } else if (workerPool.getCorePoolSize() < threads) {
+      // The maximum can't be lower than the core size
+      workerPool.setMaximumPoolSize(threads);
+      workerPool.setCorePoolSize(threads);
+    }
+    return workerPool;
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    ensureOpen();
+    buffer[count++] = (byte) b;
+    if (count == blockSize) {
+      submitBlock();
+    }
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    ensureOpen();
+    while (len > 0) {
+      int size = Math.min(len, blockSize - count);
+      System.arraycopy(b, off, buffer, count, size);
+      count += size;
+      off += size;
+      len -= size;
+      if (count == blockSize) {
+        submitBlock();
+      }
+    }
+  }
+
+  /**
+   * Flushing compresses the data buffered so far as a separate block. This is valid but reduces the
+   * compression ratio, so it's best not to flush often.
+   */
+  @Override
+  public void flush() throws IOException {
+    ensureOpen();
+    if (count > 0) {
+      submitBlock();
+    }
+    while (!pending.isEmpty()) {
+      writeFirstPendingBlock();
+    }
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    try {
+      flush();
+    } finally {
+      closed = true;
+      buffer = null;
+      for (Future<byte[]> future : pending) {
+        future.cancel(true);
+      }
+      pending.clear();
+      out.close();
+    }
+  }
+
+  private void submitBlock() throws IOException {
+    final byte[] block = buffer;
+    final int length = count;
+    pending.addLast(getWorkerPool(1).submit(() -> compressor.compress(block, length)));
+
+    // The submitted buffer is now owned by the worker, continue with a fresh one.
+    //
+    buffer = new byte[blockSize];
+    count = 0;
+
+    // Limit the memory used by blocks waiting to be compressed or written.
+    //
+    while (pending.size() >= maxBlocksInFlight
+        || (!pending.isEmpty() && pending.peekFirst().isDone())) {
+      writeFirstPendingBlock();
+    }
+  }
+
+  private void writeFirstPendingBlock() throws IOException {
+    Future<byte[]> future = pending.removeFirst();
+    try {
+      out.write(future.get());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for a compressed block");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException ioException) {
+        throw ioException;
+      }
+      throw new IOException("Error compressing block", e.getCause());
+    }
+  }
+
+  private void ensureOpen() throws IOException {
+    if (closed) {
+      throw new IOException("Stream is closed");
+    }
+  }
+}
@@ -17,12 +17,14 @@
 
 package org.apache.hop.core.compress.gzip;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipOutputStream;
 import org.apache.hop.core.compress.CompressionOutputStream;
 import org.apache.hop.core.compress.ICompressionProvider;
+import org.apache.hop.core.compress.ParallelBlockOutputStream;
 
 public class GzipCompressionOutputStream extends CompressionOutputStream {
 
@@ -31,19 +33,42 @@ public class GzipCompressionOutputStream extends CompressionOutputStream {
     super(getDelegate(out), provider);
   }
 
-  protected static GZIPOutputStream getDelegate(OutputStream out) throws IOException {
-    GZIPOutputStream delegate = null;
+  protected static OutputStream getDelegate(OutputStream out) throws IOException {
+    OutputStream delegate = null;
     if (out instanceof ZipOutputStream) {
       delegate = (GZIPOutputStream) out;
     } else {
-      delegate = new GZIPOutputStream(out);
+      int threads = ParallelBlockOutputStream.getConfiguredThreads();
+      if (threads > 1) {
+        // Write a multi-member GZip file, compressing the members in parallel like pigz does.
+        //
+        delegate =
+            new ParallelBlockOutputStream(
+                out,
+                GzipCompressionOutputStream::compressMember,
+                threads,
+                ParallelBlockOutputStream.getConfiguredBlockSize());
+      } else {
+        delegate = new GZIPOutputStream(out);
+      }
     }
     return delegate;
   }
 
+  /**
+   * Compresses a block of data into a complete GZip member. Concatenated members form a valid GZip
+   * file which is read back as a single stream by {@link java.util.zip.GZIPInputStream}.
+   */
+  protected static byte[] compressMember(byte[] data, int length) throws IOException {
+    ByteArrayOutputStream member = new ByteArrayOutputStream(length / 3 + 64);
+    try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(member, 65536)) {
+      gzipOutputStream.write(data, 0, length);
+    }
+    return member.toByteArray();
+  }
+
   @Override
   public void close() throws IOException {
-    GZIPOutputStream zos = (GZIPOutputStream) delegate;
-    zos.close();
+    delegate.close();
   }
 }
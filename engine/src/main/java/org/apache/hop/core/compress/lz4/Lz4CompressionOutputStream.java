@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.core.compress.lz4;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import net.jpountz.lz4.LZ4FrameOutputStream;
+import org.apache.hop.core.compress.CompressionOutputStream;
+import org.apache.hop.core.compress.ICompressionProvider;
+
+public class Lz4CompressionOutputStream extends CompressionOutputStream {
+
+  public Lz4CompressionOutputStream(OutputStream out, ICompressionProvider provider)
+      throws IOException {
+    super(getDelegate(out), provider);
+  }
+
+  protected static LZ4FrameOutputStream getDelegate(OutputStream out) throws IOException {
+    LZ4FrameOutputStream delegate;
+    if (out instanceof LZ4FrameOutputStream lz4FrameOutputStream) {
+      delegate = lz4FrameOutputStream;
+    } else {
+      delegate = new LZ4FrameOutputStream(out, LZ4FrameOutputStream.BLOCKSIZE.SIZE_4MB);
+    }
+    return delegate;
+  }
+
+  @Override
+  public void close() throws IOException {
+    delegate.close();
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.core.compress.zstd;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import org.apache.hop.core.compress.CompressionOutputStream;
+import org.apache.hop.core.compress.ICompressionProvider;
+import org.apache.hop.core.compress.ParallelBlockOutputStream;
+
+public class ZstdCompressionOutputStream extends CompressionOutputStream {
+
+  public ZstdCompressionOutputStream(OutputStream out, ICompressionProvider provider)
+      throws IOException {
+    super(getDelegate(out), provider);
+  }
+
+  protected static OutputStream getDelegate(OutputStream out) throws IOException {
+    OutputStream delegate;
+    if (out instanceof ZstdOutputStream) {
+      delegate = out;
+    } else {
+      int threads = ParallelBlockOutputStream.getConfiguredThreads();
+      if (threads > 1) {
+        // Write a sequence of independent Zstd frames, compressed in parallel.
+        //
+        delegate =
+            new ParallelBlockOutputStream(
+                out,
+                ZstdCompressionOutputStream::compressFrame,
+                threads,
+                ParallelBlockOutputStream.getConfiguredBlockSize());
+      } else {
+        delegate = new ZstdOutputStream(out, Zstd.defaultCompressionLevel());
+      }
+    }
+    return delegate;
+  }
+
+  /** Compresses a block of data into a complete, self-contained Zstd frame. */
+  protected static byte[] compressFrame(byte[] data, int length) throws IOException {
+    byte[] frame = new byte[(int) Zstd.compressBound(length)];
+    long size =
+        Zstd.compressByteArray(
+            frame, 0, frame.length, data, 0, length, Zstd.defaultCompressionLevel());
+    if (Zstd.isError(size)) {
+      throw new IOException("Error compressing Zstd frame: " + Zstd.getErrorName(size));
+    }
+    byte[] result = new byte[(int) size];
+    System.arraycopy(frame, 0, result, 0, (int) size);
+    return result;
+  }
+
+  @Override
+  public void close() throws IOException {
+    delegate.close();
+  }
+}
@@ -0,0 +1,1245 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.hop.execution.local;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.apache.commons.lang.StringUtils;
+import org.apache.hop.core.json.HopJson;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.execution.Execution;
+import org.apache.hop.execution.ExecutionData;
+import org.apache.hop.execution.ExecutionState;
+import org.apache.hop.execution.ExecutionType;
+
+/**
+ * Stores execution information in append-only segment files. Every execution, state update, logging
+ * text and data sample is written as a single record at the end of the active segment. Once a
+ * segment reaches its maximum size a new one is started.
+ *
+ * <p>An index in memory keeps the position of the latest records of every execution together with
+ * its parent ID, name, type and dates. Executions can be listed, newest first, and looked up
+ * without reading any record. The index is saved in a compact binary snapshot whenever a segment is
+ * completed, after a compaction and when the store is closed. On open the snapshot is loaded and
+ * only the records written after it are read again. Without a snapshot all the segments are read.
+ *
+ * <p>Records of deleted executions and replaced states stay in their segment until it is compacted:
+ * the records that are still in use are copied to the active segment and the old segment is
+ * removed. The record of a deletion is copied as well as long as an older segment can still hold
+ * records of the deleted execution, otherwise the execution would return when the segments are read
+ * again.
+ *
+ * <p>Use {@link #acquire(Path, long, ILogChannel)} to share a single store per folder in a JVM.
+ * Processes lock the folder with a lock file for every operation. Before anything is read or
+ * written the records which other processes appended since the last operation are added to the
+ * index, so the index is always complete when it is saved.
+ *
+ * <p>A record consists of its length, a CRC32 checksum, the record type, flags, the execution ID,
+ * the owner ID and the payload. The payload is compact JSON, gzipped for data samples, or plain
+ * logging text. A record which wasn't written completely, for example after a crash, is removed
+ * when the segment is opened.
+ */
+public class ExecutionSegmentStore {
+  public static final String SEGMENT_PREFIX = "segment-";
+  public static final String SEGMENT_EXTENSION = ".seg";
+  public static final String INDEX_FILENAME = "index.bin";
+  public static final String LOCK_FILENAME = "store.lock";
+
+  static final byte RECORD_EXECUTION = 1;
+  static final byte RECORD_STATE = 2;
+  static final byte RECORD_LOG = 3;
+  static final byte RECORD_DATA = 4;
+  static final byte RECORD_DELETE = 5;
+
+  static final byte FLAG_GZIP = 1;
+  static final byte FLAG_REPLACE = 2;
+
+  private static final int INDEX_MAGIC = 0x48455849;
+  private static final int INDEX_VERSION = 2;
+  private static final int RECORD_HEADER_SIZE = 8;
+
+  /** Newest first: the last update or the start of the execution, then the ID */
+  private static final Comparator<IndexEntry> NEWEST_FIRST =
+      Comparator.comparingLong(IndexEntry::getSortTime).reversed().thenComparing(e -> e.id);
+
+  /** The stores which are in use in this JVM, by folder */
+  private static final Map<Path, ExecutionSegmentStore> OPEN_STORES = new HashMap<>();
+
+  private final Path folder;
+  private final long maxSegmentSize;
+  private final ILogChannel log;
+  private final ObjectMapper mapper;
+
+  private final Map<String, IndexEntry> entries;
+  private final Map<String, Set<String>> children;
+  private final NavigableSet<IndexEntry> ordered;
+  private final Map<String, Tombstone> tombstones;
+  private final Map<Integer, FileChannel> readers;
+
+  private int activeSegment;
+  private long activeSize;
+  private FileChannel activeChannel;
+  private FileChannel lockChannel;
+  private int references;
+
+  /**
+   * @param folder The folder to store the segments and the index snapshot in
+   * @param maxSegmentSize The size in bytes after which a new segment is started
+   * @param log The logging channel to report recovery problems to
+   */
+  public ExecutionSegmentStore(Path folder, long maxSegmentSize, ILogChannel log) {
+    this.folder = folder;
+    this.maxSegmentSize = maxSegmentSize;
+    this.log = log;
+    this.mapper = HopJson.newMapper();
+    this.entries = new HashMap<>();
+    this.children = new HashMap<>();
+    this.ordered = new TreeSet<>(NEWEST_FIRST);
+    this.tombstones = new HashMap<>();
+    this.readers = new HashMap<>();
+  }
+
+  /**
+   * Get the store of a folder which is shared in this JVM. The store is opened when it isn't in use
+   * yet. Every call needs a matching call to {@link #release()}.
+   *
+   * @param folder The folder to store the segments and the index snapshot in
+   * @param maxSegmentSize The size in bytes after which a new segment is started, only used when
+   *     the store is opened
+   * @param log The logging channel to report recovery problems to
+   * @return The shared store of the folder
+   * @throws IOException In case the folder can't be read or written to
+   */
+  public static ExecutionSegmentStore acquire(Path folder, long maxSegmentSize, ILogChannel log)
+      throws IOException {
+    Path key = folder.toAbsolutePath().normalize();
+    synchronized (OPEN_STORES) {
+      ExecutionSegmentStore store = OPEN_STORES.get(key);
+      if (store == null) {
+        store = new ExecutionSegmentStore(key, maxSegmentSize, log);
+        store.open();
+        OPEN_STORES.put(key, store);
+      }
+      store.references++;
+      return store;
+    }
+  }
+
+  /**
+   * Stop using a store obtained with {@link #acquire(Path, long, ILogChannel)}. The store is closed
+   * when nobody uses it anymore. It is closed before another store for the same folder can be
+   * opened, as the file lock of the folder can only be held once in a JVM.
+   *
+   * @throws IOException In case of an error writing the index
+   */
+  public void release() throws IOException {
+    synchronized (OPEN_STORES) {
+      if (--references > 0) {
+        return;
+      }
+      OPEN_STORES.remove(folder);
+      close();
+    }
+  }
+
+  /**
+   * Load the index and open the active segment for writing.
+   *
+   * @throws IOException In case the folder can't be read or written to
+   */
+  public synchronized void open() throws IOException {
+    Files.createDirectories(folder);
+    lockChannel =
+        FileChannel.open(
+            folder.resolve(LOCK_FILENAME),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+    try (FileLock ignored = lockChannel.lock()) {
+      load();
+    } catch (IOException | RuntimeException e) {
+      lockChannel.close();
+      lockChannel = null;
+      throw e;
+    }
+  }
+
+  private void load() throws IOException {
+    List<Integer> segments = listSegments();
+
+    int replaySegment = segments.isEmpty() ? 1 : segments.get(0);
+    long replayOffset = 0L;
+    long[] snapshot = readSnapshot(segments);
+    if (snapshot != null) {
+      replaySegment = (int) snapshot[0];
+      replayOffset = snapshot[1];
+    } else {
+      clearIndex();
+      if (!segments.isEmpty()) {
+        log.logBasic(
+            "Rebuilding the execution information index from "
+                + segments.size()
+                + " segments in "
+                + folder);
+      }
+    }
+
+    for (int segment : segments) {
+      if (segment >= replaySegment) {
+        replay(segment, segment == replaySegment ? replayOffset : 0L);
+      }
+    }
+
+    activeSegment = segments.isEmpty() ? 1 : segments.get(segments.size() - 1);
+    activeChannel = openSegment(activeSegment);
+    activeSize = activeChannel.size();
+    writeLatestSegment();
+  }
+
+  /**
+   * Save the index and close all segments.
+   *
+   * @throws IOException In case of an error writing the index
+   */
+  public synchronized void close() throws IOException {
+    if (activeChannel == null) {
+      return;
+    }
+    try (FileLock ignored = lock()) {
+      saveSnapshot();
+    } finally {
+      for (FileChannel reader : readers.values()) {
+        reader.close();
+      }
+      readers.clear();
+      activeChannel.close();
+      activeChannel = null;
+      lockChannel.close();
+      lockChannel = null;
+    }
+  }
+
+  /**
+   * @return true if there is nothing in the store
+   */
+  public synchronized boolean isEmpty() throws IOException {
+    try (FileLock ignored = lock()) {
+      return entries.isEmpty();
+    }
+  }
+
+  public synchronized void putExecution(Execution execution) throws IOException {
+    try (FileLock ignored = lock()) {
+      Pointer pointer =
+          append(
+              RECORD_EXECUTION,
+              (byte) 0,
+              execution.getId(),
+              null,
+              mapper.writeValueAsBytes(execution));
+      indexExecution(execution, pointer);
+    }
+  }
+
+  /**
+   * Store a state update. The logging text is stored separately from the state. It is appended to
+   * the previous logging text if the state contains the last log line number, otherwise it replaces
+   * it.
+   *
+   * @param state The state to store
+   */
+  public synchronized void putState(ExecutionState state) throws IOException {
+    String loggingText = state.getLoggingText();
+    byte[] payload;
+    try {
+      state.setLoggingText(null);
+      payload = mapper.writeValueAsBytes(state);
+    } finally {
+      state.setLoggingText(loggingText);
+    }
+    try (FileLock ignored = lock()) {
+      Pointer pointer = append(RECORD_STATE, (byte) 0, state.getId(), null, payload);
+      indexState(state, pointer);
+
+      boolean replace = state.getLastLogLineNr() == null;
+      if (StringUtils.isNotEmpty(loggingText) || replace) {
+        byte flags = replace ? FLAG_REPLACE : 0;
+        Pointer logPointer =
+            append(
+                RECORD_LOG,
+                flags,
+                state.getId(),
+                null,
+                StringUtils.defaultString(loggingText).getBytes(StandardCharsets.UTF_8));
+        indexLog(state.getId(), logPointer);
+      }
+    }
+  }
+
+  public synchronized void putData(ExecutionData data) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (OutputStream outputStream = new GZIPOutputStream(bytes)) {
+      mapper.writeValue(outputStream, data);
+    }
+    try (FileLock ignored = lock()) {
+      Pointer pointer =
+          append(
+              RECORD_DATA, FLAG_GZIP, data.getParentId(), data.getOwnerId(), bytes.toByteArray());
+      getOrCreateEntry(data.getParentId(), pointer).data.put(data.getOwnerId(), pointer);
+    }
+  }
+
+  /**
+   * Remove a single execution from the store. Child executions are not removed.
+   *
+   * @param id The ID of the execution
+   * @return true if the execution was found
+   */
+  public synchronized boolean delete(String id) throws IOException {
+    try (FileLock ignored = lock()) {
+      if (!entries.containsKey(id)) {
+        return false;
+      }
+      Pointer pointer = append(RECORD_DELETE, (byte) 0, id, null, new byte[0]);
+      removeEntry(id, pointer);
+      return true;
+    }
+  }
+
+  public synchronized Execution getExecution(String id) throws IOException {
+    try (FileLock ignored = lock()) {
+      IndexEntry entry = entries.get(id);
+      if (entry == null || entry.execution == null) {
+        return null;
+      }
+      return mapper.readValue(readPayload(entry.execution), Execution.class);
+    }
+  }
+
+  /**
+   * @param id The ID of the execution
+   * @return The latest state of the execution, without logging text
+   */
+  public synchronized ExecutionState getState(String id) throws IOException {
+    try (FileLock ignored = lock()) {
+      IndexEntry entry = entries.get(id);
+      if (entry == null || entry.state == null) {
+        return null;
+      }
+      return mapper.readValue(readPayload(entry.state), ExecutionState.class);
+    }
+  }
+
+  /**
+   * @param id The ID of the execution
+   * @param sizeLimit The maximum number of characters to return, 0 or lower for no limit
+   * @return The logging text or null if there is none
+   */
+  public synchronized String getLoggingText(String id, int sizeLimit) throws IOException {
+    try (FileLock ignored = lock()) {
+      IndexEntry entry = entries.get(id);
+      if (entry == null || entry.logs.isEmpty()) {
+        return null;
+      }
+      StringBuilder text = new StringBuilder();
+      for (Pointer pointer : entry.logs) {
+        text.append(new String(readPayload(pointer), StandardCharsets.UTF_8));
+        if (sizeLimit > 0 && text.length() >= sizeLimit) {
+          text.setLength(sizeLimit);
+          break;
+        }
+      }
+      return text.length() == 0 ? null : text.toString();
+    }
+  }
+
+  public synchronized ExecutionData getData(String parentId, String ownerId) throws IOException {
+    try (FileLock ignored = lock()) {
+      IndexEntry entry = entries.get(parentId);
+      Pointer pointer = entry == null ? null : entry.data.get(ownerId);
+      if (pointer == null) {
+        return null;
+      }
+      return mapper.readValue(readPayload(pointer), ExecutionData.class);
+    }
+  }
+
+  /**
+   * @param includeChildren Also list the executions with a parent
+   * @param limit The maximum number of IDs to return, 0 or lower for all
+   * @return The IDs of the registered executions, the last updated first
+   */
+  public synchronized List<String> getIds(boolean includeChildren, int limit) throws IOException {
+    try (FileLock ignored = lock()) {
+      List<String> ids = new ArrayList<>();
+      for (IndexEntry entry : ordered) {
+        if (limit > 0 && ids.size() >= limit) {
+          break;
+        }
+        if (entry.execution != null && (includeChildren || StringUtils.isEmpty(entry.parentId))) {
+          ids.add(entry.id);
+        }
+      }
+      return ids;
+    }
+  }
+
+  /**
+   * @param parentId The ID of the parent execution
+   * @return The IDs of the registered child executions, the last updated first
+   */
+  public synchronized List<String> getChildIds(String parentId) throws IOException {
+    try (FileLock ignored = lock()) {
+      Set<String> childIds = children.get(parentId);
+      if (childIds == null) {
+        return new ArrayList<>();
+      }
+      List<IndexEntry> childEntries = new ArrayList<>();
+      for (String childId : childIds) {
+        IndexEntry entry = entries.get(childId);
+        if (entry != null && entry.execution != null) {
+          childEntries.add(entry);
+        }
+      }
+      childEntries.sort(NEWEST_FIRST);
+      List<String> ids = new ArrayList<>();
+      childEntries.forEach(e -> ids.add(e.id));
+      return ids;
+    }
+  }
+
+  /**
+   * @param parentId The ID of the execution
+   * @return The IDs of the owners of the data stored for the execution
+   */
+  public synchronized List<String> getDataOwnerIds(String parentId) throws IOException {
+    try (FileLock ignored = lock()) {
+      IndexEntry entry = entries.get(parentId);
+      return entry == null ? new ArrayList<>() : new ArrayList<>(entry.data.keySet());
+    }
+  }
+
+  /**
+   * @param id The ID of the execution
+   * @return The ID of the parent execution or null if it has none
+   */
+  public synchronized String getParentId(String id) throws IOException {
+    try (FileLock ignored = lock()) {
+      IndexEntry entry = entries.get(id);
+      return entry == null ? null : StringUtils.defaultIfEmpty(entry.parentId, null);
+    }
+  }
+
+  /**
+   * Find the last updated execution of a pipeline or workflow.
+   *
+   * @param type The type of execution
+   * @param name The name of the pipeline or workflow
+   * @param successfulOnly Only consider executions with a state which didn't fail
+   * @return The ID of the execution or null if none was found
+   */
+  public synchronized String findLastId(ExecutionType type, String name, boolean successfulOnly)
+      throws IOException {
+    try (FileLock ignored = lock()) {
+      for (IndexEntry entry : ordered) {
+        if (entry.execution != null
+            && entry.type == type
+            && StringUtils.equals(name, entry.name)
+            && (!successfulOnly || (entry.state != null && !entry.failed))) {
+          return entry.id;
+        }
+      }
+      return null;
+    }
+  }
+
+  /**
+   * @param cutoff The time in milliseconds since the epoch
+   * @return The IDs of the executions without a parent which were last updated before the cutoff
+   */
+  public synchronized List<String> getIdsUpdatedBefore(long cutoff) throws IOException {
+    try (FileLock ignored = lock()) {
+      List<String> ids = new ArrayList<>();
+      for (IndexEntry entry : ordered.descendingSet()) {
+        if (entry.getSortTime() >= cutoff) {
+          break;
+        }
+        if (StringUtils.isEmpty(entry.parentId)) {
+          ids.add(entry.id);
+        }
+      }
+      return ids;
+    }
+  }
+
+  /**
+   * Copy the records which are still in use out of the completed segments with too many obsolete
+   * records. Afterwards the index is saved and the compacted segments are removed.
+   *
+   * @param minLiveRatio Segments where the records in use take up less than this part of the
+   *     segment are compacted
+   * @return The number of removed segments
+   */
+  public synchronized int compact(double minLiveRatio) throws IOException {
+    try (FileLock ignored = lock()) {
+      return compactSegments(minLiveRatio);
+    }
+  }
+
+  private int compactSegments(double minLiveRatio) throws IOException {
+    Map<Integer, Long> liveBytes = new HashMap<>();
+    for (IndexEntry entry : entries.values()) {
+      entry.forEachPointer(p -> liveBytes.merge(p.segment, (long) p.length, Long::sum));
+    }
+    for (Tombstone tombstone : tombstones.values()) {
+      liveBytes.merge(tombstone.pointer.segment, (long) tombstone.pointer.length, Long::sum);
+    }
+    List<Integer> segments = listSegments();
+    Set<Integer> compacted = new HashSet<>();
+    for (int segment : segments) {
+      if (segment == activeSegment) {
+        continue;
+      }
+      long size = Files.size(segmentPath(segment));
+      if (size == 0 || liveBytes.getOrDefault(segment, 0L) < size * minLiveRatio) {
+        compacted.add(segment);
+      }
+    }
+    if (compacted.isEmpty()) {
+      return 0;
+    }
+
+    for (IndexEntry entry : new ArrayList<>(entries.values())) {
+      if (entry.execution != null && compacted.contains(entry.execution.segment)) {
+        entry.execution = relocate(entry.execution, entry.execution.flags);
+      }
+      if (entry.state != null && compacted.contains(entry.state.segment)) {
+        entry.state = relocate(entry.state, entry.state.flags);
+      }
+      // The logging text is kept in order, also when all segments are read again
+      //
+      if (entry.logs.stream().anyMatch(p -> compacted.contains(p.segment))) {
+        List<Pointer> logs = new ArrayList<>();
+        for (Pointer pointer : entry.logs) {
+          byte flags = logs.isEmpty() ? FLAG_REPLACE : 0;
+          logs.add(relocate(pointer, flags));
+        }
+        entry.logs = logs;
+      }
+      for (Map.Entry<String, Pointer> data : entry.data.entrySet()) {
+        if (compacted.contains(data.getValue().segment)) {
+          data.setValue(relocate(data.getValue(), data.getValue().flags));
+        }
+      }
+    }
+
+    // A deletion is only forgotten when no remaining segment can hold records of the execution
+    //
+    Iterator<Tombstone> iterator = tombstones.values().iterator();
+    while (iterator.hasNext()) {
+      Tombstone tombstone = iterator.next();
+      if (compacted.contains(tombstone.pointer.segment)) {
+        if (isReferenced(tombstone, segments, compacted)) {
+          tombstone.pointer = relocate(tombstone.pointer, tombstone.pointer.flags);
+        } else {
+          iterator.remove();
+        }
+      }
+    }
+
+    saveSnapshot();
+    for (int segment : compacted) {
+      FileChannel reader = readers.remove(segment);
+      if (reader != null) {
+        reader.close();
+      }
+      Files.deleteIfExists(segmentPath(segment));
+    }
+    return compacted.size();
+  }
+
+  /**
+   * @return true if a segment which isn't compacted lies between the first segment with a record of
+   *     the deleted execution and the deletion itself
+   */
+  private static boolean isReferenced(
+      Tombstone tombstone, List<Integer> segments, Set<Integer> compacted) {
+    for (int segment : segments) {
+      if (segment >= tombstone.firstSegment
+          && segment < tombstone.pointer.segment
+          && !compacted.contains(segment)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Save the index in a snapshot file. The file is replaced atomically.
+   *
+   * @throws IOException In case of a write error
+   */
+  public synchronized void writeSnapshot() throws IOException {
+    try (FileLock ignored = lock()) {
+      saveSnapshot();
+    }
+  }
+
+  private void saveSnapshot() throws IOException {
+    activeChannel.force(false);
+    Path tempFile = folder.resolve(INDEX_FILENAME + ".tmp");
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+      out.writeInt(INDEX_MAGIC);
+      out.writeInt(INDEX_VERSION);
+      out.writeInt(activeSegment);
+      out.writeLong(activeSize);
+      out.writeInt(entries.size());
+      for (IndexEntry entry : entries.values()) {
+        entry.write(out);
+      }
+      out.writeInt(tombstones.size());
+      for (Map.Entry<String, Tombstone> entry : tombstones.entrySet()) {
+        out.writeUTF(entry.getKey());
+        entry.getValue().write(out);
+      }
+      out.writeInt(INDEX_MAGIC);
+    }
+    Files.move(
+        tempFile,
+        folder.resolve(INDEX_FILENAME),
+        StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * @return The segment numbers in the folder, in ascending order
+   */
+  List<Integer> listSegments() throws IOException {
+    List<Integer> segments = new ArrayList<>();
+    try (Stream<Path> paths = Files.list(folder)) {
+      paths.forEach(
+          path -> {
+            String name = path.getFileName().toString();
+            if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_EXTENSION)) {
+              String number =
+                  name.substring(
+                      SEGMENT_PREFIX.length(), name.length() - SEGMENT_EXTENSION.length());
+              if (StringUtils.isNumeric(number) && !number.isEmpty()) {
+                segments.add(Integer.parseInt(number));
+              }
+            }
+          });
+    }
+    segments.sort(Integer::compare);
+    return segments;
+  }
+
+  Path segmentPath(int segment) {
+    return folder.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, segment, SEGMENT_EXTENSION));
+  }
+
+  private Pointer append(byte type, byte flags, String id, String ownerId, byte[] payload)
+      throws IOException {
+    ByteArrayOutputStream body = new ByteArrayOutputStream(payload.length + 96);
+    DataOutputStream out = new DataOutputStream(body);
+    out.writeByte(type);
+    out.writeByte(flags);
+    out.writeUTF(id);
+    out.writeUTF(StringUtils.defaultString(ownerId));
+    out.write(payload);
+    out.flush();
+    byte[] bytes = body.toByteArray();
+
+    CRC32 crc = new CRC32();
+    crc.update(bytes);
+    ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + bytes.length);
+    buffer.putInt(bytes.length).putInt((int) crc.getValue()).put(bytes).flip();
+
+    if (activeSize > 0 && activeSize + buffer.remaining() > maxSegmentSize) {
+      roll();
+    }
+    long offset = activeSize;
+    long position = offset;
+    while (buffer.hasRemaining()) {
+      position += activeChannel.write(buffer, position);
+    }
+    activeSize = position;
+    return new Pointer(activeSegment, offset, (int) (position - offset), flags);
+  }
+
+  /** Complete the active segment and start a new one */
+  private void roll() throws IOException {
+    activeChannel.force(false);
+    readers.put(activeSegment, activeChannel);
+    activeSegment++;
+    activeChannel = openSegment(activeSegment);
+    activeSize = activeChannel.size();
+    writeLatestSegment();
+    saveSnapshot();
+  }
+
+  private FileChannel openSegment(int segment) throws IOException {
+    return FileChannel.open(
+        segmentPath(segment),
+        StandardOpenOption.CREATE,
+        StandardOpenOption.READ,
+        StandardOpenOption.WRITE);
+  }
+
+  /**
+   * Lock the folder for other processes and index the records they appended since the last
+   * operation. Release the lock when the operation is done.
+   */
+  private FileLock lock() throws IOException {
+    if (lockChannel == null) {
+      throw new IOException("The execution information store in " + folder + " is closed");
+    }
+    FileLock lock = lockChannel.lock();
+    try {
+      refresh();
+    } catch (IOException | RuntimeException e) {
+      lock.release();
+      throw e;
+    }
+    return lock;
+  }
+
+  /**
+   * Replay what was appended to the active segment and to the segments which other processes
+   * started after it. Segments which were compacted in the meantime are skipped: the records in use
+   * were copied to a later segment.
+   */
+  private void refresh() throws IOException {
+    int latestSegment = Math.max(activeSegment, readLatestSegment());
+    boolean replayed = false;
+    for (int segment = activeSegment; segment <= latestSegment; segment++) {
+      Path path = segmentPath(segment);
+      long offset = segment == activeSegment ? activeSize : 0L;
+      if (Files.exists(path) && Files.size(path) > offset) {
+        replay(segment, offset);
+        replayed = true;
+      }
+    }
+    if (latestSegment != activeSegment) {
+      activeChannel.close();
+      activeSegment = latestSegment;
+      activeChannel = openSegment(activeSegment);
+    }
+    activeSize = activeChannel.size();
+
+    if (replayed) {
+      Iterator<Map.Entry<Integer, FileChannel>> iterator = readers.entrySet().iterator();
+      while (iterator.hasNext()) {
+        Map.Entry<Integer, FileChannel> reader = iterator.next();
+        if (!Files.exists(segmentPath(reader.getKey()))) {
+          reader.getValue().close();
+          iterator.remove();
+        }
+      }
+    }
+  }
+
+  /**
+   * @return The latest segment started by any process, 0 if it isn't known
+   */
+  private int readLatestSegment() throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES);
+    while (buffer.hasRemaining()) {
+      if (lockChannel.read(buffer, buffer.position()) < 0) {
+        return 0;
+      }
+    }
+    return buffer.getInt(0);
+  }
+
+  /** Let the other processes know which segment is written to */
+  private void writeLatestSegment() throws IOException {
+    if (readLatestSegment() < activeSegment) {
+      ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES).putInt(activeSegment).flip();
+      while (buffer.hasRemaining()) {
+        lockChannel.write(buffer, buffer.position());
+      }
+    }
+  }
+
+  private Pointer relocate(Pointer pointer, byte flags) throws IOException {
+    Record record = readRecord(pointer);
+    return append(record.type, flags, record.id, record.ownerId, record.payload);
+  }
+
+  private byte[] readPayload(Pointer pointer) throws IOException {
+    Record record = readRecord(pointer);
+    if ((record.flags & FLAG_GZIP) != 0) {
+      try (InputStream inputStream =
+          new GZIPInputStream(new ByteArrayInputStream(record.payload))) {
+        return inputStream.readAllBytes();
+      }
+    }
+    return record.payload;
+  }
+
+  private Record readRecord(Pointer pointer) throws IOException {
+    FileChannel channel = getReader(pointer.segment);
+    ByteBuffer buffer = ByteBuffer.allocate(pointer.length);
+    long position = pointer.offset;
+    while (buffer.hasRemaining()) {
+      int read = channel.read(buffer, position);
+      if (read < 0) {
+        throw new EOFException("Unexpected end of segment " + pointer.segment);
+      }
+      position += read;
+    }
+    buffer.flip();
+    int length = buffer.getInt();
+    int crc = buffer.getInt();
+    byte[] body = new byte[length];
+    buffer.get(body);
+    return parseRecord(body, crc);
+  }
+
+  private FileChannel getReader(int segment) throws IOException {
+    if (segment == activeSegment && activeChannel != null) {
+      return activeChannel;
+    }
+    FileChannel reader = readers.get(segment);
+    if (reader == null) {
+      reader = FileChannel.open(segmentPath(segment), StandardOpenOption.READ);
+      readers.put(segment, reader);
+    }
+    return reader;
+  }
+
+  private static Record parseRecord(byte[] body, int crc) throws IOException {
+    CRC32 check = new CRC32();
+    check.update(body);
+    if ((int) check.getValue() != crc) {
+      throw new IOException("Checksum error in execution information record");
+    }
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+    Record record = new Record();
+    record.type = in.readByte();
+    record.flags = in.readByte();
+    record.id = in.readUTF();
+    record.ownerId = in.readUTF();
+    record.payload = in.readAllBytes();
+    return record;
+  }
+
+  /**
+   * Read the records of a segment from the given offset and add them to the index. A record at the
+   * end of the segment which wasn't written completely or is damaged is removed.
+   */
+  private void replay(int segment, long offset) throws IOException {
+    try (FileChannel channel =
+        FileChannel.open(segmentPath(segment), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      long size = channel.size();
+      channel.position(offset);
+      DataInputStream in =
+          new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+      long position = offset;
+      while (position < size) {
+        Record record;
+        int recordSize;
+        try {
+          int length = in.readInt();
+          int crc = in.readInt();
+          if (length < 0 || position + RECORD_HEADER_SIZE + length > size) {
+            throw new EOFException();
+          }
+          byte[] body = new byte[length];
+          in.readFully(body);
+          record = parseRecord(body, crc);
+          recordSize = RECORD_HEADER_SIZE + length;
+        } catch (IOException e) {
+          log.logError(
+              "Removing an incomplete execution information record at position "
+                  + position
+                  + " of "
+                  + segmentPath(segment));
+          channel.truncate(position);
+          break;
+        }
+        Pointer pointer = new Pointer(segment, position, recordSize, record.flags);
+        applyRecord(record, pointer);
+        position += recordSize;
+      }
+    }
+  }
+
+  private void applyRecord(Record record, Pointer pointer) throws IOException {
+    switch (record.type) {
+      case RECORD_EXECUTION:
+        indexExecution(mapper.readValue(record.payload, Execution.class), pointer);
+        break;
+      case RECORD_STATE:
+        indexState(mapper.readValue(record.payload, ExecutionState.class), pointer);
+        break;
+      case RECORD_LOG:
+        indexLog(record.id, pointer);
+        break;
+      case RECORD_DATA:
+        getOrCreateEntry(record.id, pointer).data.put(record.ownerId, pointer);
+        break;
+      case RECORD_DELETE:
+        removeEntry(record.id, pointer);
+        break;
+      default:
+        log.logError("Ignoring execution information record of unknown type " + record.type);
+    }
+  }
+
+  private void indexExecution(Execution execution, Pointer pointer) {
+    IndexEntry entry = getOrCreateEntry(execution.getId(), pointer);
+    String parentId = StringUtils.defaultString(execution.getParentId());
+    ordered.remove(entry);
+    if (!parentId.equals(entry.parentId)) {
+      removeChild(entry);
+      entry.parentId = parentId;
+      if (!parentId.isEmpty()) {
+        children.computeIfAbsent(parentId, k -> new LinkedHashSet<>()).add(entry.id);
+      }
+    }
+    entry.name = StringUtils.defaultString(execution.getName());
+    entry.type = execution.getExecutionType();
+    if (execution.getExecutionStartDate() != null) {
+      entry.startTime = execution.getExecutionStartDate().getTime();
+    } else if (execution.getRegistrationDate() != null) {
+      entry.startTime = execution.getRegistrationDate().getTime();
+    }
+    entry.execution = pointer;
+    ordered.add(entry);
+  }
+
+  private void indexState(ExecutionState state, Pointer pointer) {
+    IndexEntry entry = getOrCreateEntry(state.getId(), pointer);
+    ordered.remove(entry);
+    if (state.getUpdateTime() != null) {
+      entry.updateTime = state.getUpdateTime().getTime();
+    }
+    entry.failed = state.isFailed();
+    entry.state = pointer;
+    ordered.add(entry);
+  }
+
+  private void indexLog(String id, Pointer pointer) {
+    IndexEntry entry = getOrCreateEntry(id, pointer);
+    if ((pointer.flags & FLAG_REPLACE) != 0) {
+      entry.logs.clear();
+    }
+    entry.logs.add(pointer);
+  }
+
+  /**
+   * @param pointer The record which is indexed for the execution
+   */
+  private IndexEntry getOrCreateEntry(String id, Pointer pointer) {
+    IndexEntry entry = entries.get(id);
+    if (entry == null) {
+      entry = new IndexEntry(id);
+      entry.firstSegment = pointer.segment;
+      // Records from before an earlier deletion of the ID can still be around
+      //
+      Tombstone tombstone = tombstones.remove(id);
+      if (tombstone != null) {
+        entry.firstSegment = Math.min(entry.firstSegment, tombstone.firstSegment);
+      }
+      entries.put(id, entry);
+      ordered.add(entry);
+    }
+    return entry;
+  }
+
+  /**
+   * @param pointer The record of the deletion
+   */
+  private void removeEntry(String id, Pointer pointer) {
+    IndexEntry entry = entries.remove(id);
+    int firstSegment = pointer.segment;
+    if (entry != null) {
+      ordered.remove(entry);
+      removeChild(entry);
+      firstSegment = entry.firstSegment;
+    }
+    Tombstone previous = tombstones.get(id);
+    if (previous != null) {
+      firstSegment = Math.min(firstSegment, previous.firstSegment);
+    }
+    tombstones.put(id, new Tombstone(pointer, firstSegment));
+  }
+
+  private void removeChild(IndexEntry entry) {
+    if (StringUtils.isEmpty(entry.parentId)) {
+      return;
+    }
+    Set<String> siblings = children.get(entry.parentId);
+    if (siblings != null) {
+      siblings.remove(entry.id);
+      if (siblings.isEmpty()) {
+        children.remove(entry.parentId);
+      }
+    }
+  }
+
+  private void clearIndex() {
+    entries.clear();
+    children.clear();
+    ordered.clear();
+    tombstones.clear();
+  }
+
+  /**
+   * Load the index snapshot.
+   *
+   * @return The segment and offset up to which the snapshot is complete or null if there is no
+   *     usable snapshot
+   */
+  private long[] readSnapshot(List<Integer> segments) {
+    Path indexFile = folder.resolve(INDEX_FILENAME);
+    if (!Files.exists(indexFile)) {
+      return null;
+    }
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+      if (in.readInt() != INDEX_MAGIC || in.readInt() != INDEX_VERSION) {
+        throw new IOException("Unknown index file format");
+      }
+      int segment = in.readInt();
+      long offset = in.readLong();
+      int count = in.readInt();
+      Set<Integer> existing = new HashSet<>(segments);
+      Consumer<Pointer> checkSegment =
+          p -> {
+            if (!existing.contains(p.segment)) {
+              throw new IllegalStateException("Segment " + p.segment + " is missing");
+            }
+          };
+      for (int i = 0; i < count; i++) {
+        IndexEntry entry = IndexEntry.read(in);
+        entry.forEachPointer(checkSegment);
+        entries.put(entry.id, entry);
+        ordered.add(entry);
+        if (StringUtils.isNotEmpty(entry.parentId)) {
+          children.computeIfAbsent(entry.parentId, k -> new LinkedHashSet<>()).add(entry.id);
+        }
+      }
+      int tombstoneCount = in.readInt();
+      for (int i = 0; i < tombstoneCount; i++) {
+        String id = in.readUTF();
+        Tombstone tombstone = Tombstone.read(in);
+        checkSegment.accept(tombstone.pointer);
+        tombstones.put(id, tombstone);
+      }
+      if (in.readInt() != INDEX_MAGIC) {
+        throw new IOException("Incomplete index file");
+      }
+      return new long[] {segment, offset};
+    } catch (Exception e) {
+      log.logError("Unable to use execution information index " + indexFile, e);
+      return null;
+    }
+  }
+
+  /** The location of a record in a segment */
+  static final class Pointer {
+    final int segment;
+    final long offset;
+    final int length;
+    final byte flags;
+
+    Pointer(int segment, long offset, int length, byte flags) {
+      this.segment = segment;
+      this.offset = offset;
+      this.length = length;
+      this.flags = flags;
+    }
+
+    void write(DataOutputStream out) throws IOException {
+      out.writeInt(segment);
+      out.writeLong(offset);
+      out.writeInt(length);
+      out.writeByte(flags);
+    }
+
+    static Pointer read(DataInputStream in) throws IOException {
+      return new Pointer(in.readInt(), in.readLong(), in.readInt(), in.readByte());
+    }
+  }
+
+  /** A deleted execution */
+  static final class Tombstone {
+    Pointer pointer;
+
+    /** The first segment which can hold a record of the execution */
+    final int firstSegment;
+
+    Tombstone(Pointer pointer, int firstSegment) {
+      this.pointer = pointer;
+      this.firstSegment = firstSegment;
+    }
+
+    void write(DataOutputStream out) throws IOException {
+      out.writeInt(firstSegment);
+      pointer.write(out);
+    }
+
+    static Tombstone read(DataInputStream in) throws IOException {
+      int firstSegment = in.readInt();
+      return new Tombstone(Pointer.read(in), firstSegment);
+    }
+  }
+
+  /** A record as it was read from a segment */
+  private static final class Record {
+    byte type;
+    byte flags;
+    String id;
+    String ownerId;
+    byte[] payload;
+  }
+
+  /** What the index knows about a single execution */
+  static final class IndexEntry {
+    final String id;
+    String parentId = "";
+    String name = "";
+    ExecutionType type;
+    long startTime;
+    long updateTime;
+    boolean failed;
+
+    /** The first segment with a record of the execution, also records which are replaced */
+    int firstSegment;
+
+    Pointer execution;
+    Pointer state;
+    List<Pointer> logs = new ArrayList<>();
+    Map<String, Pointer> data = new LinkedHashMap<>();
+
+    IndexEntry(String id) {
+      this.id = id;
+    }
+
+    long getSortTime() {
+      return updateTime > 0 ? updateTime : startTime;
+    }
+
+    void forEachPointer(Consumer<Pointer> consumer) {
+      if (execution != null) {
+        consumer.accept(execution);
+      }
+      if (state != null) {
+        consumer.accept(state);
+      }
+      logs.forEach(consumer);
+      data.values().forEach(consumer);
+    }
+
+    void write(DataOutputStream out) throws IOException {
+      out.writeUTF(id);
+      out.writeUTF(parentId);
+      out.writeUTF(name);
+      out.writeByte(type == null ? -1 : type.ordinal());
+      out.writeLong(startTime);
+      out.writeLong(updateTime);
+      out.writeBoolean(failed);
+      out.writeInt(firstSegment);
+      writePointer(out, execution);
+      writePointer(out, state);
+      out.writeInt(logs.size());
+      for (Pointer pointer : logs) {
+        pointer.write(out);
+      }
+      out.writeInt(data.size());
+      for (Map.Entry<String, Pointer> entry : data.entrySet()) {
+        out.writeUTF(entry.getKey());
+        entry.getValue().write(out);
+      }
+    }
+
+    static IndexEntry read(DataInputStream in) throws IOException {
+      IndexEntry entry = new IndexEntry(in.readUTF());
+      entry.parentId = in.readUTF();
+      entry.name = in.readUTF();
+      int type = in.readByte();
+      entry.type = type < 0 ? null : ExecutionType.values()[type];
+      entry.startTime = in.readLong();
+      entry.updateTime = in.readLong();
+      entry.failed = in.readBoolean();
+      entry.firstSegment = in.readInt();
+      entry.execution = readPointer(in);
+      entry.state = readPointer(in);
+      int logCount = in.readInt();
+      for (int i = 0; i < logCount; i++) {
+        entry.logs.add(Pointer.read(in));
+      }
+      int dataCount = in.readInt();
+      for (int i = 0; i < dataCount; i++) {
+        entry.data.put(in.readUTF(), Pointer.read(in));
+      }
+      return entry;
+    }
+
+    private static void writePointer(DataOutputStream out, Pointer pointer) throws IOException {
+      out.writeBoolean(pointer != null);
+      if (pointer != null) {
+        pointer.write(out);
+      }
+    }
+
+    private static Pointer readPointer(DataInputStream in) throws IOException {
+      return in.readBoolean() ? Pointer.read(in) : null;
+    }
+  }
+}
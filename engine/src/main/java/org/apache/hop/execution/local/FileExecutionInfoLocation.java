@@ -28,17 +28,25 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.FileType;
 import org.apache.commons.vfs2.FileTypeSelector;
 import org.apache.hop.core.Const;
+import org.apache.hop.core.compress.CompressionInputStream;
+import org.apache.hop.core.compress.CompressionOutputStream;
+import org.apache.hop.core.compress.CompressionProviderFactory;
+import org.apache.hop.core.compress.ICompressionProvider;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.gui.plugin.GuiElementType;
 import org.apache.hop.core.gui.plugin.GuiPlugin;
 import org.apache.hop.core.gui.plugin.GuiWidgetElement;
 import org.apache.hop.core.json.HopJson;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.util.Utils;
 import org.apache.hop.core.variables.IVariables;
 import org.apache.hop.core.vfs.HopVfs;
 import org.apache.hop.execution.Execution;
@@ -80,6 +88,17 @@ public class FileExecutionInfoLocation implements IExecutionInfoLocation {
   @HopMetadataProperty
   protected String rootFolder;
 
+  @GuiWidgetElement(
+      id = "dataCompression",
+      order = "020",
+      parentId = ExecutionInfoLocation.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.COMBO,
+      comboValuesMethod = "getCompressionTypes",
+      toolTip = "i18n::LocalExecutionInfoLocation.DataCompression.Tooltip",
+      label = "i18n::LocalExecutionInfoLocation.DataCompression.Label")
+  @HopMetadataProperty
+  protected String dataCompression;
+
   private IVariables variables;
 
   public FileExecutionInfoLocation() {}
@@ -94,6 +113,7 @@ public class FileExecutionInfoLocation implements IExecutionInfoLocation {
     this.pluginId = location.pluginId;
     this.pluginName = location.pluginName;
     this.rootFolder = location.rootFolder;
+    this.dataCompression = location.dataCompression;
   }
 
   public FileExecutionInfoLocation clone() {
@@ -340,9 +360,26 @@ public class FileExecutionInfoLocation implements IExecutionInfoLocation {
       //
       String dataFilename = getDataFilename(data);
 
+      // Sampled data is by far the largest part of the execution information.
+      // Optionally compress it, adding the extension of the compression provider to the filename.
+      //
+      ICompressionProvider compressionProvider = getDataCompressionProvider();
+      if (compressionProvider != null) {
+        dataFilename += "." + compressionProvider.getDefaultExtension();
+      }
+
       try (OutputStream outputStream = HopVfs.getOutputStream(dataFilename, false)) {
         ObjectMapper mapper = HopJson.newMapper();
-        mapper.writerWithDefaultPrettyPrinter().writeValue(outputStream, data);
+        if (compressionProvider == null) {
+          mapper.writerWithDefaultPrettyPrinter().writeValue(outputStream, data);
+        } else {
+          try (CompressionOutputStream compressedStream =
+              compressionProvider.createOutputStream(outputStream)) {
+            // Archive formats like Zip need an entry to write to, it's a no-op for the others
+            compressedStream.addEntry(data.getOwnerId() + CONST_DATA_JSON, null);
+            mapper.writeValue(compressedStream, data);
+          }
+        }
       }
     } catch (Exception e) {
       throw new HopException("Error storing execution data", e);
@@ -420,7 +457,9 @@ public class FileExecutionInfoLocation implements IExecutionInfoLocation {
   public synchronized List<String> findChildIds(
       ExecutionType parentExecutionType, String parentExecutionId) throws HopException {
     try {
-      List<String> ids = new ArrayList<>();
+      // The same data can be stored uncompressed and compressed after the option changed
+      //
+      Set<String> ids = new LinkedHashSet<>();
 
       // For a workflow to find its children.
       // For a Beam pipeline to find child transforms.
@@ -437,10 +476,14 @@ public class FileExecutionInfoLocation implements IExecutionInfoLocation {
         if (baseName.endsWith(suffix)) {
           String id = baseName.substring(0, baseName.length() - suffix.length());
           ids.add(id);
+        } else if (baseName.contains(suffix + ".")) {
+          // Compressed data file
+          String id = baseName.substring(0, baseName.lastIndexOf(suffix + "."));
+          ids.add(id);
         }
       }
 
-      return ids;
+      return new ArrayList<>(ids);
     } catch (Exception e) {
       throw new HopException(
           "Error finding children of "
@@ -555,13 +598,33 @@ public class FileExecutionInfoLocation implements IExecutionInfoLocation {
         }
 
         FileObject dataFileObject = folder.getChild(executionId + CONST_DATA_JSON);
-        if (dataFileObject == null || !dataFileObject.exists()) {
-          return null;
+        if (dataFileObject != null && dataFileObject.exists()) {
+          try (InputStream inputStream = HopVfs.getInputStream(dataFileObject)) {
+            ObjectMapper objectMapper = HopJson.newMapper();
+            return objectMapper.readValue(inputStream, ExecutionData.class);
+          }
         }
-        try (InputStream inputStream = HopVfs.getInputStream(dataFileObject)) {
-          ObjectMapper objectMapper = HopJson.newMapper();
-          return objectMapper.readValue(inputStream, ExecutionData.class);
+
+        // See if the data was written compressed, with any of the available providers.
+        // This keeps the data readable after the compression option was changed.
+        //
+        for (ICompressionProvider provider :
+            CompressionProviderFactory.getInstance().getCompressionProviders()) {
+          if (!provider.supportsInput() || Utils.isEmpty(provider.getDefaultExtension())) {
+            continue;
+          }
+          dataFileObject =
+              folder.getChild(executionId + CONST_DATA_JSON + "." + provider.getDefaultExtension());
+          if (dataFileObject != null && dataFileObject.exists()) {
+            try (CompressionInputStream inputStream =
+                provider.createInputStream(HopVfs.getInputStream(dataFileObject))) {
+              inputStream.nextEntry();
+              ObjectMapper objectMapper = HopJson.newMapper();
+              return objectMapper.readValue(inputStream, ExecutionData.class);
+            }
+          }
         }
+        return null;
       }
     } catch (Exception e) {
       throw new HopException(
@@ -569,6 +632,54 @@ public class FileExecutionInfoLocation implements IExecutionInfoLocation {
     }
   }
 
+  /**
+   * Get the compression provider to use for the execution data files.
+   *
+   * @return The compression provider or null if the data is not to be compressed
+   * @throws HopException In case the provider can't be found or is unsuitable
+   */
+  private ICompressionProvider getDataCompressionProvider() throws HopException {
+    String compressionType = variables.resolve(dataCompression);
+    if (Utils.isEmpty(compressionType)) {
+      return null;
+    }
+    ICompressionProvider provider =
+        CompressionProviderFactory.getInstance().getCompressionProviderByName(compressionType);
+    if (provider == null) {
+      throw new HopException("Compression provider " + compressionType + " could not be found");
+    }
+    if (Utils.isEmpty(provider.getDefaultExtension())) {
+      // Without a file extension we can't recognize the compressed files (e.g. None)
+      return null;
+    }
+    if (!provider.supportsOutput() || !provider.supportsInput()) {
+      throw new HopException(
+          "Compression provider " + compressionType + " can't be used to store execution data");
+    }
+    return provider;
+  }
+
+  /**
+   * Used by the GUI to list the available compression types for the execution data files.
+   *
+   * @param log the logging channel
+   * @param metadataProvider the metadata provider
+   * @return The list of compression provider names
+   */
+  public List<String> getCompressionTypes(ILogChannel log, IHopMetadataProvider metadataProvider) {
+    List<String> list = new ArrayList<>();
+    list.add("");
+    for (ICompressionProvider provider :
+        CompressionProviderFactory.getInstance().getCompressionProviders()) {
+      if (provider.supportsInput()
+          && provider.supportsOutput()
+          && !Utils.isEmpty(provider.getDefaultExtension())) {
+        list.add(provider.getName());
+      }
+    }
+    return list;
+  }
+
   private String getSubFolder(Execution registration) {
     return variables.resolve(rootFolder) + "/" + registration.getId();
   }
@@ -635,6 +746,24 @@ public class FileExecutionInfoLocation implements IExecutionInfoLocation {
     this.rootFolder = rootFolder;
   }
 
+  /**
+   * Gets the name of the compression provider used for the execution data files
+   *
+   * @return value of dataCompression
+   */
+  public String getDataCompression() {
+    return dataCompression;
+  }
+
+  /**
+   * Sets the name of the compression provider used for the execution data files
+   *
+   * @param dataCompression value of dataCompression
+   */
+  public void setDataCompression(String dataCompression) {
+    this.dataCompression = dataCompression;
+  }
+
   private static class ExecutionIdAndDate {
     public String id;
     public Date startDate;
@@ -0,0 +1,648 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.hop.execution.local;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.stream.Stream;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.gui.plugin.GuiElementType;
+import org.apache.hop.core.gui.plugin.GuiPlugin;
+import org.apache.hop.core.gui.plugin.GuiWidgetElement;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.logging.LogChannel;
+import org.apache.hop.core.util.ExecutorUtil;
+import org.apache.hop.core.util.Utils;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.core.vfs.HopVfs;
+import org.apache.hop.execution.Execution;
+import org.apache.hop.execution.ExecutionData;
+import org.apache.hop.execution.ExecutionInfoLocation;
+import org.apache.hop.execution.ExecutionState;
+import org.apache.hop.execution.ExecutionType;
+import org.apache.hop.execution.IExecutionInfoLocation;
+import org.apache.hop.execution.IExecutionMatcher;
+import org.apache.hop.execution.plugin.ExecutionInfoLocationPlugin;
+import org.apache.hop.metadata.api.HopMetadataProperty;
+import org.apache.hop.metadata.api.IHopMetadataProvider;
+
+/**
+ * Stores execution information in append-only segment files with an index of all executions. See
+ * {@link ExecutionSegmentStore}. Listing and finding executions is done with the index in memory so
+ * it doesn't slow down as the number of executions grows.
+ *
+ * <p>Old executions are removed after the configured number of days. They can be exported in the
+ * JSON folder format of the {@link FileExecutionInfoLocation} first. Executions stored in that
+ * format in the root folder are imported when the location is used for the first time.
+ */
+@GuiPlugin(description = "Segmented file execution information location GUI elements")
+@ExecutionInfoLocationPlugin(
+    id = "segment-folder",
+    name = "Segmented file location",
+    description = "Stores execution information in indexed segment files in a folder")
+public class SegmentExecutionInfoLocation implements IExecutionInfoLocation {
+
+  public static final String DEFAULT_MAX_SEGMENT_SIZE = "64";
+
+  /** Segments where less than this part is still in use are compacted */
+  public static final double COMPACTION_LIVE_RATIO = 0.5;
+
+  private static final long MAINTENANCE_INTERVAL = 10 * 60 * 1000L;
+  private static final long MAINTENANCE_DELAY = 10 * 1000L;
+  private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+
+  @HopMetadataProperty protected String pluginId;
+
+  @HopMetadataProperty protected String pluginName;
+
+  @GuiWidgetElement(
+      id = "rootFolder",
+      order = "010",
+      parentId = ExecutionInfoLocation.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.FOLDER,
+      toolTip = "i18n::SegmentExecutionInfoLocation.RootFolder.Tooltip",
+      label = "i18n::SegmentExecutionInfoLocation.RootFolder.Label")
+  @HopMetadataProperty
+  protected String rootFolder;
+
+  @GuiWidgetElement(
+      id = "maxSegmentSize",
+      order = "020",
+      parentId = ExecutionInfoLocation.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.TEXT,
+      toolTip = "i18n::SegmentExecutionInfoLocation.MaxSegmentSize.Tooltip",
+      label = "i18n::SegmentExecutionInfoLocation.MaxSegmentSize.Label")
+  @HopMetadataProperty
+  protected String maxSegmentSize = DEFAULT_MAX_SEGMENT_SIZE;
+
+  @GuiWidgetElement(
+      id = "retentionDays",
+      order = "030",
+      parentId = ExecutionInfoLocation.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.TEXT,
+      toolTip = "i18n::SegmentExecutionInfoLocation.RetentionDays.Tooltip",
+      label = "i18n::SegmentExecutionInfoLocation.RetentionDays.Label")
+  @HopMetadataProperty
+  protected String retentionDays;
+
+  @GuiWidgetElement(
+      id = "exportFolder",
+      order = "040",
+      parentId = ExecutionInfoLocation.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.FOLDER,
+      toolTip = "i18n::SegmentExecutionInfoLocation.ExportFolder.Tooltip",
+      label = "i18n::SegmentExecutionInfoLocation.ExportFolder.Label")
+  @HopMetadataProperty
+  protected String exportFolder;
+
+  private IVariables variables;
+  private IHopMetadataProvider metadataProvider;
+  private ILogChannel log;
+  private ExecutionSegmentStore store;
+  private Timer maintenanceTimer;
+
+  public SegmentExecutionInfoLocation() {}
+
+  public SegmentExecutionInfoLocation(String rootFolder) {
+    this.pluginId = "segment-folder";
+    this.pluginName = "Segmented file location";
+    this.rootFolder = rootFolder;
+  }
+
+  public SegmentExecutionInfoLocation(SegmentExecutionInfoLocation location) {
+    this.pluginId = location.pluginId;
+    this.pluginName = location.pluginName;
+    this.rootFolder = location.rootFolder;
+    this.maxSegmentSize = location.maxSegmentSize;
+    this.retentionDays = location.retentionDays;
+    this.exportFolder = location.exportFolder;
+  }
+
+  @Override
+  public SegmentExecutionInfoLocation clone() {
+    return new SegmentExecutionInfoLocation(this);
+  }
+
+  @Override
+  public synchronized void initialize(IVariables variables, IHopMetadataProvider metadataProvider)
+      throws HopException {
+    this.variables = variables;
+    this.metadataProvider = metadataProvider;
+    this.log = LogChannel.GENERAL;
+    try {
+      FileObject folderObject = HopVfs.getFileObject(variables.resolve(rootFolder));
+      if (!"file".equals(folderObject.getName().getScheme())) {
+        throw new HopException(
+            "The segmented file location needs a folder on the local file system, not "
+                + folderObject.getName().getURI());
+      }
+      Path folder = Paths.get(HopVfs.getFilename(folderObject));
+      long segmentSize =
+          Const.toLong(variables.resolve(maxSegmentSize), Long.parseLong(DEFAULT_MAX_SEGMENT_SIZE))
+              * 1024L
+              * 1024L;
+
+      // Locations on the same folder share the store
+      //
+      store = ExecutionSegmentStore.acquire(folder, segmentSize, log);
+
+      if (store.isEmpty()) {
+        importJsonFolders(folder);
+      }
+    } catch (HopException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new HopException("Error opening segmented execution information location", e);
+    }
+
+    // Retention and compaction run in the background
+    //
+    maintenanceTimer = new Timer("Segmented execution location maintenance", true);
+    maintenanceTimer.schedule(
+        new TimerTask() {
+          @Override
+          public void run() {
+            try {
+              maintain();
+            } catch (Exception e) {
+              log.logError("Error maintaining the segmented execution information location", e);
+            }
+          }
+        },
+        MAINTENANCE_DELAY,
+        MAINTENANCE_INTERVAL);
+  }
+
+  @Override
+  public synchronized void close() throws HopException {
+    ExecutorUtil.cleanup(maintenanceTimer);
+    maintenanceTimer = null;
+    if (store != null) {
+      try {
+        store.release();
+      } catch (Exception e) {
+        throw new HopException("Error closing segmented execution information location", e);
+      } finally {
+        store = null;
+      }
+    }
+  }
+
+  @Override
+  public void unBuffer(String executionId) throws HopException {
+    // Nothing to remove from a buffer or cache
+  }
+
+  @Override
+  public void registerExecution(Execution execution) throws HopException {
+    try {
+      getStore().putExecution(execution);
+    } catch (HopException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new HopException("Error registering execution information", e);
+    }
+  }
+
+  @Override
+  public void updateExecutionState(ExecutionState executionState) throws HopException {
+    if (executionState == null) {
+      throw new HopException("Please provide a non-null ExecutionState to update");
+    }
+    try {
+      getStore().putState(executionState);
+    } catch (HopException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new HopException("Error updating execution information", e);
+    }
+  }
+
+  @Override
+  public void registerData(ExecutionData data) throws HopException {
+    try {
+      getStore().putData(data);
+    } catch (HopException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new HopException("Error storing execution data", e);
+    }
+  }
+
+  @Override
+  public boolean deleteExecution(String executionId) throws HopException {
+    try {
+      ExecutionSegmentStore segmentStore = getStore();
+      for (String childId : segmentStore.getChildIds(executionId)) {
+        deleteExecution(childId);
+      }
+      return segmentStore.delete(executionId);
+    } catch (HopException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new HopException("Error deleting execution with ID " + executionId, e);
+    }
+  }
+
+  @Override
+  public ExecutionState getExecutionState(String executionId) throws HopException {
+    return getExecutionState(executionId, true);
+  }
+
+  @Override
+  public ExecutionState getExecutionState(String executionId, boolean includeLogging)
+      throws HopException {
+    try {
+      ExecutionState executionState = getStore().getState(executionId);
+      if (executionState != null && includeLogging) {
+        // Load at most 20M characters worth of logging text.
+        //
+        executionState.setLoggingText(getStore().getLoggingText(executionId, 20000000));
+      }
+      return executionState;
+    } catch (HopException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new HopException("Unable to get the execution status for ID " + executionId, e);
+    }
+  }
+
+  @Override
+  public String getExecutionStateLoggingText(String executionId, int sizeLimit)
+      throws HopException {
+    try {
+      return getStore().getLoggingText(executionId, sizeLimit);
+    } catch (HopException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new HopException("Error reading state logging text for execution ID " + executionId, e);
+    }
+  }
+
+  @Override
+  public List<String> getExecutionIds(boolean includeChildren, int limit) throws HopException {
+    try {
+      return getStore().getIds(includeChildren, limit);
+    } catch (HopException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new HopException("Error listing execution IDs", e);
+    }
+  }
+
+  @Override
+  public Execution getExecution(String executionId) throws HopException {
+    try {
+      return getStore().getExecution(executionId);
+    } catch (HopException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new HopException("Error getting execution information for ID " + executionId, e);
+    }
+  }
+
+  @Override
+  public List<Execution> findExecutions(String parentExecutionId) throws HopException {
+    try {
+      List<Execution> executions = new ArrayList<>();
+      for (String id : getStore().getChildIds(parentExecutionId)) {
+        Execution execution = getStore().getExecution(id);
+        if (execution != null) {
+          executions.add(execution);
+        }
+      }
+      return executions;
+    } catch (HopException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new HopException(
+          "Error finding child executions for parent ID " + parentExecutionId, e);
+    }
+  }
+
+  @Override
+  public List<Execution> findExecutions(IExecutionMatcher matcher) throws HopException {
+    try {
+      List<Execution> executions = new ArrayList<>();
+      for (String id : getStore().getIds(true, 0)) {
+        Execution execution = getStore().getExecution(id);
+        if (execution != null && matcher.matches(execution)) {
+          executions.add(execution);
+        }
+      }
+      return executions;
+    } catch (HopException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new HopException("Error finding executions with a matcher", e);
+    }
+  }
+
+  @Override
+  public Execution findPreviousSuccessfulExecution(ExecutionType executionType, String name)
+      throws HopException {
+    String id = findLastId(executionType, name, true);
+    return id == null ? null : getExecution(id);
+  }
+
+  @Override
+  public Execution findLastExecution(ExecutionType executionType, String name) throws HopException {
+    String id = findLastId(executionType, name, false);
+    return id == null ? null : getExecution(id);
+  }
+
+  private String findLastId(ExecutionType executionType, String name, boolean successfulOnly)
+      throws HopException {
+    try {
+      return getStore().findLastId(executionType, name, successfulOnly);
+    } catch (HopException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new HopException("Error finding the last execution of " + name, e);
+    }
+  }
+
+  @Override
+  public List<String> findChildIds(ExecutionType parentExecutionType, String parentExecutionId)
+      throws HopException {
+    try {
+      return getStore().getDataOwnerIds(parentExecutionId);
+    } catch (HopException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new HopException("Error finding child IDs of execution " + parentExecutionId, e);
+    }
+  }
+
+  @Override
+  public String findParentId(String childId) throws HopException {
+    String parentId;
+    try {
+      parentId = getStore().getParentId(childId);
+    } catch (HopException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new HopException("Error finding the parent ID of execution " + childId, e);
+    }
+    if (parentId != null) {
+      return parentId;
+    }
+    // Not every child is registered with its parent ID, look at the latest states
+    //
+    for (String id : getExecutionIds(true, 100)) {
+      ExecutionState executionState = getExecutionState(id, false);
+      if (executionState != null
+          && executionState.getChildIds() != null
+          && executionState.getChildIds().contains(childId)) {
+        return id;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public ExecutionData getExecutionData(String parentExecutionId, String executionId)
+      throws HopException {
+    try {
+      return getStore().getData(parentExecutionId, executionId);
+    } catch (HopException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new HopException(
+          "Error looking up execution data for parent execution ID " + parentExecutionId, e);
+    }
+  }
+
+  /**
+   * Copy an execution with its state, logging, data and child executions to another location. To
+   * export in the JSON folder format use a {@link FileExecutionInfoLocation}.
+   *
+   * @param executionId The ID of the execution to export
+   * @param target The location to copy the execution to
+   * @throws HopException In case of an error reading or writing execution information
+   */
+  public void exportExecution(String executionId, IExecutionInfoLocation target)
+      throws HopException {
+    copyExecution(this, target, executionId);
+    for (String childId : getChildIds(executionId)) {
+      exportExecution(childId, target);
+    }
+  }
+
+  /**
+   * Copy all executions of another location into this one.
+   *
+   * @param source The location to read the executions from
+   * @return The number of imported executions
+   * @throws HopException In case of an error reading or writing execution information
+   */
+  public int importExecutions(IExecutionInfoLocation source) throws HopException {
+    int count = 0;
+    for (String id : source.getExecutionIds(true, 0)) {
+      if (copyExecution(source, this, id)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /** Remove the executions which are older than the retention period and compact the segments */
+  protected void maintain() throws HopException {
+    int days = Const.toInt(variables.resolve(retentionDays), 0);
+    if (days > 0) {
+      List<String> expiredIds;
+      try {
+        expiredIds =
+            getStore().getIdsUpdatedBefore(System.currentTimeMillis() - days * MILLIS_PER_DAY);
+      } catch (Exception e) {
+        throw new HopException("Error finding expired executions", e);
+      }
+      if (!expiredIds.isEmpty()) {
+        IExecutionInfoLocation exportLocation = null;
+        if (!Utils.isEmpty(variables.resolve(exportFolder))) {
+          exportLocation = new FileExecutionInfoLocation(exportFolder);
+          exportLocation.initialize(variables, metadataProvider);
+        }
+        for (String id : expiredIds) {
+          if (exportLocation != null) {
+            exportExecution(id, exportLocation);
+          }
+          deleteExecution(id);
+        }
+        log.logBasic("Removed " + expiredIds.size() + " executions older than " + days + " days");
+      }
+    }
+    try {
+      getStore().compact(COMPACTION_LIVE_RATIO);
+    } catch (Exception e) {
+      throw new HopException("Error compacting execution information segments", e);
+    }
+  }
+
+  /**
+   * Import the executions stored in the JSON folder format in the root folder. This only happens
+   * when nothing was stored in the segments yet.
+   */
+  private void importJsonFolders(Path folder) throws Exception {
+    boolean found;
+    try (Stream<Path> paths = Files.list(folder)) {
+      found =
+          paths.anyMatch(
+              path ->
+                  Files.exists(path.resolve(FileExecutionInfoLocation.FILENAME_EXECUTION_JSON)));
+    }
+    if (found) {
+      FileExecutionInfoLocation jsonLocation = new FileExecutionInfoLocation(rootFolder);
+      jsonLocation.initialize(variables, metadataProvider);
+      int count = importExecutions(jsonLocation);
+      store.writeSnapshot();
+      log.logBasic("Imported " + count + " executions stored as JSON in " + folder);
+    }
+  }
+
+  private static boolean copyExecution(
+      IExecutionInfoLocation source, IExecutionInfoLocation target, String executionId)
+      throws HopException {
+    Execution execution = source.getExecution(executionId);
+    if (execution == null) {
+      return false;
+    }
+    target.registerExecution(execution);
+    ExecutionState executionState = source.getExecutionState(executionId, true);
+    if (executionState != null) {
+      // The complete logging text replaces what the target has
+      executionState.setLastLogLineNr(null);
+      target.updateExecutionState(executionState);
+    }
+    for (String ownerId : source.findChildIds(execution.getExecutionType(), executionId)) {
+      ExecutionData data = source.getExecutionData(executionId, ownerId);
+      if (data != null) {
+        target.registerData(data);
+      }
+    }
+    return true;
+  }
+
+  private List<String> getChildIds(String executionId) throws HopException {
+    try {
+      return getStore().getChildIds(executionId);
+    } catch (HopException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new HopException("Error finding child executions of execution " + executionId, e);
+    }
+  }
+
+  private ExecutionSegmentStore getStore() throws HopException {
+    ExecutionSegmentStore segmentStore = store;
+    if (segmentStore == null) {
+      throw new HopException("The segmented execution information location is not initialized");
+    }
+    return segmentStore;
+  }
+
+  @Override
+  public String getPluginId() {
+    return pluginId;
+  }
+
+  @Override
+  public void setPluginId(String pluginId) {
+    this.pluginId = pluginId;
+  }
+
+  @Override
+  public String getPluginName() {
+    return pluginName;
+  }
+
+  @Override
+  public void setPluginName(String pluginName) {
+    this.pluginName = pluginName;
+  }
+
+  public String getRootFolder() {
+    return rootFolder;
+  }
+
+  public void setRootFolder(String rootFolder) {
+    this.rootFolder = rootFolder;
+  }
+
+  /**
+   * Gets the size in MB after which a new segment file is started
+   *
+   * @return value of maxSegmentSize
+   */
+  public String getMaxSegmentSize() {
+    return maxSegmentSize;
+  }
+
+  /**
+   * Sets the size in MB after which a new segment file is started
+   *
+   * @param maxSegmentSize value of maxSegmentSize
+   */
+  public void setMaxSegmentSize(String maxSegmentSize) {
+    this.maxSegmentSize = maxSegmentSize;
+  }
+
+  /**
+   * Gets the number of days to keep executions, empty or 0 to keep them forever
+   *
+   * @return value of retentionDays
+   */
+  public String getRetentionDays() {
+    return retentionDays;
+  }
+
+  /**
+   * Sets the number of days to keep executions, empty or 0 to keep them forever
+   *
+   * @param retentionDays value of retentionDays
+   */
+  public void setRetentionDays(String retentionDays) {
+    this.retentionDays = retentionDays;
+  }
+
+  /**
+   * Gets the folder to export expired executions to in the JSON folder format
+   *
+   * @return value of exportFolder
+   */
+  public String getExportFolder() {
+    return exportFolder;
+  }
+
+  /**
+   * Sets the folder to export expired executions to in the JSON folder format
+   *
+   * @param exportFolder value of exportFolder
+   */
+  public void setExportFolder(String exportFolder) {
+    this.exportFolder = exportFolder;
+  }
+}
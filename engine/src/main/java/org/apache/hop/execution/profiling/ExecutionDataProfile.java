@@ -41,18 +41,31 @@ import org.apache.hop.metadata.api.IHopMetadata;
 public class ExecutionDataProfile extends HopMetadataBase implements IHopMetadata, Cloneable {
 
   public static final String GUI_PLUGIN_ELEMENT_PARENT_ID = "ExecutionDataSamplerParent";
+  public static final String DEFAULT_SAMPLING_BUFFER_SIZE = "10000";
+
   @HopMetadataProperty private String description;
 
+  /**
+   * Sample the rows on a background thread instead of the transform threads. Rows are skipped when
+   * the sampling can't keep up.
+   */
+  @HopMetadataProperty private boolean asynchronousSampling;
+
+  /** The number of rows to buffer per transform copy for asynchronous sampling */
+  @HopMetadataProperty private String samplingBufferSize;
+
   @HopMetadataProperty(groupKey = "samplers", key = "sampler")
   private List<IExecutionDataSampler> samplers;
 
   public ExecutionDataProfile() {
     this.samplers = new ArrayList<>();
+    this.samplingBufferSize = DEFAULT_SAMPLING_BUFFER_SIZE;
   }
 
   public ExecutionDataProfile(String name) {
     super(name);
     this.samplers = new ArrayList<>();
+    this.samplingBufferSize = DEFAULT_SAMPLING_BUFFER_SIZE;
   }
 
   public ExecutionDataProfile(
@@ -65,6 +78,8 @@ public class ExecutionDataProfile extends HopMetadataBase implements IHopMetadat
   public ExecutionDataProfile(ExecutionDataProfile profile) {
     this(profile.name);
     this.description = profile.description;
+    this.asynchronousSampling = profile.asynchronousSampling;
+    this.samplingBufferSize = profile.samplingBufferSize;
     for (IExecutionDataSampler<?> sampler : profile.samplers) {
       this.samplers.add(sampler.clone());
     }
@@ -110,4 +125,40 @@ public class ExecutionDataProfile extends HopMetadataBase implements IHopMetadat
   public void setSamplers(List<IExecutionDataSampler> samplers) {
     this.samplers = samplers;
   }
+
+  /**
+   * Gets asynchronousSampling
+   *
+   * @return value of asynchronousSampling
+   */
+  public boolean isAsynchronousSampling() {
+    return asynchronousSampling;
+  }
+
+  /**
+   * Sets asynchronousSampling
+   *
+   * @param asynchronousSampling value of asynchronousSampling
+   */
+  public void setAsynchronousSampling(boolean asynchronousSampling) {
+    this.asynchronousSampling = asynchronousSampling;
+  }
+
+  /**
+   * Gets samplingBufferSize
+   *
+   * @return value of samplingBufferSize
+   */
+  public String getSamplingBufferSize() {
+    return samplingBufferSize;
+  }
+
+  /**
+   * Sets samplingBufferSize
+   *
+   * @param samplingBufferSize value of samplingBufferSize
+   */
+  public void setSamplingBufferSize(String samplingBufferSize) {
+    this.samplingBufferSize = samplingBufferSize;
+  }
 }
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.execution.sampler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.pipeline.transform.IRowListener;
+import org.apache.hop.pipeline.transform.stream.IStream;
+
+/**
+ * A row listener for asynchronous data sampling. The transform only puts a reference to each row in
+ * a fixed size ring buffer, without locking and without copying the row. The samplers are fed from
+ * the buffer by a background thread calling {@link #drain()}.
+ *
+ * <p>The buffer is lossy: when it's full because the background thread can't keep up, rows are
+ * skipped rather than slowing down the transform. Since rows are sampled by reference, a sampler
+ * sees the row as it is when the background thread gets to it.
+ */
+public class ExecutionDataSamplerBuffer implements IRowListener {
+
+  private final int capacity;
+  private final int mask;
+  private final IStream.StreamType[] streamTypes;
+  private final IRowMeta[] rowMetas;
+  private final AtomicReferenceArray<Object[]> rows;
+  private final AtomicLong writeSequence;
+  private final AtomicLong skipped;
+  private volatile long readSequence;
+
+  private final List<IExecutionDataSampler> samplers;
+  private final List<IExecutionDataSamplerStore> samplerStores;
+
+  /**
+   * @param size The minimum number of rows the buffer can hold. It's rounded up to a power of 2.
+   */
+  public ExecutionDataSamplerBuffer(int size) {
+    int bits = 32 - Integer.numberOfLeadingZeros(Math.max(2, size) - 1);
+    this.capacity = 1 << Math.min(bits, 30);
+    this.mask = capacity - 1;
+    this.streamTypes = new IStream.StreamType[capacity];
+    this.rowMetas = new IRowMeta[capacity];
+    this.rows = new AtomicReferenceArray<>(capacity);
+    this.writeSequence = new AtomicLong();
+    this.skipped = new AtomicLong();
+    this.samplers = new ArrayList<>();
+    this.samplerStores = new ArrayList<>();
+  }
+
+  /**
+   * Feed the rows in this buffer to the given sampler. Add all samplers before the transform
+   * starts.
+   *
+   * @param sampler The sampler
+   * @param samplerStore The store of the sampler for the transform copy
+   */
+  public void addSampler(
+      IExecutionDataSampler<?> sampler, IExecutionDataSamplerStore samplerStore) {
+    samplers.add(sampler);
+    samplerStores.add(samplerStore);
+  }
+
+  @Override
+  public void rowReadEvent(IRowMeta rowMeta, Object[] row) {
+    publish(IStream.StreamType.INPUT, rowMeta, row);
+  }
+
+  @Override
+  public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+    publish(IStream.StreamType.OUTPUT, rowMeta, row);
+  }
+
+  @Override
+  public void errorRowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+    publish(IStream.StreamType.ERROR, rowMeta, row);
+  }
+
+  /**
+   * Put a row in the buffer or skip it if the buffer is full.
+   *
+   * @param streamType The type of stream the row came from
+   * @param rowMeta The row metadata
+   * @param row The row
+   * @return true if the row was put in the buffer
+   */
+  public boolean publish(IStream.StreamType streamType, IRowMeta rowMeta, Object[] row) {
+    long sequence = writeSequence.get();
+    if (row == null
+        || sequence - readSequence >= capacity
+        || !writeSequence.compareAndSet(sequence, sequence + 1)) {
+      skipped.incrementAndGet();
+      return false;
+    }
+    int index = (int) (sequence & mask);
+    streamTypes[index] = streamType;
+    rowMetas[index] = rowMeta;
+    // Setting the row publishes the slot to the background thread
+    rows.set(index, row);
+    return true;
+  }
+
+  /**
+   * Feed the rows in the buffer to the samplers. Only one thread at a time should do this.
+   *
+   * @return The number of rows taken from the buffer
+   * @throws HopException In case a sampler fails
+   */
+  @SuppressWarnings("unchecked")
+  public int drain() throws HopException {
+    long sequence = readSequence;
+    long end = writeSequence.get();
+    int count = 0;
+    while (sequence < end) {
+      int index = (int) (sequence & mask);
+      Object[] row = rows.getAndSet(index, null);
+      if (row == null) {
+        // The slot is claimed but the row isn't in it yet
+        break;
+      }
+      IStream.StreamType streamType = streamTypes[index];
+      IRowMeta rowMeta = rowMetas[index];
+      rowMetas[index] = null;
+      readSequence = ++sequence;
+
+      for (int i = 0; i < samplers.size(); i++) {
+        samplers.get(i).sampleRow(samplerStores.get(i), streamType, rowMeta, row);
+      }
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * @return The number of rows which were not sampled because the buffer was full
+   */
+  public long getSkippedRows() {
+    return skipped.get();
+  }
+
+  /**
+   * @return The number of rows the buffer can hold
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+}
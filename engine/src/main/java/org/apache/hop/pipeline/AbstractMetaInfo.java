@@ -21,7 +21,7 @@ package org.apache.hop.pipeline;
 import java.util.Date;
 import org.apache.hop.metadata.api.HopMetadataProperty;
 
-public abstract class AbstractMetaInfo {
+public abstract class AbstractMetaInfo implements Cloneable {
 
   @HopMetadataProperty protected String name;
 
@@ -54,6 +54,18 @@ public abstract class AbstractMetaInfo {
     this.modifiedUser = "-";
   }
 
+  @Override
+  public AbstractMetaInfo clone() {
+    try {
+      AbstractMetaInfo info = (AbstractMetaInfo) super.clone();
+      info.createdDate = createdDate == null ? null : (Date) createdDate.clone();
+      info.modifiedDate = modifiedDate == null ? null : (Date) modifiedDate.clone();
+      return info;
+    } catch (CloneNotSupportedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
   /**
    * Gets name
    *
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline;
+
+import com.google.common.hash.HashCode;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.annotations.PartitionerPlugin;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopTransformException;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.exception.HopXmlException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.ValueHashUtil;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.core.xml.XmlHandler;
+import org.w3c.dom.Node;
+
+/**
+ * Partitions rows on the hash of one or more fields. The values are hashed with the murmur3 hash on
+ * the normalized binary form of {@link ValueHashUtil}, so the same value gives the same partition
+ * regardless of the storage type, and keys with little variation still spread evenly over the
+ * partitions.
+ */
+@PartitionerPlugin(id = "HashPartitioner", name = "Hash of fields", description = "Hash")
+public class HashPartitioner extends BasePartitioner {
+
+  private List<String> fieldNames;
+  protected int[] partitionColumnIndexes;
+
+  public HashPartitioner() {
+    super();
+    fieldNames = new ArrayList<>();
+  }
+
+  @Override
+  public IPartitioner getInstance() {
+    IPartitioner partitioner = new HashPartitioner();
+    partitioner.setId(getId());
+    partitioner.setDescription(getDescription());
+    return partitioner;
+  }
+
+  @Override
+  public HashPartitioner clone() {
+    HashPartitioner hashPartitioner = (HashPartitioner) super.clone();
+    hashPartitioner.fieldNames = new ArrayList<>(fieldNames);
+
+    return hashPartitioner;
+  }
+
+  @Override
+  public String getDialogClassName() {
+    return "org.apache.hop.ui.pipeline.dialog.HashPartitionerDialog";
+  }
+
+  @Override
+  public int getPartition(IVariables variables, IRowMeta rowMeta, Object[] row)
+      throws HopException {
+
+    if (rowMeta == null) {
+      throw new HopException(
+          "No row metadata was provided and so a partition can't be calculated on fields "
+              + fieldNames
+              + " using a hash partitioner");
+    }
+
+    init(variables, rowMeta);
+
+    if (partitionColumnIndexes == null) {
+      int[] indexes = new int[fieldNames.size()];
+      for (int i = 0; i < indexes.length; i++) {
+        indexes[i] = rowMeta.indexOfValue(fieldNames.get(i));
+        if (indexes[i] < 0) {
+          throw new HopTransformException(
+              "Unable to find partitioning field name ["
+                  + fieldNames.get(i)
+                  + "] in the output row..."
+                  + rowMeta);
+        }
+      }
+      partitionColumnIndexes = indexes;
+    }
+
+    long hash = hash(rowMeta, row, partitionColumnIndexes);
+    return (int) Long.remainderUnsigned(hash, nrPartitions);
+  }
+
+  /**
+   * Calculate the 64-bit hash of the given fields of a row.
+   *
+   * @param rowMeta The row metadata
+   * @param row The row data
+   * @param indexes The indexes of the fields to hash
+   * @return The hash
+   * @throws HopValueException In case a value can't be converted
+   */
+  public static long hash(IRowMeta rowMeta, Object[] row, int[] indexes) throws HopValueException {
+    return fingerprint(rowMeta, row, indexes).asLong();
+  }
+
+  /**
+   * Calculate the 128-bit hash of the given fields of a row, for example to use as a fingerprint of
+   * the values. Equal values give the same fingerprint whatever their storage type. The first 64
+   * bits are the {@link #hash(IRowMeta, Object[], int[])} of the fields.
+   *
+   * @param rowMeta The row metadata
+   * @param row The row data
+   * @param indexes The indexes of the fields to hash
+   * @return The 128-bit hash
+   * @throws HopValueException In case a value can't be converted
+   */
+  public static HashCode fingerprint(IRowMeta rowMeta, Object[] row, int[] indexes)
+      throws HopValueException {
+    return ValueHashUtil.fingerprint(rowMeta, row, indexes);
+  }
+
+  @Override
+  public String getDescription() {
+    String description = "Hash partitioner";
+    if (!fieldNames.isEmpty()) {
+      description += "(" + String.join(", ", fieldNames) + ")";
+    }
+    return description;
+  }
+
+  @Override
+  public String getXml() {
+    StringBuilder xml = new StringBuilder(150);
+    xml.append("           ").append(XmlHandler.openTag("field_names")).append(Const.CR);
+    for (String fieldName : fieldNames) {
+      xml.append("             ").append(XmlHandler.addTagValue("field_name", fieldName));
+    }
+    xml.append("           ").append(XmlHandler.closeTag("field_names")).append(Const.CR);
+    return xml.toString();
+  }
+
+  @Override
+  public void loadXml(Node partitioningMethodNode) throws HopXmlException {
+    fieldNames = new ArrayList<>();
+    Node fieldsNode = XmlHandler.getSubNode(partitioningMethodNode, "field_names");
+    for (Node fieldNode : XmlHandler.getNodes(fieldsNode, "field_name")) {
+      fieldNames.add(XmlHandler.getNodeValue(fieldNode));
+    }
+  }
+
+  public List<String> getFieldNames() {
+    return fieldNames;
+  }
+
+  public void setFieldNames(List<String> fieldNames) {
+    this.fieldNames = fieldNames;
+  }
+}
@@ -58,6 +58,7 @@ import org.apache.hop.core.QueueRowSet;
 import org.apache.hop.core.Result;
 import org.apache.hop.core.ResultFile;
 import org.apache.hop.core.RowMetaAndData;
+import org.apache.hop.core.SpillableRowList;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopFileException;
@@ -379,7 +380,7 @@ public abstract class Pipeline
     activeSubPipelines = new ConcurrentHashMap<>();
     activeSubWorkflows = new HashMap<>();
 
-    resultRows = new ArrayList<>();
+    resultRows = new SpillableRowList();
     resultFiles = new ArrayList<>();
 
     extensionDataMap = new HashMap<>();
@@ -273,10 +273,15 @@ public class PipelineMeta extends AbstractMeta
 
     try {
       PipelineMeta pipelineMeta = (PipelineMeta) super.clone();
+      // The clone gets its own caches, clearing them mustn't clear the caches of this pipeline
+      pipelineMeta.transformFieldsCache = new HashMap<>();
+      pipelineMeta.loopCache = new HashMap<>();
+      pipelineMeta.previousTransformCache = new HashMap<>();
       if (doClear) {
         pipelineMeta.clear();
       } else {
         // Clear out the things we're replacing below
+        pipelineMeta.info = info.clone();
         pipelineMeta.transforms = new ArrayList<>();
         pipelineMeta.hops = new ArrayList<>();
         pipelineMeta.notes = new ArrayList<>();
@@ -50,6 +50,11 @@ public class PipelineMetaInfo extends AbstractMetaInfo {
     this.pipelineType = PipelineMeta.PipelineType.Normal;
   }
 
+  @Override
+  public PipelineMetaInfo clone() {
+    return (PipelineMetaInfo) super.clone();
+  }
+
   /**
    * Gets pipelineVersion
    *
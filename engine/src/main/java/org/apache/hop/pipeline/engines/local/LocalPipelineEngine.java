@@ -44,6 +44,7 @@ import org.apache.hop.execution.ExecutionState;
 import org.apache.hop.execution.ExecutionStateBuilder;
 import org.apache.hop.execution.IExecutionInfoLocation;
 import org.apache.hop.execution.profiling.ExecutionDataProfile;
+import org.apache.hop.execution.sampler.ExecutionDataSamplerBuffer;
 import org.apache.hop.execution.sampler.ExecutionDataSamplerMeta;
 import org.apache.hop.execution.sampler.IExecutionDataSampler;
 import org.apache.hop.execution.sampler.IExecutionDataSamplerStore;
@@ -73,6 +74,12 @@ public class LocalPipelineEngine extends Pipeline implements IPipelineEngine<Pip
 
   private Map<String, List<IExecutionDataSamplerStore>> samplerStoresMap;
 
+  /** The buffers of the transform copies in case of asynchronous sampling, null otherwise */
+  private List<ExecutionDataSamplerBuffer> samplerBuffers;
+
+  /** How often the rows in the asynchronous sampling buffers are passed to the samplers */
+  private static final long SAMPLER_BUFFER_DRAIN_INTERVAL = 100L;
+
   public LocalPipelineEngine() {
     super();
     setDefaultRunConfiguration();
@@ -302,11 +309,22 @@ public class LocalPipelineEngine extends Pipeline implements IPipelineEngine<Pip
 
     samplerStoresMap = new HashMap<>();
 
+    // With asynchronous sampling the transforms only hand over the rows to a buffer.
+    // The samplers are fed from the buffers by the execution info timer.
+    //
+    int bufferSize =
+        Const.toInt(
+            resolve(profile.getSamplingBufferSize()),
+            Integer.parseInt(ExecutionDataProfile.DEFAULT_SAMPLING_BUFFER_SIZE));
+    samplerBuffers = profile.isAsynchronousSampling() ? new ArrayList<>() : null;
+
     // Attach all the samplers to all the transform copies.
     //
     for (TransformMetaDataCombi combi : getTransforms()) {
       List<IExecutionDataSamplerStore> samplerStores = new ArrayList<>();
       samplerStoresMap.put(combi.transformName, samplerStores);
+      ExecutionDataSamplerBuffer samplerBuffer =
+          samplerBuffers == null ? null : new ExecutionDataSamplerBuffer(bufferSize);
 
       for (IExecutionDataSampler<?> sampler : samplers) {
         // Create a sampler store for the sampler
@@ -326,13 +344,22 @@ public class LocalPipelineEngine extends Pipeline implements IPipelineEngine<Pip
         IRowMeta inputRowMeta = getPipelineMeta().getPrevTransformFields(this, combi.transformMeta);
         IRowMeta outputRowMeta = getPipelineMeta().getTransformFields(this, combi.transformMeta);
         samplerStore.init(this, inputRowMeta, outputRowMeta);
-        IRowListener rowListener = samplerStore.createRowListener(sampler);
 
         // Keep the stores and samplers safe. We'll need them later on.
         //
         samplerStores.add(samplerStore);
 
-        combi.transform.addRowListener(rowListener);
+        if (samplerBuffer == null) {
+          IRowListener rowListener = samplerStore.createRowListener(sampler);
+          combi.transform.addRowListener(rowListener);
+        } else {
+          samplerBuffer.addSampler(sampler, samplerStore);
+        }
+      }
+
+      if (samplerBuffer != null) {
+        combi.transform.addRowListener(samplerBuffer);
+        samplerBuffers.add(samplerBuffer);
       }
     }
 
@@ -391,6 +418,7 @@ public class LocalPipelineEngine extends Pipeline implements IPipelineEngine<Pip
               // Collect data from all the sampler stores.
               //
               if (dataProfile != null) {
+                drainSamplerBuffers();
                 ExecutionDataBuilder dataBuilder =
                     ExecutionDataBuilder.fromAllTransformData(
                         LocalPipelineEngine.this, samplerStoresMap, false);
@@ -430,6 +458,40 @@ public class LocalPipelineEngine extends Pipeline implements IPipelineEngine<Pip
     //
     transformExecutionInfoTimer = new Timer();
     transformExecutionInfoTimer.schedule(transformExecutionInfoTimerTask, delay, interval);
+
+    // Feed the rows of the asynchronous sampling buffers to the samplers on the same thread
+    //
+    if (samplerBuffers != null) {
+      transformExecutionInfoTimer.schedule(
+          new TimerTask() {
+            @Override
+            public void run() {
+              try {
+                drainSamplerBuffers();
+              } catch (Exception e) {
+                log.logError("Error sampling execution data (non-fatal)", e);
+              }
+            }
+          },
+          SAMPLER_BUFFER_DRAIN_INTERVAL,
+          SAMPLER_BUFFER_DRAIN_INTERVAL);
+    }
+  }
+
+  /**
+   * Pass the rows in the asynchronous sampling buffers to the samplers.
+   *
+   * @throws HopException In case a sampler fails
+   */
+  public void drainSamplerBuffers() throws HopException {
+    if (samplerBuffers == null) {
+      return;
+    }
+    synchronized (samplerBuffers) {
+      for (ExecutionDataSamplerBuffer samplerBuffer : samplerBuffers) {
+        samplerBuffer.drain();
+      }
+    }
   }
 
   /**
@@ -499,6 +561,17 @@ public class LocalPipelineEngine extends Pipeline implements IPipelineEngine<Pip
 
       String dataProfileName = resolve(pipelineRunConfiguration.getExecutionDataProfileName());
       if (StringUtils.isNotEmpty(dataProfileName)) {
+        // All transforms are finished: sample what is left in the buffers
+        //
+        drainSamplerBuffers();
+        if (samplerBuffers != null && log.isDetailed()) {
+          long skippedRows = 0;
+          for (ExecutionDataSamplerBuffer samplerBuffer : samplerBuffers) {
+            skippedRows += samplerBuffer.getSkippedRows();
+          }
+          log.logDetailed("Rows skipped by asynchronous execution data sampling: " + skippedRows);
+        }
+
         // Register the collected transform data for the last time
         //
         ExecutionDataBuilder dataBuilder =
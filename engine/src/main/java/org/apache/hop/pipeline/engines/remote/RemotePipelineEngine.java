@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Timer;
@@ -84,6 +85,8 @@ import org.apache.hop.resource.TopLevelResource;
 import org.apache.hop.server.HopServerMeta;
 import org.apache.hop.workflow.WorkflowMeta;
 import org.apache.hop.workflow.engine.IWorkflowEngine;
+import org.apache.hop.www.ExecutionStatusStreamServlet;
+import org.apache.hop.www.ExecutionStatusUpdate;
 import org.apache.hop.www.HopServerPipelineStatus;
 import org.apache.hop.www.PrepareExecutionPipelineServlet;
 import org.apache.hop.www.RegisterPackageServlet;
@@ -470,21 +473,21 @@ public class RemotePipelineEngine extends Variables implements IPipelineEngine<P
 
         // So the pipeline has been successfully started.
         // That doesn't mean that the execution itself is without error
-        // To know that we need to monitor the execution remotely
-        // We monitor this every 2 seconds after a 1 second delay (configurable)
+        // To know that we need to monitor the execution remotely.
+        // The server pushes the changes in the status unless polling is requested.
+        // Polling happens every 2 seconds after a 1 second delay (configurable)
         //
-        TimerTask refreshTask =
-            new TimerTask() {
-              @Override
-              public void run() {
-                getPipelineStatus();
-              }
-            };
-        refreshTimer = new Timer();
-        refreshTimer.schedule(refreshTask, serverPollDelay, serverPollInterval);
-
         readyToStart = false;
         running = true;
+
+        if (remotePipelineRunConfiguration.isPollingStatus()) {
+          startStatusTimer(serverPollDelay);
+        } else {
+          Thread streamThread =
+              new Thread(this::followStatusStream, "hop-status-stream-" + subject.getName());
+          streamThread.setDaemon(true);
+          streamThread.start();
+        }
       } else {
         String message = cleanupMessage(webResult.getMessage());
         throw new HopException(
@@ -500,70 +503,157 @@ public class RemotePipelineEngine extends Variables implements IPipelineEngine<P
     }
   }
 
+  /** Rebuild the engine metrics from the status of the transforms on the server */
+  private void updateEngineMetrics(
+      Date startDate, Date endDate, List<TransformStatus> transformStatusList) {
+    synchronized (engineMetrics) {
+      hasHaltedComponents = false;
+      engineMetrics.setStartDate(startDate);
+      engineMetrics.setEndDate(endDate);
+      engineMetrics.getComponents().clear();
+      engineMetrics.getComponentRunningMap().clear();
+      engineMetrics.getComponentSpeedMap().clear();
+      engineMetrics.getComponentMetricsMap().clear();
+
+      for (TransformStatus transformStatus : transformStatusList) {
+        EngineComponent component =
+            new EngineComponent(transformStatus.getTransformName(), transformStatus.getCopy());
+        status =
+            ComponentExecutionStatus.getStatusFromDescription(
+                transformStatus.getStatusDescription());
+        boolean running = status == ComponentExecutionStatus.STATUS_RUNNING;
+        boolean halted =
+            status == ComponentExecutionStatus.STATUS_HALTED
+                || status == ComponentExecutionStatus.STATUS_HALTING;
+        if (halted) {
+          hasHaltedComponents = true;
+        }
+
+        // Set the pipeline engine component state
+        component.setErrors(transformStatus.getErrors());
+        component.setStatus(status);
+        component.setRunning(running);
+        component.setStopped(status == ComponentExecutionStatus.STATUS_STOPPED);
+        component.setLogText(transformStatus.getLogText());
+
+        // Set the pipeline engine component metrics
+        engineMetrics.setComponentStatus(component, transformStatus.getStatusDescription());
+        engineMetrics.setComponentRunning(component, running);
+        engineMetrics.setComponentMetric(
+            component, Pipeline.METRIC_READ, transformStatus.getLinesRead());
+        engineMetrics.setComponentMetric(
+            component, Pipeline.METRIC_WRITTEN, transformStatus.getLinesWritten());
+        engineMetrics.setComponentMetric(
+            component, Pipeline.METRIC_INPUT, transformStatus.getLinesInput());
+        engineMetrics.setComponentMetric(
+            component, Pipeline.METRIC_OUTPUT, transformStatus.getLinesOutput());
+        engineMetrics.setComponentMetric(
+            component, Pipeline.METRIC_REJECTED, transformStatus.getLinesRejected());
+        engineMetrics.setComponentMetric(
+            component, Pipeline.METRIC_UPDATED, transformStatus.getLinesUpdated());
+        engineMetrics.setComponentMetric(
+            component, Pipeline.METRIC_ERROR, transformStatus.getErrors());
+        engineMetrics.setComponentMetric(
+            component, Pipeline.METRIC_DATA_VOLUME, transformStatus.getDataVolume());
+        engineMetrics.setComponentMetric(
+            component, Pipeline.METRIC_DATA_VOLUME_IN, transformStatus.getDataVolumeIn());
+        engineMetrics.setComponentMetric(
+            component, Pipeline.METRIC_DATA_VOLUME_OUT, transformStatus.getDataVolumeOut());
+        engineMetrics.setComponentMetric(
+            component, Pipeline.METRIC_BUFFER_IN, transformStatus.getInputBufferSize());
+        engineMetrics.setComponentMetric(
+            component, Pipeline.METRIC_BUFFER_OUT, transformStatus.getOutputBufferSize());
+        engineMetrics.setComponentSpeed(component, transformStatus.getSpeed());
+        engineMetrics.getComponents().add(component);
+      }
+    }
+  }
+
+  private void startStatusTimer(long delay) {
+    TimerTask refreshTask =
+        new TimerTask() {
+          @Override
+          public void run() {
+            getPipelineStatus();
+          }
+        };
+    refreshTimer = new Timer();
+    refreshTimer.schedule(refreshTask, delay, serverPollInterval);
+  }
+
+  /**
+   * Follow the changes in the status which are pushed by the server until the execution ends. The
+   * complete status is fetched once at the end. Servers which don't support the status stream are
+   * polled instead.
+   */
+  private void followStatusStream() {
+    Map<String, TransformStatus> transformStatusMap = new LinkedHashMap<>();
+    boolean streamed;
+    try {
+      streamed =
+          hopServer.streamExecutionStatus(
+              this,
+              ExecutionStatusStreamServlet.TYPE_PIPELINE,
+              subject.getName(),
+              containerId,
+              lastLogLineNr,
+              serverPollInterval,
+              update -> applyStatusUpdate(update, transformStatusMap));
+    } catch (Exception e) {
+      logChannel.logDetailed(
+          "Unable to follow the status stream of the pipeline on hop server '"
+              + hopServer.getName()
+              + "', polling the status instead: "
+              + e.getMessage());
+      streamed = false;
+    }
+
+    try {
+      if (streamed) {
+        getPipelineStatus();
+      }
+      if (!finished) {
+        startStatusTimer(streamed ? 0L : serverPollDelay);
+      }
+    } catch (Exception e) {
+      logChannel.logError("Error getting the status of the remote pipeline", e);
+    }
+  }
+
+  private synchronized void applyStatusUpdate(
+      ExecutionStatusUpdate update, Map<String, TransformStatus> transformStatusMap) {
+    for (ExecutionStatusUpdate.Component component : update.getComponents()) {
+      transformStatusMap.put(component.getKey(), component.toTransformStatus());
+    }
+    updateEngineMetrics(
+        toDate(update.getExecutionStartDate()),
+        toDate(update.getExecutionEndDate()),
+        new ArrayList<>(transformStatusMap.values()));
+
+    // The end of the execution is picked up with the complete status at the end of the stream
+    //
+    statusDescription = update.getStatusDescription();
+    paused = update.isPaused();
+    errors = (int) update.getErrors();
+    lastLogLineNr = update.getLastLoggingLineNr();
+    if (StringUtils.isNotEmpty(update.getLoggingString())) {
+      logChannel.logBasic(update.getLoggingString());
+    }
+  }
+
+  private static Date toDate(Long time) {
+    return time == null ? null : new Date(time);
+  }
+
   private synchronized void getPipelineStatus() throws RuntimeException {
     try {
       HopServerPipelineStatus pipelineStatus =
           hopServer.getPipelineStatus(this, subject.getName(), containerId, lastLogLineNr);
       synchronized (engineMetrics) {
-        hasHaltedComponents = false;
-        engineMetrics.setStartDate(pipelineStatus.getExecutionStartDate());
-        engineMetrics.setEndDate(pipelineStatus.getExecutionEndDate());
-        engineMetrics.getComponents().clear();
-        engineMetrics.getComponentRunningMap().clear();
-        engineMetrics.getComponentSpeedMap().clear();
-        engineMetrics.getComponentMetricsMap().clear();
-
-        for (TransformStatus transformStatus : pipelineStatus.getTransformStatusList()) {
-          EngineComponent component =
-              new EngineComponent(transformStatus.getTransformName(), transformStatus.getCopy());
-          status =
-              ComponentExecutionStatus.getStatusFromDescription(
-                  transformStatus.getStatusDescription());
-          boolean running = status == ComponentExecutionStatus.STATUS_RUNNING;
-          boolean halted =
-              status == ComponentExecutionStatus.STATUS_HALTED
-                  || status == ComponentExecutionStatus.STATUS_HALTING;
-          if (halted) {
-            hasHaltedComponents = true;
-          }
-
-          // Set the pipeline engine component state
-          component.setErrors(transformStatus.getErrors());
-          component.setStatus(status);
-          component.setRunning(running);
-          component.setStopped(status == ComponentExecutionStatus.STATUS_STOPPED);
-          component.setLogText(transformStatus.getLogText());
-
-          // Set the pipeline engine component metrics
-          engineMetrics.setComponentStatus(component, transformStatus.getStatusDescription());
-          engineMetrics.setComponentRunning(component, running);
-          engineMetrics.setComponentMetric(
-              component, Pipeline.METRIC_READ, transformStatus.getLinesRead());
-          engineMetrics.setComponentMetric(
-              component, Pipeline.METRIC_WRITTEN, transformStatus.getLinesWritten());
-          engineMetrics.setComponentMetric(
-              component, Pipeline.METRIC_INPUT, transformStatus.getLinesInput());
-          engineMetrics.setComponentMetric(
-              component, Pipeline.METRIC_OUTPUT, transformStatus.getLinesOutput());
-          engineMetrics.setComponentMetric(
-              component, Pipeline.METRIC_REJECTED, transformStatus.getLinesRejected());
-          engineMetrics.setComponentMetric(
-              component, Pipeline.METRIC_UPDATED, transformStatus.getLinesUpdated());
-          engineMetrics.setComponentMetric(
-              component, Pipeline.METRIC_ERROR, transformStatus.getErrors());
-          engineMetrics.setComponentMetric(
-              component, Pipeline.METRIC_DATA_VOLUME, transformStatus.getDataVolume());
-          engineMetrics.setComponentMetric(
-              component, Pipeline.METRIC_DATA_VOLUME_IN, transformStatus.getDataVolumeIn());
-          engineMetrics.setComponentMetric(
-              component, Pipeline.METRIC_DATA_VOLUME_OUT, transformStatus.getDataVolumeOut());
-          engineMetrics.setComponentMetric(
-              component, Pipeline.METRIC_BUFFER_IN, transformStatus.getInputBufferSize());
-          engineMetrics.setComponentMetric(
-              component, Pipeline.METRIC_BUFFER_OUT, transformStatus.getOutputBufferSize());
-          engineMetrics.setComponentSpeed(component, transformStatus.getSpeed());
-          engineMetrics.getComponents().add(component);
-        }
+        updateEngineMetrics(
+            pipelineStatus.getExecutionStartDate(),
+            pipelineStatus.getExecutionEndDate(),
+            pipelineStatus.getTransformStatusList());
 
         statusDescription = pipelineStatus.getStatusDescription();
         running = pipelineStatus.isRunning();
@@ -588,6 +678,7 @@ public class RemotePipelineEngine extends Variables implements IPipelineEngine<P
         if (finished) {
           firePipelineExecutionFinishedListeners();
           ExecutorUtil.cleanup(refreshTimer);
+          notifyAll();
           logChannel.logBasic(
               "Execution finished on a remote pipeline engine with run configuration '"
                   + pipelineRunConfiguration.getName()
@@ -648,12 +739,15 @@ public class RemotePipelineEngine extends Variables implements IPipelineEngine<P
   }
 
   @Override
-  public void waitUntilFinished() {
+  public synchronized void waitUntilFinished() {
+    // We're woken up as soon as the end of the execution is picked up
+    //
     while ((running || paused || readyToStart) && !(stopped || finished)) {
       try {
-        Thread.sleep(1000);
-      } catch (Exception e) {
-        // ignore
+        wait(1000);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
       }
     }
   }
@@ -0,0 +1,235 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transform;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.exception.HopException;
+
+/**
+ * Runs a blocking call, like a web service request, for each row of a transform on virtual threads
+ * so that many calls can be waiting at the same time within a single transform copy.
+ *
+ * <p>Rows are submitted and results handled on the thread of the transform: {@link
+ * #submit(Object[], IRowCall)} waits while the maximum number of calls are in flight and hands
+ * every finished call to the {@link IRowCallResultHandler}, so the handler can call putRow() or
+ * putError(). The results are handled in the order of the input rows or in the order in which the
+ * calls finish. Optionally the number of calls started per second is limited.
+ *
+ * <p>Call {@link #finish()} once all rows are submitted and {@link #close()} when the transform is
+ * disposed.
+ */
+public class ConcurrentRowCalls implements AutoCloseable {
+
+  /** The call to make for a row. It runs on its own thread. */
+  @FunctionalInterface
+  public interface IRowCall {
+    /**
+     * @param row The input row
+     * @return The output row
+     * @throws HopException In case the call fails
+     */
+    Object[] call(Object[] row) throws HopException;
+  }
+
+  /** Handles the result of a call on the thread of the transform. */
+  @FunctionalInterface
+  public interface IRowCallResultHandler {
+    /**
+     * @param row The input row
+     * @param outputRow The output row or null if the call failed
+     * @param error The error of the call or null if it succeeded
+     * @throws HopException In case the result can't be handled, no more results are handled
+     */
+    void handle(Object[] row, Object[] outputRow, HopException error) throws HopException;
+  }
+
+  private static final class PendingCall {
+    private final Object[] row;
+    private final CompletableFuture<Object[]> result = new CompletableFuture<>();
+
+    private PendingCall(Object[] row) {
+      this.row = row;
+    }
+  }
+
+  private final int maxInFlight;
+  private final boolean keepInputOrder;
+  private final long nanosBetweenCalls;
+  private final IRowCallResultHandler resultHandler;
+  private final ExecutorService executor;
+
+  /** The calls in input order, only used to keep the input order */
+  private final Deque<PendingCall> pendingCalls = new ArrayDeque<>();
+
+  /** The finished calls in completion order, only used when the input order isn't kept */
+  private final BlockingQueue<PendingCall> finishedCalls = new LinkedBlockingQueue<>();
+
+  private int inFlight;
+  private long nextCallNanos;
+
+  /**
+   * @param threadName The name of the threads making the calls
+   * @param maxInFlight The maximum number of calls in flight, at least 1
+   * @param keepInputOrder true to handle the results in the order of the input rows, false to
+   *     handle them as soon as the calls finish
+   * @param maxCallsPerSecond The maximum number of calls started per second or 0 for no limit
+   * @param resultHandler Handles the results of the calls
+   */
+  public ConcurrentRowCalls(
+      String threadName,
+      int maxInFlight,
+      boolean keepInputOrder,
+      double maxCallsPerSecond,
+      IRowCallResultHandler resultHandler) {
+    this.maxInFlight = Math.max(1, maxInFlight);
+    this.keepInputOrder = keepInputOrder;
+    this.nanosBetweenCalls =
+        maxCallsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / maxCallsPerSecond) : 0;
+    this.resultHandler = resultHandler;
+    this.executor =
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(threadName + "-", 0).factory());
+  }
+
+  /**
+   * Submit the call for a row. Waits while the maximum number of calls are in flight or the rate
+   * limit is reached, and handles the results of the calls which finished in the meantime.
+   *
+   * @param row The input row
+   * @param call The call to make for the row
+   * @throws HopException In case a result can't be handled
+   */
+  public void submit(Object[] row, IRowCall call) throws HopException {
+    handleFinishedCalls();
+    while (inFlight >= maxInFlight) {
+      handleNextCall();
+    }
+    waitForRateLimit();
+
+    PendingCall pendingCall = new PendingCall(row);
+    if (keepInputOrder) {
+      pendingCalls.addLast(pendingCall);
+    }
+    inFlight++;
+    executor.execute(
+        () -> {
+          try {
+            pendingCall.result.complete(call.call(row));
+          } catch (HopException e) {
+            pendingCall.result.completeExceptionally(e);
+          } catch (Exception e) {
+            pendingCall.result.completeExceptionally(new HopException(e));
+          } finally {
+            // Never leave the transform waiting, whatever went wrong
+            //
+            pendingCall.result.completeExceptionally(
+                new HopException("The call for a row didn't finish"));
+            if (!keepInputOrder) {
+              finishedCalls.add(pendingCall);
+            }
+          }
+        });
+  }
+
+  /**
+   * Wait for all calls in flight and handle their results.
+   *
+   * @throws HopException In case a result can't be handled
+   */
+  public void finish() throws HopException {
+    while (inFlight > 0) {
+      handleNextCall();
+    }
+  }
+
+  /**
+   * @return The number of calls which are submitted and not handled yet
+   */
+  public int getInFlight() {
+    return inFlight;
+  }
+
+  /** Stop the threads of the calls which are still running. */
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+
+  /** Handle the calls which are finished without waiting. */
+  private void handleFinishedCalls() throws HopException {
+    if (keepInputOrder) {
+      while (!pendingCalls.isEmpty() && pendingCalls.peekFirst().result.isDone()) {
+        handle(pendingCalls.removeFirst());
+      }
+    } else {
+      PendingCall pendingCall;
+      while ((pendingCall = finishedCalls.poll()) != null) {
+        handle(pendingCall);
+      }
+    }
+  }
+
+  /** Wait for the next call in the output order and handle it. */
+  private void handleNextCall() throws HopException {
+    try {
+      handle(keepInputOrder ? pendingCalls.removeFirst() : finishedCalls.take());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HopException("Interrupted while waiting for a call to finish", e);
+    }
+  }
+
+  private void handle(PendingCall pendingCall) throws HopException {
+    inFlight--;
+    Object[] outputRow;
+    try {
+      outputRow = pendingCall.result.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HopException("Interrupted while waiting for a call to finish", e);
+    } catch (ExecutionException e) {
+      resultHandler.handle(pendingCall.row, null, (HopException) e.getCause());
+      return;
+    }
+    resultHandler.handle(pendingCall.row, outputRow, null);
+  }
+
+  private void waitForRateLimit() throws HopException {
+    if (nanosBetweenCalls <= 0) {
+      return;
+    }
+    long now = System.nanoTime();
+    if (nextCallNanos - now > 0) {
+      try {
+        TimeUnit.NANOSECONDS.sleep(nextCallNanos - now);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new HopException("Interrupted while waiting for the rate limit", e);
+      }
+      now = nextCallNanos;
+    }
+    nextCallNanos = now + nanosBetweenCalls;
+  }
+}
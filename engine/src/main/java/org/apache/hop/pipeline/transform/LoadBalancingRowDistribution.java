@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transform;
+
+import java.util.List;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.exception.HopTransformException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.svg.SvgFile;
+import org.apache.hop.laf.BasePropertyHandler;
+
+/**
+ * Sends every row to the output row set with the fewest rows waiting, which is the one with the
+ * most free space as all row sets have the same size. Copies of the next transform which process
+ * rows faster get more rows than with the round-robin distribution, so one slow copy doesn't hold
+ * back the others. Row sets which are equally full are used in turn.
+ */
+@RowDistributionPlugin(
+    code = "LoadBalance",
+    name = "Load balance",
+    description = "Send each row to the least busy target transform copy")
+public class LoadBalancingRowDistribution implements IRowDistribution {
+
+  @Override
+  public String getCode() {
+    return "LoadBalance";
+  }
+
+  @Override
+  public String getDescription() {
+    return "Load balance";
+  }
+
+  @Override
+  public void distributeRow(IRowMeta rowMeta, Object[] row, ITransform transform)
+      throws HopTransformException {
+    List<IRowSet> rowSets = transform.getOutputRowSets();
+    int nrRowSets = rowSets.size();
+    if (nrRowSets == 0) {
+      return;
+    }
+
+    // Start looking after the last row set we used so equally full row sets are used in turn
+    //
+    int start = transform.getCurrentOutputRowSetNr();
+    if (start >= nrRowSets) {
+      start = 0;
+    }
+    int selected = start;
+    int selectedSize = Integer.MAX_VALUE;
+    for (int i = 0; i < nrRowSets; i++) {
+      int index = (start + i) % nrRowSets;
+      int size = rowSets.get(index).size();
+      if (size < selectedSize) {
+        selected = index;
+        selectedSize = size;
+        if (size == 0) {
+          break;
+        }
+      }
+    }
+    transform.setCurrentOutputRowSetNr((selected + 1) % nrRowSets);
+
+    IRowSet rowSet = rowSets.get(selected);
+    IRowMeta toBeSent = rowSet.getRowMeta() == null ? rowMeta.clone() : rowSet.getRowMeta();
+    while (!rowSet.putRow(toBeSent, row)) {
+      if (transform.isStopped()) {
+        return;
+      }
+    }
+  }
+
+  @Override
+  public SvgFile getDistributionImage() {
+    return new SvgFile(
+        BasePropertyHandler.getProperty("LoadBalance_image"), this.getClass().getClassLoader());
+  }
+}
@@ -19,6 +19,7 @@ package org.apache.hop.server;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
@@ -30,6 +31,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.net.ssl.SSLContext;
@@ -40,6 +42,7 @@ import org.apache.hop.core.Const;
 import org.apache.hop.core.Result;
 import org.apache.hop.core.encryption.Encr;
 import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.json.HopJson;
 import org.apache.hop.core.logging.ILogChannel;
 import org.apache.hop.core.logging.LogChannel;
 import org.apache.hop.core.util.Utils;
@@ -54,6 +57,8 @@ import org.apache.hop.metadata.api.HopMetadataProperty;
 import org.apache.hop.metadata.api.HopMetadataPropertyType;
 import org.apache.hop.metadata.api.IHopMetadata;
 import org.apache.hop.metadata.api.IHopMetadataProvider;
+import org.apache.hop.www.ExecutionStatusStreamServlet;
+import org.apache.hop.www.ExecutionStatusUpdate;
 import org.apache.hop.www.GetPipelineStatusServlet;
 import org.apache.hop.www.GetStatusServlet;
 import org.apache.hop.www.GetWorkflowStatusServlet;
@@ -817,6 +822,81 @@ public class HopServerMeta extends HopMetadataBase implements Cloneable, IXml, I
     return HopServerWorkflowStatus.fromXml(xml);
   }
 
+  /**
+   * Follow the status of a pipeline or workflow on the server. The server pushes an update to the
+   * listener whenever transform or action counters change or when new log lines are written. This
+   * method returns when the execution has ended or when the server closes the stream.
+   *
+   * @param variables The variables to resolve the server settings with
+   * @param type {@link ExecutionStatusStreamServlet#TYPE_PIPELINE} or {@link
+   *     ExecutionStatusStreamServlet#TYPE_WORKFLOW}
+   * @param name The name of the pipeline or workflow
+   * @param serverObjectId The ID of the pipeline or workflow on the server
+   * @param startLogLineNr The first log line to send
+   * @param interval The minimum number of milliseconds between updates
+   * @param listener Receives the updates
+   * @return false if the server doesn't support the status stream or doesn't know the execution.
+   *     The caller can fall back to polling the status in that case.
+   * @throws Exception In case of a communication error
+   */
+  public boolean streamExecutionStatus(
+      IVariables variables,
+      String type,
+      String name,
+      String serverObjectId,
+      int startLogLineNr,
+      long interval,
+      Consumer<ExecutionStatusUpdate> listener)
+      throws Exception {
+    String service =
+        ExecutionStatusStreamServlet.CONTEXT_PATH
+            + CONST_NAME
+            + URLEncoder.encode(name, UTF_8)
+            + CONST_ID
+            + Const.NVL(serverObjectId, "")
+            + "&"
+            + ExecutionStatusStreamServlet.PARAMETER_TYPE
+            + "="
+            + type
+            + "&"
+            + ExecutionStatusStreamServlet.PARAMETER_INTERVAL
+            + "="
+            + interval
+            + "&from="
+            + startLogLineNr;
+    HttpGet method = buildExecuteServiceMethod(variables, service, new HashMap<>());
+    try {
+      HttpResponse httpResponse = getHttpClient().execute(method, getAuthContext(variables));
+      StatusLine statusLine = httpResponse.getStatusLine();
+      int statusCode = statusLine.getStatusCode();
+      if (statusCode == HttpStatus.SC_NOT_FOUND) {
+        return false;
+      }
+      if (statusCode >= 400) {
+        throw new HopException(
+            String.format(
+                "HTTP Status %d - %s - %s",
+                statusCode, method.getURI().toString(), statusLine.getReasonPhrase()));
+      }
+
+      ObjectMapper mapper = HopJson.newMapper();
+      try (BufferedReader reader =
+          new BufferedReader(new InputStreamReader(httpResponse.getEntity().getContent(), UTF_8))) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          // Empty lines only keep the connection alive
+          //
+          if (StringUtils.isNotBlank(line)) {
+            listener.accept(mapper.readValue(line, ExecutionStatusUpdate.class));
+          }
+        }
+      }
+      return true;
+    } finally {
+      method.releaseConnection();
+    }
+  }
+
   public WebResult stopPipeline(IVariables variables, String pipelineName, String serverObjectId)
       throws Exception {
     String xml =
@@ -166,6 +166,12 @@ public abstract class Workflow extends Variables
 
   protected int maxActionsLogged;
 
+  /** Execute the actions as a graph on a bounded number of threads */
+  protected boolean actionGraphScheduling;
+
+  /** The maximum number of actions running in parallel when the actions are executed as a graph */
+  protected int maxParallelActions;
+
   protected ActionMeta startActionMeta;
   protected Result startActionResult;
 
@@ -271,13 +277,13 @@ public abstract class Workflow extends Variables
     return workflowMeta.getName();
   }
 
-  private Result newResult() {
+  protected Result newResult() {
     Result r = new Result();
     r.setContainerId(containerObjectId);
     return r;
   }
 
-  private Result newErrorResult() {
+  protected Result newErrorResult() {
     Result r = newResult();
     r.setResult(false);
     r.setNrErrors(1L);
@@ -449,8 +455,8 @@ public abstract class Workflow extends Variables
         while ((jes.isRepeat() || isFirst) && !isStopped()) {
           isFirst = false;
           res =
-              executeFromStart(
-                  0, inputRes, startpoint, null, BaseMessages.getString(PKG, CONST_REASON_STARTED));
+              executeActions(
+                  inputRes, startpoint, BaseMessages.getString(PKG, CONST_REASON_STARTED));
         }
         jerEnd =
             new ActionResult(
@@ -461,9 +467,7 @@ public abstract class Workflow extends Variables
                 null,
                 null);
       } else {
-        res =
-            executeFromStart(
-                0, res, startpoint, null, BaseMessages.getString(PKG, CONST_REASON_STARTED));
+        res = executeActions(res, startpoint, BaseMessages.getString(PKG, CONST_REASON_STARTED));
         jerEnd =
             new ActionResult(
                 res,
@@ -652,6 +656,27 @@ public abstract class Workflow extends Variables
     }
   }
 
+  /**
+   * Execute the actions starting from the given action, recursively or as a graph of actions.
+   *
+   * @param previousResult the result to pass to the first action
+   * @param startpoint the action to start from
+   * @param reason the reason to log for the execution of the first action
+   * @return the result of the execution
+   * @throws HopException in case of an unexpected error
+   */
+  private Result executeActions(Result previousResult, ActionMeta startpoint, String reason)
+      throws HopException {
+    if (actionGraphScheduling) {
+      WorkflowActionScheduler scheduler = new WorkflowActionScheduler(this, maxParallelActions);
+      if (scheduler.plan(startpoint)) {
+        return scheduler.execute(previousResult, reason);
+      }
+      log.logBasic(BaseMessages.getString(PKG, "Workflow.Log.ActionGraphHasLoop"));
+    }
+    return executeFromStart(0, previousResult, startpoint, null, reason);
+  }
+
   /**
    * Execute a action recursively and move to the next action automatically.<br>
    * Uses a back-tracking algorithm.<br>
@@ -680,153 +705,7 @@ public abstract class Workflow extends Variables
       return res;
     }
 
-    // Start this action!
-    if (log.isBasic()) {
-      log.logBasic(
-          BaseMessages.getString(PKG, "Workflow.Log.StartingAction", actionMeta.getName()));
-    }
-
-    // if we didn't have a previous result, create one, otherwise, copy the content...
-    //
-    final Result newResult;
-    Result prevResult = null;
-    if (previousResult != null) {
-      prevResult = previousResult.clone();
-    } else {
-      prevResult = newResult();
-    }
-
-    WorkflowExecutionExtension extension =
-        new WorkflowExecutionExtension(this, prevResult, actionMeta, true);
-    ExtensionPointHandler.callExtensionPoint(
-        log, this, HopExtensionPoint.WorkflowBeforeActionExecution.id, extension);
-
-    if (extension.result != null) {
-      prevResult = extension.result;
-    }
-
-    if (!extension.executeAction) {
-      newResult = prevResult;
-    } else {
-      if (log.isDetailed()) {
-        log.logDetailed(
-            "exec("
-                + nr
-                + ", "
-                + (prevResult != null ? prevResult.getNrErrors() : 0)
-                + ", "
-                + (actionMeta != null ? actionMeta.toString() : "null")
-                + ")");
-      }
-
-      // Which action is next?
-      IAction action = actionMeta.getAction();
-      action.getLogChannel().setLogLevel(logLevel);
-
-      // Track the fact that we are going to launch the next action...
-      ActionResult jerBefore =
-          new ActionResult(
-              null,
-              null,
-              BaseMessages.getString(PKG, CONST_ACTION_STARTED),
-              reason,
-              actionMeta.getName(),
-              resolve(actionMeta.getAction().getFilename()));
-      workflowTracker.addWorkflowTracker(new WorkflowTracker(workflowMeta, jerBefore));
-
-      ClassLoader cl = Thread.currentThread().getContextClassLoader();
-      Thread.currentThread().setContextClassLoader(action.getClass().getClassLoader());
-
-      // Execute this action
-      IAction cloneAction = (IAction) action.clone();
-      cloneAction.copyFrom(this);
-      cloneAction.getLogChannel().setLogLevel(getLogLevel());
-      cloneAction.setMetadataProvider(metadataProvider);
-      cloneAction.setParentWorkflow(this);
-      cloneAction.setParentWorkflowMeta(this.getWorkflowMeta());
-      final long start = System.currentTimeMillis();
-
-      cloneAction.getLogChannel().logDetailed("Starting action");
-      for (IActionListener actionListener : actionListeners) {
-        actionListener.beforeExecution(this, actionMeta, cloneAction);
-      }
-
-      activeActions.add(actionMeta.clone());
-
-      log.snap(Metrics.METRIC_ACTION_START, cloneAction.toString());
-      newResult = cloneAction.execute(prevResult, nr);
-      log.snap(Metrics.METRIC_ACTION_STOP, cloneAction.toString());
-
-      // Action execution duration
-      newResult.setElapsedTimeMillis(System.currentTimeMillis() - start);
-      newResult.setEntryNr(nr);
-
-      activeActions.remove(actionMeta);
-
-      for (IActionListener actionListener : actionListeners) {
-        actionListener.afterExecution(this, actionMeta, cloneAction, newResult);
-      }
-
-      // Log action as finished as soon as its body has completed (action can no longer fail after
-      // this point)
-      if (log.isBasic()) {
-        log.logBasic(
-            BaseMessages.getString(
-                PKG,
-                "Workflow.Log.FinishedAction",
-                actionMeta.getName(),
-                newResult.isResult() + ""));
-      }
-
-      Thread.currentThread().setContextClassLoader(cl);
-      addErrors((int) newResult.getNrErrors());
-
-      // Also capture the logging text after the execution...
-      //
-      LoggingBuffer loggingBuffer = HopLogStore.getAppender();
-      StringBuffer logTextBuffer =
-          loggingBuffer.getBuffer(cloneAction.getLogChannel().getLogChannelId(), false);
-      newResult.setLogText(logTextBuffer.toString() + newResult.getLogText());
-
-      // Save this result as well...
-      //
-      long actionBytesRead = 0;
-      long actionBytesWritten = 0;
-      if (Const.toBoolean(getVariable(Const.HOP_METRIC_DATA_VOLUME, "N"))) {
-        actionBytesRead = newResult.getBytesReadThisAction();
-        actionBytesWritten = newResult.getBytesWrittenThisAction();
-        newResult.setBytesReadThisAction(0);
-        newResult.setBytesWrittenThisAction(0);
-      }
-      ActionResult jerAfter =
-          new ActionResult(
-              newResult,
-              cloneAction.getLogChannel().getLogChannelId(),
-              BaseMessages.getString(PKG, CONST_ACTION_FINISHED),
-              null,
-              actionMeta.getName(),
-              resolve(actionMeta.getAction().getFilename()),
-              actionBytesRead,
-              actionBytesWritten);
-      workflowTracker.addWorkflowTracker(new WorkflowTracker(workflowMeta, jerAfter));
-      synchronized (actionResults) {
-        actionResults.add(jerAfter);
-
-        // Only keep the last X action results in memory
-        //
-        if (maxActionsLogged > 0) {
-          while (actionResults.size() > maxActionsLogged) {
-            // Remove the oldest.
-            actionResults.removeFirst();
-          }
-        }
-      }
-    }
-
-    extension =
-        new WorkflowExecutionExtension(this, prevResult, actionMeta, extension.executeAction);
-    ExtensionPointHandler.callExtensionPoint(
-        log, this, HopExtensionPoint.WorkflowAfterActionExecution.id, extension);
+    final Result newResult = executeAction(nr, previousResult, actionMeta, reason);
 
     // Try all next actions.
     //
@@ -1000,6 +879,170 @@ public abstract class Workflow extends Variables
     return res;
   }
 
+  /**
+   * Execute a single action: the extension points, the action listeners, the tracking and the
+   * logging around the execution of the action itself. The next actions are not executed.
+   *
+   * @param nr the action number
+   * @param previousResult the result of the previous action or null
+   * @param actionMeta the action to execute
+   * @param reason the reason to log for the execution of this action
+   * @return the result of the action
+   * @throws HopException in case of an unexpected error
+   */
+  protected Result executeAction(
+      int nr, Result previousResult, ActionMeta actionMeta, String reason) throws HopException {
+    // Start this action!
+    if (log.isBasic()) {
+      log.logBasic(
+          BaseMessages.getString(PKG, "Workflow.Log.StartingAction", actionMeta.getName()));
+    }
+
+    // if we didn't have a previous result, create one, otherwise, copy the content...
+    //
+    Result newResult;
+    Result prevResult = null;
+    if (previousResult != null) {
+      prevResult = previousResult.clone();
+    } else {
+      prevResult = newResult();
+    }
+
+    WorkflowExecutionExtension extension =
+        new WorkflowExecutionExtension(this, prevResult, actionMeta, true);
+    ExtensionPointHandler.callExtensionPoint(
+        log, this, HopExtensionPoint.WorkflowBeforeActionExecution.id, extension);
+
+    if (extension.result != null) {
+      prevResult = extension.result;
+    }
+
+    if (!extension.executeAction) {
+      newResult = prevResult;
+    } else {
+      if (log.isDetailed()) {
+        log.logDetailed(
+            "exec("
+                + nr
+                + ", "
+                + (prevResult != null ? prevResult.getNrErrors() : 0)
+                + ", "
+                + (actionMeta != null ? actionMeta.toString() : "null")
+                + ")");
+      }
+
+      // Which action is next?
+      IAction action = actionMeta.getAction();
+      action.getLogChannel().setLogLevel(logLevel);
+
+      // Track the fact that we are going to launch the next action...
+      ActionResult jerBefore =
+          new ActionResult(
+              null,
+              null,
+              BaseMessages.getString(PKG, CONST_ACTION_STARTED),
+              reason,
+              actionMeta.getName(),
+              resolve(actionMeta.getAction().getFilename()));
+      workflowTracker.addWorkflowTracker(new WorkflowTracker(workflowMeta, jerBefore));
+
+      ClassLoader cl = Thread.currentThread().getContextClassLoader();
+      Thread.currentThread().setContextClassLoader(action.getClass().getClassLoader());
+
+      // Execute this action
+      IAction cloneAction = (IAction) action.clone();
+      cloneAction.copyFrom(this);
+      cloneAction.getLogChannel().setLogLevel(getLogLevel());
+      cloneAction.setMetadataProvider(metadataProvider);
+      cloneAction.setParentWorkflow(this);
+      cloneAction.setParentWorkflowMeta(this.getWorkflowMeta());
+      final long start = System.currentTimeMillis();
+
+      cloneAction.getLogChannel().logDetailed("Starting action");
+      for (IActionListener actionListener : actionListeners) {
+        actionListener.beforeExecution(this, actionMeta, cloneAction);
+      }
+
+      activeActions.add(actionMeta.clone());
+
+      log.snap(Metrics.METRIC_ACTION_START, cloneAction.toString());
+      newResult = cloneAction.execute(prevResult, nr);
+      log.snap(Metrics.METRIC_ACTION_STOP, cloneAction.toString());
+
+      // Action execution duration
+      newResult.setElapsedTimeMillis(System.currentTimeMillis() - start);
+      newResult.setEntryNr(nr);
+
+      activeActions.remove(actionMeta);
+
+      for (IActionListener actionListener : actionListeners) {
+        actionListener.afterExecution(this, actionMeta, cloneAction, newResult);
+      }
+
+      // Log action as finished as soon as its body has completed (action can no longer fail after
+      // this point)
+      if (log.isBasic()) {
+        log.logBasic(
+            BaseMessages.getString(
+                PKG,
+                "Workflow.Log.FinishedAction",
+                actionMeta.getName(),
+                newResult.isResult() + ""));
+      }
+
+      Thread.currentThread().setContextClassLoader(cl);
+      addErrors((int) newResult.getNrErrors());
+
+      // Also capture the logging text after the execution...
+      //
+      LoggingBuffer loggingBuffer = HopLogStore.getAppender();
+      StringBuffer logTextBuffer =
+          loggingBuffer.getBuffer(cloneAction.getLogChannel().getLogChannelId(), false);
+      newResult.setLogText(logTextBuffer.toString() + newResult.getLogText());
+
+      // Save this result as well...
+      //
+      long actionBytesRead = 0;
+      long actionBytesWritten = 0;
+      if (Const.toBoolean(getVariable(Const.HOP_METRIC_DATA_VOLUME, "N"))) {
+        actionBytesRead = newResult.getBytesReadThisAction();
+        actionBytesWritten = newResult.getBytesWrittenThisAction();
+        newResult.setBytesReadThisAction(0);
+        newResult.setBytesWrittenThisAction(0);
+      }
+      ActionResult jerAfter =
+          new ActionResult(
+              newResult,
+              cloneAction.getLogChannel().getLogChannelId(),
+              BaseMessages.getString(PKG, CONST_ACTION_FINISHED),
+              null,
+              actionMeta.getName(),
+              resolve(actionMeta.getAction().getFilename()),
+              actionBytesRead,
+              actionBytesWritten);
+      workflowTracker.addWorkflowTracker(new WorkflowTracker(workflowMeta, jerAfter));
+      synchronized (actionResults) {
+        actionResults.add(jerAfter);
+
+        // Only keep the last X action results in memory
+        //
+        if (maxActionsLogged > 0) {
+          while (actionResults.size() > maxActionsLogged) {
+            // Remove the oldest.
+            actionResults.removeFirst();
+          }
+        }
+      }
+    }
+
+    extension =
+        new WorkflowExecutionExtension(this, prevResult, actionMeta, extension.executeAction);
+    ExtensionPointHandler.callExtensionPoint(
+        log, this, HopExtensionPoint.WorkflowAfterActionExecution.id, extension);
+
+    return newResult;
+  }
+
   /**
    * Get the number of errors that happened in the workflow.
    *
@@ -1625,6 +1668,38 @@ public abstract class Workflow extends Variables
     this.executingServer = executingServer;
   }
 
+  /**
+   * Gets actionGraphScheduling
+   *
+   * @return value of actionGraphScheduling
+   */
+  public boolean isActionGraphScheduling() {
+    return actionGraphScheduling;
+  }
+
+  /**
+   * @param actionGraphScheduling The actionGraphScheduling to set
+   */
+  public void setActionGraphScheduling(boolean actionGraphScheduling) {
+    this.actionGraphScheduling = actionGraphScheduling;
+  }
+
+  /**
+   * Gets maxParallelActions
+   *
+   * @return value of maxParallelActions
+   */
+  public int getMaxParallelActions() {
+    return maxParallelActions;
+  }
+
+  /**
+   * @param maxParallelActions The maxParallelActions to set
+   */
+  public void setMaxParallelActions(int maxParallelActions) {
+    this.maxParallelActions = maxParallelActions;
+  }
+
   /**
    * Gets the executing user.
    *
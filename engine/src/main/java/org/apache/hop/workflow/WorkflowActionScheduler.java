@@ -0,0 +1,546 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.workflow;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.Result;
+import org.apache.hop.core.SpillableRowList;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.util.EnvUtil;
+import org.apache.hop.i18n.BaseMessages;
+import org.apache.hop.workflow.action.ActionMeta;
+
+/**
+ * Executes the actions of a workflow as a directed acyclic graph on a bounded number of threads.
+ *
+ * <p>The graph of the actions which can be reached from the start action is built up front. An
+ * action is executed as soon as all the actions leading to it are finished or skipped, and at least
+ * one of the hops leading to it was followed. The same rules as in the recursive execution decide
+ * which hops are followed: unconditional hops always, success and failure hops depending on the
+ * result of the action. An action is skipped when none of the hops leading to it are followed.
+ *
+ * <p>As in the recursive execution, an action which can be reached through several hops is executed
+ * once for every path leading to it, unless it is a join action. A join action is executed once
+ * with the merged results of the previous actions, in the order of the actions in the workflow. The
+ * result of the workflow is the merge of the results of the last actions in every branch, in the
+ * same order.
+ *
+ * <p>When an action starts several branches, the branches don't get its result rows, like in the
+ * parallel recursive execution. These rows are part of the result of the workflow. The counters of
+ * the actions which branches have in common are only counted once when the branches are merged.
+ *
+ * <p>Next to the maximum number of parallel actions per workflow, the system property {@link
+ * Const#HOP_WORKFLOW_MAX_PARALLEL_ACTIONS} limits the number of actions running in parallel in all
+ * the workflows of the JVM. To avoid a deadlock between parent and child workflows, every workflow
+ * can always run one action outside of that limit.
+ */
+public class WorkflowActionScheduler {
+  private static final Class<?> PKG = Workflow.class;
+
+  /** How long to wait before trying to get a permit for another action again */
+  private static final long PERMIT_WAIT_MS = 100L;
+
+  private static Semaphore serverPermits;
+  private static int serverPermitsSize;
+
+  private final Workflow workflow;
+  private final WorkflowMeta workflowMeta;
+  private final ILogChannel log;
+  private final int maxParallelActions;
+
+  /** The reachable actions in the order of the workflow */
+  private final List<Node> nodes;
+
+  private Node startNode;
+
+  private static final class Node {
+    private final ActionMeta actionMeta;
+    private final int order;
+    private final int sequence;
+    private final List<WorkflowHopMeta> hops = new ArrayList<>();
+    private final List<Node> targets = new ArrayList<>();
+    private int index;
+    private int nrPrevious;
+
+    // The execution state
+    //
+    private int remaining;
+    private int depth;
+
+    /** The results passed by the previous actions, by the index of the previous action */
+    private final SortedMap<Integer, Result> inputs = new TreeMap<>();
+
+    /** The indexes of this action and the executed actions leading to it */
+    private final BitSet lineage = new BitSet();
+
+    private Result input;
+    private String reason;
+    private Result result;
+
+    /** The counters this action added to its input */
+    private Result delta;
+
+    private boolean forked;
+    private HopException exception;
+
+    private Node(ActionMeta actionMeta, int order, int sequence) {
+      this.actionMeta = actionMeta;
+      this.order = order;
+      this.sequence = sequence;
+    }
+  }
+
+  private static final Comparator<Node> NODE_ORDER =
+      Comparator.<Node>comparingInt(node -> node.order).thenComparingInt(node -> node.sequence);
+
+  /**
+   * @param workflow The workflow to execute the actions of
+   * @param maxParallelActions The maximum number of actions to run in parallel in this workflow
+   */
+  public WorkflowActionScheduler(Workflow workflow, int maxParallelActions) {
+    this.workflow = workflow;
+    this.workflowMeta = workflow.getWorkflowMeta();
+    this.log = workflow.getLogChannel();
+    this.maxParallelActions = Math.max(1, maxParallelActions);
+    this.nodes = new ArrayList<>();
+  }
+
+  /**
+   * Build the graph of the actions which can be reached from the given start action. An action
+   * which isn't a join action gets a node for every hop leading to it, as it is executed for every
+   * path leading to it.
+   *
+   * @param start The action to start from
+   * @return false if the actions contain a loop and can't be executed as a graph
+   */
+  public boolean plan(ActionMeta start) {
+    nodes.clear();
+    if (hasLoop(start)) {
+      return false;
+    }
+
+    Map<ActionMeta, Node> joinNodes = new HashMap<>();
+    startNode = new Node(start, workflowMeta.indexOfAction(start), 0);
+    if (start.isJoin()) {
+      joinNodes.put(start, startNode);
+    }
+
+    Deque<Node> queue = new ArrayDeque<>();
+    queue.add(startNode);
+    while (!queue.isEmpty()) {
+      Node node = queue.poll();
+      nodes.add(node);
+      for (WorkflowHopMeta hop : workflowMeta.getWorkflowHops()) {
+        if (!hop.isEnabled() || !node.actionMeta.equals(hop.getFromAction())) {
+          continue;
+        }
+        ActionMeta next = hop.getToAction();
+        Node target = next.isJoin() ? joinNodes.get(next) : null;
+        if (target == null) {
+          target = new Node(next, workflowMeta.indexOfAction(next), nodes.size() + queue.size());
+          if (next.isJoin()) {
+            joinNodes.put(next, target);
+          }
+          queue.add(target);
+        }
+        node.hops.add(hop);
+        node.targets.add(target);
+        target.nrPrevious++;
+      }
+    }
+    nodes.sort(NODE_ORDER);
+    for (int i = 0; i < nodes.size(); i++) {
+      nodes.get(i).index = i;
+    }
+    return true;
+  }
+
+  /** Every action needs to be reachable in topological order, otherwise there is a loop */
+  private boolean hasLoop(ActionMeta start) {
+    Map<ActionMeta, Integer> remaining = new HashMap<>();
+    Map<ActionMeta, List<ActionMeta>> next = new HashMap<>();
+    Deque<ActionMeta> queue = new ArrayDeque<>();
+    remaining.put(start, 0);
+    queue.add(start);
+    while (!queue.isEmpty()) {
+      ActionMeta actionMeta = queue.poll();
+      List<ActionMeta> targets = new ArrayList<>();
+      for (WorkflowHopMeta hop : workflowMeta.getWorkflowHops()) {
+        if (hop.isEnabled() && actionMeta.equals(hop.getFromAction())) {
+          ActionMeta target = hop.getToAction();
+          targets.add(target);
+          if (remaining.merge(target, 1, Integer::sum) == 1 && !target.equals(start)) {
+            queue.add(target);
+          }
+        }
+      }
+      next.put(actionMeta, targets);
+    }
+
+    Deque<ActionMeta> sorted = new ArrayDeque<>();
+    if (remaining.get(start) == 0) {
+      sorted.add(start);
+    }
+    int count = 0;
+    while (!sorted.isEmpty()) {
+      ActionMeta actionMeta = sorted.poll();
+      count++;
+      for (ActionMeta target : next.get(actionMeta)) {
+        if (remaining.merge(target, -1, Integer::sum) == 0) {
+          sorted.add(target);
+        }
+      }
+    }
+    return count != remaining.size();
+  }
+
+  /**
+   * Execute the planned actions.
+   *
+   * @param previousResult The result to pass to the start action
+   * @param reason The reason to log for the execution of the start action
+   * @return The merged result of the last actions of every branch
+   * @throws HopException In case an action failed unexpectedly. The running actions are finished
+   *     first.
+   */
+  public Result execute(Result previousResult, String reason) throws HopException {
+    for (Node node : nodes) {
+      node.remaining = node.nrPrevious;
+      node.depth = 0;
+      node.inputs.clear();
+      node.lineage.clear();
+      node.input = null;
+      node.reason = null;
+      node.result = null;
+      node.delta = null;
+      node.forked = false;
+      node.exception = null;
+    }
+    startNode.input = previousResult;
+    startNode.reason = reason;
+    startNode.lineage.set(startNode.index);
+
+    Semaphore permits = getServerPermits();
+    PriorityQueue<Node> ready = new PriorityQueue<>(NODE_ORDER);
+    ready.add(startNode);
+
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            maxParallelActions,
+            runnable -> {
+              Thread thread = new Thread(runnable);
+              thread.setDaemon(true);
+              return thread;
+            });
+    CompletionService<Node> completionService = new ExecutorCompletionService<>(executor);
+    HopException failure = null;
+    int running = 0;
+    try {
+      while (true) {
+        // Start as many of the ready actions as we're allowed to
+        //
+        while (!ready.isEmpty()
+            && running < maxParallelActions
+            && failure == null
+            && !workflow.isStopped()) {
+          boolean permit = false;
+          if (running > 0 && permits != null) {
+            if (!permits.tryAcquire()) {
+              break;
+            }
+            permit = true;
+          }
+          Node node = ready.poll();
+          final boolean releasePermit = permit;
+          completionService.submit(() -> executeNode(node, releasePermit ? permits : null));
+          running++;
+        }
+        if (running == 0) {
+          break;
+        }
+
+        // Wait for an action to finish.
+        // Check regularly for a free permit if there are more actions waiting.
+        //
+        Future<Node> future;
+        if (ready.isEmpty() || failure != null || workflow.isStopped()) {
+          future = completionService.take();
+        } else {
+          future = completionService.poll(PERMIT_WAIT_MS, TimeUnit.MILLISECONDS);
+          if (future == null) {
+            continue;
+          }
+        }
+        running--;
+        Node node = future.get();
+        if (node.exception != null) {
+          if (failure == null) {
+            failure = node.exception;
+          }
+        } else {
+          resolve(node, ready);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HopException(
+          BaseMessages.getString(
+              PKG, "Workflow.Log.UnexpectedErrorWhileWaitingForAction", workflowMeta.getName()),
+          e);
+    } catch (ExecutionException e) {
+      throw new HopException(e.getCause());
+    } finally {
+      executor.shutdown();
+    }
+
+    if (failure != null) {
+      throw failure;
+    }
+
+    // The last executed action of every branch, and the actions which kept their rows from the
+    // branches they started
+    //
+    SortedMap<Integer, Result> results = new TreeMap<>();
+    boolean success = true;
+    for (Node node : nodes) {
+      if (node.result == null) {
+        continue;
+      }
+      if (node.targets.stream().allMatch(target -> target.result == null)) {
+        results.put(node.index, node.result);
+        success &= node.result.isResult();
+      } else if (node.forked) {
+        results.put(node.index, node.result);
+      }
+    }
+    Result res;
+    if (results.isEmpty()) {
+      res = workflow.newResult();
+    } else {
+      res = merge(results);
+      res.setResult(success);
+    }
+    if (workflow.isStopped()) {
+      res.setStopped(true);
+    }
+    if (res.getNrErrors() > 0) {
+      res.setResult(false);
+    }
+    return res;
+  }
+
+  private Node executeNode(Node node, Semaphore permits) {
+    Thread thread = Thread.currentThread();
+    String threadName = thread.getName();
+    thread.setName("Workflow " + workflowMeta.getName() + ':' + node.actionMeta.getName());
+    try {
+      node.result = workflow.executeAction(node.depth, node.input, node.actionMeta, node.reason);
+      node.delta = delta(node.input, node.result);
+    } catch (Throwable e) {
+      log.logError(Const.getStackTracker(e));
+      node.exception =
+          new HopException(
+              BaseMessages.getString(
+                  PKG, "Workflow.Log.UnexpectedError", node.actionMeta.toString()),
+              e);
+    } finally {
+      thread.setName(threadName);
+      if (permits != null) {
+        permits.release();
+      }
+    }
+    return node;
+  }
+
+  /** Follow the hops of a finished action and see which next actions can be executed. */
+  private void resolve(Node node, PriorityQueue<Node> ready) {
+    Result result = node.result;
+    int nrFollowed = 0;
+    for (WorkflowHopMeta hop : node.hops) {
+      if (isFollowed(node, hop)) {
+        nrFollowed++;
+      }
+    }
+    node.forked = nrFollowed > 1;
+    for (int i = 0; i < node.hops.size(); i++) {
+      WorkflowHopMeta hop = node.hops.get(i);
+      Node target = node.targets.get(i);
+      if (isFollowed(node, hop)) {
+        // The branches started by this action begin without its rows
+        //
+        Result input = result;
+        if (node.forked) {
+          input = result.lightClone();
+          input.setRows(new SpillableRowList());
+        }
+        target.inputs.put(node.index, input);
+        target.lineage.or(node.lineage);
+        target.depth = Math.max(target.depth, node.depth + 1);
+        if (target.reason == null) {
+          target.reason = getComment(hop, result);
+        }
+      }
+      target.remaining--;
+      if (target.remaining == 0) {
+        release(target, ready);
+      }
+    }
+  }
+
+  private static boolean isFollowed(Node node, WorkflowHopMeta hop) {
+    return hop.isUnconditional()
+        || (node.actionMeta.isEvaluation() && hop.isEvaluation() == node.result.isResult());
+  }
+
+  /** All the previous actions of this action are finished or skipped. */
+  private void release(Node node, PriorityQueue<Node> ready) {
+    if (node.inputs.isEmpty()) {
+      // None of the hops leading to this action were followed: skip it and the actions after it,
+      // unless they can be reached in another way.
+      //
+      for (Node target : node.targets) {
+        target.remaining--;
+        if (target.remaining == 0) {
+          release(target, ready);
+        }
+      }
+      return;
+    }
+    node.input = merge(node.inputs);
+    node.lineage.set(node.index);
+
+    // Set the number of errors back to 0 (if it should be reset)
+    //
+    if (node.actionMeta.resetErrorsBeforeExecution()) {
+      node.input.setNrErrors(0);
+    }
+    ready.add(node);
+  }
+
+  /**
+   * Merge the results of several actions in the order of their indexes. The counters of the actions
+   * leading to more than one of them are only counted once.
+   */
+  private Result merge(SortedMap<Integer, Result> results) {
+    Result merged = null;
+    BitSet lineage = new BitSet();
+    for (Map.Entry<Integer, Result> entry : results.entrySet()) {
+      Node source = nodes.get(entry.getKey());
+      Result result = entry.getValue();
+      if (merged == null) {
+        merged = result.clone();
+        if (merged.getRows() == null) {
+          merged.setRows(new SpillableRowList());
+        }
+      } else {
+        for (int i = source.lineage.nextSetBit(0); i >= 0; i = source.lineage.nextSetBit(i + 1)) {
+          if (!lineage.get(i)) {
+            addCounters(merged, nodes.get(i).delta);
+          }
+        }
+        if (result.getRows() != null) {
+          merged.getRows().addAll(result.getRows());
+        }
+        merged.getResultFiles().putAll(result.getResultFiles());
+        merged.setLogChannelId(result.getLogChannelId());
+        merged.setLogText(result.getLogText());
+        merged.setResult(merged.isResult() && result.isResult());
+      }
+      lineage.or(source.lineage);
+    }
+    return merged;
+  }
+
+  /** The counters an action added to its input */
+  private static Result delta(Result input, Result result) {
+    Result delta = new Result();
+    addCounters(delta, result);
+    if (input != null) {
+      delta.setNrLinesInput(delta.getNrLinesInput() - input.getNrLinesInput());
+      delta.setNrLinesOutput(delta.getNrLinesOutput() - input.getNrLinesOutput());
+      delta.setNrLinesRead(delta.getNrLinesRead() - input.getNrLinesRead());
+      delta.setNrLinesWritten(delta.getNrLinesWritten() - input.getNrLinesWritten());
+      delta.setNrLinesUpdated(delta.getNrLinesUpdated() - input.getNrLinesUpdated());
+      delta.setNrLinesRejected(delta.getNrLinesRejected() - input.getNrLinesRejected());
+      delta.setNrLinesDeleted(delta.getNrLinesDeleted() - input.getNrLinesDeleted());
+      delta.setNrErrors(delta.getNrErrors() - input.getNrErrors());
+      delta.setNrFilesRetrieved(delta.getNrFilesRetrieved() - input.getNrFilesRetrieved());
+    }
+    return delta;
+  }
+
+  private static void addCounters(Result target, Result counters) {
+    target.setNrLinesInput(target.getNrLinesInput() + counters.getNrLinesInput());
+    target.setNrLinesOutput(target.getNrLinesOutput() + counters.getNrLinesOutput());
+    target.setNrLinesRead(target.getNrLinesRead() + counters.getNrLinesRead());
+    target.setNrLinesWritten(target.getNrLinesWritten() + counters.getNrLinesWritten());
+    target.setNrLinesUpdated(target.getNrLinesUpdated() + counters.getNrLinesUpdated());
+    target.setNrLinesRejected(target.getNrLinesRejected() + counters.getNrLinesRejected());
+    target.setNrLinesDeleted(target.getNrLinesDeleted() + counters.getNrLinesDeleted());
+    target.setNrErrors(target.getNrErrors() + counters.getNrErrors());
+    target.setNrFilesRetrieved(target.getNrFilesRetrieved() + counters.getNrFilesRetrieved());
+  }
+
+  private static String getComment(WorkflowHopMeta hop, Result result) {
+    if (hop.isUnconditional()) {
+      return BaseMessages.getString(PKG, "Workflow.Comment.FollowedUnconditional");
+    } else if (result.isResult()) {
+      return BaseMessages.getString(PKG, "Workflow.Comment.FollowedSuccess");
+    } else {
+      return BaseMessages.getString(PKG, "Workflow.Comment.FollowedFailure");
+    }
+  }
+
+  /**
+   * @return The semaphore limiting the number of actions running in parallel in this JVM or null if
+   *     there is no limit
+   */
+  static synchronized Semaphore getServerPermits() {
+    int size = Const.toInt(EnvUtil.getSystemProperty(Const.HOP_WORKFLOW_MAX_PARALLEL_ACTIONS), 0);
+    if (size <= 0) {
+      return null;
+    }
+    if (serverPermits == null || serverPermitsSize != size) {
+      // Actions running with permits of a previous size release them to the old semaphore
+      //
+      serverPermits = new Semaphore(size);
+      serverPermitsSize = size;
+    }
+    return serverPermits;
+  }
+}
@@ -106,6 +106,11 @@ public class LocalWorkflowEngine extends Workflow implements IWorkflowEngine<Wor
     LocalWorkflowRunConfiguration config =
         (LocalWorkflowRunConfiguration) workflowRunConfiguration.getEngineRunConfiguration();
 
+    // Execute the actions as a graph?
+    //
+    setActionGraphScheduling(config.isActionGraphScheduling());
+    setMaxParallelActions(Const.toInt(resolve(config.getMaxParallelActions()), 10));
+
     // See if we need to enable transactions...
     //
     IExtensionData parentExtensionData = getParentPipeline();
@@ -50,15 +50,42 @@ public class LocalWorkflowRunConfiguration extends EmptyWorkflowRunConfiguration
   @HopMetadataProperty(key = "transactional")
   protected boolean transactional;
 
+  @GuiWidgetElement(
+      id = "actionGraphScheduling",
+      order = "100",
+      parentId = WorkflowRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.CHECKBOX,
+      label =
+          "i18n:org.apache.hop.ui.workflow.config:WorkflowRunConfigurationDialog.ActionGraphScheduling.Label",
+      toolTip =
+          "i18n:org.apache.hop.ui.workflow.config:WorkflowRunConfigurationDialog.ActionGraphScheduling.ToolTip")
+  @HopMetadataProperty(key = "action_graph_scheduling")
+  protected boolean actionGraphScheduling;
+
+  @GuiWidgetElement(
+      id = "maxParallelActions",
+      order = "110",
+      parentId = WorkflowRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.TEXT,
+      label =
+          "i18n:org.apache.hop.ui.workflow.config:WorkflowRunConfigurationDialog.MaxParallelActions.Label",
+      toolTip =
+          "i18n:org.apache.hop.ui.workflow.config:WorkflowRunConfigurationDialog.MaxParallelActions.ToolTip")
+  @HopMetadataProperty(key = "max_parallel_actions")
+  protected String maxParallelActions;
+
   public LocalWorkflowRunConfiguration() {
     super();
     safeModeEnabled = false;
+    maxParallelActions = "10";
   }
 
   public LocalWorkflowRunConfiguration(LocalWorkflowRunConfiguration config) {
     super(config);
     this.safeModeEnabled = config.safeModeEnabled;
     this.transactional = config.transactional;
+    this.actionGraphScheduling = config.actionGraphScheduling;
+    this.maxParallelActions = config.maxParallelActions;
   }
 
   @Override
@@ -97,4 +124,36 @@ public class LocalWorkflowRunConfiguration extends EmptyWorkflowRunConfiguration
   public void setTransactional(boolean transactional) {
     this.transactional = transactional;
   }
+
+  /**
+   * Gets actionGraphScheduling
+   *
+   * @return value of actionGraphScheduling
+   */
+  public boolean isActionGraphScheduling() {
+    return actionGraphScheduling;
+  }
+
+  /**
+   * @param actionGraphScheduling The actionGraphScheduling to set
+   */
+  public void setActionGraphScheduling(boolean actionGraphScheduling) {
+    this.actionGraphScheduling = actionGraphScheduling;
+  }
+
+  /**
+   * Gets maxParallelActions
+   *
+   * @return value of maxParallelActions
+   */
+  public String getMaxParallelActions() {
+    return maxParallelActions;
+  }
+
+  /**
+   * @param maxParallelActions The maxParallelActions to set
+   */
+  public void setMaxParallelActions(String maxParallelActions) {
+    this.maxParallelActions = maxParallelActions;
+  }
 }
@@ -73,6 +73,8 @@ import org.apache.hop.workflow.config.IWorkflowEngineRunConfiguration;
 import org.apache.hop.workflow.config.WorkflowRunConfiguration;
 import org.apache.hop.workflow.engine.IWorkflowEngine;
 import org.apache.hop.workflow.engine.WorkflowEnginePlugin;
+import org.apache.hop.www.ExecutionStatusStreamServlet;
+import org.apache.hop.www.ExecutionStatusUpdate;
 import org.apache.hop.www.HopServerWorkflowStatus;
 import org.apache.hop.www.RegisterPackageServlet;
 import org.apache.hop.www.RegisterWorkflowServlet;
@@ -298,14 +300,21 @@ public class RemoteWorkflowEngine extends Variables implements IWorkflowEngine<W
 
   public void monitorRemoteWorkflowUntilFinished() {
     try {
-      // Start with a little bit of a wait
-      //
       long serverPollDelay =
           Const.toLong(resolve(remoteWorkflowRunConfiguration.getServerPollDelay()), 1000L);
-      Thread.sleep(serverPollDelay);
-
       long serverPollInterval =
           Const.toLong(resolve(remoteWorkflowRunConfiguration.getServerPollInterval()), 500L);
+
+      // The server pushes the changes in the status unless polling is requested.
+      // When polling, start with a little bit of a wait.
+      //
+      if (remoteWorkflowRunConfiguration.isPollingStatus()
+          || !followStatusStream(serverPollInterval)) {
+        Thread.sleep(serverPollDelay);
+      }
+
+      // After the status stream this picks up the complete status and the result
+      //
       while (!stopped && !finished) {
         getWorkflowStatus();
         Thread.sleep(serverPollInterval);
@@ -317,6 +326,68 @@ public class RemoteWorkflowEngine extends Variables implements IWorkflowEngine<W
     }
   }
 
+  /**
+   * Follow the changes in the status which are pushed by the server until the workflow ends.
+   *
+   * @param interval The minimum number of milliseconds between updates
+   * @return false if the server doesn't support the status stream or if the stream broke off
+   */
+  private boolean followStatusStream(long interval) {
+    if (containerId == null) {
+      return false;
+    }
+    try {
+      return hopServer.streamExecutionStatus(
+          this,
+          ExecutionStatusStreamServlet.TYPE_WORKFLOW,
+          workflowMeta.getName(),
+          containerId,
+          lastLogLineNr,
+          interval,
+          this::applyStatusUpdate);
+    } catch (Exception e) {
+      logChannel.logDetailed(
+          "Unable to follow the status stream of the workflow on hop server '"
+              + hopServer.getName()
+              + "', polling the status instead: "
+              + e.getMessage());
+      return false;
+    }
+  }
+
+  private synchronized void applyStatusUpdate(ExecutionStatusUpdate update) {
+    lastLogLineNr = update.getLastLoggingLineNr();
+    if (StringUtils.isNotEmpty(update.getLoggingString())) {
+      logChannel.logBasic(update.getLoggingString());
+    }
+    running = update.isRunning();
+    active = running;
+    statusDescription = update.getStatusDescription();
+
+    boolean actionEnded = false;
+    for (ExecutionStatusUpdate.Component component : update.getComponents()) {
+      ActionMeta actionMeta = workflowMeta.findAction(component.getName());
+      if (Status.RUNNING.getCode().equals(component.getStatus())) {
+        if (actionMeta != null) {
+          activeActions.add(actionMeta);
+        }
+      } else {
+        activeActions.remove(actionMeta);
+        actionEnded = true;
+      }
+    }
+
+    // The results of the actions are only part of the complete status
+    //
+    if (actionEnded) {
+      try {
+        getWorkflowStatus();
+      } catch (HopException e) {
+        logChannel.logError("Error getting the status of the remote workflow", e);
+      }
+    }
+  }
+
   public synchronized void getWorkflowStatus() throws HopException {
     if (containerId == null) {
       // Nothing to look for yet...
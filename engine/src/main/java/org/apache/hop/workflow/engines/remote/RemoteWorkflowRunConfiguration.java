@@ -68,6 +68,17 @@ public class RemoteWorkflowRunConfiguration extends EmptyWorkflowRunConfiguratio
   @HopMetadataProperty(key = "server_poll_interval")
   protected String serverPollInterval;
 
+  @GuiWidgetElement(
+      order = "45",
+      parentId = WorkflowRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.CHECKBOX,
+      label =
+          "i18n:org.apache.hop.ui.workflow.config:WorkflowRunConfigurationDialog.PollingStatus.Label",
+      toolTip =
+          "i18n:org.apache.hop.ui.workflow.config:WorkflowRunConfigurationDialog.PollingStatus.ToolTip")
+  @HopMetadataProperty(key = "polling_status")
+  protected boolean pollingStatus;
+
   @GuiWidgetElement(
       order = "50",
       parentId = WorkflowRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
@@ -111,6 +122,7 @@ public class RemoteWorkflowRunConfiguration extends EmptyWorkflowRunConfiguratio
     this.runConfigurationName = config.runConfigurationName;
     this.serverPollDelay = config.serverPollDelay;
     this.serverPollInterval = config.serverPollInterval;
+    this.pollingStatus = config.pollingStatus;
     this.exportingResources = config.exportingResources;
     this.namedResourcesSourceFolder = config.namedResourcesSourceFolder;
     this.namedResourcesTargetFolder = config.namedResourcesTargetFolder;
@@ -185,6 +197,22 @@ public class RemoteWorkflowRunConfiguration extends EmptyWorkflowRunConfiguratio
     this.serverPollInterval = serverPollInterval;
   }
 
+  /**
+   * Gets pollingStatus
+   *
+   * @return true if the status of the execution is polled instead of streamed by the server
+   */
+  public boolean isPollingStatus() {
+    return pollingStatus;
+  }
+
+  /**
+   * @param pollingStatus The pollingStatus to set
+   */
+  public void setPollingStatus(boolean pollingStatus) {
+    this.pollingStatus = pollingStatus;
+  }
+
   /**
    * Gets exportingResources
    *
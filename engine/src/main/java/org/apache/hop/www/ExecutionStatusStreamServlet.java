@@ -0,0 +1,503 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.www;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serial;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.Result;
+import org.apache.hop.core.annotations.HopServerServlet;
+import org.apache.hop.core.json.HopJson;
+import org.apache.hop.core.logging.HopLogStore;
+import org.apache.hop.core.util.Utils;
+import org.apache.hop.i18n.BaseMessages;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.engine.EngineComponent.ComponentExecutionStatus;
+import org.apache.hop.pipeline.engine.IEngineComponent;
+import org.apache.hop.pipeline.engine.IPipelineEngine;
+import org.apache.hop.pipeline.transform.TransformStatus;
+import org.apache.hop.workflow.ActionResult;
+import org.apache.hop.workflow.WorkflowMeta;
+import org.apache.hop.workflow.action.ActionMeta;
+import org.apache.hop.workflow.action.Status;
+import org.apache.hop.workflow.engine.IWorkflowEngine;
+
+/**
+ * Pushes the status of a pipeline or workflow to the client until the execution ends. Every line of
+ * the response is a JSON {@link ExecutionStatusUpdate} with the changed transform or action
+ * counters and the new log lines. This saves the client from polling the complete status over and
+ * over again. Empty lines are sent now and then to detect clients which went away.
+ *
+ * <p>When the servlet container supports it, the streams of all clients are served by a small
+ * shared scheduler instead of a request thread per client. The updates are then written with
+ * non-blocking I/O: a client which reads slowly doesn't hold up the scheduler, it simply gets its
+ * next update when the previous one is sent. A client which doesn't read anything for {@link
+ * #WRITE_TIMEOUT} milliseconds is disconnected.
+ */
+@HopServerServlet(id = "statusStream", name = "Stream the status of a pipeline or workflow")
+public class ExecutionStatusStreamServlet extends BaseHttpServlet implements IHopServerPlugin {
+
+  private static final Class<?> PKG = ExecutionStatusStreamServlet.class;
+  @Serial private static final long serialVersionUID = -2469218417296427862L;
+
+  public static final String CONTEXT_PATH = "/hop/statusStream";
+
+  public static final String PARAMETER_TYPE = "type";
+  public static final String PARAMETER_INTERVAL = "interval";
+  public static final String TYPE_PIPELINE = "pipeline";
+  public static final String TYPE_WORKFLOW = "workflow";
+
+  public static final String CONTENT_TYPE = "application/x-ndjson";
+
+  public static final long DEFAULT_INTERVAL = 500L;
+  public static final long MINIMUM_INTERVAL = 100L;
+  public static final long HEARTBEAT_INTERVAL = 10000L;
+  public static final long WRITE_TIMEOUT = 60000L;
+
+  private static final int SCHEDULER_THREADS = 2;
+
+  private static ScheduledExecutorService scheduler;
+
+  public ExecutionStatusStreamServlet() {}
+
+  public ExecutionStatusStreamServlet(PipelineMap pipelineMap, WorkflowMap workflowMap) {
+    super(pipelineMap, workflowMap);
+  }
+
+  @Override
+  public void doGet(HttpServletRequest request, HttpServletResponse response)
+      throws ServletException, IOException {
+    if (isJettyMode() && !request.getContextPath().startsWith(CONTEXT_PATH)) {
+      return;
+    }
+
+    String type = Const.NVL(request.getParameter(PARAMETER_TYPE), TYPE_PIPELINE);
+    String name = request.getParameter("name");
+    String id = request.getParameter("id");
+    int startLineNr = Const.toInt(request.getParameter("from"), 0);
+    long interval =
+        Math.max(
+            MINIMUM_INTERVAL,
+            Const.toLong(request.getParameter(PARAMETER_INTERVAL), DEFAULT_INTERVAL));
+
+    if (log.isDebug()) {
+      logDebug(
+          BaseMessages.getString(
+              PKG, "ExecutionStatusStreamServlet.Log.StreamRequested", type, name, id));
+    }
+
+    IStatusSource source;
+    if (TYPE_WORKFLOW.equalsIgnoreCase(type)) {
+      source = findWorkflowSource(name, id);
+    } else {
+      source = findPipelineSource(name, id);
+    }
+    if (source == null) {
+      response.sendError(
+          HttpServletResponse.SC_NOT_FOUND,
+          BaseMessages.getString(
+              PKG, "ExecutionStatusStreamServlet.Error.NotFound", type, name, id));
+      return;
+    }
+
+    response.setStatus(HttpServletResponse.SC_OK);
+    response.setContentType(CONTENT_TYPE);
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    response.setHeader("Cache-Control", "no-cache");
+
+    StatusStream stream = new StatusStream(source, startLineNr, response.getOutputStream());
+    if (request.isAsyncSupported()) {
+      AsyncContext asyncContext = request.startAsync();
+      asyncContext.setTimeout(0);
+      stream.start(asyncContext, getScheduler(), interval);
+    } else {
+      // Keep the request thread busy until the execution ends
+      //
+      while (stream.push()) {
+        try {
+          Thread.sleep(interval);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+      }
+    }
+  }
+
+  private IStatusSource findPipelineSource(String name, String id) {
+    IPipelineEngine<PipelineMeta> pipeline;
+    if (Utils.isEmpty(id)) {
+      HopServerObjectEntry entry = getPipelineMap().getFirstServerObjectEntry(name);
+      pipeline = entry == null ? null : getPipelineMap().getPipeline(entry);
+    } else {
+      pipeline = getPipelineMap().getPipeline(new HopServerObjectEntry(name, id));
+    }
+    return pipeline == null ? null : new PipelineStatusSource(pipeline);
+  }
+
+  private IStatusSource findWorkflowSource(String name, String id) {
+    IWorkflowEngine<WorkflowMeta> workflow;
+    if (Utils.isEmpty(id)) {
+      HopServerObjectEntry entry = getWorkflowMap().getFirstHopServerObjectEntry(name);
+      workflow = entry == null ? null : getWorkflowMap().getWorkflow(entry);
+    } else if (Utils.isEmpty(name)) {
+      workflow = getWorkflowMap().findWorkflow(id);
+    } else {
+      workflow = getWorkflowMap().getWorkflow(new HopServerObjectEntry(name, id));
+    }
+    return workflow == null ? null : new WorkflowStatusSource(workflow);
+  }
+
+  private static synchronized ScheduledExecutorService getScheduler() {
+    if (scheduler == null) {
+      scheduler =
+          Executors.newScheduledThreadPool(
+              SCHEDULER_THREADS,
+              runnable -> {
+                Thread thread = new Thread(runnable, "hop-status-stream");
+                thread.setDaemon(true);
+                return thread;
+              });
+    }
+    return scheduler;
+  }
+
+  @Override
+  public String toString() {
+    return "Execution status stream";
+  }
+
+  @Override
+  public String getService() {
+    return CONTEXT_PATH + " (" + this + ")";
+  }
+
+  @Override
+  public String getContextPath() {
+    return CONTEXT_PATH;
+  }
+
+  /** Gives access to the current state of a pipeline or workflow */
+  interface IStatusSource {
+    /**
+     * @return The state of the execution without components and logging
+     */
+    ExecutionStatusUpdate getState();
+
+    /**
+     * @return The current state of all the transforms or actions
+     */
+    List<ExecutionStatusUpdate.Component> getComponents();
+
+    /**
+     * @return The log channel ID of the execution
+     */
+    String getLogChannelId();
+  }
+
+  private static Long getTime(Date date) {
+    return date == null ? null : date.getTime();
+  }
+
+  private static class PipelineStatusSource implements IStatusSource {
+    private final IPipelineEngine<PipelineMeta> pipeline;
+
+    private PipelineStatusSource(IPipelineEngine<PipelineMeta> pipeline) {
+      this.pipeline = pipeline;
+    }
+
+    @Override
+    public ExecutionStatusUpdate getState() {
+      ExecutionStatusUpdate state = new ExecutionStatusUpdate();
+      state.setStatusDescription(pipeline.getStatusDescription());
+      state.setRunning(pipeline.isRunning());
+      state.setFinished(pipeline.isFinished());
+      state.setStopped(pipeline.isStopped());
+      state.setPaused(pipeline.isPaused());
+      state.setErrors(pipeline.getErrors());
+      state.setExecutionStartDate(getTime(pipeline.getExecutionStartDate()));
+      state.setExecutionEndDate(getTime(pipeline.getExecutionEndDate()));
+      return state;
+    }
+
+    @Override
+    public List<ExecutionStatusUpdate.Component> getComponents() {
+      List<ExecutionStatusUpdate.Component> components = new ArrayList<>();
+      for (IEngineComponent component : pipeline.getComponents()) {
+        if (component.isRunning()
+            || component.getStatus() != ComponentExecutionStatus.STATUS_EMPTY) {
+          components.add(new ExecutionStatusUpdate.Component(new TransformStatus(component)));
+        }
+      }
+      return components;
+    }
+
+    @Override
+    public String getLogChannelId() {
+      return pipeline.getLogChannel().getLogChannelId();
+    }
+  }
+
+  private static class WorkflowStatusSource implements IStatusSource {
+    private final IWorkflowEngine<WorkflowMeta> workflow;
+
+    private WorkflowStatusSource(IWorkflowEngine<WorkflowMeta> workflow) {
+      this.workflow = workflow;
+    }
+
+    @Override
+    public ExecutionStatusUpdate getState() {
+      ExecutionStatusUpdate state = new ExecutionStatusUpdate();
+      state.setStatusDescription(workflow.getStatusDescription());
+      state.setRunning(workflow.isActive());
+      state.setFinished(workflow.isFinished());
+      state.setStopped(workflow.isStopped());
+      Result result = workflow.getResult();
+      state.setErrors(result == null ? 0L : result.getNrErrors());
+      state.setExecutionStartDate(getTime(workflow.getExecutionStartDate()));
+      state.setExecutionEndDate(getTime(workflow.getExecutionEndDate()));
+      return state;
+    }
+
+    @Override
+    public List<ExecutionStatusUpdate.Component> getComponents() {
+      List<ExecutionStatusUpdate.Component> components = new ArrayList<>();
+      for (ActionResult actionResult : new ArrayList<>(workflow.getActionResults())) {
+        Status status =
+            actionResult.getResult() != null && actionResult.getResult().isResult()
+                ? Status.FINISHED
+                : Status.STOPPED;
+        components.add(
+            new ExecutionStatusUpdate.Component(actionResult.getActionName(), 0, status.getCode()));
+      }
+      for (ActionMeta actionMeta : new ArrayList<>(workflow.getActiveActions())) {
+        components.add(
+            new ExecutionStatusUpdate.Component(actionMeta.getName(), 0, Status.RUNNING.getCode()));
+      }
+      return components;
+    }
+
+    @Override
+    public String getLogChannelId() {
+      return workflow.getLogChannel().getLogChannelId();
+    }
+  }
+
+  /** Keeps track of what was sent to a single client */
+  static class StatusStream implements Runnable, WriteListener {
+    private final IStatusSource source;
+    private final OutputStream outputStream;
+    private final ObjectMapper mapper;
+    private final Map<String, ExecutionStatusUpdate.Component> sentComponents;
+
+    private ExecutionStatusUpdate sentState;
+    private int logLineNr;
+    private long lastWriteTime;
+    private boolean done;
+
+    private AsyncContext asyncContext;
+    private ServletOutputStream servletOutputStream;
+    private ScheduledFuture<?> future;
+
+    /** The update which couldn't be written yet and since when it's waiting */
+    private byte[] pending;
+
+    private long pendingTime;
+    private boolean flushNeeded;
+    private boolean closed;
+
+    StatusStream(IStatusSource source, int startLineNr, OutputStream outputStream) {
+      this.source = source;
+      this.logLineNr = startLineNr;
+      this.outputStream = outputStream;
+      this.mapper = HopJson.newMapper();
+      this.sentComponents = new HashMap<>();
+      this.lastWriteTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Send the updates from the scheduler without blocking it. The container calls {@link
+     * #onWritePossible()} as soon as the client is ready to receive an update.
+     */
+    synchronized void start(
+        AsyncContext asyncContext, ScheduledExecutorService scheduler, long interval)
+        throws IOException {
+      this.asyncContext = asyncContext;
+      this.servletOutputStream = asyncContext.getResponse().getOutputStream();
+      servletOutputStream.setWriteListener(this);
+      future = scheduler.scheduleWithFixedDelay(this, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void run() {
+      if (closed) {
+        return;
+      }
+      long now = System.currentTimeMillis();
+      if (pending == null && !done) {
+        pending = nextUpdate(now);
+        pendingTime = now;
+      } else if (pending != null && now - pendingTime >= WRITE_TIMEOUT) {
+        // The client stopped reading
+        //
+        close();
+        return;
+      }
+      writePending();
+    }
+
+    @Override
+    public synchronized void onWritePossible() {
+      if (!closed) {
+        writePending();
+      }
+    }
+
+    @Override
+    public synchronized void onError(Throwable t) {
+      close();
+    }
+
+    /** Write what the client can receive now, the rest follows in {@link #onWritePossible()} */
+    private void writePending() {
+      try {
+        if (pending != null && servletOutputStream.isReady()) {
+          servletOutputStream.write(pending);
+          pending = null;
+          flushNeeded = true;
+        }
+        if (flushNeeded && servletOutputStream.isReady()) {
+          servletOutputStream.flush();
+          flushNeeded = false;
+        }
+        if (done && pending == null && !flushNeeded && servletOutputStream.isReady()) {
+          close();
+        }
+      } catch (Exception e) {
+        // The client went away
+        //
+        close();
+      }
+    }
+
+    private void close() {
+      closed = true;
+      done = true;
+      if (future != null) {
+        future.cancel(false);
+      }
+      asyncContext.complete();
+    }
+
+    /**
+     * Send the changes since the previous update to the client, blocking until they're written.
+     *
+     * @return false if the stream has ended: the execution is over or the client went away
+     */
+    boolean push() {
+      byte[] update = nextUpdate(System.currentTimeMillis());
+      if (update != null) {
+        try {
+          outputStream.write(update);
+          outputStream.flush();
+        } catch (IOException e) {
+          // The client went away
+          //
+          done = true;
+        }
+      }
+      return !done;
+    }
+
+    /**
+     * Collect the changes since the previous update.
+     *
+     * @param now The current time
+     * @return The line to send to the client, an empty line as heartbeat or null if there's nothing
+     *     to send
+     */
+    private byte[] nextUpdate(long now) {
+      try {
+        ExecutionStatusUpdate update = source.getState();
+        boolean ended = update.isFinished() || update.isStopped();
+
+        for (ExecutionStatusUpdate.Component component : source.getComponents()) {
+          if (!component.equals(sentComponents.get(component.getKey()))) {
+            update.getComponents().add(component);
+            sentComponents.put(component.getKey(), component);
+          }
+        }
+
+        int lastLineNr = HopLogStore.getLastBufferLineNr();
+        if (lastLineNr > logLineNr) {
+          String logText =
+              HopLogStore.getAppender()
+                  .getBuffer(source.getLogChannelId(), false, logLineNr, lastLineNr)
+                  .toString();
+          if (!logText.isEmpty()) {
+            update.setLoggingString(logText);
+          }
+          logLineNr = lastLineNr;
+        }
+        update.setLastLoggingLineNr(logLineNr);
+
+        done = ended;
+        if (ended
+            || !update.isSameState(sentState)
+            || !update.getComponents().isEmpty()
+            || update.getLoggingString() != null) {
+          sentState = update;
+          lastWriteTime = now;
+          byte[] json = mapper.writeValueAsBytes(update);
+          byte[] line = Arrays.copyOf(json, json.length + 1);
+          line[json.length] = '\n';
+          return line;
+        }
+        if (now - lastWriteTime >= HEARTBEAT_INTERVAL) {
+          lastWriteTime = now;
+          return new byte[] {'\n'};
+        }
+        return null;
+      } catch (Exception e) {
+        // The execution is gone
+        //
+        done = true;
+        return null;
+      }
+    }
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.www;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.hop.pipeline.transform.TransformStatus;
+
+/**
+ * A single update pushed by the {@link ExecutionStatusStreamServlet}. It only contains the
+ * components (transforms or actions) which changed since the previous update and the log lines
+ * which were written since then.
+ */
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class ExecutionStatusUpdate {
+  private String statusDescription;
+  private boolean running;
+  private boolean finished;
+  private boolean stopped;
+  private boolean paused;
+  private long errors;
+  private Long executionStartDate;
+  private Long executionEndDate;
+  private int lastLoggingLineNr;
+  private String loggingString;
+  private List<Component> components;
+
+  public ExecutionStatusUpdate() {
+    components = new ArrayList<>();
+  }
+
+  /**
+   * @param update The update to compare with
+   * @return true if the state of the execution, not counting components and logging, is the same
+   */
+  public boolean isSameState(ExecutionStatusUpdate update) {
+    return update != null
+        && running == update.running
+        && finished == update.finished
+        && stopped == update.stopped
+        && paused == update.paused
+        && errors == update.errors
+        && Objects.equals(statusDescription, update.statusDescription)
+        && Objects.equals(executionStartDate, update.executionStartDate)
+        && Objects.equals(executionEndDate, update.executionEndDate);
+  }
+
+  /** The status of a transform copy or an action */
+  @Getter
+  @Setter
+  @EqualsAndHashCode
+  @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+  public static class Component {
+    private String name;
+    private int copy;
+    private String status;
+    private long linesRead;
+    private long linesWritten;
+    private long linesInput;
+    private long linesOutput;
+    private long linesUpdated;
+    private long linesRejected;
+    private long errors;
+    private long inputBufferSize;
+    private long outputBufferSize;
+    private String speed;
+
+    public Component() {}
+
+    public Component(String name, int copy, String status) {
+      this.name = name;
+      this.copy = copy;
+      this.status = status;
+    }
+
+    public Component(TransformStatus transformStatus) {
+      this(
+          transformStatus.getTransformName(),
+          transformStatus.getCopy(),
+          transformStatus.getStatusDescription());
+      linesRead = transformStatus.getLinesRead();
+      linesWritten = transformStatus.getLinesWritten();
+      linesInput = transformStatus.getLinesInput();
+      linesOutput = transformStatus.getLinesOutput();
+      linesUpdated = transformStatus.getLinesUpdated();
+      linesRejected = transformStatus.getLinesRejected();
+      errors = transformStatus.getErrors();
+      inputBufferSize = transformStatus.getInputBufferSize();
+      outputBufferSize = transformStatus.getOutputBufferSize();
+      speed = transformStatus.getSpeed();
+    }
+
+    /**
+     * @return The key of the component: the name and the copy number
+     */
+    @JsonIgnore
+    public String getKey() {
+      return name + "." + copy;
+    }
+
+    /**
+     * @return The component status as a transform status
+     */
+    @JsonIgnore
+    public TransformStatus toTransformStatus() {
+      TransformStatus transformStatus = new TransformStatus();
+      transformStatus.setTransformName(name);
+      transformStatus.setCopy(copy);
+      transformStatus.setStatusDescription(status);
+      transformStatus.setLinesRead(linesRead);
+      transformStatus.setLinesWritten(linesWritten);
+      transformStatus.setLinesInput(linesInput);
+      transformStatus.setLinesOutput(linesOutput);
+      transformStatus.setLinesUpdated(linesUpdated);
+      transformStatus.setLinesRejected(linesRejected);
+      transformStatus.setErrors(errors);
+      transformStatus.setInputBufferSize(inputBufferSize);
+      transformStatus.setOutputBufferSize(outputBufferSize);
+      transformStatus.setSpeed(speed);
+      return transformStatus;
+    }
+  }
+}
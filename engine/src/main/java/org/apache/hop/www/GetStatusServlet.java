@@ -27,10 +27,12 @@ import java.io.Serial;
 import java.lang.management.OperatingSystemMXBean;
 import java.lang.management.RuntimeMXBean;
 import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
+import org.apache.commons.lang.StringUtils;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.annotations.HopServerServlet;
 import org.apache.hop.core.exception.HopException;
@@ -48,6 +50,11 @@ public class GetStatusServlet extends BaseHttpServlet implements IHopServerPlugi
   @Serial private static final long serialVersionUID = 3634806745372015720L;
 
   public static final String CONTEXT_PATH = "/hop/status";
+
+  public static final String PARAMETER_STATE = "state";
+  public static final String PARAMETER_NAME = "name";
+  public static final String PARAMETER_OFFSET = "offset";
+  public static final String PARAMETER_LIMIT = "limit";
   private static final String CONST_DIV_CLOSE = "\"/></div></td>";
   private static final String CONST_TABLE_HEADER = "</th> <th class=\"cellTableHeader\">";
   private static final String CONST_TD = "</td>";
@@ -106,6 +113,18 @@ public class GetStatusServlet extends BaseHttpServlet implements IHopServerPlugi
     boolean useJson = "Y".equalsIgnoreCase(request.getParameter("json"));
     boolean useLightTheme = "Y".equalsIgnoreCase(request.getParameter("useLightTheme"));
 
+    // Tell clients which already have the latest status that nothing changed. The tag is weak
+    // because it only covers the pipelines and workflows, not the live system information.
+    //
+    if (useXml || useJson) {
+      String eTag = getETag();
+      response.setHeader("ETag", eTag);
+      if (matchesETag(request.getHeader("If-None-Match"), eTag)) {
+        response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        return;
+      }
+    }
+
     if (useXml) {
       response.setContentType("text/xml");
       response.setCharacterEncoding(Const.XML_ENCODING);
@@ -119,17 +138,45 @@ public class GetStatusServlet extends BaseHttpServlet implements IHopServerPlugi
 
     PrintWriter out = response.getWriter();
 
-    List<HopServerObjectEntry> pipelineEntries = getPipelineMap().getPipelineObjects();
-    List<HopServerObjectEntry> actions = getWorkflowMap().getWorkflowObjects();
-
     if (useXml || useJson) {
       HopServerStatus serverStatus = new HopServerStatus();
       serverStatus.setStatusDescription("Online");
 
       getSystemInfo(serverStatus);
 
+      List<HopServerObjectEntry> pipelineEntries;
+      List<HopServerObjectEntry> workflowEntries;
+      if (isPageRequested(request)) {
+        // Only the requested page of pipelines and workflows is looked up, newest first
+        //
+        List<HopServerObjectIndex.State> states = getStates(request.getParameter(PARAMETER_STATE));
+        String nameFilter = request.getParameter(PARAMETER_NAME);
+        int offset = Math.max(0, Const.toInt(request.getParameter(PARAMETER_OFFSET), 0));
+        int limit = Const.toInt(request.getParameter(PARAMETER_LIMIT), -1);
+
+        HopServerObjectIndex.Page pipelinePage =
+            getPipelineMap().getStatusIndex().getPage(states, nameFilter, offset, limit);
+        HopServerObjectIndex.Page workflowPage =
+            getWorkflowMap().getStatusIndex().getPage(states, nameFilter, offset, limit);
+        pipelineEntries = pipelinePage.getEntries();
+        workflowEntries = workflowPage.getEntries();
+        serverStatus.setPipelineTotal(pipelinePage.getTotal());
+        serverStatus.setWorkflowTotal(workflowPage.getTotal());
+      } else {
+        // All pipelines and workflows in the order they were always listed
+        //
+        pipelineEntries = getPipelineMap().getPipelineObjects();
+        workflowEntries = getWorkflowMap().getWorkflowObjects();
+        serverStatus.setPipelineTotal(pipelineEntries.size());
+        serverStatus.setWorkflowTotal(workflowEntries.size());
+      }
+
       for (HopServerObjectEntry entry : pipelineEntries) {
         IPipelineEngine<PipelineMeta> pipeline = getPipelineMap().getPipeline(entry);
+        if (pipeline == null) {
+          // Removed in the meantime
+          continue;
+        }
         String statusDescription = pipeline.getStatusDescription();
 
         HopServerPipelineStatus pipelineStatus =
@@ -141,8 +188,11 @@ public class GetStatusServlet extends BaseHttpServlet implements IHopServerPlugi
         serverStatus.getPipelineStatusList().add(pipelineStatus);
       }
 
-      for (HopServerObjectEntry entry : actions) {
+      for (HopServerObjectEntry entry : workflowEntries) {
         IWorkflowEngine<WorkflowMeta> workflow = getWorkflowMap().getWorkflow(entry);
+        if (workflow == null) {
+          continue;
+        }
         String status = workflow.getStatusDescription();
         HopServerWorkflowStatus workflowStatus =
             new HopServerWorkflowStatus(entry.getName(), entry.getId(), status);
@@ -169,6 +219,9 @@ public class GetStatusServlet extends BaseHttpServlet implements IHopServerPlugi
         out.println(jsonString);
       }
     } else {
+      List<HopServerObjectEntry> pipelineEntries = getPipelineMap().getPipelineObjects();
+      List<HopServerObjectEntry> actions = getWorkflowMap().getWorkflowObjects();
+
       out.println("<HTML>");
       out.println(
           "<HEAD><TITLE>"
@@ -1190,6 +1243,63 @@ public class GetStatusServlet extends BaseHttpServlet implements IHopServerPlugi
     }
   }
 
+  /**
+   * @return A weak entity tag which changes when a pipeline or workflow is added, removed or
+   *     changes state
+   */
+  String getETag() {
+    return "W/\""
+        + getPipelineMap().getStatusIndex().getTag()
+        + "-"
+        + getWorkflowMap().getStatusIndex().getTag()
+        + "\"";
+  }
+
+  /**
+   * Compare the tags of an If-None-Match header with the weak comparison of RFC 9110.
+   *
+   * @param ifNoneMatch The header value, a comma separated list of tags or *
+   * @param eTag The current tag
+   * @return true if the client already has the current status
+   */
+  static boolean matchesETag(String ifNoneMatch, String eTag) {
+    if (StringUtils.isEmpty(ifNoneMatch)) {
+      return false;
+    }
+    String opaqueTag = StringUtils.removeStart(eTag, "W/");
+    for (String tag : ifNoneMatch.split(",")) {
+      tag = tag.trim();
+      if ("*".equals(tag) || opaqueTag.equals(StringUtils.removeStart(tag, "W/"))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isPageRequested(HttpServletRequest request) {
+    return request.getParameter(PARAMETER_STATE) != null
+        || request.getParameter(PARAMETER_NAME) != null
+        || request.getParameter(PARAMETER_OFFSET) != null
+        || request.getParameter(PARAMETER_LIMIT) != null;
+  }
+
+  /**
+   * @param stateParameter A comma separated list of states like "running,waiting"
+   * @return The states to list or an empty list for all states
+   */
+  private static List<HopServerObjectIndex.State> getStates(String stateParameter) {
+    List<HopServerObjectIndex.State> states = new ArrayList<>();
+    if (StringUtils.isNotEmpty(stateParameter)) {
+      for (String name : stateParameter.split(",")) {
+        HopServerObjectIndex.State state = HopServerObjectIndex.State.lookup(name);
+        if (state != null) {
+          states.add(state);
+        }
+      }
+    }
+    return states;
+  }
+
   private static void getSystemInfo(HopServerStatus serverStatus) {
     OperatingSystemMXBean operatingSystemMXBean =
         java.lang.management.ManagementFactory.getOperatingSystemMXBean();
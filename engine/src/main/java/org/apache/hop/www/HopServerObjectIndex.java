@@ -0,0 +1,260 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.www;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import lombok.Getter;
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * Keeps track of the state of the pipelines or workflows on a Hop server. The index is updated by
+ * the pipeline and workflow maps and by the execution listeners of the engines. This allows the
+ * status of the server to be listed page by page, newest first, without asking every engine that
+ * ever ran on the server for its status.
+ *
+ * <p>Every change increases the version of the index. Clients can use it to find out if anything
+ * changed since the previous time they looked.
+ */
+public class HopServerObjectIndex {
+
+  /** The coarse state of a pipeline or workflow on the server */
+  public enum State {
+    WAITING,
+    RUNNING,
+    FINISHED,
+    STOPPED;
+
+    /**
+     * @param name The name of the state, case-insensitive
+     * @return The state or null if the name isn't known
+     */
+    public static State lookup(String name) {
+      for (State state : values()) {
+        if (state.name().equalsIgnoreCase(StringUtils.trim(name))) {
+          return state;
+        }
+      }
+      return null;
+    }
+  }
+
+  private final String instanceId;
+  private final Map<HopServerObjectEntry, IndexEntry> entries;
+  private final Map<State, NavigableMap<Long, IndexEntry>> stateEntries;
+  private long sequence;
+  private long version;
+
+  public HopServerObjectIndex() {
+    instanceId = UUID.randomUUID().toString().substring(0, 8);
+    entries = new HashMap<>();
+    stateEntries = new EnumMap<>(State.class);
+    for (State state : State.values()) {
+      stateEntries.put(state, new TreeMap<>());
+    }
+  }
+
+  /**
+   * Add an object to the index. An object which is already in the index is replaced and becomes the
+   * newest one.
+   *
+   * @param key The object to add
+   * @param state The current state of the object
+   * @return The index entry to update the state of the object with
+   */
+  public synchronized IndexEntry add(HopServerObjectEntry key, State state) {
+    remove(key);
+    IndexEntry entry = new IndexEntry(key, ++sequence, state);
+    entries.put(key, entry);
+    stateEntries.get(state).put(entry.sequence, entry);
+    version++;
+    return entry;
+  }
+
+  /**
+   * @param key The object to remove from the index
+   */
+  public synchronized void remove(HopServerObjectEntry key) {
+    IndexEntry entry = entries.remove(key);
+    if (entry != null) {
+      stateEntries.get(entry.state).remove(entry.sequence);
+      version++;
+    }
+  }
+
+  /**
+   * Change the state of an object. Entries which were removed or replaced in the meantime are
+   * ignored.
+   *
+   * @param entry The index entry of the object
+   * @param state The new state of the object
+   */
+  public synchronized void setState(IndexEntry entry, State state) {
+    if (entries.get(entry.key) != entry || entry.state == state) {
+      return;
+    }
+    stateEntries.get(entry.state).remove(entry.sequence);
+    entry.state = state;
+    stateEntries.get(state).put(entry.sequence, entry);
+    version++;
+  }
+
+  /** Signal a change in the status of an object which doesn't change its state, like a pause */
+  public synchronized void touch() {
+    version++;
+  }
+
+  /**
+   * @return The version of the index, increased with every change
+   */
+  public synchronized long getVersion() {
+    return version;
+  }
+
+  /**
+   * @return A tag which changes whenever the index changes, also across server restarts
+   */
+  public synchronized String getTag() {
+    return instanceId + "." + version;
+  }
+
+  /**
+   * @param state The state to count
+   * @return The number of objects in the given state
+   */
+  public synchronized int size(State state) {
+    return stateEntries.get(state).size();
+  }
+
+  /**
+   * @return The number of objects in the index
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * List the objects in the index, newest first.
+   *
+   * @param states The states to list or null or empty for all states
+   * @param nameFilter Only list objects with a name containing this text, case-insensitive. Null or
+   *     empty for all objects.
+   * @param offset The number of matching objects to skip
+   * @param limit The maximum number of objects to return or a negative number for all
+   * @return The requested page of objects and the total number of matching objects
+   */
+  public synchronized Page getPage(
+      Collection<State> states, String nameFilter, int offset, int limit) {
+    Set<State> selected =
+        states == null || states.isEmpty() ? EnumSet.allOf(State.class) : EnumSet.copyOf(states);
+    String filter = StringUtils.isEmpty(nameFilter) ? null : nameFilter.toLowerCase(Locale.ROOT);
+
+    // Merge the newest first iterators of the selected states
+    //
+    List<Iterator<IndexEntry>> iterators = new ArrayList<>();
+    List<IndexEntry> heads = new ArrayList<>();
+    for (State state : selected) {
+      Iterator<IndexEntry> iterator = stateEntries.get(state).descendingMap().values().iterator();
+      iterators.add(iterator);
+      heads.add(iterator.hasNext() ? iterator.next() : null);
+    }
+
+    List<HopServerObjectEntry> page = new ArrayList<>();
+    int total = 0;
+    while (true) {
+      int newest = -1;
+      for (int i = 0; i < heads.size(); i++) {
+        IndexEntry head = heads.get(i);
+        if (head != null && (newest < 0 || head.sequence > heads.get(newest).sequence)) {
+          newest = i;
+        }
+      }
+      if (newest < 0) {
+        break;
+      }
+      IndexEntry entry = heads.get(newest);
+      Iterator<IndexEntry> iterator = iterators.get(newest);
+      heads.set(newest, iterator.hasNext() ? iterator.next() : null);
+
+      if (filter != null && !entry.lowerCaseName.contains(filter)) {
+        continue;
+      }
+      if (total >= offset && (limit < 0 || page.size() < limit)) {
+        page.add(entry.key);
+      }
+      total++;
+
+      // Without a name filter the total is known up front
+      //
+      if (filter == null && limit >= 0 && page.size() >= limit) {
+        total = 0;
+        for (State state : selected) {
+          total += stateEntries.get(state).size();
+        }
+        break;
+      }
+    }
+    return new Page(page, total);
+  }
+
+  /** The position of a single object in the index */
+  public static class IndexEntry {
+    private final HopServerObjectEntry key;
+    private final long sequence;
+    private final String lowerCaseName;
+    private State state;
+
+    private IndexEntry(HopServerObjectEntry key, long sequence, State state) {
+      this.key = key;
+      this.sequence = sequence;
+      this.lowerCaseName = StringUtils.defaultString(key.getName()).toLowerCase(Locale.ROOT);
+      this.state = state;
+    }
+
+    public HopServerObjectEntry getKey() {
+      return key;
+    }
+
+    public State getState() {
+      return state;
+    }
+  }
+
+  /** A page of objects from the index */
+  @Getter
+  public static class Page {
+    private final List<HopServerObjectEntry> entries;
+    private final int total;
+
+    public Page(List<HopServerObjectEntry> entries, int total) {
+      this.entries = entries;
+      this.total = total;
+    }
+  }
+}
@@ -36,6 +36,13 @@ public class HopServerStatus {
   @Getter @Setter private String errorDescription;
   @Getter @Setter private List<HopServerPipelineStatus> pipelineStatusList;
   @Getter @Setter private List<HopServerWorkflowStatus> workflowStatusList;
+
+  /** The number of pipelines matching the request, also the ones not on the requested page */
+  @Getter @Setter private int pipelineTotal;
+
+  /** The number of workflows matching the request, also the ones not on the requested page */
+  @Getter @Setter private int workflowTotal;
+
   @Getter @Setter private long memoryFree;
   @Getter @Setter private long memoryTotal;
   @Getter @Setter private int cpuCores;
@@ -93,6 +100,9 @@ public class HopServerStatus {
     xml.append(XmlHandler.addTagValue("os_version", osVersion));
     xml.append(XmlHandler.addTagValue("os_arch", osArchitecture));
 
+    xml.append(XmlHandler.addTagValue("pipeline_total", pipelineTotal));
+    xml.append(XmlHandler.addTagValue("workflow_total", workflowTotal));
+
     xml.append("  <pipeline_status_list>").append(Const.CR);
     for (HopServerPipelineStatus pipelineStatus : pipelineStatusList) {
       xml.append("    ").append(pipelineStatus.getXml()).append(Const.CR);
@@ -147,6 +157,11 @@ public class HopServerStatus {
           XmlHandler.getSubNodeByNr(listWorkflowsNode, HopServerWorkflowStatus.XML_TAG, i);
       workflowStatusList.add(new HopServerWorkflowStatus(jobStatusNode));
     }
+
+    // Older servers don't page the status lists
+    //
+    pipelineTotal = Const.toInt(XmlHandler.getTagValue(statusNode, "pipeline_total"), nrPipelines);
+    workflowTotal = Const.toInt(XmlHandler.getTagValue(statusNode, "workflow_total"), nrWorkflows);
   }
 
   public static HopServerStatus fromXml(String xml) throws HopException {
@@ -130,6 +130,9 @@ public class PausePipelineServlet extends BaseHttpServlet implements IHopServerP
               BaseMessages.getString(
                   PKG, "PausePipelineServlet.PipelinePauseRequested", pipelineName);
         }
+        // Pausing doesn't change the state in the status index but it does change the status
+        //
+        getPipelineMap().statusChanged();
 
         if (useXML) {
           out.println(new WebResult(WebResult.STRING_OK, message).getXml());
@@ -31,10 +31,13 @@ import org.apache.hop.pipeline.engine.IPipelineEngine;
 public class PipelineMap {
   private final Map<HopServerObjectEntry, PipelineData> pipelineMap;
 
+  private final HopServerObjectIndex statusIndex;
+
   private HopServerConfig hopServerConfig;
 
   public PipelineMap() {
     pipelineMap = new ConcurrentHashMap<>();
+    statusIndex = new HopServerObjectIndex();
   }
 
   /**
@@ -52,6 +55,7 @@ public class PipelineMap {
       PipelineConfiguration pipelineConfiguration) {
     HopServerObjectEntry entry = new HopServerObjectEntry(pipelineName, containerObjectId);
     pipelineMap.put(entry, new PipelineData(pipeline, pipelineConfiguration));
+    indexPipeline(entry, pipeline);
   }
 
   public void registerPipeline(Pipeline pipeline, PipelineConfiguration pipelineConfiguration) {
@@ -59,6 +63,35 @@ public class PipelineMap {
     HopServerObjectEntry entry =
         new HopServerObjectEntry(pipeline.getPipelineMeta().getName(), pipeline.getContainerId());
     pipelineMap.put(entry, new PipelineData(pipeline, pipelineConfiguration));
+    indexPipeline(entry, pipeline);
+  }
+
+  /** Keep the status index up to date with the state of the pipeline */
+  private void indexPipeline(HopServerObjectEntry entry, IPipelineEngine<PipelineMeta> pipeline) {
+    if (pipeline == null) {
+      statusIndex.add(entry, HopServerObjectIndex.State.WAITING);
+      return;
+    }
+    HopServerObjectIndex.IndexEntry indexEntry = statusIndex.add(entry, getState(pipeline));
+    pipeline.addExecutionStartedListener(
+        engine -> statusIndex.setState(indexEntry, HopServerObjectIndex.State.RUNNING));
+    pipeline.addExecutionFinishedListener(
+        engine -> statusIndex.setState(indexEntry, getState(engine)));
+    pipeline.addExecutionStoppedListener(
+        engine -> statusIndex.setState(indexEntry, HopServerObjectIndex.State.STOPPED));
+  }
+
+  private static HopServerObjectIndex.State getState(IPipelineEngine<PipelineMeta> pipeline) {
+    if (pipeline.isStopped()) {
+      return HopServerObjectIndex.State.STOPPED;
+    }
+    if (pipeline.isFinished()) {
+      return HopServerObjectIndex.State.FINISHED;
+    }
+    if (pipeline.isRunning()) {
+      return HopServerObjectIndex.State.RUNNING;
+    }
+    return HopServerObjectIndex.State.WAITING;
   }
 
   /**
@@ -114,6 +147,7 @@ public class PipelineMap {
    */
   public void removePipeline(HopServerObjectEntry entry) {
     pipelineMap.remove(entry);
+    statusIndex.remove(entry);
   }
 
   public List<HopServerObjectEntry> getPipelineObjects() {
@@ -129,6 +163,21 @@ public class PipelineMap {
     return null;
   }
 
+  /**
+   * Signal a change in the status of a pipeline which the execution listeners don't report, like
+   * pausing or resuming it.
+   */
+  public void statusChanged() {
+    statusIndex.touch();
+  }
+
+  /**
+   * @return The index with the state of the pipelines in this map
+   */
+  public HopServerObjectIndex getStatusIndex() {
+    return statusIndex;
+  }
+
   /**
    * @return the hopServerConfig
    */
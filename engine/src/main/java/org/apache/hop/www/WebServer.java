@@ -284,6 +284,7 @@ public class WebServer {
           new ServletContextHandler(getContextPath(servlet), ServletContextHandler.SESSIONS);
       contexts.addHandler(servletContext);
       ServletHolder servletHolder = new ServletHolder((Servlet) servlet);
+      servletHolder.setAsyncSupported(true);
       servletContext.addServlet(servletHolder, "/*");
       servletContext.setAttribute("GraphicsEnvironment", graphicsEnvironment);
     }
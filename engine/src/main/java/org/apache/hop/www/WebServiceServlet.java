@@ -22,14 +22,12 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.Serial;
 import java.nio.charset.StandardCharsets;
 import java.util.Enumeration;
 import java.util.UUID;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.annotations.HopServerServlet;
@@ -54,6 +52,7 @@ import org.apache.hop.pipeline.engine.PipelineEngineFactory;
 import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
 import org.apache.hop.pipeline.transform.RowAdapter;
 import org.apache.hop.www.service.WebService;
+import org.apache.hop.www.service.WebServicePipelinePool;
 
 @HopServerServlet(id = "webService", name = "Output the content of a field in a transform")
 public class WebServiceServlet extends BaseHttpServlet implements IHopServerPlugin {
@@ -69,6 +68,57 @@ public class WebServiceServlet extends BaseHttpServlet implements IHopServerPlug
     super(pipelineMap);
   }
 
+  @Override
+  public void setup(PipelineMap pipelineMap, WorkflowMap workflowMap) {
+    super.setup(pipelineMap, workflowMap);
+
+    IHopMetadataProvider metadataProvider = serverConfig.getMetadataProvider();
+    if (metadataProvider == null) {
+      return;
+    }
+
+    // Parse the pipelines of the web services which want to be warmed up in the background.
+    // This way the server starts as fast as before.
+    //
+    Thread warmupThread = new Thread(() -> warmupWebServices(metadataProvider), "hop-web-services");
+    warmupThread.setDaemon(true);
+    warmupThread.start();
+  }
+
+  private void warmupWebServices(IHopMetadataProvider metadataProvider) {
+    try {
+      for (WebService webService : metadataProvider.getSerializer(WebService.class).loadAll()) {
+        int poolSize = getPipelinePoolSize(webService);
+        if (!webService.isEnabled() || !webService.isWarmingUp() || poolSize <= 0) {
+          continue;
+        }
+        try {
+          WebServicePipelinePool.getInstance()
+              .warmup(
+                  webService.getName(),
+                  variables.resolve(webService.getFilename()),
+                  poolSize,
+                  metadataProvider,
+                  variables);
+        } catch (Exception e) {
+          logError("Error warming up web service '" + webService.getName() + "'", e);
+        }
+      }
+    } catch (Exception e) {
+      logError("Error warming up the web services", e);
+    }
+  }
+
+  /**
+   * Pipelines listed in the status map stay referenced after the request so those are never pooled.
+   */
+  private int getPipelinePoolSize(WebService webService) {
+    if (webService.isListingStatus()) {
+      return 0;
+    }
+    return Const.toInt(variables.resolve(webService.getPipelinePoolSize()), 0);
+  }
+
   @Override
   protected void doPost(HttpServletRequest request, HttpServletResponse response)
       throws ServletException, IOException {
@@ -130,9 +180,7 @@ public class WebServiceServlet extends BaseHttpServlet implements IHopServerPlug
 
       String bodyContent = "";
       if (StringUtils.isNotEmpty(bodyContentVariable)) {
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        IOUtils.copy(request.getInputStream(), out);
-        bodyContent = out.toString(StandardCharsets.UTF_8);
+        bodyContent = new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
       }
 
       String headerContent = "";
@@ -166,112 +214,125 @@ public class WebServiceServlet extends BaseHttpServlet implements IHopServerPlug
       // Load and start the pipeline
       // Output the data to the response output stream...
       //
-      PipelineMeta pipelineMeta = new PipelineMeta(filename, metadataProvider, variables);
-      IPipelineEngine<PipelineMeta> pipeline;
-      if (StringUtils.isEmpty(runConfigurationName)) {
-        pipeline = new LocalPipelineEngine(pipelineMeta, variables, servletLoggingObject);
-      } else {
-        pipeline =
-            PipelineEngineFactory.createPipelineEngine(
-                variables, runConfigurationName, metadataProvider, pipelineMeta);
-      }
-      pipeline.setContainerId(serverObjectId);
-
-      if (StringUtils.isNotEmpty(bodyContentVariable)) {
-        pipeline.setVariable(bodyContentVariable, Const.NVL(bodyContent, ""));
-      }
-
-      if (StringUtils.isNotEmpty(headerContentVariable)) {
-        pipeline.setVariable(headerContentVariable, Const.NVL(headerContent, ""));
-      }
-
-      // Set all the other parameters as variables/parameters...
+      // A parsed pipeline is taken from the pool of the web service if there is one.
       //
-      String[] pipelineParameters = pipelineMeta.listParameters();
-      pipeline.copyParametersFromDefinitions(pipelineMeta);
-      for (String requestParameter : request.getParameterMap().keySet()) {
-        if ("service".equals(requestParameter)) {
-          continue;
-        }
-        String requestParameterValue = request.getParameter(requestParameter);
-        if (Const.indexOfString(requestParameter, pipelineParameters) < 0) {
-          pipeline.setVariable(requestParameter, Const.NVL(requestParameterValue, ""));
+      try (WebServicePipelinePool.Lease lease =
+          WebServicePipelinePool.getInstance()
+              .borrow(
+                  webServiceName,
+                  filename,
+                  getPipelinePoolSize(webService),
+                  metadataProvider,
+                  variables)) {
+        PipelineMeta pipelineMeta = lease.getPipelineMeta();
+        IPipelineEngine<PipelineMeta> pipeline;
+        if (StringUtils.isEmpty(runConfigurationName)) {
+          pipeline = new LocalPipelineEngine(pipelineMeta, variables, servletLoggingObject);
         } else {
-          pipeline.setParameterValue(requestParameter, Const.NVL(requestParameterValue, ""));
+          pipeline =
+              PipelineEngineFactory.createPipelineEngine(
+                  variables, runConfigurationName, metadataProvider, pipelineMeta);
         }
-      }
-      pipeline.activateParameters(pipeline);
-
-      // See if we need to add this to the status map...
-      //
-      if (webService.isListingStatus()) {
-        PipelineExecutionConfiguration pipelineExecutionConfiguration =
-            new PipelineExecutionConfiguration();
-        PipelineConfiguration pipelineConfiguration =
-            new PipelineConfiguration(
-                pipelineMeta,
-                pipelineExecutionConfiguration,
-                new SerializableMetadataProvider(metadataProvider));
-        getPipelineMap()
-            .addPipeline(pipelineMeta.getName(), serverObjectId, pipeline, pipelineConfiguration);
-      }
+        pipeline.setContainerId(serverObjectId);
 
-      // Allocate the threads...
-      pipeline.prepareExecution();
+        if (StringUtils.isNotEmpty(bodyContentVariable)) {
+          pipeline.setVariable(bodyContentVariable, Const.NVL(bodyContent, ""));
+        }
 
-      final OutputStream outputStream = response.getOutputStream();
+        if (StringUtils.isNotEmpty(headerContentVariable)) {
+          pipeline.setVariable(headerContentVariable, Const.NVL(headerContent, ""));
+        }
 
-      // Add the row listener to the transform/field...
-      // TODO: add to all copies
-      //
-      IEngineComponent component = pipeline.findComponent(transformName, 0);
-      component.addRowListener(
-          new RowAdapter() {
-            @Override
-            public void rowWrittenEvent(IRowMeta rowMeta, Object[] row)
-                throws HopTransformException {
-              try {
-                response.setStatus(rowMeta.getInteger(row, statusCodeField, 200L).intValue());
-
-                // Get the field index and metadata to detect field type
-                int fieldIndex = rowMeta.indexOfValue(fieldName);
-                if (fieldIndex < 0) {
-                  throw new HopTransformException("Field '" + fieldName + "' not found in row");
-                }
+        // Set all the other parameters as variables/parameters...
+        //
+        String[] pipelineParameters = pipelineMeta.listParameters();
+        pipeline.copyParametersFromDefinitions(pipelineMeta);
+        for (String requestParameter : request.getParameterMap().keySet()) {
+          if ("service".equals(requestParameter)) {
+            continue;
+          }
+          String requestParameterValue = request.getParameter(requestParameter);
+          if (Const.indexOfString(requestParameter, pipelineParameters) < 0) {
+            pipeline.setVariable(requestParameter, Const.NVL(requestParameterValue, ""));
+          } else {
+            pipeline.setParameterValue(requestParameter, Const.NVL(requestParameterValue, ""));
+          }
+        }
+        pipeline.activateParameters(pipeline);
+
+        // See if we need to add this to the status map...
+        //
+        if (webService.isListingStatus()) {
+          PipelineExecutionConfiguration pipelineExecutionConfiguration =
+              new PipelineExecutionConfiguration();
+          PipelineConfiguration pipelineConfiguration =
+              new PipelineConfiguration(
+                  pipelineMeta,
+                  pipelineExecutionConfiguration,
+                  new SerializableMetadataProvider(metadataProvider));
+          getPipelineMap()
+              .addPipeline(pipelineMeta.getName(), serverObjectId, pipeline, pipelineConfiguration);
+        }
 
-                IValueMeta valueMeta = rowMeta.getValueMeta(fieldIndex);
+        // Allocate the threads...
+        pipeline.prepareExecution();
+
+        final OutputStream outputStream = response.getOutputStream();
+
+        // Add the row listener to all the copies of the transform.
+        // The copies share the listener so their rows are written one at a time.
+        //
+        RowAdapter rowListener =
+            new RowAdapter() {
+              @Override
+              public synchronized void rowWrittenEvent(IRowMeta rowMeta, Object[] row)
+                  throws HopTransformException {
+                try {
+                  response.setStatus(rowMeta.getInteger(row, statusCodeField, 200L).intValue());
+
+                  // Get the field index and metadata to detect field type
+                  int fieldIndex = rowMeta.indexOfValue(fieldName);
+                  if (fieldIndex < 0) {
+                    throw new HopTransformException("Field '" + fieldName + "' not found in row");
+                  }
 
-                // Check if field is binary type and handle accordingly
-                byte[] outputData;
-                if (valueMeta.getType() == IValueMeta.TYPE_BINARY) {
-                  // Binary output - get raw bytes without encoding conversion
-                  outputData = rowMeta.getBinary(row, fieldIndex);
-                  if (outputData == null) {
-                    outputData = new byte[0];
+                  IValueMeta valueMeta = rowMeta.getValueMeta(fieldIndex);
+
+                  // Check if field is binary type and handle accordingly
+                  byte[] outputData;
+                  if (valueMeta.getType() == IValueMeta.TYPE_BINARY) {
+                    // Binary output - get raw bytes without encoding conversion
+                    outputData = rowMeta.getBinary(row, fieldIndex);
+                    if (outputData == null) {
+                      outputData = new byte[0];
+                    }
+                  } else {
+                    // Text output - convert to string and encode as UTF-8
+                    String outputString = rowMeta.getString(row, fieldName, "");
+                    outputData = outputString.getBytes(StandardCharsets.UTF_8);
                   }
-                } else {
-                  // Text output - convert to string and encode as UTF-8
-                  String outputString = rowMeta.getString(row, fieldName, "");
-                  outputData = outputString.getBytes(StandardCharsets.UTF_8);
-                }
 
-                outputStream.write(outputData);
-                outputStream.flush();
-              } catch (HopValueException e) {
-                throw new HopTransformException(
-                    "Error getting output field '"
-                        + fieldName
-                        + " from row: "
-                        + rowMeta.toStringMeta(),
-                    e);
-              } catch (IOException e) {
-                throw new HopTransformException("Error writing output of '" + fieldName + "'", e);
+                  outputStream.write(outputData);
+                  outputStream.flush();
+                } catch (HopValueException e) {
+                  throw new HopTransformException(
+                      "Error getting output field '"
+                          + fieldName
+                          + " from row: "
+                          + rowMeta.toStringMeta(),
+                      e);
+                } catch (IOException e) {
+                  throw new HopTransformException("Error writing output of '" + fieldName + "'", e);
+                }
               }
-            }
-          });
+            };
+        for (IEngineComponent component : pipeline.getComponentCopies(transformName)) {
+          component.addRowListener(rowListener);
+        }
 
-      pipeline.startThreads();
-      pipeline.waitUntilFinished();
+        pipeline.startThreads();
+        pipeline.waitUntilFinished();
+      }
 
     } catch (Exception e) {
       throw new ServletException("Error producing web service output", e);
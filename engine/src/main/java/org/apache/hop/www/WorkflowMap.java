@@ -32,11 +32,14 @@ public class WorkflowMap {
   private final Map<HopServerObjectEntry, IWorkflowEngine<WorkflowMeta>> workflowMap;
   private final Map<HopServerObjectEntry, WorkflowConfiguration> configurationMap;
 
+  private final HopServerObjectIndex statusIndex;
+
   private HopServerConfig hopServerConfig;
 
   public WorkflowMap() {
     workflowMap = new ConcurrentHashMap<>();
     configurationMap = new ConcurrentHashMap<>();
+    statusIndex = new HopServerObjectIndex();
   }
 
   public synchronized void addWorkflow(
@@ -57,6 +60,7 @@ public class WorkflowMap {
       HopServerObjectEntry entry = new HopServerObjectEntry(workflowName, serverObjectId);
       workflowMap.put(entry, workflow);
       configurationMap.put(entry, workflowConfiguration);
+      indexWorkflow(entry, workflow);
     }
   }
 
@@ -69,6 +73,7 @@ public class WorkflowMap {
       if (entry != null) {
         workflowMap.put(entry, workflow);
         configurationMap.put(entry, workflowConfiguration);
+        indexWorkflow(entry, workflow);
       } else {
         addWorkflow(
             workflow.getWorkflowName(), workflow.getContainerId(), workflow, workflowConfiguration);
@@ -76,6 +81,34 @@ public class WorkflowMap {
     }
   }
 
+  /** Keep the status index up to date with the state of the workflow */
+  private void indexWorkflow(HopServerObjectEntry entry, IWorkflowEngine<WorkflowMeta> workflow) {
+    if (workflow == null) {
+      statusIndex.add(entry, HopServerObjectIndex.State.WAITING);
+      return;
+    }
+    HopServerObjectIndex.IndexEntry indexEntry = statusIndex.add(entry, getState(workflow));
+    workflow.addExecutionStartedListener(
+        engine -> statusIndex.setState(indexEntry, HopServerObjectIndex.State.RUNNING));
+    workflow.addExecutionFinishedListener(
+        engine -> statusIndex.setState(indexEntry, getState(engine)));
+    workflow.addExecutionStoppedListener(
+        engine -> statusIndex.setState(indexEntry, HopServerObjectIndex.State.STOPPED));
+  }
+
+  private static HopServerObjectIndex.State getState(IWorkflowEngine<WorkflowMeta> workflow) {
+    if (workflow.isStopped()) {
+      return HopServerObjectIndex.State.STOPPED;
+    }
+    if (workflow.isFinished()) {
+      return HopServerObjectIndex.State.FINISHED;
+    }
+    if (workflow.isActive()) {
+      return HopServerObjectIndex.State.RUNNING;
+    }
+    return HopServerObjectIndex.State.WAITING;
+  }
+
   private HopServerObjectEntry getEntry(IWorkflowEngine<WorkflowMeta> workflow) {
     return new HopServerObjectEntry(workflow.getWorkflowName(), workflow.getContainerId());
   }
@@ -132,6 +165,7 @@ public class WorkflowMap {
     synchronized (workflowMap) {
       workflowMap.remove(entry);
       configurationMap.remove(entry);
+      statusIndex.remove(entry);
     }
   }
 
@@ -152,6 +186,13 @@ public class WorkflowMap {
     }
   }
 
+  /**
+   * @return The index with the state of the workflows in this map
+   */
+  public HopServerObjectIndex getStatusIndex() {
+    return statusIndex;
+  }
+
   /**
    * @return the hopServerConfig
    */
@@ -48,6 +48,12 @@ public class WebService extends HopMetadataBase implements IHopMetadata {
   @HopMetadataProperty private String runConfigurationName;
   @HopMetadataProperty private String headerContentVariable;
 
+  /** The maximum number of parsed pipelines to keep around for this service, empty or 0 is none */
+  @HopMetadataProperty private String pipelinePoolSize;
+
+  /** Parse the pooled pipelines when the server starts rather than on the first requests */
+  @HopMetadataProperty private boolean warmingUp;
+
   public WebService() {}
 
   public WebService(
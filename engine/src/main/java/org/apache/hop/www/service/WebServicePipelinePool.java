@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.www.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.core.vfs.HopVfs;
+import org.apache.hop.metadata.api.IHopMetadataProvider;
+import org.apache.hop.pipeline.PipelineMeta;
+
+/**
+ * Keeps the parsed pipelines of web services around so that a request doesn't need to load and
+ * parse the pipeline file. A pooled pipeline is only ever used by a single request at a time since
+ * the caches in the pipeline metadata are not thread-safe. The pool of a web service is discarded
+ * when the pipeline file changes.
+ *
+ * <p>A request never executes the pooled pipeline itself but gets its own copy of the transforms,
+ * hops and parameters. Transforms which change their metadata during the execution and the status
+ * of the request therefore don't affect later requests.
+ */
+public class WebServicePipelinePool {
+
+  private static final WebServicePipelinePool instance = new WebServicePipelinePool();
+
+  private final Map<String, ServicePool> servicePools;
+
+  private WebServicePipelinePool() {
+    servicePools = new ConcurrentHashMap<>();
+  }
+
+  public static WebServicePipelinePool getInstance() {
+    return instance;
+  }
+
+  /**
+   * Get a pipeline for exclusive use by a web service request. Close the lease to hand the pipeline
+   * back to the pool.
+   *
+   * @param serviceName The name of the web service
+   * @param filename The resolved filename of the pipeline
+   * @param poolSize The maximum number of idle pipelines to keep. 0 or less means no pooling.
+   * @param metadataProvider The metadata provider to load the pipeline with
+   * @param variables The variables to load the pipeline with
+   * @return The pipeline lease
+   * @throws HopException In case the pipeline couldn't be loaded
+   */
+  public Lease borrow(
+      String serviceName,
+      String filename,
+      int poolSize,
+      IHopMetadataProvider metadataProvider,
+      IVariables variables)
+      throws HopException {
+    if (poolSize <= 0) {
+      return new Lease(null, new PipelineMeta(filename, metadataProvider, variables));
+    }
+    ServicePool servicePool = getServicePool(serviceName, filename, poolSize);
+    PipelineMeta pipelineMeta = servicePool.poll();
+    if (pipelineMeta == null) {
+      pipelineMeta = new PipelineMeta(filename, metadataProvider, variables);
+    }
+    return new Lease(servicePool, pipelineMeta);
+  }
+
+  /**
+   * Parse pipelines for a web service up front so the first requests don't need to.
+   *
+   * @param serviceName The name of the web service
+   * @param filename The resolved filename of the pipeline
+   * @param poolSize The number of pipelines to prepare
+   * @param metadataProvider The metadata provider to load the pipelines with
+   * @param variables The variables to load the pipelines with
+   * @throws HopException In case a pipeline couldn't be loaded
+   */
+  public void warmup(
+      String serviceName,
+      String filename,
+      int poolSize,
+      IHopMetadataProvider metadataProvider,
+      IVariables variables)
+      throws HopException {
+    if (poolSize <= 0) {
+      return;
+    }
+    ServicePool servicePool = getServicePool(serviceName, filename, poolSize);
+    while (servicePool.size() < poolSize) {
+      if (!servicePool.offer(new PipelineMeta(filename, metadataProvider, variables))) {
+        break;
+      }
+    }
+  }
+
+  /**
+   * @param serviceName The name of the web service
+   * @return The number of idle pipelines kept for the web service
+   */
+  public int getIdleCount(String serviceName) {
+    ServicePool servicePool = servicePools.get(serviceName);
+    return servicePool == null ? 0 : servicePool.size();
+  }
+
+  /** Discard all the pooled pipelines */
+  public void clear() {
+    servicePools.clear();
+  }
+
+  private ServicePool getServicePool(String serviceName, String filename, int poolSize) {
+    long lastModified = getLastModified(filename);
+    return servicePools.compute(
+        serviceName,
+        (name, servicePool) -> {
+          if (servicePool == null
+              || !servicePool.filename.equals(filename)
+              || servicePool.lastModified != lastModified
+              || servicePool.poolSize != poolSize) {
+            return new ServicePool(filename, lastModified, poolSize);
+          }
+          return servicePool;
+        });
+  }
+
+  private static long getLastModified(String filename) {
+    try {
+      FileObject fileObject = HopVfs.getFileObject(filename);
+      if (fileObject.exists()) {
+        return fileObject.getContent().getLastModifiedTime();
+      }
+    } catch (Exception e) {
+      // Loading the pipeline will report the problem
+    }
+    return -1L;
+  }
+
+  /** A pipeline borrowed from the pool. It goes back to the pool when the lease is closed. */
+  public class Lease implements AutoCloseable {
+    private final ServicePool servicePool;
+    private final PipelineMeta pooledMeta;
+    private final PipelineMeta pipelineMeta;
+
+    private Lease(ServicePool servicePool, PipelineMeta pooledMeta) {
+      this.servicePool = servicePool;
+      this.pooledMeta = pooledMeta;
+      if (servicePool == null) {
+        this.pipelineMeta = pooledMeta;
+      } else {
+        this.pipelineMeta = (PipelineMeta) pooledMeta.realClone(false);
+      }
+    }
+
+    /**
+     * @return The pipeline for this request only
+     */
+    public PipelineMeta getPipelineMeta() {
+      return pipelineMeta;
+    }
+
+    @Override
+    public void close() {
+      // Pipelines of an outdated pool are simply dropped
+      //
+      if (servicePool != null && servicePools.containsValue(servicePool)) {
+        servicePool.offer(pooledMeta);
+      }
+    }
+  }
+
+  private static class ServicePool {
+    private final String filename;
+    private final long lastModified;
+    private final int poolSize;
+    private final ConcurrentLinkedDeque<PipelineMeta> idle;
+    private final AtomicInteger idleCount;
+
+    private ServicePool(String filename, long lastModified, int poolSize) {
+      this.filename = filename;
+      this.lastModified = lastModified;
+      this.poolSize = poolSize;
+      this.idle = new ConcurrentLinkedDeque<>();
+      this.idleCount = new AtomicInteger();
+    }
+
+    private PipelineMeta poll() {
+      PipelineMeta pipelineMeta = idle.pollFirst();
+      if (pipelineMeta != null) {
+        idleCount.decrementAndGet();
+      }
+      return pipelineMeta;
+    }
+
+    private boolean offer(PipelineMeta pipelineMeta) {
+      if (idleCount.incrementAndGet() > poolSize) {
+        idleCount.decrementAndGet();
+        return false;
+      }
+      idle.offerFirst(pipelineMeta);
+      return true;
+    }
+
+    private int size() {
+      return idleCount.get();
+    }
+  }
+}
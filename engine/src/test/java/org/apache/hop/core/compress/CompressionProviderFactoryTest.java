@@ -103,6 +103,8 @@ public class CompressionProviderFactoryTest {
             put("GZip", false);
             put("Snappy", false);
             put("Hadoop-snappy", false);
+            put("Zstd", false);
+            put("LZ4", false);
           }
         };
 
@@ -132,6 +134,8 @@ public class CompressionProviderFactoryTest {
             put("GZip", false);
             put("Snappy", false);
             put("Hadoop-snappy", false);
+            put("Zstd", false);
+            put("LZ4", false);
           }
         };
 
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.core.compress;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.apache.commons.io.IOUtils;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.compress.zstd.ZstdCompressionProvider;
+import org.junit.After;
+import org.junit.Test;
+
+public class ParallelBlockOutputStreamTest {
+
+  @After
+  public void tearDown() {
+    System.clearProperty(Const.HOP_COMPRESSION_THREADS);
+    System.clearProperty(Const.HOP_COMPRESSION_BLOCK_SIZE);
+  }
+
+  private static byte[] getTestData() {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 50000; i++) {
+      text.append(i).append(",customer-").append(i % 977).append(",2024-01-01\n");
+    }
+    return text.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static byte[] gzip(byte[] data, int length) throws IOException {
+    ByteArrayOutputStream member = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(member)) {
+      gzipOutputStream.write(data, 0, length);
+    }
+    return member.toByteArray();
+  }
+
+  @Test
+  public void testMultiMemberGzipRoundTrip() throws IOException {
+    byte[] data = getTestData();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (OutputStream outputStream =
+        new ParallelBlockOutputStream(out, ParallelBlockOutputStreamTest::gzip, 4, 10000)) {
+      // Mix single byte and array writes
+      outputStream.write(data[0]);
+      outputStream.write(data, 1, data.length - 1);
+    }
+
+    try (GZIPInputStream inputStream =
+        new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+      assertArrayEquals(data, IOUtils.toByteArray(inputStream));
+    }
+  }
+
+  @Test
+  public void testBlocksStayInOrder() throws IOException {
+    byte[] data = getTestData();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    // An identity "compression" makes the output identical to the input if the order is kept
+    try (OutputStream outputStream =
+        new ParallelBlockOutputStream(
+            out,
+            (block, length) -> {
+              byte[] copy = new byte[length];
+              System.arraycopy(block, 0, copy, 0, length);
+              return copy;
+            },
+            8,
+            777)) {
+      outputStream.write(data);
+      outputStream.flush();
+      outputStream.write(data);
+    }
+    byte[] result = out.toByteArray();
+    assertEquals(data.length * 2, result.length);
+    for (int i = 0; i < result.length; i++) {
+      assertEquals(data[i % data.length], result[i]);
+    }
+  }
+
+  @Test
+  public void testWriteWhileWorkerPoolGrows() throws Exception {
+    byte[] data = getTestData();
+    List<Callable<Void>> tasks = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      final int offset = t;
+      tasks.add(
+          () -> {
+            for (int i = 0; i < 8; i++) {
+              // Every stream asks for more worker threads than the previous ones
+              ByteArrayOutputStream out = new ByteArrayOutputStream();
+              try (OutputStream outputStream =
+                  new ParallelBlockOutputStream(
+                      out, ParallelBlockOutputStreamTest::gzip, 9 + i * 4 + offset, 1000)) {
+                outputStream.write(data, 0, 100000);
+              }
+              try (GZIPInputStream inputStream =
+                  new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+                assertEquals(100000, IOUtils.toByteArray(inputStream).length);
+              }
+            }
+            return null;
+          });
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+    try {
+      for (Future<Void> future : executor.invokeAll(tasks)) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testParallelZstdFrames() throws IOException {
+    System.setProperty(Const.HOP_COMPRESSION_THREADS, "4");
+    System.setProperty(Const.HOP_COMPRESSION_BLOCK_SIZE, "65536");
+
+    byte[] data = getTestData();
+    ZstdCompressionProvider provider = new ZstdCompressionProvider();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (OutputStream outputStream = provider.createOutputStream(out)) {
+      outputStream.write(data);
+    }
+
+    try (CompressionInputStream inputStream =
+        provider.createInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+      assertArrayEquals(data, IOUtils.toByteArray(inputStream));
+    }
+  }
+}
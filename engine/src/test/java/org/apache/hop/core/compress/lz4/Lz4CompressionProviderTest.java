@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.core.compress.lz4;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.apache.commons.io.IOUtils;
+import org.apache.hop.core.compress.CompressionPluginType;
+import org.apache.hop.core.compress.CompressionProviderFactory;
+import org.apache.hop.core.plugins.PluginRegistry;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+public class Lz4CompressionProviderTest {
+  @ClassRule public static RestoreHopEngineEnvironment env = new RestoreHopEngineEnvironment();
+
+  public static final String PROVIDER_NAME = "LZ4";
+
+  public CompressionProviderFactory factory = null;
+
+  @BeforeClass
+  public static void setUpBeforeClass() throws Exception {
+    PluginRegistry.addPluginType(CompressionPluginType.getInstance());
+    PluginRegistry.init();
+  }
+
+  @Before
+  public void setUp() {
+    factory = CompressionProviderFactory.getInstance();
+  }
+
+  @Test
+  public void testGetName() {
+    Lz4CompressionProvider provider =
+        (Lz4CompressionProvider) factory.getCompressionProviderByName(PROVIDER_NAME);
+    assertNotNull(provider);
+    assertEquals(PROVIDER_NAME, provider.getName());
+  }
+
+  @Test
+  public void testGetProviderAttributes() {
+    Lz4CompressionProvider provider =
+        (Lz4CompressionProvider) factory.getCompressionProviderByName(PROVIDER_NAME);
+    assertEquals("LZ4 frame compression", provider.getDescription());
+    assertTrue(provider.supportsInput());
+    assertTrue(provider.supportsOutput());
+    assertEquals("lz4", provider.getDefaultExtension());
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    Lz4CompressionProvider provider =
+        (Lz4CompressionProvider) factory.getCompressionProviderByName(PROVIDER_NAME);
+
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 10000; i++) {
+      text.append("line ").append(i).append(";some value;").append(i * 7).append('\n');
+    }
+    byte[] testBytes = text.toString().getBytes(StandardCharsets.UTF_8);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (Lz4CompressionOutputStream outStream = provider.createOutputStream(out)) {
+      outStream.write(testBytes);
+    }
+    assertTrue(out.size() < testBytes.length);
+
+    try (Lz4CompressionInputStream inStream =
+        provider.createInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+      assertArrayEquals(testBytes, IOUtils.toByteArray(inStream));
+    }
+  }
+}
@@ -0,0 +1,333 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.hop.execution.local;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.hop.core.HopClientEnvironment;
+import org.apache.hop.core.logging.LogChannel;
+import org.apache.hop.core.variables.Variables;
+import org.apache.hop.execution.Execution;
+import org.apache.hop.execution.ExecutionData;
+import org.apache.hop.execution.ExecutionState;
+import org.apache.hop.execution.ExecutionType;
+import org.apache.hop.metadata.serializer.memory.MemoryMetadataProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SegmentExecutionInfoLocationTest {
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private File folder;
+  private SegmentExecutionInfoLocation location;
+
+  @Before
+  public void before() throws Exception {
+    HopClientEnvironment.init();
+    folder = temporaryFolder.newFolder("executions");
+    location = open();
+  }
+
+  @After
+  public void after() throws Exception {
+    location.close();
+  }
+
+  @Test
+  public void testStoreAndFind() throws Exception {
+    location.registerExecution(newExecution("p1", null, "pipeline", 1000L));
+    location.registerExecution(newExecution("p2", null, "pipeline", 2000L));
+    location.registerExecution(newExecution("t1", "p2", "transform", 2100L));
+    location.updateExecutionState(newState("p1", 1500L, true, "first\n", null));
+    location.updateExecutionState(newState("p2", 2500L, false, "line 1\n", null));
+    location.updateExecutionState(newState("p2", 2600L, false, "line 2\n", 2));
+    location.registerData(newData("p2", "t1"));
+
+    assertEquals(List.of("p2", "p1"), location.getExecutionIds(false, 0));
+    assertEquals(List.of("p2"), location.getExecutionIds(false, 1));
+    assertEquals(3, location.getExecutionIds(true, 0).size());
+    assertEquals("line 1\nline 2\n", location.getExecutionState("p2").getLoggingText());
+    assertNull(location.getExecutionState("p2", false).getLoggingText());
+    assertEquals("line", location.getExecutionStateLoggingText("p2", 4));
+    assertEquals("p2", location.findLastExecution(ExecutionType.Pipeline, "pipeline").getId());
+    assertEquals(
+        "p2", location.findPreviousSuccessfulExecution(ExecutionType.Pipeline, "pipeline").getId());
+    assertEquals(1, location.findExecutions("p2").size());
+    assertEquals("p2", location.findParentId("t1"));
+    assertEquals(List.of("t1"), location.findChildIds(ExecutionType.Pipeline, "p2"));
+    assertEquals("t1", location.getExecutionData("p2", "t1").getOwnerId());
+
+    // Everything is still there after a restart, with and without the index snapshot
+    //
+    location.close();
+    location = open();
+    assertEquals(List.of("p2", "p1"), location.getExecutionIds(false, 0));
+    location.close();
+    Files.delete(folder.toPath().resolve(ExecutionSegmentStore.INDEX_FILENAME));
+    location = open();
+    assertEquals(List.of("p2", "p1"), location.getExecutionIds(false, 0));
+    assertEquals("line 1\nline 2\n", location.getExecutionState("p2").getLoggingText());
+    assertEquals("t1", location.getExecutionData("p2", "t1").getOwnerId());
+
+    assertTrue(location.deleteExecution("p2"));
+    assertNull(location.getExecution("t1"));
+    assertEquals(List.of("p1"), location.getExecutionIds(true, 0));
+  }
+
+  @Test
+  public void testCompactionAndTornRecord() throws Exception {
+    location.close();
+    location = new SegmentExecutionInfoLocation(folder.getAbsolutePath());
+    location.setMaxSegmentSize("0");
+    location.initialize(new Variables(), new MemoryMetadataProvider());
+
+    // With a segment size of 0 every record starts a new segment
+    //
+    for (int i = 0; i < 10; i++) {
+      location.updateExecutionState(newState("p1", 1000L + i, false, "log " + i + "\n", null));
+    }
+    location.registerExecution(newExecution("p1", null, "pipeline", 1000L));
+    Path root = folder.toPath();
+    ExecutionSegmentStore store = new ExecutionSegmentStore(root, 0L, LogChannel.GENERAL);
+    int before = countSegments(root);
+
+    location.maintain();
+    assertTrue(countSegments(root) < before);
+    assertEquals("log 9\n", location.getExecutionState("p1").getLoggingText());
+
+    // Damage the end of the last segment
+    //
+    location.close();
+    List<Integer> segments = store.listSegments();
+    Path last = store.segmentPath(segments.get(segments.size() - 1));
+    Files.write(last, new byte[] {0, 0, 1, 0, 1}, StandardOpenOption.APPEND);
+    Files.delete(root.resolve(ExecutionSegmentStore.INDEX_FILENAME));
+    location = open();
+    assertEquals("log 9\n", location.getExecutionState("p1").getLoggingText());
+    assertFalse(location.getExecutionIds(true, 0).isEmpty());
+  }
+
+  @Test
+  public void testSharedStore() throws Exception {
+    Path root = folder.toPath();
+    ExecutionSegmentStore store = ExecutionSegmentStore.acquire(root, 0L, LogChannel.GENERAL);
+    try {
+      assertSame(store, ExecutionSegmentStore.acquire(root.resolve("."), 0L, LogChannel.GENERAL));
+      store.release();
+
+      // The location uses the same store
+      //
+      location.registerExecution(newExecution("p1", null, "pipeline", 1000L));
+      assertEquals(List.of("p1"), store.getIds(true, 0));
+    } finally {
+      store.release();
+    }
+    assertNotNull(location.getExecution("p1"));
+  }
+
+  @Test
+  public void testConcurrentAcquireAndRelease() throws Exception {
+    location.close();
+    Path root = folder.toPath();
+
+    // A store is only opened again once the previous store of the folder is closed
+    //
+    List<Callable<Void>> tasks = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      tasks.add(
+          () -> {
+            for (int j = 0; j < 50; j++) {
+              ExecutionSegmentStore.acquire(root, 0L, LogChannel.GENERAL).release();
+            }
+            return null;
+          });
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+    try {
+      for (Future<Void> future : executor.invokeAll(tasks)) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    location = open();
+  }
+
+  @Test
+  public void testStoresInOtherProcesses() throws Exception {
+    location.close();
+    Path root = folder.toPath();
+
+    // Stores which aren't shared work like stores in other processes
+    //
+    ExecutionSegmentStore first = openStore(root, 0L);
+    ExecutionSegmentStore second = openStore(root, 0L);
+    first.putExecution(newExecution("p1", null, "pipeline", 1000L));
+    for (int i = 0; i < 10; i++) {
+      first.putState(newState("p1", 1000L + i, false, "log " + i + "\n", null));
+    }
+    second.putExecution(newExecution("p2", null, "pipeline", 2000L));
+    assertEquals(List.of("p2", "p1"), first.getIds(true, 0));
+    assertEquals("log 9\n", second.getLoggingText("p1", 0));
+
+    // The records moved by a compaction are found by the other store
+    //
+    assertTrue(first.compact(SegmentExecutionInfoLocation.COMPACTION_LIVE_RATIO) > 0);
+    assertEquals("log 9\n", second.getLoggingText("p1", 0));
+    assertTrue(second.delete("p1"));
+    assertNull(first.getExecution("p1"));
+    second.close();
+    first.close();
+
+    ExecutionSegmentStore store = openStore(root, 0L);
+    assertEquals(List.of("p2"), store.getIds(true, 0));
+    store.close();
+  }
+
+  @Test
+  public void testDeletionSurvivesCompaction() throws Exception {
+    location.close();
+    Path root = folder.toPath();
+
+    // The first segment keeps the execution which is deleted: most of it is still in use
+    //
+    ExecutionSegmentStore store = openStore(root, Long.MAX_VALUE);
+    store.putExecution(newExecution("p1", null, "pipeline", 1000L));
+    store.putExecution(newExecution("p2", null, "pipeline", 2000L));
+    store.putState(newState("p2", 2000L, false, "x".repeat(2000), null));
+    store.close();
+
+    // The deletion is written to a second segment which is compacted
+    //
+    store = openStore(root, 0L);
+    assertTrue(store.delete("p1"));
+    store.close();
+    store = openStore(root, Long.MAX_VALUE);
+    for (int i = 0; i < 20; i++) {
+      store.putState(newState("p3", 3000L + i, false, "log " + i + "\n", null));
+    }
+    store.close();
+    store = openStore(root, 0L);
+    store.putExecution(newExecution("p3", null, "pipeline", 4000L));
+    assertEquals(1, store.compact(SegmentExecutionInfoLocation.COMPACTION_LIVE_RATIO));
+    assertTrue(Files.exists(store.segmentPath(1)));
+    store.close();
+
+    // Reading all the segments again doesn't bring back the deleted execution
+    //
+    Files.delete(root.resolve(ExecutionSegmentStore.INDEX_FILENAME));
+    store = openStore(root, 0L);
+    assertNull(store.getExecution("p1"));
+    assertEquals(List.of("p3", "p2"), store.getIds(true, 0));
+    store.close();
+  }
+
+  @Test
+  public void testImportJsonFolders() throws Exception {
+    location.close();
+    File jsonFolder = temporaryFolder.newFolder("json");
+    FileExecutionInfoLocation jsonLocation =
+        new FileExecutionInfoLocation(jsonFolder.getAbsolutePath());
+    jsonLocation.initialize(new Variables(), new MemoryMetadataProvider());
+    jsonLocation.registerExecution(newExecution("p1", null, "pipeline", 1000L));
+    jsonLocation.updateExecutionState(newState("p1", 1500L, false, "imported\n", null));
+
+    folder = jsonFolder;
+    location = open();
+    assertEquals(List.of("p1"), location.getExecutionIds(true, 0));
+    assertEquals("imported\n", location.getExecutionState("p1").getLoggingText());
+
+    // Export to JSON again
+    //
+    File exportFolder = temporaryFolder.newFolder("export");
+    FileExecutionInfoLocation exportLocation =
+        new FileExecutionInfoLocation(exportFolder.getAbsolutePath());
+    exportLocation.initialize(new Variables(), new MemoryMetadataProvider());
+    location.exportExecution("p1", exportLocation);
+    assertNotNull(exportLocation.getExecution("p1"));
+  }
+
+  private SegmentExecutionInfoLocation open() throws Exception {
+    SegmentExecutionInfoLocation segmentLocation =
+        new SegmentExecutionInfoLocation(folder.getAbsolutePath());
+    segmentLocation.initialize(new Variables(), new MemoryMetadataProvider());
+    return segmentLocation;
+  }
+
+  private static ExecutionSegmentStore openStore(Path root, long maxSegmentSize) throws Exception {
+    ExecutionSegmentStore store =
+        new ExecutionSegmentStore(root, maxSegmentSize, LogChannel.GENERAL);
+    store.open();
+    return store;
+  }
+
+  private static int countSegments(Path root) throws Exception {
+    return new ExecutionSegmentStore(root, 0L, LogChannel.GENERAL).listSegments().size();
+  }
+
+  private static Execution newExecution(String id, String parentId, String name, long start) {
+    Execution execution = new Execution();
+    execution.setId(id);
+    execution.setParentId(parentId);
+    execution.setName(name);
+    execution.setExecutionType(parentId == null ? ExecutionType.Pipeline : ExecutionType.Transform);
+    execution.setExecutionStartDate(new Date(start));
+    return execution;
+  }
+
+  private static ExecutionState newState(
+      String id, long update, boolean failed, String logging, Integer lastLogLineNr) {
+    ExecutionState state = new ExecutionState();
+    state.setId(id);
+    state.setExecutionType(ExecutionType.Pipeline);
+    state.setUpdateTime(new Date(update));
+    state.setFailed(failed);
+    state.setLoggingText(logging);
+    state.setLastLogLineNr(lastLogLineNr);
+    return state;
+  }
+
+  private static ExecutionData newData(String parentId, String ownerId) {
+    ExecutionData data = new ExecutionData();
+    data.setParentId(parentId);
+    data.setOwnerId(ownerId);
+    data.setExecutionType(ExecutionType.Transform);
+    return data;
+  }
+}
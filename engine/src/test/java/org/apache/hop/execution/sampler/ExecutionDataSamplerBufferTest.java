@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.execution.sampler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.hop.core.HopClientEnvironment;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMetaBuilder;
+import org.apache.hop.core.variables.Variables;
+import org.apache.hop.execution.sampler.plugins.first.FirstRowsExecutionDataSampler;
+import org.apache.hop.execution.sampler.plugins.first.FirstRowsExecutionDataSamplerStore;
+import org.apache.hop.pipeline.transform.stream.IStream;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExecutionDataSamplerBufferTest {
+
+  private IRowMeta rowMeta;
+  private FirstRowsExecutionDataSamplerStore store;
+  private ExecutionDataSamplerBuffer buffer;
+
+  @Before
+  public void before() throws Exception {
+    HopClientEnvironment.init();
+    rowMeta = new RowMetaBuilder().addInteger("id").build();
+    FirstRowsExecutionDataSampler sampler = new FirstRowsExecutionDataSampler("100");
+    store =
+        sampler.createSamplerStore(
+            new ExecutionDataSamplerMeta("transform", "0", "id", true, true));
+    store.init(new Variables(), rowMeta, rowMeta);
+    buffer = new ExecutionDataSamplerBuffer(5);
+    buffer.addSampler(sampler, store);
+  }
+
+  @Test
+  public void testRowsAreSampledWhenDrained() throws Exception {
+    assertEquals(8, buffer.getCapacity());
+
+    buffer.rowWrittenEvent(rowMeta, new Object[] {1L});
+    buffer.rowReadEvent(rowMeta, new Object[] {2L});
+    buffer.rowWrittenEvent(rowMeta, new Object[] {3L});
+    assertTrue(store.getRows().isEmpty());
+
+    assertEquals(3, buffer.drain());
+    // Only the output rows are sampled by this sampler
+    assertEquals(2, store.getRows().size());
+    assertEquals(3L, store.getRows().get(1)[0]);
+    assertEquals(0, buffer.drain());
+  }
+
+  @Test
+  public void testRowsAreSkippedWhenFull() throws Exception {
+    for (long i = 0; i < 10; i++) {
+      boolean published = buffer.publish(IStream.StreamType.OUTPUT, rowMeta, new Object[] {i});
+      assertEquals(i < 8, published);
+    }
+    assertEquals(2, buffer.getSkippedRows());
+    assertEquals(8, buffer.drain());
+
+    // There is room again
+    assertTrue(buffer.publish(IStream.StreamType.OUTPUT, rowMeta, new Object[] {10L}));
+    assertFalse(buffer.publish(IStream.StreamType.OUTPUT, rowMeta, null));
+    assertEquals(1, buffer.drain());
+    assertEquals(9, store.getRows().size());
+    assertEquals(10L, store.getRows().get(8)[0]);
+  }
+}
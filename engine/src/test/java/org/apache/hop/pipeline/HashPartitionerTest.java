@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.RowMetaBuilder;
+import org.apache.hop.core.row.value.ValueMetaBinary;
+import org.apache.hop.core.row.value.ValueMetaTimestamp;
+import org.apache.hop.core.sketch.HyperLogLog;
+import org.apache.hop.core.variables.Variables;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
+import org.apache.hop.pipeline.transforms.loadsave.validator.IFieldLoadSaveValidator;
+import org.apache.hop.pipeline.transforms.loadsave.validator.ListLoadSaveValidator;
+import org.apache.hop.pipeline.transforms.loadsave.validator.StringLoadSaveValidator;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+public class HashPartitionerTest {
+  @ClassRule public static RestoreHopEngineEnvironment env = new RestoreHopEngineEnvironment();
+
+  @Test
+  public void testSerialization() throws HopException {
+    List<String> attributes = Arrays.asList("FieldNames");
+    Map<String, IFieldLoadSaveValidator<?>> attributeValidators = new HashMap<>();
+    attributeValidators.put(
+        "FieldNames", new ListLoadSaveValidator<>(new StringLoadSaveValidator()));
+    PartitionerLoadSaveTester<HashPartitioner> tester =
+        new PartitionerLoadSaveTester<>(
+            HashPartitioner.class,
+            attributes,
+            new HashMap<>(),
+            new HashMap<>(),
+            attributeValidators,
+            new HashMap<>());
+
+    tester.testSerialization();
+  }
+
+  @Test
+  public void testSameValuesSamePartition() throws HopException {
+    IRowMeta rowMeta =
+        new RowMetaBuilder()
+            .addString("country")
+            .addInteger("id")
+            .addBigNumber("amount", -1, -1)
+            .build();
+    HashPartitioner partitioner = createPartitioner(8, "country", "id", "amount");
+
+    int partition =
+        partitioner.getPartition(
+            new Variables(), rowMeta, new Object[] {"BE", 12L, new BigDecimal("1.50")});
+    assertEquals(
+        partition,
+        partitioner.getPartition(
+            new Variables(), rowMeta, new Object[] {"BE", 12L, new BigDecimal("1.5")}));
+
+    // The same value stored as binary string gives the same partition
+    IRowMeta binaryRowMeta = rowMeta.clone();
+    IValueMeta countryMeta = binaryRowMeta.getValueMeta(0);
+    countryMeta.setStorageMetadata(rowMeta.getValueMeta(0).clone());
+    countryMeta.setStorageType(IValueMeta.STORAGE_TYPE_BINARY_STRING);
+    HashPartitioner binaryPartitioner = createPartitioner(8, "country", "id", "amount");
+    assertEquals(
+        partition,
+        binaryPartitioner.getPartition(
+            new Variables(),
+            binaryRowMeta,
+            new Object[] {"BE".getBytes(StandardCharsets.UTF_8), 12L, new BigDecimal("1.5")}));
+  }
+
+  @Test
+  public void testSpreadOfSimilarKeys() throws HopException {
+    IRowMeta rowMeta = new RowMetaBuilder().addString("customer").build();
+    HashPartitioner partitioner = createPartitioner(8, "customer");
+
+    int[] counts = new int[8];
+    int rows = 80000;
+    for (int i = 0; i < rows; i++) {
+      counts[partitioner.getPartition(new Variables(), rowMeta, new Object[] {"CUST-" + i})]++;
+    }
+    // Every partition gets close to 1/8 of the rows
+    for (int count : counts) {
+      assertTrue(Arrays.toString(counts), Math.abs(count - rows / 8) < rows / 80);
+    }
+  }
+
+  @Test
+  public void testValueBoundariesAreHashed() throws HopException {
+    IRowMeta rowMeta = new RowMetaBuilder().addString("first").addString("second").build();
+    int[] indexes = {0, 1};
+
+    assertNotEquals(
+        HashPartitioner.fingerprint(rowMeta, new Object[] {"a\u0001b", "c"}, indexes),
+        HashPartitioner.fingerprint(rowMeta, new Object[] {"a", "b\u0001c"}, indexes));
+    assertNotEquals(
+        HashPartitioner.fingerprint(rowMeta, new Object[] {"ab", "c"}, indexes),
+        HashPartitioner.fingerprint(rowMeta, new Object[] {"a", "bc"}, indexes));
+
+    IRowMeta binaryRowMeta = new RowMeta();
+    binaryRowMeta.addValueMeta(new ValueMetaBinary("first"));
+    binaryRowMeta.addValueMeta(new ValueMetaBinary("second"));
+    assertNotEquals(
+        HashPartitioner.fingerprint(
+            binaryRowMeta, new Object[] {new byte[] {1, 1, 2}, new byte[] {3}}, indexes),
+        HashPartitioner.fingerprint(
+            binaryRowMeta, new Object[] {new byte[] {1}, new byte[] {2, 1, 3}}, indexes));
+  }
+
+  @Test
+  public void testSameHashAsSketches() throws HopException {
+    IRowMeta rowMeta = new RowMetaBuilder().addString("name").build();
+    rowMeta.addValueMeta(new ValueMetaTimestamp("moment"));
+    rowMeta.addValueMeta(new ValueMetaBinary("data"));
+    Timestamp moment = new Timestamp(1700000000000L);
+    moment.setNanos(123456789);
+    Object[] row = {"customer", moment, new byte[] {1, 2, 3}};
+
+    for (int i = 0; i < row.length; i++) {
+      assertEquals(
+          HyperLogLog.hash(rowMeta.getValueMeta(i), row[i]),
+          HashPartitioner.hash(rowMeta, row, new int[] {i}));
+    }
+  }
+
+  private HashPartitioner createPartitioner(int nrPartitions, String... fieldNames) {
+    HashPartitioner partitioner = new HashPartitioner();
+    partitioner.setNrPartitions(nrPartitions);
+    partitioner.setFieldNames(Arrays.asList(fieldNames));
+    return partitioner;
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transform;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hop.core.exception.HopException;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentRowCallsTest {
+
+  private static Object[] slowCall(Object[] row, AtomicInteger running, AtomicInteger maxRunning)
+      throws HopException {
+    int now = running.incrementAndGet();
+    maxRunning.accumulateAndGet(now, Math::max);
+    try {
+      // Later rows finish first
+      Thread.sleep(50L - (Long) row[0] % 10 * 5);
+    } catch (InterruptedException e) {
+      throw new HopException(e);
+    } finally {
+      running.decrementAndGet();
+    }
+    return new Object[] {row[0], (Long) row[0] * 2};
+  }
+
+  @Test
+  void testInputOrder() throws Exception {
+    List<Object[]> output = new ArrayList<>();
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    try (ConcurrentRowCalls calls =
+        new ConcurrentRowCalls(
+            "test", 10, true, 0, (row, outputRow, error) -> output.add(outputRow))) {
+      for (long i = 0; i < 100; i++) {
+        calls.submit(new Object[] {i}, row -> slowCall(row, running, maxRunning));
+        assertTrue(calls.getInFlight() <= 10);
+      }
+      calls.finish();
+      assertEquals(0, calls.getInFlight());
+    }
+
+    assertEquals(100, output.size());
+    for (int i = 0; i < 100; i++) {
+      assertEquals((long) i, output.get(i)[0]);
+      assertEquals(i * 2L, output.get(i)[1]);
+    }
+    assertTrue(maxRunning.get() > 1);
+    assertTrue(maxRunning.get() <= 10);
+  }
+
+  @Test
+  void testCompletionOrder() throws Exception {
+    List<Object[]> output = new ArrayList<>();
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    try (ConcurrentRowCalls calls =
+        new ConcurrentRowCalls(
+            "test", 10, false, 0, (row, outputRow, error) -> output.add(outputRow))) {
+      for (long i = 0; i < 10; i++) {
+        calls.submit(new Object[] {i}, row -> slowCall(row, running, maxRunning));
+      }
+      calls.finish();
+    }
+
+    assertEquals(10, output.size());
+    // The last row is the fastest call
+    //
+    assertEquals(9L, output.get(0)[0]);
+    assertEquals(
+        45L, output.stream().mapToLong(row -> (Long) row[0]).sum(), "Every row is handled once");
+  }
+
+  @Test
+  void testErrors() throws Exception {
+    List<Object[]> failedRows = new ArrayList<>();
+    List<String> errors = new ArrayList<>();
+    List<Object[]> output = new ArrayList<>();
+    try (ConcurrentRowCalls calls =
+        new ConcurrentRowCalls(
+            "test",
+            4,
+            true,
+            0,
+            (row, outputRow, error) -> {
+              if (error == null) {
+                output.add(outputRow);
+              } else {
+                assertNull(outputRow);
+                failedRows.add(row);
+                errors.add(error.getMessage());
+              }
+            })) {
+      for (long i = 0; i < 6; i++) {
+        calls.submit(
+            new Object[] {i},
+            row -> {
+              long value = (Long) row[0];
+              if (value == 2) {
+                throw new HopException("Failed call");
+              }
+              if (value == 4) {
+                throw new IllegalStateException("Unexpected");
+              }
+              return row;
+            });
+      }
+      calls.finish();
+    }
+
+    assertEquals(4, output.size());
+    assertEquals(2, failedRows.size());
+    assertEquals(2L, failedRows.get(0)[0]);
+    assertEquals(4L, failedRows.get(1)[0]);
+    assertTrue(errors.get(0).contains("Failed call"));
+    assertTrue(errors.get(1).contains("Unexpected"));
+  }
+
+  @Test
+  void testRateLimit() throws Exception {
+    AtomicInteger handled = new AtomicInteger();
+    long start = System.nanoTime();
+    try (ConcurrentRowCalls calls =
+        new ConcurrentRowCalls(
+            "test", 100, false, 100, (row, outputRow, error) -> handled.incrementAndGet())) {
+      for (long i = 0; i < 21; i++) {
+        calls.submit(new Object[] {i}, row -> row);
+      }
+      calls.finish();
+    }
+    long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+    // 20 intervals of 10ms between 21 calls
+    //
+    assertEquals(21, handled.get());
+    assertTrue(elapsedMillis >= 190, "Elapsed " + elapsedMillis + "ms");
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transform;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.QueueRowSet;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMetaBuilder;
+import org.junit.Test;
+
+public class LoadBalancingRowDistributionTest {
+
+  @Test
+  public void testLeastFilledRowSetFirst() throws Exception {
+    IRowMeta rowMeta = new RowMetaBuilder().addInteger("id").build();
+    List<IRowSet> rowSets = Arrays.asList(new QueueRowSet(), new QueueRowSet(), new QueueRowSet());
+
+    // A slow copy with a backlog of rows
+    for (int i = 0; i < 5; i++) {
+      rowSets.get(1).putRow(rowMeta, new Object[] {-1L});
+    }
+
+    AtomicInteger current = new AtomicInteger();
+    ITransform transform = mock(ITransform.class);
+    when(transform.getOutputRowSets()).thenReturn(rowSets);
+    when(transform.getCurrentOutputRowSetNr()).thenAnswer(invocation -> current.get());
+    doAnswer(
+            invocation -> {
+              current.set(invocation.getArgument(0));
+              return null;
+            })
+        .when(transform)
+        .setCurrentOutputRowSetNr(anyInt());
+
+    LoadBalancingRowDistribution distribution = new LoadBalancingRowDistribution();
+    for (long i = 0; i < 12; i++) {
+      distribution.distributeRow(rowMeta, new Object[] {i}, transform);
+    }
+
+    // The empty row sets get the rows until they catch up with the backlog, then all take turns
+    assertEquals(6, rowSets.get(0).size());
+    assertEquals(6, rowSets.get(1).size());
+    assertEquals(5, rowSets.get(2).size());
+  }
+}
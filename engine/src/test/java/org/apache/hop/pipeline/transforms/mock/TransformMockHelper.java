@@ -20,6 +20,7 @@ package org.apache.hop.pipeline.transforms.mock;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
@@ -30,7 +31,9 @@ import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hop.core.BlockingRowSet;
 import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.logging.HopLogStore;
 import org.apache.hop.core.logging.ILogChannel;
 import org.apache.hop.core.logging.ILogChannelFactory;
@@ -42,8 +45,10 @@ import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
+import org.apache.hop.pipeline.transform.ITransform;
 import org.apache.hop.pipeline.transform.ITransformData;
 import org.apache.hop.pipeline.transform.ITransformMeta;
+import org.apache.hop.pipeline.transform.RowAdapter;
 import org.apache.hop.pipeline.transform.TransformMeta;
 import org.mockito.Mockito;
 import org.mockito.stubbing.Answer;
@@ -96,6 +101,50 @@ public class TransformMockHelper<Meta extends ITransformMeta, Data extends ITran
     return rowSet;
   }
 
+  /**
+   * Run a transform created with the pipeline of this helper on the given rows and collect the rows
+   * it writes. The rows are passed through a real row set with the given row metadata, the
+   * transform is initialized, runs until it is done and is disposed.
+   *
+   * @param transform The transform to run
+   * @param inputRowMeta The metadata of the input rows
+   * @param rows The input rows
+   * @return The rows written by the transform, in the order they are written
+   * @throws HopException In case the transform can't be initialized or processing a row fails
+   */
+  public List<Object[]> processRows(
+      ITransform transform, IRowMeta inputRowMeta, List<Object[]> rows) throws HopException {
+    doReturn(true).when(pipeline).isRunning();
+
+    BlockingRowSet rowSet = new BlockingRowSet(rows.size() + 1);
+    for (Object[] row : rows) {
+      rowSet.putRow(inputRowMeta, row);
+    }
+    rowSet.setDone();
+    transform.addRowSetToInputRowSets(rowSet);
+
+    List<Object[]> output = Collections.synchronizedList(new ArrayList<>());
+    transform.addRowListener(
+        new RowAdapter() {
+          @Override
+          public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+            output.add(row);
+          }
+        });
+
+    if (!transform.init()) {
+      throw new HopException("Unable to initialize transform " + transform.getTransformName());
+    }
+    try {
+      while (transform.processRow()) {
+        // Keep processing rows
+      }
+    } finally {
+      transform.dispose();
+    }
+    return output;
+  }
+
   public static List<Object[]> asList(Object[]... objects) {
     List<Object[]> result = new ArrayList<>();
     Collections.addAll(result, objects);
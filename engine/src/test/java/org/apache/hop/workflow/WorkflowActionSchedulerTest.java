@@ -0,0 +1,253 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.workflow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.HopEnvironment;
+import org.apache.hop.core.Result;
+import org.apache.hop.core.RowMetaAndData;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.workflow.action.ActionMeta;
+import org.apache.hop.workflow.actions.dummy.ActionDummy;
+import org.apache.hop.workflow.actions.start.ActionStart;
+import org.apache.hop.workflow.engines.local.LocalWorkflowEngine;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class WorkflowActionSchedulerTest {
+
+  private static final List<String> executed = new CopyOnWriteArrayList<>();
+  private static final Map<String, CountDownLatch> latches = new ConcurrentHashMap<>();
+
+  /**
+   * An action which waits for a latch, adds a row with its name and fails if its name starts with
+   * "fail"
+   */
+  public static class TestAction extends ActionDummy {
+    private boolean join;
+
+    public TestAction() {
+      this("");
+    }
+
+    public TestAction(String name) {
+      super(name);
+    }
+
+    public TestAction(String name, boolean join) {
+      super(name);
+      this.join = join;
+    }
+
+    @Override
+    public Result execute(Result prevResult, int nr) throws HopException {
+      executed.add(getName());
+      CountDownLatch latch = latches.get(getName());
+      if (latch != null) {
+        latch.countDown();
+        try {
+          if (!latch.await(10, TimeUnit.SECONDS)) {
+            throw new HopException("The parallel action didn't start");
+          }
+        } catch (InterruptedException e) {
+          throw new HopException(e);
+        }
+      }
+      prevResult.setResult(!getName().startsWith("fail"));
+      prevResult.setNrLinesRead(prevResult.getNrLinesRead() + 1);
+      RowMetaAndData row = new RowMetaAndData();
+      row.addValue(new ValueMetaString("action"), getName());
+      prevResult.getRows().add(row);
+      return prevResult;
+    }
+
+    @Override
+    public boolean isEvaluation() {
+      return true;
+    }
+
+    @Override
+    public boolean isJoin() {
+      return join;
+    }
+  }
+
+  private WorkflowMeta workflowMeta;
+  private ActionMeta start;
+
+  @BeforeClass
+  public static void beforeClass() throws HopException {
+    HopEnvironment.init();
+  }
+
+  @Before
+  public void before() {
+    executed.clear();
+    latches.clear();
+    workflowMeta = new WorkflowMeta();
+    workflowMeta.setName("scheduler-test");
+    ActionStart actionStart = new ActionStart("start");
+    start = new ActionMeta(actionStart);
+    workflowMeta.addAction(start);
+  }
+
+  @Test
+  public void testBranchesRunInParallelAndJoinOnce() throws Exception {
+    ActionMeta a = addAction("a");
+    ActionMeta b = addAction("b");
+    ActionMeta join = addJoinAction("join");
+    addHop(start, a, true);
+    addHop(start, b, true);
+    addHop(a, join, true);
+    addHop(b, join, true);
+
+    // a and b wait for each other: they need to run at the same time
+    //
+    CountDownLatch latch = new CountDownLatch(2);
+    latches.put("a", latch);
+    latches.put("b", latch);
+
+    WorkflowActionScheduler scheduler = new WorkflowActionScheduler(newWorkflow(), 2);
+    assertTrue(scheduler.plan(start));
+    Result result = scheduler.execute(null, "test");
+
+    assertTrue(result.isResult());
+    assertEquals(3, executed.size());
+    assertEquals("join", executed.get(2));
+    // The join action gets the merged results of a and b
+    assertEquals(3, result.getNrLinesRead());
+  }
+
+  @Test
+  public void testForkedBranchesAreMergedOnce() throws Exception {
+    ActionMeta upstream = addAction("upstream");
+    ActionMeta a = addAction("a");
+    ActionMeta b = addAction("b");
+    ActionMeta join = addJoinAction("join");
+    addHop(start, upstream, true);
+    addHop(upstream, a, true);
+    addHop(upstream, b, true);
+    addHop(a, join, true);
+    addHop(b, join, true);
+
+    WorkflowActionScheduler scheduler = new WorkflowActionScheduler(newWorkflow(), 2);
+    assertTrue(scheduler.plan(start));
+    Result result = scheduler.execute(null, "test");
+
+    assertTrue(result.isResult());
+    // The rows and lines of the upstream action are only counted once
+    assertEquals(4, result.getNrLinesRead());
+    assertEquals(List.of("upstream", "a", "b", "join"), getActionNames(result));
+  }
+
+  @Test
+  public void testActionIsExecutedForEveryPath() throws Exception {
+    ActionMeta a = addAction("a");
+    ActionMeta b = addAction("b");
+    ActionMeta next = addAction("next");
+    addHop(start, a, true);
+    addHop(start, b, true);
+    addHop(a, next, true);
+    addHop(b, next, true);
+
+    WorkflowActionScheduler scheduler = new WorkflowActionScheduler(newWorkflow(), 2);
+    assertTrue(scheduler.plan(start));
+    Result result = scheduler.execute(null, "test");
+
+    assertTrue(result.isResult());
+    assertEquals(4, executed.size());
+    assertEquals(List.of("next", "next"), executed.subList(2, 4));
+    assertEquals(4, result.getNrLinesRead());
+    assertEquals(List.of("a", "next", "b", "next"), getActionNames(result));
+  }
+
+  @Test
+  public void testSuccessAndFailureHops() throws Exception {
+    ActionMeta fail = addAction("fail");
+    ActionMeta onSuccess = addAction("on-success");
+    ActionMeta onFailure = addAction("on-failure");
+    ActionMeta afterSuccess = addAction("after-success");
+    addHop(start, fail, true);
+    WorkflowHopMeta successHop = addHop(fail, onSuccess, false);
+    successHop.setEvaluation(true);
+    WorkflowHopMeta failureHop = addHop(fail, onFailure, false);
+    failureHop.setEvaluation(false);
+    addHop(onSuccess, afterSuccess, true);
+
+    WorkflowActionScheduler scheduler = new WorkflowActionScheduler(newWorkflow(), 4);
+    assertTrue(scheduler.plan(start));
+    Result result = scheduler.execute(null, "test");
+
+    assertEquals(List.of("fail", "on-failure"), executed);
+    assertTrue(result.isResult());
+  }
+
+  @Test
+  public void testLoopIsNotPlanned() {
+    ActionMeta a = addAction("a");
+    ActionMeta b = addAction("b");
+    addHop(start, a, true);
+    addHop(a, b, true);
+    addHop(b, a, true);
+
+    assertFalse(new WorkflowActionScheduler(newWorkflow(), 4).plan(start));
+  }
+
+  private ActionMeta addAction(String name) {
+    ActionMeta actionMeta = new ActionMeta(new TestAction(name));
+    workflowMeta.addAction(actionMeta);
+    return actionMeta;
+  }
+
+  private ActionMeta addJoinAction(String name) {
+    ActionMeta actionMeta = new ActionMeta(new TestAction(name, true));
+    workflowMeta.addAction(actionMeta);
+    return actionMeta;
+  }
+
+  private static List<String> getActionNames(Result result) throws HopException {
+    List<String> names = new ArrayList<>();
+    for (RowMetaAndData row : result.getRows()) {
+      names.add(row.getString("action", null));
+    }
+    return names;
+  }
+
+  private WorkflowHopMeta addHop(ActionMeta from, ActionMeta to, boolean unconditional) {
+    WorkflowHopMeta hop = new WorkflowHopMeta(from, to);
+    hop.setUnconditional(unconditional);
+    workflowMeta.addWorkflowHop(hop);
+    return hop;
+  }
+
+  private Workflow newWorkflow() {
+    return new LocalWorkflowEngine(workflowMeta);
+  }
+}
@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.www;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import org.apache.hop.core.json.HopJson;
+import org.apache.hop.core.logging.HopLogStore;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExecutionStatusStreamServletTest {
+
+  private TestStatusSource source;
+  private ByteArrayOutputStream outputStream;
+  private ExecutionStatusStreamServlet.StatusStream stream;
+
+  @Before
+  public void setup() {
+    HopLogStore.init();
+    source = new TestStatusSource();
+    outputStream = new ByteArrayOutputStream();
+    stream =
+        new ExecutionStatusStreamServlet.StatusStream(
+            source, HopLogStore.getLastBufferLineNr(), outputStream);
+  }
+
+  @Test
+  public void testOnlyChangesAreSent() throws Exception {
+    source.state.setRunning(true);
+    source.components.add(new ExecutionStatusUpdate.Component("a", 0, "Running"));
+    source.components.add(new ExecutionStatusUpdate.Component("b", 0, "Running"));
+
+    assertTrue(stream.push());
+    List<ExecutionStatusUpdate> updates = readUpdates();
+    assertEquals(1, updates.size());
+    assertEquals(2, updates.get(0).getComponents().size());
+
+    // Nothing changed, nothing is sent
+    //
+    assertTrue(stream.push());
+    assertEquals(1, readUpdates().size());
+
+    // Only the changed component is sent
+    //
+    source.components.get(1).setLinesWritten(10);
+    assertTrue(stream.push());
+    updates = readUpdates();
+    assertEquals(2, updates.size());
+    assertEquals(1, updates.get(1).getComponents().size());
+    assertEquals("b", updates.get(1).getComponents().get(0).getName());
+    assertEquals(10, updates.get(1).getComponents().get(0).getLinesWritten());
+    assertTrue(updates.get(1).isRunning());
+  }
+
+  @Test
+  public void testStreamEndsWhenFinished() throws Exception {
+    source.state.setRunning(true);
+    assertTrue(stream.push());
+
+    source.state.setRunning(false);
+    source.state.setFinished(true);
+    assertFalse(stream.push());
+
+    List<ExecutionStatusUpdate> updates = readUpdates();
+    assertEquals(2, updates.size());
+    assertTrue(updates.get(1).isFinished());
+  }
+
+  @Test
+  public void testSlowClientDoesNotBlock() throws Exception {
+    AsyncContext asyncContext = mock(AsyncContext.class);
+    ServletResponse response = mock(ServletResponse.class);
+    ServletOutputStream servletOutputStream = mock(ServletOutputStream.class);
+    when(asyncContext.getResponse()).thenReturn(response);
+    when(response.getOutputStream()).thenReturn(servletOutputStream);
+    stream.start(asyncContext, mock(ScheduledExecutorService.class), 1000L);
+
+    // The client can't receive anything: the update waits
+    //
+    source.state.setRunning(true);
+    when(servletOutputStream.isReady()).thenReturn(false);
+    stream.run();
+    stream.run();
+    verify(servletOutputStream, never()).write(any(byte[].class));
+
+    // The waiting update is sent as soon as the client is ready, the execution ends after it
+    //
+    source.state.setRunning(false);
+    source.state.setFinished(true);
+    when(servletOutputStream.isReady()).thenReturn(true);
+    stream.onWritePossible();
+    verify(servletOutputStream, times(1)).write(any(byte[].class));
+    verify(asyncContext, never()).complete();
+
+    stream.run();
+    verify(servletOutputStream, times(2)).write(any(byte[].class));
+    verify(asyncContext).complete();
+  }
+
+  @Test
+  public void testUnknownExecutionIsNotFound() throws Exception {
+    PipelineMap pipelineMap = mock(PipelineMap.class);
+    ExecutionStatusStreamServlet servlet = new ExecutionStatusStreamServlet(pipelineMap, null);
+    HttpServletRequest request = mock(HttpServletRequest.class);
+    HttpServletResponse response = mock(HttpServletResponse.class);
+    when(request.getContextPath()).thenReturn(ExecutionStatusStreamServlet.CONTEXT_PATH);
+    when(request.getParameter("name")).thenReturn("unknown");
+
+    servlet.doGet(request, response);
+
+    verify(response).sendError(eq(HttpServletResponse.SC_NOT_FOUND), anyString());
+  }
+
+  private List<ExecutionStatusUpdate> readUpdates() throws Exception {
+    ObjectMapper mapper = HopJson.newMapper();
+    List<ExecutionStatusUpdate> updates = new ArrayList<>();
+    for (String line : outputStream.toString(StandardCharsets.UTF_8).split("\n")) {
+      if (!line.isBlank()) {
+        updates.add(mapper.readValue(line, ExecutionStatusUpdate.class));
+      }
+    }
+    return updates;
+  }
+
+  private static class TestStatusSource implements ExecutionStatusStreamServlet.IStatusSource {
+    private final ExecutionStatusUpdate state = new ExecutionStatusUpdate();
+    private final List<ExecutionStatusUpdate.Component> components = new ArrayList<>();
+
+    @Override
+    public ExecutionStatusUpdate getState() {
+      ExecutionStatusUpdate copy = new ExecutionStatusUpdate();
+      copy.setRunning(state.isRunning());
+      copy.setFinished(state.isFinished());
+      return copy;
+    }
+
+    @Override
+    public List<ExecutionStatusUpdate.Component> getComponents() {
+      List<ExecutionStatusUpdate.Component> copies = new ArrayList<>();
+      for (ExecutionStatusUpdate.Component component : components) {
+        ExecutionStatusUpdate.Component copy =
+            new ExecutionStatusUpdate.Component(
+                component.getName(), component.getCopy(), component.getStatus());
+        copy.setLinesWritten(component.getLinesWritten());
+        copies.add(copy);
+      }
+      return copies;
+    }
+
+    @Override
+    public String getLogChannelId() {
+      return "test";
+    }
+  }
+}
@@ -17,10 +17,13 @@
 
 package org.apache.hop.www;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import jakarta.servlet.ServletException;
@@ -29,11 +32,14 @@ import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.List;
 import org.apache.hop.core.gui.Point;
+import org.apache.hop.core.json.HopJson;
 import org.apache.hop.core.logging.HopLogStore;
 import org.apache.hop.core.logging.ILogChannel;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.engine.IPipelineEngine;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -94,4 +100,74 @@ public class GetStatusServletTest {
     getStatusServlet.doGet(mockHttpServletRequest, mockHttpServletResponse);
     assertFalse(out.toString().contains(ServletTestUtils.BAD_STRING_TO_TEST));
   }
+
+  @Test
+  public void testStatusPageAndETag() throws Exception {
+    PipelineMap pipelineMap = new PipelineMap();
+    for (int i = 0; i < 5; i++) {
+      @SuppressWarnings("unchecked")
+      IPipelineEngine<PipelineMeta> pipeline = mock(IPipelineEngine.class);
+      when(pipeline.getStatusDescription()).thenReturn("Finished");
+      when(pipeline.isFinished()).thenReturn(true);
+      pipelineMap.addPipeline("pipeline-" + i, "id" + i, pipeline, null);
+    }
+    GetStatusServlet servlet = new GetStatusServlet(pipelineMap, new WorkflowMap());
+
+    HttpServletRequest request = mock(HttpServletRequest.class);
+    HttpServletResponse response = mock(HttpServletResponse.class);
+    StringWriter out = new StringWriter();
+    when(request.getContextPath()).thenReturn(GetStatusServlet.CONTEXT_PATH);
+    when(request.getParameter("json")).thenReturn("Y");
+    when(request.getParameter(GetStatusServlet.PARAMETER_STATE)).thenReturn("finished");
+    when(request.getParameter(GetStatusServlet.PARAMETER_LIMIT)).thenReturn("2");
+    when(response.getWriter()).thenReturn(new PrintWriter(out));
+
+    servlet.doGet(request, response);
+
+    HopServerStatus status = HopJson.newMapper().readValue(out.toString(), HopServerStatus.class);
+    assertEquals(5, status.getPipelineTotal());
+    assertEquals(2, status.getPipelineStatusList().size());
+    assertEquals("pipeline-4", status.getPipelineStatusList().get(0).getPipelineName());
+
+    // Nothing changed since the previous request
+    //
+    String eTag = servlet.getETag();
+    assertTrue(eTag.startsWith("W/\""));
+    verify(response).setHeader("ETag", eTag);
+    HttpServletResponse notModifiedResponse = mock(HttpServletResponse.class);
+    when(request.getHeader("If-None-Match")).thenReturn(eTag);
+    servlet.doGet(request, notModifiedResponse);
+    verify(notModifiedResponse).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+
+    assertTrue(GetStatusServlet.matchesETag("\"other\", " + eTag.substring(2), eTag));
+    assertFalse(GetStatusServlet.matchesETag("\"other\"", eTag));
+  }
+
+  @Test
+  public void testStatusWithoutPageKeepsOrder() throws Exception {
+    PipelineMap pipelineMap = new PipelineMap();
+    for (int i = 0; i < 3; i++) {
+      @SuppressWarnings("unchecked")
+      IPipelineEngine<PipelineMeta> pipeline = mock(IPipelineEngine.class);
+      when(pipeline.getStatusDescription()).thenReturn("Finished");
+      pipelineMap.addPipeline("pipeline-" + i, "id" + i, pipeline, null);
+    }
+    GetStatusServlet servlet = new GetStatusServlet(pipelineMap, new WorkflowMap());
+
+    HttpServletRequest request = mock(HttpServletRequest.class);
+    HttpServletResponse response = mock(HttpServletResponse.class);
+    StringWriter out = new StringWriter();
+    when(request.getContextPath()).thenReturn(GetStatusServlet.CONTEXT_PATH);
+    when(request.getParameter("json")).thenReturn("Y");
+    when(response.getWriter()).thenReturn(new PrintWriter(out));
+
+    servlet.doGet(request, response);
+
+    HopServerStatus status = HopJson.newMapper().readValue(out.toString(), HopServerStatus.class);
+    assertEquals(3, status.getPipelineTotal());
+    List<HopServerObjectEntry> entries = pipelineMap.getPipelineObjects();
+    for (int i = 0; i < entries.size(); i++) {
+      assertEquals(entries.get(i).getId(), status.getPipelineStatusList().get(i).getId());
+    }
+  }
 }
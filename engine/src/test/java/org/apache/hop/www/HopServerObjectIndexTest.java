@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.www;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.hop.www.HopServerObjectIndex.IndexEntry;
+import org.apache.hop.www.HopServerObjectIndex.Page;
+import org.apache.hop.www.HopServerObjectIndex.State;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HopServerObjectIndexTest {
+
+  private HopServerObjectIndex index;
+  private List<IndexEntry> entries;
+
+  @Before
+  public void setup() {
+    index = new HopServerObjectIndex();
+    entries = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      String name = (i % 2 == 0 ? "load-" : "export-") + i;
+      entries.add(index.add(new HopServerObjectEntry(name, "id" + i), State.FINISHED));
+    }
+  }
+
+  @Test
+  public void testPaging() {
+    Page page = index.getPage(null, null, 2, 3);
+    assertEquals(10, page.getTotal());
+    assertEquals("[export-7, load-6, export-5]", getNames(page));
+
+    page = index.getPage(null, null, 8, 5);
+    assertEquals(10, page.getTotal());
+    assertEquals("[export-1, load-0]", getNames(page));
+
+    assertEquals(10, index.getPage(null, null, 0, -1).getEntries().size());
+  }
+
+  @Test
+  public void testFilters() {
+    index.setState(entries.get(3), State.RUNNING);
+    index.setState(entries.get(4), State.RUNNING);
+
+    Page page = index.getPage(List.of(State.RUNNING), null, 0, -1);
+    assertEquals(2, page.getTotal());
+    assertEquals("[load-4, export-3]", getNames(page));
+
+    page = index.getPage(List.of(State.RUNNING, State.FINISHED), "LOAD", 1, 2);
+    assertEquals(5, page.getTotal());
+    assertEquals("[load-6, load-4]", getNames(page));
+  }
+
+  @Test
+  public void testVersion() {
+    long version = index.getVersion();
+    String tag = index.getTag();
+
+    index.setState(entries.get(0), State.FINISHED);
+    assertEquals(version, index.getVersion());
+
+    index.setState(entries.get(0), State.STOPPED);
+    assertEquals(version + 1, index.getVersion());
+    assertNotEquals(tag, index.getTag());
+
+    // Replaced entries are no longer updated
+    //
+    IndexEntry replacement = index.add(entries.get(1).getKey(), State.WAITING);
+    index.setState(entries.get(1), State.RUNNING);
+    assertEquals(State.WAITING, replacement.getState());
+    assertEquals(10, index.size());
+    assertEquals("export-1", index.getPage(null, null, 0, 1).getEntries().get(0).getName());
+
+    index.remove(entries.get(2).getKey());
+    assertEquals(9, index.size());
+    assertEquals(7, index.size(State.FINISHED));
+  }
+
+  private static String getNames(Page page) {
+    List<String> names = new ArrayList<>();
+    for (HopServerObjectEntry entry : page.getEntries()) {
+      names.add(entry.getName());
+    }
+    return names.toString();
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.www.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.core.variables.Variables;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironmentExtension;
+import org.apache.hop.metadata.api.IHopMetadataProvider;
+import org.apache.hop.metadata.serializer.memory.MemoryMetadataProvider;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+
+class WebServicePipelinePoolTest {
+  @RegisterExtension
+  static RestoreHopEngineEnvironmentExtension env = new RestoreHopEngineEnvironmentExtension();
+
+  @TempDir Path folder;
+
+  private final WebServicePipelinePool pool = WebServicePipelinePool.getInstance();
+  private final IHopMetadataProvider metadataProvider = new MemoryMetadataProvider();
+  private final IVariables variables = new Variables();
+  private String filename;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    pool.clear();
+    filename = writePipeline("first");
+  }
+
+  @AfterEach
+  void tearDown() {
+    pool.clear();
+  }
+
+  private String writePipeline(String description) throws Exception {
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    pipelineMeta.setDescription(description);
+    Path file = folder.resolve("service.hpl");
+    Files.writeString(file, pipelineMeta.getXml(variables), StandardCharsets.UTF_8);
+    return file.toString();
+  }
+
+  @Test
+  void testPipelinesAreReused() throws Exception {
+    PipelineMeta first;
+    try (WebServicePipelinePool.Lease lease =
+        pool.borrow("service", filename, 2, metadataProvider, variables)) {
+      first = lease.getPipelineMeta();
+
+      // A concurrent request never gets the same pipeline
+      try (WebServicePipelinePool.Lease other =
+          pool.borrow("service", filename, 2, metadataProvider, variables)) {
+        assertNotSame(first, other.getPipelineMeta());
+      }
+
+      // A request can change its copy without affecting the pooled pipeline
+      first.setDescription("changed");
+    }
+    assertEquals(2, pool.getIdleCount("service"));
+
+    try (WebServicePipelinePool.Lease lease =
+        pool.borrow("service", filename, 2, metadataProvider, variables)) {
+      assertEquals(1, pool.getIdleCount("service"));
+      assertNotSame(first, lease.getPipelineMeta());
+      assertEquals("first", lease.getPipelineMeta().getDescription());
+      assertEquals(filename, lease.getPipelineMeta().getFilename());
+    }
+  }
+
+  @Test
+  void testNoPooling() throws Exception {
+    try (WebServicePipelinePool.Lease lease =
+        pool.borrow("service", filename, 0, metadataProvider, variables)) {
+      assertEquals("first", lease.getPipelineMeta().getDescription());
+    }
+    assertEquals(0, pool.getIdleCount("service"));
+  }
+
+  @Test
+  void testWarmupAndChangedFile() throws Exception {
+    pool.warmup("service", filename, 3, metadataProvider, variables);
+    assertEquals(3, pool.getIdleCount("service"));
+
+    writePipeline("changed");
+    Files.setLastModifiedTime(
+        Path.of(filename), FileTime.fromMillis(System.currentTimeMillis() + 10000));
+
+    try (WebServicePipelinePool.Lease lease =
+        pool.borrow("service", filename, 3, metadataProvider, variables)) {
+      assertEquals("changed", lease.getPipelineMeta().getDescription());
+      assertEquals(0, pool.getIdleCount("service"));
+    }
+    assertEquals(1, pool.getIdleCount("service"));
+  }
+}
@@ -32,6 +32,7 @@ import org.apache.beam.sdk.values.TupleTag;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hop.beam.core.BeamHop;
 import org.apache.hop.beam.core.HopRow;
+import org.apache.hop.beam.core.shared.FusedTransform;
 import org.apache.hop.beam.core.shared.VariableValue;
 import org.apache.hop.beam.core.util.HopBeamUtil;
 import org.apache.hop.beam.engines.HopPipelineExecutionOptions;
@@ -81,6 +82,7 @@ public class TransformFn extends TransformBaseFn {
   protected List<String> infoRowMetaJsons;
   protected boolean inputTransform;
   protected boolean initialize;
+  protected List<FusedTransform> fusedTransforms;
 
   protected List<PCollectionView<List<HopRow>>> infoCollectionViews;
   protected List<PCollection<HopRow>> infoCollections;
@@ -125,6 +127,45 @@ public class TransformFn extends TransformBaseFn {
       String runConfigName,
       String parentLogChannelId,
       List<PCollectionView<List<HopRow>>> infoCollectionViews) {
+    this(
+        variableValues,
+        metastoreJson,
+        transformName,
+        transformPluginId,
+        transformMetaInterfaceXml,
+        inputRowMetaJson,
+        inputTransform,
+        targetTransforms,
+        infoTransforms,
+        infoRowMetaJsons,
+        dataSamplersJson,
+        runConfigName,
+        parentLogChannelId,
+        infoCollectionViews,
+        new ArrayList<>());
+  }
+
+  /**
+   * Also executes the given transforms in the same single threaded pipeline. Every fused transform
+   * reads the output of the transform before it, the rows of the last one are sent to the main
+   * output.
+   */
+  public TransformFn(
+      List<VariableValue> variableValues,
+      String metastoreJson,
+      String transformName,
+      String transformPluginId,
+      String transformMetaInterfaceXml,
+      String inputRowMetaJson,
+      boolean inputTransform,
+      List<String> targetTransforms,
+      List<String> infoTransforms,
+      List<String> infoRowMetaJsons,
+      String dataSamplersJson,
+      String runConfigName,
+      String parentLogChannelId,
+      List<PCollectionView<List<HopRow>>> infoCollectionViews,
+      List<FusedTransform> fusedTransforms) {
     super(parentLogChannelId, runConfigName, dataSamplersJson);
     this.variableValues = variableValues;
     this.metastoreJson = metastoreJson;
@@ -138,6 +179,7 @@ public class TransformFn extends TransformBaseFn {
     this.infoRowMetaJsons = infoRowMetaJsons;
     this.dataSamplersJson = dataSamplersJson;
     this.infoCollectionViews = infoCollectionViews;
+    this.fusedTransforms = fusedTransforms;
     this.initialize = true;
   }
 
@@ -322,6 +364,40 @@ public class TransformFn extends TransformBaseFn {
       pipelineMeta.addPipelineHop(new PipelineHopMeta(infoTransformMeta, transformMeta));
     }
 
+    // The fused transforms are simply chained after the main transform.
+    // This saves a Beam stage, a row copy and a sub-pipeline for every one of them.
+    //
+    List<ITransformMeta> fusedTransformMetas = new ArrayList<>();
+    TransformMeta lastTransformMeta = transformMeta;
+    for (FusedTransform fusedTransform : fusedTransforms) {
+      ITransformMeta iFusedTransformMeta =
+          registry.loadClass(
+              TransformPluginType.class,
+              fusedTransform.getTransformPluginId(),
+              ITransformMeta.class);
+      if (iFusedTransformMeta == null) {
+        throw new HopException(
+            "Unable to load transform plugin with ID "
+                + fusedTransform.getTransformPluginId()
+                + ", this plugin isn't in the plugin registry or classpath");
+      }
+      HopBeamUtil.loadTransformMetadataFromXml(
+          fusedTransform.getTransformName(),
+          iFusedTransformMeta,
+          fusedTransform.getTransformMetaInterfaceXml(),
+          pipelineMeta.getMetadataProvider());
+
+      TransformMeta fusedTransformMeta =
+          new TransformMeta(fusedTransform.getTransformName(), iFusedTransformMeta);
+      fusedTransformMeta.setTransformPluginId(fusedTransform.getTransformPluginId());
+      fusedTransformMeta.setLocation(lastTransformMeta.getLocation().x + 200, 200);
+      pipelineMeta.addTransform(fusedTransformMeta);
+      pipelineMeta.addPipelineHop(new PipelineHopMeta(lastTransformMeta, fusedTransformMeta));
+
+      fusedTransformMetas.add(iFusedTransformMeta);
+      lastTransformMeta = fusedTransformMeta;
+    }
+
     // If we are sending execution information to a location, see if we have any extra data
     // samplers
     // The data samplers list is composed of those in the data profile along with the set from
@@ -330,6 +406,9 @@ public class TransformFn extends TransformBaseFn {
     lookupExecutionInformation(variables, metadataProvider);
 
     iTransformMeta.searchInfoAndTargetTransforms(pipelineMeta.getTransforms());
+    for (ITransformMeta iFusedTransformMeta : fusedTransformMetas) {
+      iFusedTransformMeta.searchInfoAndTargetTransforms(pipelineMeta.getTransforms());
+    }
 
     // Create the transformation...
     //
@@ -379,6 +458,14 @@ public class TransformFn extends TransformBaseFn {
     TransformMetaDataCombi transformCombi = findCombi(pipeline, transformName);
     transformCombis.add(transformCombi);
 
+    // The main output are the rows written by the last transform in the chain
+    //
+    TransformMetaDataCombi outputCombi = transformCombi;
+    for (FusedTransform fusedTransform : fusedTransforms) {
+      outputCombi = findCombi(pipeline, fusedTransform.getTransformName());
+      transformCombis.add(outputCombi);
+    }
+
     if (targetTransforms.isEmpty()) {
       IRowListener rowListener =
           new RowAdapter() {
@@ -388,7 +475,7 @@ public class TransformFn extends TransformBaseFn {
               resultRows.add(new HopRow(row, rowMeta.size()));
             }
           };
-      transformCombi.transform.addRowListener(rowListener);
+      outputCombi.transform.addRowListener(rowListener);
     }
 
     // Create a list of TupleTag to direct the target rows
@@ -450,6 +537,40 @@ public class TransformFn extends TransformBaseFn {
 
     initCounter.inc();
 
+    // Keep the metrics of the fused transforms up to date as well.
+    // The main output rows are then counted by the last transform in the chain.
+    //
+    if (!fusedTransforms.isEmpty()) {
+      transformCombi.transform.addRowListener(
+          new RowAdapter() {
+            @Override
+            public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+              writtenCounter.inc();
+            }
+          });
+    }
+    for (FusedTransform fusedTransform : fusedTransforms) {
+      String fusedTransformName = fusedTransform.getTransformName();
+      Metrics.counter(Pipeline.METRIC_NAME_INIT, fusedTransformName).inc();
+      Counter fusedReadCounter = Metrics.counter(Pipeline.METRIC_NAME_READ, fusedTransformName);
+      Counter fusedWrittenCounter =
+          Metrics.counter(Pipeline.METRIC_NAME_WRITTEN, fusedTransformName);
+      pipeline
+          .getTransform(fusedTransformName, 0)
+          .addRowListener(
+              new RowAdapter() {
+                @Override
+                public void rowReadEvent(IRowMeta rowMeta, Object[] row) {
+                  fusedReadCounter.inc();
+                }
+
+                @Override
+                public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+                  fusedWrittenCounter.inc();
+                }
+              });
+    }
+
     // Doesn't really start the threads in single threaded mode
     // Just sets some flags all over the place
     //
@@ -525,7 +646,9 @@ public class TransformFn extends TransformBaseFn {
       // Pass the row to the process context
       //
       context.output(mainTupleTag, resultRow);
-      writtenCounter.inc();
+      if (fusedTransforms.isEmpty()) {
+        writtenCounter.inc();
+      }
     }
 
     // Pass whatever ended up on the target nodes
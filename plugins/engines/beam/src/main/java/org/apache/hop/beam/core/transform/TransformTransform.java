@@ -30,6 +30,7 @@ import org.apache.beam.sdk.values.TupleTag;
 import org.apache.beam.sdk.values.TupleTagList;
 import org.apache.hop.beam.core.BeamHop;
 import org.apache.hop.beam.core.HopRow;
+import org.apache.hop.beam.core.shared.FusedTransform;
 import org.apache.hop.beam.core.shared.VariableValue;
 import org.apache.hop.beam.core.util.HopBeamUtil;
 import org.slf4j.Logger;
@@ -50,6 +51,9 @@ public class TransformTransform extends PTransform<PCollection<HopRow>, PCollect
   protected List<String> infoRowMetaJsons;
   protected int flushIntervalMs;
 
+  // Transforms executed in the same DoFn, after the main transform
+  protected List<FusedTransform> fusedTransforms;
+
   // Execution information vectors
   protected String runConfigName;
   protected String dataSamplersJson;
@@ -65,6 +69,7 @@ public class TransformTransform extends PTransform<PCollection<HopRow>, PCollect
 
   public TransformTransform() {
     variableValues = new ArrayList<>();
+    fusedTransforms = new ArrayList<>();
   }
 
   public TransformTransform(
@@ -84,6 +89,44 @@ public class TransformTransform extends PTransform<PCollection<HopRow>, PCollect
       String runConfigName,
       String dataSamplersJson,
       String parentLogChannelId) {
+    this(
+        variableValues,
+        metastoreJson,
+        batchSize,
+        flushIntervalMs,
+        transformName,
+        transformPluginId,
+        transformMetaInterfaceXml,
+        inputRowMetaJson,
+        inputTransform,
+        targetTransforms,
+        infoTransforms,
+        infoRowMetaJsons,
+        infoCollectionViews,
+        runConfigName,
+        dataSamplersJson,
+        parentLogChannelId,
+        new ArrayList<>());
+  }
+
+  public TransformTransform(
+      List<VariableValue> variableValues,
+      String metastoreJson,
+      int batchSize,
+      int flushIntervalMs,
+      String transformName,
+      String transformPluginId,
+      String transformMetaInterfaceXml,
+      String inputRowMetaJson,
+      boolean inputTransform,
+      List<String> targetTransforms,
+      List<String> infoTransforms,
+      List<String> infoRowMetaJsons,
+      List<PCollectionView<List<HopRow>>> infoCollectionViews,
+      String runConfigName,
+      String dataSamplersJson,
+      String parentLogChannelId,
+      List<FusedTransform> fusedTransforms) {
     this.variableValues = variableValues;
     this.metastoreJson = metastoreJson;
     this.batchSize = batchSize;
@@ -100,6 +143,7 @@ public class TransformTransform extends PTransform<PCollection<HopRow>, PCollect
     this.runConfigName = runConfigName;
     this.dataSamplersJson = dataSamplersJson;
     this.parentLogChannelId = parentLogChannelId;
+    this.fusedTransforms = fusedTransforms;
   }
 
   @Override
@@ -144,7 +188,8 @@ public class TransformTransform extends PTransform<PCollection<HopRow>, PCollect
               dataSamplersJson,
               runConfigName,
               parentLogChannelId,
-              infoCollectionViews);
+              infoCollectionViews,
+              fusedTransforms);
 
       // The actual transform functionality
       //
@@ -21,6 +21,7 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -37,6 +38,7 @@ import org.apache.beam.sdk.values.PCollectionList;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hop.beam.core.HopRow;
 import org.apache.hop.beam.core.coder.HopRowCoder;
+import org.apache.hop.beam.core.coder.HopRowSchemaCoder;
 import org.apache.hop.beam.core.util.HopBeamUtil;
 import org.apache.hop.beam.engines.HopPipelineExecutionOptions;
 import org.apache.hop.beam.engines.IBeamPipelineEngineRunConfiguration;
@@ -64,6 +66,7 @@ import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.config.PipelineRunConfiguration;
 import org.apache.hop.pipeline.transform.ITransformMeta;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transform.stream.IStream;
 import org.apache.hop.pipeline.transforms.groupby.GroupByMeta;
 import org.apache.hop.pipeline.transforms.uniquerows.UniqueRowsMeta;
 import org.jboss.jandex.AnnotationInstance;
@@ -365,6 +368,9 @@ public class HopPipelineMetaToBeamPipelineConverter {
                 + transformMeta.getName());
       }
 
+      Set<String> previousCollections = new HashSet<>(transformCollectionMap.keySet());
+      IRowMeta outputRowMeta = pipelineMeta.getTransformFields(variables, transformMeta);
+
       transformHandler.handleTransform(
           log,
           variables,
@@ -376,10 +382,12 @@ public class HopPipelineMetaToBeamPipelineConverter {
           transformMeta,
           transformCollectionMap,
           pipeline,
-          pipelineMeta.getTransformFields(variables, transformMeta),
+          outputRowMeta,
           null,
           null,
           parentLogChannelId);
+
+      setSchemaCoders(log, transformCollectionMap, previousCollections, outputRowMeta);
     }
   }
 
@@ -465,8 +473,22 @@ public class HopPipelineMetaToBeamPipelineConverter {
     //
     List<TransformMeta> transforms = getSortedTransformsList();
 
+    // See which linear chains of generic transforms can be executed in a single DoFn
+    //
+    Map<String, List<TransformMeta>> fusedTransformsMap = findFusedTransforms(log, transforms);
+    Set<String> fusedTransformNames = new HashSet<>();
+    fusedTransformsMap
+        .values()
+        .forEach(chain -> chain.forEach(fused -> fusedTransformNames.add(fused.getName())));
+
     for (TransformMeta transformMeta : transforms) {
 
+      // These are executed together with the first transform of their chain
+      //
+      if (fusedTransformNames.contains(transformMeta.getName())) {
+        continue;
+      }
+
       // Input and output transforms are handled else where.
       //
       IBeamPipelineTransformHandler transformHandler =
@@ -580,23 +602,173 @@ public class HopPipelineMetaToBeamPipelineConverter {
           transformHandler = genericTransformHandler;
         }
 
-        transformHandler.handleTransform(
+        Set<String> previousCollections = new HashSet<>(transformCollectionMap.keySet());
+
+        List<TransformMeta> fusedTransforms = fusedTransformsMap.get(transformMeta.getName());
+        TransformMeta outputTransformMeta = transformMeta;
+        if (fusedTransforms == null) {
+          transformHandler.handleTransform(
+              log,
+              variables,
+              runConfigName,
+              pipelineRunConfiguration,
+              dataSamplersJson,
+              metadataProvider,
+              pipelineMeta,
+              transformMeta,
+              transformCollectionMap,
+              pipeline,
+              rowMeta,
+              previousTransforms,
+              input,
+              parentLogChannelId);
+        } else {
+          ((BeamGenericTransformHandler) transformHandler)
+              .handleTransform(
+                  log,
+                  variables,
+                  runConfigName,
+                  pipelineRunConfiguration,
+                  dataSamplersJson,
+                  metadataProvider,
+                  pipelineMeta,
+                  transformMeta,
+                  transformCollectionMap,
+                  pipeline,
+                  rowMeta,
+                  previousTransforms,
+                  input,
+                  parentLogChannelId,
+                  fusedTransforms);
+          outputTransformMeta = fusedTransforms.get(fusedTransforms.size() - 1);
+        }
+
+        setSchemaCoders(
             log,
-            variables,
-            runConfigName,
-            pipelineRunConfiguration,
-            dataSamplersJson,
-            metadataProvider,
-            pipelineMeta,
-            transformMeta,
             transformCollectionMap,
-            pipeline,
-            rowMeta,
-            previousTransforms,
-            input,
-            parentLogChannelId);
+            previousCollections,
+            pipelineMeta.getTransformFields(variables, outputTransformMeta));
+      }
+    }
+  }
+
+  /**
+   * The collections a transform handler added to the map carry rows with the output layout of the
+   * transform. For those we can use the compact schema-aware coder instead of the generic one.
+   *
+   * @param log The log channel to use
+   * @param transformCollectionMap The map with all the collections
+   * @param previousCollections The names of the collections which were there before the handler ran
+   * @param outputRowMeta The output row layout of the transform
+   */
+  private void setSchemaCoders(
+      ILogChannel log,
+      Map<String, PCollection<HopRow>> transformCollectionMap,
+      Set<String> previousCollections,
+      IRowMeta outputRowMeta) {
+    HopRowSchemaCoder coder = HopRowSchemaCoder.of(outputRowMeta);
+    for (Map.Entry<String, PCollection<HopRow>> entry : transformCollectionMap.entrySet()) {
+      if (previousCollections.contains(entry.getKey())) {
+        continue;
+      }
+      try {
+        entry.getValue().setCoder(coder);
+      } catch (IllegalStateException e) {
+        // The handler already used this collection itself, it keeps the generic row coder.
+        //
+        log.logDebug("Keeping the generic row coder for collection " + entry.getKey());
+      }
+    }
+  }
+
+  /**
+   * Find linear chains of generic transforms. A transform is fused with the previous transform if
+   * it reads from that transform only and if it's the only transform reading from it. The fused
+   * transforms then run in the same DoFn as the first transform in the chain: one Beam stage and
+   * one embedded pipeline instead of one for every transform.
+   *
+   * @param log The log channel to use
+   * @param sortedTransforms The transforms sorted from start to finish
+   * @return A map with the name of the first transform of every chain as key and the transforms
+   *     fused after it as value.
+   */
+  private Map<String, List<TransformMeta>> findFusedTransforms(
+      ILogChannel log, List<TransformMeta> sortedTransforms) {
+    Map<String, List<TransformMeta>> fusedTransformsMap = new HashMap<>();
+    if (!(genericTransformHandler instanceof BeamGenericTransformHandler)
+        || !Const.toBoolean(variables.getVariable(BeamConst.HOP_BEAM_FUSE_TRANSFORMS, "Y"))) {
+      return fusedTransformsMap;
+    }
+
+    // The name of the first transform of the chain every fused transform belongs to
+    //
+    Map<String, String> chainStartMap = new HashMap<>();
+
+    for (TransformMeta transformMeta : sortedTransforms) {
+      if (!canBeFused(transformMeta)) {
+        continue;
+      }
+      List<TransformMeta> previousTransforms = pipelineMeta.findPreviousTransforms(transformMeta);
+      if (previousTransforms.size() != 1) {
+        continue;
+      }
+      TransformMeta previousTransform = previousTransforms.get(0);
+      if (!canBeFused(previousTransform)
+          || pipelineMeta.findNextTransforms(previousTransform).size() != 1
+          || hasTargetTransforms(previousTransform)) {
+        continue;
+      }
+      String chainStart =
+          chainStartMap.getOrDefault(previousTransform.getName(), previousTransform.getName());
+      chainStartMap.put(transformMeta.getName(), chainStart);
+      fusedTransformsMap.computeIfAbsent(chainStart, k -> new ArrayList<>()).add(transformMeta);
+    }
+
+    for (Map.Entry<String, List<TransformMeta>> entry : fusedTransformsMap.entrySet()) {
+      log.logBasic(
+          "Fusing "
+              + entry.getValue().size()
+              + " transform(s) into the DoFn of transform "
+              + entry.getKey());
+    }
+    return fusedTransformsMap;
+  }
+
+  /**
+   * A transform can be part of a fused chain if it's a generic transform without info or target
+   * transforms which doesn't need to group, batch rows or reduce the parallelism.
+   */
+  private boolean canBeFused(TransformMeta transformMeta) {
+    ITransformMeta meta = transformMeta.getTransform();
+    if (transformHandlers.containsKey(transformMeta.getTransformPluginId())
+        || meta instanceof IBeamPipelineTransformHandler
+        || meta instanceof GroupByMeta
+        || meta instanceof UniqueRowsMeta) {
+      return false;
+    }
+    if (Const.toBoolean(
+        transformMeta.getAttribute(
+            BeamConst.STRING_HOP_BEAM, BeamConst.STRING_TRANSFORM_FLAG_NO_FUSION))) {
+      return false;
+    }
+    if (BeamGenericTransformHandler.needsBatching(variables, transformMeta)
+        || BeamGenericTransformHandler.needsSingleThreading(transformMeta)
+        || BeamGenericTransformHandler.checkTransformCopiesForReducedParallelism(transformMeta)) {
+      return false;
+    }
+    return pipelineMeta.findPreviousTransforms(transformMeta, true).size()
+            == pipelineMeta.findPreviousTransforms(transformMeta, false).size()
+        && !hasTargetTransforms(transformMeta);
+  }
+
+  private boolean hasTargetTransforms(TransformMeta transformMeta) {
+    for (IStream targetStream :
+        transformMeta.getTransform().getTransformIOMeta().getTargetStreams()) {
+      if (targetStream.getTransformMeta() != null) {
+        return true;
       }
     }
+    return false;
   }
 
   private void validateTransformBeamUsage(ITransformMeta meta) throws HopException {
@@ -38,6 +38,7 @@ import org.apache.beam.sdk.values.PCollectionView;
 import org.apache.beam.sdk.values.TupleTag;
 import org.apache.hop.beam.core.HopRow;
 import org.apache.hop.beam.core.fn.StringToHopRowFn;
+import org.apache.hop.beam.core.shared.FusedTransform;
 import org.apache.hop.beam.core.shared.VariableValue;
 import org.apache.hop.beam.core.transform.TransformBatchTransform;
 import org.apache.hop.beam.core.transform.TransformTransform;
@@ -89,15 +90,64 @@ public class BeamGenericTransformHandler extends BeamBaseTransformHandler
       PCollection<HopRow> input,
       String parentLogChannelId)
       throws HopException {
+    handleTransform(
+        log,
+        variables,
+        runConfigurationName,
+        runConfiguration,
+        dataSamplersJson,
+        metadataProvider,
+        pipelineMeta,
+        transformMeta,
+        transformCollectionMap,
+        pipeline,
+        rowMeta,
+        previousTransforms,
+        input,
+        parentLogChannelId,
+        new ArrayList<>());
+  }
+
+  /**
+   * Handle a generic transform followed by a chain of fused transforms. The fused transforms are
+   * executed in the same DoFn as the transform itself. Each of them reads from the one before it
+   * and there are no other inputs, outputs or target transforms involved. The main output of the
+   * chain is stored under the name of the last transform.
+   *
+   * @param fusedTransformMetas The transforms to execute after this one in the same DoFn
+   */
+  public void handleTransform(
+      ILogChannel log,
+      IVariables variables,
+      String runConfigurationName,
+      IBeamPipelineEngineRunConfiguration runConfiguration,
+      String dataSamplersJson,
+      IHopMetadataProvider metadataProvider,
+      PipelineMeta pipelineMeta,
+      TransformMeta transformMeta,
+      Map<String, PCollection<HopRow>> transformCollectionMap,
+      Pipeline pipeline,
+      IRowMeta rowMeta,
+      List<TransformMeta> previousTransforms,
+      PCollection<HopRow> input,
+      String parentLogChannelId,
+      List<TransformMeta> fusedTransformMetas)
+      throws HopException {
 
     // If we have no previous transform, it's an input transform.  We need to start from pipeline
     //
     boolean inputTransform = input == null;
 
-    String transformMetaInterfaceXml =
-        XmlHandler.openTag(TransformMeta.XML_TAG)
-            + transformMeta.getTransform().getXml()
-            + XmlHandler.closeTag(TransformMeta.XML_TAG);
+    String transformMetaInterfaceXml = getTransformMetaInterfaceXml(transformMeta);
+
+    List<FusedTransform> fusedTransforms = new ArrayList<>();
+    for (TransformMeta fusedTransformMeta : fusedTransformMetas) {
+      fusedTransforms.add(
+          new FusedTransform(
+              fusedTransformMeta.getName(),
+              fusedTransformMeta.getTransformPluginId(),
+              getTransformMetaInterfaceXml(fusedTransformMeta)));
+    }
 
     // See if the transform has Info transforms
     //
@@ -192,7 +242,8 @@ public class BeamGenericTransformHandler extends BeamBaseTransformHandler
               infoCollectionViews,
               runConfigurationName,
               dataSamplersJson,
-              parentLogChannelId);
+              parentLogChannelId,
+              fusedTransforms);
     }
 
     if (input == null) {
@@ -245,9 +296,13 @@ public class BeamGenericTransformHandler extends BeamBaseTransformHandler
     PCollection<HopRow> mainPCollection =
         tuple.get(new TupleTag<>(HopBeamUtil.createMainOutputTupleId(transformMeta.getName())));
 
-    // Save this in the map
+    // Save this in the map.  The rows come from the last fused transform if there are any.
     //
-    transformCollectionMap.put(transformMeta.getName(), mainPCollection);
+    String outputTransformName =
+        fusedTransformMetas.isEmpty()
+            ? transformMeta.getName()
+            : fusedTransformMetas.get(fusedTransformMetas.size() - 1).getName();
+    transformCollectionMap.put(outputTransformName, mainPCollection);
 
     // Were there any targeted transforms in this transform?
     //
@@ -268,7 +323,15 @@ public class BeamGenericTransformHandler extends BeamBaseTransformHandler
             + " previous transform(s), targets="
             + targetTransforms.size()
             + ", infos="
-            + infoTransforms.size());
+            + infoTransforms.size()
+            + ", fused="
+            + fusedTransforms.size());
+  }
+
+  private String getTransformMetaInterfaceXml(TransformMeta transformMeta) throws HopException {
+    return XmlHandler.openTag(TransformMeta.XML_TAG)
+        + transformMeta.getTransform().getXml()
+        + XmlHandler.closeTag(TransformMeta.XML_TAG);
   }
 
   public static boolean needsBatching(IVariables variables, TransformMeta transformMeta) {
@@ -291,7 +354,7 @@ public class BeamGenericTransformHandler extends BeamBaseTransformHandler
     return Const.toBoolean(value);
   }
 
-  private boolean checkTransformCopiesForReducedParallelism(TransformMeta transformMeta) {
+  public static boolean checkTransformCopiesForReducedParallelism(TransformMeta transformMeta) {
     if (transformMeta.getCopiesString() == null) {
       return false;
     }
@@ -22,12 +22,16 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import org.apache.beam.sdk.Pipeline;
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.coders.KvCoder;
 import org.apache.beam.sdk.extensions.joinlibrary.Join;
 import org.apache.beam.sdk.transforms.DoFn;
 import org.apache.beam.sdk.transforms.ParDo;
 import org.apache.beam.sdk.values.KV;
 import org.apache.beam.sdk.values.PCollection;
 import org.apache.hop.beam.core.HopRow;
+import org.apache.hop.beam.core.coder.HopRowCoder;
+import org.apache.hop.beam.core.coder.HopRowSchemaCoder;
 import org.apache.hop.beam.core.fn.HopKeyValueFn;
 import org.apache.hop.beam.core.fn.MergeJoinAssemblerFn;
 import org.apache.hop.beam.engines.IBeamPipelineEngineRunConfiguration;
@@ -161,6 +165,18 @@ public class BeamMergeJoinTransformHandler extends BeamBaseTransformHandler
     PCollection<KV<HopRow, HopRow>> rightKVPCollection =
         rightPCollection.apply(ParDo.of(rightKVFn));
 
+    // Both sides need to encode the keys the same way for the join to find matches.
+    // That only works with the schema-aware coder if the key fields have the same data types
+    // and equal keys always have the same encoding.
+    //
+    HopRowSchemaCoder leftKeyCoder = HopRowSchemaCoder.of(leftKRowMeta);
+    Coder<HopRow> keyCoder =
+        leftKeyCoder.equals(HopRowSchemaCoder.of(rightKRowMeta)) && leftKeyCoder.isDeterministic()
+            ? leftKeyCoder
+            : new HopRowCoder();
+    leftKVPCollection.setCoder(KvCoder.of(keyCoder, HopRowSchemaCoder.of(leftVRowMeta)));
+    rightKVPCollection.setCoder(KvCoder.of(keyCoder, HopRowSchemaCoder.of(rightVRowMeta)));
+
     PCollection<KV<HopRow, KV<HopRow, HopRow>>> kvpCollection;
 
     // For efficiency of detecting "all null value rows" we send an empty row as null value.
@@ -49,8 +49,15 @@ public class BeamConst {
 
   public static final String STRING_TRANSFORM_FLAG_BATCH = "Batch";
   public static final String STRING_TRANSFORM_FLAG_SINGLE_THREADED = "SingleThreaded";
+  public static final String STRING_TRANSFORM_FLAG_NO_FUSION = "NoFusion";
   public static final String STRING_LOCAL_PIPELINE_FLAG_LOG_LEVEL = "LogLevel";
 
+  /**
+   * Set this variable to N to run every generic transform in its own DoFn instead of fusing linear
+   * chains of generic transforms into a single one.
+   */
+  public static final String HOP_BEAM_FUSE_TRANSFORMS = "HOP_BEAM_FUSE_TRANSFORMS";
+
   private static List<String[]> gcpWorkerCodeDescriptions =
       Arrays.asList(
           new String[] {
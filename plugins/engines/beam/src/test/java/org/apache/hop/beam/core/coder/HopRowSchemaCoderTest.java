@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.beam.core.coder;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Date;
+import org.apache.beam.sdk.coders.Coder.NonDeterministicException;
+import org.apache.hop.beam.core.HopRow;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaBinary;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.row.value.ValueMetaTimestamp;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HopRowSchemaCoderTest {
+
+  private HopRowSchemaCoder coder;
+
+  @BeforeEach
+  void setUp() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("name"));
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    rowMeta.addValueMeta(new ValueMetaNumber("amount"));
+    rowMeta.addValueMeta(new ValueMetaDate("date"));
+    rowMeta.addValueMeta(new ValueMetaTimestamp("timestamp"));
+    rowMeta.addValueMeta(new ValueMetaBoolean("flag"));
+    rowMeta.addValueMeta(new ValueMetaBigNumber("big"));
+    rowMeta.addValueMeta(new ValueMetaBinary("bytes"));
+    rowMeta.addValueMeta(new ValueMetaString("nullable"));
+    coder = HopRowSchemaCoder.of(rowMeta);
+  }
+
+  @Test
+  void testEncodeDecode() throws IOException {
+    Timestamp timestamp = new Timestamp(810311);
+    timestamp.setNanos(123456789);
+    HopRow row =
+        new HopRow(
+            new Object[] {
+              "Apache Hop ✓",
+              -100L,
+              1.234,
+              new Date(876876868),
+              timestamp,
+              true,
+              new BigDecimal("-12345678901234567890.120"),
+              new byte[] {1, 2, 3},
+              null
+            });
+
+    HopRow decoded = roundTrip(row);
+
+    assertEquals(9, decoded.length());
+    for (int i = 0; i < 7; i++) {
+      assertEquals(row.getRow()[i], decoded.getRow()[i]);
+    }
+    assertEquals(3, ((BigDecimal) decoded.getRow()[6]).scale());
+    assertArrayEquals((byte[]) row.getRow()[7], (byte[]) decoded.getRow()[7]);
+    assertNull(decoded.getRow()[8]);
+  }
+
+  @Test
+  void testValuesNotMatchingTheLayout() throws IOException {
+    // A timestamp in a date field, a string in an integer field and an extra field
+    //
+    Timestamp timestamp = new Timestamp(1000L);
+    HopRow row =
+        new HopRow(
+            new Object[] {"a", "not a number", 1.0, timestamp, null, null, null, null, null, 42L});
+
+    HopRow decoded = roundTrip(row);
+
+    assertEquals(10, decoded.length());
+    assertEquals("not a number", decoded.getRow()[1]);
+    assertEquals(timestamp, decoded.getRow()[3]);
+    assertTrue(decoded.getRow()[3] instanceof Timestamp);
+    assertEquals(42L, decoded.getRow()[9]);
+  }
+
+  @Test
+  void testNullRow() throws IOException {
+    assertNull(roundTrip(new HopRow(null)).getRow());
+  }
+
+  @Test
+  void testCompactAndDeterministic() throws IOException {
+    HopRow row = new HopRow(new Object[] {"key", 1L, null, null, null, null, null, null, null});
+
+    byte[] first = encode(row);
+    byte[] second =
+        encode(new HopRow(new Object[] {"key", 1L, null, null, null, null, null, null, null}));
+
+    assertArrayEquals(first, second);
+    // header + 2 bytes null bitmap + 4 bytes string + 1 byte integer
+    assertEquals(8, first.length);
+    assertTrue(first.length < encodeGeneric(row).length);
+  }
+
+  @Test
+  void testVerifyDeterministic() throws Exception {
+    // The amount and big number fields can have equal values with different encodings
+    //
+    assertFalse(coder.isDeterministic());
+    assertThrows(NonDeterministicException.class, () -> coder.verifyDeterministic());
+
+    IRowMeta keyRowMeta = new RowMeta();
+    keyRowMeta.addValueMeta(new ValueMetaString("name"));
+    keyRowMeta.addValueMeta(new ValueMetaInteger("id"));
+    keyRowMeta.addValueMeta(new ValueMetaDate("date"));
+    HopRowSchemaCoder keyCoder = HopRowSchemaCoder.of(keyRowMeta);
+    assertTrue(keyCoder.isDeterministic());
+    keyCoder.verifyDeterministic();
+  }
+
+  private HopRow roundTrip(HopRow row) throws IOException {
+    return coder.decode(new ByteArrayInputStream(encode(row)));
+  }
+
+  private byte[] encode(HopRow row) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    coder.encode(row, out);
+    return out.toByteArray();
+  }
+
+  private static byte[] encodeGeneric(HopRow row) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new HopRowCoder().encode(row, out);
+    return out.toByteArray();
+  }
+}
@@ -227,6 +227,66 @@ public class BeamPipelineMetaUtil {
     return pipelineMeta;
   }
 
+  public static PipelineMeta generateFusedTransformsPipelineMeta(
+      String transname,
+      String inputTransformName,
+      String outputTransformName,
+      IHopMetadataProvider metadataProvider)
+      throws Exception {
+
+    IHopMetadataSerializer<FileDefinition> serializer =
+        metadataProvider.getSerializer(FileDefinition.class);
+    FileDefinition customerFileDefinition = createCustomersInputFileDefinition();
+    serializer.save(customerFileDefinition);
+
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    pipelineMeta.setName(transname);
+    pipelineMeta.setMetadataProvider(metadataProvider);
+
+    // Add the io transform
+    //
+    BeamInputMeta beamInputMeta = new BeamInputMeta();
+    beamInputMeta.setInputLocation(PipelineTestBase.INPUT_CUSTOMERS_FILE);
+    beamInputMeta.setFileDefinitionName(customerFileDefinition.getName());
+    TransformMeta beamInputTransformMeta = new TransformMeta(inputTransformName, beamInputMeta);
+    beamInputTransformMeta.setTransformPluginId(BeamConst.STRING_BEAM_INPUT_PLUGIN_ID);
+    pipelineMeta.addTransform(beamInputTransformMeta);
+
+    // A linear chain of generic transforms: these end up in a single DoFn
+    //
+    ConstantMeta constantA = new ConstantMeta();
+    constantA.getFields().add(new ConstantField("labelA", "String", "A"));
+    TransformMeta constantAMeta = new TransformMeta("A", constantA);
+    pipelineMeta.addTransform(constantAMeta);
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(beamInputTransformMeta, constantAMeta));
+
+    DummyMeta dummyPipelineMeta = new DummyMeta();
+    TransformMeta dummyTransformMeta = new TransformMeta("Dummy", dummyPipelineMeta);
+    pipelineMeta.addTransform(dummyTransformMeta);
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(constantAMeta, dummyTransformMeta));
+
+    ConstantMeta constantB = new ConstantMeta();
+    constantB.getFields().add(new ConstantField("labelB", "String", "B"));
+    TransformMeta constantBMeta = new TransformMeta("B", constantB);
+    pipelineMeta.addTransform(constantBMeta);
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(dummyTransformMeta, constantBMeta));
+
+    // Add the output transform
+    //
+    BeamOutputMeta beamOutputMeta = new BeamOutputMeta();
+    beamOutputMeta.setOutputLocation("/tmp/customers/output/");
+    beamOutputMeta.setFileDefinitionName(null);
+    beamOutputMeta.setFilePrefix("fused-test");
+    beamOutputMeta.setFileSuffix(".csv");
+    beamOutputMeta.setWindowed(false); // Not yet supported
+    TransformMeta beamOutputTransformMeta = new TransformMeta(outputTransformName, beamOutputMeta);
+    beamOutputTransformMeta.setTransformPluginId("BeamOutput");
+    pipelineMeta.addTransform(beamOutputTransformMeta);
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(constantBMeta, beamOutputTransformMeta));
+
+    return pipelineMeta;
+  }
+
   public static PipelineMeta generateSwitchCasePipelineMeta(
       String transname,
       String inputTransformName,
@@ -17,10 +17,11 @@
 
 package org.apache.hop.pipeline.transforms.analyticquery;
 
-import java.util.concurrent.ConcurrentLinkedQueue;
+import org.apache.hop.core.RowMetaAndData;
+import org.apache.hop.core.SpillableRowList;
 import org.apache.hop.core.exception.HopException;
-import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.RowDataUtil;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
@@ -28,7 +29,10 @@ import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
 
-/** Performs analytic queries (LEAD/LAG, etc.) based on a group */
+/**
+ * Performs analytic queries (LEAD/LAG, running totals, ranks, etc.) based on a group. The rows are
+ * streamed through a window which only holds the rows the functions look at.
+ */
 public class AnalyticQuery extends BaseTransform<AnalyticQueryMeta, AnalyticQueryData> {
 
   private static final Class<?> PKG = AnalyticQuery.class;
@@ -82,43 +86,53 @@ public class AnalyticQuery extends BaseTransform<AnalyticQueryMeta, AnalyticQuer
         }
       }
 
-      // Setup of "window size" and "queue_size"
-      int maxOffset = 0;
+      // Set up the functions and how many rows they need to look at
+      //
+      data.functions = new WindowFunction[meta.getQueryFields().size()];
+      data.lookAhead = 0;
+      data.lookBack = 0;
+      data.wholeGroup = false;
       for (int i = 0; i < meta.getQueryFields().size(); i++) {
         QueryField queryField = meta.getQueryFields().get(i);
-
-        if (queryField.getValueField() > maxOffset) {
-          maxOffset = queryField.getValueField();
-        }
+        int subjectIndex = data.inputRowMeta.indexOfValue(queryField.getSubjectField());
+        IValueMeta subjectMeta =
+            subjectIndex < 0 ? null : data.inputRowMeta.getValueMeta(subjectIndex);
+        WindowFunction function = new WindowFunction(queryField, subjectIndex, subjectMeta);
+        data.functions[i] = function;
+        data.lookAhead = Math.max(data.lookAhead, function.getLookAhead());
+        data.lookBack = Math.max(data.lookBack, function.getLookBack());
+        data.wholeGroup |= function.isUnboundedFollowing();
       }
-      data.window_size = maxOffset;
-      data.queue_size = (maxOffset * 2) + 1;
+      data.window = new RowWindow();
 
       // After we've processed the metadata we're all set
       first = false;
     }
 
-    /* If our row is null we're done, clear the queue and end otherwise process the row */
+    /* If our row is null we're done, process the last group and end otherwise process the row */
     if (r == null) {
-      clearQueue();
+      finishGroup();
       setOutputDone();
       return false;
-    } else {
-      /* First with every group change AND the first row */
-      if (!sameGroup(this.data.previous, r)) {
-        clearQueue();
-        resetGroup();
-      }
-      /* Add this row to the end of the queue */
-      data.data.add(r);
-      /* Push the extra records off the end of the queue */
-      while (data.data.size() > data.queue_size) {
-        data.data.poll();
-      }
+    }
 
-      data.previous = r.clone();
+    /* First with every group change AND the first row */
+    if (!sameGroup(data.previous, r)) {
+      finishGroup();
+      startGroup();
+    }
+    data.previous = r.clone();
 
-      processQueue();
+    long index = data.groupSize++;
+    for (WindowFunction function : data.functions) {
+      function.addRead(index, r);
+    }
+    if (data.wholeGroup) {
+      // The rows are calculated when the whole group is read
+      data.groupRows.add(new RowMetaAndData(data.inputRowMeta, r));
+    } else {
+      data.window.add(r);
+      calculateRows(false);
     }
 
     if (isBasic() && checkFeedback(getLinesRead())) {
@@ -128,82 +142,55 @@ public class AnalyticQuery extends BaseTransform<AnalyticQueryMeta, AnalyticQuer
     return true;
   }
 
-  public void processQueue() throws HopTransformException {
-
-    // If we've filled up our queue for processing
-    if (data.data.size() == data.queue_size) {
-      // Bring current cursor "up to current"
-      if (data.queue_cursor <= data.window_size) {
-        while (data.queue_cursor <= data.window_size) {
-          processQueueObjectAt(data.queue_cursor + 1);
-          data.queue_cursor++;
-        }
-      } else {
-        processQueueObjectAt(data.window_size + 1);
-      }
+  private void startGroup() {
+    data.window.clear();
+    data.groupSize = 0;
+    data.cursor = 0;
+    for (WindowFunction function : data.functions) {
+      function.reset();
+    }
+    if (data.wholeGroup) {
+      // Spill with the threshold configured for the result rows
+      data.groupRows = new SpillableRowList();
     }
   }
 
-  public void clearQueue() throws HopTransformException {
-
-    if (data.data == null) {
+  /** Calculate the remaining rows of the current group */
+  private void finishGroup() throws HopException {
+    if (data.previous == null) {
       return;
     }
-
-    int numberOfRows = data.data.size();
-
-    for (int i = data.queue_cursor; i < numberOfRows; i++) {
-      processQueueObjectAt(i + 1);
+    if (data.wholeGroup) {
+      // Stream the rows of the group through the window again
+      //
+      for (RowMetaAndData row : data.groupRows) {
+        data.window.add(row.getData());
+        calculateRows(false);
+      }
+      data.groupRows.clear();
     }
+    calculateRows(true);
   }
 
-  public void processQueueObjectAt(int i) throws HopTransformException {
-    int index = i - 1;
-    Object[] rows = data.data.toArray();
-
-    Object[] fields = new Object[meta.getQueryFields().size()];
-    for (int j = 0; j < meta.getQueryFields().size(); j++) {
-      QueryField queryField = meta.getQueryFields().get(j);
-
-      // field_index is the location inside a row of the subject of this
-      // ie, ORDERTOTAL might be the subject ofthis field lag or lead
-      // so we determine that ORDERTOTAL's index in the row
-      int fieldIndex = data.inputRowMeta.indexOfValue(queryField.getSubjectField());
-      int rowIndex = 0;
-      switch (queryField.getAggregateType()) {
-        case LAG:
-          rowIndex = index - queryField.getValueField();
-          break;
-        case LEAD:
-          rowIndex = index + queryField.getValueField();
-          break;
-        case NONE:
-        default:
-          break;
+  /**
+   * Calculate the rows for which all rows the functions look at are read.
+   *
+   * @param groupEnded true if all rows of the group are read
+   */
+  private void calculateRows(boolean groupEnded) throws HopException {
+    long endIndex = data.window.getEndIndex() - 1;
+    while (data.cursor <= endIndex && (groupEnded || data.cursor + data.lookAhead <= endIndex)) {
+      Object[] row = data.window.get(data.cursor);
+      Object[] fields = new Object[data.functions.length];
+      for (int i = 0; i < data.functions.length; i++) {
+        fields[i] = data.functions[i].calculate(data.cursor, endIndex, data.window);
       }
-      if (rowIndex < rows.length && rowIndex >= 0) {
-        Object[] singleRow = (Object[]) rows[rowIndex];
-        if (singleRow != null && singleRow[fieldIndex] != null) {
-          fields[j] = ((Object[]) rows[rowIndex])[fieldIndex];
-        } else {
-          // set default
-          fields[j] = null;
-        }
-      } else {
-        // set default
-        fields[j] = null;
-      }
-    }
-
-    Object[] newRow =
-        RowDataUtil.addRowData((Object[]) rows[index], data.inputRowMeta.size(), fields);
+      putRow(data.outputRowMeta, RowDataUtil.addRowData(row, data.inputRowMeta.size(), fields));
+      data.cursor++;
 
-    putRow(data.outputRowMeta, newRow);
-  }
-
-  public void resetGroup() {
-    data.data = new ConcurrentLinkedQueue<>();
-    data.queue_cursor = 0;
+      // Keep the rows the functions still need to look back at
+      data.window.discardBefore(data.cursor - data.lookBack);
+    }
   }
 
   // Is the row r of the same group as previous?
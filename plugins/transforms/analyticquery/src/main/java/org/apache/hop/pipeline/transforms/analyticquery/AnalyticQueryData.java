@@ -17,7 +17,7 @@
 
 package org.apache.hop.pipeline.transforms.analyticquery;
 
-import java.util.concurrent.ConcurrentLinkedQueue;
+import org.apache.hop.core.SpillableRowList;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
@@ -30,18 +30,27 @@ public class AnalyticQueryData extends BaseTransformData implements ITransformDa
   public IRowMeta inputRowMeta;
   public IRowMeta outputRowMeta;
 
-  // Two Integers for our processing
-  // Window Size (the largest N we need to skip forward/back)
-  public int window_size;
-  // Queue Size (the size of our data queue (Window Size * 2 ) + 1)
-  public int queue_size;
-  // / Queue Cursor (the current processing location in the queue) reset with every group
-  public int queue_cursor;
-
-  // Queue for keeping the data. We will push data onto the queue
-  // and pop it off as we process rows. The queue of data is required
-  // to get the second previous row and the second ahead row, etc.
-  public ConcurrentLinkedQueue<Object[]> data;
+  // The analytic functions, one for every query field
+  public WindowFunction[] functions;
+
+  // The number of rows after and before the current row the functions look at
+  public int lookAhead;
+  public int lookBack;
+
+  // True if a function needs all rows of a group before the first row can be calculated
+  public boolean wholeGroup;
+
+  // The rows of the current group around the current row
+  public RowWindow window;
+
+  // All rows of the current group if the whole group is needed, spilled to disk for large groups
+  public SpillableRowList groupRows;
+
+  // The number of rows read in the current group
+  public long groupSize;
+
+  // The index in the group of the next row to calculate
+  public long cursor;
 
   public Object[] previous;
 
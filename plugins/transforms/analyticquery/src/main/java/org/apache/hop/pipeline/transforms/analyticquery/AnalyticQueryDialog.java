@@ -127,7 +127,7 @@ public class AnalyticQueryDialog extends BaseTransformDialog {
     fdlAgg.top = new FormAttachment(wGroup, margin);
     wlAgg.setLayoutData(fdlAgg);
 
-    int nrQueryCols = 4;
+    int nrQueryCols = 6;
 
     ciReturn = new ColumnInfo[nrQueryCols];
     ciReturn[0] =
@@ -153,6 +153,20 @@ public class AnalyticQueryDialog extends BaseTransformDialog {
             false);
     ciReturn[3].setToolTip(
         BaseMessages.getString(PKG, "AnalyticQueryDialog.ColumnInfo.Value.Tooltip"));
+    ciReturn[4] =
+        new ColumnInfo(
+            BaseMessages.getString(PKG, "AnalyticQueryDialog.ColumnInfo.FramePreceding"),
+            ColumnInfo.COLUMN_TYPE_TEXT,
+            false);
+    ciReturn[4].setToolTip(
+        BaseMessages.getString(PKG, "AnalyticQueryDialog.ColumnInfo.FramePreceding.Tooltip"));
+    ciReturn[5] =
+        new ColumnInfo(
+            BaseMessages.getString(PKG, "AnalyticQueryDialog.ColumnInfo.FrameFollowing"),
+            ColumnInfo.COLUMN_TYPE_TEXT,
+            false);
+    ciReturn[5].setToolTip(
+        BaseMessages.getString(PKG, "AnalyticQueryDialog.ColumnInfo.FrameFollowing.Tooltip"));
 
     wAgg =
         new TableView(
@@ -233,10 +247,16 @@ public class AnalyticQueryDialog extends BaseTransformDialog {
       tableItem.setText(column++, Const.NVL(queryField.getSubjectField(), ""));
       tableItem.setText(column++, queryField.getAggregateType().getDescription());
       tableItem.setText(column++, Integer.toString(queryField.getValueField()));
+      tableItem.setText(column++, getFrameBound(queryField.getFramePreceding()));
+      tableItem.setText(column++, getFrameBound(queryField.getFrameFollowing()));
     }
     wAgg.optimizeTableView();
   }
 
+  private static String getFrameBound(int bound) {
+    return bound < 0 ? "" : Integer.toString(bound);
+  }
+
   private void cancel() {
     transformName = null;
     input.setChanged(backupChanged);
@@ -262,8 +282,13 @@ public class AnalyticQueryDialog extends BaseTransformDialog {
       QueryField.AggregateType aggregateType =
           QueryField.AggregateType.findTypeWithDescription(aggType);
       int value = Const.toInt(tableItem.getText(column++), 0);
+      int framePreceding = Const.toInt(tableItem.getText(column++), QueryField.UNBOUNDED);
+      int frameFollowing = Const.toInt(tableItem.getText(column++), QueryField.UNBOUNDED);
 
-      input.getQueryFields().add(new QueryField(field, subject, aggregateType, value));
+      QueryField queryField = new QueryField(field, subject, aggregateType, value);
+      queryField.setFramePreceding(framePreceding);
+      queryField.setFrameFollowing(frameFollowing);
+      input.getQueryFields().add(queryField);
     }
 
     transformName = wTransformName.getText();
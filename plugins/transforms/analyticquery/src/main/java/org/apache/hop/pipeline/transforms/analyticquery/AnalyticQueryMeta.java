@@ -26,6 +26,9 @@ import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
 import org.apache.hop.core.variables.IVariables;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.metadata.api.HopMetadataProperty;
@@ -81,9 +84,14 @@ public class AnalyticQueryMeta extends BaseTransformMeta<AnalyticQuery, Analytic
 
       int indexOfSubject = r.indexOfValue(queryField.getSubjectField());
 
-      // if we found the subjectField in the IRowMeta, and we should....
-      if (indexOfSubject > -1) {
-        IValueMeta vmi = r.getValueMeta(indexOfSubject).clone();
+      if (queryField.getAggregateType() == QueryField.AggregateType.ROW_NUMBER) {
+        // The row number doesn't need a subject
+        IValueMeta vmi = new ValueMetaInteger(queryField.getAggregateField());
+        vmi.setOrigin(origin);
+        fields.addValueMeta(vmi);
+      } else if (indexOfSubject > -1) {
+        // if we found the subjectField in the IRowMeta, and we should....
+        IValueMeta vmi = getAggregateValueMeta(queryField, r.getValueMeta(indexOfSubject));
         vmi.setOrigin(origin);
         vmi.setName(queryField.getAggregateField());
         fields.addValueMeta(vmi);
@@ -113,6 +121,26 @@ public class AnalyticQueryMeta extends BaseTransformMeta<AnalyticQuery, Analytic
     r.addRowMeta(fields);
   }
 
+  private static IValueMeta getAggregateValueMeta(QueryField queryField, IValueMeta subject) {
+    switch (queryField.getAggregateType()) {
+      case RANK, DENSE_RANK, COUNT:
+        return new ValueMetaInteger();
+      case AVERAGE:
+        return new ValueMetaNumber();
+      case SUM:
+        switch (subject.getType()) {
+          case IValueMeta.TYPE_INTEGER:
+            return new ValueMetaInteger();
+          case IValueMeta.TYPE_BIGNUMBER:
+            return new ValueMetaBigNumber();
+          default:
+            return new ValueMetaNumber();
+        }
+      default:
+        return subject.clone();
+    }
+  }
+
   @Override
   public void check(
       List<ICheckResult> remarks,
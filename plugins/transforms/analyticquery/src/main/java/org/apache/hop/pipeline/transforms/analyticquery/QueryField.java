@@ -24,10 +24,23 @@ import org.apache.hop.metadata.api.HopMetadataProperty;
 public class QueryField {
   private static final Class<?> PKG = AnalyticQuery.class;
 
+  /** A frame bound which includes all rows up to the start or end of the group */
+  public static final int UNBOUNDED = -1;
+
   public enum AggregateType {
     NONE(""),
     LEAD(BaseMessages.getString(PKG, "AnalyticQueryMeta.TypeGroupLongDesc.LEAD")),
-    LAG(BaseMessages.getString(PKG, "AnalyticQueryMeta.TypeGroupLongDesc.LAG"));
+    LAG(BaseMessages.getString(PKG, "AnalyticQueryMeta.TypeGroupLongDesc.LAG")),
+    ROW_NUMBER(BaseMessages.getString(PKG, "AnalyticQueryMeta.TypeGroupLongDesc.ROW_NUMBER")),
+    RANK(BaseMessages.getString(PKG, "AnalyticQueryMeta.TypeGroupLongDesc.RANK")),
+    DENSE_RANK(BaseMessages.getString(PKG, "AnalyticQueryMeta.TypeGroupLongDesc.DENSE_RANK")),
+    SUM(BaseMessages.getString(PKG, "AnalyticQueryMeta.TypeGroupLongDesc.SUM")),
+    COUNT(BaseMessages.getString(PKG, "AnalyticQueryMeta.TypeGroupLongDesc.COUNT")),
+    AVERAGE(BaseMessages.getString(PKG, "AnalyticQueryMeta.TypeGroupLongDesc.AVERAGE")),
+    MIN(BaseMessages.getString(PKG, "AnalyticQueryMeta.TypeGroupLongDesc.MIN")),
+    MAX(BaseMessages.getString(PKG, "AnalyticQueryMeta.TypeGroupLongDesc.MAX")),
+    FIRST_VALUE(BaseMessages.getString(PKG, "AnalyticQueryMeta.TypeGroupLongDesc.FIRST_VALUE")),
+    LAST_VALUE(BaseMessages.getString(PKG, "AnalyticQueryMeta.TypeGroupLongDesc.LAST_VALUE"));
 
     private String description;
 
@@ -36,7 +49,32 @@ public class QueryField {
     }
 
     public static final String[] getDescriptions() {
-      return new String[] {LEAD.description, LAG.description};
+      return new String[] {
+        LEAD.description,
+        LAG.description,
+        ROW_NUMBER.description,
+        RANK.description,
+        DENSE_RANK.description,
+        SUM.description,
+        COUNT.description,
+        AVERAGE.description,
+        MIN.description,
+        MAX.description,
+        FIRST_VALUE.description,
+        LAST_VALUE.description
+      };
+    }
+
+    /**
+     * @return true if the function is calculated over a frame of rows around the current row
+     */
+    public boolean isFramed() {
+      switch (this) {
+        case SUM, COUNT, AVERAGE, MIN, MAX, FIRST_VALUE, LAST_VALUE:
+          return true;
+        default:
+          return false;
+      }
     }
 
     public static final AggregateType findTypeWithName(String name) {
@@ -87,9 +125,25 @@ public class QueryField {
   @HopMetadataProperty(key = "valuefield", injectionKey = "OUTPUT.VALUE_FIELD")
   private int valueField;
 
+  /**
+   * The number of rows before the current row in the frame of a framed function, -1 for all rows
+   * from the start of the group (UNBOUNDED PRECEDING)
+   */
+  @HopMetadataProperty(key = "frame_preceding", injectionKey = "OUTPUT.FRAME_PRECEDING")
+  private int framePreceding;
+
+  /**
+   * The number of rows after the current row in the frame of a framed function, -1 for all rows up
+   * to the end of the group (UNBOUNDED FOLLOWING)
+   */
+  @HopMetadataProperty(key = "frame_following", injectionKey = "OUTPUT.FRAME_FOLLOWING")
+  private int frameFollowing;
+
   public QueryField() {
     aggregateType = AggregateType.NONE;
     valueField = 1;
+    framePreceding = UNBOUNDED;
+    frameFollowing = 0;
   }
 
   public QueryField(
@@ -98,6 +152,19 @@ public class QueryField {
     this.subjectField = subjectField;
     this.aggregateType = aggregateType;
     this.valueField = valueField;
+    this.framePreceding = UNBOUNDED;
+    this.frameFollowing = 0;
+  }
+
+  public QueryField(
+      String aggregateField,
+      String subjectField,
+      AggregateType aggregateType,
+      int framePreceding,
+      int frameFollowing) {
+    this(aggregateField, subjectField, aggregateType, 1);
+    this.framePreceding = framePreceding;
+    this.frameFollowing = frameFollowing;
   }
 
   @Override
@@ -110,6 +177,8 @@ public class QueryField {
     }
     QueryField that = (QueryField) o;
     return valueField == that.valueField
+        && framePreceding == that.framePreceding
+        && frameFollowing == that.frameFollowing
         && Objects.equals(aggregateField, that.aggregateField)
         && Objects.equals(subjectField, that.subjectField)
         && aggregateType == that.aggregateType;
@@ -117,7 +186,8 @@ public class QueryField {
 
   @Override
   public int hashCode() {
-    return Objects.hash(aggregateField, subjectField, aggregateType, valueField);
+    return Objects.hash(
+        aggregateField, subjectField, aggregateType, valueField, framePreceding, frameFollowing);
   }
 
   /**
@@ -183,4 +253,36 @@ public class QueryField {
   public void setValueField(int valueField) {
     this.valueField = valueField;
   }
+
+  /**
+   * Gets framePreceding
+   *
+   * @return value of framePreceding
+   */
+  public int getFramePreceding() {
+    return framePreceding;
+  }
+
+  /**
+   * @param framePreceding The framePreceding to set
+   */
+  public void setFramePreceding(int framePreceding) {
+    this.framePreceding = framePreceding;
+  }
+
+  /**
+   * Gets frameFollowing
+   *
+   * @return value of frameFollowing
+   */
+  public int getFrameFollowing() {
+    return frameFollowing;
+  }
+
+  /**
+   * @param frameFollowing The frameFollowing to set
+   */
+  public void setFrameFollowing(int frameFollowing) {
+    this.frameFollowing = frameFollowing;
+  }
 }
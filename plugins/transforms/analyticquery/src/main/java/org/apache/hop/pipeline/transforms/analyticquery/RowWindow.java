@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.analyticquery;
+
+/**
+ * The rows of a group around the current row, addressed by their index in the group. Rows are
+ * appended at the end and discarded at the start, so the window only holds the rows which the
+ * functions can still look at.
+ */
+public class RowWindow {
+  private Object[][] rows;
+  private int head;
+  private int size;
+
+  /** The index in the group of the first row in the window */
+  private long firstIndex;
+
+  public RowWindow() {
+    rows = new Object[16][];
+  }
+
+  /** Remove all rows and start a new group */
+  public void clear() {
+    for (int i = 0; i < size; i++) {
+      rows[(head + i) % rows.length] = null;
+    }
+    head = 0;
+    size = 0;
+    firstIndex = 0;
+  }
+
+  /**
+   * @param row The next row of the group
+   */
+  public void add(Object[] row) {
+    if (size == rows.length) {
+      Object[][] grown = new Object[rows.length * 2][];
+      for (int i = 0; i < size; i++) {
+        grown[i] = rows[(head + i) % rows.length];
+      }
+      rows = grown;
+      head = 0;
+    }
+    rows[(head + size) % rows.length] = row;
+    size++;
+  }
+
+  /**
+   * @param index The index of the row in the group
+   * @return The row
+   */
+  public Object[] get(long index) {
+    if (index < firstIndex || index >= firstIndex + size) {
+      throw new IndexOutOfBoundsException(
+          "Row " + index + " is not in the window [" + firstIndex + ", " + getEndIndex() + "[");
+    }
+    return rows[(int) ((head + index - firstIndex) % rows.length)];
+  }
+
+  /**
+   * @param index The index in the group of the first row to keep
+   */
+  public void discardBefore(long index) {
+    while (size > 0 && firstIndex < index) {
+      rows[head] = null;
+      head = (head + 1) % rows.length;
+      size--;
+      firstIndex++;
+    }
+  }
+
+  /**
+   * @return The index in the group of the row after the last row in the window
+   */
+  public long getEndIndex() {
+    return firstIndex + size;
+  }
+}
@@ -0,0 +1,293 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.analyticquery;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.pipeline.transforms.analyticquery.QueryField.AggregateType;
+
+/**
+ * Calculates one analytic function for the rows of a group, one row after the other.
+ *
+ * <p>Framed functions keep the state of the frame of the previous row. Moving to the next row adds
+ * the rows which enter the frame and removes the rows which leave it, so SUM, COUNT and AVERAGE
+ * take constant time per row. MIN and MAX keep a deque of the candidate values in the frame with
+ * the values in increasing (MIN) or decreasing (MAX) order.
+ */
+public class WindowFunction {
+  private final QueryField queryField;
+  private final AggregateType type;
+
+  /** The index of the subject field in the input row or -1 if there is no subject */
+  private final int subjectIndex;
+
+  private final IValueMeta subjectMeta;
+
+  /** The index in the group of the next row to add to or remove from the frame */
+  private long nextAdded;
+
+  private long nextRemoved;
+
+  private long count;
+  private long longSum;
+  private double doubleSum;
+  private BigDecimal bigSum;
+
+  /** The candidate MIN or MAX values with their index in the group */
+  private final ArrayDeque<Object[]> candidates = new ArrayDeque<>();
+
+  private Object firstValue;
+  private Object lastValue;
+  private long rank;
+  private long denseRank;
+
+  public WindowFunction(QueryField queryField, int subjectIndex, IValueMeta subjectMeta) {
+    this.queryField = queryField;
+    this.type = queryField.getAggregateType();
+    this.subjectIndex = subjectIndex;
+    this.subjectMeta = subjectMeta;
+  }
+
+  /** Start a new group */
+  public void reset() {
+    nextAdded = 0;
+    nextRemoved = 0;
+    count = 0;
+    longSum = 0;
+    doubleSum = 0;
+    bigSum = BigDecimal.ZERO;
+    candidates.clear();
+    firstValue = null;
+    lastValue = null;
+    rank = 0;
+    denseRank = 0;
+  }
+
+  /**
+   * @return true if the frame includes all rows up to the end of the group
+   */
+  public boolean isUnboundedFollowing() {
+    return type.isFramed() && queryField.getFrameFollowing() < 0;
+  }
+
+  /**
+   * @return The number of rows after the current row this function looks at
+   */
+  public int getLookAhead() {
+    if (type == AggregateType.LEAD) {
+      return queryField.getValueField();
+    }
+    if (type.isFramed()) {
+      return Math.max(0, queryField.getFrameFollowing());
+    }
+    return 0;
+  }
+
+  /**
+   * @return The number of rows before the current row this function needs to keep
+   */
+  public int getLookBack() {
+    switch (type) {
+      case LAG:
+        return queryField.getValueField();
+      case RANK, DENSE_RANK:
+        return 1;
+      default:
+        if (type.isFramed() && queryField.getFramePreceding() >= 0) {
+          // The row leaving the frame is needed to remove it
+          return queryField.getFramePreceding() + 1;
+        }
+        return 0;
+    }
+  }
+
+  /**
+   * Add a row as soon as it is read. Only frames which include all rows up to the end of the group
+   * are filled when the rows are read, all other frames are filled when the rows are calculated.
+   *
+   * @param index The index of the row in the group
+   * @param row The row
+   */
+  public void addRead(long index, Object[] row) throws HopValueException {
+    if (isUnboundedFollowing()) {
+      add(index, row[subjectIndex]);
+      nextAdded = index + 1;
+    }
+  }
+
+  /**
+   * Calculate the value of this function for a row.
+   *
+   * @param index The index of the row in the group
+   * @param endIndex The index of the last row of the group which is read
+   * @param window The rows around the current row
+   * @return The calculated value
+   */
+  public Object calculate(long index, long endIndex, RowWindow window) throws HopValueException {
+    switch (type) {
+      case LEAD:
+        return subjectAt(index + queryField.getValueField(), endIndex, window);
+      case LAG:
+        return subjectAt(index - queryField.getValueField(), endIndex, window);
+      case ROW_NUMBER:
+        return index + 1;
+      case RANK, DENSE_RANK:
+        if (index == 0
+            || subjectMeta.compare(
+                    window.get(index - 1)[subjectIndex], window.get(index)[subjectIndex])
+                != 0) {
+          rank = index + 1;
+          denseRank++;
+        }
+        return type == AggregateType.RANK ? rank : denseRank;
+      case NONE:
+        return null;
+      default:
+        return calculateFrame(index, endIndex, window);
+    }
+  }
+
+  private Object subjectAt(long index, long endIndex, RowWindow window) {
+    if (index < 0 || index > endIndex) {
+      return null;
+    }
+    return window.get(index)[subjectIndex];
+  }
+
+  private Object calculateFrame(long index, long endIndex, RowWindow window)
+      throws HopValueException {
+    int preceding = queryField.getFramePreceding();
+    int following = queryField.getFrameFollowing();
+    long start = preceding < 0 ? 0 : Math.max(0, index - preceding);
+    long end = following < 0 ? endIndex : Math.min(index + following, endIndex);
+
+    // Move the frame: add the rows entering it, remove the rows leaving it
+    //
+    while (nextAdded <= end) {
+      add(nextAdded, window.get(nextAdded)[subjectIndex]);
+      nextAdded++;
+    }
+    while (nextRemoved < start) {
+      remove(window.get(nextRemoved)[subjectIndex]);
+      nextRemoved++;
+    }
+    while (!candidates.isEmpty() && (long) candidates.peekFirst()[0] < start) {
+      candidates.pollFirst();
+    }
+
+    switch (type) {
+      case SUM:
+        if (count == 0) {
+          return null;
+        }
+        switch (subjectMeta.getType()) {
+          case IValueMeta.TYPE_INTEGER:
+            return longSum;
+          case IValueMeta.TYPE_BIGNUMBER:
+            return bigSum;
+          default:
+            return doubleSum;
+        }
+      case COUNT:
+        return count;
+      case AVERAGE:
+        if (count == 0) {
+          return null;
+        }
+        switch (subjectMeta.getType()) {
+          case IValueMeta.TYPE_INTEGER:
+            return (double) longSum / count;
+          case IValueMeta.TYPE_BIGNUMBER:
+            return bigSum.doubleValue() / count;
+          default:
+            return doubleSum / count;
+        }
+      case MIN, MAX:
+        return candidates.isEmpty() ? null : candidates.peekFirst()[1];
+      case FIRST_VALUE:
+        return preceding < 0 ? firstValue : window.get(start)[subjectIndex];
+      case LAST_VALUE:
+        return following < 0 ? lastValue : window.get(end)[subjectIndex];
+      default:
+        return null;
+    }
+  }
+
+  private void add(long index, Object value) throws HopValueException {
+    if (index == 0) {
+      firstValue = value;
+    }
+    lastValue = value;
+    if (value == null || subjectMeta.isNull(value)) {
+      return;
+    }
+    switch (type) {
+      case SUM, AVERAGE:
+        addToSum(value, 1);
+        count++;
+        break;
+      case COUNT:
+        count++;
+        break;
+      case MIN, MAX:
+        int sign = type == AggregateType.MIN ? 1 : -1;
+        while (!candidates.isEmpty()
+            && sign * subjectMeta.compare(candidates.peekLast()[1], value) > 0) {
+          candidates.pollLast();
+        }
+        candidates.addLast(new Object[] {index, value});
+        break;
+      default:
+        break;
+    }
+  }
+
+  private void remove(Object value) throws HopValueException {
+    if (value == null || subjectMeta.isNull(value)) {
+      return;
+    }
+    switch (type) {
+      case SUM, AVERAGE:
+        addToSum(value, -1);
+        count--;
+        break;
+      case COUNT:
+        count--;
+        break;
+      default:
+        break;
+    }
+  }
+
+  private void addToSum(Object value, int sign) throws HopValueException {
+    switch (subjectMeta.getType()) {
+      case IValueMeta.TYPE_INTEGER:
+        longSum += sign * subjectMeta.getInteger(value);
+        break;
+      case IValueMeta.TYPE_BIGNUMBER:
+        BigDecimal bigValue = subjectMeta.getBigNumber(value);
+        bigSum = sign > 0 ? bigSum.add(bigValue) : bigSum.subtract(bigValue);
+        break;
+      default:
+        doubleSum += sign * subjectMeta.getNumber(value);
+        break;
+    }
+  }
+}
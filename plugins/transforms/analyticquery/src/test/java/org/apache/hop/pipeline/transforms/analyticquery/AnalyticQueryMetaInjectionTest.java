@@ -42,5 +42,7 @@ class AnalyticQueryMetaInjectionTest extends BaseMetadataInjectionTestJunit5<Ana
         () -> meta.getQueryFields().get(0).getAggregateType(),
         QueryField.AggregateType.class);
     check("OUTPUT.VALUE_FIELD", () -> meta.getQueryFields().get(0).getValueField());
+    check("OUTPUT.FRAME_PRECEDING", () -> meta.getQueryFields().get(0).getFramePreceding());
+    check("OUTPUT.FRAME_FOLLOWING", () -> meta.getQueryFields().get(0).getFrameFollowing());
   }
 }
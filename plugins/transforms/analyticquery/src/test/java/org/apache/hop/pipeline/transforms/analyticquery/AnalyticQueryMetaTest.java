@@ -96,7 +96,7 @@ class AnalyticQueryMetaTest {
   void testInjectionMetadata() {
     BeanInjectionInfo<AnalyticQueryMeta> injectionInfo =
         new BeanInjectionInfo<>(AnalyticQueryMeta.class);
-    assertEquals(5, injectionInfo.getProperties().size());
+    assertEquals(7, injectionInfo.getProperties().size());
 
     BeanInjectionInfo<AnalyticQueryMeta>.Property prop =
         injectionInfo.getProperties().get("GROUP_FIELDS");
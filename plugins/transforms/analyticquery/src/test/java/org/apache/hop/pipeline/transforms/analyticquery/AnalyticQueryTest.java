@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.analyticquery;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.hop.core.logging.ILoggingObject;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMetaBuilder;
+import org.apache.hop.pipeline.transforms.analyticquery.QueryField.AggregateType;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AnalyticQueryTest {
+
+  private TransformMockHelper<AnalyticQueryMeta, AnalyticQueryData> mockHelper;
+  private final IRowMeta inputRowMeta =
+      new RowMetaBuilder().addString("group").addInteger("value").build();
+
+  @BeforeEach
+  void setUp() {
+    mockHelper =
+        new TransformMockHelper<>(
+            "Analytic query", AnalyticQueryMeta.class, AnalyticQueryData.class);
+    when(mockHelper.logChannelFactory.create(any(), any(ILoggingObject.class)))
+        .thenReturn(mockHelper.iLogChannel);
+  }
+
+  @AfterEach
+  void tearDown() {
+    mockHelper.cleanUp();
+  }
+
+  @Test
+  void testFramedFunctions() throws Exception {
+    AnalyticQueryMeta meta = new AnalyticQueryMeta();
+    meta.getGroupFields().add(new GroupField("group"));
+    meta.getQueryFields().add(new QueryField("lag", "value", AggregateType.LAG, 1));
+    meta.getQueryFields().add(new QueryField("lead", "value", AggregateType.LEAD, 2));
+    meta.getQueryFields().add(new QueryField("rownr", null, AggregateType.ROW_NUMBER, 1));
+    meta.getQueryFields().add(new QueryField("rank", "value", AggregateType.RANK, 1));
+    meta.getQueryFields().add(new QueryField("dense", "value", AggregateType.DENSE_RANK, 1));
+    meta.getQueryFields()
+        .add(new QueryField("running", "value", AggregateType.SUM, QueryField.UNBOUNDED, 0));
+    meta.getQueryFields().add(new QueryField("moving", "value", AggregateType.AVERAGE, 1, 1));
+    meta.getQueryFields().add(new QueryField("min", "value", AggregateType.MIN, 1, 1));
+    meta.getQueryFields().add(new QueryField("max", "value", AggregateType.MAX, 2, 0));
+    meta.getQueryFields()
+        .add(new QueryField("total", "value", AggregateType.SUM, 0, QueryField.UNBOUNDED));
+    meta.getQueryFields()
+        .add(new QueryField("last", "value", AggregateType.LAST_VALUE, 0, QueryField.UNBOUNDED));
+    meta.getQueryFields().add(new QueryField("count", "value", AggregateType.COUNT, 1, 0));
+
+    List<Object[]> input = new ArrayList<>();
+    long[] values = {5, 3, 3, 8, 1};
+    for (long value : values) {
+      input.add(new Object[] {"a", value});
+    }
+    input.add(new Object[] {"b", 7L});
+    input.add(new Object[] {"b", null});
+
+    List<Object[]> output = run(meta, input);
+    assertEquals(7, output.size());
+
+    // lag, lead, rownr, rank, dense, running, moving, min, max, total, last, count
+    assertRow(output.get(0), null, 3L, 1L, 1L, 1L, 5L, 4.0, 3L, 5L, 20L, 1L, 1L);
+    assertRow(output.get(1), 5L, 8L, 2L, 2L, 2L, 8L, 11.0 / 3, 3L, 5L, 15L, 1L, 2L);
+    assertRow(output.get(2), 3L, 1L, 3L, 2L, 2L, 11L, 14.0 / 3, 3L, 5L, 12L, 1L, 2L);
+    assertRow(output.get(3), 3L, null, 4L, 4L, 3L, 19L, 4.0, 1L, 8L, 9L, 1L, 2L);
+    assertRow(output.get(4), 8L, null, 5L, 5L, 4L, 20L, 4.5, 1L, 8L, 1L, 1L, 2L);
+
+    // A new group starts over, null values are skipped by the aggregates
+    assertRow(output.get(5), null, null, 1L, 1L, 1L, 7L, 7.0, 7L, 7L, 7L, null, 1L);
+    assertRow(output.get(6), 7L, null, 2L, 2L, 2L, 7L, 7.0, 7L, 7L, null, null, 1L);
+  }
+
+  private void assertRow(Object[] row, Object... expected) {
+    for (int i = 0; i < expected.length; i++) {
+      Object actual = row[inputRowMeta.size() + i];
+      if (expected[i] == null) {
+        assertNull(actual, "field " + i);
+      } else if (expected[i] instanceof Double) {
+        assertEquals((Double) expected[i], (Double) actual, 0.000001, "field " + i);
+      } else {
+        assertEquals(expected[i], actual, "field " + i);
+      }
+    }
+  }
+
+  private List<Object[]> run(AnalyticQueryMeta meta, List<Object[]> input) throws Exception {
+    AnalyticQuery transform =
+        new AnalyticQuery(
+            mockHelper.transformMeta,
+            meta,
+            new AnalyticQueryData(),
+            0,
+            mockHelper.pipelineMeta,
+            mockHelper.pipeline);
+    return mockHelper.processRows(transform, inputRowMeta, input);
+  }
+}
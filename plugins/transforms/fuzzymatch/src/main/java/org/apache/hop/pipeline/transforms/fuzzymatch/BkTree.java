@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.fuzzymatch;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * A BK-tree to find the keys within an edit distance of a value without comparing the value to
+ * every key. The distance function has to be a metric, like the Levenshtein or Damerau-Levenshtein
+ * distance: the triangle inequality is used to skip the sub-trees which can't hold a match.
+ *
+ * <p>Once built the tree is only read, so it can be searched by several threads at the same time.
+ */
+class BkTree {
+  private final ToIntBiFunction<String, String> distance;
+  private Node root;
+
+  private static final class Node {
+    private final String key;
+
+    /** The ids of the entries with this key */
+    private int[] ids;
+
+    private int idCount;
+
+    /** The children by their distance to the key of this node */
+    private Node[] children;
+
+    private Node(String key, int id) {
+      this.key = key;
+      this.ids = new int[] {id};
+      this.idCount = 1;
+    }
+
+    private void addId(int id) {
+      if (idCount == ids.length) {
+        ids = Arrays.copyOf(ids, idCount * 2);
+      }
+      ids[idCount++] = id;
+    }
+
+    private Node getChild(int childDistance) {
+      return children == null || childDistance >= children.length ? null : children[childDistance];
+    }
+
+    private void setChild(int childDistance, Node child) {
+      if (children == null) {
+        children = new Node[Math.max(4, childDistance + 1)];
+      } else if (childDistance >= children.length) {
+        children = Arrays.copyOf(children, Math.max(children.length * 2, childDistance + 1));
+      }
+      children[childDistance] = child;
+    }
+  }
+
+  /**
+   * @param distance The distance between two keys, it has to be a metric
+   */
+  BkTree(ToIntBiFunction<String, String> distance) {
+    this.distance = distance;
+  }
+
+  /**
+   * Add a key.
+   *
+   * @param key The key
+   * @param id The id of the entry with this key
+   */
+  void add(String key, int id) {
+    if (root == null) {
+      root = new Node(key, id);
+      return;
+    }
+    Node node = root;
+    while (true) {
+      int keyDistance = distance.applyAsInt(node.key, key);
+      if (keyDistance == 0) {
+        node.addId(id);
+        return;
+      }
+      Node child = node.getChild(keyDistance);
+      if (child == null) {
+        node.setChild(keyDistance, new Node(key, id));
+        return;
+      }
+      node = child;
+    }
+  }
+
+  /**
+   * Find the entries with a key within a maximum distance of a value.
+   *
+   * @param value The value to search for
+   * @param maxDistance The maximum distance
+   * @return The matches ordered by id. Each match holds the id in the upper and the distance in the
+   *     lower 32 bits.
+   */
+  long[] find(String value, int maxDistance) {
+    if (root == null || maxDistance < 0) {
+      return new long[0];
+    }
+    long[] matches = new long[16];
+    int matchCount = 0;
+    Deque<Node> nodes = new ArrayDeque<>();
+    nodes.push(root);
+    while (!nodes.isEmpty()) {
+      Node node = nodes.pop();
+      int keyDistance = distance.applyAsInt(node.key, value);
+      if (keyDistance <= maxDistance) {
+        for (int i = 0; i < node.idCount; i++) {
+          if (matchCount == matches.length) {
+            matches = Arrays.copyOf(matches, matchCount * 2);
+          }
+          matches[matchCount++] = (long) node.ids[i] << 32 | keyDistance;
+        }
+      }
+      if (node.children != null) {
+        // Only the children at a distance from this key close to the distance of the value
+        // can hold a match
+        //
+        int from = Math.max(1, keyDistance - maxDistance);
+        int to = (int) Math.min(node.children.length - 1L, (long) keyDistance + maxDistance);
+        for (int childDistance = from; childDistance <= to; childDistance++) {
+          Node child = node.children[childDistance];
+          if (child != null) {
+            nodes.push(child);
+          }
+        }
+      }
+    }
+    long[] result = Arrays.copyOf(matches, matchCount);
+    Arrays.sort(result);
+    return result;
+  }
+}
@@ -20,10 +20,14 @@ package org.apache.hop.pipeline.transforms.fuzzymatch;
 import static org.apache.hop.pipeline.transforms.fuzzymatch.FuzzyMatchMeta.Algorithm;
 import static org.apache.hop.pipeline.transforms.fuzzymatch.FuzzyMatchMeta.FMLookupValue;
 
-import com.wcohen.ss.Jaro;
-import com.wcohen.ss.JaroWinkler;
 import com.wcohen.ss.NeedlemanWunsch;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import org.apache.commons.codec.language.DoubleMetaphone;
 import org.apache.commons.codec.language.Metaphone;
 import org.apache.commons.codec.language.RefinedSoundex;
@@ -76,6 +80,19 @@ public class FuzzyMatch extends BaseTransform<FuzzyMatchMeta, FuzzyMatchData> {
               + "]");
     }
 
+    // Copies which all receive every lookup row build one index together: one copy keeps the
+    // lookup values and builds it, the others only read their rows
+    //
+    boolean storeValues = true;
+    if (FuzzyMatchIndex.supports(meta.getAlgorithm())
+        && getTransformMeta().getCopies(this) > 1
+        && !getTransformMeta().isPartitioned()
+        && !data.infoStream.getTransformMeta().isDistributes()) {
+      data.sharedIndexKey = getPipeline().getLogChannelId() + "/" + getTransformName();
+      data.sharedIndex = FuzzyMatchIndex.acquire(data.sharedIndexKey);
+      storeValues = data.sharedIndex.claim();
+    }
+
     boolean firstRun = true;
     // Which row set do we read from?
     //
@@ -155,13 +172,15 @@ public class FuzzyMatch extends BaseTransform<FuzzyMatchMeta, FuzzyMatchData> {
           storeData[i] = rowData[data.indexOfCachedFields[i]];
         }
       }
-      if (isDebug()) {
-        logDebug(
-            BaseMessages.getString(
-                PKG, "FuzzyMatch.Log.AddingValueToCache", data.infoCache.getString(storeData)));
-      }
+      if (storeValues) {
+        if (isDebug()) {
+          logDebug(
+              BaseMessages.getString(
+                  PKG, "FuzzyMatch.Log.AddingValueToCache", data.infoCache.getString(storeData)));
+        }
 
-      addToCache(storeData);
+        addToCache(storeData);
+      }
 
       rowData = getRowFrom(rowSet);
 
@@ -170,9 +189,63 @@ public class FuzzyMatch extends BaseTransform<FuzzyMatchMeta, FuzzyMatchData> {
       }
     }
 
+    if (FuzzyMatchIndex.supports(meta.getAlgorithm())) {
+      indexLookupValues(storeValues);
+    }
+
     return true;
   }
 
+  private void indexLookupValues(boolean build) throws HopException {
+    if (build) {
+      long start = System.currentTimeMillis();
+      data.index = FuzzyMatchIndex.build(meta.getAlgorithm(), meta.isCaseSensitive(), data.look);
+      data.look.clear();
+      if (data.sharedIndex != null) {
+        data.sharedIndex.getIndex().complete(data.index);
+      }
+      if (isDetailed()) {
+        logDetailed(
+            BaseMessages.getString(
+                PKG,
+                "FuzzyMatch.Log.IndexBuilt",
+                data.index.getEntries().size(),
+                System.currentTimeMillis() - start));
+      }
+    } else {
+      data.index = waitForSharedIndex();
+      if (data.index == null) {
+        return;
+      }
+      if (isDetailed()) {
+        logDetailed(
+            BaseMessages.getString(
+                PKG, "FuzzyMatch.Log.UsingSharedIndex", data.index.getEntries().size()));
+      }
+    }
+    data.indexSearcher = data.index.newSearcher();
+  }
+
+  private FuzzyMatchIndex waitForSharedIndex() throws HopException {
+    while (!isStopped()) {
+      try {
+        return data.sharedIndex.getIndex().get(100, TimeUnit.MILLISECONDS);
+      } catch (TimeoutException e) {
+        // The other copy is still reading or indexing the lookup values
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new HopException(e);
+      } catch (ExecutionException e) {
+        throw new HopException(e.getCause());
+      }
+    }
+    return null;
+  }
+
+  private int getNrLookupValues() {
+    return data.index == null ? data.look.size() : data.index.getEntries().size();
+  }
+
   private Object[] lookupValues(IRowMeta rowMeta, Object[] row) throws HopException {
     if (first) {
       first = false;
@@ -246,12 +319,23 @@ public class FuzzyMatch extends BaseTransform<FuzzyMatchMeta, FuzzyMatchData> {
     // Reserve room
     Object[] rowData = RowDataUtil.allocateRowData(data.outputRowMeta.size());
 
-    Iterator<Object[]> it = data.look.iterator();
-
     long distance = -1;
 
     String lookupValueString = getInputRowMeta().getString(row, data.indexOfMainField);
 
+    if (data.index != null) {
+      // Only the values within the maximal distance can match
+      //
+      List<Object[]> entries = data.index.getEntries();
+      for (long match : data.index.findWithinDistance(lookupValueString, data.maximalDistance)) {
+        distance =
+            addDistanceMatch(rowData, entries.get((int) (match >>> 32)), (int) match, distance);
+      }
+      return rowData;
+    }
+
+    Iterator<Object[]> it = data.look.iterator();
+
     while (it.hasNext()) {
       // Get cached row data
       Object[] cachedData = it.next();
@@ -275,39 +359,47 @@ public class FuzzyMatch extends BaseTransform<FuzzyMatchMeta, FuzzyMatchData> {
             default -> StringUtils.getLevenshteinDistance(useCacheValue, useLookupvalue);
           };
 
-      if (data.minimalDistance <= cDistance && cDistance <= data.maximalDistance) {
-        if (meta.isCloserValue()) {
-          if (cDistance < distance || distance == -1) {
-            // Get closer value
-            // minimal distance
-            distance = cDistance;
-            int index = 0;
-            rowData[index++] = cacheValue;
-            // Add metric value?
-            if (data.addValueFieldName) {
-              rowData[index++] = distance;
-            }
-            // Add additional return values?
-            if (data.addAdditionalFields) {
-              for (int i = 0; i < meta.getLookupValues().size(); i++) {
-                int nr = i + 1;
-                int nf = i + index;
-                rowData[nf] = cachedData[nr];
-              }
+      distance = addDistanceMatch(rowData, cachedData, cDistance, distance);
+    }
+
+    return rowData;
+  }
+
+  private long addDistanceMatch(
+      Object[] rowData, Object[] cachedData, int cDistance, long distance) {
+    String cacheValue = (String) cachedData[0];
+    if (data.minimalDistance <= cDistance && cDistance <= data.maximalDistance) {
+      if (meta.isCloserValue()) {
+        if (cDistance < distance || distance == -1) {
+          // Get closer value
+          // minimal distance
+          distance = cDistance;
+          int index = 0;
+          rowData[index++] = cacheValue;
+          // Add metric value?
+          if (data.addValueFieldName) {
+            rowData[index++] = distance;
+          }
+          // Add additional return values?
+          if (data.addAdditionalFields) {
+            for (int i = 0; i < meta.getLookupValues().size(); i++) {
+              int nr = i + 1;
+              int nf = i + index;
+              rowData[nf] = cachedData[nr];
             }
           }
+        }
+      } else {
+        // get all values separated by values separator
+        if (rowData[0] == null) {
+          rowData[0] = cacheValue;
         } else {
-          // get all values separated by values separator
-          if (rowData[0] == null) {
-            rowData[0] = cacheValue;
-          } else {
-            rowData[0] = rowData[0] + data.valueSeparator + cacheValue;
-          }
+          rowData[0] = rowData[0] + data.valueSeparator + cacheValue;
         }
       }
     }
 
-    return rowData;
+    return distance;
   }
 
   private Object[] doPhonetic(Object[] row) {
@@ -377,8 +469,6 @@ public class FuzzyMatch extends BaseTransform<FuzzyMatchMeta, FuzzyMatchData> {
   private Object[] doSimilarity(Object[] row) {
     // Reserve room
     Object[] rowData = RowDataUtil.allocateRowData(data.outputRowMeta.size());
-    // prepare to read from cache ...
-    Iterator<Object[]> it = data.look.iterator();
     double similarity = 0;
 
     // get current value from main stream
@@ -386,16 +476,31 @@ public class FuzzyMatch extends BaseTransform<FuzzyMatchMeta, FuzzyMatchData> {
 
     String lookupValueString = o == null ? "" : (String) o;
 
-    while (it.hasNext()) {
-      // Get cached row data
-      Object[] cachedData = it.next();
+    // prepare to read from cache ...
+    Collection<Object[]> candidates = data.look;
+    if (data.index != null) {
+      candidates = data.index.getEntries();
+      // Values without any similarity are only returned when all values are listed
+      // down to a similarity of 0, the index leaves them out
+      //
+      if (meta.isCloserValue() || data.minimalSimilarity > 0) {
+        int[] ids =
+            data.index.findSimilar(lookupValueString, data.minimalSimilarity, data.indexSearcher);
+        if (ids != null) {
+          List<Object[]> entries = data.index.getEntries();
+          candidates = Arrays.stream(ids).mapToObj(entries::get).toList();
+        }
+      }
+    }
+
+    for (Object[] cachedData : candidates) {
       // Key value is the first value
       String cacheValue = (String) cachedData[0];
 
       double cSimilarity =
           switch (meta.getAlgorithm()) {
-            case JARO -> new Jaro().score(cacheValue, lookupValueString);
-            case JARO_WINKLER -> new JaroWinkler().score(cacheValue, lookupValueString);
+            case JARO -> data.jaro.score(cacheValue, lookupValueString);
+            case JARO_WINKLER -> data.jaroWinkler.score(cacheValue, lookupValueString);
             default ->
                 // Letters pair similarity
                 LetterPairSimilarity.getSimiliarity(cacheValue, lookupValueString);
@@ -451,7 +556,7 @@ public class FuzzyMatch extends BaseTransform<FuzzyMatchMeta, FuzzyMatchData> {
       }
       if (isDetailed()) {
         logDetailed(
-            BaseMessages.getString(PKG, "FuzzyMatch.Log.ReadValuesInMemory", data.look.size()));
+            BaseMessages.getString(PKG, "FuzzyMatch.Log.ReadValuesInMemory", getNrLookupValues()));
       }
     }
 
@@ -597,6 +702,11 @@ public class FuzzyMatch extends BaseTransform<FuzzyMatchMeta, FuzzyMatchData> {
   @Override
   public void dispose() {
     data.look.clear();
+    if (data.sharedIndex != null) {
+      FuzzyMatchIndex.release(data.sharedIndexKey, data.sharedIndex);
+      data.sharedIndex = null;
+    }
+    data.index = null;
     super.dispose();
   }
 }
@@ -17,6 +17,8 @@
 
 package org.apache.hop.pipeline.transforms.fuzzymatch;
 
+import com.wcohen.ss.Jaro;
+import com.wcohen.ss.JaroWinkler;
 import java.util.HashSet;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
@@ -33,6 +35,20 @@ public class FuzzyMatchData extends BaseTransformData implements ITransformData
 
   public boolean readLookupValues;
 
+  /** The lookup values with an index to find the candidate matches, null without an index */
+  public FuzzyMatchIndex index;
+
+  /** Searches the index for this copy of the transform */
+  public QGramIndex.Searcher indexSearcher;
+
+  /** The index shared with the other copies of the transform, null if not shared */
+  public FuzzyMatchIndex.Shared sharedIndex;
+
+  public String sharedIndexKey;
+
+  public Jaro jaro;
+  public JaroWinkler jaroWinkler;
+
   /** index of main stream field */
   public int indexOfMainField;
 
@@ -62,6 +78,8 @@ public class FuzzyMatchData extends BaseTransformData implements ITransformData
   public FuzzyMatchData() {
     super();
     this.look = new HashSet<>();
+    this.jaro = new Jaro();
+    this.jaroWinkler = new JaroWinkler();
     this.indexOfMainField = -1;
     this.addValueFieldName = false;
     this.valueSeparator = "";
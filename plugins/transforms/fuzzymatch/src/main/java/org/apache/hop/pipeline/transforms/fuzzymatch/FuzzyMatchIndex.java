@@ -0,0 +1,271 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.fuzzymatch;
+
+import static org.apache.hop.pipeline.transforms.fuzzymatch.FuzzyMatchMeta.Algorithm;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import org.apache.commons.lang.StringUtils;
+import org.apache.hop.core.util.Utils;
+
+/**
+ * The cached lookup values of the fuzzy match transform with an index to find the candidate matches
+ * of a value without comparing it to every lookup value:
+ *
+ * <ul>
+ *   <li>Levenshtein and Damerau-Levenshtein: a BK-tree finds the values within the maximal
+ *       distance.
+ *   <li>Jaro and Jaro-Winkler: an index on the characters finds the values which have enough
+ *       characters in common to reach the minimal similarity.
+ *   <li>Pair letters similarity: an index on the letter pairs finds the values which share enough
+ *       pairs to reach the minimal similarity.
+ * </ul>
+ *
+ * The index only selects the candidates, the transform calculates the exact distance or similarity
+ * of each candidate like it does for a full scan. Once built the index is read-only and the copies
+ * of the transform can share it.
+ */
+class FuzzyMatchIndex {
+  /** Room for rounding errors when calculating the bounds of a similarity */
+  private static final double EPSILON = 1e-9;
+
+  /** The maximal boost of the Jaro similarity given by Jaro-Winkler for a common prefix */
+  private static final double WINKLER_BOOST = 0.4;
+
+  private static final Map<String, Shared> SHARED_INDEXES = new HashMap<>();
+
+  private final Algorithm algorithm;
+  private final boolean caseSensitive;
+  private final List<Object[]> entries;
+  private final BkTree bkTree;
+  private final QGramIndex qGramIndex;
+
+  /** An index shared by the copies of a transform */
+  static final class Shared {
+    private final CompletableFuture<FuzzyMatchIndex> index = new CompletableFuture<>();
+    private boolean claimed;
+    private int users;
+
+    /**
+     * @return true if the calling copy has to read the lookup values and build the index, false if
+     *     another copy does it
+     */
+    synchronized boolean claim() {
+      if (claimed) {
+        return false;
+      }
+      claimed = true;
+      return true;
+    }
+
+    CompletableFuture<FuzzyMatchIndex> getIndex() {
+      return index;
+    }
+  }
+
+  private FuzzyMatchIndex(Algorithm algorithm, boolean caseSensitive, List<Object[]> entries) {
+    this.algorithm = algorithm;
+    this.caseSensitive = caseSensitive;
+    this.entries = entries;
+
+    switch (algorithm) {
+      case LEVENSHTEIN:
+        bkTree = new BkTree(StringUtils::getLevenshteinDistance);
+        qGramIndex = null;
+        break;
+      case DAMERAU_LEVENSHTEIN:
+        bkTree = new BkTree(Utils::getDamerauLevenshteinDistance);
+        qGramIndex = null;
+        break;
+      default:
+        bkTree = null;
+        qGramIndex = new QGramIndex();
+        break;
+    }
+    for (int id = 0; id < entries.size(); id++) {
+      String key = (String) entries.get(id)[0];
+      if (bkTree != null) {
+        bkTree.add(toDistanceKey(key), id);
+      } else {
+        qGramIndex.add(grams(key));
+      }
+    }
+    if (qGramIndex != null) {
+      qGramIndex.freeze();
+    }
+  }
+
+  /**
+   * @param algorithm The algorithm
+   * @return true if the candidates of the algorithm can be found with an index
+   */
+  static boolean supports(Algorithm algorithm) {
+    return switch (algorithm) {
+      case LEVENSHTEIN, DAMERAU_LEVENSHTEIN, JARO, JARO_WINKLER, PAIR_SIMILARITY -> true;
+      default -> false;
+    };
+  }
+
+  /**
+   * Build the index on the cached lookup values.
+   *
+   * @param algorithm The algorithm, it has to be supported
+   * @param caseSensitive true if the distances are case-sensitive
+   * @param cache The cached rows, the first value of each row is the lookup value
+   * @return The index
+   */
+  static FuzzyMatchIndex build(
+      Algorithm algorithm, boolean caseSensitive, Collection<Object[]> cache) {
+    return new FuzzyMatchIndex(algorithm, caseSensitive, new ArrayList<>(cache));
+  }
+
+  /**
+   * Get the index shared by the copies of a transform, register the calling copy as a user.
+   *
+   * @param key The key of the transform in the running pipeline
+   * @return The shared index
+   */
+  static synchronized Shared acquire(String key) {
+    Shared shared = SHARED_INDEXES.computeIfAbsent(key, k -> new Shared());
+    shared.users++;
+    return shared;
+  }
+
+  /**
+   * Unregister a copy as a user of a shared index. The index is dropped when no copy uses it.
+   *
+   * @param key The key of the transform in the running pipeline
+   * @param shared The shared index
+   */
+  static synchronized void release(String key, Shared shared) {
+    if (--shared.users <= 0) {
+      SHARED_INDEXES.remove(key, shared);
+    }
+  }
+
+  /**
+   * @return All cached rows, the first value of each row is the lookup value
+   */
+  List<Object[]> getEntries() {
+    return entries;
+  }
+
+  /**
+   * @return A searcher for the calling copy of the transform, null if none is needed
+   */
+  QGramIndex.Searcher newSearcher() {
+    return qGramIndex == null ? null : qGramIndex.newSearcher();
+  }
+
+  /**
+   * Find the cached rows within a maximal edit distance of a value.
+   *
+   * @param value The value
+   * @param maxDistance The maximal distance
+   * @return The matches ordered like the cached rows, each with the index of the row in the upper
+   *     and the distance in the lower 32 bits
+   */
+  long[] findWithinDistance(String value, int maxDistance) {
+    return bkTree.find(toDistanceKey(value), maxDistance);
+  }
+
+  /**
+   * Find the cached rows which can have at least a minimal similarity with a value.
+   *
+   * @param value The value
+   * @param minSimilarity The minimal similarity, if it is 0 or less only rows with a similarity
+   *     above 0 are found
+   * @param searcher The searcher of the calling copy
+   * @return The indexes of the candidate rows in ascending order or null if the candidates of this
+   *     value can't be found with the index
+   */
+  int[] findSimilar(String value, double minSimilarity, QGramIndex.Searcher searcher) {
+    int[] grams = grams(value);
+    int size = grams.length;
+    if (size == 0) {
+      return null;
+    }
+
+    int minSize = 0;
+    int maxSize = Integer.MAX_VALUE;
+    int minOverlap = 1;
+    if (algorithm == Algorithm.PAIR_SIMILARITY) {
+      // similarity = 2 * common pairs / (pairs of value + pairs of key)
+      //
+      double threshold = Math.min(minSimilarity, 1.0);
+      if (threshold > 0) {
+        minSize = (int) Math.ceil(threshold * size / (2 - threshold) - EPSILON);
+        maxSize =
+            (int)
+                Math.min(
+                    Integer.MAX_VALUE, Math.floor((2 - threshold) * size / threshold + EPSILON));
+        minOverlap = (int) Math.ceil(threshold * (size + minSize) / 2 - EPSILON);
+      }
+    } else {
+      // Jaro with c common characters is at most (c / length value + c / length key + 1) / 3,
+      // Jaro-Winkler adds at most 40% of the remainder to 1
+      //
+      double threshold = Math.min(minSimilarity, 1.0);
+      if (algorithm == Algorithm.JARO_WINKLER) {
+        threshold = (threshold - WINKLER_BOOST) / (1 - WINKLER_BOOST);
+      }
+      if (threshold * 3 - 2 > 0) {
+        minSize = (int) Math.ceil(size * (threshold * 3 - 2) - EPSILON);
+        maxSize =
+            (int) Math.min(Integer.MAX_VALUE, Math.floor(size / (threshold * 3 - 2) + EPSILON));
+      }
+      if (threshold * 3 - 1 > 0) {
+        int keySize = Math.max(1, minSize);
+        minOverlap =
+            (int) Math.ceil((threshold * 3 - 1) * size * keySize / (size + keySize) - EPSILON);
+      }
+    }
+    return qGramIndex.find(grams, Math.max(1, minOverlap), minSize, maxSize, searcher);
+  }
+
+  private String toDistanceKey(String value) {
+    return caseSensitive ? value : value.toLowerCase();
+  }
+
+  /**
+   * The grams of a value: the letter pairs of each word like {@link LetterPairSimilarity} uses
+   * them, or the characters in lower case for Jaro. Ignoring the case gives more candidates, never
+   * less.
+   */
+  private int[] grams(String value) {
+    if (algorithm == Algorithm.PAIR_SIMILARITY) {
+      List<Integer> pairs = new ArrayList<>();
+      for (String word : value.toUpperCase().split("\\s")) {
+        for (int i = 0; i < word.length() - 1; i++) {
+          pairs.add(word.charAt(i) << 16 | word.charAt(i + 1));
+        }
+      }
+      return pairs.stream().mapToInt(Integer::intValue).toArray();
+    }
+    int[] characters = new int[value.length()];
+    for (int i = 0; i < characters.length; i++) {
+      characters[i] = Character.toLowerCase(value.charAt(i));
+    }
+    return characters;
+  }
+}
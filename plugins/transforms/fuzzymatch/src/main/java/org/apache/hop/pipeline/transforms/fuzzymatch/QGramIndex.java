@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.fuzzymatch;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An inverted index from q-grams, like single characters or letter pairs, to the keys which hold
+ * them. It finds the candidate keys sharing at least a minimum number of q-grams with a value. The
+ * grams of a key are a multiset, the overlap of two keys is the number of grams they have in common
+ * counting duplicates.
+ *
+ * <p>Only the posting lists of the rarest grams of the value are read: a key which has none of the
+ * rarest (size - minimum overlap + 1) grams of the value can't reach the minimum overlap.
+ *
+ * <p>Once built the index is only read, so it can be searched by several threads at the same time,
+ * each with its own {@link Searcher}.
+ */
+class QGramIndex {
+  private final Map<Integer, int[]> postings = new HashMap<>();
+  private final Map<Integer, Integer> postingSizes = new HashMap<>();
+  private int[] sizes = new int[16];
+  private int size;
+
+  /** Keeps track of the candidates already found during one search */
+  static final class Searcher {
+    private final int[] marks;
+    private int mark;
+
+    private Searcher(int size) {
+      this.marks = new int[size];
+    }
+  }
+
+  /**
+   * Add the grams of the next key. The keys get ids 0, 1, 2, ... in the order in which they are
+   * added.
+   *
+   * @param grams The grams of the key
+   */
+  void add(int[] grams) {
+    int id = size++;
+    if (id == sizes.length) {
+      sizes = Arrays.copyOf(sizes, id * 2);
+    }
+    sizes[id] = grams.length;
+    int[] distinct = Arrays.stream(grams).distinct().toArray();
+    for (int gram : distinct) {
+      int[] posting = postings.get(gram);
+      int postingSize = postingSizes.getOrDefault(gram, 0);
+      if (posting == null) {
+        posting = new int[4];
+      } else if (postingSize == posting.length) {
+        posting = Arrays.copyOf(posting, postingSize * 2);
+      }
+      posting[postingSize] = id;
+      postings.put(gram, posting);
+      postingSizes.put(gram, postingSize + 1);
+    }
+  }
+
+  /** Trim the posting lists once all keys are added. */
+  void freeze() {
+    for (Map.Entry<Integer, int[]> entry : postings.entrySet()) {
+      entry.setValue(Arrays.copyOf(entry.getValue(), postingSizes.get(entry.getKey())));
+    }
+    postingSizes.clear();
+    sizes = Arrays.copyOf(sizes, size);
+  }
+
+  /**
+   * @return A searcher for the thread which is going to search this index
+   */
+  Searcher newSearcher() {
+    return new Searcher(size);
+  }
+
+  /**
+   * Find the keys which can share the minimum number of grams with a value.
+   *
+   * @param grams The grams of the value
+   * @param minOverlap The minimum number of grams a key has to share with the value, at least 1
+   * @param minSize The minimum number of grams of a key
+   * @param maxSize The maximum number of grams of a key
+   * @param searcher The searcher of the calling thread
+   * @return The ids of the candidate keys in ascending order
+   */
+  int[] find(int[] grams, int minOverlap, int minSize, int maxSize, Searcher searcher) {
+    int prefixLength = grams.length - Math.max(1, minOverlap) + 1;
+    if (prefixLength <= 0) {
+      return new int[0];
+    }
+
+    // The rarest grams first, grams which don't occur at all cost nothing
+    //
+    int[][] gramPostings = new int[grams.length][];
+    Integer[] order = new Integer[grams.length];
+    for (int i = 0; i < grams.length; i++) {
+      int[] posting = postings.get(grams[i]);
+      gramPostings[i] = posting == null ? new int[0] : posting;
+      order[i] = i;
+    }
+    Arrays.sort(order, (a, b) -> Integer.compare(gramPostings[a].length, gramPostings[b].length));
+
+    if (++searcher.mark == 0) {
+      Arrays.fill(searcher.marks, 0);
+      searcher.mark = 1;
+    }
+    int[] candidates = new int[16];
+    int candidateCount = 0;
+    for (int i = 0; i < prefixLength; i++) {
+      for (int id : gramPostings[order[i]]) {
+        if (searcher.marks[id] == searcher.mark || sizes[id] < minSize || sizes[id] > maxSize) {
+          continue;
+        }
+        searcher.marks[id] = searcher.mark;
+        if (candidateCount == candidates.length) {
+          candidates = Arrays.copyOf(candidates, candidateCount * 2);
+        }
+        candidates[candidateCount++] = id;
+      }
+    }
+    int[] result = Arrays.copyOf(candidates, candidateCount);
+    Arrays.sort(result);
+    return result;
+  }
+
+  /**
+   * @return The number of keys in the index
+   */
+  int size() {
+    return size;
+  }
+}
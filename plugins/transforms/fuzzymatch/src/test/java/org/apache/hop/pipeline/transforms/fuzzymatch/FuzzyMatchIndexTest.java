@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.fuzzymatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.wcohen.ss.Jaro;
+import com.wcohen.ss.JaroWinkler;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToDoubleBiFunction;
+import org.apache.commons.lang.StringUtils;
+import org.apache.hop.core.util.Utils;
+import org.apache.hop.pipeline.transforms.fuzzymatch.FuzzyMatchMeta.Algorithm;
+import org.junit.jupiter.api.Test;
+
+class FuzzyMatchIndexTest {
+  private static final String[] PARTS = {
+    "an", "ber", "cat", "del", "el", "fran", "gio", "han", "ine", "jo", "ka", "lou", "ma", "ni",
+    "ol", "pe", "que", "ri", "sa", "th", "un", "vi", "wil", "xa", "ye", "zo"
+  };
+
+  private static List<Object[]> names(Random random, int count) {
+    List<Object[]> rows = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      rows.add(new Object[] {name(random), i});
+    }
+    rows.add(new Object[] {"", -1});
+    rows.add(new Object[] {"A", -2});
+    rows.add(new Object[] {"Jo Ann", -3});
+    return rows;
+  }
+
+  private static String name(Random random) {
+    StringBuilder name = new StringBuilder();
+    int parts = 1 + random.nextInt(4);
+    for (int i = 0; i < parts; i++) {
+      name.append(PARTS[random.nextInt(PARTS.length)]);
+    }
+    if (random.nextBoolean()) {
+      name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+    }
+    return name.toString();
+  }
+
+  @Test
+  void testBkTreeFindsAllValuesWithinDistance() {
+    Random random = new Random(42);
+    List<Object[]> rows = names(random, 2000);
+    for (Algorithm algorithm :
+        new Algorithm[] {Algorithm.LEVENSHTEIN, Algorithm.DAMERAU_LEVENSHTEIN}) {
+      for (boolean caseSensitive : new boolean[] {true, false}) {
+        FuzzyMatchIndex index = FuzzyMatchIndex.build(algorithm, caseSensitive, rows);
+        assertNull(index.newSearcher());
+        for (int q = 0; q < 50; q++) {
+          String value = name(random);
+          for (int maxDistance = 0; maxDistance <= 3; maxDistance++) {
+            List<Long> expected = new ArrayList<>();
+            for (int id = 0; id < rows.size(); id++) {
+              String key = (String) rows.get(id)[0];
+              String a = caseSensitive ? key : key.toLowerCase();
+              String b = caseSensitive ? value : value.toLowerCase();
+              int distance =
+                  algorithm == Algorithm.LEVENSHTEIN
+                      ? StringUtils.getLevenshteinDistance(a, b)
+                      : Utils.getDamerauLevenshteinDistance(a, b);
+              if (distance <= maxDistance) {
+                expected.add((long) id << 32 | distance);
+              }
+            }
+            long[] found = index.findWithinDistance(value, maxDistance);
+            assertEquals(
+                expected.toString(),
+                Arrays.toString(found),
+                algorithm + " " + value + " " + maxDistance);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  void testQGramIndexFindsAllSimilarValues() {
+    Random random = new Random(7);
+    List<Object[]> rows = names(random, 2000);
+    Jaro jaro = new Jaro();
+    JaroWinkler jaroWinkler = new JaroWinkler();
+    testSimilarity(rows, random, Algorithm.JARO, jaro::score);
+    testSimilarity(rows, random, Algorithm.JARO_WINKLER, jaroWinkler::score);
+    testSimilarity(rows, random, Algorithm.PAIR_SIMILARITY, LetterPairSimilarity::getSimiliarity);
+  }
+
+  private void testSimilarity(
+      List<Object[]> rows,
+      Random random,
+      Algorithm algorithm,
+      ToDoubleBiFunction<String, String> similarity) {
+    FuzzyMatchIndex index = FuzzyMatchIndex.build(algorithm, false, rows);
+    QGramIndex.Searcher searcher = index.newSearcher();
+    assertNotNull(searcher);
+    int pruned = 0;
+    for (int q = 0; q < 100; q++) {
+      String value = q == 0 ? "Jo Ann" : name(random);
+      for (double minSimilarity : new double[] {0, 0.5, 0.8, 0.9, 1.0}) {
+        int[] candidates = index.findSimilar(value, minSimilarity, searcher);
+        assertNotNull(candidates);
+        pruned += rows.size() - candidates.length;
+        for (int id = 0; id < rows.size(); id++) {
+          double score = similarity.applyAsDouble((String) rows.get(id)[0], value);
+          if (score > 0 && score >= minSimilarity) {
+            assertTrue(
+                Arrays.binarySearch(candidates, id) >= 0,
+                algorithm + " missed " + rows.get(id)[0] + " for " + value + ": " + score);
+          }
+        }
+      }
+    }
+    assertTrue(pruned > 0);
+
+    // Without any q-gram the index can't be used
+    //
+    assertNull(index.findSimilar("", 0.5, searcher));
+  }
+
+  @Test
+  void testSharedIndex() {
+    FuzzyMatchIndex.Shared shared = FuzzyMatchIndex.acquire("pipeline/fuzzy match");
+    assertSame(shared, FuzzyMatchIndex.acquire("pipeline/fuzzy match"));
+    assertTrue(shared.claim());
+    assertFalse(shared.claim());
+
+    FuzzyMatchIndex.release("pipeline/fuzzy match", shared);
+    assertSame(shared, FuzzyMatchIndex.acquire("pipeline/fuzzy match"));
+    FuzzyMatchIndex.release("pipeline/fuzzy match", shared);
+    FuzzyMatchIndex.release("pipeline/fuzzy match", shared);
+
+    // Dropped once no copy uses it anymore
+    //
+    FuzzyMatchIndex.Shared next = FuzzyMatchIndex.acquire("pipeline/fuzzy match");
+    assertNotSame(shared, next);
+    FuzzyMatchIndex.release("pipeline/fuzzy match", next);
+  }
+}
@@ -72,6 +72,20 @@ public class Aggregation implements Cloneable {
 
   public static final int TYPE_GROUP_CONCAT_DISTINCT = 22;
 
+  public static final int TYPE_GROUP_APPROX_COUNT_DISTINCT = 23;
+
+  public static final int TYPE_GROUP_APPROX_MEDIAN = 24;
+
+  public static final int TYPE_GROUP_APPROX_PERCENTILE = 25;
+
+  public static final int TYPE_GROUP_APPROX_TOP_K = 26;
+
+  public static final int TYPE_GROUP_COUNT_DISTINCT_SKETCH = 27;
+
+  public static final int TYPE_GROUP_PERCENTILE_SKETCH = 28;
+
+  public static final int TYPE_GROUP_TOP_K_SKETCH = 29;
+
   public static final String[]
       typeGroupLabel = /* WARNING: DO NOT TRANSLATE THIS. WE ARE SERIOUS, DON'T TRANSLATE! */ {
     "-",
@@ -97,6 +111,13 @@ public class Aggregation implements Cloneable {
     "PERCENTILE_NEAREST_RANK",
     "CONCAT_STRING_CRLF",
     "CONCAT_DISTINCT",
+    "APPROX_COUNT_DISTINCT",
+    "APPROX_MEDIAN",
+    "APPROX_PERCENTILE",
+    "APPROX_TOP_K",
+    "COUNT_DISTINCT_SKETCH",
+    "PERCENTILE_SKETCH",
+    "TOP_K_SKETCH",
   };
 
   public static final String[] typeGroupLongDesc = {
@@ -122,7 +143,14 @@ public class Aggregation implements Cloneable {
     BaseMessages.getString(PKG, "GroupByMeta.TypeGroupLongDesc.STANDARD_DEVIATION_SAMPLE"),
     BaseMessages.getString(PKG, "GroupByMeta.TypeGroupLongDesc.PERCENTILE_NEAREST_RANK"),
     BaseMessages.getString(PKG, "GroupByMeta.TypeGroupLongDesc.CONCAT_STRING_CRLF"),
-    BaseMessages.getString(PKG, "GroupByMeta.TypeGroupLongDesc.CONCAT_DISTINCT")
+    BaseMessages.getString(PKG, "GroupByMeta.TypeGroupLongDesc.CONCAT_DISTINCT"),
+    BaseMessages.getString(PKG, "GroupByMeta.TypeGroupLongDesc.APPROX_COUNT_DISTINCT"),
+    BaseMessages.getString(PKG, "GroupByMeta.TypeGroupLongDesc.APPROX_MEDIAN"),
+    BaseMessages.getString(PKG, "GroupByMeta.TypeGroupLongDesc.APPROX_PERCENTILE"),
+    BaseMessages.getString(PKG, "GroupByMeta.TypeGroupLongDesc.APPROX_TOP_K"),
+    BaseMessages.getString(PKG, "GroupByMeta.TypeGroupLongDesc.COUNT_DISTINCT_SKETCH"),
+    BaseMessages.getString(PKG, "GroupByMeta.TypeGroupLongDesc.PERCENTILE_SKETCH"),
+    BaseMessages.getString(PKG, "GroupByMeta.TypeGroupLongDesc.TOP_K_SKETCH")
   };
 
   @HopMetadataProperty(
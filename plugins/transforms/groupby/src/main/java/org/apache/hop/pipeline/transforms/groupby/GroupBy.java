@@ -45,11 +45,15 @@ import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.RowDataUtil;
 import org.apache.hop.core.row.RowMeta;
 import org.apache.hop.core.row.ValueDataUtil;
+import org.apache.hop.core.row.value.ValueMetaBinary;
 import org.apache.hop.core.row.value.ValueMetaFactory;
 import org.apache.hop.core.row.value.ValueMetaInteger;
 import org.apache.hop.core.row.value.ValueMetaNone;
 import org.apache.hop.core.row.value.ValueMetaNumber;
 import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.sketch.HyperLogLog;
+import org.apache.hop.core.sketch.QuantileSketch;
+import org.apache.hop.core.sketch.TopKSketch;
 import org.apache.hop.core.util.Utils;
 import org.apache.hop.core.vfs.HopVfs;
 import org.apache.hop.i18n.BaseMessages;
@@ -115,6 +119,7 @@ public class GroupBy extends BaseTransform<GroupByMeta, GroupByData> {
       //
       data.counts = new long[meta.getAggregations().size()];
       data.subjectnrs = new int[meta.getAggregations().size()];
+      data.percentileFractions = getPercentileFractions();
 
       data.cumulativeSumSourceIndexes = new ArrayList<>();
       data.cumulativeSumTargetIndexes = new ArrayList<>();
@@ -574,6 +579,19 @@ public class GroupBy extends BaseTransform<GroupByMeta, GroupByData> {
             SortedSet<Object> set = (SortedSet<Object>) value;
             set.add(subj);
           }
+          break;
+        case Aggregation.TYPE_GROUP_APPROX_COUNT_DISTINCT,
+            Aggregation.TYPE_GROUP_COUNT_DISTINCT_SKETCH:
+          ((HyperLogLog) value).addValue(subjMeta, subj);
+          break;
+        case Aggregation.TYPE_GROUP_APPROX_MEDIAN,
+            Aggregation.TYPE_GROUP_APPROX_PERCENTILE,
+            Aggregation.TYPE_GROUP_PERCENTILE_SKETCH:
+          ((QuantileSketch) value).addValue(subjMeta, subj);
+          break;
+        case Aggregation.TYPE_GROUP_APPROX_TOP_K, Aggregation.TYPE_GROUP_TOP_K_SKETCH:
+          ((TopKSketch) value).addValue(subjMeta, subj);
+          break;
         default:
           break;
       }
@@ -655,6 +673,30 @@ public class GroupBy extends BaseTransform<GroupByMeta, GroupByData> {
           vMeta = new ValueMetaString(fieldName);
           v = new TreeSet<>();
           break;
+        case Aggregation.TYPE_GROUP_APPROX_COUNT_DISTINCT:
+          vMeta = new ValueMetaInteger(fieldName);
+          v = new HyperLogLog();
+          break;
+        case Aggregation.TYPE_GROUP_APPROX_MEDIAN, Aggregation.TYPE_GROUP_APPROX_PERCENTILE:
+          vMeta = new ValueMetaNumber(fieldName);
+          v = new QuantileSketch();
+          break;
+        case Aggregation.TYPE_GROUP_APPROX_TOP_K:
+          vMeta = new ValueMetaString(fieldName);
+          v = new TopKSketch(getTopKCapacity(aggregation));
+          break;
+        case Aggregation.TYPE_GROUP_COUNT_DISTINCT_SKETCH:
+          vMeta = new ValueMetaBinary(fieldName);
+          v = new HyperLogLog();
+          break;
+        case Aggregation.TYPE_GROUP_PERCENTILE_SKETCH:
+          vMeta = new ValueMetaBinary(fieldName);
+          v = new QuantileSketch();
+          break;
+        case Aggregation.TYPE_GROUP_TOP_K_SKETCH:
+          vMeta = new ValueMetaBinary(fieldName);
+          v = new TopKSketch(getTopKCapacity(aggregation));
+          break;
         default:
           // TODO raise an error here because we cannot continue successfully maybe the UI should
           // validate this
@@ -665,7 +707,10 @@ public class GroupBy extends BaseTransform<GroupByMeta, GroupByData> {
       if ((subjMeta != null)
           && (aggType != Aggregation.TYPE_GROUP_COUNT_ALL
               && aggType != Aggregation.TYPE_GROUP_COUNT_DISTINCT
-              && aggType != Aggregation.TYPE_GROUP_COUNT_ANY)) {
+              && aggType != Aggregation.TYPE_GROUP_COUNT_ANY
+              && aggType != Aggregation.TYPE_GROUP_APPROX_COUNT_DISTINCT
+              && aggType != Aggregation.TYPE_GROUP_APPROX_TOP_K
+              && vMeta.getType() != IValueMeta.TYPE_BINARY)) {
         vMeta.setLength(subjMeta.getLength(), subjMeta.getPrecision());
       }
       data.agg[i] = v;
@@ -802,6 +847,29 @@ public class GroupBy extends BaseTransform<GroupByMeta, GroupByData> {
           }
           ag = joiner.toString();
           break;
+        case Aggregation.TYPE_GROUP_APPROX_COUNT_DISTINCT:
+          ag = ((HyperLogLog) ag).estimate();
+          break;
+        case Aggregation.TYPE_GROUP_APPROX_MEDIAN, Aggregation.TYPE_GROUP_APPROX_PERCENTILE:
+          QuantileSketch quantileSketch = (QuantileSketch) ag;
+          ag =
+              quantileSketch.getCount() == 0
+                  ? null
+                  : quantileSketch.quantile(data.percentileFractions[i]);
+          break;
+        case Aggregation.TYPE_GROUP_APPROX_TOP_K:
+          TopKSketch topKSketch = (TopKSketch) ag;
+          ag = topKSketch.getTotal() == 0 ? null : topKSketch.format(getTopK(aggregation));
+          break;
+        case Aggregation.TYPE_GROUP_COUNT_DISTINCT_SKETCH:
+          ag = ((HyperLogLog) ag).toBytes();
+          break;
+        case Aggregation.TYPE_GROUP_PERCENTILE_SKETCH:
+          ag = ((QuantileSketch) ag).toBytes();
+          break;
+        case Aggregation.TYPE_GROUP_TOP_K_SKETCH:
+          ag = ((TopKSketch) ag).toBytes();
+          break;
         default:
           break;
       }
@@ -817,6 +885,16 @@ public class GroupBy extends BaseTransform<GroupByMeta, GroupByData> {
     return result;
   }
 
+  /** The number of most frequent values to return, 10 unless specified in the value field */
+  private int getTopK(Aggregation aggregation) {
+    return Math.max(1, Const.toInt(resolve(aggregation.getValue()), 10));
+  }
+
+  /** Track more candidates than returned values to make the returned ones more reliable */
+  private int getTopKCapacity(Aggregation aggregation) {
+    return Math.max(TopKSketch.DEFAULT_CAPACITY, 4 * getTopK(aggregation));
+  }
+
   // Method is defined as package-protected in order to be accessible by unit tests
   void addToBuffer(Object[] row) throws HopFileException {
     data.bufferList.add(row);
@@ -942,6 +1020,32 @@ public class GroupBy extends BaseTransform<GroupByMeta, GroupByData> {
     return false;
   }
 
+  /**
+   * Resolve and check the percentiles of the approximate percentile aggregations.
+   *
+   * @return The percentile of every aggregation as a fraction, 0.5 for the approximate median
+   * @throws HopException If a percentile isn't a number between 0 and 100
+   */
+  private double[] getPercentileFractions() throws HopException {
+    List<Aggregation> aggregations = meta.getAggregations();
+    double[] fractions = new double[aggregations.size()];
+    for (int i = 0; i < fractions.length; i++) {
+      fractions[i] = 0.5;
+      Aggregation aggregation = aggregations.get(i);
+      if (aggregation.getType() == Aggregation.TYPE_GROUP_APPROX_PERCENTILE) {
+        String percentile = resolve(aggregation.getValue());
+        double value = Const.toDouble(percentile, Double.NaN);
+        if (!(value >= 0 && value <= 100)) {
+          throw new HopException(
+              BaseMessages.getString(
+                  PKG, "GroupBy.Exception.InvalidPercentile", percentile, aggregation.getField()));
+        }
+        fractions[i] = value / 100;
+      }
+    }
+    return fractions;
+  }
+
   @Override
   public void dispose() {
 
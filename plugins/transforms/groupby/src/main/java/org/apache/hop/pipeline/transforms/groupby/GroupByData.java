@@ -91,6 +91,9 @@ public class GroupByData extends BaseTransformData implements ITransformData {
 
   public double[] mean;
 
+  /** The percentile of every aggregation as a fraction, for the approximate percentiles */
+  public double[] percentileFractions;
+
   public boolean newBatch;
 
   public GroupByData() {
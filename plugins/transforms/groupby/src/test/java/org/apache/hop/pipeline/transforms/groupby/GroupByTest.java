@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.groupby;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.ILoggingObject;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.RowMetaBuilder;
+import org.apache.hop.core.row.value.ValueMetaBinary;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class GroupByTest {
+
+  private TransformMockHelper<GroupByMeta, GroupByData> mockHelper;
+
+  @BeforeEach
+  void setUp() {
+    mockHelper = new TransformMockHelper<>("Group by", GroupByMeta.class, GroupByData.class);
+    when(mockHelper.logChannelFactory.create(any(), any(ILoggingObject.class)))
+        .thenReturn(mockHelper.iLogChannel);
+  }
+
+  @AfterEach
+  void tearDown() {
+    mockHelper.cleanUp();
+  }
+
+  @Test
+  void testApproximatePercentileOfValues() throws Exception {
+    IRowMeta inputRowMeta = new RowMetaBuilder().addNumber("value").build();
+    List<Object[]> input = new ArrayList<>();
+    for (int i = 1; i <= 100; i++) {
+      input.add(new Object[] {(double) i});
+    }
+
+    GroupByMeta meta =
+        createMeta(
+            aggregation("p90", Aggregation.TYPE_GROUP_APPROX_PERCENTILE, "${P}"),
+            aggregation("median", Aggregation.TYPE_GROUP_APPROX_MEDIAN, null));
+    List<Object[]> output = run(meta, inputRowMeta, input);
+
+    assertEquals(1, output.size());
+    assertEquals(90.0, (Double) output.get(0)[0], 2.0);
+    assertEquals(50.0, (Double) output.get(0)[1], 2.0);
+  }
+
+  @Test
+  void testApproximatePercentileOfMergedSketches() throws Exception {
+    IRowMeta inputRowMeta = new RowMetaBuilder().addNumber("value").build();
+    GroupByMeta sketchMeta =
+        createMeta(aggregation("sketch", Aggregation.TYPE_GROUP_PERCENTILE_SKETCH, null));
+
+    // Build one sketch for the values 1 to 50 and one for the values 51 to 100
+    List<Object[]> sketches = new ArrayList<>();
+    for (int part = 0; part < 2; part++) {
+      List<Object[]> input = new ArrayList<>();
+      for (int i = 1; i <= 50; i++) {
+        input.add(new Object[] {(double) (part * 50 + i)});
+      }
+      sketches.addAll(run(sketchMeta, inputRowMeta, input));
+    }
+
+    IRowMeta sketchRowMeta = new RowMeta();
+    sketchRowMeta.addValueMeta(new ValueMetaBinary("value"));
+    GroupByMeta meta =
+        createMeta(aggregation("p90", Aggregation.TYPE_GROUP_APPROX_PERCENTILE, "${P}"));
+    List<Object[]> output = run(meta, sketchRowMeta, sketches);
+
+    assertEquals(1, output.size());
+    assertEquals(90.0, (Double) output.get(0)[0], 2.0);
+  }
+
+  @Test
+  void testInvalidPercentile() {
+    IRowMeta inputRowMeta = new RowMetaBuilder().addNumber("value").build();
+    List<Object[]> input = new ArrayList<>();
+    input.add(new Object[] {1.0});
+
+    GroupByMeta meta =
+        createMeta(aggregation("p", Aggregation.TYPE_GROUP_APPROX_PERCENTILE, "abc"));
+    assertThrows(HopException.class, () -> run(meta, inputRowMeta, input));
+
+    GroupByMeta outOfRangeMeta =
+        createMeta(aggregation("p", Aggregation.TYPE_GROUP_APPROX_PERCENTILE, "150"));
+    assertThrows(HopException.class, () -> run(outOfRangeMeta, inputRowMeta, input));
+  }
+
+  private Aggregation aggregation(String field, int type, String value) {
+    Aggregation aggregation = new Aggregation();
+    aggregation.setField(field);
+    aggregation.setSubject("value");
+    aggregation.setType(type);
+    aggregation.setValue(value);
+    return aggregation;
+  }
+
+  private GroupByMeta createMeta(Aggregation... aggregations) {
+    GroupByMeta meta = new GroupByMeta();
+    meta.setAggregations(new ArrayList<>(List.of(aggregations)));
+    meta.setGroupingFields(new ArrayList<>());
+    return meta;
+  }
+
+  private List<Object[]> run(GroupByMeta meta, IRowMeta inputRowMeta, List<Object[]> input)
+      throws HopException {
+    GroupBy transform =
+        new GroupBy(
+            mockHelper.transformMeta,
+            meta,
+            new GroupByData(),
+            0,
+            mockHelper.pipelineMeta,
+            mockHelper.pipeline);
+    transform.setVariable("P", "90");
+    return mockHelper.processRows(transform, inputRowMeta, input);
+  }
+}
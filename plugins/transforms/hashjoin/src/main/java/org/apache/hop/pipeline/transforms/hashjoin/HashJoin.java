@@ -0,0 +1,704 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.hashjoin;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.text.Collator;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowDataUtil;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.i18n.BaseMessages;
+import org.apache.hop.pipeline.Pipeline;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.transform.BaseTransform;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.hashjoin.HashJoinData.SpillPartition;
+
+/**
+ * Joins the rows of the main input (the probe side) with the rows of the info stream (the build
+ * side). The build rows are read first and kept in a hash table, after which every probe row is
+ * looked up in the table. The rows don't need to be sorted.
+ *
+ * <p>If there are more build rows than fit in memory, the build rows and later the probe rows are
+ * partitioned to temporary files on the hash of the key (grace hash join). Matching rows always end
+ * up in the same partition so the partitions are joined one by one after all probe rows are read. A
+ * partition which still has too many build rows is split again with other bits of the hash. When
+ * that doesn't help, because the build rows share a few keys, the partition is joined with a block
+ * nested loop: one block of build rows at a time against all probe rows of the partition.
+ */
+public class HashJoin extends BaseTransform<HashJoinMeta, HashJoinData> {
+  private static final Class<?> PKG = HashJoinMeta.class;
+
+  private static final int BUFFER_SIZE = 16 * 1024;
+
+  /** The number of times an oversized partition is split before it is joined as it is */
+  private static final int MAX_PARTITION_LEVEL = 3;
+
+  public HashJoin(
+      TransformMeta transformMeta,
+      HashJoinMeta meta,
+      HashJoinData data,
+      int copyNr,
+      PipelineMeta pipelineMeta,
+      Pipeline pipeline) {
+    super(transformMeta, meta, data, copyNr, pipelineMeta, pipeline);
+  }
+
+  @Override
+  public boolean processRow() throws HopException {
+    if (first) {
+      first = false;
+      if (!readBuildRows()) {
+        setErrors(1);
+        stopAll();
+        return false;
+      }
+    }
+
+    Object[] row = getRow();
+    if (data.probeRowMeta == null) {
+      IRowMeta probeRowMeta = row == null ? getProbeTransformFields() : getInputRowMeta();
+      initProbe(probeRowMeta);
+    }
+
+    if (row == null) {
+      if (data.partitions == null) {
+        passUnmatchedBuildRows();
+      } else {
+        joinPartitions();
+      }
+      setOutputDone();
+      return false;
+    }
+
+    Object[] key = getProbeKey(row);
+    if (data.partitions == null || key == null) {
+      // A probe row without a complete key can't match anything so it doesn't need to be spilled
+      probe(row, key);
+    } else {
+      SpillPartition partition =
+          data.partitions[partition(hashKey(key), 0, data.partitions.length)];
+      data.probeRowMeta.writeData(partition.probeOutput, row);
+      partition.probeRows++;
+    }
+
+    if (checkFeedback(getLinesRead()) && isBasic()) {
+      logBasic(BaseMessages.getString(PKG, "HashJoin.Log.LineNumber") + getLinesRead());
+    }
+    return true;
+  }
+
+  private boolean readBuildRows() throws HopException {
+    data.infoStream = meta.getTransformIOMeta().getInfoStreams().get(0);
+    if (data.infoStream.getTransformMeta() == null) {
+      logError(BaseMessages.getString(PKG, "HashJoin.Log.NoBuildTransformSpecified"));
+      return false;
+    }
+
+    if (isDetailed()) {
+      logDetailed(
+          BaseMessages.getString(
+              PKG, "HashJoin.Log.ReadingBuildRows", data.infoStream.getTransformName()));
+    }
+
+    IRowSet rowSet = findInputRowSet(data.infoStream.getTransformName());
+    Object[] row = getRowFrom(rowSet);
+    if (rowSet != null && rowSet.getRowMeta() != null) {
+      initBuild(rowSet.getRowMeta().clone());
+    } else {
+      initBuild(getPipelineMeta().getTransformFields(this, data.infoStream.getTransformName()));
+    }
+
+    long rowCount = 0;
+    while (row != null && !isStopped()) {
+      addBuildRow(row);
+      rowCount++;
+      row = getRowFrom(rowSet);
+    }
+
+    if (isDetailed()) {
+      logDetailed(
+          BaseMessages.getString(
+              PKG,
+              "HashJoin.Log.BuildRowsRead",
+              Long.toString(rowCount),
+              Boolean.toString(data.partitions != null)));
+    }
+    return true;
+  }
+
+  private void initBuild(IRowMeta buildRowMeta) throws HopException {
+    data.buildRowMeta = buildRowMeta;
+    List<HashJoinKey> keys = meta.getKeys();
+    data.buildKeyIndexes = new int[keys.size()];
+    data.buildKeyMetas = new IValueMeta[keys.size()];
+    data.keyMetas = new IValueMeta[keys.size()];
+    data.keyCollators = new Collator[keys.size()];
+    for (int i = 0; i < keys.size(); i++) {
+      String buildField = resolve(keys.get(i).getBuildField());
+      data.buildKeyIndexes[i] = buildRowMeta.indexOfValue(buildField);
+      if (data.buildKeyIndexes[i] < 0) {
+        throw new HopException(
+            BaseMessages.getString(PKG, "HashJoin.Exception.BuildFieldNotFound", buildField));
+      }
+      data.buildKeyMetas[i] = buildRowMeta.getValueMeta(data.buildKeyIndexes[i]);
+      data.keyMetas[i] = data.buildKeyMetas[i].clone();
+      data.keyMetas[i].setStorageType(IValueMeta.STORAGE_TYPE_NORMAL);
+      if (data.keyMetas[i].isString() && !data.keyMetas[i].isCollatorDisabled()) {
+        // Strings which are equal at any strength are equal at the primary strength
+        data.keyCollators[i] = Collator.getInstance(data.keyMetas[i].getCollatorLocale());
+        data.keyCollators[i].setStrength(Collator.PRIMARY);
+      }
+    }
+    data.table = new HashJoinTable();
+    data.buildRowsInMemory =
+        Math.max(
+            1,
+            Const.toInt(
+                resolve(meta.getBuildRowsInMemory()),
+                Integer.parseInt(HashJoinMeta.DEFAULT_BUILD_ROWS_IN_MEMORY)));
+  }
+
+  private void initProbe(IRowMeta probeRowMeta) throws HopException {
+    data.probeRowMeta = probeRowMeta;
+    List<HashJoinKey> keys = meta.getKeys();
+    data.probeKeyIndexes = new int[keys.size()];
+    data.probeKeyMetas = new IValueMeta[keys.size()];
+    for (int i = 0; i < keys.size(); i++) {
+      String probeField = resolve(keys.get(i).getProbeField());
+      data.probeKeyIndexes[i] = probeRowMeta.indexOfValue(probeField);
+      if (data.probeKeyIndexes[i] < 0) {
+        throw new HopException(
+            BaseMessages.getString(PKG, "HashJoin.Exception.ProbeFieldNotFound", probeField));
+      }
+      data.probeKeyMetas[i] = probeRowMeta.getValueMeta(data.probeKeyIndexes[i]);
+    }
+
+    data.outputRowMeta = probeRowMeta.clone();
+    meta.getFields(
+        data.outputRowMeta,
+        getTransformName(),
+        new IRowMeta[] {data.buildRowMeta},
+        null,
+        this,
+        metadataProvider);
+  }
+
+  /** Without probe rows we still need the layout of the main input for the outer joins */
+  private IRowMeta getProbeTransformFields() throws HopException {
+    IRowMeta rowMeta = new RowMeta();
+    for (TransformMeta previous :
+        getPipelineMeta().findPreviousTransforms(getTransformMeta(), false)) {
+      rowMeta.addRowMeta(getPipelineMeta().getTransformFields(this, previous));
+    }
+    return rowMeta;
+  }
+
+  private void addBuildRow(Object[] row) throws HopException {
+    Object[] key = getBuildKey(row);
+    int hash = key == null ? 0 : hashKey(key);
+
+    if (data.partitions == null && data.table.size() >= data.buildRowsInMemory) {
+      spillBuildRows();
+    }
+    if (data.partitions == null) {
+      data.table.add(hash, row);
+    } else {
+      SpillPartition partition = data.partitions[partition(hash, 0, data.partitions.length)];
+      data.buildRowMeta.writeData(partition.buildOutput, row);
+      partition.buildRows++;
+    }
+  }
+
+  /** The build rows don't fit in memory: move them to the partition files */
+  private void spillBuildRows() throws HopException {
+    int partitionCount = getPartitionCount();
+    if (isBasic()) {
+      logBasic(
+          BaseMessages.getString(
+              PKG,
+              "HashJoin.Log.SpillingBuildRows",
+              Integer.toString(data.table.size()),
+              Integer.toString(partitionCount)));
+    }
+
+    data.directory = new File(resolve(meta.getDirectory()));
+    data.partitions = createPartitions(partitionCount, 0);
+
+    for (int i = 0; i < data.table.size(); i++) {
+      SpillPartition partition =
+          data.partitions[partition(data.table.getHash(i), 0, partitionCount)];
+      data.buildRowMeta.writeData(partition.buildOutput, data.table.getRow(i));
+      partition.buildRows++;
+    }
+    data.table.clear();
+  }
+
+  private int getPartitionCount() {
+    return Math.max(
+        2,
+        Const.toInt(
+            resolve(meta.getSpillPartitions()),
+            Integer.parseInt(HashJoinMeta.DEFAULT_SPILL_PARTITIONS)));
+  }
+
+  private SpillPartition[] createPartitions(int partitionCount, int level) throws HopException {
+    SpillPartition[] partitions = new SpillPartition[partitionCount];
+    try {
+      for (int i = 0; i < partitionCount; i++) {
+        SpillPartition partition = new SpillPartition();
+        partitions[i] = partition;
+        partition.level = level;
+        partition.buildFile = File.createTempFile("hop-hashjoin-build-", ".tmp", data.directory);
+        partition.buildOutput = openOutput(partition.buildFile);
+        partition.probeFile = File.createTempFile("hop-hashjoin-probe-", ".tmp", data.directory);
+        partition.probeOutput = openOutput(partition.probeFile);
+      }
+    } catch (IOException e) {
+      for (SpillPartition partition : partitions) {
+        if (partition != null) {
+          closeQuietly(partition);
+        }
+      }
+      throw new HopException(
+          BaseMessages.getString(
+              PKG, "HashJoin.Exception.UnableToCreateSpillFile", data.directory.getPath()),
+          e);
+    }
+    return partitions;
+  }
+
+  /** Join the partitions on disk one by one after all the probe rows are written. */
+  private void joinPartitions() throws HopException {
+    Deque<SpillPartition> partitions = new ArrayDeque<>();
+    for (SpillPartition partition : data.partitions) {
+      closeOutputs(partition);
+      partitions.add(partition);
+    }
+
+    int partitionNr = 0;
+    while (!partitions.isEmpty() && !isStopped()) {
+      SpillPartition partition = partitions.poll();
+      if (partition.buildRows > data.buildRowsInMemory && partition.level < MAX_PARTITION_LEVEL) {
+        // Split the partition again, the new partitions are joined first
+        List<SpillPartition> subPartitions = repartition(partition);
+        for (int i = subPartitions.size() - 1; i >= 0; i--) {
+          partitions.push(subPartitions.get(i));
+        }
+        continue;
+      }
+
+      partitionNr++;
+      if (isDetailed()) {
+        logDetailed(
+            BaseMessages.getString(
+                PKG,
+                "HashJoin.Log.JoiningPartition",
+                Integer.toString(partitionNr),
+                Long.toString(partition.buildRows),
+                Long.toString(partition.probeRows)));
+      }
+      if (partition.buildRows > data.buildRowsInMemory) {
+        joinBlocks(partition);
+      } else {
+        joinInMemory(partition);
+      }
+      deleteFiles(partition);
+    }
+    data.table.clear();
+  }
+
+  /**
+   * Split an oversized partition with other bits of the hash than the previous levels.
+   *
+   * @return The new partitions, the files of the partition are deleted
+   */
+  private List<SpillPartition> repartition(SpillPartition partition) throws HopException {
+    int level = partition.level + 1;
+    SpillPartition[] subPartitions = createPartitions(getPartitionCount(), level);
+    data.splitPartitions.addAll(Arrays.asList(subPartitions));
+
+    try (DataInputStream input = openInput(partition.buildFile)) {
+      for (long i = 0; i < partition.buildRows; i++) {
+        Object[] row = data.buildRowMeta.readData(input);
+        Object[] key = getBuildKey(row);
+        SpillPartition subPartition =
+            subPartitions[partition(key == null ? 0 : hashKey(key), level, subPartitions.length)];
+        data.buildRowMeta.writeData(subPartition.buildOutput, row);
+        subPartition.buildRows++;
+      }
+    } catch (IOException e) {
+      throw new HopException(e);
+    }
+    try (DataInputStream input = openInput(partition.probeFile)) {
+      for (long i = 0; i < partition.probeRows; i++) {
+        Object[] row = data.probeRowMeta.readData(input);
+        SpillPartition subPartition =
+            subPartitions[partition(hashKey(getProbeKey(row)), level, subPartitions.length)];
+        data.probeRowMeta.writeData(subPartition.probeOutput, row);
+        subPartition.probeRows++;
+      }
+    } catch (IOException e) {
+      throw new HopException(e);
+    }
+    for (SpillPartition subPartition : subPartitions) {
+      closeOutputs(subPartition);
+      if (subPartition.buildRows == partition.buildRows) {
+        // All build rows have the same hash, splitting again won't help
+        subPartition.level = MAX_PARTITION_LEVEL;
+      }
+    }
+    if (isDetailed()) {
+      logDetailed(
+          BaseMessages.getString(
+              PKG,
+              "HashJoin.Log.SplittingPartition",
+              Long.toString(partition.buildRows),
+              Integer.toString(subPartitions.length)));
+    }
+    deleteFiles(partition);
+
+    List<SpillPartition> result = new ArrayList<>();
+    for (SpillPartition subPartition : subPartitions) {
+      if (subPartition.buildRows == 0 && subPartition.probeRows == 0) {
+        deleteFiles(subPartition);
+      } else {
+        result.add(subPartition);
+      }
+    }
+    return result;
+  }
+
+  /** Join a partition with all its build rows in the hash table. */
+  private void joinInMemory(SpillPartition partition) throws HopException {
+    data.table.clear();
+    try (DataInputStream input = openInput(partition.buildFile)) {
+      readBuildRows(input, partition.buildRows);
+    } catch (IOException e) {
+      throw new HopException(e);
+    }
+
+    try (DataInputStream input = openInput(partition.probeFile)) {
+      for (long i = 0; i < partition.probeRows && !isStopped(); i++) {
+        Object[] row = data.probeRowMeta.readData(input);
+        probe(row, getProbeKey(row));
+      }
+    } catch (IOException e) {
+      throw new HopException(e);
+    }
+
+    passUnmatchedBuildRows();
+  }
+
+  /**
+   * Join a partition with more build rows than fit in memory (block nested loop): the build rows
+   * are read in blocks and all probe rows are joined with every block. The probe rows without a
+   * match in any block are passed at the end for the outer joins.
+   */
+  private void joinBlocks(SpillPartition partition) throws HopException {
+    BitSet matchedProbeRows = new BitSet();
+    try (DataInputStream buildInput = openInput(partition.buildFile)) {
+      long buildRowsRead = 0;
+      while (buildRowsRead < partition.buildRows && !isStopped()) {
+        data.table.clear();
+        long blockSize = Math.min(data.buildRowsInMemory, partition.buildRows - buildRowsRead);
+        readBuildRows(buildInput, blockSize);
+        buildRowsRead += blockSize;
+
+        try (DataInputStream input = openInput(partition.probeFile)) {
+          for (int i = 0; i < partition.probeRows && !isStopped(); i++) {
+            Object[] row = data.probeRowMeta.readData(input);
+            if (join(row, getProbeKey(row))) {
+              matchedProbeRows.set(i);
+            }
+          }
+        }
+        passUnmatchedBuildRows();
+      }
+    } catch (IOException e) {
+      throw new HopException(e);
+    }
+
+    if (meta.getJoinType().isKeepUnmatchedProbeRows()) {
+      try (DataInputStream input = openInput(partition.probeFile)) {
+        for (int i = 0; i < partition.probeRows && !isStopped(); i++) {
+          Object[] row = data.probeRowMeta.readData(input);
+          if (!matchedProbeRows.get(i)) {
+            putRow(data.outputRowMeta, joinRows(row, null));
+          }
+        }
+      } catch (IOException e) {
+        throw new HopException(e);
+      }
+    }
+  }
+
+  /** Read the next build rows of a partition file into the hash table. */
+  private void readBuildRows(DataInputStream input, long count) throws HopException, IOException {
+    for (long i = 0; i < count; i++) {
+      Object[] row = data.buildRowMeta.readData(input);
+      Object[] key = getBuildKey(row);
+      data.table.add(key == null ? 0 : hashKey(key), row);
+    }
+  }
+
+  /** Pass the joined rows for a probe row, or the probe row itself for the outer joins. */
+  private void probe(Object[] probeRow, Object[] key) throws HopException {
+    if (!join(probeRow, key) && meta.getJoinType().isKeepUnmatchedProbeRows()) {
+      putRow(data.outputRowMeta, joinRows(probeRow, null));
+    }
+  }
+
+  /**
+   * Pass the joined rows for a probe row and the build rows in the hash table.
+   *
+   * @return true if the probe row matched a build row
+   */
+  private boolean join(Object[] probeRow, Object[] key) throws HopException {
+    boolean found = false;
+    if (key != null) {
+      int hash = hashKey(key);
+      for (int i = data.table.first(hash); i >= 0; i = data.table.next(i)) {
+        if (data.table.getHash(i) == hash && keyEquals(key, data.table.getRow(i))) {
+          found = true;
+          data.table.setMatched(i);
+          putRow(data.outputRowMeta, joinRows(probeRow, data.table.getRow(i)));
+        }
+      }
+    }
+    return found;
+  }
+
+  private void passUnmatchedBuildRows() throws HopException {
+    if (!meta.getJoinType().isKeepUnmatchedBuildRows()) {
+      return;
+    }
+    for (int i = 0; i < data.table.size() && !isStopped(); i++) {
+      if (!data.table.isMatched(i)) {
+        putRow(data.outputRowMeta, joinRows(null, data.table.getRow(i)));
+      }
+    }
+  }
+
+  private Object[] joinRows(Object[] probeRow, Object[] buildRow) {
+    Object[] row = RowDataUtil.allocateRowData(data.outputRowMeta.size());
+    if (probeRow != null) {
+      System.arraycopy(probeRow, 0, row, 0, data.probeRowMeta.size());
+    }
+    if (buildRow != null) {
+      System.arraycopy(buildRow, 0, row, data.probeRowMeta.size(), data.buildRowMeta.size());
+    }
+    return row;
+  }
+
+  /**
+   * @return The key values of a build row with normal storage, or null if one of them is null
+   */
+  private Object[] getBuildKey(Object[] row) throws HopValueException {
+    Object[] key = new Object[data.buildKeyIndexes.length];
+    for (int i = 0; i < key.length; i++) {
+      key[i] = data.buildKeyMetas[i].convertToNormalStorageType(row[data.buildKeyIndexes[i]]);
+      if (key[i] == null) {
+        return null;
+      }
+    }
+    return key;
+  }
+
+  /**
+   * @return The key values of a probe row converted to the data types of the build keys, or null if
+   *     one of them is null
+   */
+  private Object[] getProbeKey(Object[] row) throws HopValueException {
+    Object[] key = new Object[data.probeKeyIndexes.length];
+    for (int i = 0; i < key.length; i++) {
+      IValueMeta probeMeta = data.probeKeyMetas[i];
+      Object value = probeMeta.convertToNormalStorageType(row[data.probeKeyIndexes[i]]);
+      if (value != null && probeMeta.getType() != data.keyMetas[i].getType()) {
+        IValueMeta normalMeta = probeMeta;
+        if (!probeMeta.isStorageNormal()) {
+          normalMeta = probeMeta.clone();
+          normalMeta.setStorageType(IValueMeta.STORAGE_TYPE_NORMAL);
+        }
+        value = data.keyMetas[i].convertData(normalMeta, value);
+      }
+      if (value == null) {
+        return null;
+      }
+      key[i] = value;
+    }
+    return key;
+  }
+
+  private boolean keyEquals(Object[] key, Object[] buildRow) throws HopValueException {
+    for (int i = 0; i < key.length; i++) {
+      Object buildValue =
+          data.buildKeyMetas[i].convertToNormalStorageType(buildRow[data.buildKeyIndexes[i]]);
+      if (buildValue == null || data.keyMetas[i].compare(key[i], buildValue) != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private int hashKey(Object[] key) throws HopValueException {
+    int hash = 1;
+    for (int i = 0; i < key.length; i++) {
+      hash = 31 * hash + hashValue(i, key[i]);
+    }
+    return hash;
+  }
+
+  /**
+   * The hash of a key value is consistent with the comparison of the key values: values which
+   * compare as equal have the same hash, for example strings which only differ in case for a case
+   * insensitive key, or 1.0 and 1.00.
+   */
+  private int hashValue(int keyNr, Object value) throws HopValueException {
+    IValueMeta keyMeta = data.keyMetas[keyNr];
+    switch (keyMeta.getType()) {
+      case IValueMeta.TYPE_STRING:
+        String string = keyMeta.getString(value);
+        if (keyMeta.isIgnoreWhitespace()) {
+          string = string.trim();
+        }
+        if (data.keyCollators[keyNr] != null) {
+          return data.keyCollators[keyNr].getCollationKey(string).hashCode();
+        }
+        if (keyMeta.isCaseInsensitive()) {
+          // The same folding as String.compareToIgnoreCase()
+          int hash = 0;
+          for (int i = 0; i < string.length(); i++) {
+            hash = 31 * hash + Character.toLowerCase(Character.toUpperCase(string.charAt(i)));
+          }
+          return hash;
+        }
+        return string.hashCode();
+      case IValueMeta.TYPE_INTEGER:
+        return Long.hashCode(keyMeta.getInteger(value));
+      case IValueMeta.TYPE_NUMBER:
+        return Double.hashCode(keyMeta.getNumber(value));
+      case IValueMeta.TYPE_BIGNUMBER:
+        BigDecimal number = keyMeta.getBigNumber(value);
+        return number.signum() == 0 ? 0 : number.stripTrailingZeros().hashCode();
+      case IValueMeta.TYPE_DATE, IValueMeta.TYPE_TIMESTAMP:
+        return Long.hashCode(keyMeta.getDate(value).getTime());
+      case IValueMeta.TYPE_BOOLEAN:
+        return Boolean.hashCode(keyMeta.getBoolean(value));
+      case IValueMeta.TYPE_BINARY:
+        return Arrays.hashCode(keyMeta.getBinary(value));
+      default:
+        // Other types compare in their own way: they all get the same hash
+        return 0;
+    }
+  }
+
+  /**
+   * The partition uses other bits of the hash than the buckets of the hash table, and other bits
+   * again on every level of splitting a partition.
+   */
+  private static int partition(int hash, int level, int partitionCount) {
+    int mixed = (hash ^ (level * 0x27D4EB2F)) * 0x9E3779B9;
+    mixed ^= mixed >>> 15;
+    mixed *= 0x85EBCA6B;
+    mixed ^= mixed >>> 13;
+    return Math.floorMod(mixed, partitionCount);
+  }
+
+  private static DataOutputStream openOutput(File file) throws IOException {
+    return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE));
+  }
+
+  private static DataInputStream openInput(File file) throws IOException {
+    return new DataInputStream(new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE));
+  }
+
+  private void closeOutput(DataOutputStream output) throws HopException {
+    if (output != null) {
+      try {
+        output.close();
+      } catch (IOException e) {
+        throw new HopException(e);
+      }
+    }
+  }
+
+  private void closeOutputs(SpillPartition partition) throws HopException {
+    closeOutput(partition.buildOutput);
+    partition.buildOutput = null;
+    closeOutput(partition.probeOutput);
+    partition.probeOutput = null;
+  }
+
+  private void closeQuietly(SpillPartition partition) {
+    try {
+      closeOutputs(partition);
+    } catch (HopException e) {
+      logError(e.getMessage());
+    }
+    deleteFiles(partition);
+  }
+
+  private void deleteFiles(SpillPartition partition) {
+    for (File file : new File[] {partition.buildFile, partition.probeFile}) {
+      if (file != null && file.exists() && !file.delete()) {
+        logError(
+            BaseMessages.getString(PKG, "HashJoin.Log.UnableToDeleteSpillFile", file.getPath()));
+      }
+    }
+    partition.buildFile = null;
+    partition.probeFile = null;
+  }
+
+  @Override
+  public void dispose() {
+    if (data.partitions != null) {
+      for (SpillPartition partition : data.partitions) {
+        if (partition != null) {
+          closeQuietly(partition);
+        }
+      }
+      data.partitions = null;
+    }
+    for (SpillPartition partition : data.splitPartitions) {
+      closeQuietly(partition);
+    }
+    data.splitPartitions.clear();
+    data.table = null;
+    super.dispose();
+  }
+}
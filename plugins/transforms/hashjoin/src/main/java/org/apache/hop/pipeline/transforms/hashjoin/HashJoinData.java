@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.hashjoin;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.pipeline.transform.BaseTransformData;
+import org.apache.hop.pipeline.transform.ITransformData;
+import org.apache.hop.pipeline.transform.stream.IStream;
+
+@SuppressWarnings("java:S1104")
+public class HashJoinData extends BaseTransformData implements ITransformData {
+  public IStream infoStream;
+
+  public IRowMeta buildRowMeta;
+  public IRowMeta probeRowMeta;
+  public IRowMeta outputRowMeta;
+
+  public int[] buildKeyIndexes;
+  public int[] probeKeyIndexes;
+
+  /** The key metadata of the build side with normal storage: the keys are compared with these */
+  public IValueMeta[] keyMetas;
+
+  /** The key metadata of both sides with normal storage, to convert the key values */
+  public IValueMeta[] buildKeyMetas;
+
+  public IValueMeta[] probeKeyMetas;
+
+  /** Per key, a collator to hash strings which are compared with a collator, null otherwise */
+  public Collator[] keyCollators;
+
+  public HashJoinTable table;
+  public int buildRowsInMemory;
+
+  /** The partitions on disk if the build rows don't fit in memory, null otherwise */
+  public SpillPartition[] partitions;
+
+  /** The partitions created by splitting oversized partitions */
+  public List<SpillPartition> splitPartitions = new ArrayList<>();
+
+  public File directory;
+
+  /** A partition of the build and probe rows written to disk */
+  public static class SpillPartition {
+    /** 0 for the first partitions, one more every time an oversized partition is split again */
+    public int level;
+
+    public File buildFile;
+    public DataOutputStream buildOutput;
+    public long buildRows;
+    public File probeFile;
+    public DataOutputStream probeOutput;
+    public long probeRows;
+  }
+
+  public HashJoinData() {
+    super();
+  }
+}
@@ -0,0 +1,333 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.hashjoin;
+
+import org.apache.hop.core.Const;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.util.Utils;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.i18n.BaseMessages;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.hashjoin.HashJoinMeta.JoinType;
+import org.apache.hop.ui.core.ConstUi;
+import org.apache.hop.ui.core.PropsUi;
+import org.apache.hop.ui.core.dialog.BaseDialog;
+import org.apache.hop.ui.core.dialog.ErrorDialog;
+import org.apache.hop.ui.core.widget.ColumnInfo;
+import org.apache.hop.ui.core.widget.TableView;
+import org.apache.hop.ui.core.widget.TextVar;
+import org.apache.hop.ui.pipeline.transform.BaseTransformDialog;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.ModifyListener;
+import org.eclipse.swt.layout.FormAttachment;
+import org.eclipse.swt.layout.FormData;
+import org.eclipse.swt.widgets.Combo;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.TableItem;
+
+public class HashJoinDialog extends BaseTransformDialog {
+  private static final Class<?> PKG = HashJoinMeta.class;
+
+  private Combo wBuildTransform;
+
+  private Combo wJoinType;
+
+  private TextVar wBuildRowsInMemory;
+
+  private TextVar wSpillPartitions;
+
+  private TextVar wDirectory;
+
+  private TableView wKeys;
+
+  private ColumnInfo[] ciKeys;
+
+  private final HashJoinMeta input;
+
+  public HashJoinDialog(
+      Shell parent, IVariables variables, HashJoinMeta transformMeta, PipelineMeta pipelineMeta) {
+    super(parent, variables, transformMeta, pipelineMeta);
+    input = transformMeta;
+  }
+
+  @Override
+  public String open() {
+    createShell(BaseMessages.getString(PKG, "HashJoinDialog.Shell.Label"));
+
+    buildButtonBar().ok(e -> ok()).get(e -> getKeys()).cancel(e -> cancel()).build();
+
+    ModifyListener lsMod = e -> input.setChanged();
+    backupChanged = input.hasChanged();
+
+    // The transform to build the hash table with
+    Label wlBuildTransform = new Label(shell, SWT.RIGHT);
+    wlBuildTransform.setText(BaseMessages.getString(PKG, "HashJoinDialog.BuildTransform.Label"));
+    wlBuildTransform.setToolTipText(
+        BaseMessages.getString(PKG, "HashJoinDialog.BuildTransform.Tooltip"));
+    PropsUi.setLook(wlBuildTransform);
+    FormData fdlBuildTransform = new FormData();
+    fdlBuildTransform.left = new FormAttachment(0, 0);
+    fdlBuildTransform.right = new FormAttachment(middle, -margin);
+    fdlBuildTransform.top = new FormAttachment(wSpacer, margin);
+    wlBuildTransform.setLayoutData(fdlBuildTransform);
+    wBuildTransform = new Combo(shell, SWT.BORDER);
+    PropsUi.setLook(wBuildTransform);
+    String[] previousTransforms = pipelineMeta.getPrevTransformNames(transformName);
+    if (previousTransforms != null) {
+      wBuildTransform.setItems(previousTransforms);
+    }
+    wBuildTransform.addModifyListener(lsMod);
+    FormData fdBuildTransform = new FormData();
+    fdBuildTransform.left = new FormAttachment(middle, 0);
+    fdBuildTransform.top = new FormAttachment(wSpacer, margin);
+    fdBuildTransform.right = new FormAttachment(100, 0);
+    wBuildTransform.setLayoutData(fdBuildTransform);
+
+    // Join type
+    Label wlJoinType = new Label(shell, SWT.RIGHT);
+    wlJoinType.setText(BaseMessages.getString(PKG, "HashJoinDialog.JoinType.Label"));
+    PropsUi.setLook(wlJoinType);
+    FormData fdlJoinType = new FormData();
+    fdlJoinType.left = new FormAttachment(0, 0);
+    fdlJoinType.right = new FormAttachment(middle, -margin);
+    fdlJoinType.top = new FormAttachment(wBuildTransform, margin);
+    wlJoinType.setLayoutData(fdlJoinType);
+    wJoinType = new Combo(shell, SWT.BORDER | SWT.READ_ONLY);
+    PropsUi.setLook(wJoinType);
+    wJoinType.setItems(JoinType.getDescriptions());
+    wJoinType.addModifyListener(lsMod);
+    FormData fdJoinType = new FormData();
+    fdJoinType.left = new FormAttachment(middle, 0);
+    fdJoinType.top = new FormAttachment(wBuildTransform, margin);
+    fdJoinType.right = new FormAttachment(100, 0);
+    wJoinType.setLayoutData(fdJoinType);
+
+    // Maximum number of build rows in memory
+    wBuildRowsInMemory =
+        addTextVar(
+            wJoinType,
+            "HashJoinDialog.BuildRowsInMemory.Label",
+            "HashJoinDialog.BuildRowsInMemory.Tooltip",
+            lsMod);
+
+    // Number of partitions on disk
+    wSpillPartitions =
+        addTextVar(
+            wBuildRowsInMemory,
+            "HashJoinDialog.SpillPartitions.Label",
+            "HashJoinDialog.SpillPartitions.Tooltip",
+            lsMod);
+
+    // Folder for the partitions
+    wDirectory =
+        addTextVar(
+            wSpillPartitions,
+            "HashJoinDialog.Directory.Label",
+            "HashJoinDialog.Directory.Tooltip",
+            lsMod);
+
+    // The keys to join on
+    Label wlKeys = new Label(shell, SWT.NONE);
+    wlKeys.setText(BaseMessages.getString(PKG, "HashJoinDialog.Keys.Label"));
+    PropsUi.setLook(wlKeys);
+    FormData fdlKeys = new FormData();
+    fdlKeys.left = new FormAttachment(0, 0);
+    fdlKeys.top = new FormAttachment(wDirectory, margin);
+    wlKeys.setLayoutData(fdlKeys);
+
+    ciKeys =
+        new ColumnInfo[] {
+          new ColumnInfo(
+              BaseMessages.getString(PKG, "HashJoinDialog.ColumnInfo.ProbeField"),
+              ColumnInfo.COLUMN_TYPE_CCOMBO,
+              new String[] {""},
+              false),
+          new ColumnInfo(
+              BaseMessages.getString(PKG, "HashJoinDialog.ColumnInfo.BuildField"),
+              ColumnInfo.COLUMN_TYPE_CCOMBO,
+              new String[] {""},
+              false),
+        };
+
+    wKeys =
+        new TableView(
+            variables,
+            shell,
+            SWT.BORDER | SWT.FULL_SELECTION | SWT.MULTI | SWT.V_SCROLL | SWT.H_SCROLL,
+            ciKeys,
+            input.getKeys().size(),
+            lsMod,
+            props);
+    FormData fdKeys = new FormData();
+    fdKeys.left = new FormAttachment(0, 0);
+    fdKeys.top = new FormAttachment(wlKeys, margin);
+    fdKeys.right = new FormAttachment(100, 0);
+    fdKeys.bottom = new FormAttachment(wOk, -2 * margin);
+    wKeys.setLayoutData(fdKeys);
+
+    wBuildTransform.addListener(SWT.Modify, e -> updateFieldNames());
+
+    getData();
+    updateFieldNames();
+    input.setChanged(backupChanged);
+    focusTransformName();
+    BaseDialog.defaultShellHandling(shell, c -> ok(), c -> cancel());
+
+    return transformName;
+  }
+
+  private TextVar addTextVar(
+      Control previous, String labelKey, String tooltipKey, ModifyListener lsMod) {
+    Label wlText = new Label(shell, SWT.RIGHT);
+    wlText.setText(BaseMessages.getString(PKG, labelKey));
+    wlText.setToolTipText(BaseMessages.getString(PKG, tooltipKey));
+    PropsUi.setLook(wlText);
+    FormData fdlText = new FormData();
+    fdlText.left = new FormAttachment(0, 0);
+    fdlText.right = new FormAttachment(middle, -margin);
+    fdlText.top = new FormAttachment(previous, margin);
+    wlText.setLayoutData(fdlText);
+    TextVar wText = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    PropsUi.setLook(wText);
+    wText.addModifyListener(lsMod);
+    FormData fdText = new FormData();
+    fdText.left = new FormAttachment(middle, 0);
+    fdText.top = new FormAttachment(previous, margin);
+    fdText.right = new FormAttachment(100, 0);
+    wText.setLayoutData(fdText);
+    return wText;
+  }
+
+  /** Copy information from the meta-data input to the dialog fields. */
+  public void getData() {
+    input.searchInfoAndTargetTransforms(pipelineMeta.getTransforms());
+
+    wBuildTransform.setText(
+        Const.NVL(input.getTransformIOMeta().getInfoStreams().get(0).getTransformName(), ""));
+    JoinType joinType = input.getJoinType() == null ? JoinType.INNER : input.getJoinType();
+    wJoinType.setText(joinType.getDescription());
+    wBuildRowsInMemory.setText(Const.NVL(input.getBuildRowsInMemory(), ""));
+    wSpillPartitions.setText(Const.NVL(input.getSpillPartitions(), ""));
+    wDirectory.setText(Const.NVL(input.getDirectory(), ""));
+
+    for (int i = 0; i < input.getKeys().size(); i++) {
+      HashJoinKey key = input.getKeys().get(i);
+      TableItem item = wKeys.table.getItem(i);
+      item.setText(1, Const.NVL(key.getProbeField(), ""));
+      item.setText(2, Const.NVL(key.getBuildField(), ""));
+    }
+    wKeys.optimizeTableView();
+  }
+
+  private void cancel() {
+    transformName = null;
+    input.setChanged(backupChanged);
+    dispose();
+  }
+
+  private void ok() {
+    if (Utils.isEmpty(wTransformName.getText())) {
+      return;
+    }
+
+    input.setBuildTransformName(wBuildTransform.getText());
+    input.getTransformIOMeta().getInfoStreams().get(0).setSubject(wBuildTransform.getText());
+    input.setJoinType(JoinType.lookupDescription(wJoinType.getText()));
+    input.setBuildRowsInMemory(wBuildRowsInMemory.getText());
+    input.setSpillPartitions(wSpillPartitions.getText());
+    input.setDirectory(wDirectory.getText());
+
+    input.getKeys().clear();
+    for (TableItem item : wKeys.getNonEmptyItems()) {
+      input.getKeys().add(new HashJoinKey(item.getText(1), item.getText(2)));
+    }
+    input.searchInfoAndTargetTransforms(pipelineMeta.getTransforms());
+
+    transformName = wTransformName.getText(); // return value
+
+    dispose();
+  }
+
+  /** The fields of the main input, without the fields of the build transform */
+  private IRowMeta getProbeFields() throws HopException {
+    IRowMeta rowMeta = new RowMeta();
+    String[] previousTransforms = pipelineMeta.getPrevTransformNames(transformName);
+    if (previousTransforms == null) {
+      return rowMeta;
+    }
+    String buildTransformName = wBuildTransform.getText();
+    for (String previous : previousTransforms) {
+      if (!previous.equalsIgnoreCase(buildTransformName)) {
+        rowMeta.addRowMeta(pipelineMeta.getTransformFields(variables, previous));
+      }
+    }
+    return rowMeta;
+  }
+
+  /** Add the probe fields which have a build field with the same name as keys */
+  private void getKeys() {
+    try {
+      TransformMeta buildTransform = pipelineMeta.findTransform(wBuildTransform.getText());
+      if (buildTransform == null) {
+        return;
+      }
+      IRowMeta buildFields = pipelineMeta.getTransformFields(variables, buildTransform);
+      IRowMeta probeFields = getProbeFields();
+      for (String fieldName : probeFields.getFieldNames()) {
+        if (buildFields.indexOfValue(fieldName) >= 0) {
+          TableItem item = new TableItem(wKeys.table, SWT.NONE);
+          item.setText(1, fieldName);
+          item.setText(2, fieldName);
+        }
+      }
+      wKeys.removeEmptyRows();
+      wKeys.setRowNums();
+      wKeys.optWidth(true);
+    } catch (HopException e) {
+      new ErrorDialog(
+          shell,
+          BaseMessages.getString(PKG, "HashJoinDialog.ErrorGettingFields.DialogTitle"),
+          BaseMessages.getString(PKG, "HashJoinDialog.ErrorGettingFields.DialogMessage"),
+          e);
+    }
+  }
+
+  // Search the fields in the background
+  //
+  private void updateFieldNames() {
+    final Runnable runnable =
+        () -> {
+          try {
+            ciKeys[0].setComboValues(ConstUi.sortFieldNames(getProbeFields().getFieldNames()));
+            TransformMeta buildTransform = pipelineMeta.findTransform(wBuildTransform.getText());
+            if (buildTransform != null) {
+              IRowMeta row = pipelineMeta.getTransformFields(variables, buildTransform);
+              ciKeys[1].setComboValues(ConstUi.sortFieldNames(row.getFieldNames()));
+            }
+          } catch (HopException e) {
+            logError(BaseMessages.getString(PKG, "System.Dialog.GetFieldsFailed.Message"));
+          }
+        };
+    shell.getDisplay().asyncExec(runnable);
+  }
+}
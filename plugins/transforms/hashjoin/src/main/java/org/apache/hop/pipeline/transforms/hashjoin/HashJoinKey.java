@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.hashjoin;
+
+import java.util.Objects;
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.hop.metadata.api.HopMetadataProperty;
+
+/** A pair of fields to join on: a field of the main input and a field of the build stream. */
+@Getter
+@Setter
+public class HashJoinKey {
+  @HopMetadataProperty(
+      key = "probe",
+      injectionKey = "PROBE_FIELD",
+      injectionKeyDescription = "HashJoin.Injection.PROBE_FIELD")
+  private String probeField;
+
+  @HopMetadataProperty(
+      key = "build",
+      injectionKey = "BUILD_FIELD",
+      injectionKeyDescription = "HashJoin.Injection.BUILD_FIELD")
+  private String buildField;
+
+  public HashJoinKey() {}
+
+  public HashJoinKey(String probeField, String buildField) {
+    this.probeField = probeField;
+    this.buildField = buildField;
+  }
+
+  public HashJoinKey(HashJoinKey k) {
+    this.probeField = k.probeField;
+    this.buildField = k.buildField;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    HashJoinKey that = (HashJoinKey) o;
+    return Objects.equals(probeField, that.probeField)
+        && Objects.equals(buildField, that.buildField);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(probeField, buildField);
+  }
+}
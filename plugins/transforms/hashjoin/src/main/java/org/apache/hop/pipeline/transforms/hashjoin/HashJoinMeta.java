@@ -0,0 +1,315 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.hashjoin;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.hop.core.CheckResult;
+import org.apache.hop.core.ICheckResult;
+import org.apache.hop.core.annotations.Transform;
+import org.apache.hop.core.exception.HopTransformException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.util.Utils;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.i18n.BaseMessages;
+import org.apache.hop.metadata.api.HopMetadataProperty;
+import org.apache.hop.metadata.api.IEnumHasCode;
+import org.apache.hop.metadata.api.IEnumHasCodeAndDescription;
+import org.apache.hop.metadata.api.IHopMetadataProvider;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.PipelineMeta.PipelineType;
+import org.apache.hop.pipeline.transform.BaseTransformMeta;
+import org.apache.hop.pipeline.transform.ITransformIOMeta;
+import org.apache.hop.pipeline.transform.TransformIOMeta;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transform.stream.IStream;
+import org.apache.hop.pipeline.transform.stream.IStream.StreamType;
+import org.apache.hop.pipeline.transform.stream.Stream;
+import org.apache.hop.pipeline.transform.stream.StreamIcon;
+
+@Transform(
+    id = "HashJoin",
+    image = "hashjoin.svg",
+    name = "i18n::HashJoin.Name",
+    description = "i18n::HashJoin.Description",
+    categoryDescription = "i18n:org.apache.hop.pipeline.transform:BaseTransform.Category.Joins",
+    keywords = "i18n::HashJoinMeta.keyword",
+    documentationUrl = "/pipeline/transforms/hashjoin.html")
+@Getter
+@Setter
+public class HashJoinMeta extends BaseTransformMeta<HashJoin, HashJoinData> {
+  private static final Class<?> PKG = HashJoinMeta.class;
+
+  public static final String DEFAULT_BUILD_ROWS_IN_MEMORY = "1000000";
+  public static final String DEFAULT_SPILL_PARTITIONS = "32";
+
+  /** The transform which sends the rows to build the hash table with */
+  @HopMetadataProperty(
+      key = "build_transform",
+      injectionKey = "BUILD_TRANSFORM",
+      injectionKeyDescription = "HashJoin.Injection.BUILD_TRANSFORM")
+  private String buildTransformName;
+
+  @HopMetadataProperty(
+      key = "join_type",
+      storeWithCode = true,
+      injectionKey = "JOIN_TYPE",
+      injectionKeyDescription = "HashJoin.Injection.JOIN_TYPE")
+  private JoinType joinType;
+
+  @HopMetadataProperty(
+      groupKey = "keys",
+      key = "key",
+      injectionGroupKey = "KEYS",
+      injectionGroupDescription = "HashJoin.Injection.KEYS")
+  private List<HashJoinKey> keys;
+
+  /** The maximum number of build rows in memory before the rows are partitioned to disk */
+  @HopMetadataProperty(
+      key = "build_rows_in_memory",
+      injectionKey = "BUILD_ROWS_IN_MEMORY",
+      injectionKeyDescription = "HashJoin.Injection.BUILD_ROWS_IN_MEMORY")
+  private String buildRowsInMemory;
+
+  /** The number of partitions the rows are written to when the build rows don't fit in memory */
+  @HopMetadataProperty(
+      key = "spill_partitions",
+      injectionKey = "SPILL_PARTITIONS",
+      injectionKeyDescription = "HashJoin.Injection.SPILL_PARTITIONS")
+  private String spillPartitions;
+
+  /** The folder to write the partitions to */
+  @HopMetadataProperty(
+      key = "directory",
+      injectionKey = "DIRECTORY",
+      injectionKeyDescription = "HashJoin.Injection.DIRECTORY")
+  private String directory;
+
+  public HashJoinMeta() {
+    super();
+    joinType = JoinType.INNER;
+    keys = new ArrayList<>();
+    buildRowsInMemory = DEFAULT_BUILD_ROWS_IN_MEMORY;
+    spillPartitions = DEFAULT_SPILL_PARTITIONS;
+    directory = "${java.io.tmpdir}";
+  }
+
+  public HashJoinMeta(HashJoinMeta m) {
+    this();
+    this.buildTransformName = m.buildTransformName;
+    this.joinType = m.joinType;
+    m.keys.forEach(k -> this.keys.add(new HashJoinKey(k)));
+    this.buildRowsInMemory = m.buildRowsInMemory;
+    this.spillPartitions = m.spillPartitions;
+    this.directory = m.directory;
+  }
+
+  @Override
+  public HashJoinMeta clone() {
+    return new HashJoinMeta(this);
+  }
+
+  @Override
+  public void getFields(
+      IRowMeta inputRowMeta,
+      String name,
+      IRowMeta[] info,
+      TransformMeta nextTransform,
+      IVariables variables,
+      IHopMetadataProvider metadataProvider)
+      throws HopTransformException {
+    // The probe rows from the main input followed by the build rows from the info stream.
+    // Build fields with the same name as a probe field are renamed.
+    //
+    if (info != null && info.length > 0 && info[0] != null) {
+      inputRowMeta.mergeRowMeta(info[0], name);
+    }
+    for (IValueMeta valueMeta : inputRowMeta.getValueMetaList()) {
+      if (Utils.isEmpty(valueMeta.getOrigin())) {
+        valueMeta.setOrigin(name);
+      }
+    }
+  }
+
+  @Override
+  public void check(
+      List<ICheckResult> remarks,
+      PipelineMeta pipelineMeta,
+      TransformMeta transformMeta,
+      IRowMeta prev,
+      String[] input,
+      String[] output,
+      IRowMeta info,
+      IVariables variables,
+      IHopMetadataProvider metadataProvider) {
+    IStream infoStream = getTransformIOMeta().getInfoStreams().get(0);
+    if (infoStream.getTransformMeta() == null) {
+      remarks.add(
+          new CheckResult(
+              ICheckResult.TYPE_RESULT_ERROR,
+              BaseMessages.getString(PKG, "HashJoinMeta.CheckResult.BuildTransformNotSelected"),
+              transformMeta));
+    } else {
+      remarks.add(
+          new CheckResult(
+              ICheckResult.TYPE_RESULT_OK,
+              BaseMessages.getString(PKG, "HashJoinMeta.CheckResult.BuildTransformSelected"),
+              transformMeta));
+    }
+
+    if (keys.isEmpty()) {
+      remarks.add(
+          new CheckResult(
+              ICheckResult.TYPE_RESULT_ERROR,
+              BaseMessages.getString(PKG, "HashJoinMeta.CheckResult.NoKeys"),
+              transformMeta));
+    }
+
+    if (prev != null) {
+      for (HashJoinKey key : keys) {
+        if (prev.indexOfValue(key.getProbeField()) < 0) {
+          remarks.add(
+              new CheckResult(
+                  ICheckResult.TYPE_RESULT_ERROR,
+                  BaseMessages.getString(
+                      PKG, "HashJoinMeta.CheckResult.ProbeFieldNotFound", key.getProbeField()),
+                  transformMeta));
+        }
+      }
+    }
+    if (info != null) {
+      for (HashJoinKey key : keys) {
+        if (info.indexOfValue(key.getBuildField()) < 0) {
+          remarks.add(
+              new CheckResult(
+                  ICheckResult.TYPE_RESULT_ERROR,
+                  BaseMessages.getString(
+                      PKG, "HashJoinMeta.CheckResult.BuildFieldNotFound", key.getBuildField()),
+                  transformMeta));
+        }
+      }
+    }
+  }
+
+  @Override
+  public void searchInfoAndTargetTransforms(List<TransformMeta> transforms) {
+    IStream infoStream = getTransformIOMeta().getInfoStreams().get(0);
+    infoStream.setTransformMeta(TransformMeta.findTransform(transforms, buildTransformName));
+  }
+
+  @Override
+  public boolean excludeFromRowLayoutVerification() {
+    return true;
+  }
+
+  /** The main input is the probe side, the info stream is the build side of the join. */
+  @Override
+  public ITransformIOMeta getTransformIOMeta() {
+    ITransformIOMeta ioMeta = super.getTransformIOMeta(false);
+    if (ioMeta == null) {
+      ioMeta = new TransformIOMeta(true, true, false, false, false, false);
+      ioMeta.addStream(
+          new Stream(
+              StreamType.INFO,
+              null,
+              BaseMessages.getString(PKG, "HashJoinMeta.InfoStream.Description"),
+              StreamIcon.INFO,
+              buildTransformName));
+      setTransformIOMeta(ioMeta);
+    }
+    return ioMeta;
+  }
+
+  @Override
+  public void resetTransformIoMeta() {
+    // Don't reset!
+  }
+
+  @Override
+  public PipelineType[] getSupportedPipelineTypes() {
+    return new PipelineType[] {
+      PipelineType.Normal,
+    };
+  }
+
+  public enum JoinType implements IEnumHasCodeAndDescription {
+    INNER("INNER", BaseMessages.getString(PKG, "HashJoinMeta.JoinType.Inner"), false, false),
+    LEFT_OUTER(
+        "LEFT OUTER", BaseMessages.getString(PKG, "HashJoinMeta.JoinType.LeftOuter"), true, false),
+    RIGHT_OUTER(
+        "RIGHT OUTER",
+        BaseMessages.getString(PKG, "HashJoinMeta.JoinType.RightOuter"),
+        false,
+        true),
+    FULL_OUTER(
+        "FULL OUTER", BaseMessages.getString(PKG, "HashJoinMeta.JoinType.FullOuter"), true, true);
+
+    private final String code;
+    private final String description;
+
+    /** Unmatched probe rows are passed with empty build fields */
+    private final boolean keepUnmatchedProbeRows;
+
+    /** Unmatched build rows are passed with empty probe fields */
+    private final boolean keepUnmatchedBuildRows;
+
+    JoinType(
+        String code,
+        String description,
+        boolean keepUnmatchedProbeRows,
+        boolean keepUnmatchedBuildRows) {
+      this.code = code;
+      this.description = description;
+      this.keepUnmatchedProbeRows = keepUnmatchedProbeRows;
+      this.keepUnmatchedBuildRows = keepUnmatchedBuildRows;
+    }
+
+    public static String[] getDescriptions() {
+      return IEnumHasCodeAndDescription.getDescriptions(JoinType.class);
+    }
+
+    public static JoinType lookupDescription(String description) {
+      return IEnumHasCodeAndDescription.lookupDescription(JoinType.class, description, INNER);
+    }
+
+    public static JoinType lookupCode(String code) {
+      return IEnumHasCode.lookupCode(JoinType.class, code, INNER);
+    }
+
+    @Override
+    public String getCode() {
+      return code;
+    }
+
+    @Override
+    public String getDescription() {
+      return description;
+    }
+
+    public boolean isKeepUnmatchedProbeRows() {
+      return keepUnmatchedProbeRows;
+    }
+
+    public boolean isKeepUnmatchedBuildRows() {
+      return keepUnmatchedBuildRows;
+    }
+  }
+}
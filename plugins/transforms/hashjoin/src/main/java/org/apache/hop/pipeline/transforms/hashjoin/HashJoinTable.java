@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.hashjoin;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The hash table with the build rows. The rows are kept in an array and chained per bucket with int
+ * arrays, so the table doesn't create an object per row or per key. Rows with the same key are all
+ * kept, which allows one-to-many joins. The table also keeps track of which rows matched a probe
+ * row, for the outer joins which pass the unmatched build rows.
+ */
+public class HashJoinTable {
+  private static final int NO_ROW = -1;
+
+  private Object[][] rows;
+  private int[] hashes;
+  private int[] next;
+  private int[] buckets;
+  private final BitSet matched;
+  private int size;
+
+  public HashJoinTable() {
+    rows = new Object[64][];
+    hashes = new int[64];
+    next = new int[64];
+    buckets = new int[128];
+    Arrays.fill(buckets, NO_ROW);
+    matched = new BitSet();
+  }
+
+  /**
+   * Add a build row.
+   *
+   * @param hash The hash of the key of the row
+   * @param row The row
+   */
+  public void add(int hash, Object[] row) {
+    if (size == rows.length) {
+      int capacity = rows.length * 2;
+      rows = Arrays.copyOf(rows, capacity);
+      hashes = Arrays.copyOf(hashes, capacity);
+      next = Arrays.copyOf(next, capacity);
+    }
+    if (size >= buckets.length / 2) {
+      rehash(buckets.length * 2);
+    }
+    rows[size] = row;
+    hashes[size] = hash;
+    int bucket = bucket(hash, buckets.length);
+    next[size] = buckets[bucket];
+    buckets[bucket] = size;
+    size++;
+  }
+
+  /**
+   * @param hash The hash of a key
+   * @return The first row in the bucket of the hash or -1. Use {@link #getHash(int)} and compare
+   *     the key to find the matching rows.
+   */
+  public int first(int hash) {
+    return buckets[bucket(hash, buckets.length)];
+  }
+
+  /**
+   * @param row The current row
+   * @return The next row in the same bucket or -1
+   */
+  public int next(int row) {
+    return next[row];
+  }
+
+  public Object[] getRow(int row) {
+    return rows[row];
+  }
+
+  public int getHash(int row) {
+    return hashes[row];
+  }
+
+  public void setMatched(int row) {
+    matched.set(row);
+  }
+
+  public boolean isMatched(int row) {
+    return matched.get(row);
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /** Remove all rows */
+  public void clear() {
+    rows = new Object[64][];
+    hashes = new int[64];
+    next = new int[64];
+    buckets = new int[128];
+    Arrays.fill(buckets, NO_ROW);
+    matched.clear();
+    size = 0;
+  }
+
+  private void rehash(int bucketCount) {
+    buckets = new int[bucketCount];
+    Arrays.fill(buckets, NO_ROW);
+    for (int row = 0; row < size; row++) {
+      int bucket = bucket(hashes[row], bucketCount);
+      next[row] = buckets[bucket];
+      buckets[bucket] = row;
+    }
+  }
+
+  private static int bucket(int hash, int bucketCount) {
+    return (hash ^ (hash >>> 16)) & (bucketCount - 1);
+  }
+}
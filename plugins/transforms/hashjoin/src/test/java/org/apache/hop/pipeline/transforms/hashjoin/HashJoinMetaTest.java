@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.hashjoin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMetaBuilder;
+import org.apache.hop.core.variables.Variables;
+import org.apache.hop.core.xml.XmlHandler;
+import org.apache.hop.metadata.serializer.xml.XmlMetadataUtil;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.hashjoin.HashJoinMeta.JoinType;
+import org.junit.jupiter.api.Test;
+
+class HashJoinMetaTest {
+
+  @Test
+  void testXmlRoundTrip() throws Exception {
+    String tag = TransformMeta.XML_TAG;
+
+    Path path = Paths.get(getClass().getResource("/transform.snippet").toURI());
+    String xml = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    String transformXml = XmlHandler.openTag(tag) + xml + XmlHandler.closeTag(tag);
+    HashJoinMeta meta = new HashJoinMeta();
+    XmlMetadataUtil.deSerializeFromXml(
+        XmlHandler.loadXmlString(transformXml, tag), HashJoinMeta.class, meta, null);
+    assertEquals("Customers", meta.getBuildTransformName());
+    assertEquals(JoinType.LEFT_OUTER, meta.getJoinType());
+    assertEquals(2, meta.getKeys().size());
+    assertEquals(new HashJoinKey("customer_id", "id"), meta.getKeys().get(0));
+    assertEquals("50000", meta.getBuildRowsInMemory());
+    assertEquals("16", meta.getSpillPartitions());
+    assertEquals("/tmp/hashjoin", meta.getDirectory());
+
+    String xml2 = meta.getXml();
+    HashJoinMeta meta2 = new HashJoinMeta();
+    String transformXml2 = XmlHandler.openTag(tag) + xml2 + XmlHandler.closeTag(tag);
+    XmlMetadataUtil.deSerializeFromXml(
+        XmlHandler.loadXmlString(transformXml2, tag), HashJoinMeta.class, meta2, null);
+
+    assertEquals(meta.getBuildTransformName(), meta2.getBuildTransformName());
+    assertEquals(meta.getJoinType(), meta2.getJoinType());
+    assertEquals(meta.getKeys(), meta2.getKeys());
+    assertEquals(meta.getBuildRowsInMemory(), meta2.getBuildRowsInMemory());
+    assertEquals(meta.getSpillPartitions(), meta2.getSpillPartitions());
+    assertEquals(meta.getDirectory(), meta2.getDirectory());
+
+    HashJoinMeta clone = meta.clone();
+    assertEquals(meta.getKeys(), clone.getKeys());
+    assertEquals(meta.getJoinType(), clone.getJoinType());
+  }
+
+  @Test
+  void testGetFields() throws Exception {
+    IRowMeta rowMeta = new RowMetaBuilder().addInteger("id").addString("name").build();
+    IRowMeta buildRowMeta = new RowMetaBuilder().addInteger("id").addString("city").build();
+
+    new HashJoinMeta()
+        .getFields(
+            rowMeta, "Hash join", new IRowMeta[] {buildRowMeta}, null, new Variables(), null);
+
+    assertEquals(4, rowMeta.size());
+    assertEquals("id", rowMeta.getValueMeta(0).getName());
+    assertEquals("name", rowMeta.getValueMeta(1).getName());
+    assertEquals("id_1", rowMeta.getValueMeta(2).getName());
+    assertEquals("city", rowMeta.getValueMeta(3).getName());
+  }
+}
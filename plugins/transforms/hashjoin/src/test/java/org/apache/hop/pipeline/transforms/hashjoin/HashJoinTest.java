@@ -0,0 +1,269 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.hashjoin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.exception.HopTransformException;
+import org.apache.hop.core.logging.ILoggingObject;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMetaBuilder;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.hashjoin.HashJoinMeta.JoinType;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class HashJoinTest {
+
+  private TransformMockHelper<HashJoinMeta, HashJoinData> mockHelper;
+
+  private final IRowMeta probeRowMeta =
+      new RowMetaBuilder().addInteger("customer_id").addString("order").build();
+  private final IRowMeta buildRowMeta =
+      new RowMetaBuilder().addInteger("id").addString("name").build();
+
+  private final List<Object[]> probeRows =
+      Arrays.asList(
+          new Object[] {1L, "o1"},
+          new Object[] {2L, "o2"},
+          new Object[] {1L, "o3"},
+          new Object[] {4L, "o4"},
+          new Object[] {null, "o5"});
+  private final List<Object[]> buildRows =
+      Arrays.asList(
+          new Object[] {1L, "alice"},
+          new Object[] {2L, "bob"},
+          new Object[] {2L, "bobby"},
+          new Object[] {3L, "carol"},
+          new Object[] {null, "nobody"});
+
+  @TempDir File tempDir;
+
+  @BeforeEach
+  void setUp() {
+    mockHelper = new TransformMockHelper<>("Hash join", HashJoinMeta.class, HashJoinData.class);
+    when(mockHelper.logChannelFactory.create(any(), any(ILoggingObject.class)))
+        .thenReturn(mockHelper.iLogChannel);
+    when(mockHelper.pipeline.isRunning()).thenReturn(true);
+  }
+
+  @AfterEach
+  void tearDown() {
+    mockHelper.cleanUp();
+  }
+
+  @Test
+  void testInnerJoin() throws Exception {
+    assertEquals(
+        Arrays.asList("1 o1 1 alice", "1 o3 1 alice", "2 o2 2 bob", "2 o2 2 bobby"),
+        run(JoinType.INNER, "1000"));
+  }
+
+  @Test
+  void testLeftOuterJoin() throws Exception {
+    assertEquals(
+        Arrays.asList(
+            "1 o1 1 alice",
+            "1 o3 1 alice",
+            "2 o2 2 bob",
+            "2 o2 2 bobby",
+            "4 o4 null null",
+            "null o5 null null"),
+        run(JoinType.LEFT_OUTER, "1000"));
+  }
+
+  @Test
+  void testRightOuterJoin() throws Exception {
+    assertEquals(
+        Arrays.asList(
+            "1 o1 1 alice",
+            "1 o3 1 alice",
+            "2 o2 2 bob",
+            "2 o2 2 bobby",
+            "null null 3 carol",
+            "null null null nobody"),
+        run(JoinType.RIGHT_OUTER, "1000"));
+  }
+
+  @Test
+  void testFullOuterJoinSpilled() throws Exception {
+    List<String> expected =
+        Arrays.asList(
+            "1 o1 1 alice",
+            "1 o3 1 alice",
+            "2 o2 2 bob",
+            "2 o2 2 bobby",
+            "4 o4 null null",
+            "null null 3 carol",
+            "null null null nobody",
+            "null o5 null null");
+    assertEquals(expected, run(JoinType.FULL_OUTER, "1000"));
+
+    // Only 2 build rows fit in memory: all rows are partitioned to disk
+    assertEquals(expected, run(JoinType.FULL_OUTER, "2"));
+    assertEquals(0, tempDir.listFiles().length);
+  }
+
+  @Test
+  void testSkewedPartitionsSpilled() throws Exception {
+    List<Object[]> probe = new ArrayList<>();
+    List<Object[]> build = new ArrayList<>();
+    for (long id = 1; id <= 25; id++) {
+      probe.add(new Object[] {id, "o" + id});
+      probe.add(new Object[] {id % 3, "p" + id});
+    }
+    // Many build rows with the same key: splitting their partition doesn't help
+    for (int i = 0; i < 10; i++) {
+      build.add(new Object[] {1L, "one" + i});
+    }
+    for (long id = 2; id <= 20; id++) {
+      build.add(new Object[] {id, "name" + id});
+    }
+
+    for (JoinType joinType : JoinType.values()) {
+      List<String> expected =
+          run(joinType, "1000", probeRowMeta, probe, buildRowMeta, build, "customer_id", "id");
+      assertEquals(
+          expected,
+          run(joinType, "3", probeRowMeta, probe, buildRowMeta, build, "customer_id", "id"));
+      assertEquals(0, tempDir.listFiles().length);
+    }
+  }
+
+  @Test
+  void testCaseInsensitiveKey() throws Exception {
+    IRowMeta probeMeta = new RowMetaBuilder().addString("customer").build();
+    IRowMeta buildMeta = new RowMetaBuilder().addString("name").addInteger("id").build();
+    buildMeta.getValueMeta(0).setCaseInsensitive(true);
+    List<Object[]> probe =
+        Arrays.asList(new Object[] {"alice"}, new Object[] {"BOB"}, new Object[] {"carol"});
+    List<Object[]> build = Arrays.asList(new Object[] {"Alice", 1L}, new Object[] {"bob", 2L});
+
+    List<String> expected = Arrays.asList("BOB bob 2", "alice Alice 1");
+    for (String buildRowsInMemory : new String[] {"1000", "1"}) {
+      assertEquals(
+          expected,
+          run(
+              JoinType.INNER,
+              buildRowsInMemory,
+              probeMeta,
+              probe,
+              buildMeta,
+              build,
+              "customer",
+              "name"));
+    }
+  }
+
+  private List<String> run(JoinType joinType, String buildRowsInMemory) throws Exception {
+    return run(
+        joinType,
+        buildRowsInMemory,
+        probeRowMeta,
+        probeRows,
+        buildRowMeta,
+        buildRows,
+        "customer_id",
+        "id");
+  }
+
+  private List<String> run(
+      JoinType joinType,
+      String buildRowsInMemory,
+      IRowMeta probeRowMeta,
+      List<Object[]> probeRows,
+      IRowMeta buildRowMeta,
+      List<Object[]> buildRows,
+      String probeField,
+      String buildField)
+      throws Exception {
+    HashJoinMeta meta = new HashJoinMeta();
+    meta.setJoinType(joinType);
+    meta.getKeys().add(new HashJoinKey(probeField, buildField));
+    meta.setBuildRowsInMemory(buildRowsInMemory);
+    meta.setSpillPartitions("4");
+    meta.setDirectory(tempDir.getAbsolutePath());
+    meta.getTransformIOMeta()
+        .getInfoStreams()
+        .get(0)
+        .setTransformMeta(new TransformMeta("Build", new HashJoinMeta()));
+
+    IRowSet buildRowSet = mock(IRowSet.class);
+    when(buildRowSet.getRowMeta()).thenReturn(buildRowMeta);
+
+    List<String> output = new ArrayList<>();
+    Iterator<Object[]> probe = probeRows.iterator();
+    Iterator<Object[]> build = buildRows.iterator();
+    HashJoin transform =
+        new HashJoin(
+            mockHelper.transformMeta,
+            meta,
+            new HashJoinData(),
+            0,
+            mockHelper.pipelineMeta,
+            mockHelper.pipeline) {
+          @Override
+          public IRowSet findInputRowSet(String sourceTransformName) {
+            return buildRowSet;
+          }
+
+          @Override
+          public Object[] getRowFrom(IRowSet rowSet) {
+            return build.hasNext() ? build.next() : null;
+          }
+
+          @Override
+          public Object[] getRow() {
+            return probe.hasNext() ? probe.next() : null;
+          }
+
+          @Override
+          public IRowMeta getInputRowMeta() {
+            return probeRowMeta;
+          }
+
+          @Override
+          public void putRow(IRowMeta rowMeta, Object[] row) throws HopTransformException {
+            StringBuilder line = new StringBuilder();
+            for (int i = 0; i < rowMeta.size(); i++) {
+              line.append(i > 0 ? " " : "").append(row[i]);
+            }
+            output.add(line.toString());
+          }
+        };
+    transform.init();
+    while (transform.processRow()) {
+      // Process all rows
+    }
+    transform.dispose();
+    output.sort(null);
+    return output;
+  }
+}
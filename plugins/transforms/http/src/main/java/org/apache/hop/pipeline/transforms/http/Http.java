@@ -18,6 +18,7 @@
 package org.apache.hop.pipeline.transforms.http;
 
 import com.google.common.annotations.VisibleForTesting;
+import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.UnknownHostException;
@@ -36,6 +37,7 @@ import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
+import org.apache.hop.pipeline.transform.ConcurrentRowCalls;
 import org.apache.hop.pipeline.transform.TransformMeta;
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
@@ -61,6 +63,12 @@ public class Http extends BaseTransform<HttpMeta, HttpData> {
   public static final String CONST_HTTP_EXCEPTION_ERROR_FINDING_FIELD =
       "HTTP.Exception.ErrorFindingField";
 
+  /** The delay before the first retry if none is given (milliseconds) */
+  private static final long DEFAULT_RETRY_DELAY_MS = 200L;
+
+  /** The status codes of the responses which are retried: busy or temporarily unavailable */
+  private static final List<Integer> RETRY_STATUS_CODES = List.of(429, 500, 502, 503, 504);
+
   public Http(
       TransformMeta transformMeta,
       HttpMeta meta,
@@ -74,27 +82,33 @@ public class Http extends BaseTransform<HttpMeta, HttpData> {
   private Object[] execHttp(IRowMeta rowMeta, Object[] row) throws HopException {
     if (first) {
       first = false;
-      data.argnrs = new int[meta.getArgumentField().length];
-
-      for (int i = 0; i < meta.getArgumentField().length; i++) {
-        data.argnrs[i] = rowMeta.indexOfValue(meta.getArgumentField()[i]);
-        if (data.argnrs[i] < 0) {
-          logError(
-              BaseMessages.getString(PKG, "HTTP.Log.ErrorFindingField")
-                  + meta.getArgumentField()[i]
-                  + "]");
-          throw new HopTransformException(
-              BaseMessages.getString(
-                  PKG, "HTTP.Exception.CouldnotFindField", meta.getArgumentField()[i]));
-        }
-      }
+      lookupArgumentFields(rowMeta);
     }
 
     return callHttpService(rowMeta, row);
   }
 
-  @VisibleForTesting
-  Object[] callHttpService(IRowMeta rowMeta, Object[] rowData) throws HopException {
+  private void lookupArgumentFields(IRowMeta rowMeta) throws HopException {
+    data.argnrs = new int[meta.getArgumentField().length];
+
+    for (int i = 0; i < meta.getArgumentField().length; i++) {
+      data.argnrs[i] = rowMeta.indexOfValue(meta.getArgumentField()[i]);
+      if (data.argnrs[i] < 0) {
+        logError(
+            BaseMessages.getString(PKG, "HTTP.Log.ErrorFindingField")
+                + meta.getArgumentField()[i]
+                + "]");
+        throw new HopTransformException(
+            BaseMessages.getString(
+                PKG, "HTTP.Exception.CouldnotFindField", meta.getArgumentField()[i]));
+      }
+    }
+  }
+
+  /**
+   * @param maxConnections The size of the connection pool of the client, 0 to use the shared pool
+   */
+  private CloseableHttpClient createHttpClient(int maxConnections) {
     HttpClientManager.HttpClientBuilderFacade clientBuilder =
         HttpClientManager.getInstance().createBuilder();
 
@@ -113,8 +127,20 @@ public class Http extends BaseTransform<HttpMeta, HttpData> {
     if (meta.isIgnoreSsl()) {
       clientBuilder.ignoreSsl(true);
     }
+    if (maxConnections > 0) {
+      clientBuilder.setMaxConnections(maxConnections);
+    }
+    if (data.realRetryTimes > 0) {
+      clientBuilder.setRetries(data.realRetryTimes, data.realRetryDelayMs, RETRY_STATUS_CODES);
+    }
+    return clientBuilder.build();
+  }
 
-    CloseableHttpClient httpClient = clientBuilder.build();
+  @VisibleForTesting
+  Object[] callHttpService(IRowMeta rowMeta, Object[] rowData) throws HopException {
+    // With concurrent requests all calls share one client and its connection pool
+    CloseableHttpClient httpClient =
+        data.httpClient != null ? data.httpClient : createHttpClient(0);
 
     // Prepare Http get
     URI uri = null;
@@ -299,6 +325,13 @@ public class Http extends BaseTransform<HttpMeta, HttpData> {
 
     boolean firstWithoutPreviousTransforms = first && data.withoutPreviousTransforms;
     if (r == null && !firstWithoutPreviousTransforms) {
+      if (data.concurrentCalls != null) {
+        try {
+          data.concurrentCalls.finish();
+        } catch (HopException e) {
+          return stopOnError(e);
+        }
+      }
       setOutputDone();
       return false;
     }
@@ -360,6 +393,20 @@ public class Http extends BaseTransform<HttpMeta, HttpData> {
       }
     } // end if first
 
+    if (data.concurrentCalls != null) {
+      // The result is handled once the request finishes, see handleConcurrentCall()
+      try {
+        if (first) {
+          first = false;
+          lookupArgumentFields(data.inputRowMeta);
+        }
+        data.concurrentCalls.submit(r, row -> callHttpService(data.inputRowMeta, row));
+      } catch (HopException e) {
+        return stopOnError(e);
+      }
+      return true;
+    }
+
     try {
       Object[] outputRowData = execHttp(data.inputRowMeta, r); // add new values to the row
       putRow(data.outputRowMeta, outputRowData); // copy row to output rowset(s)
@@ -368,28 +415,40 @@ public class Http extends BaseTransform<HttpMeta, HttpData> {
         logDetailed(BaseMessages.getString(PKG, "HTTP.LineNumber") + getLinesRead());
       }
     } catch (HopException e) {
-      boolean sendToErrorRow = false;
-      String errorMessage = null;
-
-      if (getTransformMeta().isDoingErrorHandling()) {
-        sendToErrorRow = true;
-        errorMessage = e.toString();
-      } else {
-        logError(BaseMessages.getString(PKG, "HTTP.ErrorInTransformRunning") + e.getMessage());
-        setErrors(1);
-        stopAll();
-        setOutputDone(); // signal end to receiver(s)
-        return false;
-      }
-      if (sendToErrorRow) {
-        // Simply add this row to the error row
-        putError(data.inputRowMeta, r, 1, errorMessage, null, "HTTP001");
+      if (!getTransformMeta().isDoingErrorHandling()) {
+        return stopOnError(e);
       }
+      // Simply add this row to the error row
+      putError(data.inputRowMeta, r, 1, e.toString(), null, "HTTP001");
     }
 
     return true;
   }
 
+  /** Pass on the result of a concurrent request, called on the thread of the transform. */
+  private void handleConcurrentCall(Object[] row, Object[] outputRow, HopException error)
+      throws HopException {
+    if (error != null) {
+      if (!getTransformMeta().isDoingErrorHandling()) {
+        throw error;
+      }
+      putError(data.inputRowMeta, row, 1, error.toString(), null, "HTTP001");
+      return;
+    }
+    putRow(data.outputRowMeta, outputRow); // copy row to output rowset(s)
+    if (checkFeedback(getLinesRead()) && isDetailed()) {
+      logDetailed(BaseMessages.getString(PKG, "HTTP.LineNumber") + getLinesRead());
+    }
+  }
+
+  private boolean stopOnError(HopException e) {
+    logError(BaseMessages.getString(PKG, "HTTP.ErrorInTransformRunning") + e.getMessage());
+    setErrors(1);
+    stopAll();
+    setOutputDone(); // signal end to receiver(s)
+    return false;
+  }
+
   @Override
   public boolean init() {
 
@@ -402,12 +461,48 @@ public class Http extends BaseTransform<HttpMeta, HttpData> {
 
       data.realSocketTimeout = Const.toInt(resolve(meta.getSocketTimeout()), -1);
       data.realConnectionTimeout = Const.toInt(resolve(meta.getConnectionTimeout()), -1);
+      data.realRetryTimes = Const.toInt(resolve(meta.getRetryTimes()), 0);
+      data.realRetryDelayMs = Const.toLong(resolve(meta.getRetryDelayMs()), DEFAULT_RETRY_DELAY_MS);
 
       data.withoutPreviousTransforms =
           getPipelineMeta().getPrevTransforms(getTransformMeta()).length == 0;
 
+      int concurrentRequests = Const.toInt(resolve(meta.getConcurrentRequests()), 1);
+      double requestsPerSecond = Const.toDouble(resolve(meta.getRequestsPerSecond()), 0);
+      if (concurrentRequests > 1 || requestsPerSecond > 0) {
+        if (isDetailed()) {
+          logDetailed(
+              BaseMessages.getString(PKG, "HTTP.Log.ConcurrentRequests", concurrentRequests));
+        }
+        data.httpClient = createHttpClient(concurrentRequests);
+        data.concurrentCalls =
+            new ConcurrentRowCalls(
+                getTransformName(),
+                concurrentRequests,
+                !meta.isCompletionOrder(),
+                requestsPerSecond,
+                this::handleConcurrentCall);
+      }
+
       return true;
     }
     return false;
   }
+
+  @Override
+  public void dispose() {
+    if (data.concurrentCalls != null) {
+      data.concurrentCalls.close();
+      data.concurrentCalls = null;
+    }
+    if (data.httpClient != null) {
+      try {
+        data.httpClient.close();
+      } catch (IOException e) {
+        logError(BaseMessages.getString(PKG, "HTTP.Log.UnableToCloseClient"), e);
+      }
+      data.httpClient = null;
+    }
+    super.dispose();
+  }
 }
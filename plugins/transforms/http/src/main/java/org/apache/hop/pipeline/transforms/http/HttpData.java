@@ -19,8 +19,10 @@ package org.apache.hop.pipeline.transforms.http;
 
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
+import org.apache.hop.pipeline.transform.ConcurrentRowCalls;
 import org.apache.hop.pipeline.transform.ITransformData;
 import org.apache.http.NameValuePair;
+import org.apache.http.impl.client.CloseableHttpClient;
 
 @SuppressWarnings("java:S1104")
 public class HttpData extends BaseTransformData implements ITransformData {
@@ -40,6 +42,14 @@ public class HttpData extends BaseTransformData implements ITransformData {
   public int realSocketTimeout;
   public int realConnectionTimeout;
   public boolean withoutPreviousTransforms;
+  public int realRetryTimes;
+  public long realRetryDelayMs;
+
+  /** The client shared by the concurrent requests */
+  public CloseableHttpClient httpClient;
+
+  /** Runs the concurrent requests, null if one request at a time is sent */
+  public ConcurrentRowCalls concurrentCalls;
 
   /** Default constructor. */
   public HttpData() {
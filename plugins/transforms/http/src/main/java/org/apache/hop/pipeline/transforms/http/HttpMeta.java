@@ -108,6 +108,21 @@ public class HttpMeta extends BaseTransformMeta<Http, HttpData> {
   private String[] headerParameter;
   private String[] headerField;
 
+  /** The number of requests in flight per transform copy, empty or 1 for one request at a time */
+  private String concurrentRequests;
+
+  /** The maximum number of requests started per second by a transform copy, empty for no limit */
+  private String requestsPerSecond;
+
+  /** Pass the rows on as soon as their request finishes instead of in the order of the input */
+  private boolean completionOrder;
+
+  /** The number of times a failed request is retried, empty or 0 for no retries */
+  private String retryTimes;
+
+  /** The delay before the first retry in milliseconds, doubled for every next retry */
+  private String retryDelayMs;
+
   public HttpMeta() {
     super(); // allocate BaseTransformMeta
   }
@@ -223,6 +238,11 @@ public class HttpMeta extends BaseTransformMeta<Http, HttpData> {
     retval.append("    " + XmlHandler.addTagValue("connectionTimeout", connectionTimeout));
     retval.append(
         "    " + XmlHandler.addTagValue("closeIdleConnectionsTime", closeIdleConnectionsTime));
+    retval.append("    " + XmlHandler.addTagValue("concurrentRequests", concurrentRequests));
+    retval.append("    " + XmlHandler.addTagValue("requestsPerSecond", requestsPerSecond));
+    retval.append("    " + XmlHandler.addTagValue("completionOrder", completionOrder));
+    retval.append("    " + XmlHandler.addTagValue("retryTimes", retryTimes));
+    retval.append("    " + XmlHandler.addTagValue("retryDelayMs", retryDelayMs));
 
     retval.append("    <lookup>").append(Const.CR);
 
@@ -277,6 +297,12 @@ public class HttpMeta extends BaseTransformMeta<Http, HttpData> {
       socketTimeout = XmlHandler.getTagValue(transformNode, "socketTimeout");
       connectionTimeout = XmlHandler.getTagValue(transformNode, "connectionTimeout");
       closeIdleConnectionsTime = XmlHandler.getTagValue(transformNode, "closeIdleConnectionsTime");
+      concurrentRequests = XmlHandler.getTagValue(transformNode, "concurrentRequests");
+      requestsPerSecond = XmlHandler.getTagValue(transformNode, "requestsPerSecond");
+      completionOrder =
+          "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "completionOrder"));
+      retryTimes = XmlHandler.getTagValue(transformNode, "retryTimes");
+      retryDelayMs = XmlHandler.getTagValue(transformNode, "retryDelayMs");
 
       Node lookup = XmlHandler.getSubNode(transformNode, "lookup");
       nrargs = XmlHandler.countNodes(lookup, "arg");
@@ -56,6 +56,11 @@ class HttpMetaLoadSaveTest {
             "socketTimeout",
             "connectionTimeout",
             "closeIdleConnectionsTime",
+            "concurrentRequests",
+            "requestsPerSecond",
+            "completionOrder",
+            "retryTimes",
+            "retryDelayMs",
             "argumentField",
             "argumentParameter",
             "headerField",
@@ -29,11 +29,15 @@ import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayInputStream;
 import java.net.HttpURLConnection;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.hop.core.logging.ILoggingObject;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.RowMeta;
@@ -47,6 +51,8 @@ import org.apache.http.HttpHost;
 import org.apache.http.HttpRequest;
 import org.apache.http.StatusLine;
 import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.message.BasicHeader;
 import org.apache.http.protocol.HttpContext;
@@ -189,6 +195,69 @@ class HttpTest {
     }
   }
 
+  @Test
+  void testProcessRowWithConcurrentRequests() throws Exception {
+    httpMeta.setFieldName("response");
+    httpMeta.setConcurrentRequests("5");
+    httpMeta.allocate(1, 0);
+    httpMeta.getArgumentField()[0] = "id";
+    httpMeta.getArgumentParameter()[0] = "id";
+
+    IRowMeta inputRowMeta = new RowMeta();
+    inputRowMeta.addValueMeta(new ValueMetaString("id"));
+
+    try (MockedStatic<HttpClientManager> mockedManager = mockStatic(HttpClientManager.class)) {
+      HttpClientManager mockManager = mock(HttpClientManager.class);
+      HttpClientManager.HttpClientBuilderFacade mockBuilder =
+          mock(HttpClientManager.HttpClientBuilderFacade.class);
+      CloseableHttpClient mockClient = mock(CloseableHttpClient.class);
+
+      mockedManager.when(HttpClientManager::getInstance).thenReturn(mockManager);
+      when(mockManager.createBuilder()).thenReturn(mockBuilder);
+      when(mockBuilder.build()).thenReturn(mockClient);
+
+      // The first rows take the longest, the body is the query of the request
+      AtomicInteger running = new AtomicInteger();
+      AtomicInteger maxRunning = new AtomicInteger();
+      when(mockClient.execute(any(HttpHost.class), any(HttpRequest.class), any(HttpContext.class)))
+          .thenAnswer(
+              invocation -> {
+                HttpGet request = invocation.getArgument(1);
+                String query = request.getURI().getQuery();
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(60L - Integer.parseInt(query.substring(3)) * 3L);
+                running.decrementAndGet();
+
+                CloseableHttpResponse response = mock(CloseableHttpResponse.class);
+                StatusLine statusLine = mock(StatusLine.class);
+                when(statusLine.getStatusCode()).thenReturn(HttpURLConnection.HTTP_OK);
+                when(response.getStatusLine()).thenReturn(statusLine);
+                when(response.getEntity())
+                    .thenReturn(new StringEntity(query, StandardCharsets.UTF_8));
+                when(response.getAllHeaders()).thenReturn(new Header[0]);
+                return response;
+              });
+
+      List<Object[]> inputRows = new ArrayList<>();
+      for (int i = 0; i < 20; i++) {
+        inputRows.add(new Object[] {String.valueOf(i)});
+      }
+      List<Object[]> outputRows =
+          transformMockHelper.processRows(httpTransform, inputRowMeta, inputRows);
+      verify(mockBuilder).setMaxConnections(5);
+
+      // All rows in input order, with several requests in flight
+      assertEquals(20, outputRows.size());
+      for (int i = 0; i < 20; i++) {
+        assertEquals(String.valueOf(i), outputRows.get(i)[0]);
+        assertEquals("id=" + i, outputRows.get(i)[1]);
+      }
+      assertTrue(maxRunning.get() > 1);
+      assertTrue(maxRunning.get() <= 5);
+      verify(mockClient).close();
+    }
+  }
+
   @Test
   void testProcessRowWithQueryParameters() throws Exception {
     // Configure meta with query parameters
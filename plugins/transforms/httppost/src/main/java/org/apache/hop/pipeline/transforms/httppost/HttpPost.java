@@ -20,6 +20,7 @@ package org.apache.hop.pipeline.transforms.httppost;
 import static org.apache.hop.pipeline.transforms.httppost.HttpPostMeta.DEFAULT_ENCODING;
 
 import com.google.common.annotations.VisibleForTesting;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.UnsupportedEncodingException;
 import java.net.HttpURLConnection;
@@ -44,6 +45,7 @@ import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
+import org.apache.hop.pipeline.transform.ConcurrentRowCalls;
 import org.apache.hop.pipeline.transform.TransformMeta;
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
@@ -76,6 +78,15 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
   private static final String PKG_HEADER_VALUE = "HTTPPOST.Log.HeaderValue";
   private static final String PKG_ERROR_FINDING_FIELD = "HTTPPOST.Log.ErrorFindingField";
 
+  /** The delay before the first retry if none is given (milliseconds) */
+  private static final long DEFAULT_RETRY_DELAY_MS = 200L;
+
+  /**
+   * The status codes of the responses which are retried. A POST isn't idempotent, so only the
+   * statuses telling that the server is busy and didn't handle the request.
+   */
+  private static final List<Integer> RETRY_STATUS_CODES = List.of(429, 503);
+
   public HttpPost(
       TransformMeta transformMeta,
       HttpPostMeta meta,
@@ -86,7 +97,10 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
     super(transformMeta, meta, data, copyNr, pipelineMeta, pipeline);
   }
 
-  private Object[] callHttpPOST(Object[] rowData) throws HopException {
+  /**
+   * @param maxConnections The size of the connection pool of the client, 0 to use the shared pool
+   */
+  private CloseableHttpClient createHttpClient(int maxConnections) {
     HttpClientManager.HttpClientBuilderFacade clientBuilder =
         HttpClientManager.getInstance().createBuilder();
 
@@ -105,19 +119,32 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
     if (meta.isIgnoreSsl()) {
       clientBuilder.ignoreSsl(true);
     }
+    if (maxConnections > 0) {
+      clientBuilder.setMaxConnections(maxConnections);
+    }
+    if (data.realRetryTimes > 0) {
+      clientBuilder.setRetries(data.realRetryTimes, data.realRetryDelayMs, RETRY_STATUS_CODES);
+    }
+    return clientBuilder.build();
+  }
 
-    CloseableHttpClient httpClient = clientBuilder.build();
+  private Object[] callHttpPOST(Object[] rowData) throws HopException {
+    // With concurrent requests all calls share one client and its connection pool
+    CloseableHttpClient httpClient =
+        data.httpClient != null ? data.httpClient : createHttpClient(0);
 
-    // get dynamic url ?
+    // get dynamic url ? With concurrent requests several rows are posted at the same time, so the
+    // URL of this row is kept out of the shared data.
+    String url = data.realUrl;
     if (meta.isUrlInField()) {
-      data.realUrl = data.inputRowMeta.getString(rowData, data.indexOfUrlField);
+      url = data.inputRowMeta.getString(rowData, data.indexOfUrlField);
     }
     // Prepare HTTP POST
     try {
       if (isDetailed()) {
-        logDetailed(BaseMessages.getString(PKG, "HTTPPOST.Log.ConnectingToURL", data.realUrl));
+        logDetailed(BaseMessages.getString(PKG, "HTTPPOST.Log.ConnectingToURL", url));
       }
-      URIBuilder uriBuilder = new URIBuilder(data.realUrl);
+      URIBuilder uriBuilder = new URIBuilder(url);
       URI uri = uriBuilder.build();
       org.apache.http.client.methods.HttpPost post =
           new org.apache.http.client.methods.HttpPost(uri);
@@ -171,8 +198,7 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
         long responseTime = System.currentTimeMillis() - startTime;
 
         if (isDetailed()) {
-          logDetailed(
-              BaseMessages.getString(PKG, "HTTPPOST.Log.ResponseTime", responseTime, data.realUrl));
+          logDetailed(BaseMessages.getString(PKG, "HTTPPOST.Log.ResponseTime", responseTime, url));
         }
 
         // Display status code
@@ -186,10 +212,10 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
         switch (statusCode) {
           case HttpURLConnection.HTTP_UNAUTHORIZED:
             throw new HopTransformException(
-                BaseMessages.getString(PKG, "HTTPPOST.Exception.Authentication", data.realUrl));
+                BaseMessages.getString(PKG, "HTTPPOST.Exception.Authentication", url));
           case -1:
             throw new HopTransformException(
-                BaseMessages.getString(PKG, "HTTPPOST.Exception.IllegalStatusCode", data.realUrl));
+                BaseMessages.getString(PKG, "HTTPPOST.Exception.IllegalStatusCode", url));
           case HttpURLConnection.HTTP_NO_CONTENT:
             body = "";
             break;
@@ -254,8 +280,7 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
       throw new HopException(
           BaseMessages.getString(PKG, "HTTPPOST.Error.UnknownHostException", uhe.getMessage()));
     } catch (Exception e) {
-      throw new HopException(
-          BaseMessages.getString(PKG, "HTTPPOST.Error.CanNotReadURL", data.realUrl), e);
+      throw new HopException(BaseMessages.getString(PKG, "HTTPPOST.Error.CanNotReadURL", url), e);
     }
   }
 
@@ -281,6 +306,13 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
 
     Object[] r = getRow(); // Get row from input rowset & set row busy!
     if (r == null) { // no more input to be expected...
+      if (data.concurrentCalls != null) {
+        try {
+          data.concurrentCalls.finish();
+        } catch (HopException e) {
+          return stopOnError(e);
+        }
+      }
       setOutputDone();
       return false;
     }
@@ -412,6 +444,16 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
       data.realEncoding = resolve(meta.getEncoding());
     } // end if first
 
+    if (data.concurrentCalls != null) {
+      // The result is handled once the request finishes, see handleConcurrentCall()
+      try {
+        data.concurrentCalls.submit(r, this::callHttpPOST);
+      } catch (HopException e) {
+        return stopOnError(e);
+      }
+      return true;
+    }
+
     try {
       Object[] outputRowData = callHttpPOST(r);
       // copy row to output rowset(s)
@@ -421,26 +463,43 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
         logDetailed(BaseMessages.getString(PKG, "HTTPPOST.LineNumber") + getLinesRead());
       }
     } catch (HopException e) {
-      String errorMessage;
-
-      if (getTransformMeta().isDoingErrorHandling()) {
-        errorMessage = e.toString();
-      } else {
-        logError(BaseMessages.getString(PKG, "HTTPPOST.ErrorInTransformRunning") + e.getMessage());
-        setErrors(1);
-        logError(Const.getStackTracker(e));
-        stopAll();
-        setOutputDone(); // signal end to receiver(s)
-        return false;
+      if (!getTransformMeta().isDoingErrorHandling()) {
+        return stopOnError(e);
       }
 
       // Simply add this row to the error row
-      putError(getInputRowMeta(), r, 1, errorMessage, null, "HTTPPOST001");
+      putError(getInputRowMeta(), r, 1, e.toString(), null, "HTTPPOST001");
     }
 
     return true;
   }
 
+  /** Pass on the result of a concurrent request, called on the thread of the transform. */
+  private void handleConcurrentCall(Object[] row, Object[] outputRow, HopException error)
+      throws HopException {
+    if (error != null) {
+      if (!getTransformMeta().isDoingErrorHandling()) {
+        throw error;
+      }
+      putError(getInputRowMeta(), row, 1, error.toString(), null, "HTTPPOST001");
+      return;
+    }
+    // copy row to output rowset(s)
+    putRow(data.outputRowMeta, outputRow);
+    if (checkFeedback(getLinesRead()) && isDetailed()) {
+      logDetailed(BaseMessages.getString(PKG, "HTTPPOST.LineNumber") + getLinesRead());
+    }
+  }
+
+  private boolean stopOnError(HopException e) {
+    logError(BaseMessages.getString(PKG, "HTTPPOST.ErrorInTransformRunning") + e.getMessage());
+    setErrors(1);
+    logError(Const.getStackTracker(e));
+    stopAll();
+    setOutputDone(); // signal end to receiver(s)
+    return false;
+  }
+
   @VisibleForTesting
   String getRequestBodyParamsAsStr(NameValuePair[] pairs, String charset) {
     if (pairs == null || pairs.length == 0) {
@@ -464,12 +523,48 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
       data.realConnectionTimeout = Const.toInt(resolve(meta.getSocketTimeout()), -1);
       data.realcloseIdleConnectionsTime =
           Const.toInt(resolve(meta.getCloseIdleConnectionsTime()), -1);
+      data.realRetryTimes = Const.toInt(resolve(meta.getRetryTimes()), 0);
+      data.realRetryDelayMs = Const.toLong(resolve(meta.getRetryDelayMs()), DEFAULT_RETRY_DELAY_MS);
+
+      int concurrentRequests = Const.toInt(resolve(meta.getConcurrentRequests()), 1);
+      double requestsPerSecond = Const.toDouble(resolve(meta.getRequestsPerSecond()), 0);
+      if (concurrentRequests > 1 || requestsPerSecond > 0) {
+        if (isDetailed()) {
+          logDetailed(
+              BaseMessages.getString(PKG, "HTTPPOST.Log.ConcurrentRequests", concurrentRequests));
+        }
+        data.httpClient = createHttpClient(concurrentRequests);
+        data.concurrentCalls =
+            new ConcurrentRowCalls(
+                getTransformName(),
+                concurrentRequests,
+                !meta.isCompletionOrder(),
+                requestsPerSecond,
+                this::handleConcurrentCall);
+      }
 
       return true;
     }
     return false;
   }
 
+  @Override
+  public void dispose() {
+    if (data.concurrentCalls != null) {
+      data.concurrentCalls.close();
+      data.concurrentCalls = null;
+    }
+    if (data.httpClient != null) {
+      try {
+        data.httpClient.close();
+      } catch (IOException e) {
+        logError(BaseMessages.getString(PKG, "HTTPPOST.Log.UnableToCloseClient"), e);
+      }
+      data.httpClient = null;
+    }
+    super.dispose();
+  }
+
   /**
    * add http headers
    *
@@ -544,17 +639,18 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
     }
 
     // QUERY PARAMETERS
+    NameValuePair[] queryParameters = new NameValuePair[data.query_parameters_nrs.length];
     for (int i = 0; i < data.query_parameters_nrs.length; i++) {
       String name = data.queryParameters[i].getName();
       String value = data.inputRowMeta.getString(rowData, data.query_parameters_nrs[i]);
-      data.queryParameters[i] = new BasicNameValuePair(name, value);
+      queryParameters[i] = new BasicNameValuePair(name, value);
 
       if (isDebug()) {
         logDebug(BaseMessages.getString(PKG, "HTTPPOST.Log.QueryValue", name, value));
       }
     }
 
-    post.setEntity(new UrlEncodedFormEntity(Arrays.asList(data.queryParameters)));
+    post.setEntity(new UrlEncodedFormEntity(Arrays.asList(queryParameters)));
   }
 
   /**
@@ -573,6 +669,7 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
     }
 
     // set body parameters that we want to send
+    NameValuePair[] bodyParameters = data.bodyParameters.clone();
     for (int i = 0; i < data.body_parameters_nrs.length; i++) {
       String name = data.bodyParameters[i].getName();
       String value = data.inputRowMeta.getString(rowData, data.body_parameters_nrs[i]);
@@ -584,7 +681,7 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
             ContentType.TEXT_PLAIN.withCharset(
                 !StringUtil.isEmpty(data.realEncoding) ? data.realEncoding : DEFAULT_ENCODING));
       } else {
-        data.bodyParameters[i] = new BasicNameValuePair(name, value);
+        bodyParameters[i] = new BasicNameValuePair(name, value);
       }
 
       if (isDebug()) {
@@ -594,7 +691,7 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
 
     //
     if (multipart == null) {
-      String bodyParams = getRequestBodyParamsAsStr(data.bodyParameters, data.realEncoding);
+      String bodyParams = getRequestBodyParamsAsStr(bodyParameters, data.realEncoding);
       post.setEntity((new StringEntity(bodyParams, ContentType.TEXT_XML.withCharset("US-ASCII"))));
     }
   }
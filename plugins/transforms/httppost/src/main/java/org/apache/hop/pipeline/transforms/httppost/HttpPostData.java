@@ -19,8 +19,10 @@ package org.apache.hop.pipeline.transforms.httppost;
 
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
+import org.apache.hop.pipeline.transform.ConcurrentRowCalls;
 import org.apache.hop.pipeline.transform.ITransformData;
 import org.apache.http.NameValuePair;
+import org.apache.http.impl.client.CloseableHttpClient;
 
 @SuppressWarnings("java:S1104")
 public class HttpPostData extends BaseTransformData implements ITransformData {
@@ -49,6 +51,14 @@ public class HttpPostData extends BaseTransformData implements ITransformData {
   public int realSocketTimeout;
   public int realConnectionTimeout;
   public int realcloseIdleConnectionsTime;
+  public int realRetryTimes;
+  public long realRetryDelayMs;
+
+  /** The client shared by the concurrent requests */
+  public CloseableHttpClient httpClient;
+
+  /** Runs the concurrent requests, null if one request at a time is sent */
+  public ConcurrentRowCalls concurrentCalls;
 
   public HttpPostData() {
     super();
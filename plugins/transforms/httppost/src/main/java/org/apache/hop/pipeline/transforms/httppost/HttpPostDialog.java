@@ -128,6 +128,16 @@ public class HttpPostDialog extends BaseTransformDialog {
 
   private TextVar wCloseIdleConnectionsTime;
 
+  private TextVar wConcurrentRequests;
+
+  private TextVar wRequestsPerSecond;
+
+  private Button wCompletionOrder;
+
+  private TextVar wRetryTimes;
+
+  private TextVar wRetryDelayMs;
+
   public HttpPostDialog(
       Shell parent, IVariables variables, HttpPostMeta transformMeta, PipelineMeta pipelineMeta) {
     super(parent, variables, transformMeta, pipelineMeta);
@@ -179,6 +189,11 @@ public class HttpPostDialog extends BaseTransformDialog {
     setupConnectionTimeoutLine(lsMod, gSettings);
     setupSocketTimeout(lsMod, gSettings);
     setupCloseWaitConnectionLine(lsMod, gSettings);
+    setupConcurrentRequestsLine(lsMod, gSettings);
+    setupRequestsPerSecondLine(lsMod, gSettings);
+    setupCompletionOrderLine(gSettings);
+    setupRetryTimesLine(lsMod, gSettings);
+    setupRetryDelayLine(lsMod, gSettings);
 
     FormData fdSettings = new FormData();
     fdSettings.left = new FormAttachment(0, 0);
@@ -659,6 +674,128 @@ public class HttpPostDialog extends BaseTransformDialog {
     return gOutputFields;
   }
 
+  private void setupConcurrentRequestsLine(ModifyListener lsMod, Group gSettings) {
+    int margin = PropsUi.getMargin();
+    int middle = props.getMiddlePct();
+    Label wlConcurrentRequests = new Label(gSettings, SWT.RIGHT);
+    wlConcurrentRequests.setText(
+        BaseMessages.getString(PKG, "HTTPPOSTDialog.ConcurrentRequests.Label"));
+    PropsUi.setLook(wlConcurrentRequests);
+    FormData fdlConcurrentRequests = new FormData();
+    fdlConcurrentRequests.top = new FormAttachment(wCloseIdleConnectionsTime, margin);
+    fdlConcurrentRequests.left = new FormAttachment(0, 0);
+    fdlConcurrentRequests.right = new FormAttachment(middle, -margin);
+    wlConcurrentRequests.setLayoutData(fdlConcurrentRequests);
+    wConcurrentRequests = new TextVar(variables, gSettings, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wConcurrentRequests.addModifyListener(lsMod);
+    wConcurrentRequests.setToolTipText(
+        BaseMessages.getString(PKG, "HTTPPOSTDialog.ConcurrentRequests.Tooltip"));
+    PropsUi.setLook(wConcurrentRequests);
+    FormData fdConcurrentRequests = new FormData();
+    fdConcurrentRequests.top = new FormAttachment(wCloseIdleConnectionsTime, margin);
+    fdConcurrentRequests.left = new FormAttachment(middle, 0);
+    fdConcurrentRequests.right = new FormAttachment(100, 0);
+    wConcurrentRequests.setLayoutData(fdConcurrentRequests);
+  }
+
+  private void setupRequestsPerSecondLine(ModifyListener lsMod, Group gSettings) {
+    int margin = PropsUi.getMargin();
+    int middle = props.getMiddlePct();
+    Label wlRequestsPerSecond = new Label(gSettings, SWT.RIGHT);
+    wlRequestsPerSecond.setText(
+        BaseMessages.getString(PKG, "HTTPPOSTDialog.RequestsPerSecond.Label"));
+    PropsUi.setLook(wlRequestsPerSecond);
+    FormData fdlRequestsPerSecond = new FormData();
+    fdlRequestsPerSecond.top = new FormAttachment(wConcurrentRequests, margin);
+    fdlRequestsPerSecond.left = new FormAttachment(0, 0);
+    fdlRequestsPerSecond.right = new FormAttachment(middle, -margin);
+    wlRequestsPerSecond.setLayoutData(fdlRequestsPerSecond);
+    wRequestsPerSecond = new TextVar(variables, gSettings, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wRequestsPerSecond.addModifyListener(lsMod);
+    wRequestsPerSecond.setToolTipText(
+        BaseMessages.getString(PKG, "HTTPPOSTDialog.RequestsPerSecond.Tooltip"));
+    PropsUi.setLook(wRequestsPerSecond);
+    FormData fdRequestsPerSecond = new FormData();
+    fdRequestsPerSecond.top = new FormAttachment(wConcurrentRequests, margin);
+    fdRequestsPerSecond.left = new FormAttachment(middle, 0);
+    fdRequestsPerSecond.right = new FormAttachment(100, 0);
+    wRequestsPerSecond.setLayoutData(fdRequestsPerSecond);
+  }
+
+  private void setupRetryTimesLine(ModifyListener lsMod, Group gSettings) {
+    int margin = PropsUi.getMargin();
+    int middle = props.getMiddlePct();
+    Label wlRetryTimes = new Label(gSettings, SWT.RIGHT);
+    wlRetryTimes.setText(BaseMessages.getString(PKG, "HTTPPOSTDialog.RetryTimes.Label"));
+    PropsUi.setLook(wlRetryTimes);
+    FormData fdlRetryTimes = new FormData();
+    fdlRetryTimes.top = new FormAttachment(wCompletionOrder, margin);
+    fdlRetryTimes.left = new FormAttachment(0, 0);
+    fdlRetryTimes.right = new FormAttachment(middle, -margin);
+    wlRetryTimes.setLayoutData(fdlRetryTimes);
+    wRetryTimes = new TextVar(variables, gSettings, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wRetryTimes.addModifyListener(lsMod);
+    wRetryTimes.setToolTipText(BaseMessages.getString(PKG, "HTTPPOSTDialog.RetryTimes.Tooltip"));
+    PropsUi.setLook(wRetryTimes);
+    FormData fdRetryTimes = new FormData();
+    fdRetryTimes.top = new FormAttachment(wCompletionOrder, margin);
+    fdRetryTimes.left = new FormAttachment(middle, 0);
+    fdRetryTimes.right = new FormAttachment(100, 0);
+    wRetryTimes.setLayoutData(fdRetryTimes);
+  }
+
+  private void setupRetryDelayLine(ModifyListener lsMod, Group gSettings) {
+    int margin = PropsUi.getMargin();
+    int middle = props.getMiddlePct();
+    Label wlRetryDelayMs = new Label(gSettings, SWT.RIGHT);
+    wlRetryDelayMs.setText(BaseMessages.getString(PKG, "HTTPPOSTDialog.RetryDelayMs.Label"));
+    PropsUi.setLook(wlRetryDelayMs);
+    FormData fdlRetryDelayMs = new FormData();
+    fdlRetryDelayMs.top = new FormAttachment(wRetryTimes, margin);
+    fdlRetryDelayMs.left = new FormAttachment(0, 0);
+    fdlRetryDelayMs.right = new FormAttachment(middle, -margin);
+    wlRetryDelayMs.setLayoutData(fdlRetryDelayMs);
+    wRetryDelayMs = new TextVar(variables, gSettings, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wRetryDelayMs.addModifyListener(lsMod);
+    wRetryDelayMs.setToolTipText(
+        BaseMessages.getString(PKG, "HTTPPOSTDialog.RetryDelayMs.Tooltip"));
+    PropsUi.setLook(wRetryDelayMs);
+    FormData fdRetryDelayMs = new FormData();
+    fdRetryDelayMs.top = new FormAttachment(wRetryTimes, margin);
+    fdRetryDelayMs.left = new FormAttachment(middle, 0);
+    fdRetryDelayMs.right = new FormAttachment(100, 0);
+    wRetryDelayMs.setLayoutData(fdRetryDelayMs);
+  }
+
+  private void setupCompletionOrderLine(Group gSettings) {
+    int margin = PropsUi.getMargin();
+    int middle = props.getMiddlePct();
+    Label wlCompletionOrder = new Label(gSettings, SWT.RIGHT);
+    wlCompletionOrder.setText(BaseMessages.getString(PKG, "HTTPPOSTDialog.CompletionOrder.Label"));
+    PropsUi.setLook(wlCompletionOrder);
+    FormData fdlCompletionOrder = new FormData();
+    fdlCompletionOrder.top = new FormAttachment(wRequestsPerSecond, margin);
+    fdlCompletionOrder.left = new FormAttachment(0, 0);
+    fdlCompletionOrder.right = new FormAttachment(middle, -margin);
+    wlCompletionOrder.setLayoutData(fdlCompletionOrder);
+    wCompletionOrder = new Button(gSettings, SWT.CHECK);
+    wCompletionOrder.setToolTipText(
+        BaseMessages.getString(PKG, "HTTPPOSTDialog.CompletionOrder.Tooltip"));
+    PropsUi.setLook(wCompletionOrder);
+    FormData fdCompletionOrder = new FormData();
+    fdCompletionOrder.left = new FormAttachment(middle, 0);
+    fdCompletionOrder.top = new FormAttachment(wlCompletionOrder, 0, SWT.CENTER);
+    fdCompletionOrder.right = new FormAttachment(100, 0);
+    wCompletionOrder.setLayoutData(fdCompletionOrder);
+    wCompletionOrder.addSelectionListener(
+        new SelectionAdapter() {
+          @Override
+          public void widgetSelected(SelectionEvent e) {
+            input.setChanged();
+          }
+        });
+  }
+
   private void setupCloseWaitConnectionLine(ModifyListener lsMod, Group gSettings) {
     int middle = props.getMiddlePct();
     int margin = PropsUi.getMargin();
@@ -1121,6 +1258,11 @@ public class HttpPostDialog extends BaseTransformDialog {
     wSocketTimeOut.setText(Const.NVL(input.getSocketTimeout(), ""));
     wConnectionTimeOut.setText(Const.NVL(input.getConnectionTimeout(), ""));
     wCloseIdleConnectionsTime.setText(Const.NVL(input.getCloseIdleConnectionsTime(), ""));
+    wConcurrentRequests.setText(Const.NVL(input.getConcurrentRequests(), ""));
+    wRequestsPerSecond.setText(Const.NVL(input.getRequestsPerSecond(), ""));
+    wCompletionOrder.setSelection(input.isCompletionOrder());
+    wRetryTimes.setText(Const.NVL(input.getRetryTimes(), ""));
+    wRetryDelayMs.setText(Const.NVL(input.getRetryDelayMs(), ""));
 
     wFields.setRowNums();
     wFields.optWidth(true);
@@ -1196,6 +1338,11 @@ public class HttpPostDialog extends BaseTransformDialog {
     input.setSocketTimeout(wSocketTimeOut.getText());
     input.setConnectionTimeout(wConnectionTimeOut.getText());
     input.setCloseIdleConnectionsTime(wCloseIdleConnectionsTime.getText());
+    input.setConcurrentRequests(wConcurrentRequests.getText());
+    input.setRequestsPerSecond(wRequestsPerSecond.getText());
+    input.setCompletionOrder(wCompletionOrder.getSelection());
+    input.setRetryTimes(wRetryTimes.getText());
+    input.setRetryDelayMs(wRetryDelayMs.getText());
 
     transformName = wTransformName.getText(); // return value
 
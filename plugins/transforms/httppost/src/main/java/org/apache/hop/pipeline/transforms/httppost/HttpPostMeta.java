@@ -118,6 +118,26 @@ public class HttpPostMeta extends BaseTransformMeta<HttpPost, HttpPostData> {
       injectionGroupDescription = "HTTPPOST.Injection.httpPostResultField")
   private List<HttpPostResultField> resultFields = new ArrayList<>();
 
+  /** The number of requests in flight per transform copy, empty or 1 for one request at a time */
+  @HopMetadataProperty(injectionKeyDescription = "HTTPPOST.Injection.concurrentRequests")
+  private String concurrentRequests;
+
+  /** The maximum number of requests started per second by a transform copy, empty for no limit */
+  @HopMetadataProperty(injectionKeyDescription = "HTTPPOST.Injection.requestsPerSecond")
+  private String requestsPerSecond;
+
+  /** Pass the rows on as soon as their request finishes instead of in the order of the input */
+  @HopMetadataProperty(injectionKeyDescription = "HTTPPOST.Injection.completionOrder")
+  private boolean completionOrder;
+
+  /** The number of times a failed request is retried, empty or 0 for no retries */
+  @HopMetadataProperty(injectionKeyDescription = "HTTPPOST.Injection.retryTimes")
+  private String retryTimes;
+
+  /** The delay before the first retry in milliseconds, doubled for every next retry */
+  @HopMetadataProperty(injectionKeyDescription = "HTTPPOST.Injection.retryDelayMs")
+  private String retryDelayMs;
+
   public HttpPostMeta() {
     super(); // allocate BaseTransformMeta
   }
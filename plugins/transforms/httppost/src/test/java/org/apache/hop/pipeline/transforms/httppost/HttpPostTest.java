@@ -14,19 +14,42 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package org.apache.hop.pipeline.transforms.httppost;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.doCallRealMethod;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.ILoggingObject;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMetaBuilder;
+import org.apache.hop.core.util.HttpClientManager;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.apache.http.Header;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
 import org.apache.http.NameValuePair;
+import org.apache.http.StatusLine;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.protocol.HttpContext;
 import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
 
 class HttpPostTest {
 
@@ -44,4 +67,79 @@ class HttpPostTest {
 
     assertEquals("u=usr&p=pass", http.getRequestBodyParamsAsStr(pairs, null));
   }
+
+  @Test
+  void testProcessRowsWithConcurrentRequests() throws Exception {
+    HttpPostMeta meta = new HttpPostMeta();
+    meta.setDefault();
+    meta.setUrlInField(true);
+    meta.setUrlField("url");
+    meta.getResultFields().get(0).setName("response");
+    meta.getResultFields().get(0).setCode(null);
+    meta.setConcurrentRequests("5");
+    HttpPostData data = new HttpPostData();
+
+    TransformMockHelper<HttpPostMeta, HttpPostData> mockHelper =
+        new TransformMockHelper<>("HTTP post", HttpPostMeta.class, HttpPostData.class);
+    when(mockHelper.logChannelFactory.create(any(), any(ILoggingObject.class)))
+        .thenReturn(mockHelper.iLogChannel);
+    HttpPost httpPost =
+        new HttpPost(
+            mockHelper.transformMeta, meta, data, 0, mockHelper.pipelineMeta, mockHelper.pipeline);
+
+    try (MockedStatic<HttpClientManager> mockedManager = mockStatic(HttpClientManager.class)) {
+      HttpClientManager mockManager = mock(HttpClientManager.class);
+      HttpClientManager.HttpClientBuilderFacade mockBuilder =
+          mock(HttpClientManager.HttpClientBuilderFacade.class);
+      CloseableHttpClient mockClient = mock(CloseableHttpClient.class);
+
+      mockedManager.when(HttpClientManager::getInstance).thenReturn(mockManager);
+      when(mockManager.createBuilder()).thenReturn(mockBuilder);
+      when(mockBuilder.build()).thenReturn(mockClient);
+
+      // The first rows take the longest, the body is the path of the request
+      AtomicInteger running = new AtomicInteger();
+      AtomicInteger maxRunning = new AtomicInteger();
+      when(mockClient.execute(any(HttpHost.class), any(HttpRequest.class), any(HttpContext.class)))
+          .thenAnswer(
+              invocation -> {
+                org.apache.http.client.methods.HttpPost request = invocation.getArgument(1);
+                String path = request.getURI().getPath().substring(1);
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(60L - Integer.parseInt(path) * 3L);
+                running.decrementAndGet();
+
+                CloseableHttpResponse response = mock(CloseableHttpResponse.class);
+                StatusLine statusLine = mock(StatusLine.class);
+                when(statusLine.getStatusCode()).thenReturn(HttpURLConnection.HTTP_OK);
+                when(response.getStatusLine()).thenReturn(statusLine);
+                when(response.getEntity())
+                    .thenReturn(new StringEntity(path, StandardCharsets.UTF_8));
+                when(response.getAllHeaders()).thenReturn(new Header[0]);
+                return response;
+              });
+
+      IRowMeta inputRowMeta = new RowMetaBuilder().addString("url").build();
+      List<Object[]> inputRows = new ArrayList<>();
+      for (int i = 0; i < 20; i++) {
+        inputRows.add(new Object[] {"http://example.com/" + i});
+      }
+      List<Object[]> outputRows = mockHelper.processRows(httpPost, inputRowMeta, inputRows);
+      verify(mockBuilder).setMaxConnections(5);
+
+      // Every row comes out in input order, also the ones still in flight at the end of the input
+      assertEquals(20, outputRows.size());
+      for (int i = 0; i < 20; i++) {
+        assertEquals("http://example.com/" + i, outputRows.get(i)[0]);
+        assertEquals(String.valueOf(i), outputRows.get(i)[1]);
+      }
+      assertTrue(maxRunning.get() > 1);
+      assertTrue(maxRunning.get() <= 5);
+      assertEquals(0, httpPost.getErrors());
+      assertNull(data.concurrentCalls);
+      verify(mockClient).close();
+    } finally {
+      mockHelper.cleanUp();
+    }
+  }
 }
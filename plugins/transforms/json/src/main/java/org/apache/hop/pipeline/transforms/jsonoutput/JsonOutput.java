@@ -24,6 +24,9 @@ import java.util.Objects;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.ResultFile;
+import org.apache.hop.core.compress.CompressionOutputStream;
+import org.apache.hop.core.compress.CompressionProviderFactory;
+import org.apache.hop.core.compress.ICompressionProvider;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.io.CountingOutputStream;
@@ -327,6 +330,20 @@ public class JsonOutput extends BaseTransform<JsonOutputMeta, JsonOutputData> {
       data.countingStream = new CountingOutputStream(fos);
       outputStream = data.countingStream;
 
+      String compressionType = meta.getFileCompression();
+      if (!Utils.isEmpty(compressionType)) {
+        ICompressionProvider compressionProvider =
+            CompressionProviderFactory.getInstance().getCompressionProviderByName(compressionType);
+        if (compressionProvider == null || !compressionProvider.supportsOutput()) {
+          throw new HopException(
+              "No output compression provider found with name " + compressionType);
+        }
+        CompressionOutputStream compressionOutputStream =
+            compressionProvider.createOutputStream(outputStream);
+        compressionOutputStream.addEntry(filename, resolve(meta.getExtension()));
+        outputStream = compressionOutputStream;
+      }
+
       if (!Utils.isEmpty(meta.getEncoding())) {
         data.writer =
             new OutputStreamWriter(
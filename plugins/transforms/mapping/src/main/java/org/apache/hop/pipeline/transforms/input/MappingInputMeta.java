@@ -36,6 +36,7 @@ import org.apache.hop.metadata.api.IHopMetadataProvider;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransformMeta;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.mapping.MappingValueRename;
 
 @Transform(
     id = "MappingInput",
@@ -55,6 +56,9 @@ public class MappingInputMeta extends BaseTransformMeta<MappingInput, MappingInp
   // This information is injected, not serialized
   private IRowMeta inputRowMeta;
 
+  // The renames of a mapping which is inlined in the parent pipeline, injected, not serialized
+  private List<MappingValueRename> valueRenames;
+
   public MappingInputMeta() {
     super();
     this.fields = new ArrayList<>();
@@ -140,6 +144,10 @@ public class MappingInputMeta extends BaseTransformMeta<MappingInput, MappingInp
 
       // else: row is OK, keep it as it is.
     }
+
+    // When the mapping is inlined we receive the rows of the parent pipeline as they are
+    //
+    MappingValueRename.renameValues(row, valueRenames);
   }
 
   @Override
@@ -220,4 +228,22 @@ public class MappingInputMeta extends BaseTransformMeta<MappingInput, MappingInp
   public void setFields(List<InputField> fields) {
     this.fields = fields;
   }
+
+  /**
+   * Gets valueRenames
+   *
+   * @return value of valueRenames
+   */
+  public List<MappingValueRename> getValueRenames() {
+    return valueRenames;
+  }
+
+  /**
+   * Sets valueRenames
+   *
+   * @param valueRenames value of valueRenames
+   */
+  public void setValueRenames(List<MappingValueRename> valueRenames) {
+    this.valueRenames = valueRenames;
+  }
 }
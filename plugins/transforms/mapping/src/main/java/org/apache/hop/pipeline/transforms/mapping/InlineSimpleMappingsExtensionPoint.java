@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.mapping;
+
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.extension.ExtensionPoint;
+import org.apache.hop.core.extension.IExtensionPoint;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.PipelineMeta.PipelineType;
+import org.apache.hop.pipeline.engine.IPipelineEngine;
+import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
+
+@ExtensionPoint(
+    extensionPointId = "PipelinePrepareExecution",
+    id = "InlineSimpleMappingsExtensionPoint",
+    description = "Splice the transforms of simple mappings into the pipeline prior to execution")
+public class InlineSimpleMappingsExtensionPoint
+    implements IExtensionPoint<IPipelineEngine<PipelineMeta>> {
+
+  @Override
+  public void callExtensionPoint(
+      ILogChannel log, IVariables variables, IPipelineEngine<PipelineMeta> pipeline)
+      throws HopException {
+    // Only the local engine runs the transforms as threads connected with row sets
+    //
+    if (!(pipeline instanceof LocalPipelineEngine)) {
+      return;
+    }
+    PipelineMeta pipelineMeta = pipeline.getPipelineMeta();
+    if (pipelineMeta == null || pipelineMeta.getPipelineType() != PipelineType.Normal) {
+      return;
+    }
+
+    SimpleMappingInliner inliner =
+        new SimpleMappingInliner(log, pipeline, pipeline.getMetadataProvider());
+    PipelineMeta inlinedMeta = inliner.inline(pipelineMeta);
+    if (inlinedMeta != null) {
+      pipeline.setPipelineMeta(inlinedMeta);
+    }
+  }
+}
@@ -17,6 +17,9 @@
 
 package org.apache.hop.pipeline.transforms.mapping;
 
+import java.util.List;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.metadata.api.HopMetadataProperty;
 
 public class MappingValueRename implements Cloneable {
@@ -90,4 +93,23 @@ public class MappingValueRename implements Cloneable {
   public void setTargetValueName(String targetValueName) {
     this.targetValueName = targetValueName == null ? "" : targetValueName;
   }
+
+  /**
+   * Rename the values in the given row metadata from source to target name, in the given order.
+   * Values which can't be found are left alone.
+   *
+   * @param rowMeta The row metadata to rename values in
+   * @param valueRenames The renames to apply
+   */
+  public static void renameValues(IRowMeta rowMeta, List<MappingValueRename> valueRenames) {
+    if (valueRenames == null) {
+      return;
+    }
+    for (MappingValueRename valueRename : valueRenames) {
+      IValueMeta valueMeta = rowMeta.searchValueMeta(valueRename.getSourceValueName());
+      if (valueMeta != null) {
+        valueMeta.setName(valueRename.getTargetValueName());
+      }
+    }
+  }
 }
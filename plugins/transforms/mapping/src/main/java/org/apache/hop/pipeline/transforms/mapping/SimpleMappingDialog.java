@@ -72,6 +72,8 @@ public class SimpleMappingDialog extends BaseTransformDialog {
 
   private ComboVar wRunConfig;
 
+  private Button wInline;
+
   private CTabFolder wTabFolder;
 
   private PipelineMeta mappingPipelineMeta = null;
@@ -217,6 +219,26 @@ public class SimpleMappingDialog extends BaseTransformDialog {
     fdRunConfig.right = new FormAttachment(wbBrowse, -margin);
     wRunConfig.setLayoutData(fdRunConfig);
 
+    // Inline the mapping in the parent pipeline?
+    //
+    Label wlInline = new Label(shell, SWT.RIGHT);
+    PropsUi.setLook(wlInline);
+    wlInline.setText(BaseMessages.getString(PKG, "SimpleMappingDialog.Inline.Label"));
+    wlInline.setToolTipText(BaseMessages.getString(PKG, "SimpleMappingDialog.Inline.Tooltip"));
+    FormData fdlInline = new FormData();
+    fdlInline.left = new FormAttachment(0, 0);
+    fdlInline.top = new FormAttachment(wRunConfig, margin);
+    fdlInline.right = new FormAttachment(middle, -margin);
+    wlInline.setLayoutData(fdlInline);
+    wInline = new Button(shell, SWT.CHECK);
+    PropsUi.setLook(wInline);
+    wInline.setToolTipText(BaseMessages.getString(PKG, "SimpleMappingDialog.Inline.Tooltip"));
+    FormData fdInline = new FormData();
+    fdInline.left = new FormAttachment(wlInline, margin);
+    fdInline.top = new FormAttachment(wlInline, 0, SWT.CENTER);
+    fdInline.right = new FormAttachment(100, 0);
+    wInline.setLayoutData(fdInline);
+
     //
     // Add a tab folder for the parameters and various input and output
     // streams
@@ -227,7 +249,7 @@ public class SimpleMappingDialog extends BaseTransformDialog {
 
     FormData fdTabFolder = new FormData();
     fdTabFolder.left = new FormAttachment(0, 0);
-    fdTabFolder.top = new FormAttachment(wRunConfig, margin);
+    fdTabFolder.top = new FormAttachment(wInline, margin);
     fdTabFolder.right = new FormAttachment(100, 0);
     fdTabFolder.bottom = new FormAttachment(wOk, -margin);
     wTabFolder.setLayoutData(fdTabFolder);
@@ -312,6 +334,7 @@ public class SimpleMappingDialog extends BaseTransformDialog {
     } catch (Exception e) {
       LogChannel.UI.logError("Error loading pipeline run configurations", e);
     }
+    wInline.setSelection(mappingMeta.isInlining());
   }
 
   private void addOutputMappingDefinitionTab(MappingIODefinition definition, int index) {
@@ -719,6 +742,7 @@ public class SimpleMappingDialog extends BaseTransformDialog {
     String pipelinePath = wPath.getText();
     mappingMeta.setFilename(pipelinePath);
     mappingMeta.setRunConfigurationName(wRunConfig.getText());
+    mappingMeta.setInlining(wInline.getSelection());
     // Prepare a regexp checker to see if the pipeline name contains a variable
     Pattern p = Pattern.compile("^[/\\w]*(\\$\\{\\w+})[/.\\w]*");
     Matcher m = p.matcher(mappingMeta.getFilename());
@@ -0,0 +1,317 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.mapping;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.commons.lang.StringUtils;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.util.StringUtil;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.i18n.BaseMessages;
+import org.apache.hop.metadata.api.IHopMetadataProvider;
+import org.apache.hop.pipeline.PipelineHopMeta;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.TransformWithMappingMeta;
+import org.apache.hop.pipeline.transform.ITransformIOMeta;
+import org.apache.hop.pipeline.transform.TransformErrorMeta;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transform.stream.IStream;
+import org.apache.hop.pipeline.transforms.input.MappingInputMeta;
+import org.apache.hop.pipeline.transforms.output.MappingOutputMeta;
+
+/**
+ * Splices the transforms of simple mappings into the parent pipeline. The transforms of the mapping
+ * are renamed to "mapping transform/transform" and the Mapping Output transform takes the name of
+ * the mapping transform so that the parent pipeline keeps referencing the same name. The field
+ * renames of the mapping are handed to the Mapping Input and Mapping Output transforms which apply
+ * them once to the row metadata.
+ *
+ * <p>Mappings which can't be inlined safely keep running in their own pipeline engine. This
+ * includes mappings with transforms using internal variables: inlined they would get the values of
+ * the parent pipeline.
+ */
+public class SimpleMappingInliner {
+  private static final Class<?> PKG = SimpleMappingMeta.class;
+
+  public static final String MAPPING_INPUT_PLUGIN_ID = "MappingInput";
+  public static final String MAPPING_OUTPUT_PLUGIN_ID = "MappingOutput";
+
+  private final ILogChannel log;
+  private final IVariables variables;
+  private final IHopMetadataProvider metadataProvider;
+
+  public SimpleMappingInliner(
+      ILogChannel log, IVariables variables, IHopMetadataProvider metadataProvider) {
+    this.log = log;
+    this.variables = variables;
+    this.metadataProvider = metadataProvider;
+  }
+
+  /**
+   * Inline the simple mappings which have the inline option enabled.
+   *
+   * @param pipelineMeta The pipeline to inline the mappings of. It is not modified.
+   * @return A copy of the pipeline with the mappings inlined or null if nothing was inlined
+   */
+  public PipelineMeta inline(PipelineMeta pipelineMeta) {
+    List<String> mappingNames = new ArrayList<>();
+    for (TransformMeta transformMeta : pipelineMeta.getTransforms()) {
+      if (transformMeta.getTransform() instanceof SimpleMappingMeta simpleMappingMeta
+          && simpleMappingMeta.isInlining()) {
+        mappingNames.add(transformMeta.getName());
+      }
+    }
+    if (mappingNames.isEmpty()) {
+      return null;
+    }
+
+    // A clone loses the name and filename, the internal variables of the parent need them
+    //
+    PipelineMeta inlinedMeta = (PipelineMeta) pipelineMeta.clone();
+    inlinedMeta.setFilename(pipelineMeta.getFilename());
+    inlinedMeta.setName(pipelineMeta.getName());
+    boolean inlined = false;
+    for (String mappingName : mappingNames) {
+      TransformMeta mappingTransform = inlinedMeta.findTransform(mappingName);
+      String reason = inlineMapping(inlinedMeta, mappingTransform);
+      if (reason == null) {
+        inlined = true;
+        if (log.isDetailed()) {
+          log.logDetailed(
+              BaseMessages.getString(PKG, "SimpleMappingInliner.Log.Inlined", mappingName));
+        }
+      } else {
+        log.logBasic(
+            BaseMessages.getString(
+                PKG, "SimpleMappingInliner.Log.NotInlined", mappingName, reason));
+      }
+    }
+    if (!inlined) {
+      return null;
+    }
+
+    // Let all transforms look up their info and target transforms again
+    //
+    for (TransformMeta transformMeta : inlinedMeta.getTransforms()) {
+      transformMeta.getTransform().searchInfoAndTargetTransforms(inlinedMeta.getTransforms());
+    }
+    return inlinedMeta;
+  }
+
+  /**
+   * Inline a single mapping. All checks are done before the pipeline is changed.
+   *
+   * @return null if the mapping was inlined, otherwise the reason why it wasn't
+   */
+  private String inlineMapping(PipelineMeta pipelineMeta, TransformMeta mappingTransform) {
+    SimpleMappingMeta meta = (SimpleMappingMeta) mappingTransform.getTransform();
+    String mappingName = mappingTransform.getName();
+
+    if (StringUtils.isNotEmpty(meta.getRunConfigurationName())) {
+      return BaseMessages.getString(PKG, "SimpleMappingInliner.Reason.RunConfiguration");
+    }
+    if (mappingTransform.getCopies(variables) != 1 || mappingTransform.isPartitioned()) {
+      return BaseMessages.getString(PKG, "SimpleMappingInliner.Reason.Copies");
+    }
+    MappingParameters mappingParameters = meta.getMappingParameters();
+    if (mappingParameters != null
+        && (!mappingParameters.getVariableMappings().isEmpty()
+            || !mappingParameters.isInheritingAllVariables())) {
+      return BaseMessages.getString(PKG, "SimpleMappingInliner.Reason.Parameters");
+    }
+    if (mappingTransform.isDoingErrorHandling()
+        || isReferencedAsTarget(pipelineMeta, mappingName)) {
+      return BaseMessages.getString(PKG, "SimpleMappingInliner.Reason.Targeted");
+    }
+
+    PipelineMeta mappingPipelineMeta;
+    try {
+      mappingPipelineMeta =
+          TransformWithMappingMeta.loadMappingMeta(meta, metadataProvider, variables);
+    } catch (HopException e) {
+      return BaseMessages.getString(
+          PKG, "SimpleMappingInliner.Reason.UnableToLoad", e.getMessage());
+    }
+    if (mappingPipelineMeta == null) {
+      return BaseMessages.getString(PKG, "SimpleMappingInliner.Reason.UnableToLoad", "");
+    }
+    if (mappingPipelineMeta.listParameters().length > 0) {
+      return BaseMessages.getString(PKG, "SimpleMappingInliner.Reason.Parameters");
+    }
+
+    TransformMeta inputTransform = null;
+    TransformMeta outputTransform = null;
+    int nrInputs = 0;
+    int nrOutputs = 0;
+    for (TransformMeta transformMeta : mappingPipelineMeta.getTransforms()) {
+      if (MAPPING_INPUT_PLUGIN_ID.equals(transformMeta.getTransformPluginId())) {
+        inputTransform = transformMeta;
+        nrInputs++;
+      } else if (MAPPING_OUTPUT_PLUGIN_ID.equals(transformMeta.getTransformPluginId())) {
+        outputTransform = transformMeta;
+        nrOutputs++;
+      } else if (transformMeta.getTransform() instanceof TransformWithMappingMeta) {
+        // The filenames of nested mappings are relative to the mapping, not to the parent
+        //
+        return BaseMessages.getString(PKG, "SimpleMappingInliner.Reason.NestedMapping");
+      }
+      // Internal variables like the filename of the mapping would take the values of the parent
+      //
+      String internalVariable = findInternalVariable(transformMeta);
+      if (internalVariable != null) {
+        return BaseMessages.getString(
+            PKG, "SimpleMappingInliner.Reason.InternalVariable", internalVariable);
+      }
+    }
+    if (nrInputs != 1 || nrOutputs != 1) {
+      return BaseMessages.getString(PKG, "SimpleMappingInliner.Reason.InputOutput");
+    }
+
+    // The new names of the transforms of the mapping can't be in use in the parent
+    //
+    List<TransformMeta> transforms = new ArrayList<>(mappingPipelineMeta.getTransforms());
+    List<String> newNames = new ArrayList<>();
+    for (TransformMeta transformMeta : transforms) {
+      String newName =
+          transformMeta == outputTransform
+              ? mappingName
+              : mappingName + "/" + transformMeta.getName();
+      if (transformMeta != outputTransform && pipelineMeta.findTransform(newName) != null) {
+        return BaseMessages.getString(PKG, "SimpleMappingInliner.Reason.NameCollision", newName);
+      }
+      newNames.add(newName);
+    }
+
+    // Everything checks out, change the parent pipeline.
+    // Remember the hops of the mapping transform before it's gone.
+    //
+    List<PipelineHopMeta> mappingHops = new ArrayList<>();
+    for (PipelineHopMeta hop : pipelineMeta.getPipelineHops()) {
+      if (mappingTransform.equals(hop.getFromTransform())
+          || mappingTransform.equals(hop.getToTransform())) {
+        mappingHops.add(hop);
+      }
+    }
+    for (PipelineHopMeta hop : mappingHops) {
+      pipelineMeta.removePipelineHop(hop);
+    }
+    pipelineMeta.removeTransform(pipelineMeta.indexOfTransform(mappingTransform));
+
+    for (int i = 0; i < transforms.size(); i++) {
+      transforms.get(i).setName(newNames.get(i));
+    }
+    for (TransformMeta transformMeta : transforms) {
+      // Keep the references to other transforms in line with the new names
+      //
+      transformMeta.getTransform().convertIOMetaToTransformNames();
+      pipelineMeta.addTransform(transformMeta);
+    }
+    outputTransform.setDistributes(mappingTransform.isDistributes());
+    outputTransform.setRowDistribution(mappingTransform.getRowDistribution());
+
+    for (PipelineHopMeta hop : mappingPipelineMeta.getPipelineHops()) {
+      pipelineMeta.addPipelineHop(hop);
+    }
+    for (PipelineHopMeta hop : mappingHops) {
+      TransformMeta from = hop.getFromTransform();
+      TransformMeta to = hop.getToTransform();
+      if (mappingTransform.equals(to)) {
+        from = pipelineMeta.findTransform(from.getName());
+        to = inputTransform;
+      } else {
+        from = outputTransform;
+        to = pipelineMeta.findTransform(to.getName());
+      }
+      pipelineMeta.addPipelineHop(new PipelineHopMeta(from, to, hop.isEnabled()));
+    }
+
+    // The renames are applied once, to the row metadata
+    //
+    MappingIODefinition inputMapping = meta.getInputMapping();
+    MappingIODefinition outputMapping = meta.getOutputMapping();
+
+    List<MappingValueRename> inputRenames = new ArrayList<>();
+    List<MappingValueRename> outputRenames = new ArrayList<>();
+    for (MappingValueRename valueRename : inputMapping.getValueRenames()) {
+      inputRenames.add(new MappingValueRename(valueRename));
+      if (inputMapping.isRenamingOnOutput()) {
+        outputRenames.add(
+            new MappingValueRename(
+                valueRename.getTargetValueName(), valueRename.getSourceValueName()));
+      }
+    }
+    for (MappingValueRename valueRename : outputMapping.getValueRenames()) {
+      outputRenames.add(new MappingValueRename(valueRename));
+    }
+    ((MappingInputMeta) inputTransform.getTransform()).setValueRenames(inputRenames);
+    ((MappingOutputMeta) outputTransform.getTransform()).setValueRenames(outputRenames);
+
+    return null;
+  }
+
+  /**
+   * @return The first internal variable used by the transform or null if it doesn't use any. A
+   *     transform which can't be serialized is assumed to use one.
+   */
+  private static String findInternalVariable(TransformMeta transformMeta) {
+    List<String> variableNames = new ArrayList<>();
+    try {
+      StringUtil.getUsedVariables(transformMeta.getTransform().getXml(), variableNames, true);
+    } catch (HopException e) {
+      return Const.INTERNAL_VARIABLE_PREFIX;
+    }
+    for (String variableName : variableNames) {
+      if (variableName.startsWith(Const.INTERNAL_VARIABLE_PREFIX + ".")) {
+        return variableName;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return true if another transform sends its error rows or a specific target stream to the
+   *     mapping transform. Those would end up in the Mapping Output transform.
+   */
+  private boolean isReferencedAsTarget(PipelineMeta pipelineMeta, String mappingName) {
+    for (TransformMeta transformMeta : pipelineMeta.getTransforms()) {
+      if (transformMeta.getName().equalsIgnoreCase(mappingName)) {
+        continue;
+      }
+      TransformErrorMeta errorMeta = transformMeta.getTransformErrorMeta();
+      if (transformMeta.isDoingErrorHandling()
+          && errorMeta != null
+          && errorMeta.getTargetTransform() != null
+          && mappingName.equalsIgnoreCase(errorMeta.getTargetTransform().getName())) {
+        return true;
+      }
+      ITransformIOMeta ioMeta = transformMeta.getTransform().getTransformIOMeta();
+      if (ioMeta == null) {
+        continue;
+      }
+      for (IStream stream : ioMeta.getTargetStreams()) {
+        if (mappingName.equalsIgnoreCase(stream.getTransformName())) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+}
@@ -66,6 +66,13 @@ public class SimpleMappingMeta extends TransformWithMappingMeta<SimpleMapping, S
   @HopMetadataProperty(key = "mappings")
   private IOMappings ioMappings;
 
+  /**
+   * Splice the transforms of the mapping into the parent pipeline when it is prepared for
+   * execution. The mapping then doesn't need a separate pipeline engine.
+   */
+  @HopMetadataProperty(key = "inline")
+  private boolean inlining;
+
   public SimpleMappingMeta() {
     super();
     ioMappings = new IOMappings();
@@ -75,6 +82,7 @@ public class SimpleMappingMeta extends TransformWithMappingMeta<SimpleMapping, S
     super(m);
     this.runConfigurationName = m.runConfigurationName;
     this.ioMappings = new IOMappings(m.ioMappings);
+    this.inlining = m.inlining;
   }
 
   @Override
@@ -385,6 +393,24 @@ public class SimpleMappingMeta extends TransformWithMappingMeta<SimpleMapping, S
     this.ioMappings = ioMappings;
   }
 
+  /**
+   * Gets inlining
+   *
+   * @return value of inlining
+   */
+  public boolean isInlining() {
+    return inlining;
+  }
+
+  /**
+   * Sets inlining
+   *
+   * @param inlining value of inlining
+   */
+  public void setInlining(boolean inlining) {
+    this.inlining = inlining;
+  }
+
   @Override
   public boolean supportsDrillDown() {
     return true;
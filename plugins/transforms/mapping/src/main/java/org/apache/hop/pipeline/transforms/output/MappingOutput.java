@@ -50,10 +50,18 @@ public class MappingOutput extends BaseTransform<MappingOutputMeta, MappingOutpu
       return false;
     }
 
+    if (first) {
+      first = false;
+      // Only an inlined mapping changes the row layout here
+      //
+      data.outputRowMeta = getInputRowMeta().clone();
+      meta.getFields(data.outputRowMeta, getTransformName(), null, null, this, metadataProvider);
+    }
+
     // Copy row to possible alternate rowset(s).
     // Rowsets where added for all the possible targets in the setter for data.targetTransforms...
     //
-    putRow(getInputRowMeta(), r);
+    putRow(data.outputRowMeta, r);
 
     if (checkFeedback(getLinesRead()) && isBasic()) {
       logBasic(BaseMessages.getString(PKG, "MappingOutput.Log.LineNumber") + getLinesRead());
@@ -17,11 +17,14 @@
 
 package org.apache.hop.pipeline.transforms.output;
 
+import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 
 public class MappingOutputData extends BaseTransformData implements ITransformData {
 
+  public IRowMeta outputRowMeta;
+
   public MappingOutputData() {
     super();
   }
@@ -21,6 +21,7 @@ import java.util.List;
 import org.apache.hop.core.CheckResult;
 import org.apache.hop.core.ICheckResult;
 import org.apache.hop.core.annotations.Transform;
+import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.variables.IVariables;
 import org.apache.hop.i18n.BaseMessages;
@@ -28,6 +29,7 @@ import org.apache.hop.metadata.api.IHopMetadataProvider;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransformMeta;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.mapping.MappingValueRename;
 
 @Transform(
     id = "MappingOutput",
@@ -41,6 +43,9 @@ public class MappingOutputMeta extends BaseTransformMeta<MappingOutput, MappingO
 
   private static final Class<?> PKG = MappingOutputMeta.class;
 
+  // The renames of a mapping which is inlined in the parent pipeline, injected, not serialized
+  private List<MappingValueRename> valueRenames;
+
   public MappingOutputMeta() {
     super();
   }
@@ -59,6 +64,20 @@ public class MappingOutputMeta extends BaseTransformMeta<MappingOutput, MappingO
     // Do nothing
   }
 
+  @Override
+  public void getFields(
+      IRowMeta row,
+      String origin,
+      IRowMeta[] info,
+      TransformMeta nextTransform,
+      IVariables variables,
+      IHopMetadataProvider metadataProvider)
+      throws HopTransformException {
+    // When the mapping is inlined we rename the values back for the parent pipeline
+    //
+    MappingValueRename.renameValues(row, valueRenames);
+  }
+
   @Override
   public void check(
       List<ICheckResult> remarks,
@@ -106,4 +125,22 @@ public class MappingOutputMeta extends BaseTransformMeta<MappingOutput, MappingO
       remarks.add(cr);
     }
   }
+
+  /**
+   * Gets valueRenames
+   *
+   * @return value of valueRenames
+   */
+  public List<MappingValueRename> getValueRenames() {
+    return valueRenames;
+  }
+
+  /**
+   * Sets valueRenames
+   *
+   * @param valueRenames value of valueRenames
+   */
+  public void setValueRenames(List<MappingValueRename> valueRenames) {
+    this.valueRenames = valueRenames;
+  }
 }
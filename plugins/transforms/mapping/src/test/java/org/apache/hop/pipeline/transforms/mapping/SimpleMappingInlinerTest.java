@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.mapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.apache.hop.core.HopEnvironment;
+import org.apache.hop.core.annotations.Transform;
+import org.apache.hop.core.logging.LogChannel;
+import org.apache.hop.core.plugins.PluginRegistry;
+import org.apache.hop.core.plugins.TransformPluginType;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.core.variables.Variables;
+import org.apache.hop.core.xml.XmlHandler;
+import org.apache.hop.metadata.serializer.memory.MemoryMetadataProvider;
+import org.apache.hop.pipeline.PipelineHopMeta;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.dummy.DummyMeta;
+import org.apache.hop.pipeline.transforms.injector.InjectorField;
+import org.apache.hop.pipeline.transforms.injector.InjectorMeta;
+import org.apache.hop.pipeline.transforms.input.MappingInputMeta;
+import org.apache.hop.pipeline.transforms.output.MappingOutputMeta;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SimpleMappingInlinerTest {
+
+  @TempDir Path folder;
+
+  private final IVariables variables = new Variables();
+
+  @BeforeAll
+  static void beforeAll() throws Exception {
+    HopEnvironment.init();
+    PluginRegistry registry = PluginRegistry.getInstance();
+    for (Class<?> transformClass :
+        List.of(MappingInputMeta.class, MappingOutputMeta.class, SimpleMappingMeta.class)) {
+      registry.registerPluginClass(
+          transformClass.getName(), TransformPluginType.class, Transform.class);
+    }
+  }
+
+  @Test
+  void testInline() throws Exception {
+    PipelineMeta pipelineMeta = createParentPipeline(createMappingFile());
+
+    pipelineMeta.setFilename(folder.resolve("parent.hpl").toString());
+    pipelineMeta.setName("parent");
+    PipelineMeta inlinedMeta = newInliner().inline(pipelineMeta);
+
+    assertNotNull(inlinedMeta);
+    assertEquals(pipelineMeta.getFilename(), inlinedMeta.getFilename());
+    assertEquals("parent", inlinedMeta.getName());
+    assertEquals(4, inlinedMeta.nrTransforms());
+    TransformMeta input = inlinedMeta.findTransform("map/input");
+    TransformMeta output = inlinedMeta.findTransform("map");
+    assertEquals("MappingOutput", output.getTransformPluginId());
+    assertNotNull(inlinedMeta.findPipelineHop(inlinedMeta.findTransform("in"), input));
+    assertNotNull(inlinedMeta.findPipelineHop(input, output));
+    assertNotNull(inlinedMeta.findPipelineHop(output, inlinedMeta.findTransform("out")));
+    assertEquals(3, inlinedMeta.nrPipelineHops());
+
+    // The renames are part of the row metadata
+    //
+    IRowMeta inputFields = inlinedMeta.getTransformFields(variables, input);
+    assertEquals("[b, other]", List.of(inputFields.getFieldNames()).toString());
+    IRowMeta outputFields = inlinedMeta.getTransformFields(variables, output);
+    assertEquals("[a, other]", List.of(outputFields.getFieldNames()).toString());
+
+    // The original pipeline is left alone
+    //
+    assertEquals(3, pipelineMeta.nrTransforms());
+    assertEquals("SimpleMapping", pipelineMeta.findTransform("map").getTransformPluginId());
+  }
+
+  @Test
+  void testNotInlined() throws Exception {
+    PipelineMeta pipelineMeta = createParentPipeline(createMappingFile());
+    SimpleMappingMeta meta = (SimpleMappingMeta) pipelineMeta.findTransform("map").getTransform();
+
+    meta.setRunConfigurationName("local");
+    assertNull(newInliner().inline(pipelineMeta));
+
+    meta.setRunConfigurationName(null);
+    pipelineMeta.findTransform("map").setCopiesString("2");
+    assertNull(newInliner().inline(pipelineMeta));
+
+    pipelineMeta.findTransform("map").setCopiesString("1");
+    meta.setInlining(false);
+    assertNull(newInliner().inline(pipelineMeta));
+  }
+
+  @Test
+  void testInternalVariablesAreNotInlined() throws Exception {
+    InjectorMeta injectorMeta = new InjectorMeta();
+    injectorMeta
+        .getInjectorFields()
+        .add(new InjectorField("folder", "String", "${Internal.Pipeline.Filename.Directory}", ""));
+    PipelineMeta pipelineMeta =
+        createParentPipeline(createMappingFile(new TransformMeta("injector", injectorMeta)));
+
+    assertNull(newInliner().inline(pipelineMeta));
+  }
+
+  private SimpleMappingInliner newInliner() {
+    return new SimpleMappingInliner(LogChannel.GENERAL, variables, new MemoryMetadataProvider());
+  }
+
+  private String createMappingFile() throws Exception {
+    return createMappingFile(null);
+  }
+
+  private String createMappingFile(TransformMeta extraTransform) throws Exception {
+    PipelineMeta mappingMeta = new PipelineMeta();
+    mappingMeta.setName("mapping");
+    TransformMeta input = new TransformMeta("input", new MappingInputMeta());
+    TransformMeta output = new TransformMeta("output", new MappingOutputMeta());
+    mappingMeta.addTransform(input);
+    mappingMeta.addTransform(output);
+    mappingMeta.addPipelineHop(new PipelineHopMeta(input, output));
+    if (extraTransform != null) {
+      mappingMeta.addTransform(extraTransform);
+    }
+
+    Path file = folder.resolve("mapping.hpl");
+    Files.writeString(
+        file, XmlHandler.getXmlHeader() + mappingMeta.getXml(variables), StandardCharsets.UTF_8);
+    return file.toString();
+  }
+
+  private PipelineMeta createParentPipeline(String mappingFilename) {
+    PipelineMeta pipelineMeta = new PipelineMeta();
+
+    InjectorMeta injectorMeta = new InjectorMeta();
+    injectorMeta.getInjectorFields().add(new InjectorField("a", "String", "", ""));
+    injectorMeta.getInjectorFields().add(new InjectorField("other", "Integer", "", ""));
+    TransformMeta in = new TransformMeta("in", injectorMeta);
+
+    SimpleMappingMeta mappingMeta = new SimpleMappingMeta();
+    mappingMeta.setDefault();
+    mappingMeta.setFilename(mappingFilename);
+    mappingMeta.setInlining(true);
+    mappingMeta.getInputMapping().getValueRenames().add(new MappingValueRename("a", "b"));
+    TransformMeta map = new TransformMeta("map", mappingMeta);
+
+    TransformMeta out = new TransformMeta("out", new DummyMeta());
+
+    pipelineMeta.addTransform(in);
+    pipelineMeta.addTransform(map);
+    pipelineMeta.addTransform(out);
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(in, map));
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(map, out));
+    return pipelineMeta;
+  }
+}
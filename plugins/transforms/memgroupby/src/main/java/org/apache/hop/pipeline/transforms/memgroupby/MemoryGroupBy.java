@@ -17,6 +17,9 @@
 
 package org.apache.hop.pipeline.transforms.memgroupby;
 
+import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.GroupType.ApproxCountDistinct;
+import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.GroupType.ApproxPercentile;
+import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.GroupType.ApproxTopK;
 import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.GroupType.CountAll;
 import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.GroupType.CountAny;
 import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.GroupType.CountDistinct;
@@ -39,9 +42,13 @@ import org.apache.hop.core.row.RowDataUtil;
 import org.apache.hop.core.row.RowMeta;
 import org.apache.hop.core.row.ValueDataUtil;
 import org.apache.hop.core.row.value.ValueMetaBase;
+import org.apache.hop.core.row.value.ValueMetaBinary;
 import org.apache.hop.core.row.value.ValueMetaInteger;
 import org.apache.hop.core.row.value.ValueMetaNumber;
 import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.sketch.HyperLogLog;
+import org.apache.hop.core.sketch.QuantileSketch;
+import org.apache.hop.core.sketch.TopKSketch;
 import org.apache.hop.core.util.Utils;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
@@ -83,6 +90,15 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
       val = getVariable(Const.HOP_AGGREGATION_MIN_NULL_IS_VALUED, "N");
       minNullIsValued = ValueMetaBase.convertStringToBoolean(val);
 
+      data.percentileFractions = new double[meta.getAggregates().size()];
+      for (int i = 0; i < data.percentileFractions.length; i++) {
+        GAggregate agg = meta.getAggregates().get(i);
+        data.percentileFractions[i] =
+            agg.getType() == ApproxPercentile
+                ? toPercentileFraction(resolve(agg.getValueField()), agg.getField())
+                : 0.5;
+      }
+
       // What is the output looking like?
       //
       data.inputRowMeta = getInputRowMeta();
@@ -386,6 +402,15 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
             set.add(subj);
           }
           break;
+        case ApproxCountDistinct, CountDistinctSketch:
+          ((HyperLogLog) value).addValue(subjMeta, subj);
+          break;
+        case ApproxMedian, ApproxPercentile, PercentileSketch:
+          ((QuantileSketch) value).addValue(subjMeta, subj);
+          break;
+        case ApproxTopK, TopKValuesSketch:
+          ((TopKSketch) value).addValue(subjMeta, subj);
+          break;
         default:
           break;
       }
@@ -447,13 +472,40 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
           vMeta = new ValueMetaString(agg.getField());
           v = new TreeSet<>();
           break;
+        case ApproxCountDistinct:
+          vMeta = new ValueMetaInteger(agg.getField());
+          v = new HyperLogLog();
+          break;
+        case ApproxMedian, ApproxPercentile:
+          vMeta = new ValueMetaNumber(agg.getField());
+          v = new QuantileSketch();
+          break;
+        case ApproxTopK:
+          vMeta = new ValueMetaString(agg.getField());
+          v = new TopKSketch(getTopKCapacity(agg));
+          break;
+        case CountDistinctSketch:
+          vMeta = new ValueMetaBinary(agg.getField());
+          v = new HyperLogLog();
+          break;
+        case PercentileSketch:
+          vMeta = new ValueMetaBinary(agg.getField());
+          v = new QuantileSketch();
+          break;
+        case TopKValuesSketch:
+          vMeta = new ValueMetaBinary(agg.getField());
+          v = new TopKSketch(getTopKCapacity(agg));
+          break;
         default:
           throw new HopException("Unknown data type for aggregation : " + agg.getField());
       }
 
       if (agg.getType() != CountAll
           && agg.getType() != CountDistinct
-          && agg.getType() != CountAny) {
+          && agg.getType() != CountAny
+          && agg.getType() != ApproxCountDistinct
+          && agg.getType() != ApproxTopK
+          && vMeta.getType() != IValueMeta.TYPE_BINARY) {
         vMeta.setLength(subjMeta.getLength(), subjMeta.getPrecision());
       }
       if (aggregate == null) {
@@ -536,6 +588,29 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
           }
           ag = joiner.toString();
           break;
+        case ApproxCountDistinct:
+          ag = ((HyperLogLog) ag).estimate();
+          break;
+        case ApproxMedian, ApproxPercentile:
+          QuantileSketch quantileSketch = (QuantileSketch) ag;
+          ag =
+              quantileSketch.getCount() == 0
+                  ? null
+                  : quantileSketch.quantile(data.percentileFractions[i]);
+          break;
+        case ApproxTopK:
+          TopKSketch topKSketch = (TopKSketch) ag;
+          ag = topKSketch.getTotal() == 0 ? null : topKSketch.format(getTopK(agg));
+          break;
+        case CountDistinctSketch:
+          ag = ((HyperLogLog) ag).toBytes();
+          break;
+        case PercentileSketch:
+          ag = ((QuantileSketch) ag).toBytes();
+          break;
+        case TopKValuesSketch:
+          ag = ((TopKSketch) ag).toBytes();
+          break;
         default:
           break;
       }
@@ -550,6 +625,32 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
     return result;
   }
 
+  /**
+   * @param percentile The resolved percentile of an approximate percentile aggregation
+   * @param field The name of the aggregation field
+   * @return The percentile as a fraction
+   * @throws HopException If the percentile isn't a number between 0 and 100
+   */
+  static double toPercentileFraction(String percentile, String field) throws HopException {
+    double value = Const.toDouble(percentile, Double.NaN);
+    if (!(value >= 0 && value <= 100)) {
+      throw new HopException(
+          BaseMessages.getString(
+              PKG, "MemoryGroupBy.Exception.InvalidPercentile", percentile, field));
+    }
+    return value / 100;
+  }
+
+  /** The number of most frequent values to return, 10 unless specified in the value field */
+  private int getTopK(GAggregate agg) {
+    return Math.max(1, Const.toInt(resolve(agg.getValueField()), 10));
+  }
+
+  /** Track more candidates than returned values to make the returned ones more reliable */
+  private int getTopKCapacity(GAggregate agg) {
+    return Math.max(TopKSketch.DEFAULT_CAPACITY, 4 * getTopK(agg));
+  }
+
   @Override
   public boolean init() {
 
@@ -75,6 +75,9 @@ public class MemoryGroupByData extends BaseTransformData implements ITransformDa
   public int[] groupnrs;
   public int[] subjectnrs;
 
+  /** The percentile of every aggregation as a fraction, for the approximate percentiles */
+  public double[] percentileFractions;
+
   public boolean firstRead;
 
   public Object[] groupResult;
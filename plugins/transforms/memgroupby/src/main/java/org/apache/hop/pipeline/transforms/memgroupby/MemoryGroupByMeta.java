@@ -142,7 +142,7 @@ public class MemoryGroupByMeta extends BaseTransformMeta<MemoryGroupBy, MemoryGr
             valueType = subj.getType();
             mask = subj.getConversionMask();
             break;
-          case CountDistinct, CountAll, CountAny:
+          case CountDistinct, CountAll, CountAny, ApproxCountDistinct:
             valueType = IValueMeta.TYPE_INTEGER;
             mask = "0";
             break;
@@ -154,13 +154,16 @@ public class MemoryGroupByMeta extends BaseTransformMeta<MemoryGroupBy, MemoryGr
             }
             mask = subj.getConversionMask();
             break;
-          case Median, Percentile, StandardDeviation:
+          case Median, Percentile, StandardDeviation, ApproxMedian, ApproxPercentile:
             valueType = IValueMeta.TYPE_NUMBER;
             mask = subj.getConversionMask();
             break;
-          case ConcatComma, ConcatString, ConcatDistinct:
+          case ConcatComma, ConcatString, ConcatDistinct, ApproxTopK:
             valueType = IValueMeta.TYPE_STRING;
             break;
+          case CountDistinctSketch, PercentileSketch, TopKValuesSketch:
+            valueType = IValueMeta.TYPE_BINARY;
+            break;
           default:
             break;
         }
@@ -286,11 +289,17 @@ public class MemoryGroupByMeta extends BaseTransformMeta<MemoryGroupBy, MemoryGr
 
     String[] subjectFields = new String[meta.getAggregates().size()];
     String[] aggregateCodes = new String[meta.getAggregates().size()];
+    String[] aggregateValues = new String[meta.getAggregates().size()];
 
     for (int i = 0; i < meta.getAggregates().size(); i++) {
       GAggregate aggregate = meta.getAggregates().get(i);
 
       aggregateCodes[i] = aggregate.getType().getCode();
+      aggregateValues[i] = variables.resolve(aggregate.getValueField());
+      if (aggregate.getType() == GroupType.ApproxPercentile) {
+        // Fail before the pipeline runs instead of when the first group ends
+        MemoryGroupBy.toPercentileFraction(aggregateValues[i], aggregate.getField());
+      }
       subjectFields[i] = aggregate.getSubject();
     }
 
@@ -304,6 +313,7 @@ public class MemoryGroupByMeta extends BaseTransformMeta<MemoryGroupBy, MemoryGr
             groups.toArray(new String[0]),
             subjectFields,
             aggregateCodes,
+            aggregateValues,
             new String[] {});
 
     // Apply the transform to the previous io transform PCollection(s)
@@ -359,7 +369,28 @@ public class MemoryGroupByMeta extends BaseTransformMeta<MemoryGroupBy, MemoryGr
         "COUNT_ANY", BaseMessages.getString(PKG, "MemoryGroupByMeta.TypeGroupLongDesc.COUNT_ANY")),
     ConcatDistinct(
         "CONCAT_DISTINCT",
-        BaseMessages.getString(PKG, "MemoryGroupByMeta.TypeGroupLongDesc.CONCAT_DISTINCT"));
+        BaseMessages.getString(PKG, "MemoryGroupByMeta.TypeGroupLongDesc.CONCAT_DISTINCT")),
+    ApproxCountDistinct(
+        "APPROX_COUNT_DISTINCT",
+        BaseMessages.getString(PKG, "MemoryGroupByMeta.TypeGroupLongDesc.APPROX_COUNT_DISTINCT")),
+    ApproxMedian(
+        "APPROX_MEDIAN",
+        BaseMessages.getString(PKG, "MemoryGroupByMeta.TypeGroupLongDesc.APPROX_MEDIAN")),
+    ApproxPercentile(
+        "APPROX_PERCENTILE",
+        BaseMessages.getString(PKG, "MemoryGroupByMeta.TypeGroupLongDesc.APPROX_PERCENTILE")),
+    ApproxTopK(
+        "APPROX_TOP_K",
+        BaseMessages.getString(PKG, "MemoryGroupByMeta.TypeGroupLongDesc.APPROX_TOP_K")),
+    CountDistinctSketch(
+        "COUNT_DISTINCT_SKETCH",
+        BaseMessages.getString(PKG, "MemoryGroupByMeta.TypeGroupLongDesc.COUNT_DISTINCT_SKETCH")),
+    PercentileSketch(
+        "PERCENTILE_SKETCH",
+        BaseMessages.getString(PKG, "MemoryGroupByMeta.TypeGroupLongDesc.PERCENTILE_SKETCH")),
+    TopKValuesSketch(
+        "TOP_K_SKETCH",
+        BaseMessages.getString(PKG, "MemoryGroupByMeta.TypeGroupLongDesc.TOP_K_SKETCH"));
 
     private String code;
     private String description;
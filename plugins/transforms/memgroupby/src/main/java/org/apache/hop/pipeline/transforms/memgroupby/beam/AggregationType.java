@@ -29,6 +29,13 @@ public enum AggregationType {
   LAST_INCL_NULL,
   FIRST,
   LAST,
+  APPROX_COUNT_DISTINCT,
+  APPROX_MEDIAN,
+  APPROX_PERCENTILE,
+  APPROX_TOP_K,
+  COUNT_DISTINCT_SKETCH,
+  PERCENTILE_SKETCH,
+  TOP_K_SKETCH,
   ;
 
   public static final AggregationType getTypeFromName(String name) throws HopException {
@@ -24,11 +24,15 @@ import org.apache.beam.sdk.transforms.DoFn;
 import org.apache.beam.sdk.values.KV;
 import org.apache.hop.beam.core.BeamHop;
 import org.apache.hop.beam.core.HopRow;
+import org.apache.hop.core.Const;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.JsonRowMeta;
 import org.apache.hop.core.row.RowDataUtil;
+import org.apache.hop.core.sketch.HyperLogLog;
+import org.apache.hop.core.sketch.QuantileSketch;
+import org.apache.hop.core.sketch.TopKSketch;
 import org.apache.hop.pipeline.Pipeline;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,6 +43,7 @@ public class GroupByFn extends DoFn<KV<HopRow, Iterable<HopRow>>, HopRow> {
   private String groupRowMetaJson; // The data types of the group fields
   private String subjectRowMetaJson; // The data types of the subject fields
   private String[] aggregations; // The aggregation types
+  private String[] aggregationValues; // The arguments of the aggregations like a percentile
 
   private static final Logger LOG = LoggerFactory.getLogger(GroupByFn.class);
 
@@ -58,11 +63,13 @@ public class GroupByFn extends DoFn<KV<HopRow, Iterable<HopRow>>, HopRow> {
       String counterName,
       String groupRowMetaJson,
       String subjectRowMetaJson,
-      String[] aggregations) {
+      String[] aggregations,
+      String[] aggregationValues) {
     this.counterName = counterName;
     this.groupRowMetaJson = groupRowMetaJson;
     this.subjectRowMetaJson = subjectRowMetaJson;
     this.aggregations = aggregations;
+    this.aggregationValues = aggregationValues;
   }
 
   @Setup
@@ -109,7 +116,7 @@ public class GroupByFn extends DoFn<KV<HopRow, Iterable<HopRow>>, HopRow> {
       Object[] results = new Object[aggregationTypes.length];
       long[] counts = new long[aggregationTypes.length];
       for (int i = 0; i < results.length; i++) {
-        results[i] = null;
+        results[i] = newSketch(i);
         counts[i] = 0L;
       }
 
@@ -199,6 +206,15 @@ public class GroupByFn extends DoFn<KV<HopRow, Iterable<HopRow>>, HopRow> {
                 result = subject;
               }
               break;
+            case APPROX_COUNT_DISTINCT, COUNT_DISTINCT_SKETCH:
+              ((HyperLogLog) result).addValue(subjectValueMeta, subject);
+              break;
+            case APPROX_MEDIAN, APPROX_PERCENTILE, PERCENTILE_SKETCH:
+              ((QuantileSketch) result).addValue(subjectValueMeta, subject);
+              break;
+            case APPROX_TOP_K, TOP_K_SKETCH:
+              ((TopKSketch) result).addValue(subjectValueMeta, subject);
+              break;
             default:
               throw new HopException(
                   "Sorry, aggregation type yet: "
@@ -209,11 +225,35 @@ public class GroupByFn extends DoFn<KV<HopRow, Iterable<HopRow>>, HopRow> {
         }
       }
 
-      // Do a pass to correct average
+      // Do a pass to correct average and to get the results of the sketches
       //
       for (int i = 0; i < results.length; i++) {
         IValueMeta subjectValueMeta = subjectRowMeta.getValueMeta(i);
         switch (aggregationTypes[i]) {
+          case APPROX_COUNT_DISTINCT:
+            results[i] = ((HyperLogLog) results[i]).estimate();
+            break;
+          case APPROX_MEDIAN, APPROX_PERCENTILE:
+            QuantileSketch quantileSketch = (QuantileSketch) results[i];
+            double fraction =
+                aggregationTypes[i] == AggregationType.APPROX_MEDIAN
+                    ? 0.5
+                    : Double.parseDouble(aggregationValues[i]) / 100;
+            results[i] = quantileSketch.getCount() == 0 ? null : quantileSketch.quantile(fraction);
+            break;
+          case APPROX_TOP_K:
+            TopKSketch topKSketch = (TopKSketch) results[i];
+            results[i] = topKSketch.getTotal() == 0 ? null : topKSketch.format(getTopK(i));
+            break;
+          case COUNT_DISTINCT_SKETCH:
+            results[i] = ((HyperLogLog) results[i]).toBytes();
+            break;
+          case PERCENTILE_SKETCH:
+            results[i] = ((QuantileSketch) results[i]).toBytes();
+            break;
+          case TOP_K_SKETCH:
+            results[i] = ((TopKSketch) results[i]).toBytes();
+            break;
           case AVERAGE:
             switch (subjectValueMeta.getType()) {
               case IValueMeta.TYPE_NUMBER:
@@ -267,6 +307,22 @@ public class GroupByFn extends DoFn<KV<HopRow, Iterable<HopRow>>, HopRow> {
     }
   }
 
+  /** Create an empty sketch for the sketch based aggregations, null for the others */
+  private Object newSketch(int i) {
+    return switch (aggregationTypes[i]) {
+      case APPROX_COUNT_DISTINCT, COUNT_DISTINCT_SKETCH -> new HyperLogLog();
+      case APPROX_MEDIAN, APPROX_PERCENTILE, PERCENTILE_SKETCH -> new QuantileSketch();
+      case APPROX_TOP_K, TOP_K_SKETCH ->
+          new TopKSketch(Math.max(TopKSketch.DEFAULT_CAPACITY, 4 * getTopK(i)));
+      default -> null;
+    };
+  }
+
+  /** The number of most frequent values to return, 10 unless specified */
+  private int getTopK(int i) {
+    return Math.max(1, Const.toInt(aggregationValues[i], 10));
+  }
+
   /**
    * Gets aggregations
    *
@@ -282,4 +338,20 @@ public class GroupByFn extends DoFn<KV<HopRow, Iterable<HopRow>>, HopRow> {
   public void setAggregations(String[] aggregations) {
     this.aggregations = aggregations;
   }
+
+  /**
+   * Gets aggregationValues
+   *
+   * @return value of aggregationValues
+   */
+  public String[] getAggregationValues() {
+    return aggregationValues;
+  }
+
+  /**
+   * @param aggregationValues The aggregationValues to set
+   */
+  public void setAggregationValues(String[] aggregationValues) {
+    this.aggregationValues = aggregationValues;
+  }
 }
@@ -17,6 +17,7 @@
 
 package org.apache.hop.pipeline.transforms.memgroupby.beam;
 
+import org.apache.beam.sdk.coders.KvCoder;
 import org.apache.beam.sdk.metrics.Counter;
 import org.apache.beam.sdk.metrics.Metrics;
 import org.apache.beam.sdk.transforms.GroupByKey;
@@ -26,6 +27,7 @@ import org.apache.beam.sdk.values.KV;
 import org.apache.beam.sdk.values.PCollection;
 import org.apache.hop.beam.core.BeamHop;
 import org.apache.hop.beam.core.HopRow;
+import org.apache.hop.beam.core.coder.HopRowSchemaCoder;
 import org.apache.hop.beam.core.fn.HopKeyValueFn;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.JsonRowMeta;
@@ -43,6 +45,7 @@ public class GroupByTransform extends PTransform<PCollection<HopRow>, PCollectio
   private String[] groupFields; // The fields to group over
   private String[] subjects; // The subjects to aggregate on
   private String[] aggregations; // The aggregation types
+  private String[] aggregationValues; // The arguments of the aggregations like a percentile
   private String[] resultFields; // The result fields
 
   private static final Logger LOG = LoggerFactory.getLogger(GroupByTransform.class);
@@ -60,12 +63,14 @@ public class GroupByTransform extends PTransform<PCollection<HopRow>, PCollectio
       String[] groupFields,
       String[] subjects,
       String[] aggregations,
+      String[] aggregationValues,
       String[] resultFields) {
     this.transformName = transformName;
     this.rowMetaJson = rowMetaJson;
     this.groupFields = groupFields;
     this.subjects = subjects;
     this.aggregations = aggregations;
+    this.aggregationValues = aggregationValues;
     this.resultFields = resultFields;
   }
 
@@ -93,6 +98,13 @@ public class GroupByTransform extends PTransform<PCollection<HopRow>, PCollectio
           input.apply(
               ParDo.of(new HopKeyValueFn(rowMetaJson, groupFields, subjects, transformName)));
 
+      // The keys can only use the compact coder if it encodes equal keys the same way
+      //
+      HopRowSchemaCoder groupCoder = HopRowSchemaCoder.of(groupRowMeta);
+      if (groupCoder.isDeterministic()) {
+        groupSubjects.setCoder(KvCoder.of(groupCoder, HopRowSchemaCoder.of(subjectRowMeta)));
+      }
+
       // Now we need to aggregate the groups with a Combine
       GroupByKey<HopRow, HopRow> byKey = GroupByKey.<HopRow, HopRow>create();
       PCollection<KV<HopRow, Iterable<HopRow>>> grouped = groupSubjects.apply(byKey);
@@ -112,7 +124,8 @@ public class GroupByTransform extends PTransform<PCollection<HopRow>, PCollectio
                       counterName,
                       JsonRowMeta.toJson(groupRowMeta),
                       JsonRowMeta.toJson(subjectRowMeta),
-                      aggregations)));
+                      aggregations,
+                      aggregationValues)));
 
       return output;
     } catch (Exception e) {
@@ -186,6 +199,22 @@ public class GroupByTransform extends PTransform<PCollection<HopRow>, PCollectio
     this.aggregations = aggregations;
   }
 
+  /**
+   * Gets aggregationValues
+   *
+   * @return value of aggregationValues
+   */
+  public String[] getAggregationValues() {
+    return aggregationValues;
+  }
+
+  /**
+   * @param aggregationValues The aggregationValues to set
+   */
+  public void setAggregationValues(String[] aggregationValues) {
+    this.aggregationValues = aggregationValues;
+  }
+
   /**
    * Gets resultFields
    *
@@ -51,6 +51,7 @@ import org.apache.hop.core.row.value.ValueMetaDate;
 import org.apache.hop.core.row.value.ValueMetaInteger;
 import org.apache.hop.core.row.value.ValueMetaNumber;
 import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.sketch.HyperLogLog;
 import org.apache.hop.core.variables.Variables;
 import org.apache.hop.junit.rules.RestoreHopEngineEnvironmentExtension;
 import org.apache.hop.pipeline.Pipeline;
@@ -258,6 +259,29 @@ class MemoryGroupByAggregationTest {
     assertEquals(3, output.getInteger("value_count_distinct"));
   }
 
+  @Test
+  void testApproximateAggregates() throws Exception {
+    addColumn(new ValueMetaInteger("value"), 1L, 2L, 1L, null, 3L, 1L, 2L);
+
+    aggregates =
+        ImmutableMap.<String, MemoryGroupByMeta.GroupType>builder()
+            .put("approx_count_distinct", MemoryGroupByMeta.GroupType.ApproxCountDistinct)
+            .put("approx_median", MemoryGroupByMeta.GroupType.ApproxMedian)
+            .put("approx_top_k", MemoryGroupByMeta.GroupType.ApproxTopK)
+            .put("distinct_sketch", MemoryGroupByMeta.GroupType.CountDistinctSketch)
+            .build();
+
+    RowMetaAndData output = runTransform();
+
+    assertEquals(3, output.getInteger("value_approx_count_distinct"));
+    assertEquals(1.0, output.getNumber("value_approx_median", Double.NaN));
+    assertEquals("1 (3), 2 (2), 3 (1)", output.getString("value_approx_top_k", null));
+
+    // The sketch can be aggregated again further downstream
+    byte[] sketch = output.getBinary("value_distinct_sketch", null);
+    assertEquals(3, HyperLogLog.fromBytes(sketch).estimate());
+  }
+
   private RowMetaAndData runTransform() throws HopException {
     // Allocate meta
     List<String> aggKeys = ImmutableList.copyOf(aggregates.keySet());
@@ -21,9 +21,14 @@ import com.google.common.annotations.VisibleForTesting;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.IRowSet;
 import org.apache.hop.core.Result;
@@ -39,17 +44,26 @@ import org.apache.hop.core.util.Utils;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.RowProducer;
+import org.apache.hop.pipeline.SingleThreadedPipelineExecutor;
 import org.apache.hop.pipeline.TransformWithMappingMeta;
+import org.apache.hop.pipeline.engine.IEngineComponent;
 import org.apache.hop.pipeline.engine.IPipelineEngine;
 import org.apache.hop.pipeline.engine.PipelineEngineFactory;
+import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
 import org.apache.hop.pipeline.transform.BaseTransform;
+import org.apache.hop.pipeline.transform.RowAdapter;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.injector.InjectorMeta;
 
 /** Execute a pipeline for every input row, set parameters. */
 public class PipelineExecutor extends BaseTransform<PipelineExecutorMeta, PipelineExecutorData> {
 
   private static final Class<?> PKG = PipelineExecutorMeta.class;
 
+  /** The ID of the "Copy rows to result" transform plugin */
+  private static final String ROWS_TO_RESULT_PLUGIN_ID = "RowsToResult";
+
   public PipelineExecutor(
       TransformMeta transformMeta,
       PipelineExecutorMeta meta,
@@ -75,6 +89,8 @@ public class PipelineExecutor extends BaseTransform<PipelineExecutorMeta, Pipeli
 
       if (row == null) {
         executePipeline(null);
+        finishParallelExecutions();
+        disposeReusedPipeline();
         setOutputDone();
         return false;
       }
@@ -226,27 +242,82 @@ public class PipelineExecutor extends BaseTransform<PipelineExecutorMeta, Pipeli
       discardLogLines(pipelineExecutorData);
     }
 
-    IPipelineEngine<PipelineMeta> executorPipeline = createInternalPipeline();
-    pipelineExecutorData.setExecutorPipeline(executorPipeline);
-    if (incomingFieldValues != null) {
-      // Pass parameter values
-      passParametersToPipeline(incomingFieldValues);
-    } else {
-      List<String> lastIncomingFieldValues = getLastIncomingFieldValues();
-      // incomingFieldValues == null-  There are no more rows - Last Case - pass previous values if
-      // exists
+    if (incomingFieldValues == null) {
+      // There are no more rows - Last Case - pass previous values if they exist.
       // If not still pass the null parameter values
-      passParametersToPipeline(
-          !Utils.isEmpty(lastIncomingFieldValues) ? lastIncomingFieldValues : incomingFieldValues);
+      List<String> lastIncomingFieldValues = getLastIncomingFieldValues();
+      if (!Utils.isEmpty(lastIncomingFieldValues)) {
+        incomingFieldValues = lastIncomingFieldValues;
+      }
     }
 
+    if (meta.isReusingPipeline()) {
+      executeReusedPipeline(incomingFieldValues);
+      pipelineExecutorData.groupBuffer.clear();
+      return;
+    }
+
+    // Parallel executions each get their own copy of the pipeline metadata.
+    // The caches it fills while preparing and running a pipeline aren't thread-safe.
+    //
+    PipelineMeta executorPipelineMeta = pipelineExecutorData.getExecutorPipelineMeta();
+    if (pipelineExecutorData.parallelExecutions > 1) {
+      executorPipelineMeta = copyPipelineMeta(executorPipelineMeta);
+    }
+    IPipelineEngine<PipelineMeta> executorPipeline = createInternalPipeline(executorPipelineMeta);
+    pipelineExecutorData.setExecutorPipeline(executorPipeline);
+    passParametersToPipeline(incomingFieldValues);
+
     // keep track for drill down in HopGui...
     getPipeline().addActiveSubPipeline(getTransformName(), executorPipeline);
 
     Result result = new Result();
+
+    if (pipelineExecutorData.parallelExecutions > 1) {
+      // The group buffer is handed over to the execution, start a new one
+      //
+      result.setRows(pipelineExecutorData.groupBuffer);
+      pipelineExecutorData.groupBuffer = new ArrayList<>();
+      executorPipeline.setPreviousResult(result);
+
+      // Wait for the oldest execution if we're running as many executions as allowed.
+      // The results are passed on in the order of the groups.
+      //
+      while (pipelineExecutorData.getRunningExecutions().size()
+          >= pipelineExecutorData.parallelExecutions) {
+        collectOldestExecution();
+      }
+      long startTime = pipelineExecutorData.groupTimeStart;
+      Future<Result> future =
+          pipelineExecutorData
+              .getParallelExecutor()
+              .submit(() -> runPipeline(executorPipeline, result));
+      pipelineExecutorData
+          .getRunningExecutions()
+          .add(new GroupExecution(executorPipeline, startTime, future));
+      return;
+    }
+
     result.setRows(pipelineExecutorData.groupBuffer);
     executorPipeline.setPreviousResult(result);
 
+    Result executionResult = runPipeline(executorPipeline, result);
+
+    collectPipelineResults(executionResult);
+    collectExecutionResults(executionResult);
+    collectExecutionResultFiles(executionResult);
+
+    pipelineExecutorData.groupBuffer.clear();
+  }
+
+  /**
+   * Run the pipeline and wait until it's finished.
+   *
+   * @param executorPipeline The pipeline to run
+   * @param result The previous result which is also reported in case of an error
+   * @return The result of the pipeline
+   */
+  private Result runPipeline(IPipelineEngine<PipelineMeta> executorPipeline, Result result) {
     try {
       executorPipeline.prepareExecution();
 
@@ -256,18 +327,172 @@ public class PipelineExecutor extends BaseTransform<PipelineExecutorMeta, Pipeli
       // Wait a while until we're done with the pipeline
       executorPipeline.waitUntilFinished();
 
-      result = executorPipeline.getResult();
+      return executorPipeline.getResult();
     } catch (HopException e) {
       logError("An error occurred executing the pipeline: ", e);
       result.setResult(false);
       result.setNrErrors(1);
+      return result;
     }
+  }
 
+  private void collectOldestExecution() throws HopException {
+    // The execution is only removed once it's finished, so that it can still be stopped
+    //
+    GroupExecution execution = getData().getRunningExecutions().getFirst();
+    Result result;
+    try {
+      result = execution.result.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HopException("Interrupted while waiting for the pipeline to finish", e);
+    } catch (ExecutionException e) {
+      throw new HopException("Error executing the pipeline", e.getCause());
+    } finally {
+      getData().getRunningExecutions().removeFirst();
+    }
     collectPipelineResults(result);
-    collectExecutionResults(result);
+    collectExecutionResults(result, execution.pipeline, execution.startTime);
     collectExecutionResultFiles(result);
+  }
 
-    pipelineExecutorData.groupBuffer.clear();
+  private void finishParallelExecutions() throws HopException {
+    PipelineExecutorData pipelineExecutorData = getData();
+    if (pipelineExecutorData.getRunningExecutions() != null) {
+      while (!pipelineExecutorData.getRunningExecutions().isEmpty()) {
+        collectOldestExecution();
+      }
+    }
+  }
+
+  /**
+   * Pass the rows of the current group to the sub-pipeline which is kept alive for all groups and
+   * let it process them in a single iteration.
+   */
+  private void executeReusedPipeline(List<String> incomingFieldValues) throws HopException {
+    PipelineExecutorData pipelineExecutorData = getData();
+    if (pipelineExecutorData.getReusedExecutor() == null) {
+      startReusedPipeline(incomingFieldValues);
+    }
+    SingleThreadedPipelineExecutor executor = pipelineExecutorData.getReusedExecutor();
+    IPipelineEngine<PipelineMeta> executorPipeline = executor.getPipeline();
+
+    for (RowMetaAndData rowMetaAndData : pipelineExecutorData.groupBuffer) {
+      pipelineExecutorData
+          .getReusedRowProducer()
+          .putRow(rowMetaAndData.getRowMeta(), rowMetaAndData.getData());
+    }
+
+    Result result;
+    try {
+      executor.oneIteration();
+      result = executor.getResult();
+    } catch (HopException e) {
+      logError("An error occurred executing the pipeline: ", e);
+      result = new Result();
+      result.setResult(false);
+      result.setNrErrors(1);
+    }
+    result.setRows(new ArrayList<>(pipelineExecutorData.getReusedResultRows()));
+    pipelineExecutorData.getReusedResultRows().clear();
+
+    collectPipelineResults(result);
+    collectExecutionResults(result, executorPipeline, pipelineExecutorData.groupTimeStart);
+    collectExecutionResultFiles(result);
+
+    // Reset the metrics and logging for the next group
+    //
+    executor.buildExecutionSummary();
+    HopLogStore.discardLines(executorPipeline.getLogChannelId(), false);
+
+    // After an error we start over with a fresh sub-pipeline for the next group
+    //
+    if (!result.isResult() || executor.getErrors() > 0 || executor.isStopped()) {
+      disposeReusedPipeline();
+    }
+  }
+
+  private void startReusedPipeline(List<String> incomingFieldValues) throws HopException {
+    PipelineExecutorData pipelineExecutorData = getData();
+    PipelineMeta executorPipelineMeta = pipelineExecutorData.getExecutorPipelineMeta();
+    executorPipelineMeta.setPipelineType(PipelineMeta.PipelineType.SingleThreaded);
+
+    IPipelineEngine<PipelineMeta> engine = createInternalPipeline(executorPipelineMeta);
+    if (!(engine instanceof LocalPipelineEngine executorPipeline)) {
+      throw new HopException(
+          BaseMessages.getString(PKG, "PipelineExecutor.Exception.ReuseNeedsLocalEngine"));
+    }
+    pipelineExecutorData.setExecutorPipeline(executorPipeline);
+
+    // The parameters are set once, with the values of the first group
+    //
+    passParametersToPipeline(incomingFieldValues);
+    executorPipeline.setPreviousResult(new Result());
+    executorPipeline.prepareExecution();
+
+    // The rows of a group are passed to the Injector transform
+    //
+    RowProducer rowProducer = null;
+    for (TransformMeta transformMeta : executorPipelineMeta.getTransforms()) {
+      if (transformMeta.getTransform() instanceof InjectorMeta) {
+        if (rowProducer != null) {
+          throw new HopException(
+              BaseMessages.getString(PKG, "PipelineExecutor.Exception.ReuseNeedsOneInjector"));
+        }
+        rowProducer = executorPipeline.addRowProducer(transformMeta.getName(), 0);
+      }
+    }
+    if (rowProducer == null) {
+      throw new HopException(
+          BaseMessages.getString(PKG, "PipelineExecutor.Exception.ReuseNeedsOneInjector"));
+    }
+    pipelineExecutorData.setReusedRowProducer(rowProducer);
+
+    // The rows which are copied to the result are picked up after every group
+    //
+    List<RowMetaAndData> resultRows = new ArrayList<>();
+    for (TransformMeta transformMeta : executorPipelineMeta.getTransforms()) {
+      if (ROWS_TO_RESULT_PLUGIN_ID.equals(transformMeta.getTransformPluginId())) {
+        for (IEngineComponent component :
+            executorPipeline.getComponentCopies(transformMeta.getName())) {
+          component.addRowListener(
+              new RowAdapter() {
+                @Override
+                public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+                  resultRows.add(new RowMetaAndData(rowMeta, row));
+                }
+              });
+        }
+      }
+    }
+    pipelineExecutorData.setReusedResultRows(resultRows);
+
+    executorPipeline.startThreads();
+
+    SingleThreadedPipelineExecutor executor = new SingleThreadedPipelineExecutor(executorPipeline);
+    if (!executor.init()) {
+      throw new HopException(
+          BaseMessages.getString(PKG, "PipelineExecutor.Exception.ReusedPipelineInitFailed"));
+    }
+    pipelineExecutorData.setReusedExecutor(executor);
+
+    // keep track for drill down in HopGui...
+    getPipeline().addActiveSubPipeline(getTransformName(), executorPipeline);
+  }
+
+  private void disposeReusedPipeline() {
+    PipelineExecutorData pipelineExecutorData = getData();
+    SingleThreadedPipelineExecutor executor = pipelineExecutorData.getReusedExecutor();
+    if (executor != null) {
+      pipelineExecutorData.setReusedExecutor(null);
+      pipelineExecutorData.setReusedRowProducer(null);
+      pipelineExecutorData.setReusedResultRows(null);
+      try {
+        executor.dispose();
+      } catch (Exception e) {
+        logError("Error disposing of the reused sub-pipeline", e);
+      }
+    }
   }
 
   @VisibleForTesting
@@ -282,12 +507,13 @@ public class PipelineExecutor extends BaseTransform<PipelineExecutorMeta, Pipeli
   }
 
   @VisibleForTesting
-  IPipelineEngine<PipelineMeta> createInternalPipeline() throws HopException {
+  IPipelineEngine<PipelineMeta> createInternalPipeline(PipelineMeta executorPipelineMeta)
+      throws HopException {
 
     String runConfigurationName = resolve(meta.getRunConfigurationName());
     IPipelineEngine<PipelineMeta> executorPipeline =
         PipelineEngineFactory.createPipelineEngine(
-            this, runConfigurationName, metadataProvider, getData().getExecutorPipelineMeta());
+            this, runConfigurationName, metadataProvider, executorPipelineMeta);
     executorPipeline.setParentPipeline(getPipeline());
     executorPipeline.setParent(this);
     executorPipeline.setLogLevel(getLogLevel());
@@ -297,6 +523,17 @@ public class PipelineExecutor extends BaseTransform<PipelineExecutorMeta, Pipeli
     return executorPipeline;
   }
 
+  /**
+   * Copy the pipeline metadata for a single execution. A clone loses the name and filename which
+   * are needed for the internal variables of the pipeline.
+   */
+  private static PipelineMeta copyPipelineMeta(PipelineMeta pipelineMeta) {
+    PipelineMeta copy = (PipelineMeta) pipelineMeta.clone();
+    copy.setFilename(pipelineMeta.getFilename());
+    copy.setName(pipelineMeta.getName());
+    return copy;
+  }
+
   @VisibleForTesting
   void passParametersToPipeline(List<String> incomingFieldValues) {
     // The values of the incoming fields from the previous transform.
@@ -415,6 +652,12 @@ public class PipelineExecutor extends BaseTransform<PipelineExecutorMeta, Pipeli
 
   @VisibleForTesting
   void collectExecutionResults(Result result) throws HopException {
+    collectExecutionResults(result, getData().getExecutorPipeline(), getData().groupTimeStart);
+  }
+
+  private void collectExecutionResults(
+      Result result, IPipelineEngine<PipelineMeta> executorPipeline, long startTime)
+      throws HopException {
     IRowSet executionResultsRowSet = getData().getExecutionResultRowSet();
     if (meta.getExecutionResultTargetTransformMeta() != null && executionResultsRowSet != null) {
       Object[] outputRow =
@@ -422,7 +665,7 @@ public class PipelineExecutor extends BaseTransform<PipelineExecutorMeta, Pipeli
       int idx = 0;
 
       if (!Utils.isEmpty(meta.getExecutionTimeField())) {
-        outputRow[idx++] = System.currentTimeMillis() - getData().groupTimeStart;
+        outputRow[idx++] = System.currentTimeMillis() - startTime;
       }
       if (!Utils.isEmpty(meta.getExecutionResultField())) {
         outputRow[idx++] = result.isResult();
@@ -458,12 +701,12 @@ public class PipelineExecutor extends BaseTransform<PipelineExecutorMeta, Pipeli
         outputRow[idx++] = (long) result.getExitStatus();
       }
       if (!Utils.isEmpty(meta.getExecutionLogTextField())) {
-        String channelId = getData().getExecutorPipeline().getLogChannelId();
+        String channelId = executorPipeline.getLogChannelId();
         String logText = HopLogStore.getAppender().getBuffer(channelId, false).toString();
         outputRow[idx++] = logText;
       }
       if (!Utils.isEmpty(meta.getExecutionLogChannelIdField())) {
-        outputRow[idx++] = getData().getExecutorPipeline().getLogChannelId();
+        outputRow[idx++] = executorPipeline.getLogChannelId();
       }
 
       putRowTo(getData().getExecutionResultsOutputRowMeta(), outputRow, executionResultsRowSet);
@@ -519,6 +762,23 @@ public class PipelineExecutor extends BaseTransform<PipelineExecutorMeta, Pipeli
         pipelineExecutorData.groupField = resolve(meta.getGroupField());
       }
 
+      // How many groups can be executed at the same time?
+      // A reused sub-pipeline handles one group at a time.
+      pipelineExecutorData.parallelExecutions =
+          meta.isReusingPipeline() ? 1 : Const.toInt(resolve(meta.getParallelExecutions()), 1);
+      if (pipelineExecutorData.parallelExecutions > 1) {
+        // Stopping the transform walks the running executions from another thread
+        pipelineExecutorData.setRunningExecutions(new ConcurrentLinkedDeque<>());
+        pipelineExecutorData.setParallelExecutor(
+            Executors.newFixedThreadPool(
+                pipelineExecutorData.parallelExecutions,
+                runnable -> {
+                  Thread thread = new Thread(runnable, getTransformName() + " executions");
+                  thread.setDaemon(true);
+                  return thread;
+                }));
+      }
+
       // First we need to load the mapping (pipeline)
       try {
         if ((!meta.isFilenameInField() && Utils.isEmpty(meta.getFilename()))
@@ -543,6 +803,9 @@ public class PipelineExecutor extends BaseTransform<PipelineExecutorMeta, Pipeli
 
   private boolean initPipeline(PipelineExecutorData pipelineExecutorData) throws HopException {
 
+    // A reused sub-pipeline belongs to the previous pipeline file
+    disposeReusedPipeline();
+
     pipelineExecutorData.setExecutorPipelineMeta(loadExecutorPipelineMeta());
 
     // Do we have a pipeline at all?
@@ -566,27 +829,40 @@ public class PipelineExecutor extends BaseTransform<PipelineExecutorMeta, Pipeli
   public void dispose() {
     PipelineExecutorData pipelineExecutorData = getData();
     pipelineExecutorData.groupBuffer = null;
+    disposeReusedPipeline();
+    if (pipelineExecutorData.getParallelExecutor() != null) {
+      pipelineExecutorData.getParallelExecutor().shutdownNow();
+      pipelineExecutorData.setParallelExecutor(null);
+    }
     super.dispose();
   }
 
   @Override
   public void stopRunning() throws HopException {
-    if (getData().getExecutorPipeline() != null) {
-      getData().getExecutorPipeline().stopAll();
-    }
+    stopExecutorPipelines();
   }
 
   @Override
   public void stopAll() {
     // Stop the pipeline execution.
-    if (getData().getExecutorPipeline() != null) {
-      getData().getExecutorPipeline().stopAll();
-    }
+    stopExecutorPipelines();
 
     // Also stop this transform
     super.stopAll();
   }
 
+  private void stopExecutorPipelines() {
+    if (getData().getExecutorPipeline() != null) {
+      getData().getExecutorPipeline().stopAll();
+    }
+    Deque<GroupExecution> runningExecutions = getData().getRunningExecutions();
+    if (runningExecutions != null) {
+      for (GroupExecution execution : runningExecutions) {
+        execution.pipeline.stopAll();
+      }
+    }
+  }
+
   public IPipelineEngine<PipelineMeta> getExecutorPipeline() {
     return getData().getExecutorPipeline();
   }
@@ -609,4 +885,17 @@ public class PipelineExecutor extends BaseTransform<PipelineExecutorMeta, Pipeli
     }
     return lastIncomingFieldValues;
   }
+
+  /** A pipeline execution for a group of rows which runs in parallel with others */
+  static class GroupExecution {
+    private final IPipelineEngine<PipelineMeta> pipeline;
+    private final long startTime;
+    private final Future<Result> result;
+
+    GroupExecution(IPipelineEngine<PipelineMeta> pipeline, long startTime, Future<Result> result) {
+      this.pipeline = pipeline;
+      this.startTime = startTime;
+      this.result = result;
+    }
+  }
 }
@@ -17,7 +17,9 @@
 
 package org.apache.hop.pipeline.transforms.pipelineexecutor;
 
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.hop.core.IRowSet;
@@ -25,6 +27,8 @@ import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.RowProducer;
+import org.apache.hop.pipeline.SingleThreadedPipelineExecutor;
 import org.apache.hop.pipeline.engine.IPipelineEngine;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
@@ -54,6 +58,20 @@ public class PipelineExecutorData extends BaseTransformData implements ITransfor
 
   public Object prevGroupFieldData;
 
+  /** The single threaded executor of the sub-pipeline which is reused for all groups */
+  private SingleThreadedPipelineExecutor reusedExecutor;
+
+  private RowProducer reusedRowProducer;
+
+  /** The result rows of the reused sub-pipeline for the current group */
+  private List<RowMetaAndData> reusedResultRows;
+
+  public int parallelExecutions;
+  private ExecutorService parallelExecutor;
+
+  /** The executions running in parallel, oldest first */
+  private Deque<PipelineExecutor.GroupExecution> runningExecutions;
+
   private IRowSet executorTransformOutputRowSet;
   private IRowSet resultRowsRowSet;
   private IRowSet resultFilesRowSet;
@@ -104,6 +104,9 @@ public class PipelineExecutorDialog extends BaseTransformDialog {
   private CCombo wGroupField;
   private Label wlGroupTime;
   private TextVar wGroupTime;
+  private Label wlParallelExecutions;
+  private TextVar wParallelExecutions;
+  private Button wReusePipeline;
 
   private CCombo wExecutionResultTarget;
   private TableItem tiExecutionTimeField;
@@ -426,6 +429,8 @@ public class PipelineExecutorDialog extends BaseTransformDialog {
     wGroupSize.setText(Const.NVL(pipelineExecutorMeta.getGroupSize(), ""));
     wGroupTime.setText(Const.NVL(pipelineExecutorMeta.getGroupTime(), ""));
     wGroupField.setText(Const.NVL(pipelineExecutorMeta.getGroupField(), ""));
+    wReusePipeline.setSelection(pipelineExecutorMeta.isReusingPipeline());
+    wParallelExecutions.setText(Const.NVL(pipelineExecutorMeta.getParallelExecutions(), ""));
 
     wExecutionResultTarget.setText(
         pipelineExecutorMeta.getExecutionResultTargetTransformMeta() == null
@@ -783,6 +788,57 @@ public class PipelineExecutorDialog extends BaseTransformDialog {
     fdGroupTime.left = new FormAttachment(middle, 0);
     wGroupTime.setLayoutData(fdGroupTime);
 
+    // Reuse the pipeline for all groups?
+    //
+    Label wlReusePipeline = new Label(wInputComposite, SWT.RIGHT);
+    PropsUi.setLook(wlReusePipeline);
+    wlReusePipeline.setText(
+        BaseMessages.getString(PKG, "PipelineExecutorDialog.ReusePipeline.Label"));
+    wlReusePipeline.setToolTipText(
+        BaseMessages.getString(PKG, "PipelineExecutorDialog.ReusePipeline.Tooltip"));
+    FormData fdlReusePipeline = new FormData();
+    fdlReusePipeline.top = new FormAttachment(wGroupTime, 10);
+    fdlReusePipeline.left = new FormAttachment(0, 0);
+    fdlReusePipeline.right = new FormAttachment(middle, -margin);
+    wlReusePipeline.setLayoutData(fdlReusePipeline);
+
+    wReusePipeline = new Button(wInputComposite, SWT.CHECK);
+    PropsUi.setLook(wReusePipeline);
+    wReusePipeline.setToolTipText(
+        BaseMessages.getString(PKG, "PipelineExecutorDialog.ReusePipeline.Tooltip"));
+    FormData fdReusePipeline = new FormData();
+    fdReusePipeline.right = new FormAttachment(100);
+    fdReusePipeline.top = new FormAttachment(wlReusePipeline, 0, SWT.CENTER);
+    fdReusePipeline.left = new FormAttachment(middle, 0);
+    wReusePipeline.setLayoutData(fdReusePipeline);
+    // A reused pipeline handles one group at a time
+    wReusePipeline.addListener(SWT.Selection, e -> setFlags());
+
+    // Parallel executions
+    //
+    wlParallelExecutions = new Label(wInputComposite, SWT.RIGHT);
+    PropsUi.setLook(wlParallelExecutions);
+    wlParallelExecutions.setText(
+        BaseMessages.getString(PKG, "PipelineExecutorDialog.ParallelExecutions.Label"));
+    wlParallelExecutions.setToolTipText(
+        BaseMessages.getString(PKG, "PipelineExecutorDialog.ParallelExecutions.Tooltip"));
+    FormData fdlParallelExecutions = new FormData();
+    fdlParallelExecutions.top = new FormAttachment(wReusePipeline, 10);
+    fdlParallelExecutions.left = new FormAttachment(0, 0);
+    fdlParallelExecutions.right = new FormAttachment(middle, -margin);
+    wlParallelExecutions.setLayoutData(fdlParallelExecutions);
+
+    wParallelExecutions =
+        new TextVar(variables, wInputComposite, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    PropsUi.setLook(wParallelExecutions);
+    wParallelExecutions.setToolTipText(
+        BaseMessages.getString(PKG, "PipelineExecutorDialog.ParallelExecutions.Tooltip"));
+    FormData fdParallelExecutions = new FormData();
+    fdParallelExecutions.right = new FormAttachment(100);
+    fdParallelExecutions.top = new FormAttachment(wlParallelExecutions, 0, SWT.CENTER);
+    fdParallelExecutions.left = new FormAttachment(middle, 0);
+    wParallelExecutions.setLayoutData(fdParallelExecutions);
+
     wTab.setControl(wInputComposite);
     wTabFolder.setSelection(wTab);
   }
@@ -1119,7 +1175,9 @@ public class PipelineExecutorDialog extends BaseTransformDialog {
         || wlGroupField == null
         || wGroupField == null
         || wlGroupTime == null
-        || wGroupTime == null) {
+        || wGroupTime == null
+        || wReusePipeline == null
+        || wParallelExecutions == null) {
       return;
     }
     boolean enableSize = Const.toInt(variables.resolve(wGroupSize.getText()), -1) >= 0;
@@ -1131,6 +1189,8 @@ public class PipelineExecutorDialog extends BaseTransformDialog {
     wGroupField.setEnabled(!enableSize);
     wlGroupTime.setEnabled(!enableSize && !enableField);
     wGroupTime.setEnabled(!enableSize && !enableField);
+    wlParallelExecutions.setEnabled(!wReusePipeline.getSelection());
+    wParallelExecutions.setEnabled(!wReusePipeline.getSelection());
   }
 
   private void cancel() {
@@ -1219,6 +1279,8 @@ public class PipelineExecutorDialog extends BaseTransformDialog {
     pipelineExecutorMeta.setGroupSize(wGroupSize.getText());
     pipelineExecutorMeta.setGroupField(wGroupField.getText());
     pipelineExecutorMeta.setGroupTime(wGroupTime.getText());
+    pipelineExecutorMeta.setReusingPipeline(wReusePipeline.getSelection());
+    pipelineExecutorMeta.setParallelExecutions(wParallelExecutions.getText());
 
     pipelineExecutorMeta.setExecutionResultTargetTransform(wExecutionResultTarget.getText());
     pipelineExecutorMeta.setExecutionResultTargetTransformMeta(
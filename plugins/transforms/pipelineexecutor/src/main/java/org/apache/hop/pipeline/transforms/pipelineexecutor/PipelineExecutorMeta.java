@@ -107,6 +107,20 @@ public class PipelineExecutorMeta
   @HopMetadataProperty(key = "group_time")
   private String groupTime;
 
+  /**
+   * Keep one single threaded sub-pipeline alive for all the groups of rows. The rows of every group
+   * are passed to the Injector transform of the sub-pipeline.
+   */
+  @HopMetadataProperty(key = "reuse_pipeline")
+  private boolean reusingPipeline;
+
+  /**
+   * The maximum number of groups of rows for which the pipeline is executed at the same time. Empty
+   * or "1" executes the groups one after the other.
+   */
+  @HopMetadataProperty(key = "parallel_executions")
+  private String parallelExecutions;
+
   @HopMetadataProperty(key = "variable_mapping", groupKey = "parameters")
   private List<PipelineExecutorParameters> parameters;
 
@@ -269,6 +283,8 @@ public class PipelineExecutorMeta
     groupSize = "1";
     groupField = "";
     groupTime = "";
+    reusingPipeline = false;
+    parallelExecutions = "";
 
     executionTimeField = "ExecutionTime";
     executionResultField = "ExecutionResult";
@@ -19,6 +19,7 @@ package org.apache.hop.pipeline.transforms.pipelineexecutor;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.apache.hop.pipeline.transform.TransformSerializationTestUtil;
 import org.junit.jupiter.api.Test;
@@ -33,6 +34,8 @@ class PipelineExecutorMetaTest {
 
     assertEquals("${PROJECT_HOME}/loops/child-loops-log-counter.hpl", meta.getFilename());
     assertEquals("execution results", meta.getExecutionResultTargetTransform());
+    assertTrue(meta.isReusingPipeline());
+    assertEquals("4", meta.getParallelExecutions());
     assertEquals("ExecutionTime", meta.getExecutionTimeField());
     assertEquals("ExecutionResult", meta.getExecutionResultField());
     assertEquals("ExecutionNrErrors", meta.getExecutionNrErrorsField());
@@ -66,6 +69,8 @@ class PipelineExecutorMetaTest {
     assertEquals(
         meta.getExecutionResultTargetTransform(), clone.getExecutionResultTargetTransform());
     assertEquals(meta.getExecutionTimeField(), clone.getExecutionTimeField());
+    assertEquals(meta.isReusingPipeline(), clone.isReusingPipeline());
+    assertEquals(meta.getParallelExecutions(), clone.getParallelExecutions());
     assertEquals(meta.getExecutionResultField(), clone.getExecutionResultField());
     assertEquals(meta.getExecutionNrErrorsField(), clone.getExecutionNrErrorsField());
     assertEquals(meta.getExecutionLinesReadField(), clone.getExecutionLinesReadField());
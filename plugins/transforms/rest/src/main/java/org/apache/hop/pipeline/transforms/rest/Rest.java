@@ -55,8 +55,16 @@ import org.apache.hop.metadata.rest.RestConnection;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
+import org.apache.hop.pipeline.transform.ConcurrentRowCalls;
 import org.apache.hop.pipeline.transform.TransformMeta;
 import org.apache.hop.pipeline.transforms.rest.common.RestConst;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.glassfish.jersey.apache.connector.ApacheClientProperties;
 import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
 import org.glassfish.jersey.client.ClientConfig;
 import org.glassfish.jersey.client.ClientProperties;
@@ -104,19 +112,24 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
   @SuppressWarnings("java:S5527")
   protected Object[] callRest(Object[] rowData) throws HopException {
 
+    // The URL and method of this row. With concurrent requests several rows are called at the
+    // same time, so these are kept out of the shared data.
+    String url = data.realUrl;
+    String method = data.method;
+
     // get dynamic url ?
     if (meta.isUrlInField()) {
       if (!Utils.isEmpty(data.connectionName)) {
-        data.realUrl = baseUrl + data.inputRowMeta.getString(rowData, data.indexOfUrlField);
+        url = baseUrl + data.inputRowMeta.getString(rowData, data.indexOfUrlField);
       } else {
-        data.realUrl = data.inputRowMeta.getString(rowData, data.indexOfUrlField);
+        url = data.inputRowMeta.getString(rowData, data.indexOfUrlField);
       }
     }
 
     // get dynamic method?
     if (meta.isDynamicMethod()) {
-      data.method = data.inputRowMeta.getString(rowData, data.indexOfMethod);
-      if (Utils.isEmpty(data.method)) {
+      method = data.inputRowMeta.getString(rowData, data.indexOfMethod);
+      if (Utils.isEmpty(method)) {
         throw new HopException(BaseMessages.getString(PKG, "Rest.Error.MethodMissing"));
       }
     }
@@ -130,27 +143,19 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
     }
     try {
       if (isDetailed()) {
-        logDetailed(BaseMessages.getString(PKG, "Rest.Log.ConnectingToURL", data.realUrl));
+        logDetailed(BaseMessages.getString(PKG, "Rest.Log.ConnectingToURL", url));
       }
       if (!StringUtils.isEmpty(meta.getConnectionName())) {
-        invocationBuilder = connection.getInvocationBuilder(data.realUrl);
-      } else {
-        ClientBuilder clientBuilder = createClientBuilder();
-        clientBuilder
-            .withConfig(data.config)
-            .property(HttpUrlConnectorProvider.SET_METHOD_WORKAROUND, true);
-
-        if (meta.isIgnoreSsl() || !Utils.isEmpty(data.trustStoreFile)) {
-          clientBuilder.hostnameVerifier((s1, s2) -> true);
-          clientBuilder.sslContext(data.sslContext);
+        // The connection keeps the state of the last request
+        synchronized (connection) {
+          invocationBuilder = connection.getInvocationBuilder(url);
         }
+      } else {
+        // With concurrent requests all calls share one client and its connection pool
+        client = data.client != null ? data.client : buildClient();
 
-        client = clientBuilder.build();
-        if (data.basicAuthentication != null) {
-          client.register(data.basicAuthentication);
-        }
         // create a WebResource object, which encapsulates a web resource for the client
-        webResource = client.target(data.realUrl);
+        webResource = client.target(url);
 
         // used for calculating the responseTime
         startTime = System.currentTimeMillis();
@@ -239,16 +244,18 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
       // execute first call
       invocationBuilder.headers(headerMap);
       final Invocation.Builder finalInvocationBuilder = invocationBuilder;
+      final String finalMethod = method;
       final String finalEntityString = entityString;
       final String finalContentType = contentType;
 
       // add retry
       response =
           executeWithRetry(
+              method,
               () -> {
                 try {
                   return executeRequest(
-                      finalInvocationBuilder, finalEntityString, finalContentType);
+                      finalInvocationBuilder, finalMethod, finalEntityString, finalContentType);
                 } catch (HopException e) {
                   throw new RuntimeException(e);
                 }
@@ -262,7 +269,7 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
       if (isDetailed()) {
         logDetailed(
             BaseMessages.getString(
-                PKG, "Rest.Log.ResponseTime", String.valueOf(responseTime), data.realUrl));
+                PKG, "Rest.Log.ResponseTime", String.valueOf(responseTime), url));
       }
 
       // Get status
@@ -288,8 +295,7 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
         if (errorMessage != null
             && errorMessage.contains("Too many \"Content-Type\" header values")) {
           throw new HopException(
-              BaseMessages.getString(
-                  PKG, "Rest.Error.DuplicateContentType", data.realUrl, errorMessage),
+              BaseMessages.getString(PKG, "Rest.Error.DuplicateContentType", url, errorMessage),
               ex);
         }
         // For other ProcessingExceptions, try fallback to raw InputStream
@@ -305,7 +311,7 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
             }
             // If fallback also fails, throw with original exception context
             throw new HopException(
-                BaseMessages.getString(PKG, "Rest.Error.CanNotReadResponse", data.realUrl), ex);
+                BaseMessages.getString(PKG, "Rest.Error.CanNotReadResponse", url), ex);
           }
         } else {
           if (isDetailed()) {
@@ -325,7 +331,7 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
               logDetailed("Unable to read response entity as String", ioEx);
             }
             throw new HopException(
-                BaseMessages.getString(PKG, "Rest.Error.CanNotReadResponse", data.realUrl), ex);
+                BaseMessages.getString(PKG, "Rest.Error.CanNotReadResponse", url), ex);
           }
         } else {
           if (isDetailed()) {
@@ -370,20 +376,38 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
         newRow = RowDataUtil.addValueData(newRow, returnFieldsOffset, headerString);
       }
     } catch (Exception e) {
-      throw new HopException(
-          BaseMessages.getString(PKG, "Rest.Error.CanNotReadURL", data.realUrl), e);
+      throw new HopException(BaseMessages.getString(PKG, "Rest.Error.CanNotReadURL", url), e);
     } finally {
       if (webResource != null) {
         webResource = null;
       }
-      if (client != null) {
+      if (client != null && client != data.client) {
         client.close();
       }
     }
     return newRow;
   }
 
-  private Response executeWithRetry(Supplier<Response> requestSupplier) throws HopException {
+  private Client buildClient() {
+    ClientBuilder clientBuilder = createClientBuilder();
+    clientBuilder
+        .withConfig(data.config)
+        .property(HttpUrlConnectorProvider.SET_METHOD_WORKAROUND, true);
+
+    if (meta.isIgnoreSsl() || !Utils.isEmpty(data.trustStoreFile)) {
+      clientBuilder.hostnameVerifier((s1, s2) -> true);
+      clientBuilder.sslContext(data.sslContext);
+    }
+
+    Client client = clientBuilder.build();
+    if (data.basicAuthentication != null) {
+      client.register(data.basicAuthentication);
+    }
+    return client;
+  }
+
+  private Response executeWithRetry(String method, Supplier<Response> requestSupplier)
+      throws HopException {
     int maxRetries =
         meta.getRetryTimes() != null ? meta.getRetryTimes() : RestConst.DEFAULT_RETRY_TIMES;
     long baseDelay =
@@ -391,7 +415,7 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
     List<String> retryMethods = meta.getRetryMethods();
     Exception lastException = null;
 
-    if (retryMethods == null || retryMethods.isEmpty() || !retryMethods.contains(data.method)) {
+    if (retryMethods == null || retryMethods.isEmpty() || !retryMethods.contains(method)) {
       return requestSupplier.get();
     }
 
@@ -405,7 +429,7 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
           return response;
         }
 
-        logRetry(attempt, maxRetries, status);
+        logRetry(attempt, maxRetries, status, method);
         if (attempt >= maxRetries) {
           throw new HopException("Request failed after retries, status: " + status);
         }
@@ -450,11 +474,10 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
   }
 
   /** Logs retry attempt information at detailed log level. */
-  private void logRetry(int attempt, int maxRetries, int status) {
+  private void logRetry(int attempt, int maxRetries, int status, String method) {
     if (isDetailed()) {
       logDetailed(
-          "Retry rest {0}/{1}, status: {2}, method: {3}",
-          attempt + 1, maxRetries, status, meta.getMethod());
+          "Retry rest {0}/{1}, status: {2}, method: {3}", attempt + 1, maxRetries, status, method);
     }
   }
 
@@ -483,10 +506,10 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
   }
 
   private Response executeRequest(
-      Invocation.Builder invocationBuilder, String entityString, String contentType)
+      Invocation.Builder invocationBuilder, String method, String entityString, String contentType)
       throws HopException {
     try {
-      switch (data.method) {
+      switch (method) {
         case RestMeta.HTTP_METHOD_GET -> {
           return invocationBuilder.get(Response.class);
         }
@@ -525,8 +548,7 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
           }
         }
         default ->
-            throw new HopException(
-                BaseMessages.getString(PKG, "Rest.Error.UnknownMethod", data.method));
+            throw new HopException(BaseMessages.getString(PKG, "Rest.Error.UnknownMethod", method));
       }
     } catch (Exception e) {
       throw new HopException("Request could not be processed", e);
@@ -599,7 +621,28 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
       if (meta.isIgnoreSsl()) {
         setTrustAll();
       }
+      // CONNECTION POOL, keeps a connection alive for every concurrent request
+      if (data.concurrentRequests > 1) {
+        data.config.property(ApacheClientProperties.CONNECTION_MANAGER, createConnectionManager());
+      }
+    }
+  }
+
+  private PoolingHttpClientConnectionManager createConnectionManager() {
+    PoolingHttpClientConnectionManager connectionManager;
+    if (data.sslContext != null) {
+      Registry<ConnectionSocketFactory> socketFactoryRegistry =
+          RegistryBuilder.<ConnectionSocketFactory>create()
+              .register("https", new SSLConnectionSocketFactory(data.sslContext, (s1, s2) -> true))
+              .register("http", PlainConnectionSocketFactory.getSocketFactory())
+              .build();
+      connectionManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry);
+    } else {
+      connectionManager = new PoolingHttpClientConnectionManager();
     }
+    connectionManager.setMaxTotal(data.concurrentRequests);
+    connectionManager.setDefaultMaxPerRoute(data.concurrentRequests);
+    return connectionManager;
   }
 
   private void setTrustAll() throws HopException {
@@ -649,6 +692,13 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
 
     if (r == null) {
       // no more input to be expected...
+      if (data.concurrentCalls != null) {
+        try {
+          data.concurrentCalls.finish();
+        } catch (HopException e) {
+          return stopOnError(e);
+        }
+      }
       setOutputDone();
       return false;
     }
@@ -773,6 +823,17 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
         }
       }
     } // end if first
+
+    if (data.concurrentCalls != null) {
+      // The result is handled once the request finishes, see handleConcurrentCall()
+      try {
+        data.concurrentCalls.submit(r, this::callRest);
+      } catch (HopException e) {
+        return stopOnError(e);
+      }
+      return true;
+    }
+
     try {
       Object[] outputRowData = callRest(r);
       putRow(data.outputRowMeta, outputRowData); // copy row to output rowset(s)
@@ -780,27 +841,40 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
         logDetailed(BaseMessages.getString(PKG, "Rest.LineNumber") + getLinesRead());
       }
     } catch (HopException e) {
-      boolean sendToErrorRow = false;
-      String errorMessage = null;
-      if (getTransformMeta().isDoingErrorHandling()) {
-        sendToErrorRow = true;
-        errorMessage = e.toString();
-      } else {
-        logError(BaseMessages.getString(PKG, "Rest.ErrorInTransformRunning") + e.getMessage());
-        setErrors(1);
-        logError(Const.getStackTracker(e));
-        stopAll();
-        setOutputDone(); // signal end to receiver(s)
-        return false;
-      }
-      if (sendToErrorRow) {
-        // Simply add this row to the error row
-        putError(getInputRowMeta(), r, 1, errorMessage, null, "Rest001");
+      if (!getTransformMeta().isDoingErrorHandling()) {
+        return stopOnError(e);
       }
+      // Simply add this row to the error row
+      putError(getInputRowMeta(), r, 1, e.toString(), null, "Rest001");
     }
     return true;
   }
 
+  /** Pass on the result of a concurrent request, called on the thread of the transform. */
+  private void handleConcurrentCall(Object[] row, Object[] outputRow, HopException error)
+      throws HopException {
+    if (error != null) {
+      if (!getTransformMeta().isDoingErrorHandling()) {
+        throw error;
+      }
+      putError(getInputRowMeta(), row, 1, error.toString(), null, "Rest001");
+      return;
+    }
+    putRow(data.outputRowMeta, outputRow); // copy row to output rowset(s)
+    if (checkFeedback(getLinesRead()) && isDetailed()) {
+      logDetailed(BaseMessages.getString(PKG, "Rest.LineNumber") + getLinesRead());
+    }
+  }
+
+  private boolean stopOnError(HopException e) {
+    logError(BaseMessages.getString(PKG, "Rest.ErrorInTransformRunning") + e.getMessage());
+    setErrors(1);
+    logError(Const.getStackTracker(e));
+    stopAll();
+    setOutputDone(); // signal end to receiver(s)
+    return false;
+  }
+
   @Override
   public boolean init() {
 
@@ -830,6 +904,8 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
 
       data.realConnectionTimeout = Const.toInt(resolve(meta.getConnectionTimeout()), -1);
       data.realReadTimeout = Const.toInt(resolve(meta.getReadTimeout()), -1);
+      data.concurrentRequests = Const.toInt(resolve(meta.getConcurrentRequests()), 1);
+      data.requestsPerSecond = Const.toDouble(resolve(meta.getRequestsPerSecond()), 0);
 
       // get authentication settings once
       data.realProxyHost = resolve(meta.getProxyHost());
@@ -872,6 +948,23 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
         logError(BaseMessages.getString(PKG, "Rest.Error.Config"), e);
         return false;
       }
+
+      if (data.concurrentRequests > 1 || data.requestsPerSecond > 0) {
+        if (isDetailed()) {
+          logDetailed(
+              BaseMessages.getString(PKG, "Rest.Log.ConcurrentRequests", data.concurrentRequests));
+        }
+        if (Utils.isEmpty(meta.getConnectionName())) {
+          data.client = buildClient();
+        }
+        data.concurrentCalls =
+            new ConcurrentRowCalls(
+                getTransformName(),
+                data.concurrentRequests,
+                !meta.isCompletionOrder(),
+                data.requestsPerSecond,
+                this::handleConcurrentCall);
+      }
       return true;
     }
     return false;
@@ -879,6 +972,14 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
 
   @Override
   public void dispose() {
+    if (data.concurrentCalls != null) {
+      data.concurrentCalls.close();
+      data.concurrentCalls = null;
+    }
+    if (data.client != null) {
+      data.client.close();
+      data.client = null;
+    }
     data.config = null;
     data.headerNames = null;
     data.indexOfHeaderFields = null;
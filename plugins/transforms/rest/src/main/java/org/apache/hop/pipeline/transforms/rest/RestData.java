@@ -17,10 +17,12 @@
 
 package org.apache.hop.pipeline.transforms.rest;
 
+import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.core.MediaType;
 import javax.net.ssl.SSLContext;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
+import org.apache.hop.pipeline.transform.ConcurrentRowCalls;
 import org.apache.hop.pipeline.transform.ITransformData;
 import org.glassfish.jersey.client.ClientConfig;
 import org.glassfish.jersey.client.authentication.HttpAuthenticationFeature;
@@ -106,6 +108,18 @@ public class RestData extends BaseTransformData implements ITransformData {
 
   public SSLContext sslContext;
 
+  /** The number of requests in flight at the same time */
+  public int concurrentRequests;
+
+  /** The maximum number of requests started per second, 0 for no limit */
+  public double requestsPerSecond;
+
+  /** The client shared by the concurrent requests */
+  public Client client;
+
+  /** Runs the concurrent requests, null if one request at a time is sent */
+  public ConcurrentRowCalls concurrentCalls;
+
   public RestData() {
     super();
     this.indexOfUrlField = -1;
@@ -128,5 +142,6 @@ public class RestData extends BaseTransformData implements ITransformData {
     this.trustStorePassword = null;
     this.basicAuthentication = null;
     this.sslContext = null;
+    this.concurrentRequests = 1;
   }
 }
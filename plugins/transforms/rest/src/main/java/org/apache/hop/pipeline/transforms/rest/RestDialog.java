@@ -114,6 +114,12 @@ public class RestDialog extends BaseTransformDialog {
 
   private TextVar wReadTimeout;
 
+  private TextVar wConcurrentRequests;
+
+  private TextVar wRequestsPerSecond;
+
+  private Button wCompletionOrder;
+
   private TextVar wHttpLogin;
 
   private TextVar wHttpPassword;
@@ -210,6 +216,9 @@ public class RestDialog extends BaseTransformDialog {
     setupAppTypeLine(lsMod, middle, margin, gSettings);
     setupConnectionTimeoutLine(lsMod, gSettings);
     setupReadTimeoutLine(lsMod, gSettings);
+    setupConcurrentRequestsLine(lsMod, gSettings);
+    setupRequestsPerSecondLine(lsMod, gSettings);
+    setupCompletionOrderLine(gSettings);
 
     FormData fdSettings = new FormData();
     fdSettings.left = new FormAttachment(0, 0);
@@ -898,6 +907,82 @@ public class RestDialog extends BaseTransformDialog {
     wReadTimeout.setLayoutData(fdReadTimeout);
   }
 
+  private void setupConcurrentRequestsLine(ModifyListener lsMod, Group gSettings) {
+    int margin = PropsUi.getMargin();
+    int middle = props.getMiddlePct();
+    Label wlConcurrentRequests = new Label(gSettings, SWT.RIGHT);
+    wlConcurrentRequests.setText(
+        BaseMessages.getString(PKG, "RestDialog.ConcurrentRequests.Label"));
+    PropsUi.setLook(wlConcurrentRequests);
+    FormData fdlConcurrentRequests = new FormData();
+    fdlConcurrentRequests.top = new FormAttachment(wReadTimeout, margin);
+    fdlConcurrentRequests.left = new FormAttachment(0, 0);
+    fdlConcurrentRequests.right = new FormAttachment(middle, -margin);
+    wlConcurrentRequests.setLayoutData(fdlConcurrentRequests);
+    wConcurrentRequests = new TextVar(variables, gSettings, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wConcurrentRequests.addModifyListener(lsMod);
+    wConcurrentRequests.setToolTipText(
+        BaseMessages.getString(PKG, "RestDialog.ConcurrentRequests.Tooltip"));
+    PropsUi.setLook(wConcurrentRequests);
+    FormData fdConcurrentRequests = new FormData();
+    fdConcurrentRequests.top = new FormAttachment(wReadTimeout, margin);
+    fdConcurrentRequests.left = new FormAttachment(middle, 0);
+    fdConcurrentRequests.right = new FormAttachment(100, 0);
+    wConcurrentRequests.setLayoutData(fdConcurrentRequests);
+  }
+
+  private void setupRequestsPerSecondLine(ModifyListener lsMod, Group gSettings) {
+    int margin = PropsUi.getMargin();
+    int middle = props.getMiddlePct();
+    Label wlRequestsPerSecond = new Label(gSettings, SWT.RIGHT);
+    wlRequestsPerSecond.setText(BaseMessages.getString(PKG, "RestDialog.RequestsPerSecond.Label"));
+    PropsUi.setLook(wlRequestsPerSecond);
+    FormData fdlRequestsPerSecond = new FormData();
+    fdlRequestsPerSecond.top = new FormAttachment(wConcurrentRequests, margin);
+    fdlRequestsPerSecond.left = new FormAttachment(0, 0);
+    fdlRequestsPerSecond.right = new FormAttachment(middle, -margin);
+    wlRequestsPerSecond.setLayoutData(fdlRequestsPerSecond);
+    wRequestsPerSecond = new TextVar(variables, gSettings, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wRequestsPerSecond.addModifyListener(lsMod);
+    wRequestsPerSecond.setToolTipText(
+        BaseMessages.getString(PKG, "RestDialog.RequestsPerSecond.Tooltip"));
+    PropsUi.setLook(wRequestsPerSecond);
+    FormData fdRequestsPerSecond = new FormData();
+    fdRequestsPerSecond.top = new FormAttachment(wConcurrentRequests, margin);
+    fdRequestsPerSecond.left = new FormAttachment(middle, 0);
+    fdRequestsPerSecond.right = new FormAttachment(100, 0);
+    wRequestsPerSecond.setLayoutData(fdRequestsPerSecond);
+  }
+
+  private void setupCompletionOrderLine(Group gSettings) {
+    int margin = PropsUi.getMargin();
+    int middle = props.getMiddlePct();
+    Label wlCompletionOrder = new Label(gSettings, SWT.RIGHT);
+    wlCompletionOrder.setText(BaseMessages.getString(PKG, "RestDialog.CompletionOrder.Label"));
+    PropsUi.setLook(wlCompletionOrder);
+    FormData fdlCompletionOrder = new FormData();
+    fdlCompletionOrder.top = new FormAttachment(wRequestsPerSecond, margin);
+    fdlCompletionOrder.left = new FormAttachment(0, 0);
+    fdlCompletionOrder.right = new FormAttachment(middle, -margin);
+    wlCompletionOrder.setLayoutData(fdlCompletionOrder);
+    wCompletionOrder = new Button(gSettings, SWT.CHECK);
+    wCompletionOrder.setToolTipText(
+        BaseMessages.getString(PKG, "RestDialog.CompletionOrder.Tooltip"));
+    PropsUi.setLook(wCompletionOrder);
+    FormData fdCompletionOrder = new FormData();
+    fdCompletionOrder.left = new FormAttachment(middle, 0);
+    fdCompletionOrder.top = new FormAttachment(wlCompletionOrder, 0, SWT.CENTER);
+    fdCompletionOrder.right = new FormAttachment(100, 0);
+    wCompletionOrder.setLayoutData(fdCompletionOrder);
+    wCompletionOrder.addSelectionListener(
+        new SelectionAdapter() {
+          @Override
+          public void widgetSelected(SelectionEvent e) {
+            input.setChanged();
+          }
+        });
+  }
+
   private void setupProxyPortLine(ModifyListener lsMod, int middle, int margin, Group gProxy) {
     // Proxy Port
     Label wlProxyPort = new Label(gProxy, SWT.RIGHT);
@@ -1508,6 +1593,9 @@ public class RestDialog extends BaseTransformDialog {
     if (input.getReadTimeout() != null) {
       wReadTimeout.setText(input.getReadTimeout());
     }
+    wConcurrentRequests.setText(Const.NVL(input.getConcurrentRequests(), ""));
+    wRequestsPerSecond.setText(Const.NVL(input.getRequestsPerSecond(), ""));
+    wCompletionOrder.setSelection(input.isCompletionOrder());
     if (input.getHttpLogin() != null) {
       wHttpLogin.setText(input.getHttpLogin());
     }
@@ -1637,6 +1725,9 @@ public class RestDialog extends BaseTransformDialog {
     input.getResultField().setResponseHeader(wResponseHeader.getText());
     input.setConnectionTimeout(wConnectionTimeout.getText());
     input.setReadTimeout(wReadTimeout.getText());
+    input.setConcurrentRequests(wConcurrentRequests.getText());
+    input.setRequestsPerSecond(wRequestsPerSecond.getText());
+    input.setCompletionOrder(wCompletionOrder.getSelection());
     input.setHttpLogin(wHttpLogin.getText());
     input.setHttpPassword(wHttpPassword.getText());
     input.setProxyHost(wProxyHost.getText());
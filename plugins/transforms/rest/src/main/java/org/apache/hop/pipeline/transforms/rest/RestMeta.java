@@ -215,6 +215,18 @@ public class RestMeta extends BaseTransformMeta<Rest, RestData> {
       injectionGroupKey = "RETRY_METHODS")
   private List<String> retryMethods;
 
+  /** The number of requests in flight per transform copy, empty or 1 for one request at a time */
+  @HopMetadataProperty(key = "concurrentRequests", injectionKey = "CONCURRENT_REQUESTS")
+  private String concurrentRequests;
+
+  /** The maximum number of requests started per second by a transform copy, empty for no limit */
+  @HopMetadataProperty(key = "requestsPerSecond", injectionKey = "REQUESTS_PER_SECOND")
+  private String requestsPerSecond;
+
+  /** Pass the rows on as soon as their request finishes instead of in the order of the input */
+  @HopMetadataProperty(key = "completionOrder", injectionKey = "COMPLETION_ORDER")
+  private boolean completionOrder;
+
   public RestMeta() {
     super(); // allocate BaseTransformMeta
     headerFields = new ArrayList<>();
@@ -20,23 +20,34 @@ package org.apache.hop.pipeline.transforms.rest;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
 
 import jakarta.ws.rs.core.MediaType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.encryption.Encr;
 import org.apache.hop.core.encryption.TwoWayPasswordEncoderPluginType;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.logging.HopLogStore;
+import org.apache.hop.core.logging.ILoggingObject;
 import org.apache.hop.core.plugins.PluginRegistry;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMetaBuilder;
 import org.apache.hop.core.util.EnvUtil;
 import org.apache.hop.junit.rules.RestoreHopEngineEnvironmentExtension;
 import org.apache.hop.metadata.api.IHopMetadataProvider;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
 import org.apache.hop.pipeline.transforms.rest.fields.ResultField;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -337,4 +348,68 @@ class RestInitAndProcessTest {
     assertEquals(3000, data.realConnectionTimeout);
     assertEquals(7000, data.realReadTimeout);
   }
+
+  @Test
+  void testProcessRowsWithConcurrentRequests() throws Exception {
+    RestMeta meta = new RestMeta();
+    meta.setMethod(RestMeta.HTTP_METHOD_GET);
+    meta.setUrl("http://example.com");
+    meta.setResultField(new ResultField());
+    meta.getResultField().setFieldName("result");
+    meta.setConcurrentRequests("5");
+
+    RestData data = new RestData();
+
+    TransformMockHelper<RestMeta, RestData> mockHelper =
+        new TransformMockHelper<>("TestRest", RestMeta.class, RestData.class);
+    when(mockHelper.logChannelFactory.create(any(), any(ILoggingObject.class)))
+        .thenReturn(mockHelper.iLogChannel);
+    Rest rest =
+        spy(
+            new Rest(
+                mockHelper.transformMeta,
+                meta,
+                data,
+                1,
+                mockHelper.pipelineMeta,
+                mockHelper.pipeline));
+    rest.setMetadataProvider(mock(IHopMetadataProvider.class));
+
+    // The first rows take the longest
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    doAnswer(
+            invocation -> {
+              Object[] row = invocation.getArgument(0);
+              maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+              Thread.sleep(60L - Integer.parseInt((String) row[0]) * 3L);
+              running.decrementAndGet();
+              return new Object[] {row[0], "response " + row[0]};
+            })
+        .when(rest)
+        .callRest(any());
+
+    IRowMeta inputRowMeta = new RowMetaBuilder().addString("id").build();
+    List<Object[]> inputRows = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      inputRows.add(new Object[] {String.valueOf(i)});
+    }
+    List<Object[]> outputRows;
+    try {
+      outputRows = mockHelper.processRows(rest, inputRowMeta, inputRows);
+    } finally {
+      mockHelper.cleanUp();
+    }
+
+    // All rows in input order, with several requests in flight
+    assertEquals(20, outputRows.size());
+    for (int i = 0; i < 20; i++) {
+      assertEquals(String.valueOf(i), outputRows.get(i)[0]);
+      assertEquals("response " + i, outputRows.get(i)[1]);
+    }
+    assertTrue(maxRunning.get() > 1);
+    assertTrue(maxRunning.get() <= 5);
+    assertNull(data.concurrentCalls);
+    assertNull(data.client);
+  }
 }
@@ -17,9 +17,9 @@
 
 package org.apache.hop.pipeline.transforms.rowstoresult;
 
-import java.util.ArrayList;
 import java.util.List;
 import org.apache.hop.core.RowMetaAndData;
+import org.apache.hop.core.SpillableRowList;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
@@ -32,6 +32,6 @@ public class RowsToResultData extends BaseTransformData implements ITransformDat
   public RowsToResultData() {
     super();
 
-    rows = new ArrayList<>();
+    rows = new SpillableRowList();
   }
 }
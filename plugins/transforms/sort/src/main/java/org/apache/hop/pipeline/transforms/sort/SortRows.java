@@ -29,12 +29,16 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
+import java.util.Map;
+import java.util.TreeMap;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.FileSystemException;
 import org.apache.hop.core.Const;
+import org.apache.hop.core.compress.CompressionInputStream;
+import org.apache.hop.core.compress.CompressionOutputStream;
+import org.apache.hop.core.compress.CompressionProviderFactory;
+import org.apache.hop.core.compress.gzip.GzipCompressionProvider;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopFileException;
 import org.apache.hop.core.exception.HopValueException;
@@ -42,6 +46,7 @@ import org.apache.hop.core.io.CountingInputStream;
 import org.apache.hop.core.io.CountingOutputStream;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.util.Utils;
 import org.apache.hop.core.vfs.HopVfs;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
@@ -73,6 +78,12 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
       }
     }
 
+    // Only the first rows in sort order are kept, never written to disk
+    if (data.topN > 0) {
+      addTopRow(r);
+      return;
+    }
+
     // Save row
     data.buffer.add(r);
 
@@ -113,6 +124,40 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     }
   }
 
+  /**
+   * Keep a row if it is one of the first N rows in sort order seen so far, drop the last row
+   * otherwise. Rows with equal keys keep their input order like they do with a full sort, so the
+   * result is the same as the first N rows of a full sort.
+   */
+  void addTopRow(Object[] r) {
+    if (data.topRowsCount >= data.topN
+        && data.rowComparator.compare(r, data.topRows.lastKey()) >= 0) {
+      // Not among the first N rows
+      return;
+    }
+
+    List<Object[]> rows = data.topRows.get(r);
+    if (rows == null) {
+      rows = new ArrayList<>(1);
+      data.topRows.put(r, rows);
+    } else if (meta.isOnlyPassingUniqueRows()) {
+      // Only the first row of a key is passed on
+      return;
+    }
+    rows.add(r);
+    data.topRowsCount++;
+
+    if (data.topRowsCount > data.topN) {
+      Map.Entry<Object[], List<Object[]>> last = data.topRows.lastEntry();
+      List<Object[]> lastRows = last.getValue();
+      lastRows.remove(lastRows.size() - 1);
+      if (lastRows.isEmpty()) {
+        data.topRows.remove(last.getKey());
+      }
+      data.topRowsCount--;
+    }
+  }
+
   // dump sorted rows from in-memory buffer to fs file
   // clean current buffer
   void sortExternalRows() throws HopException {
@@ -126,7 +171,6 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
 
     // Then write them to disk...
     DataOutputStream dos;
-    GZIPOutputStream gzos;
     int p;
 
     try {
@@ -137,11 +181,13 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
       OutputStream outputStream = HopVfs.getOutputStream(fileObject, false);
       CountingOutputStream counting = new CountingOutputStream(outputStream);
       if (data.compressFiles) {
-        gzos = new GZIPOutputStream(new BufferedOutputStream(counting));
-        dos = new DataOutputStream(gzos);
+        CompressionOutputStream compressedOutputStream =
+            data.compressionProvider.createOutputStream(new BufferedOutputStream(counting));
+        // Archive formats like Zip need an entry to write to, it's a no-op for the others
+        compressedOutputStream.addEntry(fileObject.getName().getBaseName(), null);
+        dos = new DataOutputStream(new BufferedOutputStream(compressedOutputStream, 500000));
       } else {
         dos = new DataOutputStream(new BufferedOutputStream(counting, 500000));
-        gzos = null;
       }
 
       // Just write the data, nothing else
@@ -199,10 +245,7 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
       data.buffer.clear();
 
       // Close temp-file
-      dos.close(); // close data stream
-      if (gzos != null) {
-        gzos.close(); // close gzip stream
-      }
+      dos.close(); // close data stream and the compression stream underneath
       counting.close(); // close counting (and underlying file stream)
       dataVolumeOut = (dataVolumeOut != null ? dataVolumeOut : 0L) + counting.getCount();
 
@@ -222,9 +265,10 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     data.getBufferIndex = 0;
   }
 
-  private DataInputStream getDataInputStream(GZIPInputStream gzipInputStream) {
-    DataInputStream result = new DataInputStream(gzipInputStream);
-    data.gzis.add(gzipInputStream);
+  private DataInputStream getDataInputStream(InputStream compressedInputStream) {
+    DataInputStream result =
+        new DataInputStream(new BufferedInputStream(compressedInputStream, 50000));
+    data.compressedInputStreams.add(compressedInputStream);
     return result;
   }
 
@@ -253,10 +297,11 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
           data.fis.add(countingFi);
           DataInputStream di;
           if (data.compressFiles) {
-            di =
-                getDataInputStream(
-                    new GZIPInputStream(
-                        new BufferedInputStream(data.fis.get(data.fis.size() - 1))));
+            CompressionInputStream compressedInputStream =
+                data.compressionProvider.createInputStream(
+                    new BufferedInputStream(data.fis.get(data.fis.size() - 1)));
+            compressedInputStream.nextEntry();
+            di = getDataInputStream(compressedInputStream);
           } else {
             di =
                 new DataInputStream(
@@ -334,7 +379,7 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
             data.tempRows.add(index, extra);
           }
         } catch (HopFileException fe) { // empty file or EOF mostly
-          GZIPInputStream gzfi = (data.compressFiles) ? data.gzis.get(smallest) : null;
+          InputStream cfi = (data.compressFiles) ? data.compressedInputStreams.get(smallest) : null;
           try {
             if (smallest < data.countingInputStreams.size()) {
               dataVolumeIn =
@@ -343,8 +388,8 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
             }
             di.close();
             fi.close();
-            if (gzfi != null) {
-              gzfi.close();
+            if (cfi != null) {
+              cfi.close();
             }
             file.delete();
           } catch (IOException e) {
@@ -363,8 +408,8 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
             data.countingInputStreams.remove(smallest);
           }
 
-          if (gzfi != null) {
-            data.gzis.remove(smallest);
+          if (cfi != null) {
+            data.compressedInputStreams.remove(smallest);
           }
 
           // Also update all file numbers in in data.tempRows if they are larger
@@ -461,6 +506,9 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
         i++;
       }
       data.rowComparator = new RowObjectArrayComparator(data.outputRowMeta, data.fieldnrs);
+      if (data.topN > 0) {
+        data.topRows = new TreeMap<>(data.rowComparator);
+      }
     } // end if first
 
     // it is not first row and it is null
@@ -579,6 +627,10 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
       //
       data.freeMemoryPctLimit = 25;
     }
+    data.topN = Const.toInt(resolve(meta.getTopN()), 0);
+    if (data.topN > 0 && isDetailed()) {
+      logDetailed(BaseMessages.getString(PKG, "SortRows.Detailed.TopN", data.topN));
+    }
 
     // In memory buffer
     //
@@ -590,6 +642,22 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
 
     data.compressFiles =
         getVariableBoolean(meta.getCompressFilesVariable(), meta.isCompressFiles());
+    if (data.compressFiles) {
+      String compressionType = resolve(meta.getCompressionType());
+      if (Utils.isEmpty(compressionType)) {
+        compressionType = new GzipCompressionProvider().getName();
+      }
+      data.compressionProvider =
+          CompressionProviderFactory.getInstance().getCompressionProviderByName(compressionType);
+      if (data.compressionProvider == null
+          || !data.compressionProvider.supportsInput()
+          || !data.compressionProvider.supportsOutput()) {
+        logError(
+            BaseMessages.getString(
+                PKG, "SortRows.Error.CompressionProviderNotFound", compressionType));
+        return false;
+      }
+    }
 
     data.tempRows = new ArrayList<>();
 
@@ -610,6 +678,10 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     data.buffer.clear();
     data.getBufferIndex = 0;
     data.rowbuffer.clear();
+    if (data.topRows != null) {
+      data.topRows.clear();
+      data.topRowsCount = 0;
+    }
 
     // close any open DataInputStream objects
     if (CollectionUtils.isNotEmpty(data.dis)) {
@@ -682,7 +754,14 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
   }
 
   private void preSortBeforeFlush() throws HopException {
-    if (!data.files.isEmpty()) {
+    if (data.topRows != null) {
+      // The kept rows are already sorted
+      for (List<Object[]> rows : data.topRows.values()) {
+        data.buffer.addAll(rows);
+      }
+      data.topRows.clear();
+      data.topRowsCount = 0;
+    } else if (!data.files.isEmpty()) {
       // dump to dist and then read from disk
       sortExternalRows();
     } else {
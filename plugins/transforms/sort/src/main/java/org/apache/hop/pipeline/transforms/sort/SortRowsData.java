@@ -22,8 +22,9 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
+import java.util.TreeMap;
 import org.apache.commons.vfs2.FileObject;
+import org.apache.hop.core.compress.ICompressionProvider;
 import org.apache.hop.core.io.CountingInputStream;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
@@ -37,7 +38,7 @@ public class SortRowsData extends BaseTransformData implements ITransformData {
 
   public List<InputStream> fis;
   public List<CountingInputStream> countingInputStreams;
-  public List<GZIPInputStream> gzis;
+  public List<InputStream> compressedInputStreams;
   public List<DataInputStream> dis;
   public List<Object[]> rowbuffer;
   public List<Integer> bufferSizes;
@@ -50,6 +51,7 @@ public class SortRowsData extends BaseTransformData implements ITransformData {
   public IRowMeta outputRowMeta;
   public int sortSize;
   public boolean compressFiles;
+  public ICompressionProvider compressionProvider;
   public int[] convertKeysToNative;
   public boolean convertAnyKeysToNative;
 
@@ -62,6 +64,13 @@ public class SortRowsData extends BaseTransformData implements ITransformData {
   public int freeMemoryPctLimit;
   public int memoryReporting;
 
+  /*
+   * Top-N: only the first rows in sort order are kept, the rows with equal keys in input order
+   */
+  public int topN;
+  public TreeMap<Object[], List<Object[]>> topRows;
+  public int topRowsCount;
+
   /*
    * Group Fields Implementation heroic
    */
@@ -75,7 +84,7 @@ public class SortRowsData extends BaseTransformData implements ITransformData {
     files = new ArrayList<>();
     fis = new ArrayList<>();
     countingInputStreams = new ArrayList<>();
-    gzis = new ArrayList<>();
+    compressedInputStreams = new ArrayList<>();
     dis = new ArrayList<>();
     bufferSizes = new ArrayList<>();
 
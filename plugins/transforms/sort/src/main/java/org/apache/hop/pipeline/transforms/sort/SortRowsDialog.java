@@ -20,6 +20,7 @@ package org.apache.hop.pipeline.transforms.sort;
 import java.util.ArrayList;
 import java.util.List;
 import org.apache.hop.core.Const;
+import org.apache.hop.core.compress.CompressionProviderFactory;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.util.Utils;
@@ -33,6 +34,7 @@ import org.apache.hop.ui.core.dialog.BaseDialog;
 import org.apache.hop.ui.core.dialog.ErrorDialog;
 import org.apache.hop.ui.core.widget.CheckBoxVar;
 import org.apache.hop.ui.core.widget.ColumnInfo;
+import org.apache.hop.ui.core.widget.ComboVar;
 import org.apache.hop.ui.core.widget.TableView;
 import org.apache.hop.ui.core.widget.TextVar;
 import org.apache.hop.ui.pipeline.transform.BaseTransformDialog;
@@ -66,8 +68,12 @@ public class SortRowsDialog extends BaseTransformDialog {
 
   private TextVar wFreeMemory;
 
+  private TextVar wTopN;
+
   private CheckBoxVar wCompress;
 
+  private ComboVar wCompressionType;
+
   private Button wUniqueRows;
 
   private TableView wFields;
@@ -181,6 +187,26 @@ public class SortRowsDialog extends BaseTransformDialog {
     fdFreeMemory.right = new FormAttachment(100, 0);
     wFreeMemory.setLayoutData(fdFreeMemory);
 
+    // Only keep the first N rows in sort order
+    Label wlTopN = new Label(shell, SWT.RIGHT);
+    wlTopN.setText(BaseMessages.getString(PKG, "SortRowsDialog.TopN.Label"));
+    wlTopN.setToolTipText(BaseMessages.getString(PKG, "SortRowsDialog.TopN.Tooltip"));
+    PropsUi.setLook(wlTopN);
+    FormData fdlTopN = new FormData();
+    fdlTopN.left = new FormAttachment(0, 0);
+    fdlTopN.right = new FormAttachment(middle, -margin);
+    fdlTopN.top = new FormAttachment(wFreeMemory, margin);
+    wlTopN.setLayoutData(fdlTopN);
+    wTopN = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wTopN.setToolTipText(BaseMessages.getString(PKG, "SortRowsDialog.TopN.Tooltip"));
+    PropsUi.setLook(wTopN);
+    wTopN.addModifyListener(lsMod);
+    FormData fdTopN = new FormData();
+    fdTopN.left = new FormAttachment(middle, 0);
+    fdTopN.top = new FormAttachment(wFreeMemory, margin);
+    fdTopN.right = new FormAttachment(100, 0);
+    wTopN.setLayoutData(fdTopN);
+
     // Using compression for temporary files?
     Label wlCompress = new Label(shell, SWT.RIGHT);
     wlCompress.setText(BaseMessages.getString(PKG, "SortRowsDialog.Compress.Label"));
@@ -188,7 +214,7 @@ public class SortRowsDialog extends BaseTransformDialog {
     FormData fdlCompress = new FormData();
     fdlCompress.left = new FormAttachment(0, 0);
     fdlCompress.right = new FormAttachment(middle, -margin);
-    fdlCompress.top = new FormAttachment(wFreeMemory, margin);
+    fdlCompress.top = new FormAttachment(wTopN, margin);
     wlCompress.setLayoutData(fdlCompress);
     wCompress = new CheckBoxVar(variables, shell, SWT.CHECK, "");
     PropsUi.setLook(wCompress);
@@ -207,6 +233,28 @@ public class SortRowsDialog extends BaseTransformDialog {
           }
         });
 
+    // The compression provider to use for temporary files
+    Label wlCompressionType = new Label(shell, SWT.RIGHT);
+    wlCompressionType.setText(BaseMessages.getString(PKG, "SortRowsDialog.CompressionType.Label"));
+    PropsUi.setLook(wlCompressionType);
+    FormData fdlCompressionType = new FormData();
+    fdlCompressionType.left = new FormAttachment(0, 0);
+    fdlCompressionType.right = new FormAttachment(middle, -margin);
+    fdlCompressionType.top = new FormAttachment(wCompress, margin);
+    wlCompressionType.setLayoutData(fdlCompressionType);
+    wCompressionType = new ComboVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wCompressionType.setToolTipText(
+        BaseMessages.getString(PKG, "SortRowsDialog.CompressionType.Tooltip"));
+    wCompressionType.setItems(
+        CompressionProviderFactory.getInstance().getCompressionProviderNames());
+    PropsUi.setLook(wCompressionType);
+    wCompressionType.addModifyListener(lsMod);
+    FormData fdCompressionType = new FormData();
+    fdCompressionType.left = new FormAttachment(middle, 0);
+    fdCompressionType.top = new FormAttachment(wCompress, margin);
+    fdCompressionType.right = new FormAttachment(100, 0);
+    wCompressionType.setLayoutData(fdCompressionType);
+
     // Using compression for temporary files?
     Label wlUniqueRows = new Label(shell, SWT.RIGHT);
     wlUniqueRows.setText(BaseMessages.getString(PKG, "SortRowsDialog.UniqueRows.Label"));
@@ -214,7 +262,7 @@ public class SortRowsDialog extends BaseTransformDialog {
     FormData fdlUniqueRows = new FormData();
     fdlUniqueRows.left = new FormAttachment(0, 0);
     fdlUniqueRows.right = new FormAttachment(middle, -margin);
-    fdlUniqueRows.top = new FormAttachment(wCompress, margin);
+    fdlUniqueRows.top = new FormAttachment(wCompressionType, margin);
     wlUniqueRows.setLayoutData(fdlUniqueRows);
     wUniqueRows = new Button(shell, SWT.CHECK);
     wUniqueRows.setToolTipText(BaseMessages.getString(PKG, "SortRowsDialog.UniqueRows.Tooltip"));
@@ -357,8 +405,10 @@ public class SortRowsDialog extends BaseTransformDialog {
     }
     wSortSize.setText(Const.NVL(input.getSortSize(), ""));
     wFreeMemory.setText(Const.NVL(input.getFreeMemoryLimit(), ""));
+    wTopN.setText(Const.NVL(input.getTopN(), ""));
     wCompress.setSelection(input.isCompressFiles());
     wCompress.setVariableName(input.getCompressFilesVariable());
+    wCompressionType.setText(Const.NVL(input.getCompressionType(), ""));
     wUniqueRows.setSelection(input.isOnlyPassingUniqueRows());
 
     Table table = wFields.table;
@@ -419,9 +469,11 @@ public class SortRowsDialog extends BaseTransformDialog {
     input.setDirectory(wSortDir.getText());
     input.setSortSize(wSortSize.getText());
     input.setFreeMemoryLimit(wFreeMemory.getText());
+    input.setTopN(wTopN.getText());
     log.logDetailed("Sort rows", "Compression is set to " + wCompress.getSelection());
     input.setCompressFiles(wCompress.getSelection());
     input.setCompressFilesVariable(wCompress.getVariableName());
+    input.setCompressionType(wCompressionType.getText());
     input.setOnlyPassingUniqueRows(wUniqueRows.getSelection());
 
     int nrFields = wFields.nrNonEmpty();
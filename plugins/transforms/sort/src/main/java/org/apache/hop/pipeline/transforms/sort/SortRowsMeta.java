@@ -92,6 +92,17 @@ public class SortRowsMeta extends BaseTransformMeta<SortRows, SortRowsData>
   @HopMetadataProperty(key = "compress_variables", injectionKey = "COMPRESS_VARIABLE")
   private String compressFilesVariable;
 
+  /** The name of the compression provider to use for temporary files, GZip by default */
+  @HopMetadataProperty(key = "compression_type", injectionKey = "COMPRESSION_TYPE")
+  private String compressionType;
+
+  /**
+   * Only keep the first N rows in sort order, per group of presorted fields. Empty to sort and pass
+   * all rows.
+   */
+  @HopMetadataProperty(key = "top_n", injectionKey = "TOP_N_ROWS")
+  private String topN;
+
   private List<SortRowsField> groupFields;
 
   public SortRowsMeta() {
@@ -149,6 +160,8 @@ public class SortRowsMeta extends BaseTransformMeta<SortRows, SortRowsData>
     freeMemoryLimit = null;
     compressFiles = false;
     compressFilesVariable = null;
+    compressionType = null;
+    topN = null;
     onlyPassingUniqueRows = false;
 
     int nrFields = 0;
@@ -377,6 +390,20 @@ public class SortRowsMeta extends BaseTransformMeta<SortRows, SortRowsData>
     this.compressFilesVariable = compressFilesVariable;
   }
 
+  /**
+   * @return the name of the compression provider used for temporary files
+   */
+  public String getCompressionType() {
+    return compressionType;
+  }
+
+  /**
+   * @param compressionType the name of the compression provider used for temporary files
+   */
+  public void setCompressionType(String compressionType) {
+    this.compressionType = compressionType;
+  }
+
   /**
    * @return the freeMemoryLimit
    */
@@ -391,6 +418,20 @@ public class SortRowsMeta extends BaseTransformMeta<SortRows, SortRowsData>
     this.freeMemoryLimit = freeMemoryLimit;
   }
 
+  /**
+   * @return the number of rows to keep in sort order, empty to keep all rows
+   */
+  public String getTopN() {
+    return topN;
+  }
+
+  /**
+   * @param topN the number of rows to keep in sort order, empty to keep all rows
+   */
+  public void setTopN(String topN) {
+    this.topN = topN;
+  }
+
   public boolean isGroupSortEnabled() {
     return this.getSortFields() != null;
   }
@@ -57,7 +57,9 @@ class SortRowsMetaTest {
             "FreeMemoryLimit",
             "CompressFiles",
             "CompressFilesVariable",
+            "CompressionType",
             "OnlyPassingUniqueRows",
+            "TopN",
             "SortFields");
 
     Map<String, String> getterMap = new HashMap<>();
@@ -74,7 +76,9 @@ class SortRowsMetaTest {
     fieldLoadSaveValidatorAttributeMap.put("FreeMemoryLimit", stringFieldLoadSaveValidator);
     fieldLoadSaveValidatorAttributeMap.put("CompressFiles", booleanFieldLoadSaveValidator);
     fieldLoadSaveValidatorAttributeMap.put("CompressFilesVariable", stringFieldLoadSaveValidator);
+    fieldLoadSaveValidatorAttributeMap.put("CompressionType", stringFieldLoadSaveValidator);
     fieldLoadSaveValidatorAttributeMap.put("OnlyPassingUniqueRows", booleanFieldLoadSaveValidator);
+    fieldLoadSaveValidatorAttributeMap.put("TopN", stringFieldLoadSaveValidator);
 
     LoadSaveTester<SortRowsMeta> loadSaveTester =
         new LoadSaveTester<>(
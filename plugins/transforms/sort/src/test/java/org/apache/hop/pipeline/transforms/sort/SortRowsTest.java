@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.sort;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.apache.hop.core.logging.ILoggingObject;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMetaBuilder;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironmentExtension;
+import org.apache.hop.metadata.api.IHopMetadataProvider;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+
+class SortRowsTest {
+  @RegisterExtension
+  static RestoreHopEngineEnvironmentExtension env = new RestoreHopEngineEnvironmentExtension();
+
+  @TempDir Path tempFolder;
+
+  private final IRowMeta rowMeta =
+      new RowMetaBuilder().addString("group").addInteger("key").addInteger("position").build();
+
+  private TransformMockHelper<SortRowsMeta, SortRowsData> mockHelper;
+
+  @BeforeEach
+  void setUp() {
+    mockHelper = new TransformMockHelper<>("Sort", SortRowsMeta.class, SortRowsData.class);
+    when(mockHelper.logChannelFactory.create(any(), any(ILoggingObject.class)))
+        .thenReturn(mockHelper.iLogChannel);
+  }
+
+  @AfterEach
+  void tearDown() {
+    mockHelper.cleanUp();
+  }
+
+  /** Rows with a group, a key with many duplicates and the input position */
+  private static List<Object[]> rows(int count) {
+    Random random = new Random(123);
+    List<Object[]> rows = new ArrayList<>();
+    for (long i = 0; i < count; i++) {
+      rows.add(new Object[] {"group" + i * 3 / count, (long) random.nextInt(50), i});
+    }
+    return rows;
+  }
+
+  private List<Object[]> sort(List<Object[]> input, SortRowsMeta meta, String topN, boolean unique)
+      throws Exception {
+    meta.setTopN(topN);
+    meta.setOnlyPassingUniqueRows(unique);
+
+    SortRowsData data = new SortRowsData();
+    SortRows sortRows =
+        new SortRows(
+            mockHelper.transformMeta, meta, data, 0, mockHelper.pipelineMeta, mockHelper.pipeline);
+    sortRows.setMetadataProvider(mock(IHopMetadataProvider.class));
+
+    List<Object[]> copies = new ArrayList<>();
+    input.forEach(row -> copies.add(row.clone()));
+    List<Object[]> output = mockHelper.processRows(sortRows, rowMeta, copies);
+    if (data.topN > 0) {
+      assertTrue(data.files.isEmpty());
+    }
+    return output;
+  }
+
+  @Test
+  void testTopN() throws Exception {
+    List<Object[]> input = rows(1000);
+    SortRowsMeta meta = new SortRowsMeta();
+    meta.setDefault();
+    meta.getSortFields().add(new SortRowsField("key", false, true, false, 0, false));
+
+    for (boolean unique : new boolean[] {false, true}) {
+      // The first N rows of a full sort in memory, rows with equal keys in input order
+      List<Object[]> all = sort(input, meta, null, unique);
+      for (int topN : new int[] {1, 7, 100, 2000}) {
+        List<Object[]> top = sort(input, meta, String.valueOf(topN), unique);
+        assertEquals(Math.min(topN, all.size()), top.size());
+        for (int i = 0; i < top.size(); i++) {
+          assertEquals(all.get(i)[2], top.get(i)[2], "topN " + topN + ", unique " + unique);
+        }
+      }
+    }
+  }
+
+  @Test
+  void testTopNPerGroup() throws Exception {
+    List<Object[]> input = rows(300);
+    SortRowsMeta meta = new SortRowsMeta();
+    meta.setDefault();
+    meta.getSortFields().add(new SortRowsField("group", true, true, false, 0, true));
+    meta.getSortFields().add(new SortRowsField("key", true, true, false, 0, false));
+
+    List<Object[]> top = sort(input, meta, "5", false);
+
+    List<Object[]> expected = new ArrayList<>();
+    for (int group = 0; group < 3; group++) {
+      String name = "group" + group;
+      input.stream()
+          .filter(row -> name.equals(row[0]))
+          .sorted(Comparator.comparing(row -> (Long) row[1]))
+          .limit(5)
+          .forEach(expected::add);
+    }
+    assertEquals(15, top.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.get(i)[2], top.get(i)[2]);
+    }
+  }
+
+  @Test
+  void testCompressedTempFiles() throws Exception {
+    List<Object[]> input = rows(100);
+    SortRowsMeta meta = new SortRowsMeta();
+    meta.setDefault();
+    meta.getSortFields().add(new SortRowsField("position", false, true, false, 0, false));
+    meta.setDirectory(tempFolder.toString());
+    List<Object[]> expected = sort(input, meta, null, false);
+
+    // Spill to several temporary files, also with an archive format which needs an entry
+    //
+    meta.setSortSize("10");
+    meta.setCompressFiles(true);
+    for (String compressionType : new String[] {"GZip", "Zip"}) {
+      meta.setCompressionType(compressionType);
+      List<Object[]> sorted = sort(input, meta, null, false);
+      assertEquals(expected.size(), sorted.size());
+      for (int i = 0; i < expected.size(); i++) {
+        assertEquals(expected.get(i)[2], sorted.get(i)[2], compressionType);
+      }
+    }
+  }
+}
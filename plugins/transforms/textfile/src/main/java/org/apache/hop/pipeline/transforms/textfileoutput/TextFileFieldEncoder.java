@@ -0,0 +1,449 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.textfileoutput;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Set;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.util.Utils;
+
+/**
+ * Encodes the most common field values (strings, integers and dates) straight into a reusable byte
+ * buffer. This avoids creating an intermediate String and byte[] for every field written by the
+ * Text File Output transform.
+ *
+ * <p>Only the cases where the result is known to be byte-for-byte identical to the regular {@link
+ * IValueMeta} formatting are handled: ASCII compatible character sets, no conversion metadata and
+ * simple masks. For anything else {@link #encode(int, IValueMeta, Object)} returns false and the
+ * caller falls back to the regular formatting.
+ */
+public class TextFileFieldEncoder {
+
+  private static final int KIND_UNKNOWN = 0;
+  private static final int KIND_NOT_SUPPORTED = 1;
+  private static final int KIND_STRING = 2;
+  private static final int KIND_INTEGER = 3;
+  private static final int KIND_DATE = 4;
+
+  /** The integer masks which format a long as plain digits with a leading minus sign. */
+  private static final Set<String> PLAIN_INTEGER_MASKS =
+      Set.of("####0;-####0", "#", "0", "#0", "#;-#", "0;-0", "#0;-#0");
+
+  private static final Set<Charset> ASCII_COMPATIBLE_CHARSETS =
+      Set.of(StandardCharsets.US_ASCII, StandardCharsets.ISO_8859_1, StandardCharsets.UTF_8);
+
+  /** The character set used to encode strings in the output file */
+  private final Charset charset;
+
+  /** Numbers and dates are encoded by the value metadata using the platform character set */
+  private final boolean defaultCharsetAsciiCompatible;
+
+  private IValueMeta[] valueMetas;
+  private int[] kinds;
+  private DateEncoder[] dateEncoders;
+
+  private byte[] buffer;
+  private int length;
+
+  public TextFileFieldEncoder(Charset charset) {
+    this.charset = charset;
+    this.defaultCharsetAsciiCompatible =
+        ASCII_COMPATIBLE_CHARSETS.contains(Charset.defaultCharset());
+    this.valueMetas = new IValueMeta[0];
+    this.kinds = new int[0];
+    this.dateEncoders = new DateEncoder[0];
+    this.buffer = new byte[256];
+    this.length = 0;
+  }
+
+  /**
+   * Encode a value into the internal buffer.
+   *
+   * @param fieldIndex The index of the field in the output row, used to cache the encoding plan
+   * @param valueMeta The metadata of the value
+   * @param valueData The value to encode
+   * @return true if the value was encoded and can be found in {@link #getBuffer()}, false if the
+   *     caller needs to fall back to regular formatting.
+   */
+  public boolean encode(int fieldIndex, IValueMeta valueMeta, Object valueData) {
+    length = 0;
+    if (valueData == null) {
+      return false;
+    }
+    int kind = getKind(fieldIndex, valueMeta);
+    switch (kind) {
+      case KIND_STRING:
+        return valueData instanceof String string && encodeString(valueMeta, string);
+      case KIND_INTEGER:
+        if (valueData instanceof Long integer) {
+          appendLong(integer);
+          return true;
+        }
+        return false;
+      case KIND_DATE:
+        if (valueData instanceof Date date) {
+          return dateEncoders[fieldIndex].encode(this, date);
+        }
+        return false;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * @return The buffer containing the last encoded value, starting at position 0
+   */
+  public byte[] getBuffer() {
+    return buffer;
+  }
+
+  /**
+   * @return The number of bytes of the last encoded value
+   */
+  public int getLength() {
+    return length;
+  }
+
+  private int getKind(int fieldIndex, IValueMeta valueMeta) {
+    if (fieldIndex >= kinds.length) {
+      int size = Math.max(fieldIndex + 1, kinds.length * 2);
+      IValueMeta[] newValueMetas = new IValueMeta[size];
+      System.arraycopy(valueMetas, 0, newValueMetas, 0, valueMetas.length);
+      valueMetas = newValueMetas;
+      int[] newKinds = new int[size];
+      System.arraycopy(kinds, 0, newKinds, 0, kinds.length);
+      kinds = newKinds;
+      DateEncoder[] newDateEncoders = new DateEncoder[size];
+      System.arraycopy(dateEncoders, 0, newDateEncoders, 0, dateEncoders.length);
+      dateEncoders = newDateEncoders;
+    }
+
+    // The row metadata normally stays the same for all rows, so the plan is only calculated once.
+    //
+    if (valueMetas[fieldIndex] != valueMeta || kinds[fieldIndex] == KIND_UNKNOWN) {
+      valueMetas[fieldIndex] = valueMeta;
+      dateEncoders[fieldIndex] = null;
+      kinds[fieldIndex] = calculateKind(fieldIndex, valueMeta);
+    }
+    return kinds[fieldIndex];
+  }
+
+  private int calculateKind(int fieldIndex, IValueMeta valueMeta) {
+    if (!valueMeta.isStorageNormal() || valueMeta.getConversionMetadata() != null) {
+      return KIND_NOT_SUPPORTED;
+    }
+    try {
+      switch (valueMeta.getType()) {
+        case IValueMeta.TYPE_STRING:
+          if (ASCII_COMPATIBLE_CHARSETS.contains(charset)
+              && valueMeta.getTrimType() == IValueMeta.TRIM_TYPE_NONE) {
+            return KIND_STRING;
+          }
+          return KIND_NOT_SUPPORTED;
+        case IValueMeta.TYPE_INTEGER:
+          if (isValueEncodingAsciiCompatible(valueMeta) && isPlainIntegerFormat(valueMeta)) {
+            return KIND_INTEGER;
+          }
+          return KIND_NOT_SUPPORTED;
+        case IValueMeta.TYPE_DATE:
+          if (isValueEncodingAsciiCompatible(valueMeta)) {
+            DateEncoder dateEncoder = DateEncoder.compile(valueMeta.getDateFormat());
+            if (dateEncoder != null) {
+              dateEncoders[fieldIndex] = dateEncoder;
+              return KIND_DATE;
+            }
+          }
+          return KIND_NOT_SUPPORTED;
+        default:
+          return KIND_NOT_SUPPORTED;
+      }
+    } catch (Exception e) {
+      // Any problem figuring out the format simply means we use the regular formatting
+      return KIND_NOT_SUPPORTED;
+    }
+  }
+
+  /**
+   * Numbers and dates are converted to bytes by the value metadata itself, with its own string
+   * encoding or the platform default.
+   */
+  private boolean isValueEncodingAsciiCompatible(IValueMeta valueMeta) {
+    if (Utils.isEmpty(valueMeta.getStringEncoding())) {
+      return defaultCharsetAsciiCompatible;
+    }
+    return Charset.isSupported(valueMeta.getStringEncoding())
+        && ASCII_COMPATIBLE_CHARSETS.contains(Charset.forName(valueMeta.getStringEncoding()));
+  }
+
+  private static boolean isPlainIntegerFormat(IValueMeta valueMeta) {
+    if (!PLAIN_INTEGER_MASKS.contains(valueMeta.getFormatMask())) {
+      return false;
+    }
+    DecimalFormat decimalFormat = valueMeta.getDecimalFormat(false);
+    DecimalFormatSymbols symbols = decimalFormat.getDecimalFormatSymbols();
+    return symbols.getZeroDigit() == '0'
+        && symbols.getMinusSign() == '-'
+        && Utils.isEmpty(decimalFormat.getPositivePrefix())
+        && Utils.isEmpty(decimalFormat.getPositiveSuffix())
+        && Utils.isEmpty(decimalFormat.getNegativeSuffix())
+        && "-".equals(decimalFormat.getNegativePrefix());
+  }
+
+  private boolean encodeString(IValueMeta valueMeta, String string) {
+    int padLength = valueMeta.getLength();
+    if (padLength > -1 && padLength < string.length()) {
+      // Truncation encodes with the string encoding of the value, leave that to the regular code.
+      return false;
+    }
+
+    int size = string.length();
+    ensureCapacity(size * (charset == StandardCharsets.UTF_8 ? 3 : 1));
+    if (charset == StandardCharsets.UTF_8) {
+      if (!appendUtf8(string)) {
+        return false;
+      }
+    } else {
+      int maxChar = charset == StandardCharsets.US_ASCII ? 0x7F : 0xFF;
+      for (int i = 0; i < size; i++) {
+        char c = string.charAt(i);
+        if (c > maxChar) {
+          // Unmappable characters are replaced by the regular encoder
+          length = 0;
+          return false;
+        }
+        buffer[length++] = (byte) c;
+      }
+    }
+
+    if (padLength > size) {
+      ensureCapacity(padLength - size);
+      Arrays.fill(buffer, length, length + padLength - size, (byte) ' ');
+      length += padLength - size;
+    }
+    return true;
+  }
+
+  private boolean appendUtf8(String string) {
+    for (int i = 0, size = string.length(); i < size; i++) {
+      char c = string.charAt(i);
+      if (c < 0x80) {
+        buffer[length++] = (byte) c;
+      } else if (c < 0x800) {
+        buffer[length++] = (byte) (0xC0 | (c >> 6));
+        buffer[length++] = (byte) (0x80 | (c & 0x3F));
+      } else if (Character.isSurrogate(c)) {
+        if (Character.isHighSurrogate(c)
+            && i + 1 < size
+            && Character.isLowSurrogate(string.charAt(i + 1))) {
+          int codePoint = Character.toCodePoint(c, string.charAt(++i));
+          buffer[length++] = (byte) (0xF0 | (codePoint >> 18));
+          buffer[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+          buffer[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+          buffer[length++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else {
+          // Malformed input is replaced by the regular encoder
+          length = 0;
+          return false;
+        }
+      } else {
+        buffer[length++] = (byte) (0xE0 | (c >> 12));
+        buffer[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+        buffer[length++] = (byte) (0x80 | (c & 0x3F));
+      }
+    }
+    return true;
+  }
+
+  void appendLong(long value) {
+    ensureCapacity(20);
+    if (value < 0) {
+      buffer[length++] = '-';
+      if (value == Long.MIN_VALUE) {
+        // Can't be negated, write the first digit separately
+        buffer[length++] = '9';
+        value = -(value + 9_000_000_000_000_000_000L);
+        appendDigits(value, 18);
+        return;
+      }
+      value = -value;
+    }
+    int digits = 1;
+    for (long limit = 10; digits < 19 && value >= limit; limit *= 10) {
+      digits++;
+    }
+    appendDigits(value, digits);
+  }
+
+  /** Appends a positive value using exactly the given number of digits, left padded with zeroes */
+  void appendDigits(long value, int digits) {
+    ensureCapacity(digits);
+    for (int i = length + digits - 1; i >= length; i--) {
+      buffer[i] = (byte) ('0' + (value % 10));
+      value /= 10;
+    }
+    length += digits;
+  }
+
+  void appendByte(byte b) {
+    ensureCapacity(1);
+    buffer[length++] = b;
+  }
+
+  private void ensureCapacity(int extra) {
+    if (length + extra > buffer.length) {
+      byte[] newBuffer = new byte[Math.max(buffer.length * 2, length + extra)];
+      System.arraycopy(buffer, 0, newBuffer, 0, length);
+      buffer = newBuffer;
+    }
+  }
+
+  /**
+   * A date mask compiled into a list of numeric calendar fields and ASCII literals. Only masks with
+   * four-digit years and two-digit (three for milliseconds) other fields are supported.
+   */
+  static final class DateEncoder {
+    private static final int LITERAL = -1;
+
+    private final Calendar calendar;
+    private final int[] fields;
+    private final int[] widths;
+    private final byte[] literals;
+
+    private DateEncoder(Calendar calendar, int[] fields, int[] widths, byte[] literals) {
+      this.calendar = calendar;
+      this.fields = fields;
+      this.widths = widths;
+      this.literals = literals;
+    }
+
+    /**
+     * @param dateFormat The date format of the value metadata
+     * @return The compiled encoder or null if the format isn't supported
+     */
+    static DateEncoder compile(SimpleDateFormat dateFormat) {
+      if (dateFormat == null
+          || dateFormat.getCalendar().getClass() != GregorianCalendar.class
+          || !(dateFormat.getNumberFormat() instanceof DecimalFormat numberFormat)
+          || numberFormat.getDecimalFormatSymbols().getZeroDigit() != '0') {
+        return null;
+      }
+      String pattern = dateFormat.toPattern();
+      if (Utils.isEmpty(pattern)) {
+        return null;
+      }
+
+      List<int[]> parts = new ArrayList<>();
+      int index = 0;
+      while (index < pattern.length()) {
+        char c = pattern.charAt(index);
+        int count = 1;
+        while (index + count < pattern.length() && pattern.charAt(index + count) == c) {
+          count++;
+        }
+        int field;
+        int width;
+        switch (c) {
+          case 'y':
+            field = Calendar.YEAR;
+            width = 4;
+            break;
+          case 'M':
+            field = Calendar.MONTH;
+            width = 2;
+            break;
+          case 'd':
+            field = Calendar.DAY_OF_MONTH;
+            width = 2;
+            break;
+          case 'H':
+            field = Calendar.HOUR_OF_DAY;
+            width = 2;
+            break;
+          case 'm':
+            field = Calendar.MINUTE;
+            width = 2;
+            break;
+          case 's':
+            field = Calendar.SECOND;
+            width = 2;
+            break;
+          case 'S':
+            field = Calendar.MILLISECOND;
+            width = 3;
+            break;
+          default:
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '\'' || c > 0x7F) {
+              // Other pattern letters, quoted text and non-ASCII literals
+              return null;
+            }
+            field = LITERAL;
+            width = 1;
+            count = 1;
+            break;
+        }
+        if (count != width) {
+          return null;
+        }
+        parts.add(new int[] {field, width, c});
+        index += count;
+      }
+
+      int[] fields = new int[parts.size()];
+      int[] widths = new int[parts.size()];
+      byte[] literals = new byte[parts.size()];
+      for (int i = 0; i < parts.size(); i++) {
+        fields[i] = parts.get(i)[0];
+        widths[i] = parts.get(i)[1];
+        literals[i] = (byte) parts.get(i)[2];
+      }
+      Calendar calendar = new GregorianCalendar(dateFormat.getTimeZone());
+      return new DateEncoder(calendar, fields, widths, literals);
+    }
+
+    boolean encode(TextFileFieldEncoder encoder, Date date) {
+      calendar.setTimeInMillis(date.getTime());
+      int year = calendar.get(Calendar.YEAR);
+      if (calendar.get(Calendar.ERA) != GregorianCalendar.AD || year > 9999) {
+        return false;
+      }
+      for (int i = 0; i < fields.length; i++) {
+        int field = fields[i];
+        if (field == LITERAL) {
+          encoder.appendByte(literals[i]);
+        } else {
+          int value = calendar.get(field);
+          if (field == Calendar.MONTH) {
+            value++;
+          }
+          encoder.appendDigits(value, widths[i]);
+        }
+      }
+      return true;
+    }
+  }
+}
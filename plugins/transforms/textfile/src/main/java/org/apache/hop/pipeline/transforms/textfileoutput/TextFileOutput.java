@@ -21,6 +21,7 @@ import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -61,6 +62,9 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
       TextFileOutputMeta.fileCompressionTypeCodes[TextFileOutputMeta.FILE_COMPRESSION_TYPE_NONE];
   public static final String CONST_ERROR_OPENING_NEW_FILE = "Error opening new file : ";
 
+  public static final int DEFAULT_FILE_BUFFER_SIZE = 1024 * 1024;
+  public static final int MAX_FILE_BUFFER_SIZE_FILENAME_IN_FIELD = 64 * 1024;
+
   public TextFileOutput(
       TransformMeta transformMeta,
       Meta meta,
@@ -199,7 +203,7 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
           }
 
           BufferedOutputStream bufferedOutputStream =
-              new BufferedOutputStream(compressionOutputStream, 5000);
+              new BufferedOutputStream(compressionOutputStream, getFileBufferSize());
 
           fileStreams =
               data.new FileStream(fileOutputStream, compressionOutputStream, bufferedOutputStream);
@@ -224,7 +228,7 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
               compressionProvider.createOutputStream(fileOutputStream);
           compressionOutputStream.addEntry(filename, resolve(meta.getExtension()));
           BufferedOutputStream bufferedOutputStream =
-              new BufferedOutputStream(compressionOutputStream, 5000);
+              new BufferedOutputStream(compressionOutputStream, getFileBufferSize());
 
           fileStreams.setFileOutputStream(fileOutputStream);
           fileStreams.setCompressedOutputStream(compressionOutputStream);
@@ -296,6 +300,24 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
     return flushInterval;
   }
 
+  /**
+   * @return The size of the output buffer of every open file, see {@link
+   *     Const#HOP_FILE_OUTPUT_BUFFER_SIZE}. When the file name comes from a field many files can be
+   *     open at the same time, so the buffer size is limited in that case.
+   */
+  public int getFileBufferSize() {
+    int bufferSize =
+        Const.toInt(
+            variables.getVariable(Const.HOP_FILE_OUTPUT_BUFFER_SIZE), DEFAULT_FILE_BUFFER_SIZE);
+    if (bufferSize <= 0) {
+      bufferSize = DEFAULT_FILE_BUFFER_SIZE;
+    }
+    if (meta.isFileNameInField()) {
+      bufferSize = Math.min(bufferSize, MAX_FILE_BUFFER_SIZE_FILENAME_IN_FIELD);
+    }
+    return bufferSize;
+  }
+
   public int getMaxOpenFiles() {
     String var = variables.getVariable("HOP_FILE_OUTPUT_MAX_STREAM_COUNT");
     int maxStreamCount = 0;
@@ -473,7 +495,7 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
           // no special null value default was specified since no fields are specified at all
           // As such, we pass null
           //
-          writeField(v, valueData, null);
+          writeField(i, v, valueData, null);
         }
         data.writer.write(data.binaryNewline);
       } else {
@@ -487,7 +509,7 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
 
           IValueMeta v = rowMeta.getValueMeta(data.fieldnrs[i]);
           Object valueData = r[data.fieldnrs[i]];
-          writeField(v, valueData, data.binaryNullValue[i]);
+          writeField(i, v, valueData, data.binaryNullValue[i]);
         }
         data.writer.write(data.binaryNewline);
       }
@@ -605,10 +627,11 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
     }
   }
 
-  private void writeField(IValueMeta v, Object valueData, byte[] nullString)
+  private void writeField(int fieldIndex, IValueMeta v, Object valueData, byte[] nullString)
       throws HopTransformException {
     try {
       byte[] str;
+      int strLength = -1;
 
       // First check whether or not we have a null string set
       // These values should be set when a null value passes
@@ -622,12 +645,22 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
           } else {
             str = getBinaryString((valueData == null) ? "" : valueData.toString());
           }
+        } else if (data.fieldEncoder != null
+            && data.fieldEncoder.encode(fieldIndex, v, valueData)) {
+          // The value was encoded straight into the reusable buffer of the encoder.
+          // Only the first strLength bytes of that buffer belong to this value.
+          //
+          str = data.fieldEncoder.getBuffer();
+          strLength = data.fieldEncoder.getLength();
         } else {
           str = formatField(v, valueData);
         }
       }
+      if (str != null && strLength < 0) {
+        strLength = str.length;
+      }
 
-      if (str != null && str.length > 0) {
+      if (str != null && strLength > 0) {
         List<Integer> enclosures = null;
         boolean writeEnclosures = false;
 
@@ -635,18 +668,23 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
           if (meta.isEnclosureForced() && !meta.isPadded()) {
             writeEnclosures = true;
           } else if (!meta.isEnclosureFixDisabled()
-              && containsSeparatorOrEnclosure(str, data.binarySeparator, data.binaryEnclosure)) {
+              && containsSeparatorOrEnclosure(
+                  str, strLength, data.binarySeparator, data.binaryEnclosure)) {
             writeEnclosures = true;
           }
         }
 
         if (writeEnclosures) {
           data.writer.write(data.binaryEnclosure);
-          enclosures = getEnclosurePositions(str);
+          enclosures = getEnclosurePositions(str, strLength);
         }
 
         if (enclosures == null) {
-          data.writer.write(str);
+          if (strLength == str.length) {
+            data.writer.write(str);
+          } else {
+            data.writer.write(str, 0, strLength);
+          }
         } else {
           // Skip the enclosures, double them instead...
           int from = 0;
@@ -655,8 +693,8 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
             data.writer.write(data.binaryEnclosure); // write enclosure a second time
             from = position + data.binaryEnclosure.length;
           }
-          if (from < str.length) {
-            data.writer.write(str, from, str.length - from);
+          if (from < strLength) {
+            data.writer.write(str, from, strLength - from);
           }
         }
 
@@ -669,11 +707,11 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
     }
   }
 
-  private List<Integer> getEnclosurePositions(byte[] str) {
+  private List<Integer> getEnclosurePositions(byte[] str, int strLength) {
     List<Integer> positions = null;
     if (data.binaryEnclosure != null && data.binaryEnclosure.length > 0) {
       // +1 because otherwise we will not find it at the end
-      for (int i = 0, len = str.length - data.binaryEnclosure.length + 1; i < len; i++) {
+      for (int i = 0, len = strLength - data.binaryEnclosure.length + 1; i < len; i++) {
         // verify if on position i there is an enclosure
         //
         boolean found = true;
@@ -998,6 +1036,16 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
         }
       }
       data.splitEvery = meta.getSplitEvery(variables);
+
+      // Common field values are encoded straight to bytes when the character set allows it
+      //
+      if (!data.hasEncoding) {
+        data.fieldEncoder = new TextFileFieldEncoder(Charset.defaultCharset());
+      } else if (Charset.isSupported(meta.getEncoding())) {
+        data.fieldEncoder = new TextFileFieldEncoder(Charset.forName(meta.getEncoding()));
+      } else {
+        data.fieldEncoder = null;
+      }
     } catch (Exception e) {
       throw new HopException("Unexpected error while encoding binary fields", e);
     }
@@ -1030,6 +1078,15 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
   }
 
   public boolean containsSeparatorOrEnclosure(byte[] source, byte[] separator, byte[] enclosure) {
+    return containsSeparatorOrEnclosure(source, source.length, separator, enclosure);
+  }
+
+  /**
+   * Same as {@link #containsSeparatorOrEnclosure(byte[], byte[], byte[])} but only looks at the
+   * first sourceLength bytes of the source, for values encoded into a reusable buffer.
+   */
+  public boolean containsSeparatorOrEnclosure(
+      byte[] source, int sourceLength, byte[] separator, byte[] enclosure) {
     boolean result = false;
 
     boolean enclosureExists = enclosure != null && enclosure.length > 0;
@@ -1039,11 +1096,11 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
     if (separatorExists || enclosureExists) {
 
       // Search for the first occurrence of the separator or enclosure
-      for (int index = 0; !result && index < source.length; index++) {
+      for (int index = 0; !result && index < sourceLength; index++) {
         if (enclosureExists && source[index] == enclosure[0]) {
 
           // Potential match found, make sure there are enough bytes to support a full match
-          if (index + enclosure.length <= source.length) {
+          if (index + enclosure.length <= sourceLength) {
             // First byte of enclosure found
             result = true; // Assume match
             for (int i = 1; i < enclosure.length; i++) {
@@ -1057,7 +1114,7 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
 
         } else if (separatorExists
             && source[index] == separator[0]
-            && index + separator.length <= source.length) {
+            && index + separator.length <= sourceLength) {
           // Potential match found, make sure there are enough bytes to support a full match
           // First byte of separator found
           result = true; // Assume match
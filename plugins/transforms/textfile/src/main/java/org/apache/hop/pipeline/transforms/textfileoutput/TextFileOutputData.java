@@ -448,6 +448,8 @@ public class TextFileOutputData extends BaseTransformData implements ITransformD
 
   public byte[][] binaryNullValue;
 
+  public TextFileFieldEncoder fieldEncoder;
+
   public boolean oneFileOpened;
 
   public int fileNameFieldIndex;
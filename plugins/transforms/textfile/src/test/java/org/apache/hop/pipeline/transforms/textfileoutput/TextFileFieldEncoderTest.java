@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.textfileoutput;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.TimeZone;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.junit.jupiter.api.Test;
+
+class TextFileFieldEncoderTest {
+
+  @Test
+  void testIntegersMatchValueMetaFormatting() throws Exception {
+    TextFileFieldEncoder encoder = new TextFileFieldEncoder(StandardCharsets.UTF_8);
+    IValueMeta valueMeta = new ValueMetaInteger("id");
+
+    long[] values = {
+      0L, 1L, -1L, 9L, 10L, 12345L, -98765L, 1_000_000_000_000L, Long.MAX_VALUE, Long.MIN_VALUE
+    };
+    for (long value : values) {
+      assertTrue(encoder.encode(0, valueMeta, value));
+      assertEncoded(valueMeta.getBinaryString(value), encoder);
+    }
+  }
+
+  @Test
+  void testIntegerWithGroupingFallsBack() {
+    TextFileFieldEncoder encoder = new TextFileFieldEncoder(StandardCharsets.UTF_8);
+    IValueMeta valueMeta = new ValueMetaInteger("id");
+    valueMeta.setConversionMask("#,##0");
+
+    assertFalse(encoder.encode(0, valueMeta, 12345L));
+  }
+
+  @Test
+  void testDatesMatchValueMetaFormatting() throws Exception {
+    TextFileFieldEncoder encoder = new TextFileFieldEncoder(StandardCharsets.UTF_8);
+    String[] masks = {
+      null, "yyyy/MM/dd HH:mm:ss", "yyyy-MM-dd HH:mm:ss.SSS", "yyyy-MM-dd", "yyyyMMdd", "HH:mm"
+    };
+    long[] times = {0L, 1_700_000_000_123L, -1_000_000_000_000L, 253_402_214_399_999L};
+
+    int fieldIndex = 0;
+    for (String mask : masks) {
+      IValueMeta valueMeta = new ValueMetaDate("date");
+      valueMeta.setConversionMask(mask);
+      valueMeta.setDateFormatTimeZone(TimeZone.getTimeZone("Europe/Brussels"));
+      for (long time : times) {
+        Date date = new Date(time);
+        assertTrue(encoder.encode(fieldIndex, valueMeta, date), mask);
+        assertEncoded(valueMeta.getBinaryString(date), encoder);
+      }
+      fieldIndex++;
+    }
+  }
+
+  @Test
+  void testUnsupportedDateMaskFallsBack() {
+    TextFileFieldEncoder encoder = new TextFileFieldEncoder(StandardCharsets.UTF_8);
+    IValueMeta valueMeta = new ValueMetaDate("date");
+    valueMeta.setConversionMask("dd MMM yyyy");
+
+    assertFalse(encoder.encode(0, valueMeta, new Date()));
+  }
+
+  @Test
+  void testStringsMatchStringEncoding() {
+    String[] values = {"", "plain", "comma, \"quoted\"", "café", "€ 12", "😀!"};
+    for (Charset charset : Arrays.asList(StandardCharsets.UTF_8, StandardCharsets.ISO_8859_1)) {
+      TextFileFieldEncoder encoder = new TextFileFieldEncoder(charset);
+      IValueMeta valueMeta = new ValueMetaString("name");
+      for (String value : values) {
+        if (encoder.encode(0, valueMeta, value)) {
+          assertEncoded(value.getBytes(charset), encoder);
+        } else {
+          // Only characters which can't be mapped are left to the regular encoder
+          assertFalse(charset.newEncoder().canEncode(value), value);
+        }
+      }
+    }
+  }
+
+  @Test
+  void testStringsArePadded() {
+    TextFileFieldEncoder encoder = new TextFileFieldEncoder(StandardCharsets.UTF_8);
+    IValueMeta valueMeta = new ValueMetaString("name", 6, -1);
+
+    assertTrue(encoder.encode(0, valueMeta, "abc"));
+    assertEncoded("abc   ".getBytes(StandardCharsets.UTF_8), encoder);
+
+    // Truncation is left to the regular formatting
+    assertFalse(encoder.encode(0, valueMeta, "abcdefgh"));
+  }
+
+  @Test
+  void testOtherTypesFallBack() {
+    TextFileFieldEncoder encoder = new TextFileFieldEncoder(StandardCharsets.UTF_8);
+
+    assertFalse(encoder.encode(0, new ValueMetaNumber("number"), 1.5));
+    assertFalse(encoder.encode(1, new ValueMetaString("name"), null));
+  }
+
+  private static void assertEncoded(byte[] expected, TextFileFieldEncoder encoder) {
+    assertArrayEquals(expected, Arrays.copyOf(encoder.getBuffer(), encoder.getLength()));
+  }
+}
@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.uniquerowsbyhashset;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Fingerprints spilled to a temporary file in ascending order. A sparse index in memory holds the
+ * first fingerprint of every block of the file, so that a lookup reads a single block. An optional
+ * Bloom filter answers most lookups of fingerprints which aren't in the file without reading it.
+ * When the spilled set carries values, every fingerprint is followed by its value in the file.
+ */
+class FingerprintRun implements Closeable {
+  /** The number of fingerprints per block of the file */
+  static final int BLOCK_SIZE = 1024;
+
+  /** The false positive probability of the Bloom filters, about 10 bits per fingerprint */
+  static final double BLOOM_FILTER_FPP = 0.01;
+
+  private static final int FINGERPRINT_BYTES = 16;
+  private static final int VALUE_BYTES = 8;
+
+  private final Path file;
+  private final FileChannel channel;
+  private final long size;
+  private final long[] blockIndex;
+  private final BloomFilter<Long> bloomFilter;
+  private final boolean withValues;
+  private final int entryBytes;
+  private final ByteBuffer block;
+
+  private FingerprintRun(
+      Path file, long size, long[] blockIndex, BloomFilter<Long> bloomFilter, boolean withValues)
+      throws IOException {
+    this.file = file;
+    this.size = size;
+    this.blockIndex = blockIndex;
+    this.bloomFilter = bloomFilter;
+    this.withValues = withValues;
+    this.entryBytes = withValues ? FINGERPRINT_BYTES + VALUE_BYTES : FINGERPRINT_BYTES;
+    this.block = ByteBuffer.allocate(BLOCK_SIZE * entryBytes);
+    this.channel = FileChannel.open(file, StandardOpenOption.READ);
+  }
+
+  /**
+   * Write the fingerprints of a set to a temporary file, the set is empty afterwards.
+   *
+   * @param fingerprints The fingerprints
+   * @param directory The directory of the temporary file
+   * @param useBloomFilter true to build a Bloom filter of the fingerprints
+   * @return The spilled fingerprints
+   * @throws IOException In case the file can't be written
+   */
+  static FingerprintRun spill(FingerprintSet fingerprints, Path directory, boolean useBloomFilter)
+      throws IOException {
+    int size = fingerprints.size();
+    boolean withValues = fingerprints.hasValues();
+    long[] blockIndex = new long[(size + BLOCK_SIZE - 1) / BLOCK_SIZE * 2];
+    BloomFilter<Long> bloomFilter =
+        useBloomFilter
+            ? BloomFilter.create(Funnels.longFunnel(), Math.max(size, 1), BLOOM_FILTER_FPP)
+            : null;
+
+    Path file = Files.createTempFile(directory, "unique-rows-", ".tmp");
+    try {
+      try (DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 65536))) {
+        int[] count = {0};
+        fingerprints.drainSorted(
+            (high, low, value) -> {
+              if (count[0] % BLOCK_SIZE == 0) {
+                blockIndex[count[0] / BLOCK_SIZE * 2] = high;
+                blockIndex[count[0] / BLOCK_SIZE * 2 + 1] = low;
+              }
+              if (bloomFilter != null) {
+                bloomFilter.put(high);
+              }
+              out.writeLong(high);
+              out.writeLong(low);
+              if (withValues) {
+                out.writeLong(value);
+              }
+              count[0]++;
+            });
+      }
+      return new FingerprintRun(file, size, blockIndex, bloomFilter, withValues);
+    } catch (IOException e) {
+      Files.deleteIfExists(file);
+      throw e;
+    }
+  }
+
+  /**
+   * @param high The upper 64 bits of the fingerprint
+   * @param low The lower 64 bits of the fingerprint
+   * @return true if the fingerprint is in this run
+   * @throws IOException In case the file can't be read
+   */
+  boolean contains(long high, long low) throws IOException {
+    return get(high, low) != FingerprintSet.NOT_FOUND;
+  }
+
+  /**
+   * @param high The upper 64 bits of the fingerprint
+   * @param low The lower 64 bits of the fingerprint
+   * @return The value of the fingerprint, 0 if the run has no values, or {@link
+   *     FingerprintSet#NOT_FOUND}
+   * @throws IOException In case the file can't be read
+   */
+  long get(long high, long low) throws IOException {
+    if (bloomFilter != null && !bloomFilter.mightContain(high)) {
+      return FingerprintSet.NOT_FOUND;
+    }
+
+    // The last block starting at or before the fingerprint
+    int lowBlock = 0;
+    int highBlock = blockIndex.length / 2 - 1;
+    int blockNr = -1;
+    while (lowBlock <= highBlock) {
+      int middle = (lowBlock + highBlock) >>> 1;
+      int result = compare(blockIndex[middle * 2], blockIndex[middle * 2 + 1], high, low);
+      if (result <= 0) {
+        blockNr = middle;
+        lowBlock = middle + 1;
+      } else {
+        highBlock = middle - 1;
+      }
+    }
+    if (blockNr < 0) {
+      return FingerprintSet.NOT_FOUND;
+    }
+
+    int count = (int) Math.min(BLOCK_SIZE, size - (long) blockNr * BLOCK_SIZE);
+    block.clear().limit(count * entryBytes);
+    long position = (long) blockNr * BLOCK_SIZE * entryBytes;
+    while (block.hasRemaining()) {
+      if (channel.read(block, position + block.position()) < 0) {
+        throw new IOException("Unexpected end of file " + file);
+      }
+    }
+
+    int first = 0;
+    int last = count - 1;
+    while (first <= last) {
+      int middle = (first + last) >>> 1;
+      int result =
+          compare(
+              block.getLong(middle * entryBytes),
+              block.getLong(middle * entryBytes + 8),
+              high,
+              low);
+      if (result == 0) {
+        return withValues ? block.getLong(middle * entryBytes + FINGERPRINT_BYTES) : 0L;
+      } else if (result < 0) {
+        first = middle + 1;
+      } else {
+        last = middle - 1;
+      }
+    }
+    return FingerprintSet.NOT_FOUND;
+  }
+
+  private static int compare(long high1, long low1, long high2, long low2) {
+    int result = Long.compare(high1, high2);
+    return result != 0 ? result : Long.compare(low1, low2);
+  }
+
+  /**
+   * @return The number of fingerprints in this run
+   */
+  long size() {
+    return size;
+  }
+
+  /** Close and delete the file. */
+  @Override
+  public void close() throws IOException {
+    try {
+      channel.close();
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+}
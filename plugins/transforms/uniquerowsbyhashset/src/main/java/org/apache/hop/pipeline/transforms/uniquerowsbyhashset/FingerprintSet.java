@@ -0,0 +1,318 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.uniquerowsbyhashset;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A set of 128-bit fingerprints in an open addressing table with linear probing. All fingerprints
+ * are kept in a single array of longs: a key takes 16 bytes plus the free slots, instead of the key
+ * values, the value objects and the entry a HashSet holds for every key. Optionally every
+ * fingerprint carries a long value, in a second array with one long per slot.
+ */
+class FingerprintSet {
+  /** The maximum number of slots, the array can't hold more than 2^30 longs */
+  static final int MAX_CAPACITY = 1 << 29;
+
+  private static final double MAX_LOAD = 0.7;
+
+  /** Returned by {@link #get(long, long)} for a fingerprint which isn't in the set */
+  static final long NOT_FOUND = -1L;
+
+  /** Two longs per slot, an empty slot holds 0 and 0 */
+  private long[] slots;
+
+  /** The value of every slot, null if the fingerprints don't carry values */
+  private long[] values;
+
+  private final boolean withValues;
+
+  private int mask;
+  private int resizeAt;
+  private int size;
+
+  /** The fingerprint 0, 0 doesn't fit in a slot */
+  private boolean containsZero;
+
+  private long zeroValue;
+
+  /** Receives the fingerprints when the set is drained */
+  @FunctionalInterface
+  interface IFingerprintConsumer {
+    void accept(long high, long low, long value) throws IOException;
+  }
+
+  /**
+   * @param initialCapacity The initial number of slots, rounded up to a power of 2
+   */
+  FingerprintSet(int initialCapacity) {
+    this(initialCapacity, false);
+  }
+
+  /**
+   * @param initialCapacity The initial number of slots, rounded up to a power of 2
+   * @param withValues true if every fingerprint carries a value
+   */
+  FingerprintSet(int initialCapacity, boolean withValues) {
+    this.withValues = withValues;
+    int capacity = Integer.highestOneBit(Math.clamp(initialCapacity - 1L, 1, MAX_CAPACITY / 2)) * 2;
+    allocate(capacity);
+  }
+
+  private void allocate(int capacity) {
+    slots = new long[capacity * 2];
+    values = withValues ? new long[capacity] : null;
+    mask = capacity - 1;
+    resizeAt = (int) (capacity * MAX_LOAD);
+  }
+
+  /**
+   * Add a fingerprint.
+   *
+   * @param high The upper 64 bits of the fingerprint
+   * @param low The lower 64 bits of the fingerprint
+   * @return true if the fingerprint was added, false if it was already in the set
+   */
+  boolean add(long high, long low) {
+    return add(high, low, 0L);
+  }
+
+  /**
+   * Add a fingerprint with its value.
+   *
+   * @param high The upper 64 bits of the fingerprint
+   * @param low The lower 64 bits of the fingerprint
+   * @param value The value of the fingerprint, only kept if the set was created with values
+   * @return true if the fingerprint was added, false if it was already in the set
+   */
+  boolean add(long high, long low, long value) {
+    if (high == 0 && low == 0) {
+      if (containsZero) {
+        return false;
+      }
+      containsZero = true;
+      zeroValue = value;
+      size++;
+      return true;
+    }
+    int slot = find(high, low);
+    if (slots[slot * 2] != 0 || slots[slot * 2 + 1] != 0) {
+      return false;
+    }
+    slots[slot * 2] = high;
+    slots[slot * 2 + 1] = low;
+    if (withValues) {
+      values[slot] = value;
+    }
+    size++;
+    if (size >= resizeAt && mask + 1 < MAX_CAPACITY) {
+      resize();
+    }
+    return true;
+  }
+
+  /**
+   * @param high The upper 64 bits of the fingerprint
+   * @param low The lower 64 bits of the fingerprint
+   * @return true if the fingerprint is in the set
+   */
+  boolean contains(long high, long low) {
+    if (high == 0 && low == 0) {
+      return containsZero;
+    }
+    int slot = find(high, low);
+    return slots[slot * 2] != 0 || slots[slot * 2 + 1] != 0;
+  }
+
+  /**
+   * @param high The upper 64 bits of the fingerprint
+   * @param low The lower 64 bits of the fingerprint
+   * @return The value of the fingerprint, 0 if the set has no values, or {@link #NOT_FOUND}
+   */
+  long get(long high, long low) {
+    if (high == 0 && low == 0) {
+      return containsZero ? zeroValue : NOT_FOUND;
+    }
+    int slot = find(high, low);
+    if (slots[slot * 2] == 0 && slots[slot * 2 + 1] == 0) {
+      return NOT_FOUND;
+    }
+    return withValues ? values[slot] : 0L;
+  }
+
+  /**
+   * @return true if every fingerprint carries a value
+   */
+  boolean hasValues() {
+    return withValues;
+  }
+
+  /**
+   * @return The slot holding the fingerprint or the empty slot where it goes
+   */
+  private int find(long high, long low) {
+    // The fingerprints are hashes already, their bits are evenly spread
+    int slot = (int) (high ^ high >>> 32) & mask;
+    while (true) {
+      long slotHigh = slots[slot * 2];
+      long slotLow = slots[slot * 2 + 1];
+      if (slotHigh == high && slotLow == low || slotHigh == 0 && slotLow == 0) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  private void resize() {
+    long[] oldSlots = slots;
+    long[] oldValues = values;
+    allocate((mask + 1) * 2);
+    for (int i = 0; i < oldSlots.length; i += 2) {
+      if (oldSlots[i] != 0 || oldSlots[i + 1] != 0) {
+        int slot = find(oldSlots[i], oldSlots[i + 1]);
+        slots[slot * 2] = oldSlots[i];
+        slots[slot * 2 + 1] = oldSlots[i + 1];
+        if (withValues) {
+          values[slot] = oldValues[i / 2];
+        }
+      }
+    }
+  }
+
+  /**
+   * @return The number of fingerprints in the set
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * The largest number of fingerprints to keep in a set which fits in the given amount of memory,
+   * counting the old and the new table while the table grows. Stopping at this size spills the
+   * fingerprints just before the table would grow beyond the memory.
+   *
+   * @param memory The available memory in bytes
+   * @param withValues true if every fingerprint carries a value
+   * @return The maximum number of fingerprints
+   */
+  static int maxSizeInMemory(long memory, boolean withValues) {
+    long bytesPerSlot = withValues ? 24L : 16L;
+    long slots = Math.clamp(memory * 2 / (bytesPerSlot * 3), 2L, MAX_CAPACITY);
+    return (int) (Long.highestOneBit(slots) * MAX_LOAD) - 1;
+  }
+
+  /**
+   * @return true if the table can't grow anymore and is as full as it is allowed to be
+   */
+  boolean isFull() {
+    return size >= resizeAt;
+  }
+
+  /**
+   * Pass all fingerprints in ascending order, comparing the upper and then the lower 64 bits as
+   * signed longs, and empty the set. The fingerprints are sorted within the table itself so that no
+   * extra memory is needed.
+   *
+   * @param consumer Receives the fingerprints
+   * @throws IOException In case the consumer fails, the set is emptied anyway
+   */
+  void drainSorted(IFingerprintConsumer consumer) throws IOException {
+    try {
+      // Move the fingerprints to the start of the table, there is always a free slot left for 0, 0
+      int count = 0;
+      for (int i = 0; i < slots.length; i += 2) {
+        if (slots[i] != 0 || slots[i + 1] != 0) {
+          slots[count * 2] = slots[i];
+          slots[count * 2 + 1] = slots[i + 1];
+          if (withValues) {
+            values[count] = values[i / 2];
+          }
+          count++;
+        }
+      }
+      if (containsZero) {
+        slots[count * 2] = 0;
+        slots[count * 2 + 1] = 0;
+        if (withValues) {
+          values[count] = zeroValue;
+        }
+        count++;
+      }
+      heapSort(count);
+      for (int i = 0; i < count; i++) {
+        consumer.accept(slots[i * 2], slots[i * 2 + 1], withValues ? values[i] : 0L);
+      }
+    } finally {
+      Arrays.fill(slots, 0);
+      if (withValues) {
+        Arrays.fill(values, 0);
+      }
+      size = 0;
+      containsZero = false;
+    }
+  }
+
+  private void heapSort(int count) {
+    for (int i = count / 2 - 1; i >= 0; i--) {
+      siftDown(i, count);
+    }
+    for (int end = count - 1; end > 0; end--) {
+      swap(0, end);
+      siftDown(0, end);
+    }
+  }
+
+  private void siftDown(int node, int count) {
+    while (true) {
+      int largest = node;
+      int left = node * 2 + 1;
+      int right = left + 1;
+      if (left < count && compare(left, largest) > 0) {
+        largest = left;
+      }
+      if (right < count && compare(right, largest) > 0) {
+        largest = right;
+      }
+      if (largest == node) {
+        return;
+      }
+      swap(node, largest);
+      node = largest;
+    }
+  }
+
+  private int compare(int a, int b) {
+    int result = Long.compare(slots[a * 2], slots[b * 2]);
+    return result != 0 ? result : Long.compare(slots[a * 2 + 1], slots[b * 2 + 1]);
+  }
+
+  private void swap(int a, int b) {
+    long high = slots[a * 2];
+    long low = slots[a * 2 + 1];
+    slots[a * 2] = slots[b * 2];
+    slots[a * 2 + 1] = slots[b * 2 + 1];
+    slots[b * 2] = high;
+    slots[b * 2 + 1] = low;
+    if (withValues) {
+      long value = values[a];
+      values[a] = values[b];
+      values[b] = value;
+    }
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.uniquerowsbyhashset;
+
+import com.google.common.io.CountingOutputStream;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+
+/**
+ * The compared values of the unique rows, appended to a temporary file. The position of the values
+ * in the file is kept with their fingerprint, so that a matching fingerprint can be confirmed by
+ * comparing the values themselves.
+ */
+class KeyValueLog implements Closeable {
+  private final Path file;
+  private final IRowMeta keyRowMeta;
+  private final CountingOutputStream counter;
+  private final DataOutputStream out;
+  private final FileChannel channel;
+  private boolean flushed = true;
+
+  /**
+   * @param directory The directory of the temporary file
+   * @param keyRowMeta The metadata of the compared values
+   * @throws IOException In case the file can't be created
+   */
+  KeyValueLog(Path directory, IRowMeta keyRowMeta) throws IOException {
+    this.keyRowMeta = keyRowMeta;
+    this.file = Files.createTempFile(directory, "unique-rows-", ".tmp");
+    try {
+      this.counter =
+          new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 65536));
+      this.out = new DataOutputStream(counter);
+      this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    } catch (IOException e) {
+      Files.deleteIfExists(file);
+      throw e;
+    }
+  }
+
+  /**
+   * @param keyValues The compared values of a row
+   * @return The position of the values in the file
+   * @throws HopException In case the values can't be written
+   */
+  long append(Object[] keyValues) throws HopException {
+    long position = counter.getCount();
+    keyRowMeta.writeData(out, keyValues);
+    flushed = false;
+    return position;
+  }
+
+  /**
+   * @param position The position returned when the values were appended
+   * @return The compared values
+   * @throws HopException In case the values can't be read
+   */
+  Object[] read(long position) throws HopException {
+    try {
+      if (!flushed) {
+        out.flush();
+        flushed = true;
+      }
+      channel.position(position);
+      // The stream isn't closed, that would close the channel
+      DataInputStream in =
+          new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 1024));
+      return keyRowMeta.readData(in);
+    } catch (IOException e) {
+      throw new HopException("Unable to read compared values from file " + file, e);
+    }
+  }
+
+  /** Close and delete the file. */
+  @Override
+  public void close() throws IOException {
+    try {
+      out.close();
+    } finally {
+      try {
+        channel.close();
+      } finally {
+        Files.deleteIfExists(file);
+      }
+    }
+  }
+}
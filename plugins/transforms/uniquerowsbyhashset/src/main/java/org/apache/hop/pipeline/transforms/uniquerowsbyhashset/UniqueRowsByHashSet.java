@@ -17,9 +17,18 @@
 
 package org.apache.hop.pipeline.transforms.uniquerowsbyhashset;
 
+import com.google.common.hash.HashCode;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import org.apache.hop.core.Const;
 import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.RowMeta;
 import org.apache.hop.core.util.Utils;
 import org.apache.hop.i18n.BaseMessages;
+import org.apache.hop.pipeline.HashPartitioner;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
@@ -39,8 +48,132 @@ public class UniqueRowsByHashSet
     super(transformMeta, meta, data, copyNr, pipelineMeta, pipeline);
   }
 
-  private boolean isUniqueRow(Object[] row) {
-    return data.seen.add(new RowKey(row, data));
+  private boolean isUniqueRow(Object[] row) throws HopException {
+    if (!data.compactMode) {
+      return data.seen.add(new RowKey(row, data));
+    }
+
+    HashCode fingerprint = fingerprint(row);
+    long high = fingerprint.asLong();
+    long low = ByteBuffer.wrap(fingerprint.asBytes()).order(ByteOrder.LITTLE_ENDIAN).getLong(8);
+
+    long position = findFingerprint(high, low);
+    if (position != FingerprintSet.NOT_FOUND) {
+      return data.verifyKeyValues && isUniqueKey(row, position);
+    }
+    data.fingerprints.add(
+        high, low, data.verifyKeyValues ? data.keyValueLog.append(getKeyValues(row)) : 0L);
+
+    if (data.fingerprints.size() >= data.maxKeysInMemory || data.fingerprints.isFull()) {
+      spillFingerprints();
+    }
+    return true;
+  }
+
+  /**
+   * @return The fingerprint of the compared values of a row
+   */
+  HashCode fingerprint(Object[] row) throws HopValueException {
+    return HashPartitioner.fingerprint(data.inputRowMeta, row, data.keyIndexes);
+  }
+
+  /**
+   * @return The value kept with the fingerprint in memory or in a temporary file, or {@link
+   *     FingerprintSet#NOT_FOUND}
+   */
+  private long findFingerprint(long high, long low) throws HopException {
+    long position = data.fingerprints.get(high, low);
+    try {
+      for (int i = 0; i < data.spilledRuns.size() && position == FingerprintSet.NOT_FOUND; i++) {
+        position = data.spilledRuns.get(i).get(high, low);
+      }
+    } catch (IOException e) {
+      throw new HopException(
+          BaseMessages.getString(PKG, "UniqueRowsByHashSet.Exception.UnableToReadTempFile"), e);
+    }
+    return position;
+  }
+
+  /**
+   * Compare the values of a row with a known fingerprint to the values stored with that
+   * fingerprint. Different values with the same fingerprint are kept in memory, there are hardly
+   * ever any.
+   *
+   * @param row The row
+   * @param position The position of the values stored with the fingerprint
+   * @return true if the row has values which weren't seen before
+   */
+  private boolean isUniqueKey(Object[] row, long position) throws HopException {
+    Object[] keyValues = getKeyValues(row);
+    if (data.keyRowMeta.compare(keyValues, data.keyValueLog.read(position)) == 0) {
+      return false;
+    }
+    for (Object[] collidingValues : data.collidingKeyValues) {
+      if (data.keyRowMeta.compare(keyValues, collidingValues) == 0) {
+        return false;
+      }
+    }
+    data.collidingKeyValues.add(keyValues);
+    if (isDetailed()) {
+      logDetailed(
+          BaseMessages.getString(
+              PKG,
+              "UniqueRowsByHashSet.Log.FingerprintCollision",
+              data.keyRowMeta.getString(keyValues)));
+    }
+    return true;
+  }
+
+  private Object[] getKeyValues(Object[] row) {
+    Object[] keyValues = new Object[data.keyIndexes.length];
+    for (int i = 0; i < data.keyIndexes.length; i++) {
+      keyValues[i] = row[data.keyIndexes[i]];
+    }
+    return keyValues;
+  }
+
+  /** Write the fingerprints in memory to a temporary file to make room for new ones. */
+  private void spillFingerprints() throws HopException {
+    try {
+      FingerprintRun run =
+          FingerprintRun.spill(
+              data.fingerprints, Path.of(data.spillDirectory), data.useBloomFilter);
+      data.spilledRuns.add(run);
+      if (isDetailed()) {
+        logDetailed(
+            BaseMessages.getString(
+                PKG,
+                "UniqueRowsByHashSet.Log.FingerprintsSpilled",
+                run.size(),
+                data.spilledRuns.size()));
+      }
+    } catch (IOException e) {
+      throw new HopException(
+          BaseMessages.getString(
+              PKG, "UniqueRowsByHashSet.Exception.UnableToWriteTempFile", data.spillDirectory),
+          e);
+    }
+  }
+
+  private void closeSpilledRuns() {
+    for (FingerprintRun run : data.spilledRuns) {
+      try {
+        run.close();
+      } catch (IOException e) {
+        logError(BaseMessages.getString(PKG, "UniqueRowsByHashSet.Log.UnableToDeleteTempFile"), e);
+      }
+    }
+    data.spilledRuns.clear();
+    if (data.keyValueLog != null) {
+      try {
+        data.keyValueLog.close();
+      } catch (IOException e) {
+        logError(BaseMessages.getString(PKG, "UniqueRowsByHashSet.Log.UnableToDeleteTempFile"), e);
+      }
+      data.keyValueLog = null;
+    }
+    data.collidingKeyValues.clear();
+    data.fingerprints = null;
   }
 
   @Override
@@ -50,6 +183,7 @@ public class UniqueRowsByHashSet
     if (r == null) { // no more input to be expected...
 
       data.clearHashSet();
+      closeSpilledRuns();
       setOutputDone();
       return false;
     }
@@ -88,6 +222,33 @@ public class UniqueRowsByHashSet
       if (data.sendDuplicateRows && !Utils.isEmpty(meta.getErrorDescription())) {
         data.realErrorDescription = resolve(meta.getErrorDescription());
       }
+
+      if (data.compactMode) {
+        // No fields means the complete row is compared
+        data.keyIndexes = data.fieldnrs;
+        if (data.keyIndexes.length == 0) {
+          data.keyIndexes = new int[data.inputRowMeta.size()];
+          for (int i = 0; i < data.keyIndexes.length; i++) {
+            data.keyIndexes[i] = i;
+          }
+        }
+        if (data.verifyKeyValues) {
+          data.keyRowMeta = new RowMeta();
+          for (int keyIndex : data.keyIndexes) {
+            data.keyRowMeta.addValueMeta(data.inputRowMeta.getValueMeta(keyIndex).clone());
+          }
+          try {
+            data.keyValueLog = new KeyValueLog(Path.of(data.spillDirectory), data.keyRowMeta);
+          } catch (IOException e) {
+            throw new HopException(
+                BaseMessages.getString(
+                    PKG,
+                    "UniqueRowsByHashSet.Exception.UnableToWriteTempFile",
+                    data.spillDirectory),
+                e);
+          }
+        }
+      }
     }
 
     if (isUniqueRow(r)) {
@@ -120,8 +281,39 @@ public class UniqueRowsByHashSet
       // Add init code here.
       data.sendDuplicateRows =
           getTransformMeta().getTransformErrorMeta() != null && meta.supportsErrorHandling();
+
+      data.compactMode = meta.isCompactMode();
+      if (data.compactMode) {
+        data.verifyKeyValues = meta.isVerifyKeyValues();
+        data.maxKeysInMemory = Const.toInt(resolve(meta.getMaxKeysInMemory()), 0);
+        if (data.maxKeysInMemory <= 0) {
+          // Like sorting, use at most a quarter of the free memory unless told otherwise
+          Runtime runtime = Runtime.getRuntime();
+          long freeMemory = runtime.freeMemory() + runtime.maxMemory() - runtime.totalMemory();
+          data.maxKeysInMemory =
+              FingerprintSet.maxSizeInMemory(freeMemory / 4, data.verifyKeyValues);
+          if (isDetailed()) {
+            logDetailed(
+                BaseMessages.getString(
+                    PKG, "UniqueRowsByHashSet.Log.MaxKeysInMemory", data.maxKeysInMemory));
+          }
+        }
+        data.useBloomFilter = meta.isUseBloomFilter();
+        data.spillDirectory = resolve(meta.getSpillDirectory());
+        if (Utils.isEmpty(data.spillDirectory)) {
+          data.spillDirectory = System.getProperty("java.io.tmpdir");
+        }
+        // The table grows with the number of keys, up to the maximum
+        data.fingerprints = new FingerprintSet(1024, data.verifyKeyValues);
+      }
       return true;
     }
     return false;
   }
+
+  @Override
+  public void dispose() {
+    closeSpilledRuns();
+    super.dispose();
+  }
 }
@@ -17,7 +17,9 @@
 
 package org.apache.hop.pipeline.transforms.uniquerowsbyhashset;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
@@ -34,6 +36,26 @@ public class UniqueRowsByHashSetData extends BaseTransformData implements ITrans
 
   public HashSet<RowKey> seen = new HashSet<>();
 
+  /*
+   * Compact mode: fingerprints of the compared values, in memory and spilled to temporary files
+   */
+  public boolean compactMode;
+  public int[] keyIndexes;
+  public int maxKeysInMemory;
+  public boolean useBloomFilter;
+  public String spillDirectory;
+  FingerprintSet fingerprints;
+  List<FingerprintRun> spilledRuns = new ArrayList<>();
+
+  /*
+   * Compact mode with verified fingerprints: the compared values of the unique rows in a temporary
+   * file, and the values of rows with a fingerprint which was taken by other values
+   */
+  public boolean verifyKeyValues;
+  public IRowMeta keyRowMeta;
+  KeyValueLog keyValueLog;
+  List<Object[]> collidingKeyValues = new ArrayList<>();
+
   public UniqueRowsByHashSetData() {
     super();
   }
@@ -57,6 +57,20 @@ public class UniqueRowsByHashSetDialog extends BaseTransformDialog {
 
   private Button wStoreValues;
 
+  private Button wCompactMode;
+
+  private Label wlVerifyKeyValues;
+  private Button wVerifyKeyValues;
+
+  private Label wlMaxKeysInMemory;
+  private TextVar wMaxKeysInMemory;
+
+  private Label wlBloomFilter;
+  private Button wBloomFilter;
+
+  private Label wlSpillDirectory;
+  private TextVar wSpillDirectory;
+
   private final List<String> inputFields = new ArrayList<>();
 
   private ColumnInfo[] colinf;
@@ -122,13 +136,127 @@ public class UniqueRowsByHashSetDialog extends BaseTransformDialog {
           }
         });
 
+    Label wlCompactMode = new Label(wSettings, SWT.RIGHT);
+    wlCompactMode.setText(
+        BaseMessages.getString(PKG, "UniqueRowsByHashSetDialog.CompactMode.Label"));
+    PropsUi.setLook(wlCompactMode);
+    FormData fdlCompactMode = new FormData();
+    fdlCompactMode.left = new FormAttachment(0, 0);
+    fdlCompactMode.top = new FormAttachment(wStoreValues, margin);
+    fdlCompactMode.right = new FormAttachment(middle, -margin);
+    wlCompactMode.setLayoutData(fdlCompactMode);
+    wCompactMode = new Button(wSettings, SWT.CHECK);
+    PropsUi.setLook(wCompactMode);
+    wCompactMode.setToolTipText(
+        BaseMessages.getString(PKG, "UniqueRowsByHashSetDialog.CompactMode.ToolTip"));
+    FormData fdCompactMode = new FormData();
+    fdCompactMode.left = new FormAttachment(middle, 0);
+    fdCompactMode.top = new FormAttachment(wlCompactMode, 0, SWT.CENTER);
+    wCompactMode.setLayoutData(fdCompactMode);
+    wCompactMode.addSelectionListener(
+        new SelectionAdapter() {
+          @Override
+          public void widgetSelected(SelectionEvent e) {
+            input.setChanged();
+            setCompactMode();
+          }
+        });
+
+    wlVerifyKeyValues = new Label(wSettings, SWT.RIGHT);
+    wlVerifyKeyValues.setText(
+        BaseMessages.getString(PKG, "UniqueRowsByHashSetDialog.VerifyKeyValues.Label"));
+    PropsUi.setLook(wlVerifyKeyValues);
+    FormData fdlVerifyKeyValues = new FormData();
+    fdlVerifyKeyValues.left = new FormAttachment(0, 0);
+    fdlVerifyKeyValues.top = new FormAttachment(wCompactMode, margin);
+    fdlVerifyKeyValues.right = new FormAttachment(middle, -margin);
+    wlVerifyKeyValues.setLayoutData(fdlVerifyKeyValues);
+    wVerifyKeyValues = new Button(wSettings, SWT.CHECK);
+    PropsUi.setLook(wVerifyKeyValues);
+    wVerifyKeyValues.setToolTipText(
+        BaseMessages.getString(PKG, "UniqueRowsByHashSetDialog.VerifyKeyValues.ToolTip"));
+    FormData fdVerifyKeyValues = new FormData();
+    fdVerifyKeyValues.left = new FormAttachment(middle, 0);
+    fdVerifyKeyValues.top = new FormAttachment(wlVerifyKeyValues, 0, SWT.CENTER);
+    wVerifyKeyValues.setLayoutData(fdVerifyKeyValues);
+    wVerifyKeyValues.addSelectionListener(
+        new SelectionAdapter() {
+          @Override
+          public void widgetSelected(SelectionEvent e) {
+            input.setChanged();
+          }
+        });
+
+    wlMaxKeysInMemory = new Label(wSettings, SWT.RIGHT);
+    wlMaxKeysInMemory.setText(
+        BaseMessages.getString(PKG, "UniqueRowsByHashSetDialog.MaxKeysInMemory.Label"));
+    PropsUi.setLook(wlMaxKeysInMemory);
+    FormData fdlMaxKeysInMemory = new FormData();
+    fdlMaxKeysInMemory.left = new FormAttachment(0, 0);
+    fdlMaxKeysInMemory.top = new FormAttachment(wVerifyKeyValues, margin);
+    fdlMaxKeysInMemory.right = new FormAttachment(middle, -margin);
+    wlMaxKeysInMemory.setLayoutData(fdlMaxKeysInMemory);
+    wMaxKeysInMemory = new TextVar(variables, wSettings, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    PropsUi.setLook(wMaxKeysInMemory);
+    wMaxKeysInMemory.setToolTipText(
+        BaseMessages.getString(PKG, "UniqueRowsByHashSetDialog.MaxKeysInMemory.ToolTip"));
+    wMaxKeysInMemory.addModifyListener(lsMod);
+    FormData fdMaxKeysInMemory = new FormData();
+    fdMaxKeysInMemory.left = new FormAttachment(middle, 0);
+    fdMaxKeysInMemory.top = new FormAttachment(wVerifyKeyValues, margin);
+    fdMaxKeysInMemory.right = new FormAttachment(100, 0);
+    wMaxKeysInMemory.setLayoutData(fdMaxKeysInMemory);
+
+    wlBloomFilter = new Label(wSettings, SWT.RIGHT);
+    wlBloomFilter.setText(
+        BaseMessages.getString(PKG, "UniqueRowsByHashSetDialog.BloomFilter.Label"));
+    PropsUi.setLook(wlBloomFilter);
+    FormData fdlBloomFilter = new FormData();
+    fdlBloomFilter.left = new FormAttachment(0, 0);
+    fdlBloomFilter.top = new FormAttachment(wMaxKeysInMemory, margin);
+    fdlBloomFilter.right = new FormAttachment(middle, -margin);
+    wlBloomFilter.setLayoutData(fdlBloomFilter);
+    wBloomFilter = new Button(wSettings, SWT.CHECK);
+    PropsUi.setLook(wBloomFilter);
+    wBloomFilter.setToolTipText(
+        BaseMessages.getString(PKG, "UniqueRowsByHashSetDialog.BloomFilter.ToolTip"));
+    FormData fdBloomFilter = new FormData();
+    fdBloomFilter.left = new FormAttachment(middle, 0);
+    fdBloomFilter.top = new FormAttachment(wlBloomFilter, 0, SWT.CENTER);
+    wBloomFilter.setLayoutData(fdBloomFilter);
+    wBloomFilter.addSelectionListener(
+        new SelectionAdapter() {
+          @Override
+          public void widgetSelected(SelectionEvent e) {
+            input.setChanged();
+          }
+        });
+
+    wlSpillDirectory = new Label(wSettings, SWT.RIGHT);
+    wlSpillDirectory.setText(
+        BaseMessages.getString(PKG, "UniqueRowsByHashSetDialog.SpillDirectory.Label"));
+    PropsUi.setLook(wlSpillDirectory);
+    FormData fdlSpillDirectory = new FormData();
+    fdlSpillDirectory.left = new FormAttachment(0, 0);
+    fdlSpillDirectory.top = new FormAttachment(wBloomFilter, margin);
+    fdlSpillDirectory.right = new FormAttachment(middle, -margin);
+    wlSpillDirectory.setLayoutData(fdlSpillDirectory);
+    wSpillDirectory = new TextVar(variables, wSettings, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    PropsUi.setLook(wSpillDirectory);
+    wSpillDirectory.addModifyListener(lsMod);
+    FormData fdSpillDirectory = new FormData();
+    fdSpillDirectory.left = new FormAttachment(middle, 0);
+    fdSpillDirectory.top = new FormAttachment(wBloomFilter, margin);
+    fdSpillDirectory.right = new FormAttachment(100, 0);
+    wSpillDirectory.setLayoutData(fdSpillDirectory);
+
     Label wlRejectDuplicateRow = new Label(wSettings, SWT.RIGHT);
     wlRejectDuplicateRow.setText(
         BaseMessages.getString(PKG, "UniqueRowsByHashSetDialog.RejectDuplicateRow.Label"));
     PropsUi.setLook(wlRejectDuplicateRow);
     FormData fdlRejectDuplicateRow = new FormData();
     fdlRejectDuplicateRow.left = new FormAttachment(0, 0);
-    fdlRejectDuplicateRow.top = new FormAttachment(wStoreValues, margin);
+    fdlRejectDuplicateRow.top = new FormAttachment(wSpillDirectory, margin);
     fdlRejectDuplicateRow.right = new FormAttachment(middle, -margin);
     wlRejectDuplicateRow.setLayoutData(fdlRejectDuplicateRow);
     wRejectDuplicateRow = new Button(wSettings, SWT.CHECK);
@@ -155,14 +283,14 @@ public class UniqueRowsByHashSetDialog extends BaseTransformDialog {
     PropsUi.setLook(wlErrorDesc);
     FormData fdlErrorDesc = new FormData();
     fdlErrorDesc.left = new FormAttachment(wRejectDuplicateRow, margin);
-    fdlErrorDesc.top = new FormAttachment(wStoreValues, margin);
+    fdlErrorDesc.top = new FormAttachment(wSpillDirectory, margin);
     wlErrorDesc.setLayoutData(fdlErrorDesc);
     wErrorDesc = new TextVar(variables, wSettings, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
     PropsUi.setLook(wErrorDesc);
     wErrorDesc.addModifyListener(lsMod);
     FormData fdErrorDesc = new FormData();
     fdErrorDesc.left = new FormAttachment(wlErrorDesc, margin);
-    fdErrorDesc.top = new FormAttachment(wStoreValues, margin);
+    fdErrorDesc.top = new FormAttachment(wSpillDirectory, margin);
     fdErrorDesc.right = new FormAttachment(100, 0);
     wErrorDesc.setLayoutData(fdErrorDesc);
 
@@ -236,6 +364,7 @@ public class UniqueRowsByHashSetDialog extends BaseTransformDialog {
 
     getData();
     setErrorDesc();
+    setCompactMode();
     input.setChanged(changed);
     focusTransformName();
     BaseDialog.defaultShellHandling(shell, c -> ok(), c -> cancel());
@@ -248,6 +377,20 @@ public class UniqueRowsByHashSetDialog extends BaseTransformDialog {
     wErrorDesc.setEnabled(wRejectDuplicateRow.getSelection());
   }
 
+  private void setCompactMode() {
+    boolean compactMode = wCompactMode.getSelection();
+    // Without values only the fingerprints can be compared
+    wStoreValues.setEnabled(!compactMode);
+    wlVerifyKeyValues.setEnabled(compactMode);
+    wVerifyKeyValues.setEnabled(compactMode);
+    wlMaxKeysInMemory.setEnabled(compactMode);
+    wMaxKeysInMemory.setEnabled(compactMode);
+    wlBloomFilter.setEnabled(compactMode);
+    wBloomFilter.setEnabled(compactMode);
+    wlSpillDirectory.setEnabled(compactMode);
+    wSpillDirectory.setEnabled(compactMode);
+  }
+
   protected void setComboBoxes() {
     // Something was changed in the row.
     //
@@ -258,6 +401,11 @@ public class UniqueRowsByHashSetDialog extends BaseTransformDialog {
   /** Copy information from the meta-data input to the dialog fields. */
   public void getData() {
     wStoreValues.setSelection(input.getStoreValues());
+    wCompactMode.setSelection(input.isCompactMode());
+    wVerifyKeyValues.setSelection(input.isVerifyKeyValues());
+    wMaxKeysInMemory.setText(Const.NVL(input.getMaxKeysInMemory(), ""));
+    wBloomFilter.setSelection(input.isUseBloomFilter());
+    wSpillDirectory.setText(Const.NVL(input.getSpillDirectory(), ""));
     wRejectDuplicateRow.setSelection(input.isRejectDuplicateRow());
     if (input.getErrorDescription() != null) {
       wErrorDesc.setText(input.getErrorDescription());
@@ -294,6 +442,11 @@ public class UniqueRowsByHashSetDialog extends BaseTransformDialog {
 
     transformName = wTransformName.getText(); // return value
     input.setStoreValues(wStoreValues.getSelection());
+    input.setCompactMode(wCompactMode.getSelection());
+    input.setVerifyKeyValues(wVerifyKeyValues.getSelection());
+    input.setMaxKeysInMemory(wMaxKeysInMemory.getText());
+    input.setUseBloomFilter(wBloomFilter.getSelection());
+    input.setSpillDirectory(wSpillDirectory.getText());
     input.setRejectDuplicateRow(wRejectDuplicateRow.getSelection());
     input.setErrorDescription(wErrorDesc.getText());
     dispose();
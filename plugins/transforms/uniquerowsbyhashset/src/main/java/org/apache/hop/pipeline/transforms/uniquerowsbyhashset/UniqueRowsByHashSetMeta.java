@@ -59,6 +59,24 @@ public class UniqueRowsByHashSetMeta
   private boolean rejectDuplicateRow;
   private String errorDescription;
 
+  /** Only keep 128-bit fingerprints of the compared values instead of the values */
+  private boolean compactMode;
+
+  /** Confirm a matching fingerprint by comparing the values, which are kept in a temporary file */
+  private boolean verifyKeyValues;
+
+  /**
+   * The maximum number of fingerprints kept in memory before they are written to a temporary file,
+   * empty to derive it from the free memory
+   */
+  private String maxKeysInMemory;
+
+  /** Check a Bloom filter before looking for a fingerprint in a temporary file */
+  private boolean useBloomFilter;
+
+  /** The directory of the temporary files with fingerprints */
+  private String spillDirectory;
+
   public UniqueRowsByHashSetMeta() {
     super(); // allocate BaseTransformMeta
   }
@@ -117,6 +135,78 @@ public class UniqueRowsByHashSetMeta
     return errorDescription;
   }
 
+  /**
+   * @return true if only fingerprints of the compared values are kept
+   */
+  public boolean isCompactMode() {
+    return compactMode;
+  }
+
+  /**
+   * @param compactMode true to only keep fingerprints of the compared values
+   */
+  public void setCompactMode(boolean compactMode) {
+    this.compactMode = compactMode;
+  }
+
+  /**
+   * @return true if a matching fingerprint is confirmed by comparing the values
+   */
+  public boolean isVerifyKeyValues() {
+    return verifyKeyValues;
+  }
+
+  /**
+   * @param verifyKeyValues true to confirm a matching fingerprint by comparing the values
+   */
+  public void setVerifyKeyValues(boolean verifyKeyValues) {
+    this.verifyKeyValues = verifyKeyValues;
+  }
+
+  /**
+   * @return The maximum number of fingerprints kept in memory, empty to derive it from the free
+   *     memory
+   */
+  public String getMaxKeysInMemory() {
+    return maxKeysInMemory;
+  }
+
+  /**
+   * @param maxKeysInMemory The maximum number of fingerprints kept in memory, empty to derive it
+   *     from the free memory
+   */
+  public void setMaxKeysInMemory(String maxKeysInMemory) {
+    this.maxKeysInMemory = maxKeysInMemory;
+  }
+
+  /**
+   * @return true if a Bloom filter is checked before reading a temporary file
+   */
+  public boolean isUseBloomFilter() {
+    return useBloomFilter;
+  }
+
+  /**
+   * @param useBloomFilter true to check a Bloom filter before reading a temporary file
+   */
+  public void setUseBloomFilter(boolean useBloomFilter) {
+    this.useBloomFilter = useBloomFilter;
+  }
+
+  /**
+   * @return The directory of the temporary files with fingerprints
+   */
+  public String getSpillDirectory() {
+    return spillDirectory;
+  }
+
+  /**
+   * @param spillDirectory The directory of the temporary files with fingerprints
+   */
+  public void setSpillDirectory(String spillDirectory) {
+    this.spillDirectory = spillDirectory;
+  }
+
   @Override
   public void loadXml(Node transformNode, IHopMetadataProvider metadataProvider)
       throws HopXmlException {
@@ -141,6 +231,12 @@ public class UniqueRowsByHashSetMeta
       rejectDuplicateRow =
           "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "reject_duplicate_row"));
       errorDescription = XmlHandler.getTagValue(transformNode, "error_description");
+      compactMode = "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "compact_mode"));
+      verifyKeyValues =
+          "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "verify_key_values"));
+      maxKeysInMemory = XmlHandler.getTagValue(transformNode, "max_keys_in_memory");
+      useBloomFilter = !"N".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "bloom_filter"));
+      spillDirectory = XmlHandler.getTagValue(transformNode, "spill_directory");
 
       Node fields = XmlHandler.getSubNode(transformNode, "fields");
       int nrFields = XmlHandler.countNodes(fields, CONST_FIELD);
@@ -166,6 +262,11 @@ public class UniqueRowsByHashSetMeta
     rejectDuplicateRow = false;
     errorDescription = null;
     storeValues = true;
+    compactMode = false;
+    verifyKeyValues = false;
+    maxKeysInMemory = null;
+    useBloomFilter = true;
+    spillDirectory = "${java.io.tmpdir}";
     int nrFields = 0;
 
     allocate(nrFields);
@@ -195,6 +296,11 @@ public class UniqueRowsByHashSetMeta
     retval.append(
         CONST_SPACES + XmlHandler.addTagValue("reject_duplicate_row", rejectDuplicateRow));
     retval.append(CONST_SPACES + XmlHandler.addTagValue("error_description", errorDescription));
+    retval.append(CONST_SPACES + XmlHandler.addTagValue("compact_mode", compactMode));
+    retval.append(CONST_SPACES + XmlHandler.addTagValue("verify_key_values", verifyKeyValues));
+    retval.append(CONST_SPACES + XmlHandler.addTagValue("max_keys_in_memory", maxKeysInMemory));
+    retval.append(CONST_SPACES + XmlHandler.addTagValue("bloom_filter", useBloomFilter));
+    retval.append(CONST_SPACES + XmlHandler.addTagValue("spill_directory", spillDirectory));
     retval.append("    <fields>");
     for (String compareField : compareFields) {
       retval.append("      <field>");
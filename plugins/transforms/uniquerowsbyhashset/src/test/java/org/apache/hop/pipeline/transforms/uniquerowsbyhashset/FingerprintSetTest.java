@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.uniquerowsbyhashset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FingerprintSetTest {
+
+  private static long[][] fingerprints(Random random, int count) {
+    long[][] fingerprints = new long[count][];
+    for (int i = 0; i < count; i++) {
+      fingerprints[i] = new long[] {random.nextLong(), random.nextLong()};
+    }
+    // Fingerprints which are hard to store in a table
+    fingerprints[0] = new long[] {0, 0};
+    fingerprints[1] = new long[] {0, 1};
+    fingerprints[2] = new long[] {1, 0};
+    fingerprints[3] = new long[] {fingerprints[4][0], fingerprints[4][1] + 1};
+    return fingerprints;
+  }
+
+  @Test
+  void testAddAndContains() {
+    long[][] fingerprints = fingerprints(new Random(1), 10000);
+    FingerprintSet set = new FingerprintSet(16);
+    for (long[] fingerprint : fingerprints) {
+      assertFalse(set.contains(fingerprint[0], fingerprint[1]));
+      assertTrue(set.add(fingerprint[0], fingerprint[1]));
+      assertTrue(set.contains(fingerprint[0], fingerprint[1]));
+    }
+    assertEquals(fingerprints.length, set.size());
+    assertFalse(set.isFull());
+    for (long[] fingerprint : fingerprints) {
+      assertFalse(set.add(fingerprint[0], fingerprint[1]));
+    }
+    assertEquals(fingerprints.length, set.size());
+    assertFalse(set.contains(42, 42));
+  }
+
+  @Test
+  void testDrainSorted() throws Exception {
+    long[][] fingerprints = fingerprints(new Random(2), 5000);
+    FingerprintSet set = new FingerprintSet(1024);
+    for (long[] fingerprint : fingerprints) {
+      set.add(fingerprint[0], fingerprint[1]);
+    }
+
+    List<long[]> drained = new ArrayList<>();
+    set.drainSorted((high, low, value) -> drained.add(new long[] {high, low}));
+
+    assertEquals(fingerprints.length, drained.size());
+    for (int i = 1; i < drained.size(); i++) {
+      long[] previous = drained.get(i - 1);
+      long[] current = drained.get(i);
+      assertTrue(previous[0] < current[0] || previous[0] == current[0] && previous[1] < current[1]);
+    }
+    assertEquals(0, set.size());
+    for (long[] fingerprint : fingerprints) {
+      assertFalse(set.contains(fingerprint[0], fingerprint[1]));
+    }
+  }
+
+  @Test
+  void testSpilledRun(@TempDir Path directory) throws Exception {
+    Random random = new Random(3);
+    for (boolean useBloomFilter : new boolean[] {false, true}) {
+      // Several blocks, the last one partially filled
+      long[][] fingerprints = fingerprints(random, FingerprintRun.BLOCK_SIZE * 3 + 17);
+      FingerprintSet set = new FingerprintSet(1024);
+      for (long[] fingerprint : fingerprints) {
+        set.add(fingerprint[0], fingerprint[1]);
+      }
+
+      Set<Path> filesBefore;
+      try (var files = Files.list(directory)) {
+        filesBefore = new HashSet<>(files.toList());
+      }
+      FingerprintRun run = FingerprintRun.spill(set, directory, useBloomFilter);
+      assertEquals(0, set.size());
+      assertEquals(fingerprints.length, run.size());
+      for (long[] fingerprint : fingerprints) {
+        assertTrue(run.contains(fingerprint[0], fingerprint[1]));
+      }
+      for (int i = 0; i < 10000; i++) {
+        assertFalse(run.contains(random.nextLong(), random.nextLong()));
+      }
+      assertFalse(run.contains(Long.MIN_VALUE, Long.MIN_VALUE));
+      assertFalse(run.contains(Long.MAX_VALUE, Long.MAX_VALUE));
+
+      run.close();
+      try (var files = Files.list(directory)) {
+        assertEquals(filesBefore, new HashSet<>(files.toList()));
+      }
+    }
+  }
+
+  @Test
+  void testValues(@TempDir Path directory) throws Exception {
+    long[][] fingerprints = fingerprints(new Random(4), FingerprintRun.BLOCK_SIZE * 2 + 5);
+    FingerprintSet set = new FingerprintSet(16, true);
+    for (int i = 0; i < fingerprints.length; i++) {
+      assertTrue(set.add(fingerprints[i][0], fingerprints[i][1], i * 10L));
+    }
+    assertFalse(set.add(fingerprints[3][0], fingerprints[3][1], 99L));
+    // The values move along when the table grows, also the value of 0, 0
+    for (int i = 0; i < fingerprints.length; i++) {
+      assertEquals(i * 10L, set.get(fingerprints[i][0], fingerprints[i][1]));
+    }
+    assertEquals(FingerprintSet.NOT_FOUND, set.get(42, 42));
+
+    // ... and when the fingerprints are sorted and spilled
+    try (FingerprintRun run = FingerprintRun.spill(set, directory, false)) {
+      for (int i = 0; i < fingerprints.length; i++) {
+        assertEquals(i * 10L, run.get(fingerprints[i][0], fingerprints[i][1]));
+      }
+      assertEquals(FingerprintSet.NOT_FOUND, run.get(42, 42));
+    }
+  }
+
+  @Test
+  void testMaxSizeInMemory() {
+    // 64 MiB holds a table of 2^21 slots of 16 bytes next to the previous one of 2^20 slots
+    int maxSize = FingerprintSet.maxSizeInMemory(64L << 20, false);
+    assertEquals((int) ((1 << 21) * 0.7) - 1, maxSize);
+    assertEquals((int) ((1 << 20) * 0.7) - 1, FingerprintSet.maxSizeInMemory(64L << 20, true));
+
+    // Never more than the largest table
+    assertEquals(
+        (int) (FingerprintSet.MAX_CAPACITY * 0.7) - 1,
+        FingerprintSet.maxSizeInMemory(Long.MAX_VALUE / 4, false));
+  }
+}
@@ -37,18 +37,37 @@ class UniqueRowsByHashSetMetaTest {
   @Test
   void testRoundTrip() throws HopException {
     List<String> attributes =
-        Arrays.asList("store_values", "reject_duplicate_row", "error_description", "name");
+        Arrays.asList(
+            "store_values",
+            "reject_duplicate_row",
+            "error_description",
+            "compact_mode",
+            "verify_key_values",
+            "max_keys_in_memory",
+            "bloom_filter",
+            "spill_directory",
+            "name");
 
     Map<String, String> getterMap = new HashMap<>();
     getterMap.put("store_values", "getStoreValues");
     getterMap.put("reject_duplicate_row", "isRejectDuplicateRow");
     getterMap.put("error_description", "getErrorDescription");
+    getterMap.put("compact_mode", "isCompactMode");
+    getterMap.put("verify_key_values", "isVerifyKeyValues");
+    getterMap.put("max_keys_in_memory", "getMaxKeysInMemory");
+    getterMap.put("bloom_filter", "isUseBloomFilter");
+    getterMap.put("spill_directory", "getSpillDirectory");
     getterMap.put("name", "getCompareFields");
 
     Map<String, String> setterMap = new HashMap<>();
     setterMap.put("store_values", "setStoreValues");
     setterMap.put("reject_duplicate_row", "setRejectDuplicateRow");
     setterMap.put("error_description", "setErrorDescription");
+    setterMap.put("compact_mode", "setCompactMode");
+    setterMap.put("verify_key_values", "setVerifyKeyValues");
+    setterMap.put("max_keys_in_memory", "setMaxKeysInMemory");
+    setterMap.put("bloom_filter", "setUseBloomFilter");
+    setterMap.put("spill_directory", "setSpillDirectory");
     setterMap.put("name", "setCompareFields");
 
     Map<String, IFieldLoadSaveValidator<?>> fieldLoadSaveValidatorAttributeMap = new HashMap<>();
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.uniquerowsbyhashset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.hash.HashCode;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.logging.ILoggingObject;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMetaBuilder;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironmentExtension;
+import org.apache.hop.metadata.api.IHopMetadataProvider;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+
+class UniqueRowsByHashSetTest {
+  @RegisterExtension
+  static RestoreHopEngineEnvironmentExtension env = new RestoreHopEngineEnvironmentExtension();
+
+  private final IRowMeta rowMeta =
+      new RowMetaBuilder().addString("user").addInteger("event").build();
+
+  private TransformMockHelper<UniqueRowsByHashSetMeta, UniqueRowsByHashSetData> mockHelper;
+
+  @BeforeEach
+  void setUp() {
+    mockHelper =
+        new TransformMockHelper<>(
+            "Unique", UniqueRowsByHashSetMeta.class, UniqueRowsByHashSetData.class);
+    when(mockHelper.logChannelFactory.create(any(), any(ILoggingObject.class)))
+        .thenReturn(mockHelper.iLogChannel);
+  }
+
+  @AfterEach
+  void tearDown() {
+    mockHelper.cleanUp();
+  }
+
+  private List<Object[]> unique(List<Object[]> input, UniqueRowsByHashSetMeta meta)
+      throws Exception {
+    return unique(input, meta, false);
+  }
+
+  /**
+   * @param fewFingerprints true to give many different rows the same fingerprint
+   */
+  private List<Object[]> unique(
+      List<Object[]> input, UniqueRowsByHashSetMeta meta, boolean fewFingerprints)
+      throws Exception {
+    UniqueRowsByHashSetData data = new UniqueRowsByHashSetData();
+    UniqueRowsByHashSet transform =
+        new UniqueRowsByHashSet(
+            mockHelper.transformMeta, meta, data, 0, mockHelper.pipelineMeta, mockHelper.pipeline) {
+          @Override
+          HashCode fingerprint(Object[] row) throws HopValueException {
+            if (fewFingerprints) {
+              // 128 bits, the first fingerprint is 0
+              return HashCode.fromBytes(ByteBuffer.allocate(16).putLong((Long) row[1] % 3).array());
+            }
+            return super.fingerprint(row);
+          }
+        };
+    transform.setMetadataProvider(mock(IHopMetadataProvider.class));
+
+    List<Object[]> output = mockHelper.processRows(transform, rowMeta, input);
+    assertTrue(data.spilledRuns.isEmpty());
+    assertNull(data.keyValueLog);
+    return output;
+  }
+
+  @Test
+  void testCompactModeWithSpilledFingerprints(@TempDir Path directory) throws Exception {
+    Random random = new Random(5);
+    List<Object[]> input = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      input.add(new Object[] {"user" + random.nextInt(100), (long) random.nextInt(30)});
+    }
+
+    UniqueRowsByHashSetMeta meta = new UniqueRowsByHashSetMeta();
+    meta.setDefault();
+    List<Object[]> expected = unique(input, meta);
+    assertTrue(expected.size() < input.size());
+
+    for (boolean useBloomFilter : new boolean[] {false, true}) {
+      for (String maxKeysInMemory : new String[] {null, "100"}) {
+        meta.setCompactMode(true);
+        meta.setUseBloomFilter(useBloomFilter);
+        meta.setMaxKeysInMemory(maxKeysInMemory);
+        meta.setSpillDirectory(directory.toString());
+
+        List<Object[]> output = unique(input, meta);
+        assertEquals(expected.size(), output.size());
+        for (int i = 0; i < expected.size(); i++) {
+          assertEquals(expected.get(i)[0], output.get(i)[0]);
+          assertEquals(expected.get(i)[1], output.get(i)[1]);
+        }
+        // The temporary files are gone
+        try (var files = Files.list(directory)) {
+          assertEquals(0, files.count());
+        }
+      }
+    }
+
+    // Verified fingerprints, also when different rows have the same fingerprint
+    meta.setVerifyKeyValues(true);
+    for (boolean fewFingerprints : new boolean[] {false, true}) {
+      for (String maxKeysInMemory : new String[] {null, "100"}) {
+        meta.setMaxKeysInMemory(maxKeysInMemory);
+        List<Object[]> output = unique(input, meta, fewFingerprints);
+        assertEquals(expected.size(), output.size());
+        for (int i = 0; i < expected.size(); i++) {
+          assertEquals(expected.get(i)[0], output.get(i)[0]);
+          assertEquals(expected.get(i)[1], output.get(i)[1]);
+        }
+        try (var files = Files.list(directory)) {
+          assertEquals(0, files.count());
+        }
+      }
+    }
+    // Without verifying, rows with the same fingerprint are removed
+    meta.setVerifyKeyValues(false);
+    assertEquals(3, unique(input, meta, true).size());
+
+    // Compare on one field only
+    meta.setCompareFields(new String[] {"user"});
+    meta.setMaxKeysInMemory("10");
+    assertEquals(100, unique(input, meta).size());
+  }
+}
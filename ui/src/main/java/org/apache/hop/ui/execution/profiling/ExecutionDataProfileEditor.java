@@ -35,11 +35,13 @@ import org.apache.hop.ui.core.gui.GuiCompositeWidgetsAdapter;
 import org.apache.hop.ui.core.gui.GuiResource;
 import org.apache.hop.ui.core.metadata.MetadataEditor;
 import org.apache.hop.ui.core.metadata.MetadataManager;
+import org.apache.hop.ui.core.widget.TextVar;
 import org.apache.hop.ui.hopgui.HopGui;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.layout.FormAttachment;
 import org.eclipse.swt.layout.FormData;
 import org.eclipse.swt.layout.FormLayout;
+import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Label;
@@ -62,6 +64,8 @@ public class ExecutionDataProfileEditor extends MetadataEditor<ExecutionDataProf
 
   private Text wName;
   private Text wDescription;
+  private Button wAsynchronousSampling;
+  private TextVar wSamplingBufferSize;
   private org.eclipse.swt.widgets.List wSamplers;
 
   private Composite wPluginSpecificComp;
@@ -131,6 +135,49 @@ public class ExecutionDataProfileEditor extends MetadataEditor<ExecutionDataProf
     wDescription.setLayoutData(fdDescription);
     lastControl = wDescription;
 
+    Label wlAsynchronousSampling = new Label(parent, SWT.RIGHT);
+    PropsUi.setLook(wlAsynchronousSampling);
+    wlAsynchronousSampling.setText(
+        BaseMessages.getString(PKG, "ExecutionDataProfileEditor.label.AsynchronousSampling"));
+    wlAsynchronousSampling.setToolTipText(
+        BaseMessages.getString(PKG, "ExecutionDataProfileEditor.tooltip.AsynchronousSampling"));
+    FormData fdlAsynchronousSampling = new FormData();
+    fdlAsynchronousSampling.top = new FormAttachment(lastControl, margin * 2);
+    fdlAsynchronousSampling.left = new FormAttachment(0, 0);
+    fdlAsynchronousSampling.right = new FormAttachment(middle, 0);
+    wlAsynchronousSampling.setLayoutData(fdlAsynchronousSampling);
+    wAsynchronousSampling = new Button(parent, SWT.CHECK | SWT.LEFT);
+    PropsUi.setLook(wAsynchronousSampling);
+    wAsynchronousSampling.setToolTipText(
+        BaseMessages.getString(PKG, "ExecutionDataProfileEditor.tooltip.AsynchronousSampling"));
+    FormData fdAsynchronousSampling = new FormData();
+    fdAsynchronousSampling.top = new FormAttachment(wlAsynchronousSampling, 0, SWT.CENTER);
+    fdAsynchronousSampling.left = new FormAttachment(middle, margin);
+    fdAsynchronousSampling.right = new FormAttachment(100, 0);
+    wAsynchronousSampling.setLayoutData(fdAsynchronousSampling);
+    lastControl = wlAsynchronousSampling;
+
+    Label wlSamplingBufferSize = new Label(parent, SWT.RIGHT);
+    PropsUi.setLook(wlSamplingBufferSize);
+    wlSamplingBufferSize.setText(
+        BaseMessages.getString(PKG, "ExecutionDataProfileEditor.label.SamplingBufferSize"));
+    FormData fdlSamplingBufferSize = new FormData();
+    fdlSamplingBufferSize.top = new FormAttachment(lastControl, margin * 2);
+    fdlSamplingBufferSize.left = new FormAttachment(0, 0);
+    fdlSamplingBufferSize.right = new FormAttachment(middle, 0);
+    wlSamplingBufferSize.setLayoutData(fdlSamplingBufferSize);
+    wSamplingBufferSize =
+        new TextVar(manager.getVariables(), parent, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    PropsUi.setLook(wSamplingBufferSize);
+    wSamplingBufferSize.setToolTipText(
+        BaseMessages.getString(PKG, "ExecutionDataProfileEditor.tooltip.SamplingBufferSize"));
+    FormData fdSamplingBufferSize = new FormData();
+    fdSamplingBufferSize.top = new FormAttachment(wlSamplingBufferSize, 0, SWT.CENTER);
+    fdSamplingBufferSize.left = new FormAttachment(middle, margin);
+    fdSamplingBufferSize.right = new FormAttachment(100, 0);
+    wSamplingBufferSize.setLayoutData(fdSamplingBufferSize);
+    lastControl = wSamplingBufferSize;
+
     Label wlSamplers = new Label(parent, SWT.LEFT);
     PropsUi.setLook(wlSamplers);
     wlSamplers.setText(BaseMessages.getString(PKG, "ExecutionDataProfileEditor.label.Samplers"));
@@ -197,6 +244,8 @@ public class ExecutionDataProfileEditor extends MetadataEditor<ExecutionDataProf
     Listener modifyListener = e -> setChanged();
     wName.addListener(SWT.Modify, modifyListener);
     wDescription.addListener(SWT.Modify, modifyListener);
+    wAsynchronousSampling.addListener(SWT.Selection, modifyListener);
+    wSamplingBufferSize.addListener(SWT.Modify, modifyListener);
     wSamplers.addListener(SWT.Selection, e -> addSamplerPluginWidgets());
   }
 
@@ -267,6 +316,8 @@ public class ExecutionDataProfileEditor extends MetadataEditor<ExecutionDataProf
 
     wName.setText(Const.NVL(workingProfile.getName(), ""));
     wDescription.setText(Const.NVL(workingProfile.getDescription(), ""));
+    wAsynchronousSampling.setSelection(workingProfile.isAsynchronousSampling());
+    wSamplingBufferSize.setText(Const.NVL(workingProfile.getSamplingBufferSize(), ""));
 
     // Add all the sampler plugins in the profile
     //
@@ -290,6 +341,8 @@ public class ExecutionDataProfileEditor extends MetadataEditor<ExecutionDataProf
 
     profile.setName(wName.getText());
     profile.setDescription(wDescription.getText());
+    profile.setAsynchronousSampling(wAsynchronousSampling.getSelection());
+    profile.setSamplingBufferSize(wSamplingBufferSize.getText());
 
     savePreviousSampler();
 
@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.ui.pipeline.dialog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.hop.core.plugins.IPlugin;
+import org.apache.hop.core.plugins.PartitionerPluginType;
+import org.apache.hop.core.plugins.PluginRegistry;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.util.Utils;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.i18n.BaseMessages;
+import org.apache.hop.pipeline.HashPartitioner;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.transform.BaseTransformMeta;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transform.TransformPartitioningMeta;
+import org.apache.hop.ui.core.PropsUi;
+import org.apache.hop.ui.core.dialog.BaseDialog;
+import org.apache.hop.ui.core.dialog.ErrorDialog;
+import org.apache.hop.ui.core.gui.GuiResource;
+import org.apache.hop.ui.core.widget.ColumnInfo;
+import org.apache.hop.ui.core.widget.TableView;
+import org.apache.hop.ui.pipeline.transform.BaseTransformDialog;
+import org.apache.hop.ui.util.HelpUtils;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.ModifyListener;
+import org.eclipse.swt.layout.FormAttachment;
+import org.eclipse.swt.layout.FormData;
+import org.eclipse.swt.layout.FormLayout;
+import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.TableItem;
+
+public class HashPartitionerDialog extends BaseTransformDialog {
+  private static final Class<?> PKG = PipelineDialog.class;
+
+  private TransformPartitioningMeta partitioningMeta;
+  private HashPartitioner partitioner;
+
+  private TableView wFields;
+
+  public HashPartitionerDialog(
+      Shell parent,
+      IVariables variables,
+      TransformMeta transformMeta,
+      TransformPartitioningMeta partitioningMeta,
+      PipelineMeta pipelineMeta) {
+    super(
+        parent,
+        variables,
+        (BaseTransformMeta) transformMeta.getTransform(),
+        pipelineMeta,
+        partitioningMeta.getPartitioner().getDescription());
+    this.transformMeta = transformMeta;
+    this.partitioningMeta = partitioningMeta;
+    partitioner = (HashPartitioner) partitioningMeta.getPartitioner();
+  }
+
+  @Override
+  public String open() {
+    Shell parent = getParent();
+
+    shell = new Shell(parent, SWT.DIALOG_TRIM | SWT.RESIZE | SWT.MIN | SWT.MAX);
+    PropsUi.setLook(shell);
+    setShellImage(shell);
+
+    ModifyListener lsMod = e -> partitioningMeta.hasChanged(true);
+    changed = partitioningMeta.hasChanged();
+
+    FormLayout formLayout = new FormLayout();
+    formLayout.marginWidth = PropsUi.getFormMargin();
+    formLayout.marginHeight = PropsUi.getFormMargin();
+
+    shell.setLayout(formLayout);
+    shell.setText(partitioner.getDescription());
+
+    int margin = PropsUi.getMargin();
+
+    // Some buttons
+    wOk = new Button(shell, SWT.PUSH);
+    wOk.setText(BaseMessages.getString(PKG, "System.Button.OK"));
+    wCancel = new Button(shell, SWT.PUSH);
+    wCancel.setText(BaseMessages.getString(PKG, "System.Button.Cancel"));
+
+    setButtonPositions(new Button[] {wOk, wCancel}, margin, null);
+
+    Label wlFields = new Label(shell, SWT.NONE);
+    wlFields.setText(BaseMessages.getString(PKG, "HashPartitionerDialog.Fields.Label"));
+    PropsUi.setLook(wlFields);
+    FormData fdlFields = new FormData();
+    fdlFields.left = new FormAttachment(0, 0);
+    fdlFields.top = new FormAttachment(0, margin);
+    wlFields.setLayoutData(fdlFields);
+
+    String[] fieldNames = new String[] {""};
+    try {
+      IRowMeta inputFields = pipelineMeta.getPrevTransformFields(variables, transformMeta);
+      if (inputFields != null) {
+        fieldNames = inputFields.getFieldNames();
+        Arrays.sort(fieldNames);
+      }
+    } catch (Exception e) {
+      new ErrorDialog(shell, "Error", "Error obtaining list of input fields:", e);
+    }
+
+    ColumnInfo[] columns =
+        new ColumnInfo[] {
+          new ColumnInfo(
+              BaseMessages.getString(PKG, "HashPartitionerDialog.ColumnInfo.Field"),
+              ColumnInfo.COLUMN_TYPE_CCOMBO,
+              fieldNames,
+              false),
+        };
+    wFields =
+        new TableView(
+            variables,
+            shell,
+            SWT.BORDER | SWT.FULL_SELECTION | SWT.MULTI,
+            columns,
+            partitioner.getFieldNames().size(),
+            lsMod,
+            props);
+    FormData fdFields = new FormData();
+    fdFields.left = new FormAttachment(0, 0);
+    fdFields.top = new FormAttachment(wlFields, margin);
+    fdFields.right = new FormAttachment(100, 0);
+    fdFields.bottom = new FormAttachment(wOk, -2 * margin);
+    wFields.setLayoutData(fdFields);
+
+    // Add listeners
+    wCancel.addListener(SWT.Selection, e -> cancel());
+    wOk.addListener(SWT.Selection, e -> ok());
+
+    getData();
+
+    partitioningMeta.hasChanged(changed);
+
+    BaseDialog.defaultShellHandling(shell, c -> ok(), c -> cancel());
+
+    return transformName;
+  }
+
+  /** Copy information from the meta-data input to the dialog fields. */
+  public void getData() {
+    List<String> fieldNames = partitioner.getFieldNames();
+    for (int i = 0; i < fieldNames.size(); i++) {
+      TableItem item = wFields.table.getItem(i);
+      item.setText(1, Utils.isEmpty(fieldNames.get(i)) ? "" : fieldNames.get(i));
+    }
+    wFields.optimizeTableView();
+  }
+
+  private void cancel() {
+    transformName = null;
+    partitioningMeta.hasChanged(changed);
+    dispose();
+  }
+
+  private void ok() {
+    List<String> fieldNames = new ArrayList<>();
+    for (TableItem item : wFields.getNonEmptyItems()) {
+      fieldNames.add(item.getText(1));
+    }
+    partitioner.setFieldNames(fieldNames);
+    dispose();
+  }
+
+  private void setShellImage(Shell shell) {
+    IPlugin plugin =
+        PluginRegistry.getInstance().getPlugin(PartitionerPluginType.class, partitioner.getId());
+    if (!Utils.isEmpty(plugin.getDocumentationUrl())) {
+      HelpUtils.createHelpButton(shell, plugin);
+    }
+
+    shell.setImage(GuiResource.getInstance().getImageHopUi());
+  }
+}
@@ -71,6 +71,8 @@ public class WebServiceEditor extends MetadataEditor<WebService> {
   private Button wListStatus;
   private TextVar wBodyContentVariable;
   private TextVar wHeaderContentVariable;
+  private TextVar wPipelinePoolSize;
+  private Button wWarmingUp;
 
   public WebServiceEditor(HopGui hopGui, MetadataManager<WebService> manager, WebService metadata) {
     super(hopGui, manager, metadata);
@@ -346,6 +348,51 @@ public class WebServiceEditor extends MetadataEditor<WebService> {
     wHeaderContentVariable.setLayoutData(fdHeaderContentVariable);
     lastControl = wlHeaderContentVariable;
 
+    // The number of parsed pipelines to keep around
+    //
+    Label wlPipelinePoolSize = new Label(parent, SWT.RIGHT);
+    PropsUi.setLook(wlPipelinePoolSize);
+    wlPipelinePoolSize.setText(
+        BaseMessages.getString(PKG, "WebServiceEditor.PipelinePoolSize.Label"));
+    wlPipelinePoolSize.setToolTipText(
+        BaseMessages.getString(PKG, "WebServiceEditor.PipelinePoolSize.Tooltip"));
+    FormData fdlPipelinePoolSize = new FormData();
+    fdlPipelinePoolSize.left = new FormAttachment(0, 0);
+    fdlPipelinePoolSize.right = new FormAttachment(middle, -margin);
+    fdlPipelinePoolSize.top = new FormAttachment(lastControl, 2 * margin);
+    wlPipelinePoolSize.setLayoutData(fdlPipelinePoolSize);
+    wPipelinePoolSize =
+        new TextVar(manager.getVariables(), parent, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wPipelinePoolSize.setToolTipText(
+        BaseMessages.getString(PKG, "WebServiceEditor.PipelinePoolSize.Tooltip"));
+    PropsUi.setLook(wPipelinePoolSize);
+    FormData fdPipelinePoolSize = new FormData();
+    fdPipelinePoolSize.left = new FormAttachment(middle, 0);
+    fdPipelinePoolSize.right = new FormAttachment(100, 0);
+    fdPipelinePoolSize.top = new FormAttachment(wlPipelinePoolSize, 0, SWT.CENTER);
+    wPipelinePoolSize.setLayoutData(fdPipelinePoolSize);
+    lastControl = wlPipelinePoolSize;
+
+    // Warm up the pool when the server starts?
+    //
+    Label wlWarmingUp = new Label(parent, SWT.RIGHT);
+    PropsUi.setLook(wlWarmingUp);
+    wlWarmingUp.setText(BaseMessages.getString(PKG, "WebServiceEditor.WarmingUp.Label"));
+    wlWarmingUp.setToolTipText(BaseMessages.getString(PKG, "WebServiceEditor.WarmingUp.Tooltip"));
+    FormData fdlWarmingUp = new FormData();
+    fdlWarmingUp.left = new FormAttachment(0, 0);
+    fdlWarmingUp.right = new FormAttachment(middle, -margin);
+    fdlWarmingUp.top = new FormAttachment(lastControl, 2 * margin);
+    wlWarmingUp.setLayoutData(fdlWarmingUp);
+    wWarmingUp = new Button(parent, SWT.CHECK | SWT.LEFT);
+    PropsUi.setLook(wWarmingUp);
+    FormData fdWarmingUp = new FormData();
+    fdWarmingUp.left = new FormAttachment(middle, 0);
+    fdWarmingUp.right = new FormAttachment(100, 0);
+    fdWarmingUp.top = new FormAttachment(wlWarmingUp, 0, SWT.CENTER);
+    wWarmingUp.setLayoutData(fdWarmingUp);
+    lastControl = wWarmingUp;
+
     setWidgetsContent();
 
     // Add listener to detect change after loading data
@@ -360,6 +407,8 @@ public class WebServiceEditor extends MetadataEditor<WebService> {
     wListStatus.addListener(SWT.Selection, modifyListener);
     wBodyContentVariable.addListener(SWT.Modify, modifyListener);
     wHeaderContentVariable.addListener(SWT.Modify, modifyListener);
+    wPipelinePoolSize.addListener(SWT.Modify, modifyListener);
+    wWarmingUp.addListener(SWT.Selection, modifyListener);
     wRunConfiguration.addListener(SWT.Selection, modifyListener);
   }
 
@@ -464,6 +513,8 @@ public class WebServiceEditor extends MetadataEditor<WebService> {
     wListStatus.setSelection(ws.isListingStatus());
     wBodyContentVariable.setText(Const.NVL(ws.getBodyContentVariable(), ""));
     wHeaderContentVariable.setText(Const.NVL(ws.getHeaderContentVariable(), ""));
+    wPipelinePoolSize.setText(Const.NVL(ws.getPipelinePoolSize(), ""));
+    wWarmingUp.setSelection(ws.isWarmingUp());
     try {
       wRunConfiguration.fillItems();
       wRunConfiguration.setText(Const.NVL(ws.getRunConfigurationName(), ""));
@@ -484,6 +535,8 @@ public class WebServiceEditor extends MetadataEditor<WebService> {
     ws.setListingStatus(wListStatus.getSelection());
     ws.setBodyContentVariable(wBodyContentVariable.getText());
     ws.setHeaderContentVariable(wHeaderContentVariable.getText());
+    ws.setPipelinePoolSize(wPipelinePoolSize.getText());
+    ws.setWarmingUp(wWarmingUp.getSelection());
     ws.setRunConfigurationName(wRunConfiguration.getText());
   }
 